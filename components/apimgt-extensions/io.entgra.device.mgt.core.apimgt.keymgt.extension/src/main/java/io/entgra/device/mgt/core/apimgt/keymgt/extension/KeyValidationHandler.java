@@ -184,7 +184,9 @@ public class KeyValidationHandler extends DefaultKeyValidationHandler {
         username = accessTokenInfo.getEndUserName();
         String tenantAwareUsername = MultitenantUtils.getTenantAwareUsername(username);
 
-        List<Permission> matchingPermissions;
+        String requestUri = validationContext.getContext();
+        String requestMethod = validationContext.getHttpVerb();
+        Permission matchingPermission;
         StringBuilder ctx = new StringBuilder();
         try {
             PermissionManagerService permissionManagerService = PermissionManagerServiceImpl.getInstance();
@@ -194,77 +196,19 @@ public class KeyValidationHandler extends DefaultKeyValidationHandler {
                 ctx.append(c);
             }
             ctx = new StringBuilder(ctxArr[0] + "/" + ctxArr[1] + "/" + ctxArr[2] + "/" + ctxArr[3]);
-            matchingPermissions = permissionManagerService.getPermission(ctx.toString());
+            matchingPermission = permissionManagerService.getPermission(ctx.toString(), requestUri, requestMethod);
         } catch (PermissionManagementException e) {
             log.error("Error occurred while fetching permissions for context " + ctx, e);
             return false;
         }
 
-        String requestUri = validationContext.getContext();
-        String requestMethod = validationContext.getHttpVerb();
-        String contextPath = ctx.toString();
-
-        if (matchingPermissions == null) {
-            if (log.isDebugEnabled()) {
-                log.debug("Permission to request '" + requestUri + "' is not defined in the configuration");
-            }
-            return false;
-        }
-
-        String requiredPermission = null;
-        List<MatchingResource> matchingResources = new ArrayList<>();
-        for (Permission permission : matchingPermissions) {
-            if (requestMethod.equals(permission.getMethod()) && requestUri.matches(permission.getUrlPattern())) {
-                if (requestUri.equals(permission.getUrl())) { // is there a exact match
-                    requiredPermission = permission.getPath();
-                    break;
-                } else { // all templated urls add to a list
-                    matchingResources.add(new MatchingResource(permission.getUrlPattern().replace(contextPath, ""), permission.getPath()));
-                }
-            }
-        }
-
-        if (requiredPermission == null) {
-            if (matchingResources.size() == 1) { // only 1 templated url found
-                requiredPermission = matchingResources.get(0).getPermission();
-            }
-
-            if (matchingResources.size() > 1) { // more than 1 templated urls found
-                String urlWithoutContext = requestUri.replace(contextPath, "");
-                StringTokenizer st = new StringTokenizer(urlWithoutContext, "/");
-                int tokenPosition = 1;
-                while (st.hasMoreTokens()) {
-                    List<MatchingResource> tempList = new ArrayList<>();
-                    String currentToken = st.nextToken();
-                    for (MatchingResource matchingResource : matchingResources) {
-                        StringTokenizer stmr = new StringTokenizer(matchingResource.getUrlPattern(), "/");
-                        int internalTokenPosition = 1;
-                        while (stmr.hasMoreTokens()) {
-                            String internalToken = stmr.nextToken();
-                            if ((tokenPosition == internalTokenPosition)  && currentToken.equals(internalToken)) {
-                                tempList.add(matchingResource);
-                            }
-                            internalTokenPosition++;
-                            if (tokenPosition < internalTokenPosition) {
-                                break;
-                            }
-                        }
-                    }
-                    if (tempList.size() == 1) {
-                        requiredPermission = tempList.get(0).getPermission();
-                        break;
-                    }
-                    tokenPosition++;
-                }
-            }
-        }
-
-        if (requiredPermission == null) {
+        if (matchingPermission == null || matchingPermission.getPath() == null) {
             if (log.isDebugEnabled()) {
                 log.debug("Matching permission not found for " + requestUri);
             }
             return false;
         }
+        String requiredPermission = matchingPermission.getPath();
 
         boolean isUserAuthorized;
         try {
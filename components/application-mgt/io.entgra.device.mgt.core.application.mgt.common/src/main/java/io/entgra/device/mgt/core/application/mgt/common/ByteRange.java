@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.application.mgt.common;
+
+/**
+ * A range of bytes of an artifact, as requested by the HTTP Range header. Only single ranges are supported, and a
+ * request for several ranges is served with the whole artifact.
+ */
+public class ByteRange {
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final long start;
+    private final long end;
+    private final long totalLength;
+
+    private ByteRange(long start, long end, long totalLength) {
+        this.start = start;
+        this.end = end;
+        this.totalLength = totalLength;
+    }
+
+    /**
+     * @param totalLength length of the artifact
+     * @return range which covers the whole artifact
+     */
+    public static ByteRange full(long totalLength) {
+        return new ByteRange(0, totalLength - 1, totalLength);
+    }
+
+    /**
+     * Resolve the value of a Range header against the length of the artifact.
+     *
+     * @param rangeHeader value of the Range header, may be null
+     * @param totalLength length of the artifact
+     * @return the requested range, the whole artifact if there is no range or it cannot be parsed, or null if the
+     * range is not satisfiable
+     */
+    public static ByteRange parse(String rangeHeader, long totalLength) {
+        if (rangeHeader == null || !rangeHeader.startsWith(BYTES_UNIT) || rangeHeader.indexOf(',') >= 0) {
+            return full(totalLength);
+        }
+        String spec = rangeHeader.substring(BYTES_UNIT.length()).trim();
+        int separator = spec.indexOf('-');
+        if (separator < 0) {
+            return full(totalLength);
+        }
+        try {
+            String first = spec.substring(0, separator).trim();
+            String last = spec.substring(separator + 1).trim();
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return full(totalLength);
+                }
+                long suffixLength = Long.parseLong(last);
+                if (suffixLength <= 0 || totalLength == 0) {
+                    return null;
+                }
+                return new ByteRange(Math.max(totalLength - suffixLength, 0), totalLength - 1, totalLength);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? totalLength - 1 : Math.min(Long.parseLong(last), totalLength - 1);
+            if (start < 0 || start >= totalLength || end < start) {
+                return null;
+            }
+            return new ByteRange(start, end, totalLength);
+        } catch (NumberFormatException e) {
+            return full(totalLength);
+        }
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public long getTotalLength() {
+        return totalLength;
+    }
+
+    public long getLength() {
+        return end - start + 1;
+    }
+
+    /**
+     * @return true if only a part of the artifact is covered, in which case it is served as partial content
+     */
+    public boolean isPartial() {
+        return getLength() < totalLength;
+    }
+
+    /**
+     * @return value of the Content-Range header of the partial content
+     */
+    public String getContentRange() {
+        return "bytes " + start + "-" + end + "/" + totalLength;
+    }
+
+    /**
+     * @param totalLength length of the artifact
+     * @return value of the Content-Range header of a response to an unsatisfiable range
+     */
+    public static String getUnsatisfiedContentRange(long totalLength) {
+        return "bytes */" + totalLength;
+    }
+}
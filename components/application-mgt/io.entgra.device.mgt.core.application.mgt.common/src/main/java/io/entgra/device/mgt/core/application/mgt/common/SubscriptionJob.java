@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.application.mgt.common;
+
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * Progress of an application subscription which is carried out in the background. The state is written by the
+ * worker which runs the subscription, and can be read from any thread while it runs.
+ */
+public class SubscriptionJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    @ApiModelProperty(name = "jobId", value = "Id to look up the progress of the subscription")
+    private final String jobId;
+
+    @ApiModelProperty(name = "applicationUUID", value = "UUID of the application release being subscribed")
+    private final String applicationUUID;
+
+    @ApiModelProperty(name = "subType", value = "Subscription type. i.e USER, ROLE, GROUP or DEVICE")
+    private final String subType;
+
+    @ApiModelProperty(name = "action", value = "Subscription action. i.e INSTALL or UNINSTALL")
+    private final String action;
+
+    private final transient int tenantId;
+
+    @ApiModelProperty(name = "createdBy", value = "User who submitted the subscription")
+    private final String createdBy;
+
+    @ApiModelProperty(name = "createdTime", value = "Time at which the subscription was submitted")
+    private final long createdTime;
+
+    @ApiModelProperty(name = "status", value = "Status of the subscription")
+    private volatile Status status = Status.QUEUED;
+
+    @ApiModelProperty(name = "totalDevices", value = "Number of devices to which the action is to be applied")
+    private volatile int totalDevices;
+
+    @ApiModelProperty(name = "processedDevices", value = "Number of devices to which the action has been applied")
+    private volatile int processedDevices;
+
+    @ApiModelProperty(name = "completedTime", value = "Time at which the subscription finished")
+    private volatile long completedTime;
+
+    @ApiModelProperty(name = "errorMessage", value = "Reason for the subscription to fail")
+    private volatile String errorMessage;
+
+    @ApiModelProperty(name = "response", value = "Result of the subscription once it has completed")
+    private volatile ApplicationInstallResponse response;
+
+    public SubscriptionJob(String jobId, String applicationUUID, String subType, String action, int tenantId,
+                           String createdBy) {
+        this.jobId = jobId;
+        this.applicationUUID = applicationUUID;
+        this.subType = subType;
+        this.action = action;
+        this.tenantId = tenantId;
+        this.createdBy = createdBy;
+        this.createdTime = System.currentTimeMillis();
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getApplicationUUID() {
+        return applicationUUID;
+    }
+
+    public String getSubType() {
+        return subType;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public int getTenantId() {
+        return tenantId;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public long getCreatedTime() {
+        return createdTime;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getTotalDevices() {
+        return totalDevices;
+    }
+
+    public int getProcessedDevices() {
+        return processedDevices;
+    }
+
+    public long getCompletedTime() {
+        return completedTime;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public ApplicationInstallResponse getResponse() {
+        return response;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public void start() {
+        this.status = Status.RUNNING;
+    }
+
+    public void setTotalDevices(int totalDevices) {
+        this.totalDevices = totalDevices;
+    }
+
+    /**
+     * Only called by the worker which runs the subscription, hence the count is not updated atomically.
+     *
+     * @param count number of devices to which the action has just been applied
+     */
+    public void addProcessedDevices(int count) {
+        this.processedDevices += count;
+    }
+
+    public void complete(ApplicationInstallResponse response) {
+        this.response = response;
+        this.completedTime = System.currentTimeMillis();
+        this.status = Status.COMPLETED;
+    }
+
+    public void fail(String errorMessage) {
+        this.errorMessage = errorMessage;
+        this.completedTime = System.currentTimeMillis();
+        this.status = Status.FAILED;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.application.mgt.common.config;
+
+import javax.xml.bind.annotation.XmlElement;
+
+/**
+ * Configuration of how application subscriptions of many devices are carried out.
+ */
+public class SubscriptionExecutionConfiguration {
+
+    private int chunkSize = 500;
+    private int workerCount = 2;
+    private int queueCapacity = 100;
+    private int jobRetentionTime = 3600;
+
+    /**
+     * @return number of devices which are given an operation and have their subscriptions updated at once
+     */
+    @XmlElement(name = "ChunkSize")
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return number of subscription jobs which are run at the same time
+     */
+    @XmlElement(name = "WorkerCount")
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    public void setWorkerCount(int workerCount) {
+        this.workerCount = workerCount;
+    }
+
+    /**
+     * @return number of subscription jobs which can wait for a worker
+     */
+    @XmlElement(name = "QueueCapacity")
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * @return time in seconds for which a finished subscription job can be looked up
+     */
+    @XmlElement(name = "JobRetentionTime")
+    public int getJobRetentionTime() {
+        return jobRetentionTime;
+    }
+
+    public void setJobRetentionTime(int jobRetentionTime) {
+        this.jobRetentionTime = jobRetentionTime;
+    }
+}
@@ -19,12 +19,14 @@
 package io.entgra.device.mgt.core.application.mgt.common.services;
 
 import io.entgra.device.mgt.core.application.mgt.common.ApplicationInstaller;
+import io.entgra.device.mgt.core.application.mgt.common.ByteRange;
 import io.entgra.device.mgt.core.application.mgt.common.dto.ApplicationReleaseDTO;
 import io.entgra.device.mgt.core.application.mgt.common.exception.ApplicationStorageManagementException;
 import io.entgra.device.mgt.core.application.mgt.common.exception.ResourceManagementException;
 import io.entgra.device.mgt.core.device.mgt.core.common.exception.StorageManagementException;
 
 import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
 
 /**
@@ -123,6 +125,34 @@ public interface ApplicationStorageManager {
      */
     InputStream getFileStream(String deviceType, String tenantDomain) throws ApplicationStorageManagementException;
 
+    /**
+     * Get the length of the file of an application release
+     *
+     * @param hashVal Hash Value of the application release.
+     * @param folderName Folder name file resides.
+     * @param fileName File name of the file.
+     * @param tenantId Tenant ID
+     * @return length of the file in bytes, or -1 if there is no such file
+     * @throws ApplicationStorageManagementException throws if an error occurs when accessing the file.
+     */
+    long getFileLength(String hashVal, String folderName, String fileName, int tenantId)
+            throws ApplicationStorageManagementException;
+
+    /**
+     * Transfer a range of the file of an application release to the target channel, without copying it through the
+     * heap where the target channel allows it.
+     *
+     * @param hashVal Hash Value of the application release.
+     * @param folderName Folder name file resides.
+     * @param fileName File name of the file.
+     * @param tenantId Tenant ID
+     * @param byteRange {@link ByteRange} of the file to transfer
+     * @param target Channel to transfer the file to
+     * @throws ApplicationStorageManagementException throws if an error occurs when accessing or transferring the file.
+     */
+    void transferFile(String hashVal, String folderName, String fileName, int tenantId, ByteRange byteRange,
+            WritableByteChannel target) throws ApplicationStorageManagementException;
+
     /**
      * Useful to generate MD5 string of {@link InputStream}
      *
@@ -18,11 +18,13 @@
 
 package io.entgra.device.mgt.core.application.mgt.common.services;
 
+import io.entgra.device.mgt.core.application.mgt.common.ByteRange;
 import io.entgra.device.mgt.core.application.mgt.common.config.LifecycleState;
 import io.entgra.device.mgt.core.application.mgt.common.exception.ApplicationManagementException;
 import io.entgra.device.mgt.core.application.mgt.common.exception.LifecycleManagementException;
 
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Map;
 
 public interface AppmDataHandler {
@@ -41,6 +43,32 @@ public interface AppmDataHandler {
     InputStream getArtifactStream(int tenantId, String appHashValue, String folderName, String artifactName)
             throws ApplicationManagementException;
 
+    /**
+     * Resolve the requested range of the Artifact, so that the response headers can be set before it is transferred
+     * @param tenantId Tenant Id
+     * @param appHashValue Hash Value of the application
+     * @param folderName Folder Name
+     * @param artifactName Artifact Name
+     * @param rangeHeader Value of the HTTP Range header of the request, may be null
+     * @return {@link ByteRange} to transfer, or null if the requested range is not satisfiable
+     * @throws ApplicationManagementException if the artifact doesn't exist or error occurred while accessing it
+     */
+    ByteRange getArtifactRange(int tenantId, String appHashValue, String folderName, String artifactName,
+            String rangeHeader) throws ApplicationManagementException;
+
+    /**
+     * Transfer a range of the Artifact to the output stream of the response
+     * @param tenantId Tenant Id
+     * @param appHashValue Hash Value of the application
+     * @param folderName Folder Name
+     * @param artifactName Artifact Name
+     * @param byteRange {@link ByteRange} of the artifact to transfer
+     * @param outputStream Output stream of the response
+     * @throws ApplicationManagementException if error occurred while transferring the artifact
+     */
+    void transferArtifact(int tenantId, String appHashValue, String folderName, String artifactName,
+            ByteRange byteRange, OutputStream outputStream) throws ApplicationManagementException;
+
     /**
      * Get agent apk
      *
@@ -21,6 +21,7 @@ import io.entgra.device.mgt.core.application.mgt.common.ApplicationInstallRespon
 import io.entgra.device.mgt.core.application.mgt.common.CategorizedSubscriptionResult;
 import io.entgra.device.mgt.core.application.mgt.common.ExecutionStatus;
 import io.entgra.device.mgt.core.application.mgt.common.SubscriptionInfo;
+import io.entgra.device.mgt.core.application.mgt.common.SubscriptionJob;
 import io.entgra.device.mgt.core.application.mgt.common.SubscriptionResponse;
 import io.entgra.device.mgt.core.application.mgt.common.SubscriptionStatistics;
 import io.entgra.device.mgt.core.application.mgt.common.SubscriptionType;
@@ -82,6 +83,38 @@ public interface SubscriptionManager {
                                                            boolean isOperationReExecutingDisabled)
             throws ApplicationManagementException;
 
+    /**
+     * Submits a bulk subscription operation to be carried out in the background, so that subscribing a large number
+     * of devices does not hold the caller. The request is validated before it is submitted.
+     *
+     * @param applicationUUID                UUID of the application to subscribe/unsubscribe
+     * @param params                         list of subscribers.
+     *                                       This list can be of either {@link DeviceIdentifier} if {@param subType} is equal to
+     *                                       DEVICE or {@link String} if {@param subType} is USER, ROLE or GROUP
+     * @param subType                        subscription type. E.g. <code>DEVICE, USER, ROLE, GROUP</code>
+     * @param action                         subscription action. E.g. <code>INSTALL/UNINSTALL</code>
+     * @param <T>                            generic type of the method.
+     * @param properties                     Application properties that need to be sent with operation payload to the device
+     * @param isOperationReExecutingDisabled To prevent adding the application subscribing operation to devices that are
+     *                                       already subscribed application successfully.
+     * @return {@link SubscriptionJob} which tracks the progress of the subscription
+     * @throws ApplicationManagementException if the request is invalid, or if it cannot be accepted as too many
+     *                                        subscriptions are pending
+     */
+    <T> SubscriptionJob performBulkAppOperationAsync(String applicationUUID, List<T> params, String subType,
+                                                     String action, Properties properties,
+                                                     boolean isOperationReExecutingDisabled)
+            throws ApplicationManagementException;
+
+    /**
+     * Get a subscription submitted by {@link #performBulkAppOperationAsync}.
+     *
+     * @param jobId id of the subscription job
+     * @return {@link SubscriptionJob}, or null if there is no such job of the current tenant, or it has finished before
+     * the retention time
+     */
+    SubscriptionJob getSubscriptionJob(String jobId);
+
     /**
      * Create an entry related to the scheduled task in the database.
      *
@@ -20,6 +20,7 @@ package io.entgra.device.mgt.core.application.mgt.core.config;
 import io.entgra.device.mgt.core.application.mgt.common.config.LifecycleState;
 import io.entgra.device.mgt.core.application.mgt.common.config.MDMConfig;
 import io.entgra.device.mgt.core.application.mgt.common.config.RatingConfiguration;
+import io.entgra.device.mgt.core.application.mgt.common.config.SubscriptionExecutionConfiguration;
 
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlElementWrapper;
@@ -44,6 +45,8 @@ public class Configuration {
 
     private MDMConfig mdmConfig;
 
+    private SubscriptionExecutionConfiguration subscriptionExecutionConfiguration;
+
     @XmlElement(name = "DatasourceName", required = true)
     public String getDatasourceName() {
         return datasourceName;
@@ -95,5 +98,14 @@ public class Configuration {
     public void setMdmConfig(MDMConfig mdmConfig) {
         this.mdmConfig = mdmConfig;
     }
-}
 
+    @XmlElement(name = "SubscriptionExecution")
+    public SubscriptionExecutionConfiguration getSubscriptionExecutionConfiguration() {
+        return subscriptionExecutionConfiguration;
+    }
+
+    public void setSubscriptionExecutionConfiguration(
+            SubscriptionExecutionConfiguration subscriptionExecutionConfiguration) {
+        this.subscriptionExecutionConfiguration = subscriptionExecutionConfiguration;
+    }
+}
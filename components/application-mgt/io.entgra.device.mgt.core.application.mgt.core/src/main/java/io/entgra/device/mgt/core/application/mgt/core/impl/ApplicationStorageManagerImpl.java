@@ -20,12 +20,14 @@ package io.entgra.device.mgt.core.application.mgt.core.impl;
 
 import com.dd.plist.NSDictionary;
 import io.entgra.device.mgt.core.application.mgt.common.ApplicationInstaller;
+import io.entgra.device.mgt.core.application.mgt.common.ByteRange;
 import io.entgra.device.mgt.core.application.mgt.common.DeviceTypes;
 import io.entgra.device.mgt.core.application.mgt.common.dto.ApplicationReleaseDTO;
 import io.entgra.device.mgt.core.application.mgt.common.exception.ApplicationStorageManagementException;
 import io.entgra.device.mgt.core.application.mgt.common.exception.ResourceManagementException;
 import io.entgra.device.mgt.core.application.mgt.common.services.ApplicationStorageManager;
 import io.entgra.device.mgt.core.application.mgt.core.exception.ParsingException;
+import io.entgra.device.mgt.core.application.mgt.core.util.ArtifactBlobStore;
 import io.entgra.device.mgt.core.application.mgt.core.util.ArtifactsParser;
 import io.entgra.device.mgt.core.application.mgt.core.util.Constants;
 import io.entgra.device.mgt.core.device.mgt.core.common.exception.StorageManagementException;
@@ -38,7 +40,12 @@ import org.apache.commons.logging.LogFactory;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 
 import static io.entgra.device.mgt.core.device.mgt.core.common.util.StorageManagementUtil.saveFile;
@@ -50,6 +57,7 @@ public class ApplicationStorageManagerImpl implements ApplicationStorageManager
     private static final Log log = LogFactory.getLog(ApplicationStorageManagerImpl.class);
     private String storagePath;
     private int screenShotMaxCount;
+    private ArtifactBlobStore artifactBlobStore;
 
     /**
      * Create a new ApplicationStorageManager Instance
@@ -60,6 +68,12 @@ public class ApplicationStorageManagerImpl implements ApplicationStorageManager
     public ApplicationStorageManagerImpl(String storagePath, String screenShotMaxCount) {
         this.storagePath = storagePath;
         this.screenShotMaxCount = Integer.parseInt(screenShotMaxCount);
+        try {
+            this.artifactBlobStore = new ArtifactBlobStore(Paths.get(storagePath, Constants.ARTIFACT_BLOB_DIRECTORY));
+        } catch (IOException e) {
+            log.error("Unable to create the artifact store in " + storagePath + ", hence release artifacts will not "
+                    + "be de-duplicated", e);
+        }
     }
 
     @Override
@@ -162,7 +176,16 @@ public class ApplicationStorageManagerImpl implements ApplicationStorageManager
                             + Constants.APP_ARTIFACT;
             StorageManagementUtil.createArtifactDirectory(artifactDirectoryPath);
             String artifactPath = artifactDirectoryPath + File.separator + applicationReleaseDTO.getInstallerName();
-            saveFile(binaryFile, artifactPath);
+            if (artifactBlobStore != null) {
+                String digest = artifactBlobStore.store(binaryFile, Paths.get(artifactPath));
+                if (log.isDebugEnabled()) {
+                    log.debug("Stored release artifact of application UUID " + applicationReleaseDTO.getUuid()
+                            + " with SHA-256 " + digest + ", which is referred to by "
+                            + artifactBlobStore.getReferenceCount(digest) + " releases");
+                }
+            } else {
+                saveFile(binaryFile, artifactPath);
+            }
         } catch (IOException e) {
             String msg = "IO Exception while saving the release artifacts in the server for the application UUID "
                     + applicationReleaseDTO.getUuid();
@@ -222,6 +245,7 @@ public class ApplicationStorageManagerImpl implements ApplicationStorageManager
                                         + File.separator + screenshot3);
             }
             deleteAppReleaseArtifact( basePath + deletingAppHashValue);
+            removeUnreferencedArtifacts();
         } catch (IOException e) {
             String msg = "Application installer updating is failed because of I/O issue";
             log.error(msg, e);
@@ -237,6 +261,7 @@ public class ApplicationStorageManagerImpl implements ApplicationStorageManager
         String artifactPath = storagePath + tenantId + File.separator + appReleaseHashVal + File.separator + folderName
                 + File.separator + fileName;
         deleteAppReleaseArtifact(artifactPath);
+        removeUnreferencedArtifacts();
     }
 
     @Override
@@ -246,6 +271,7 @@ public class ApplicationStorageManagerImpl implements ApplicationStorageManager
         for (String directoryPath : directoryPaths) {
             deleteAppReleaseArtifact(basePath + directoryPath);
         }
+        removeUnreferencedArtifacts();
     }
 
     @Override
@@ -278,6 +304,60 @@ public class ApplicationStorageManagerImpl implements ApplicationStorageManager
         }
     }
 
+    @Override
+    public long getFileLength(String hashVal, String folderName, String fileName, int tenantId)
+            throws ApplicationStorageManagementException {
+        Path filePath = Paths.get(getAbsolutePathOfFile(hashVal, folderName, fileName, tenantId));
+        if (!Files.isRegularFile(filePath)) {
+            return -1;
+        }
+        try {
+            return Files.size(filePath);
+        } catch (IOException e) {
+            String msg = "Error occurred when accessing the file in file path: " + filePath;
+            log.error(msg, e);
+            throw new ApplicationStorageManagementException(msg, e);
+        }
+    }
+
+    @Override
+    public void transferFile(String hashVal, String folderName, String fileName, int tenantId, ByteRange byteRange,
+            WritableByteChannel target) throws ApplicationStorageManagementException {
+        Path filePath = Paths.get(getAbsolutePathOfFile(hashVal, folderName, fileName, tenantId));
+        try (FileChannel fileChannel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long position = byteRange.getStart();
+            long end = byteRange.getEnd() + 1;
+            while (position < end) {
+                long transferred = fileChannel.transferTo(position, end - position, target);
+                if (transferred <= 0) {
+                    String msg = "File in file path: " + filePath + " ended at " + position + " while transferring "
+                            + byteRange.getContentRange();
+                    log.error(msg);
+                    throw new ApplicationStorageManagementException(msg);
+                }
+                position += transferred;
+            }
+        } catch (IOException e) {
+            String msg = "Error occurred when transferring the file in file path: " + filePath;
+            log.error(msg, e);
+            throw new ApplicationStorageManagementException(msg, e);
+        }
+    }
+
+    /**
+     * Remove the stored artifacts which are no longer referred to by any release. Failing to do so does not fail the
+     * deletion of the releases, as the artifacts are removed with the next deletion.
+     */
+    private void removeUnreferencedArtifacts() {
+        if (artifactBlobStore != null) {
+            try {
+                artifactBlobStore.removeUnreferencedBlobs();
+            } catch (IOException e) {
+                log.warn("Error occurred while removing artifacts which are no longer referred to by a release", e);
+            }
+        }
+    }
+
     /***
      * This method is responsible to  delete artifact file which is located in the artifact path.
      *
@@ -323,6 +403,7 @@ public class ApplicationStorageManagerImpl implements ApplicationStorageManager
                 throw new ApplicationStorageManagementException(
                         "Error occurred while deleting App folder of tenant:" + tenantId, e);
             }
+            removeUnreferencedArtifacts();
         }
     }
 
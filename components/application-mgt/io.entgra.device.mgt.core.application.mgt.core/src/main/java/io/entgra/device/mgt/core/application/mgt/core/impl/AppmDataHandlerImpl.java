@@ -18,6 +18,7 @@
 
 package io.entgra.device.mgt.core.application.mgt.core.impl;
 
+import io.entgra.device.mgt.core.application.mgt.common.ByteRange;
 import io.entgra.device.mgt.core.application.mgt.common.config.LifecycleState;
 import io.entgra.device.mgt.core.application.mgt.common.exception.ApplicationManagementException;
 import io.entgra.device.mgt.core.application.mgt.common.exception.ApplicationStorageManagementException;
@@ -36,6 +37,8 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
 import java.util.Map;
 
 public class AppmDataHandlerImpl implements AppmDataHandler {
@@ -74,6 +77,44 @@ public class AppmDataHandlerImpl implements AppmDataHandler {
         }
     }
 
+    @Override
+    public ByteRange getArtifactRange(int tenantId, String appHashValue, String folderName, String artifactName,
+            String rangeHeader) throws ApplicationManagementException {
+        ApplicationStorageManager applicationStorageManager = APIUtil.getApplicationStorageManager();
+        validateArtifactDownloadRequest(tenantId, appHashValue, folderName, artifactName);
+        try {
+            long fileLength = applicationStorageManager
+                    .getFileLength(appHashValue, folderName, artifactName, tenantId);
+            if (fileLength < 0) {
+                String msg = "Couldn't find the file in the file system. Tenant Id: " + tenantId + " App Has Value: "
+                        + appHashValue + " Folder Name: " + folderName + " Artifact name: " + artifactName;
+                log.error(msg);
+                throw new NotFoundException(msg);
+            }
+            return ByteRange.parse(rangeHeader, fileLength);
+        } catch (ApplicationStorageManagementException e) {
+            String msg = "Error occurred when getting the length of the " + artifactName + " file.";
+            log.error(msg, e);
+            throw new ApplicationManagementException(msg, e);
+        }
+    }
+
+    @Override
+    public void transferArtifact(int tenantId, String appHashValue, String folderName, String artifactName,
+            ByteRange byteRange, OutputStream outputStream) throws ApplicationManagementException {
+        ApplicationStorageManager applicationStorageManager = APIUtil.getApplicationStorageManager();
+        validateArtifactDownloadRequest(tenantId, appHashValue, folderName, artifactName);
+        try {
+            applicationStorageManager.transferFile(appHashValue, folderName, artifactName, tenantId, byteRange,
+                    Channels.newChannel(outputStream));
+        } catch (ApplicationStorageManagementException e) {
+            String msg = "Error occurred when transferring " + byteRange.getContentRange() + " of the "
+                    + artifactName + " file.";
+            log.error(msg, e);
+            throw new ApplicationManagementException(msg, e);
+        }
+    }
+
     /**
      * Validate the artifact downloading request
      * @param tenantId Tenat Id
@@ -25,6 +25,7 @@ import io.entgra.device.mgt.core.application.mgt.common.ApplicationType;
 import io.entgra.device.mgt.core.application.mgt.common.CategorizedSubscriptionResult;
 import io.entgra.device.mgt.core.application.mgt.common.DeviceSubscriptionData;
 import io.entgra.device.mgt.core.application.mgt.common.SubscriptionInfo;
+import io.entgra.device.mgt.core.application.mgt.common.SubscriptionJob;
 import io.entgra.device.mgt.core.application.mgt.common.SubscriptionResponse;
 import io.entgra.device.mgt.core.application.mgt.common.SubscriptionStatistics;
 import io.entgra.device.mgt.core.application.mgt.common.dto.CategorizedSubscriptionCountsDTO;
@@ -85,6 +86,7 @@ import io.entgra.device.mgt.core.application.mgt.core.exception.ForbiddenExcepti
 import io.entgra.device.mgt.core.application.mgt.core.exception.NotFoundException;
 import io.entgra.device.mgt.core.application.mgt.core.internal.DataHolder;
 import io.entgra.device.mgt.core.application.mgt.core.lifecycle.LifecycleStateManager;
+import io.entgra.device.mgt.core.application.mgt.core.task.SubscriptionJobExecutor;
 import io.entgra.device.mgt.core.application.mgt.core.util.APIUtil;
 import io.entgra.device.mgt.core.application.mgt.core.util.ConnectionManagerUtil;
 import io.entgra.device.mgt.core.application.mgt.core.util.Constants;
@@ -135,6 +137,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
@@ -142,15 +145,16 @@ import java.util.stream.Collectors;
  * This is the default implementation for the Subscription Manager.
  */
 public class SubscriptionManagerImpl implements SubscriptionManager {
-    AppInstallLogContext.Builder appInstallLogContextBuilder = new AppInstallLogContext.Builder();
     private static final EntgraLogger log = new EntgraAppInstallLoggerImpl(SubscriptionManagerImpl.class);
     private SubscriptionDAO subscriptionDAO;
     private ApplicationDAO applicationDAO;
     private VppApplicationDAO vppApplicationDAO;
     private ApplicationReleaseDAO applicationReleaseDAO;
     private LifecycleStateManager lifecycleStateManager;
+    private final int chunkSize;
 
     public SubscriptionManagerImpl() {
+        this.chunkSize = Math.max(SubscriptionJobExecutor.getConfiguration().getChunkSize(), 1);
         this.lifecycleStateManager = DataHolder.getInstance().getLifecycleStateManager();
         this.subscriptionDAO = ApplicationManagementDAOFactory.getSubscriptionDAO();
         this.applicationDAO = ApplicationManagementDAOFactory.getApplicationDAO();
@@ -170,6 +174,42 @@ public class SubscriptionManagerImpl implements SubscriptionManager {
                                                                   String subType, String action, Properties properties,
                                                                   boolean isOperationReExecutingDisabled)
             throws ApplicationManagementException {
+        return performBulkAppOperation(applicationUUID, params, subType, action, properties,
+                isOperationReExecutingDisabled, null);
+    }
+
+    @Override
+    public <T> SubscriptionJob performBulkAppOperationAsync(String applicationUUID, List<T> params, String subType,
+                                                            String action, Properties properties,
+                                                            boolean isOperationReExecutingDisabled)
+            throws ApplicationManagementException {
+        validateRequest(params, subType, action);
+        //fail before submitting if the release does not exist or is not installable
+        getApplicationDTO(applicationUUID);
+        PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+        SubscriptionJob subscriptionJob = new SubscriptionJob(UUID.randomUUID().toString(), applicationUUID, subType,
+                action, carbonContext.getTenantId(), carbonContext.getUsername());
+        List<T> subscribers = new ArrayList<>(params);
+        return SubscriptionJobExecutor.getInstance().submit(subscriptionJob, carbonContext.getTenantDomain(),
+                () -> performBulkAppOperation(applicationUUID, subscribers, subType, action, properties,
+                        isOperationReExecutingDisabled, subscriptionJob));
+    }
+
+    @Override
+    public SubscriptionJob getSubscriptionJob(String jobId) {
+        return SubscriptionJobExecutor.getInstance().getJob(jobId,
+                PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId());
+    }
+
+    /**
+     * Performs bulk subscription operation, reporting the progress to a subscription job if it is carried out as one.
+     */
+    private <T> ApplicationInstallResponse performBulkAppOperation(String applicationUUID, List<T> params,
+                                                                   String subType, String action,
+                                                                   Properties properties,
+                                                                   boolean isOperationReExecutingDisabled,
+                                                                   SubscriptionJob subscriptionJob)
+            throws ApplicationManagementException {
         if (log.isDebugEnabled()) {
             log.debug("Install application release which has UUID " + applicationUUID + " to " + params.size()
                     + " users.");
@@ -183,7 +223,8 @@ public class SubscriptionManagerImpl implements SubscriptionManager {
         performExternalStoreSubscription(applicationDTO, applicationSubscriptionInfo);
         ApplicationInstallResponse applicationInstallResponse = performActionOnDevices(
                 applicationSubscriptionInfo.getAppSupportingDeviceTypeName(), applicationSubscriptionInfo.getDevices(),
-                applicationDTO, subType, applicationSubscriptionInfo.getSubscribers(), action, properties, isOperationReExecutingDisabled);
+                applicationDTO, subType, applicationSubscriptionInfo.getSubscribers(), action, properties, isOperationReExecutingDisabled,
+                subscriptionJob);
 
         applicationInstallResponse.setErrorDeviceIdentifiers(applicationSubscriptionInfo.getErrorDeviceIdentifiers());
         return applicationInstallResponse;
@@ -727,7 +768,9 @@ public class SubscriptionManagerImpl implements SubscriptionManager {
     }
 
     /**
-     * This method perform given action (i.e APP INSTALL or APP UNINSTALL) on given set of devices.
+     * This method perform given action (i.e APP INSTALL or APP UNINSTALL) on given set of devices. The operation is
+     * added and the subscriptions are updated for a chunk of devices at a time, so that neither the operation nor the
+     * subscription queries grow with the number of devices.
      *
      * @param deviceType     Application supported device type.
      * @param devices        List of devices that action is triggered.
@@ -737,6 +780,7 @@ public class SubscriptionManagerImpl implements SubscriptionManager {
      * @param action         Performing action. (i.e INSTALL or UNINSTALL)
      * @param isOperationReExecutingDisabled To prevent adding the application subscribing operation to devices that are
      *                                      already subscribed application successfully.
+     * @param subscriptionJob Job to report the progress to, or null if the action is not performed as a job
      * @return {@link ApplicationInstallResponse}
      * @throws ApplicationManagementException if error occurred when adding operation on device or updating subscription
      *                                        data.
@@ -745,14 +789,16 @@ public class SubscriptionManagerImpl implements SubscriptionManager {
                                                               ApplicationDTO applicationDTO, String subType,
                                                               List<String> subscribers, String action,
                                                               Properties properties,
-                                                              boolean isOperationReExecutingDisabled)
+                                                              boolean isOperationReExecutingDisabled,
+                                                              SubscriptionJob subscriptionJob)
             throws ApplicationManagementException {
         String username = PrivilegedCarbonContext.getThreadLocalCarbonContext().getUsername();
         String tenantId = String.valueOf(PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId());
         String tenantDomain = String.valueOf(PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain());
+        int applicationReleaseId = applicationDTO.getApplicationReleaseDTOs().get(0).getId();
         //Get app subscribing info of each device
         SubscribingDeviceIdHolder subscribingDeviceIdHolder = getSubscribingDeviceIdHolder(devices,
-                applicationDTO.getApplicationReleaseDTOs().get(0).getId());
+                applicationReleaseId);
 
         List<Activity> activityList = new ArrayList<>();
         List<DeviceIdentifier> deviceIdentifiers = new ArrayList<>();
@@ -783,61 +829,49 @@ public class SubscriptionManagerImpl implements SubscriptionManager {
             applicationInstallResponse.setIgnoredDeviceIdentifiers(ignoredDeviceIdentifiers);
             return applicationInstallResponse;
         }
+        if (subscriptionJob != null) {
+            subscriptionJob.setTotalDevices(deviceIdentifiers.size());
+        }
 
         //device type is getting null when we try to perform action on Web Clip.
         if (deviceType == null) {
             for (DeviceIdentifier identifier : deviceIdentifiers) {
-                List<DeviceIdentifier> identifiers;
-                if (!deviceIdentifierMap.containsKey(identifier.getType())) {
-                    identifiers = new ArrayList<>();
-                } else {
-                    identifiers = deviceIdentifierMap.get(identifier.getType());
-                }
-                identifiers.add(identifier);
-                deviceIdentifierMap.put(identifier.getType(), identifiers);
+                deviceIdentifierMap.computeIfAbsent(identifier.getType(), type -> new ArrayList<>()).add(identifier);
             }
-            for (Map.Entry<String, List<DeviceIdentifier>> entry : deviceIdentifierMap.entrySet()) {
-                Activity activity = addAppOperationOnDevices(applicationDTO, new ArrayList<>(entry.getValue()),
-                        entry.getKey(), action, properties);
+        } else {
+            deviceIdentifierMap.put(deviceType, deviceIdentifiers);
+        }
+        String logMessage = String.format(deviceType == null ? "Web app %s triggered" : "App %s triggered", action);
+        AppInstallLogContext.Builder appInstallLogContextBuilder = new AppInstallLogContext.Builder()
+                .setAppId(String.valueOf(applicationDTO.getId()))
+                .setAppName(applicationDTO.getName())
+                .setAppType(applicationDTO.getType())
+                .setSubType(subType)
+                .setTenantId(tenantId)
+                .setTenantDomain(tenantDomain)
+                .setUserName(username)
+                .setAction(action);
+        for (Map.Entry<String, List<DeviceIdentifier>> entry : deviceIdentifierMap.entrySet()) {
+            List<DeviceIdentifier> identifiers = entry.getValue();
+            for (int from = 0; from < identifiers.size(); from += chunkSize) {
+                List<DeviceIdentifier> chunk = new ArrayList<>(
+                        identifiers.subList(from, Math.min(from + chunkSize, identifiers.size())));
+                Activity activity = addAppOperationOnDevices(applicationDTO, chunk, entry.getKey(), action,
+                        properties);
                 activityList.add(activity);
-                for (DeviceIdentifier identifier : deviceIdentifiers) {
-                    log.info(String.format("Web app %s triggered", action), appInstallLogContextBuilder
-                            .setAppId(String.valueOf(applicationDTO.getId()))
-                            .setAppName(applicationDTO.getName())
-                            .setAppType(applicationDTO.getType())
-                            .setSubType(subType)
-                            .setTenantId(tenantId)
-                            .setTenantDomain(tenantDomain)
-                            .setDevice(String.valueOf(identifier))
-                            .setUserName(username)
-                            .setAction(action)
-                            .build());
+                updateDeviceSubscriptions(applicationReleaseId, activity, subscribingDeviceIdHolder, subType,
+                        action);
+                log.info(logMessage, appInstallLogContextBuilder.setDevice(String.valueOf(chunk)).build());
+                if (subscriptionJob != null) {
+                    subscriptionJob.addProcessedDevices(chunk.size());
                 }
             }
-        } else {
-            Activity activity = addAppOperationOnDevices(applicationDTO, deviceIdentifiers, deviceType, action, properties);
-            activityList.add(activity);
-            for (DeviceIdentifier identifier : deviceIdentifiers) {
-                log.info(String.format("App %s triggered", action), appInstallLogContextBuilder
-                        .setAppId(String.valueOf(applicationDTO.getId()))
-                        .setAppName(applicationDTO.getName())
-                        .setAppType(applicationDTO.getType())
-                        .setSubType(subType)
-                        .setTenantId(tenantId)
-                        .setTenantDomain(tenantDomain)
-                        .setDevice(String.valueOf(identifier))
-                        .setUserName(username)
-                        .setAction(action)
-                        .build());
-            }
         }
+        updateSubscribers(applicationReleaseId, subscribers, subType, action);
 
         ApplicationInstallResponse applicationInstallResponse = new ApplicationInstallResponse();
         applicationInstallResponse.setActivities(activityList);
         applicationInstallResponse.setIgnoredDeviceIdentifiers(ignoredDeviceIdentifiers);
-
-        updateSubscriptions(applicationDTO.getApplicationReleaseDTOs().get(0).getId(), activityList,
-                subscribingDeviceIdHolder, subscribers, subType, action);
         return applicationInstallResponse;
     }
 
@@ -964,58 +998,51 @@ public class SubscriptionManagerImpl implements SubscriptionManager {
     }
 
     /**
-     * This method is responsible to update subscription data.
+     * This method is responsible to update the subscriptions of the devices which an operation has been added to.
      *
      * @param applicationReleaseId      Application release Id
-     * @param activities                List of {@link Activity}
+     * @param activity                  {@link Activity} of the operation
      * @param subscribingDeviceIdHolder Subscribing device id holder.
-     * @param params                    subscribers. If subscription is performed via user, group or role, params is a list of
-     *                                  {@link String}
      * @param subType                   Subscription type. i.e USER, GROUP, ROLE or DEVICE
      * @param action                    performing action. ie INSTALL or UNINSTALL>
      * @throws ApplicationManagementException if error occurred while getting or updating subscription data.
      */
-    private void updateSubscriptions(int applicationReleaseId, List<Activity> activities,
-            SubscribingDeviceIdHolder subscribingDeviceIdHolder, List<String> params, String subType, String action)
+    private void updateDeviceSubscriptions(int applicationReleaseId, Activity activity,
+            SubscribingDeviceIdHolder subscribingDeviceIdHolder, String subType, String action)
             throws ApplicationManagementException {
         int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId(true);
         String username = PrivilegedCarbonContext.getThreadLocalCarbonContext().getUsername();
         try {
             ConnectionManagerUtil.beginDBTransaction();
-            updateBulkSubscribers(applicationReleaseId, params, subType, action, tenantId, username);
-            for (Activity activity : activities) {
-                int operationId = Integer.parseInt(activity.getActivityId().split("ACTIVITY_")[1]);
-                List<Integer> subUpdatingDeviceIds = new ArrayList<>();
-                List<Integer> subInsertingDeviceIds = new ArrayList<>();
-
-                if (SubAction.INSTALL.toString().equalsIgnoreCase(action)) {
-                    subUpdatingDeviceIds.addAll(getOperationAddedDeviceIds(activity,
-                            subscribingDeviceIdHolder.getAppReInstallableDevices()));
+            int operationId = Integer.parseInt(activity.getActivityId().split("ACTIVITY_")[1]);
+            List<Integer> subUpdatingDeviceIds = new ArrayList<>();
+            List<Integer> subInsertingDeviceIds = new ArrayList<>();
+
+            if (SubAction.INSTALL.toString().equalsIgnoreCase(action)) {
+                subUpdatingDeviceIds.addAll(getOperationAddedDeviceIds(activity,
+                        subscribingDeviceIdHolder.getAppReInstallableDevices()));
+                subInsertingDeviceIds.addAll(getOperationAddedDeviceIds(activity,
+                        subscribingDeviceIdHolder.getAppInstallableDevices()));
+            } else {
+                if (SubAction.UNINSTALL.toString().equalsIgnoreCase(action)) {
                     subUpdatingDeviceIds.addAll(getOperationAddedDeviceIds(activity,
                             subscribingDeviceIdHolder.getAppInstalledDevices()));
-                    subInsertingDeviceIds.addAll(getOperationAddedDeviceIds(activity,
-                            subscribingDeviceIdHolder.getAppInstallableDevices()));
-                } else {
-                    if (SubAction.UNINSTALL.toString().equalsIgnoreCase(action)) {
-                        subUpdatingDeviceIds.addAll(getOperationAddedDeviceIds(activity,
-                                subscribingDeviceIdHolder.getAppInstalledDevices()));
-                        subUpdatingDeviceIds.addAll(getOperationAddedDeviceIds(activity,
-                                subscribingDeviceIdHolder.getAppReUnInstallableDevices()));
-                    }
+                    subUpdatingDeviceIds.addAll(getOperationAddedDeviceIds(activity,
+                            subscribingDeviceIdHolder.getAppReUnInstallableDevices()));
                 }
+            }
 
-                subscriptionDAO.addDeviceSubscription(username, subInsertingDeviceIds, subType,
+            subscriptionDAO.addDeviceSubscription(username, subInsertingDeviceIds, subType,
+                    Operation.Status.PENDING.toString(), applicationReleaseId, tenantId);
+            if (!subUpdatingDeviceIds.isEmpty()) {
+                subscriptionDAO.updateDeviceSubscription(username, subUpdatingDeviceIds, action, subType,
                         Operation.Status.PENDING.toString(), applicationReleaseId, tenantId);
-                if (!subUpdatingDeviceIds.isEmpty()) {
-                    subscriptionDAO.updateDeviceSubscription(username, subUpdatingDeviceIds, action, subType,
-                            Operation.Status.PENDING.toString(), applicationReleaseId, tenantId);
-                }
-                subUpdatingDeviceIds.addAll(subInsertingDeviceIds);
-                if (!subUpdatingDeviceIds.isEmpty()) {
-                    List<Integer> deviceSubIds = new ArrayList<>(
-                            subscriptionDAO.getDeviceSubIds(subUpdatingDeviceIds, applicationReleaseId, tenantId));
-                    subscriptionDAO.addOperationMapping(operationId, deviceSubIds, tenantId);
-                }
+            }
+            subUpdatingDeviceIds.addAll(subInsertingDeviceIds);
+            if (!subUpdatingDeviceIds.isEmpty()) {
+                List<Integer> deviceSubIds = new ArrayList<>(
+                        subscriptionDAO.getDeviceSubIds(subUpdatingDeviceIds, applicationReleaseId, tenantId));
+                subscriptionDAO.addOperationMapping(operationId, deviceSubIds, tenantId);
             }
             ConnectionManagerUtil.commitDBTransaction();
         } catch (ApplicationManagementDAOException e) {
@@ -1038,6 +1065,44 @@ public class SubscriptionManagerImpl implements SubscriptionManager {
         }
     }
 
+    /**
+     * This method is responsible to update the subscriptions of users, roles or groups.
+     *
+     * @param applicationReleaseId Application release Id
+     * @param params               subscribers. If subscription is performed via user, group or role, params is a list of
+     *                             {@link String}
+     * @param subType              Subscription type. i.e USER, GROUP, ROLE or DEVICE
+     * @param action               performing action. ie INSTALL or UNINSTALL>
+     * @throws ApplicationManagementException if error occurred while updating subscription data.
+     */
+    private void updateSubscribers(int applicationReleaseId, List<String> params, String subType, String action)
+            throws ApplicationManagementException {
+        int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId(true);
+        String username = PrivilegedCarbonContext.getThreadLocalCarbonContext().getUsername();
+        try {
+            ConnectionManagerUtil.beginDBTransaction();
+            updateBulkSubscribers(applicationReleaseId, params, subType, action, tenantId, username);
+            ConnectionManagerUtil.commitDBTransaction();
+        } catch (ApplicationManagementDAOException e) {
+            ConnectionManagerUtil.rollbackDBTransaction();
+            String msg =
+                    "Error occurred when adding subscriber data for application release ID: " + applicationReleaseId;
+            log.error(msg, e);
+            throw new ApplicationManagementException(msg, e);
+        } catch (DBConnectionException e) {
+            String msg = "Error occurred when getting database connection to add new subscribers to application.";
+            log.error(msg, e);
+            throw new ApplicationManagementException(msg, e);
+        } catch (TransactionManagementException e) {
+            String msg = "SQL Error occurred when adding new subscribers to application release which has ID: "
+                    + applicationReleaseId;
+            log.error(msg, e);
+            throw new ApplicationManagementException(msg, e);
+        } finally {
+            ConnectionManagerUtil.closeDBConnection();
+        }
+    }
+
     /**
      * This method is responsible to update bulk subscriber's data. i.e USER, ROLE, GROUP. Before invoke this method it
      * is required to start DB transaction
@@ -1100,6 +1165,7 @@ public class SubscriptionManagerImpl implements SubscriptionManager {
 
     /**
      * This method is responsible to get device subscription of particular application releasee for given set of devices.
+     * The subscriptions are queried for a chunk of devices at a time.
      *
      * @param deviceIds    Set of device Ids
      * @param appReleaseId Application release Id
@@ -1113,7 +1179,13 @@ public class SubscriptionManagerImpl implements SubscriptionManager {
 
         try {
             ConnectionManagerUtil.openDBConnection();
-            return this.subscriptionDAO.getDeviceSubscriptions(deviceIds, appReleaseId, tenantId);
+            Map<Integer, DeviceSubscriptionDTO> deviceSubscriptions = new HashMap<>();
+            for (int from = 0; from < deviceIds.size(); from += chunkSize) {
+                deviceSubscriptions.putAll(this.subscriptionDAO.getDeviceSubscriptions(
+                        deviceIds.subList(from, Math.min(from + chunkSize, deviceIds.size())), appReleaseId,
+                        tenantId));
+            }
+            return deviceSubscriptions;
         } catch (ApplicationManagementDAOException e) {
             String msg = "Error occurred when getting device subscriptions for given device IDs";
             log.error(msg, e);
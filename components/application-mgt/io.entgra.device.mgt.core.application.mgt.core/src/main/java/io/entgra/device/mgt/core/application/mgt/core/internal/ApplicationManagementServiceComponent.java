@@ -32,6 +32,7 @@ import io.entgra.device.mgt.core.application.mgt.core.impl.AppmDataHandlerImpl;
 import io.entgra.device.mgt.core.application.mgt.core.impl.FileTransferServiceImpl;
 import io.entgra.device.mgt.core.application.mgt.core.lifecycle.LifecycleStateManager;
 import io.entgra.device.mgt.core.application.mgt.core.task.ScheduledAppSubscriptionTaskManager;
+import io.entgra.device.mgt.core.application.mgt.core.task.SubscriptionJobExecutor;
 import io.entgra.device.mgt.core.application.mgt.core.util.ApplicationManagementUtil;
 import io.entgra.device.mgt.core.device.mgt.core.service.DeviceManagementProviderService;
 import org.apache.commons.logging.Log;
@@ -124,7 +125,7 @@ public class ApplicationManagementServiceComponent {
     @SuppressWarnings("unused")
     @Deactivate
     protected void deactivate(ComponentContext componentContext) {
-        //do nothing
+        SubscriptionJobExecutor.shutdown();
     }
 
     @SuppressWarnings("unused")
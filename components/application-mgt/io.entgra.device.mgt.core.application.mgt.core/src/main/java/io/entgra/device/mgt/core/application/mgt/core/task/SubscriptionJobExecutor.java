@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.application.mgt.core.task;
+
+import io.entgra.device.mgt.core.application.mgt.common.ApplicationInstallResponse;
+import io.entgra.device.mgt.core.application.mgt.common.SubscriptionJob;
+import io.entgra.device.mgt.core.application.mgt.common.config.SubscriptionExecutionConfiguration;
+import io.entgra.device.mgt.core.application.mgt.common.exception.ApplicationManagementException;
+import io.entgra.device.mgt.core.application.mgt.core.config.Configuration;
+import io.entgra.device.mgt.core.application.mgt.core.config.ConfigurationManager;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs application subscriptions in the background on a bounded pool of workers, and keeps track of their progress
+ * until the retention time passes after they finish.
+ */
+public class SubscriptionJobExecutor {
+
+    private static final Log log = LogFactory.getLog(SubscriptionJobExecutor.class);
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+    private static volatile SubscriptionJobExecutor instance;
+
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentMap<String, SubscriptionJob> jobs = new ConcurrentHashMap<>();
+    private final long retentionTime;
+
+    /**
+     * Carries out a subscription, within the tenant flow of the user who submitted it.
+     */
+    public interface SubscriptionWork {
+        ApplicationInstallResponse perform() throws ApplicationManagementException;
+    }
+
+    SubscriptionJobExecutor(SubscriptionExecutionConfiguration config) {
+        int workerCount = Math.max(config.getWorkerCount(), 1);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(config.getQueueCapacity(), 1)), runnable -> {
+            Thread thread = new Thread(runnable, "app-subscription-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.retentionTime = Math.max(config.getJobRetentionTime(), 0) * 1000L;
+    }
+
+    public static SubscriptionJobExecutor getInstance() {
+        if (instance == null) {
+            synchronized (SubscriptionJobExecutor.class) {
+                if (instance == null) {
+                    instance = new SubscriptionJobExecutor(getConfiguration());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return the subscription execution configuration, or the defaults if it is not configured
+     */
+    public static SubscriptionExecutionConfiguration getConfiguration() {
+        Configuration configuration = ConfigurationManager.getInstance().getConfiguration();
+        if (configuration != null && configuration.getSubscriptionExecutionConfiguration() != null) {
+            return configuration.getSubscriptionExecutionConfiguration();
+        }
+        return new SubscriptionExecutionConfiguration();
+    }
+
+    /**
+     * Stops the workers, if they have been started. Subscriptions which are running are given some time to finish,
+     * while those which have not started are abandoned.
+     */
+    public static void shutdown() {
+        synchronized (SubscriptionJobExecutor.class) {
+            if (instance != null) {
+                instance.close();
+                instance = null;
+            }
+        }
+    }
+
+    /**
+     * Queues a subscription to be carried out by the next free worker.
+     *
+     * @param job          job which tracks the subscription
+     * @param tenantDomain tenant domain of the user who submitted the subscription
+     * @param work         the subscription
+     * @return the job
+     * @throws ApplicationManagementException if too many subscriptions are waiting for a worker
+     */
+    public SubscriptionJob submit(SubscriptionJob job, String tenantDomain, SubscriptionWork work)
+            throws ApplicationManagementException {
+        removeExpiredJobs();
+        jobs.put(job.getJobId(), job);
+        try {
+            executor.execute(() -> run(job, tenantDomain, work));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            String msg = "Unable to accept the subscription of application release " + job.getApplicationUUID()
+                    + " as " + executor.getQueue().size() + " subscriptions are waiting to be carried out";
+            log.error(msg, e);
+            throw new ApplicationManagementException(msg, e);
+        }
+        return job;
+    }
+
+    /**
+     * @param jobId    id of the job
+     * @param tenantId id of the tenant of the caller
+     * @return the job, or null if there is no such job of the tenant
+     */
+    public SubscriptionJob getJob(String jobId, int tenantId) {
+        removeExpiredJobs();
+        SubscriptionJob job = jobs.get(jobId);
+        return job != null && job.getTenantId() == tenantId ? job : null;
+    }
+
+    void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                int abandoned = executor.shutdownNow().size();
+                log.warn("Application subscriptions did not finish within " + SHUTDOWN_TIMEOUT_SECONDS
+                        + " seconds, and " + abandoned + " subscriptions which have not started are abandoned");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(SubscriptionJob job, String tenantDomain, SubscriptionWork work) {
+        long startTime = System.currentTimeMillis();
+        job.start();
+        try {
+            PrivilegedCarbonContext.startTenantFlow();
+            PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            carbonContext.setTenantDomain(tenantDomain);
+            carbonContext.setTenantId(job.getTenantId());
+            carbonContext.setUsername(job.getCreatedBy());
+            job.complete(work.perform());
+            if (log.isDebugEnabled()) {
+                log.debug("Subscription job " + job.getJobId() + " to " + job.getAction() + " application release "
+                        + job.getApplicationUUID() + " on " + job.getProcessedDevices() + " devices completed in "
+                        + (System.currentTimeMillis() - startTime) + " ms");
+            }
+        } catch (ApplicationManagementException e) {
+            log.error("Subscription job " + job.getJobId() + " to " + job.getAction() + " application release "
+                    + job.getApplicationUUID() + " failed after " + job.getProcessedDevices() + " of "
+                    + job.getTotalDevices() + " devices", e);
+            job.fail(e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Unexpected error occurred in subscription job " + job.getJobId(), e);
+            job.fail("Unexpected error occurred while carrying out the subscription");
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+    }
+
+    private void removeExpiredJobs() {
+        long now = System.currentTimeMillis();
+        jobs.values().removeIf(job -> job.isFinished() && now - job.getCompletedTime() > retentionTime);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.application.mgt.core.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Content addressed store of application artifacts. Each distinct artifact is kept once, named by its SHA-256 digest,
+ * and every release which contains it gets a hard link to it. The link count of a blob is thereby the number of
+ * releases, of any tenant, which refer to it, and blobs which are no longer linked from a release are removed by
+ * {@link #removeUnreferencedBlobs()}. On file systems which do not support hard links, artifacts are stored in the
+ * release directories as they are, without de-duplication.
+ */
+public class ArtifactBlobStore {
+
+    private static final Log log = LogFactory.getLog(ArtifactBlobStore.class);
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+    private static final String LINK_COUNT_ATTRIBUTE = "unix:nlink";
+    private static final String TEMP_DIRECTORY = "tmp";
+
+    private final Path blobDirectory;
+    private final Path tempDirectory;
+    private volatile boolean linkingSupported;
+
+    /**
+     * @param blobDirectory directory to keep the blobs in, which must be on the same file system as the releases
+     * @throws IOException if the directories cannot be created
+     */
+    public ArtifactBlobStore(Path blobDirectory) throws IOException {
+        this.blobDirectory = blobDirectory;
+        this.tempDirectory = blobDirectory.resolve(TEMP_DIRECTORY);
+        Files.createDirectories(tempDirectory);
+        this.linkingSupported = Files.getFileStore(blobDirectory).supportsFileAttributeView("unix");
+    }
+
+    /**
+     * Store an artifact at the given path, computing its digest while it is written.
+     *
+     * @param inputStream content of the artifact
+     * @param target      path of the artifact in the release directory
+     * @return hex encoded SHA-256 digest of the artifact
+     * @throws IOException if the artifact cannot be written
+     */
+    public String store(InputStream inputStream, Path target) throws IOException {
+        Path tempFile = Files.createTempFile(tempDirectory, "upload-", ".part");
+        try {
+            MessageDigest messageDigest = createMessageDigest();
+            try (DigestInputStream digestInputStream = new DigestInputStream(inputStream, messageDigest)) {
+                Files.copy(digestInputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String digest = String.format("%064x", new BigInteger(1, messageDigest.digest()));
+            if (!linkingSupported) {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+                return digest;
+            }
+            Path blob = getBlobPath(digest);
+            synchronized (this) {
+                if (Files.exists(blob)) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Artifact " + digest + " is already stored, hence linking the existing copy");
+                    }
+                } else {
+                    Files.createDirectories(blob.getParent());
+                    Files.move(tempFile, blob);
+                }
+                Files.deleteIfExists(target);
+                try {
+                    Files.createLink(target, blob);
+                } catch (UnsupportedOperationException | FileSystemException e) {
+                    log.warn("Unable to link stored artifacts, hence artifacts will not be de-duplicated", e);
+                    linkingSupported = false;
+                    Files.copy(blob, target, StandardCopyOption.REPLACE_EXISTING);
+                    Files.delete(blob);
+                }
+            }
+            return digest;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * @param digest hex encoded SHA-256 digest of an artifact
+     * @return number of releases which refer to the artifact, or -1 if the count is not known
+     */
+    public int getReferenceCount(String digest) throws IOException {
+        Path blob = getBlobPath(digest);
+        if (!linkingSupported) {
+            return -1;
+        }
+        if (!Files.exists(blob)) {
+            return 0;
+        }
+        return (Integer) Files.getAttribute(blob, LINK_COUNT_ATTRIBUTE) - 1;
+    }
+
+    /**
+     * Remove the blobs which are not referred to by any release, after release artifacts have been deleted.
+     *
+     * @return number of removed blobs
+     * @throws IOException if the blobs cannot be listed or removed
+     */
+    public synchronized int removeUnreferencedBlobs() throws IOException {
+        if (!linkingSupported) {
+            return 0;
+        }
+        int removed = 0;
+        try (DirectoryStream<Path> prefixes = Files.newDirectoryStream(blobDirectory, Files::isDirectory)) {
+            for (Path prefix : prefixes) {
+                if (prefix.equals(tempDirectory)) {
+                    continue;
+                }
+                try (DirectoryStream<Path> blobs = Files.newDirectoryStream(prefix)) {
+                    for (Path blob : blobs) {
+                        if ((Integer) Files.getAttribute(blob, LINK_COUNT_ATTRIBUTE) <= 1) {
+                            Files.delete(blob);
+                            removed++;
+                        }
+                    }
+                }
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Removed " + removed + " artifacts which are not referred to by any release");
+        }
+        return removed;
+    }
+
+    private Path getBlobPath(String digest) {
+        return blobDirectory.resolve(digest.substring(0, 2)).resolve(digest);
+    }
+
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not supported by the runtime", e);
+        }
+    }
+}
@@ -167,6 +167,11 @@ public class Constants {
      */
     public static final String APP_ARTIFACT = "app";
 
+    /**
+     * Directory name of the de-duplicated application artifacts that are saved in the file system.
+     */
+    public static final String ARTIFACT_BLOB_DIRECTORY = "blobs";
+
     public static final int REVIEW_PARENT_ID = -1;
 
     public static final int MAX_RATING = 5;
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.application.mgt.core;
+
+import io.entgra.device.mgt.core.application.mgt.common.ByteRange;
+import io.entgra.device.mgt.core.application.mgt.common.dto.ApplicationReleaseDTO;
+import io.entgra.device.mgt.core.application.mgt.core.impl.ApplicationStorageManagerImpl;
+import io.entgra.device.mgt.core.application.mgt.core.util.ArtifactBlobStore;
+import io.entgra.device.mgt.core.application.mgt.core.util.Constants;
+import io.entgra.device.mgt.core.device.mgt.core.common.util.StorageManagementUtil;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+
+public class ArtifactBlobStoreTest {
+    private static final String STORAGE_PATH = "src/test/resources/util/artifact-store/";
+    private static final byte[] CONTENT = "content of the application installer".getBytes(StandardCharsets.UTF_8);
+    private static final String DIGEST = "1b5cedeeae896640fbf9f1f93b68db84611fe9972aa1463ae714d8981fd0ac51";
+
+    private ApplicationStorageManagerImpl applicationStorageManager;
+    private ArtifactBlobStore artifactBlobStore;
+
+    @BeforeClass
+    public void init() throws IOException {
+        deleteStorage();
+        applicationStorageManager = new ApplicationStorageManagerImpl(STORAGE_PATH, "6");
+        artifactBlobStore = new ArtifactBlobStore(Paths.get(STORAGE_PATH, Constants.ARTIFACT_BLOB_DIRECTORY));
+    }
+
+    @AfterClass
+    public void cleanup() throws IOException {
+        deleteStorage();
+    }
+
+    @Test
+    public void testArtifactsAreDeduplicatedAcrossTenants() throws Exception {
+        applicationStorageManager.uploadReleaseArtifact(createRelease("hash1"), "android",
+                new ByteArrayInputStream(CONTENT), 1);
+        applicationStorageManager.uploadReleaseArtifact(createRelease("hash2"), "android",
+                new ByteArrayInputStream(CONTENT), 2);
+        Path first = getArtifactPath("hash1", 1);
+        Path second = getArtifactPath("hash2", 2);
+        Assert.assertEquals(Files.readAllBytes(first), CONTENT);
+        Assert.assertEquals(Files.readAllBytes(second), CONTENT);
+        int referenceCount = artifactBlobStore.getReferenceCount(DIGEST);
+        if (referenceCount >= 0) {
+            Assert.assertEquals(referenceCount, 2);
+            Assert.assertTrue(Files.isSameFile(first, second), "Identical artifacts are stored twice");
+        }
+    }
+
+    @Test(dependsOnMethods = "testArtifactsAreDeduplicatedAcrossTenants")
+    public void testRangedTransfer() throws Exception {
+        ByteRange byteRange = ByteRange.parse("bytes=8-9", CONTENT.length);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        applicationStorageManager.transferFile("hash1", Constants.APP_ARTIFACT, "installer.apk", 1, byteRange,
+                Channels.newChannel(outputStream));
+        Assert.assertEquals(outputStream.toString("UTF-8"), "of");
+        Assert.assertEquals(applicationStorageManager.getFileLength("hash1", Constants.APP_ARTIFACT,
+                "installer.apk", 1), CONTENT.length);
+        Assert.assertEquals(applicationStorageManager.getFileLength("hash1", Constants.APP_ARTIFACT,
+                "missing.apk", 1), -1);
+    }
+
+    @Test(dependsOnMethods = "testRangedTransfer")
+    public void testUnreferencedArtifactsAreRemoved() throws Exception {
+        applicationStorageManager.deleteAllApplicationReleaseArtifacts(Collections.singletonList("hash1"), 1);
+        Assert.assertEquals(Files.readAllBytes(getArtifactPath("hash2", 2)), CONTENT);
+        if (artifactBlobStore.getReferenceCount(DIGEST) >= 0) {
+            Assert.assertEquals(artifactBlobStore.getReferenceCount(DIGEST), 1);
+        }
+        applicationStorageManager.deleteAllApplicationReleaseArtifacts(Collections.singletonList("hash2"), 2);
+        if (artifactBlobStore.getReferenceCount(DIGEST) >= 0) {
+            Assert.assertEquals(artifactBlobStore.getReferenceCount(DIGEST), 0);
+        }
+    }
+
+    @Test
+    public void testByteRangeParsing() {
+        Assert.assertFalse(ByteRange.parse(null, 100).isPartial());
+        Assert.assertEquals(ByteRange.parse("bytes=10-19", 100).getContentRange(), "bytes 10-19/100");
+        Assert.assertEquals(ByteRange.parse("bytes=90-", 100).getLength(), 10);
+        Assert.assertEquals(ByteRange.parse("bytes=-30", 100).getStart(), 70);
+        Assert.assertEquals(ByteRange.parse("bytes=50-500", 100).getEnd(), 99);
+        Assert.assertFalse(ByteRange.parse("bytes=0-1,5-6", 100).isPartial());
+        Assert.assertFalse(ByteRange.parse("items=0-1", 100).isPartial());
+        Assert.assertNull(ByteRange.parse("bytes=100-", 100));
+        Assert.assertNull(ByteRange.parse("bytes=20-10", 100));
+    }
+
+    private ApplicationReleaseDTO createRelease(String appHashValue) {
+        ApplicationReleaseDTO applicationReleaseDTO = new ApplicationReleaseDTO();
+        applicationReleaseDTO.setUuid(appHashValue);
+        applicationReleaseDTO.setAppHashValue(appHashValue);
+        applicationReleaseDTO.setInstallerName("installer.apk");
+        return applicationReleaseDTO;
+    }
+
+    private Path getArtifactPath(String appHashValue, int tenantId) {
+        return Paths.get(STORAGE_PATH + tenantId, appHashValue, Constants.APP_ARTIFACT, "installer.apk");
+    }
+
+    private void deleteStorage() throws IOException {
+        File storage = new File(STORAGE_PATH);
+        if (storage.exists()) {
+            StorageManagementUtil.delete(storage);
+        }
+    }
+}
@@ -18,6 +18,7 @@
 package io.entgra.device.mgt.core.application.mgt.core;
 
 import io.entgra.device.mgt.core.application.mgt.common.config.LifecycleState;
+import io.entgra.device.mgt.core.application.mgt.common.config.SubscriptionExecutionConfiguration;
 import io.entgra.device.mgt.core.application.mgt.core.config.Configuration;
 import io.entgra.device.mgt.core.application.mgt.core.config.ConfigurationManager;
 import org.junit.Assert;
@@ -43,4 +44,15 @@ public class ConfigurationTest {
         Assert.assertTrue("Invalid lifecycle states configuration. Lifecycle states cannot be empty",
                           !lifecycleStates.isEmpty());
     }
+
+    @Test
+    public void validateSubscriptionExecutionConfiguration() {
+        ConfigurationManager configurationManager = ConfigurationManager.getInstance();
+        Configuration configuration = configurationManager.getConfiguration();
+        SubscriptionExecutionConfiguration subscriptionExecution =
+                configuration.getSubscriptionExecutionConfiguration();
+        Assert.assertNotNull("Invalid subscription execution configuration", subscriptionExecution);
+        Assert.assertTrue("Invalid subscription execution configuration. Chunk size must be positive",
+                          subscriptionExecution.getChunkSize() > 0);
+    }
 }
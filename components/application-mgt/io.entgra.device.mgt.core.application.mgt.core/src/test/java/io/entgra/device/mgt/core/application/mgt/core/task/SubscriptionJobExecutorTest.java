@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2018 - 2026, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.entgra.device.mgt.core.application.mgt.core.task;
+
+import io.entgra.device.mgt.core.application.mgt.common.ApplicationInstallResponse;
+import io.entgra.device.mgt.core.application.mgt.common.SubscriptionJob;
+import io.entgra.device.mgt.core.application.mgt.common.config.SubscriptionExecutionConfiguration;
+import io.entgra.device.mgt.core.application.mgt.common.exception.ApplicationManagementException;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.base.MultitenantConstants;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class SubscriptionJobExecutorTest {
+
+    private static final String TENANT_DOMAIN = MultitenantConstants.SUPER_TENANT_DOMAIN_NAME;
+    private static final int TENANT_ID = MultitenantConstants.SUPER_TENANT_ID;
+
+    private SubscriptionJobExecutor executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeClass
+    public void init() {
+        SubscriptionExecutionConfiguration config = new SubscriptionExecutionConfiguration();
+        config.setWorkerCount(1);
+        config.setQueueCapacity(1);
+        config.setJobRetentionTime(3600);
+        executor = new SubscriptionJobExecutor(config);
+    }
+
+    @AfterClass
+    public void cleanup() {
+        release.countDown();
+        executor.close();
+    }
+
+    @Test
+    public void testCompletedJob() throws Exception {
+        SubscriptionJob job = createJob("completed-job");
+        AtomicReference<String> username = new AtomicReference<>();
+        executor.submit(job, TENANT_DOMAIN, () -> {
+            username.set(PrivilegedCarbonContext.getThreadLocalCarbonContext().getUsername());
+            job.setTotalDevices(3);
+            job.addProcessedDevices(3);
+            return new ApplicationInstallResponse();
+        });
+        waitUntilFinished(job);
+        Assert.assertEquals(job.getStatus(), SubscriptionJob.Status.COMPLETED);
+        Assert.assertEquals(username.get(), "admin", "Subscription is not performed as the user who submitted it");
+        Assert.assertEquals(job.getProcessedDevices(), 3);
+        Assert.assertNotNull(job.getResponse());
+        Assert.assertSame(executor.getJob("completed-job", TENANT_ID), job);
+        Assert.assertNull(executor.getJob("completed-job", 1), "Job of another tenant is visible");
+    }
+
+    @Test
+    public void testFailedJob() throws Exception {
+        SubscriptionJob job = createJob("failed-job");
+        executor.submit(job, TENANT_DOMAIN, () -> {
+            throw new ApplicationManagementException("Operation adding failed");
+        });
+        waitUntilFinished(job);
+        Assert.assertEquals(job.getStatus(), SubscriptionJob.Status.FAILED);
+        Assert.assertEquals(job.getErrorMessage(), "Operation adding failed");
+    }
+
+    @Test(dependsOnMethods = {"testCompletedJob", "testFailedJob"})
+    public void testJobRejectedWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        SubscriptionJob running = createJob("running-job");
+        executor.submit(running, TENANT_DOMAIN, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new ApplicationInstallResponse();
+        });
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+        SubscriptionJob queued = createJob("queued-job");
+        executor.submit(queued, TENANT_DOMAIN, ApplicationInstallResponse::new);
+        Assert.assertEquals(queued.getStatus(), SubscriptionJob.Status.QUEUED);
+        try {
+            executor.submit(createJob("rejected-job"), TENANT_DOMAIN, ApplicationInstallResponse::new);
+            Assert.fail("Job is accepted while the queue is full");
+        } catch (ApplicationManagementException e) {
+            Assert.assertNull(executor.getJob("rejected-job", TENANT_ID), "Rejected job is tracked");
+        }
+        release.countDown();
+        waitUntilFinished(queued);
+        Assert.assertEquals(running.getStatus(), SubscriptionJob.Status.COMPLETED);
+        Assert.assertEquals(queued.getStatus(), SubscriptionJob.Status.COMPLETED);
+    }
+
+    private SubscriptionJob createJob(String jobId) {
+        return new SubscriptionJob(jobId, "app-uuid", "DEVICE", "INSTALL", TENANT_ID, "admin");
+    }
+
+    private void waitUntilFinished(SubscriptionJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(job.isFinished(), "Job " + job.getJobId() + " did not finish");
+    }
+}
@@ -17,6 +17,7 @@
  */
 package io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao;
 
+import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.DeviceOrganizationGraph;
 import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dto.DeviceNodeResult;
 import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dto.DeviceOrganization;
 import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dto.PaginationRequest;
@@ -194,6 +195,33 @@ public interface DeviceOrganizationDAO {
      */
     boolean isChildDeviceIdExist(int deviceId, int tenantID) throws DeviceOrganizationMgtDAOException;
 
+    /**
+     * Retrieves all device organizations of a tenant as an in-memory graph, for the adjacency cache.
+     *
+     * @param tenantID The ID of the tenant.
+     * @return The graph of all device organizations of the tenant.
+     * @throws DeviceOrganizationMgtDAOException If an error occurs while retrieving the device organizations.
+     */
+    DeviceOrganizationGraph getDeviceOrganizationGraph(int tenantID) throws DeviceOrganizationMgtDAOException;
+
+    /**
+     * Recomputes the device organization closure table of a tenant from its device organization records.
+     *
+     * @param tenantID The ID of the tenant.
+     * @throws DeviceOrganizationMgtDAOException If an error occurs while recomputing the closure table.
+     */
+    void rebuildDeviceOrganizationHierarchy(int tenantID) throws DeviceOrganizationMgtDAOException;
+
+    /**
+     * Checks whether the device organization closure table of a tenant is missing, that is whether the tenant has
+     * device organizations which are not recorded in it.
+     *
+     * @param tenantID The ID of the tenant.
+     * @return True if the closure table of the tenant has to be rebuilt, false otherwise.
+     * @throws DeviceOrganizationMgtDAOException If an error occurs while checking the closure table.
+     */
+    boolean isDeviceOrganizationHierarchyMissing(int tenantID) throws DeviceOrganizationMgtDAOException;
+
     /**
      * This method is only used for testing
      * @param tenantID
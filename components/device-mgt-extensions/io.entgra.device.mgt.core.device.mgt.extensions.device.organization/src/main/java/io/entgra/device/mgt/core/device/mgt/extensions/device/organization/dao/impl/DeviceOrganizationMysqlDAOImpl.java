@@ -19,6 +19,7 @@ package io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.
 
 import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.DeviceOrganizationDAO;
 import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.ConnectionManagerUtil;
+import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.DeviceOrganizationGraph;
 import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dto.AdditionResult;
 import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dto.DeviceNode;
 import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dto.DeviceNodeResult;
@@ -36,12 +37,19 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 
+import static io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.DeviceOrganizationClosureUtil.addRelationship;
+import static io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.DeviceOrganizationClosureUtil.getAncestorGraph;
+import static io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.DeviceOrganizationClosureUtil.getDescendantGraph;
+import static io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.DeviceOrganizationClosureUtil.getGraph;
+import static io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.DeviceOrganizationClosureUtil.isCyclicRelationship;
+import static io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.DeviceOrganizationClosureUtil.isRebuildRequired;
+import static io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.DeviceOrganizationClosureUtil.rebuild;
+import static io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.DeviceOrganizationClosureUtil.refreshRelationships;
 import static io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.DeviceOrganizationDaoUtil.getDeviceFromResultSet;
 import static io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.DeviceOrganizationDaoUtil.loadDeviceOrganization;
 import static io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.DeviceOrganizationDaoUtil.loadDeviceOrganizationWithDeviceDetails;
@@ -59,33 +67,12 @@ public class DeviceOrganizationMysqlDAOImpl implements DeviceOrganizationDAO {
     @Override
     public DeviceNodeResult getChildrenOfDeviceNode(int deviceId, int maxDepth, boolean includeDevice, int tenantID)
             throws DeviceOrganizationMgtDAOException {
-        List<DeviceNode> childNodes = new ArrayList<>();
-        Set<DeviceOrganization> organizations = new HashSet<>();
-        Set<Integer> visited = new HashSet<>();
-        Set<Integer> twiceVisited = new HashSet<>();
-
         try {
             Connection conn = ConnectionManagerUtil.getDBConnection();
             DeviceNode deviceNode = getDeviceDetails(deviceId, conn);
-            boolean parentAdded = false; // Flag to track whether the parent device has been added
-            getChildrenRecursive(
-                    deviceNode,
-                    maxDepth,
-                    visited,
-                    twiceVisited,
-                    conn,
-                    childNodes,
-                    includeDevice,
-                    parentAdded,
-                    tenantID,
-                    organizations
-            );
-            if (!includeDevice
-                    && !parentAdded
-            ) {
-                childNodes.add(deviceNode); // Add the parent device if it hasn't been added and includeDevice is false.
-            }
-            return new DeviceNodeResult(childNodes, organizations);
+            // The organizations below the device are read in one query through the closure table
+            DeviceOrganizationGraph graph = getDescendantGraph(conn, tenantID, deviceId, maxDepth);
+            return graph.getChildren(deviceNode, maxDepth, includeDevice);
         } catch (DBConnectionException e) {
             String msg = "Error occurred while obtaining DB connection to retrieve all child devices for " +
                     "parent device ID " + deviceId;
@@ -99,114 +86,18 @@ public class DeviceOrganizationMysqlDAOImpl implements DeviceOrganizationDAO {
         }
     }
 
-    private void getChildrenRecursive(DeviceNode node,
-                                      int maxDepth,
-                                      Set<Integer> visited,
-                                      Set<Integer> twiceVisited,
-                                      Connection conn,
-                                      List<DeviceNode> childNodes,
-                                      boolean includeDevice,
-                                      boolean parentAdded,
-                                      int tenantID,
-                                      Set<DeviceOrganization> organizations
-    )
-            throws SQLException {
-        if (maxDepth <= 0) {
-            return;
-        }
-        if (twiceVisited.contains(node.getDeviceId())) {
-            return;
-        }
-
-        if (visited.contains(node.getDeviceId())) {
-            twiceVisited.add(node.getDeviceId());
-        }
-
-        visited.add(node.getDeviceId());
-
-        String sql = "SELECT D.ID, D.NAME, D.DESCRIPTION, D.DEVICE_IDENTIFICATION, DT.NAME AS DEVICE_TYPE_NAME, " +
-                "DO.ORGANIZATION_ID, DO.TENANT_ID, DO.DEVICE_ID, DO.PARENT_DEVICE_ID, DO.DEVICE_ORGANIZATION_META ," +
-                "DO.LAST_UPDATED_TIMESTAMP FROM DM_DEVICE D " +
-                "JOIN DM_DEVICE_ORGANIZATION DO ON D.ID = DO.DEVICE_ID " +
-                "JOIN DM_DEVICE_TYPE DT ON D.DEVICE_TYPE_ID = DT.ID " +
-                "WHERE DO.TENANT_ID = ? AND DO.PARENT_DEVICE_ID = ? ";
-
-        boolean hasChildren = false;
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, tenantID);
-            stmt.setInt(2, node.getDeviceId());
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                DeviceNode child;
-                DeviceOrganization organization;
-                while (rs.next()) {
-                    child = getDeviceFromResultSet(rs);
-                    node.getChildren().add(child);
-                    hasChildren = true;
-                    if (includeDevice
-                            && !parentAdded
-                    ) {
-                        childNodes.add(node); // Add the parent device only if includeDevice is true and it hasn't been added.
-                        parentAdded = true; // Set the flag to true after adding the parent device.
-                    }
-
-                    organization = loadDeviceOrganization(rs);
-                    organizations.add(organization);
-
-                    getChildrenRecursive(
-                            child,
-                            (maxDepth - 1),
-                            visited,
-                            twiceVisited,
-                            conn,
-                            childNodes,
-                            includeDevice,
-                            parentAdded,
-                            tenantID,
-                            organizations
-                    );
-                }
-            }
-        }
-
-        // Add the parent node if it doesn't have children and includeDevice is true
-        if (!hasChildren && includeDevice && !parentAdded) {
-            childNodes.add(node);
-            parentAdded = true;
-        }
-    }
-
     /**
      * {@inheritDoc}
      */
     @Override
     public DeviceNodeResult getParentsOfDeviceNode(int deviceId, int maxDepth, boolean includeDevice, int tenantID)
             throws DeviceOrganizationMgtDAOException {
-
-        List<DeviceNode> parentNodes = new ArrayList<>();
-        Set<DeviceOrganization> organizations = new HashSet<>();
-        Set<Integer> visited = new HashSet<>();
-        Set<Integer> twiceVisited = new HashSet<>();
         try {
             Connection conn = ConnectionManagerUtil.getDBConnection();
             DeviceNode deviceNode = getDeviceDetails(deviceId, conn);
-            boolean childAdded = false;
-            getParentsRecursive(
-                    deviceNode,
-                    maxDepth,
-                    visited,
-                    twiceVisited,
-                    conn,
-                    parentNodes,
-                    includeDevice,
-                    childAdded,
-                    tenantID,
-                    organizations);
-            if (!includeDevice && !childAdded) {
-                parentNodes.add(deviceNode);
-            }
-
-            return new DeviceNodeResult(parentNodes, organizations);
+            // The organizations above the device are read in one query through the closure table
+            DeviceOrganizationGraph graph = getAncestorGraph(conn, tenantID, deviceId, maxDepth);
+            return graph.getParents(deviceNode, maxDepth, includeDevice);
         } catch (DBConnectionException e) {
             String msg = "Error occurred while obtaining DB connection to retrieve parent devices for " +
                     "device ID " + deviceId;
@@ -220,70 +111,6 @@ public class DeviceOrganizationMysqlDAOImpl implements DeviceOrganizationDAO {
         }
     }
 
-    private void getParentsRecursive(DeviceNode node,
-                                     int maxDepth,
-                                     Set<Integer> visited,
-                                     Set<Integer> twiceVisited,
-                                     Connection conn,
-                                     List<DeviceNode> parentNodes,
-                                     boolean includeDevice,
-                                     boolean childAdded,
-                                     int tenantID,
-                                     Set<DeviceOrganization> organizations)
-            throws SQLException {
-        if (maxDepth <= 0) {
-            return;
-        }
-        if (twiceVisited.contains(node.getDeviceId())) {
-            return;
-        }
-
-        if (visited.contains(node.getDeviceId())) {
-            twiceVisited.add(node.getDeviceId());
-        }
-
-        visited.add(node.getDeviceId());
-
-        String sql = "SELECT D.ID, D.NAME, D.DESCRIPTION, D.DEVICE_IDENTIFICATION, DT.NAME AS DEVICE_TYPE_NAME, " +
-                "DO.ORGANIZATION_ID,  DO.TENANT_ID, DO.DEVICE_ID, DO.PARENT_DEVICE_ID, DO.DEVICE_ORGANIZATION_META ," +
-                "DO.LAST_UPDATED_TIMESTAMP FROM DM_DEVICE D " +
-                "JOIN DM_DEVICE_ORGANIZATION DO ON D.ID = DO.PARENT_DEVICE_ID " +
-                "JOIN DM_DEVICE_TYPE DT ON D.DEVICE_TYPE_ID = DT.ID " +
-                "WHERE DO.TENANT_ID = ? AND DO.DEVICE_ID = ?";
-
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, tenantID);
-            stmt.setInt(2, node.getDeviceId());
-            try (ResultSet rs = stmt.executeQuery()) {
-                DeviceNode parent;
-                DeviceOrganization organization;
-                while (rs.next()) {
-                    parent = getDeviceFromResultSet(rs);
-                    node.getParents().add(parent);
-                    if (includeDevice && !childAdded) {
-                        parentNodes.add(node);
-                        childAdded = true;
-                    }
-
-                    organization = loadDeviceOrganization(rs);
-                    organizations.add(organization);
-
-                    getParentsRecursive(
-                            parent,
-                            (maxDepth - 1),
-                            visited,
-                            twiceVisited,
-                            conn,
-                            parentNodes,
-                            includeDevice,
-                            childAdded,
-                            tenantID,
-                            organizations);
-                }
-            }
-        }
-    }
-
     private DeviceNode getDeviceDetails(int deviceId, Connection conn) throws SQLException {
         String sql = "SELECT D.ID, D.NAME, D.DESCRIPTION, D.DEVICE_IDENTIFICATION, DT.NAME AS DEVICE_TYPE_NAME " +
                 "FROM DM_DEVICE D " +
@@ -426,13 +253,21 @@ public class DeviceOrganizationMysqlDAOImpl implements DeviceOrganizationDAO {
                     " VALUES (?, ?, ?, ?, ?)";
 
             Connection conn = ConnectionManagerUtil.getDBConnection();
+            Integer parentDeviceId = deviceOrganization.getParentDeviceId();
+            if (deviceOrganization.isCheckCyclicRelationship() && parentDeviceId != null &&
+                    isCyclicRelationship(conn, deviceOrganization.getTenantID(), deviceOrganization.getDeviceId(),
+                            parentDeviceId)) {
+                log.error("cyclic relationship detected. Insertion not allowed.");
+                result.setCyclic(true);
+                return result;
+            }
             Calendar calendar = Calendar.getInstance();
             Timestamp timestamp = new Timestamp(calendar.getTime().getTime());
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, deviceOrganization.getTenantID());
                 stmt.setInt(2, deviceOrganization.getDeviceId());
-                if (deviceOrganization.getParentDeviceId() != null) {
-                    stmt.setInt(3, deviceOrganization.getParentDeviceId());
+                if (parentDeviceId != null) {
+                    stmt.setInt(3, parentDeviceId);
                 } else {
                     stmt.setNull(3, java.sql.Types.INTEGER);
                 }
@@ -444,25 +279,15 @@ public class DeviceOrganizationMysqlDAOImpl implements DeviceOrganizationDAO {
 
                 stmt.setTimestamp(5, timestamp);
                 inserted = stmt.executeUpdate();
-
-                if (deviceOrganization.isCheckCyclicRelationship()) {
-                    boolean isCyclic = isCyclicRelationshipExist(conn,
-                            deviceOrganization.getParentDeviceId(), deviceOrganization.getTenantID());
-                    if (isCyclic) {
-                        result.setCyclic(true);
-                        return result;
-                    } else {
-                        if (inserted > 0) {
-                            result.setInserted(true);
-                            return result;
-                        }
-                    }
-                }
-                if (inserted > 0) {
-                    result.setInserted(true);
+            }
+            if (inserted > 0) {
+                if (parentDeviceId != null) {
+                    addRelationship(conn, deviceOrganization.getTenantID(), deviceOrganization.getDeviceId(),
+                            parentDeviceId);
                 }
-                return result;
+                result.setInserted(true);
             }
+            return result;
         } catch (DBConnectionException e) {
             String msg = "Error occurred while obtaining DB connection to insert device organization for " +
                     deviceOrganization.getDeviceId();
@@ -475,6 +300,7 @@ public class DeviceOrganizationMysqlDAOImpl implements DeviceOrganizationDAO {
             throw new DeviceOrganizationMgtDAOException(msg, e);
         }
     }
+
     /**
      * Implementation for a test
      * @param tenantID
@@ -540,55 +366,6 @@ public class DeviceOrganizationMysqlDAOImpl implements DeviceOrganizationDAO {
         }
     }
 
-    private boolean isCyclicRelationshipExist(Connection conn, Integer parentDeviceID, int tenantID)
-            throws DeviceOrganizationMgtDAOException {
-        try {
-            // Check for cyclic relationship
-            if (hasCyclicRelationship(conn, parentDeviceID, tenantID)){
-                log.error("cyclic relationship detected. Insertion not allowed.");
-                return true;
-            }
-            return false;
-        } catch (SQLException e) {
-            String msg = "Error occurred while processing SQL to check cyclic relationship for " +
-                    "parentDeviceID " + parentDeviceID;
-            log.error(msg);
-            throw new DeviceOrganizationMgtDAOException(msg, e);
-        }
-    }
-
-    private boolean hasCyclicRelationship(Connection connection, Integer parentDeviceID, int tenantID) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(
-                "WITH RECURSIVE all_paths AS\n" +
-                        "(" +
-                        "SELECT DEVICE_ID AS DEVICE_ID,\n" +
-                        "CAST(DEVICE_ID AS CHAR(500)) AS path, 0 AS is_cycle\n" +
-                        "FROM DM_DEVICE_ORGANIZATION\n" +
-                        "WHERE PARENT_DEVICE_ID=? AND TENANT_ID = ?\n" +
-                        "UNION ALL\n" +
-                        "SELECT r.DEVICE_ID,\n" +
-                        "CONCAT(d.path, ',', r.DEVICE_ID),\n" +
-                        "FIND_IN_SET(r.DEVICE_ID, d.path)!=0\n" +
-                        "FROM DM_DEVICE_ORGANIZATION r, all_paths d\n" +
-                        "WHERE r.PARENT_DEVICE_ID=d.DEVICE_ID\n" +
-                        "AND is_cycle=0" +
-                        ")\n" +
-                        "SELECT\n" +
-                        "  DEVICE_ID,\n" +
-                        "  path,\n" +
-                        "  is_cycle\n" +
-                        "FROM\n" +
-                        "  all_paths\n" +
-                        "WHERE\n" +
-                        "  is_cycle = 1;")) {
-            statement.setInt(1, parentDeviceID);
-            statement.setInt(2, tenantID);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                return resultSet.next();
-            }
-        }
-    }
-
     /**
      * {@inheritDoc}
      */
@@ -719,8 +496,28 @@ public class DeviceOrganizationMysqlDAOImpl implements DeviceOrganizationDAO {
                 }
                 stmt.setTimestamp(++x, timestamp);
                 stmt.setInt(++x, deviceOrganization.getOrganizationId());
-                return stmt.executeUpdate() > 0;
+                if (stmt.executeUpdate() <= 0) {
+                    return false;
+                }
             }
+            int deviceId = deviceOrganization.getDeviceId() > 0 ?
+                    deviceOrganization.getDeviceId() : organization.getDeviceId();
+            Integer parentDeviceId = (deviceOrganization.getParentDeviceId() == null ||
+                    deviceOrganization.getParentDeviceId() > 0) ?
+                    deviceOrganization.getParentDeviceId() : organization.getParentDeviceId();
+            if (deviceId != organization.getDeviceId() ||
+                    !Objects.equals(parentDeviceId, organization.getParentDeviceId())) {
+                // The organization has moved, hence the paths through its former parent device are recomputed
+                if (organization.getParentDeviceId() != null) {
+                    refreshRelationships(conn, deviceOrganization.getTenantID(),
+                            Collections.singleton(organization.getParentDeviceId()),
+                            Collections.singleton(organization.getDeviceId()));
+                }
+                if (parentDeviceId != null) {
+                    addRelationship(conn, deviceOrganization.getTenantID(), deviceId, parentDeviceId);
+                }
+            }
+            return true;
 
         } catch (DBConnectionException e) {
             msg = "Error occurred while obtaining DB connection to update device organization for " +
@@ -784,8 +581,13 @@ public class DeviceOrganizationMysqlDAOImpl implements DeviceOrganizationDAO {
                 deleteOrgStmt.setInt(1, tenantID);
                 deleteOrgStmt.setInt(2, deviceId);
                 deleteOrgStmt.setInt(3, parentDeviceId);
-                return deleteOrgStmt.executeUpdate() > 0;
+                if (deleteOrgStmt.executeUpdate() <= 0) {
+                    return false;
+                }
             }
+            refreshRelationships(conn, tenantID, Collections.singleton(parentDeviceId),
+                    Collections.singleton(deviceId));
+            return true;
 
         } catch (DBConnectionException e) {
             String msg = "Error occurred while obtaining DB connection to delete device organization for " +
@@ -807,6 +609,7 @@ public class DeviceOrganizationMysqlDAOImpl implements DeviceOrganizationDAO {
     public boolean deleteDeviceOrganizationByID(int organizationId, int tenantID) throws DeviceOrganizationMgtDAOException {
         try {
             Connection conn = ConnectionManagerUtil.getDBConnection();
+            DeviceOrganization organization = getDeviceOrganizationByID(organizationId, tenantID);
             String deleteOrganizationSql = "DELETE FROM DM_DEVICE_ORGANIZATION WHERE TENANT_ID = ? AND ORGANIZATION_ID = ?";
 
             try (PreparedStatement deleteOrgStmt = conn.prepareStatement(deleteOrganizationSql)) {
@@ -814,8 +617,15 @@ public class DeviceOrganizationMysqlDAOImpl implements DeviceOrganizationDAO {
                 // Delete the organization
                 deleteOrgStmt.setInt(1, tenantID);
                 deleteOrgStmt.setInt(2, organizationId);
-                return deleteOrgStmt.executeUpdate() > 0;
+                if (deleteOrgStmt.executeUpdate() <= 0) {
+                    return false;
+                }
+            }
+            if (organization != null && organization.getParentDeviceId() != null) {
+                refreshRelationships(conn, tenantID, Collections.singleton(organization.getParentDeviceId()),
+                        Collections.singleton(organization.getDeviceId()));
             }
+            return true;
 
         } catch (DBConnectionException e) {
             String msg = "Error occurred while obtaining DB connection to delete device organization for " +
@@ -851,8 +661,13 @@ public class DeviceOrganizationMysqlDAOImpl implements DeviceOrganizationDAO {
                 deleteByParentDeviceIdStmt.setInt(1, tenantID);
                 deleteByParentDeviceIdStmt.setInt(2, deviceId);
 
-                return deleteByDeviceIdStmt.executeUpdate() > 0 | deleteByParentDeviceIdStmt.executeUpdate() > 0;
-
+                boolean deleted = deleteByDeviceIdStmt.executeUpdate() > 0 |
+                        deleteByParentDeviceIdStmt.executeUpdate() > 0;
+                if (deleted) {
+                    refreshRelationships(conn, tenantID, Collections.singleton(deviceId),
+                            Collections.singleton(deviceId));
+                }
+                return deleted;
             }
         } catch (DBConnectionException e) {
             String msg = "Error occurred while obtaining DB connection to delete device organization for device ID" +
@@ -934,5 +749,65 @@ public class DeviceOrganizationMysqlDAOImpl implements DeviceOrganizationDAO {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DeviceOrganizationGraph getDeviceOrganizationGraph(int tenantID) throws DeviceOrganizationMgtDAOException {
+        try {
+            Connection conn = ConnectionManagerUtil.getDBConnection();
+            return getGraph(conn, tenantID);
+        } catch (DBConnectionException e) {
+            String msg = "Error occurred while obtaining DB connection to retrieve device organizations of tenant " +
+                    tenantID;
+            log.error(msg);
+            throw new DeviceOrganizationMgtDAOException(msg, e);
+        } catch (SQLException e) {
+            String msg = "Error occurred while processing SQL to retrieve device organizations of tenant " + tenantID;
+            log.error(msg);
+            throw new DeviceOrganizationMgtDAOException(msg, e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void rebuildDeviceOrganizationHierarchy(int tenantID) throws DeviceOrganizationMgtDAOException {
+        try {
+            Connection conn = ConnectionManagerUtil.getDBConnection();
+            rebuild(conn, tenantID);
+        } catch (DBConnectionException e) {
+            String msg = "Error occurred while obtaining DB connection to rebuild device organization hierarchy of " +
+                    "tenant " + tenantID;
+            log.error(msg);
+            throw new DeviceOrganizationMgtDAOException(msg, e);
+        } catch (SQLException e) {
+            String msg = "Error occurred while processing SQL to rebuild device organization hierarchy of tenant " +
+                    tenantID;
+            log.error(msg);
+            throw new DeviceOrganizationMgtDAOException(msg, e);
+        }
+    }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isDeviceOrganizationHierarchyMissing(int tenantID) throws DeviceOrganizationMgtDAOException {
+        try {
+            Connection conn = ConnectionManagerUtil.getDBConnection();
+            return isRebuildRequired(conn, tenantID);
+        } catch (DBConnectionException e) {
+            String msg = "Error occurred while obtaining DB connection to check device organization hierarchy of " +
+                    "tenant " + tenantID;
+            log.error(msg);
+            throw new DeviceOrganizationMgtDAOException(msg, e);
+        } catch (SQLException e) {
+            String msg = "Error occurred while processing SQL to check device organization hierarchy of tenant " +
+                    tenantID;
+            log.error(msg);
+            throw new DeviceOrganizationMgtDAOException(msg, e);
+        }
+    }
 }
@@ -0,0 +1,484 @@
+/*
+ * Copyright (c) 2018 - 2024, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.DeviceOrganizationDaoUtil.getDeviceDetails;
+import static io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.DeviceOrganizationDaoUtil.loadDeviceOrganization;
+
+/**
+ * Maintains and queries DM_DEVICE_ORGANIZATION_CLOSURE, the transitive closure of the device organizations.
+ * <p>
+ * The closure table holds a row for every pair of devices where one device can be reached from the other through
+ * the organizations of a tenant, with the length of the shortest such path as its depth. A device is never recorded
+ * as its own ancestor. Subtree, ancestor and cyclic relationship lookups are therefore single queries over the
+ * closure table, instead of a query per visited device.
+ * <p>
+ * The closure table is updated in the same transaction as the organizations. Adding an organization joins the
+ * ancestors of the parent device with the descendants of the child device. Removing organizations recomputes the
+ * pairs which may have gone through them, from the organizations that remain.
+ */
+public class DeviceOrganizationClosureUtil {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String ORGANIZATION_COLUMNS = "SELECT D.ID, D.NAME, D.DESCRIPTION, D.DEVICE_IDENTIFICATION, " +
+            "DT.NAME AS DEVICE_TYPE_NAME, DO.ORGANIZATION_ID, DO.TENANT_ID, DO.DEVICE_ID, DO.PARENT_DEVICE_ID, " +
+            "DO.DEVICE_ORGANIZATION_META, DO.LAST_UPDATED_TIMESTAMP FROM DM_DEVICE D ";
+
+    private DeviceOrganizationClosureUtil() {
+    }
+
+    /**
+     * Checks whether adding an organization would create a cyclic relationship, that is whether the child device
+     * is the parent device itself or one of its ancestors.
+     *
+     * @param conn           database connection
+     * @param tenantID       ID of the tenant
+     * @param deviceId       ID of the child device
+     * @param parentDeviceId ID of the parent device
+     * @return true if the organization would create a cyclic relationship
+     * @throws SQLException if the closure table cannot be queried
+     */
+    public static boolean isCyclicRelationship(Connection conn, int tenantID, int deviceId, int parentDeviceId)
+            throws SQLException {
+        if (deviceId == parentDeviceId) {
+            return true;
+        }
+        String sql = "SELECT 1 FROM DM_DEVICE_ORGANIZATION_CLOSURE WHERE TENANT_ID = ? AND ANCESTOR_DEVICE_ID = ? " +
+                "AND DESCENDANT_DEVICE_ID = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, tenantID);
+            stmt.setInt(2, deviceId);
+            stmt.setInt(3, parentDeviceId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Records the paths created by a new organization between a device and its parent device.
+     *
+     * @param conn           database connection
+     * @param tenantID       ID of the tenant
+     * @param deviceId       ID of the child device
+     * @param parentDeviceId ID of the parent device
+     * @throws SQLException if the closure table cannot be updated
+     */
+    public static void addRelationship(Connection conn, int tenantID, int deviceId, int parentDeviceId)
+            throws SQLException {
+        if (deviceId == parentDeviceId) {
+            return;
+        }
+        Map<Integer, Integer> ancestors = getAncestorDepths(conn, tenantID, parentDeviceId);
+        ancestors.put(parentDeviceId, 0);
+        Map<Integer, Integer> descendants = getDescendantDepths(conn, tenantID, deviceId);
+        descendants.put(deviceId, 0);
+
+        // Paths already recorded from the ancestors of the parent device to the descendants of the device
+        Map<Long, Integer> existing = new HashMap<>();
+        String sql = "SELECT DOC.ANCESTOR_DEVICE_ID, DOC.DESCENDANT_DEVICE_ID, DOC.DEPTH " +
+                "FROM DM_DEVICE_ORGANIZATION_CLOSURE DOC WHERE DOC.TENANT_ID = ? AND (DOC.DESCENDANT_DEVICE_ID = ? " +
+                "OR DOC.DESCENDANT_DEVICE_ID IN (SELECT S.DESCENDANT_DEVICE_ID FROM DM_DEVICE_ORGANIZATION_CLOSURE S " +
+                "WHERE S.TENANT_ID = ? AND S.ANCESTOR_DEVICE_ID = ?))";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, tenantID);
+            stmt.setInt(2, deviceId);
+            stmt.setInt(3, tenantID);
+            stmt.setInt(4, deviceId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int ancestorId = rs.getInt("ANCESTOR_DEVICE_ID");
+                    if (ancestors.containsKey(ancestorId)) {
+                        existing.put(getPairKey(ancestorId, rs.getInt("DESCENDANT_DEVICE_ID")), rs.getInt("DEPTH"));
+                    }
+                }
+            }
+        }
+
+        try (PreparedStatement insertStmt = conn.prepareStatement(getInsertSql());
+             PreparedStatement updateStmt = conn.prepareStatement("UPDATE DM_DEVICE_ORGANIZATION_CLOSURE " +
+                     "SET DEPTH = ? WHERE TENANT_ID = ? AND ANCESTOR_DEVICE_ID = ? AND DESCENDANT_DEVICE_ID = ?")) {
+            int inserts = 0;
+            int updates = 0;
+            for (Map.Entry<Integer, Integer> ancestor : ancestors.entrySet()) {
+                for (Map.Entry<Integer, Integer> descendant : descendants.entrySet()) {
+                    if (ancestor.getKey().equals(descendant.getKey())) {
+                        continue;
+                    }
+                    int depth = ancestor.getValue() + descendant.getValue() + 1;
+                    Integer existingDepth = existing.get(getPairKey(ancestor.getKey(), descendant.getKey()));
+                    if (existingDepth == null) {
+                        addInsert(insertStmt, tenantID, ancestor.getKey(), descendant.getKey(), depth);
+                        if (++inserts % BATCH_SIZE == 0) {
+                            insertStmt.executeBatch();
+                        }
+                    } else if (depth < existingDepth) {
+                        updateStmt.setInt(1, depth);
+                        updateStmt.setInt(2, tenantID);
+                        updateStmt.setInt(3, ancestor.getKey());
+                        updateStmt.setInt(4, descendant.getKey());
+                        updateStmt.addBatch();
+                        if (++updates % BATCH_SIZE == 0) {
+                            updateStmt.executeBatch();
+                        }
+                    }
+                }
+            }
+            if (inserts % BATCH_SIZE != 0) {
+                insertStmt.executeBatch();
+            }
+            if (updates % BATCH_SIZE != 0) {
+                updateStmt.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Recomputes the paths which may have gone through removed organizations. It has to be called after the
+     * organizations are removed from DM_DEVICE_ORGANIZATION, and before the closure table is otherwise changed.
+     *
+     * @param conn            database connection
+     * @param tenantID        ID of the tenant
+     * @param parentDeviceIds IDs of the parent devices of the removed organizations
+     * @param deviceIds       IDs of the child devices of the removed organizations
+     * @throws SQLException if the closure table cannot be updated
+     */
+    public static void refreshRelationships(Connection conn, int tenantID, Collection<Integer> parentDeviceIds,
+                                            Collection<Integer> deviceIds) throws SQLException {
+        Set<Integer> ancestors = new HashSet<>(parentDeviceIds);
+        for (Integer parentDeviceId : parentDeviceIds) {
+            ancestors.addAll(getAncestorDepths(conn, tenantID, parentDeviceId).keySet());
+        }
+        Set<Integer> descendants = new HashSet<>(deviceIds);
+        for (Integer deviceId : deviceIds) {
+            descendants.addAll(getDescendantDepths(conn, tenantID, deviceId).keySet());
+        }
+        Map<Integer, List<Integer>> adjacency = getAdjacency(conn, tenantID);
+
+        try (PreparedStatement deleteStmt = conn.prepareStatement("DELETE FROM DM_DEVICE_ORGANIZATION_CLOSURE " +
+                "WHERE TENANT_ID = ? AND ANCESTOR_DEVICE_ID = ? AND DESCENDANT_DEVICE_ID = ?");
+             PreparedStatement insertStmt = conn.prepareStatement(getInsertSql())) {
+            int deletes = 0;
+            List<int[]> rows = new ArrayList<>();
+            for (int ancestorId : ancestors) {
+                Map<Integer, Integer> depths = getShortestDepths(adjacency, ancestorId);
+                for (int descendantId : descendants) {
+                    if (ancestorId == descendantId) {
+                        continue;
+                    }
+                    deleteStmt.setInt(1, tenantID);
+                    deleteStmt.setInt(2, ancestorId);
+                    deleteStmt.setInt(3, descendantId);
+                    deleteStmt.addBatch();
+                    if (++deletes % BATCH_SIZE == 0) {
+                        deleteStmt.executeBatch();
+                    }
+                    Integer depth = depths.get(descendantId);
+                    if (depth != null) {
+                        rows.add(new int[]{ancestorId, descendantId, depth});
+                    }
+                }
+            }
+            if (deletes % BATCH_SIZE != 0) {
+                deleteStmt.executeBatch();
+            }
+            insertRows(insertStmt, tenantID, rows);
+        }
+    }
+
+    /**
+     * Recomputes the closure table of a tenant from its organizations. This is used to populate the closure table
+     * for organizations which were added before it was introduced.
+     *
+     * @param conn     database connection
+     * @param tenantID ID of the tenant
+     * @throws SQLException if the closure table cannot be updated
+     */
+    public static void rebuild(Connection conn, int tenantID) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM DM_DEVICE_ORGANIZATION_CLOSURE WHERE TENANT_ID = ?")) {
+            stmt.setInt(1, tenantID);
+            stmt.executeUpdate();
+        }
+        Map<Integer, List<Integer>> adjacency = getAdjacency(conn, tenantID);
+        List<int[]> rows = new ArrayList<>();
+        for (int ancestorId : adjacency.keySet()) {
+            for (Map.Entry<Integer, Integer> depth : getShortestDepths(adjacency, ancestorId).entrySet()) {
+                rows.add(new int[]{ancestorId, depth.getKey(), depth.getValue()});
+            }
+        }
+        try (PreparedStatement insertStmt = conn.prepareStatement(getInsertSql())) {
+            insertRows(insertStmt, tenantID, rows);
+        }
+    }
+
+    /**
+     * Checks whether the closure table of a tenant has to be rebuilt, that is whether the tenant has organizations
+     * with a parent device but no rows in the closure table, as when they were added before it was introduced.
+     *
+     * @param conn     database connection
+     * @param tenantID ID of the tenant
+     * @return true if the closure table of the tenant is missing
+     * @throws SQLException if the organizations or the closure table cannot be queried
+     */
+    public static boolean isRebuildRequired(Connection conn, int tenantID) throws SQLException {
+        String sql = "SELECT DO.DEVICE_ID FROM DM_DEVICE_ORGANIZATION DO " +
+                "WHERE DO.TENANT_ID = ? AND DO.PARENT_DEVICE_ID IS NOT NULL AND NOT EXISTS " +
+                "(SELECT 1 FROM DM_DEVICE_ORGANIZATION_CLOSURE C WHERE C.TENANT_ID = ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, tenantID);
+            stmt.setInt(2, tenantID);
+            stmt.setMaxRows(1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Reads the organizations which a traversal of the child devices of a device needs, that is the organizations
+     * whose parent device lies within less than the given depth below the device.
+     *
+     * @param conn     database connection
+     * @param tenantID ID of the tenant
+     * @param deviceId ID of the device to start from
+     * @param maxDepth maximum depth of the traversal
+     * @return graph of the organizations below the device
+     * @throws SQLException if the organizations cannot be read
+     */
+    public static DeviceOrganizationGraph getDescendantGraph(Connection conn, int tenantID, int deviceId, int maxDepth)
+            throws SQLException {
+        DeviceOrganizationGraph graph = new DeviceOrganizationGraph();
+        if (maxDepth <= 0) {
+            return graph;
+        }
+        String sql = ORGANIZATION_COLUMNS +
+                "JOIN DM_DEVICE_ORGANIZATION DO ON D.ID = DO.DEVICE_ID " +
+                "JOIN DM_DEVICE_TYPE DT ON D.DEVICE_TYPE_ID = DT.ID " +
+                "WHERE DO.TENANT_ID = ? AND (DO.PARENT_DEVICE_ID = ? OR DO.PARENT_DEVICE_ID IN " +
+                "(SELECT DOC.DESCENDANT_DEVICE_ID FROM DM_DEVICE_ORGANIZATION_CLOSURE DOC " +
+                "WHERE DOC.TENANT_ID = ? AND DOC.ANCESTOR_DEVICE_ID = ? AND DOC.DEPTH < ?)) " +
+                "ORDER BY DO.ORGANIZATION_ID";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, tenantID);
+            stmt.setInt(2, deviceId);
+            stmt.setInt(3, tenantID);
+            stmt.setInt(4, deviceId);
+            stmt.setInt(5, maxDepth);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    graph.addChild(getDeviceDetails(rs), loadDeviceOrganization(rs));
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Reads the organizations which a traversal of the parent devices of a device needs, that is the organizations
+     * whose child device lies within less than the given depth above the device.
+     *
+     * @param conn     database connection
+     * @param tenantID ID of the tenant
+     * @param deviceId ID of the device to start from
+     * @param maxDepth maximum depth of the traversal
+     * @return graph of the organizations above the device
+     * @throws SQLException if the organizations cannot be read
+     */
+    public static DeviceOrganizationGraph getAncestorGraph(Connection conn, int tenantID, int deviceId, int maxDepth)
+            throws SQLException {
+        DeviceOrganizationGraph graph = new DeviceOrganizationGraph();
+        if (maxDepth <= 0) {
+            return graph;
+        }
+        String sql = ORGANIZATION_COLUMNS +
+                "JOIN DM_DEVICE_ORGANIZATION DO ON D.ID = DO.PARENT_DEVICE_ID " +
+                "JOIN DM_DEVICE_TYPE DT ON D.DEVICE_TYPE_ID = DT.ID " +
+                "WHERE DO.TENANT_ID = ? AND (DO.DEVICE_ID = ? OR DO.DEVICE_ID IN " +
+                "(SELECT DOC.ANCESTOR_DEVICE_ID FROM DM_DEVICE_ORGANIZATION_CLOSURE DOC " +
+                "WHERE DOC.TENANT_ID = ? AND DOC.DESCENDANT_DEVICE_ID = ? AND DOC.DEPTH < ?)) " +
+                "ORDER BY DO.ORGANIZATION_ID";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, tenantID);
+            stmt.setInt(2, deviceId);
+            stmt.setInt(3, tenantID);
+            stmt.setInt(4, deviceId);
+            stmt.setInt(5, maxDepth);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    graph.addParent(getDeviceDetails(rs), loadDeviceOrganization(rs));
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Reads all organizations of a tenant, in both directions.
+     *
+     * @param conn     database connection
+     * @param tenantID ID of the tenant
+     * @return graph of all organizations of the tenant
+     * @throws SQLException if the organizations cannot be read
+     */
+    public static DeviceOrganizationGraph getGraph(Connection conn, int tenantID) throws SQLException {
+        DeviceOrganizationGraph graph = new DeviceOrganizationGraph();
+        String childSql = ORGANIZATION_COLUMNS +
+                "JOIN DM_DEVICE_ORGANIZATION DO ON D.ID = DO.DEVICE_ID " +
+                "JOIN DM_DEVICE_TYPE DT ON D.DEVICE_TYPE_ID = DT.ID " +
+                "WHERE DO.TENANT_ID = ? ORDER BY DO.ORGANIZATION_ID";
+        String parentSql = ORGANIZATION_COLUMNS +
+                "JOIN DM_DEVICE_ORGANIZATION DO ON D.ID = DO.PARENT_DEVICE_ID " +
+                "JOIN DM_DEVICE_TYPE DT ON D.DEVICE_TYPE_ID = DT.ID " +
+                "WHERE DO.TENANT_ID = ? ORDER BY DO.ORGANIZATION_ID";
+        try (PreparedStatement stmt = conn.prepareStatement(childSql)) {
+            stmt.setInt(1, tenantID);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    graph.addChild(getDeviceDetails(rs), loadDeviceOrganization(rs));
+                }
+            }
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(parentSql)) {
+            stmt.setInt(1, tenantID);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    graph.addParent(getDeviceDetails(rs), loadDeviceOrganization(rs));
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Computes the length of the shortest path from a device to each device reachable from it.
+     *
+     * @param adjacency child devices of each parent device
+     * @param sourceId  ID of the device to start from
+     * @return depth of each reachable device, excluding the device itself
+     */
+    public static Map<Integer, Integer> getShortestDepths(Map<Integer, List<Integer>> adjacency, int sourceId) {
+        Map<Integer, Integer> depths = new HashMap<>();
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(sourceId);
+        depths.put(sourceId, 0);
+        while (!queue.isEmpty()) {
+            int deviceId = queue.poll();
+            int depth = depths.get(deviceId);
+            for (int childId : adjacency.getOrDefault(deviceId, Collections.emptyList())) {
+                if (!depths.containsKey(childId)) {
+                    depths.put(childId, depth + 1);
+                    queue.add(childId);
+                }
+            }
+        }
+        depths.remove(sourceId);
+        return depths;
+    }
+
+    private static Map<Integer, Integer> getAncestorDepths(Connection conn, int tenantID, int deviceId)
+            throws SQLException {
+        return getDepths(conn, "SELECT ANCESTOR_DEVICE_ID AS DEVICE_ID, DEPTH FROM DM_DEVICE_ORGANIZATION_CLOSURE " +
+                "WHERE TENANT_ID = ? AND DESCENDANT_DEVICE_ID = ?", tenantID, deviceId);
+    }
+
+    private static Map<Integer, Integer> getDescendantDepths(Connection conn, int tenantID, int deviceId)
+            throws SQLException {
+        return getDepths(conn, "SELECT DESCENDANT_DEVICE_ID AS DEVICE_ID, DEPTH FROM DM_DEVICE_ORGANIZATION_CLOSURE " +
+                "WHERE TENANT_ID = ? AND ANCESTOR_DEVICE_ID = ?", tenantID, deviceId);
+    }
+
+    private static Map<Integer, Integer> getDepths(Connection conn, String sql, int tenantID, int deviceId)
+            throws SQLException {
+        Map<Integer, Integer> depths = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, tenantID);
+            stmt.setInt(2, deviceId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    depths.put(rs.getInt("DEVICE_ID"), rs.getInt("DEPTH"));
+                }
+            }
+        }
+        return depths;
+    }
+
+    private static Map<Integer, List<Integer>> getAdjacency(Connection conn, int tenantID) throws SQLException {
+        Map<Integer, List<Integer>> adjacency = new HashMap<>();
+        String sql = "SELECT DEVICE_ID, PARENT_DEVICE_ID FROM DM_DEVICE_ORGANIZATION " +
+                "WHERE TENANT_ID = ? AND PARENT_DEVICE_ID IS NOT NULL";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, tenantID);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    adjacency.computeIfAbsent(rs.getInt("PARENT_DEVICE_ID"), k -> new ArrayList<>())
+                            .add(rs.getInt("DEVICE_ID"));
+                }
+            }
+        }
+        return adjacency;
+    }
+
+    private static String getInsertSql() {
+        return "INSERT INTO DM_DEVICE_ORGANIZATION_CLOSURE (TENANT_ID, ANCESTOR_DEVICE_ID, DESCENDANT_DEVICE_ID, " +
+                "DEPTH) VALUES (?, ?, ?, ?)";
+    }
+
+    private static void addInsert(PreparedStatement stmt, int tenantID, int ancestorId, int descendantId, int depth)
+            throws SQLException {
+        stmt.setInt(1, tenantID);
+        stmt.setInt(2, ancestorId);
+        stmt.setInt(3, descendantId);
+        stmt.setInt(4, depth);
+        stmt.addBatch();
+    }
+
+    private static void insertRows(PreparedStatement stmt, int tenantID, List<int[]> rows) throws SQLException {
+        int inserts = 0;
+        for (int[] row : rows) {
+            addInsert(stmt, tenantID, row[0], row[1], row[2]);
+            if (++inserts % BATCH_SIZE == 0) {
+                stmt.executeBatch();
+            }
+        }
+        if (inserts % BATCH_SIZE != 0) {
+            stmt.executeBatch();
+        }
+    }
+
+    private static long getPairKey(int ancestorId, int descendantId) {
+        return ((long) ancestorId << 32) | (descendantId & 0xffffffffL);
+    }
+}
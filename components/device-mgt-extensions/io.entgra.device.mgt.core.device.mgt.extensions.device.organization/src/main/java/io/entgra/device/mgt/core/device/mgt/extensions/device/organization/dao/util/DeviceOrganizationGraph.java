@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2018 - 2024, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util;
+
+import io.entgra.device.mgt.core.device.mgt.common.Device;
+import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dto.DeviceNode;
+import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dto.DeviceNodeResult;
+import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dto.DeviceOrganization;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Adjacency lists of a device organization which answer child and parent traversals in memory.
+ * <p>
+ * A graph holds either the part of an organization which a single traversal needs, as read through the closure
+ * table, or the whole organization of a tenant, as kept in the adjacency cache. Traversals follow the same order,
+ * depth limit and revisit rules as the former query per device traversal, so they return the same device trees and
+ * organizations. The graph is not modified once it is built, and every traversal returns new nodes, devices and
+ * organizations, hence a graph can be shared by concurrent readers.
+ */
+public class DeviceOrganizationGraph {
+
+    private final Map<Integer, List<Edge>> children = new HashMap<>();
+    private final Map<Integer, List<Edge>> parents = new HashMap<>();
+    private final Map<Integer, Device> devices = new HashMap<>();
+    private int edgeCount;
+
+    /**
+     * Adds an organization together with the details of its child device. Organizations without a parent only
+     * record the device.
+     *
+     * @param child        details of the child device of the organization
+     * @param organization organization to add
+     */
+    public void addChild(Device child, DeviceOrganization organization) {
+        devices.put(child.getId(), child);
+        if (organization.getParentDeviceId() != null) {
+            children.computeIfAbsent(organization.getParentDeviceId(), k -> new ArrayList<>())
+                    .add(new Edge(child, organization));
+            edgeCount++;
+        }
+    }
+
+    /**
+     * Adds an organization together with the details of its parent device.
+     *
+     * @param parent       details of the parent device of the organization
+     * @param organization organization to add
+     */
+    public void addParent(Device parent, DeviceOrganization organization) {
+        devices.put(parent.getId(), parent);
+        parents.computeIfAbsent(organization.getDeviceId(), k -> new ArrayList<>()).add(new Edge(parent, organization));
+    }
+
+    /**
+     * @param deviceId ID of the device
+     * @return true if the device takes part in the organization held by this graph
+     */
+    public boolean containsDevice(int deviceId) {
+        return devices.containsKey(deviceId);
+    }
+
+    /**
+     * @param deviceId ID of the device
+     * @return a new node of the device, or null if the device is not part of this graph
+     */
+    public DeviceNode getDeviceNode(int deviceId) {
+        Device device = devices.get(deviceId);
+        return device != null ? newDeviceNode(device) : null;
+    }
+
+    /**
+     * @return number of organizations with a parent device held by this graph
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Retrieves the child devices of a device node, up to the given depth.
+     *
+     * @param deviceNode    node to start from
+     * @param maxDepth      maximum depth to traverse
+     * @param includeDevice flag to indicate whether to include the device node in the result
+     * @return the device node with its children, and the organizations traversed
+     */
+    public DeviceNodeResult getChildren(DeviceNode deviceNode, int maxDepth, boolean includeDevice) {
+        List<DeviceNode> childNodes = new ArrayList<>();
+        Set<DeviceOrganization> organizations = new HashSet<>();
+        getChildrenRecursive(deviceNode, maxDepth, new HashSet<>(), new HashSet<>(), childNodes, includeDevice,
+                false, organizations);
+        if (!includeDevice) {
+            childNodes.add(deviceNode);
+        }
+        return new DeviceNodeResult(childNodes, organizations);
+    }
+
+    /**
+     * Retrieves the parent devices of a device node, up to the given depth.
+     *
+     * @param deviceNode    node to start from
+     * @param maxDepth      maximum depth to traverse
+     * @param includeDevice flag to indicate whether to include the device node in the result
+     * @return the device node with its parents, and the organizations traversed
+     */
+    public DeviceNodeResult getParents(DeviceNode deviceNode, int maxDepth, boolean includeDevice) {
+        List<DeviceNode> parentNodes = new ArrayList<>();
+        Set<DeviceOrganization> organizations = new HashSet<>();
+        getParentsRecursive(deviceNode, maxDepth, new HashSet<>(), new HashSet<>(), parentNodes, includeDevice,
+                false, organizations);
+        if (!includeDevice) {
+            parentNodes.add(deviceNode);
+        }
+        return new DeviceNodeResult(parentNodes, organizations);
+    }
+
+    private void getChildrenRecursive(DeviceNode node, int maxDepth, Set<Integer> visited, Set<Integer> twiceVisited,
+                                      List<DeviceNode> childNodes, boolean includeDevice, boolean parentAdded,
+                                      Set<DeviceOrganization> organizations) {
+        if (maxDepth <= 0) {
+            return;
+        }
+        if (twiceVisited.contains(node.getDeviceId())) {
+            return;
+        }
+        if (visited.contains(node.getDeviceId())) {
+            twiceVisited.add(node.getDeviceId());
+        }
+        visited.add(node.getDeviceId());
+
+        boolean hasChildren = false;
+        for (Edge edge : children.getOrDefault(node.getDeviceId(), Collections.emptyList())) {
+            DeviceNode child = newDeviceNode(edge.device);
+            node.getChildren().add(child);
+            hasChildren = true;
+            if (includeDevice && !parentAdded) {
+                // Add the parent device only if includeDevice is true and it hasn't been added.
+                childNodes.add(node);
+                parentAdded = true;
+            }
+            organizations.add(copyOf(edge.organization));
+            getChildrenRecursive(child, maxDepth - 1, visited, twiceVisited, childNodes, includeDevice, parentAdded,
+                    organizations);
+        }
+
+        // Add the parent node if it doesn't have children and includeDevice is true
+        if (!hasChildren && includeDevice && !parentAdded) {
+            childNodes.add(node);
+        }
+    }
+
+    private void getParentsRecursive(DeviceNode node, int maxDepth, Set<Integer> visited, Set<Integer> twiceVisited,
+                                     List<DeviceNode> parentNodes, boolean includeDevice, boolean childAdded,
+                                     Set<DeviceOrganization> organizations) {
+        if (maxDepth <= 0) {
+            return;
+        }
+        if (twiceVisited.contains(node.getDeviceId())) {
+            return;
+        }
+        if (visited.contains(node.getDeviceId())) {
+            twiceVisited.add(node.getDeviceId());
+        }
+        visited.add(node.getDeviceId());
+
+        for (Edge edge : parents.getOrDefault(node.getDeviceId(), Collections.emptyList())) {
+            DeviceNode parent = newDeviceNode(edge.device);
+            node.getParents().add(parent);
+            if (includeDevice && !childAdded) {
+                parentNodes.add(node);
+                childAdded = true;
+            }
+            organizations.add(copyOf(edge.organization));
+            getParentsRecursive(parent, maxDepth - 1, visited, twiceVisited, parentNodes, includeDevice, childAdded,
+                    organizations);
+        }
+    }
+
+    private static DeviceNode newDeviceNode(Device device) {
+        Device copy = new Device();
+        copy.setId(device.getId());
+        copy.setDescription(device.getDescription());
+        copy.setName(device.getName());
+        copy.setType(device.getType());
+        copy.setDeviceIdentifier(device.getDeviceIdentifier());
+        DeviceNode node = new DeviceNode();
+        node.setDeviceId(device.getId());
+        node.setDevice(copy);
+        return node;
+    }
+
+    private static DeviceOrganization copyOf(DeviceOrganization organization) {
+        DeviceOrganization copy = new DeviceOrganization();
+        copy.setOrganizationId(organization.getOrganizationId());
+        copy.setTenantID(organization.getTenantID());
+        copy.setDeviceId(organization.getDeviceId());
+        copy.setParentDeviceId(organization.getParentDeviceId());
+        copy.setDeviceOrganizationMeta(organization.getDeviceOrganizationMeta());
+        copy.setUpdateTime(organization.getUpdateTime());
+        return copy;
+    }
+
+    private static class Edge {
+
+        private final Device device;
+        private final DeviceOrganization organization;
+
+        private Edge(Device device, DeviceOrganization organization) {
+            this.device = device;
+            this.organization = organization;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2018 - 2024, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.extensions.device.organization.impl;
+
+import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.DeviceOrganizationGraph;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size bounded, node local cache of the device organizations of each tenant, which answers repeated child and parent
+ * device traversals in memory.
+ * <p>
+ * The organizations of a tenant are read as a whole on the first traversal, and are kept until they expire, are
+ * evicted by more recently used tenants, or are invalidated by a change made through this node. Each tenant has a
+ * version which is increased on invalidation, and a graph is only stored if the version has not changed since it
+ * was taken before the graph was read, so a graph read before a committed change is never cached. Changes made
+ * through other nodes are picked up once the entry expires.
+ */
+public class DeviceOrganizationAdjacencyCache {
+
+    private final int capacity;
+    private final long expiryTime;
+    private final Map<Integer, Entry> entries;
+    private final Map<Integer, Long> versions = new HashMap<>();
+
+    /**
+     * @param capacity   maximum number of tenants to keep, the least recently used tenant is evicted beyond that
+     * @param expiryTime time to live of an entry in milliseconds
+     */
+    public DeviceOrganizationAdjacencyCache(int capacity, long expiryTime) {
+        this.capacity = capacity;
+        this.expiryTime = expiryTime;
+        this.entries = new LinkedHashMap<Integer, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                return size() > DeviceOrganizationAdjacencyCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * @param tenantID ID of the tenant
+     * @return the cached device organizations of the tenant, or null if they are not cached or have expired
+     */
+    public DeviceOrganizationGraph get(int tenantID) {
+        synchronized (entries) {
+            Entry entry = entries.get(tenantID);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiryTime < System.currentTimeMillis()) {
+                entries.remove(tenantID);
+                return null;
+            }
+            return entry.graph;
+        }
+    }
+
+    /**
+     * Caches the device organizations of a tenant. They are not cached if the tenant has been invalidated after the
+     * given version was taken.
+     *
+     * @param tenantID ID of the tenant
+     * @param graph    device organizations of the tenant
+     * @param version  version of the tenant, taken with {@link #getVersion(int)} before reading the organizations
+     */
+    public void put(int tenantID, DeviceOrganizationGraph graph, long version) {
+        synchronized (entries) {
+            if (getVersion(tenantID) == version) {
+                entries.put(tenantID, new Entry(graph, System.currentTimeMillis() + expiryTime));
+            }
+        }
+    }
+
+    /**
+     * Invalidates the cached device organizations of a tenant, and any read of them which is still in progress.
+     *
+     * @param tenantID ID of the tenant
+     */
+    public void invalidate(int tenantID) {
+        synchronized (entries) {
+            versions.merge(tenantID, 1L, Long::sum);
+            entries.remove(tenantID);
+        }
+    }
+
+    /**
+     * @param tenantID ID of the tenant
+     * @return current version of the tenant
+     */
+    public long getVersion(int tenantID) {
+        synchronized (entries) {
+            return versions.getOrDefault(tenantID, 0L);
+        }
+    }
+
+    /**
+     * @return number of tenants cached
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static class Entry {
+
+        private final DeviceOrganizationGraph graph;
+        private final long expiryTime;
+
+        private Entry(DeviceOrganizationGraph graph, long expiryTime) {
+            this.graph = graph;
+            this.expiryTime = expiryTime;
+        }
+    }
+}
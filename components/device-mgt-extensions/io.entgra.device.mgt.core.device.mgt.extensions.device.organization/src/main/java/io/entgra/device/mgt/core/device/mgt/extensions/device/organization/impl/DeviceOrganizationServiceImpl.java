@@ -17,9 +17,13 @@
  */
 package io.entgra.device.mgt.core.device.mgt.extensions.device.organization.impl;
 
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceConfigurationManager;
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceManagementConfig;
+import io.entgra.device.mgt.core.device.mgt.core.config.cache.DeviceOrganizationCacheConfiguration;
 import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.DeviceOrganizationDAO;
 import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.DeviceOrganizationDAOFactory;
 import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.ConnectionManagerUtil;
+import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.DeviceOrganizationGraph;
 import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dto.DeviceNodeResult;
 import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dto.PaginationRequest;
 import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dto.DeviceOrganization;
@@ -36,15 +40,20 @@ import org.wso2.carbon.context.PrivilegedCarbonContext;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DeviceOrganizationServiceImpl implements DeviceOrganizationService {
 
     private static final Log log = LogFactory.getLog(DeviceOrganizationServiceImpl.class);
 
     private final DeviceOrganizationDAO deviceOrganizationDao;
+    private final DeviceOrganizationAdjacencyCache adjacencyCache;
+    private final Set<Integer> verifiedHierarchyTenants = ConcurrentHashMap.newKeySet();
 
     public DeviceOrganizationServiceImpl() {
         this.deviceOrganizationDao = DeviceOrganizationDAOFactory.getDeviceOrganizationDAO();
+        this.adjacencyCache = createAdjacencyCache();
     }
 
     /**
@@ -59,6 +68,11 @@ public class DeviceOrganizationServiceImpl implements DeviceOrganizationService
                     ", includeDevice = " + includeDevice;
             throw new BadRequestException(msg);
         }
+        DeviceOrganizationGraph graph = getCachedDeviceOrganizationGraph();
+        if (graph != null && graph.containsDevice(deviceId)) {
+            return graph.getChildren(graph.getDeviceNode(deviceId), maxDepth, includeDevice);
+        }
+        ensureDeviceOrganizationHierarchy();
         try {
             // Open a database connection
             ConnectionManagerUtil.openDBConnection();
@@ -95,6 +109,11 @@ public class DeviceOrganizationServiceImpl implements DeviceOrganizationService
                     ", includeDevice = " + includeDevice;
             throw new BadRequestException(msg);
         }
+        DeviceOrganizationGraph graph = getCachedDeviceOrganizationGraph();
+        if (graph != null && graph.containsDevice(deviceId)) {
+            return graph.getParents(graph.getDeviceNode(deviceId), maxDepth, includeDevice);
+        }
+        ensureDeviceOrganizationHierarchy();
         try {
             // Open a database connection
             ConnectionManagerUtil.openDBConnection();
@@ -249,6 +268,7 @@ public class DeviceOrganizationServiceImpl implements DeviceOrganizationService
         } finally {
             // Close the database connection
 //            ConnectionManagerUtil.closeDBConnection();
+            invalidateAdjacencyCache();
         }
     }
 
@@ -262,6 +282,7 @@ public class DeviceOrganizationServiceImpl implements DeviceOrganizationService
                     ", deviceID = " + "deviceID should be a positive number"
                     + "parentDeviceID = " + "parentDeviceID should be a positive number or null");
         }
+        ensureDeviceOrganizationHierarchy();
         String msg;
         int deviceID = deviceOrganization.getDeviceId();
         Integer parentDeviceID = deviceOrganization.getParentDeviceId();
@@ -303,6 +324,7 @@ public class DeviceOrganizationServiceImpl implements DeviceOrganizationService
             throw new DeviceOrganizationMgtPluginException(msg, e);
         } finally {
             ConnectionManagerUtil.closeDBConnection();
+            invalidateAdjacencyCache();
         }
     }
 
@@ -313,6 +335,7 @@ public class DeviceOrganizationServiceImpl implements DeviceOrganizationService
                     + ", deviceID = " + deviceID
                     + ", parentDeviceID = " + parentDeviceID);
         }
+        ensureDeviceOrganizationHierarchy();
         try {
             ConnectionManagerUtil.openDBConnection();
             int tenantID = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
@@ -329,6 +352,7 @@ public class DeviceOrganizationServiceImpl implements DeviceOrganizationService
             throw new DeviceOrganizationMgtPluginException(msg, e);
         } finally {
             ConnectionManagerUtil.closeDBConnection();
+            invalidateAdjacencyCache();
         }
     }
 
@@ -422,6 +446,7 @@ public class DeviceOrganizationServiceImpl implements DeviceOrganizationService
     public boolean updateDeviceOrganization(DeviceOrganization deviceOrganization)
             throws DeviceOrganizationMgtPluginException {
 
+        ensureDeviceOrganizationHierarchy();
         String msg;
         DeviceOrganization organization = getDeviceOrganizationByID(deviceOrganization.getOrganizationId());
         if (organization == null) {
@@ -460,6 +485,7 @@ public class DeviceOrganizationServiceImpl implements DeviceOrganizationService
             throw new DeviceOrganizationMgtPluginException(msg, e);
         } finally {
             ConnectionManagerUtil.closeDBConnection();
+            invalidateAdjacencyCache();
         }
     }
 
@@ -506,6 +532,7 @@ public class DeviceOrganizationServiceImpl implements DeviceOrganizationService
                     "Invalid input parameters for deviceOrganization Deletion : " +
                     "organizationID = " + organizationID);
         }
+        ensureDeviceOrganizationHierarchy();
         String msg;
 
         DeviceOrganization deviceOrganization = getDeviceOrganizationByID(organizationID);
@@ -544,7 +571,7 @@ public class DeviceOrganizationServiceImpl implements DeviceOrganizationService
             throw new DeviceOrganizationMgtPluginException(msg, e);
         } finally {
             ConnectionManagerUtil.closeDBConnection();
-
+            invalidateAdjacencyCache();
         }
     }
 
@@ -558,6 +585,7 @@ public class DeviceOrganizationServiceImpl implements DeviceOrganizationService
             throw new BadRequestException("deviceID must be a positive number." +
                     "Invalid input parameters for deviceID = " + deviceID);
         }
+        ensureDeviceOrganizationHierarchy();
         String msg;
 
         boolean deviceIdExist = isDeviceIdExist(deviceID);
@@ -596,7 +624,35 @@ public class DeviceOrganizationServiceImpl implements DeviceOrganizationService
             throw new DeviceOrganizationMgtPluginException(msg, e);
         } finally {
             ConnectionManagerUtil.closeDBConnection();
+            invalidateAdjacencyCache();
+        }
+    }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void rebuildDeviceOrganizationHierarchy() throws DeviceOrganizationMgtPluginException {
+        int tenantID = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+        try {
+            ConnectionManagerUtil.beginDBTransaction();
+            deviceOrganizationDao.rebuildDeviceOrganizationHierarchy(tenantID);
+            ConnectionManagerUtil.commitDBTransaction();
+            verifiedHierarchyTenants.add(tenantID);
+        } catch (DBConnectionException e) {
+            String msg = "Error occurred while obtaining the database connection to rebuild device organization " +
+                    "hierarchy of tenant " + tenantID;
+            log.error(msg);
+            throw new DeviceOrganizationMgtPluginException(msg, e);
+        } catch (DeviceOrganizationMgtDAOException e) {
+            ConnectionManagerUtil.rollbackDBTransaction();
+            String msg = "Error occurred in the database level while rebuilding device organization hierarchy of " +
+                    "tenant " + tenantID;
+            log.error(msg);
+            throw new DeviceOrganizationMgtPluginException(msg, e);
+        } finally {
+            ConnectionManagerUtil.closeDBConnection();
+            invalidateAdjacencyCache();
         }
     }
 
@@ -663,4 +719,106 @@ public class DeviceOrganizationServiceImpl implements DeviceOrganizationService
             ConnectionManagerUtil.closeDBConnection();
         }
     }
+
+    /**
+     * Retrieves the device organizations of the current tenant from the adjacency cache, and reads them into the
+     * cache if they are not cached.
+     *
+     * @return the device organizations of the current tenant, or null if the adjacency cache is disabled
+     * @throws DeviceOrganizationMgtPluginException if the device organizations cannot be read
+     */
+    private DeviceOrganizationGraph getCachedDeviceOrganizationGraph() throws DeviceOrganizationMgtPluginException {
+        if (adjacencyCache == null) {
+            return null;
+        }
+        int tenantID = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+        DeviceOrganizationGraph graph = adjacencyCache.get(tenantID);
+        if (graph != null) {
+            return graph;
+        }
+        long version = adjacencyCache.getVersion(tenantID);
+        try {
+            ConnectionManagerUtil.openDBConnection();
+            graph = deviceOrganizationDao.getDeviceOrganizationGraph(tenantID);
+        } catch (DBConnectionException e) {
+            String msg = "Error occurred while obtaining the database connection to retrieve device organizations " +
+                    "of tenant " + tenantID;
+            log.error(msg);
+            throw new DeviceOrganizationMgtPluginException(msg, e);
+        } catch (DeviceOrganizationMgtDAOException e) {
+            String msg = "Error occurred in the database level while retrieving device organizations of tenant " +
+                    tenantID;
+            log.error(msg);
+            throw new DeviceOrganizationMgtPluginException(msg, e);
+        } finally {
+            ConnectionManagerUtil.closeDBConnection();
+        }
+        adjacencyCache.put(tenantID, graph, version);
+        if (log.isDebugEnabled()) {
+            log.debug("Cached " + graph.getEdgeCount() + " device organizations of tenant " + tenantID);
+        }
+        return graph;
+    }
+
+    /**
+     * Rebuilds the device organization hierarchy of the current tenant if its device organizations were added before
+     * the closure table was introduced, so that upgraded deployments do not need a manual rebuild. The closure table
+     * of a tenant is checked once on each node, before the first operation which relies on it.
+     *
+     * @throws DeviceOrganizationMgtPluginException if the closure table cannot be checked or rebuilt
+     */
+    private void ensureDeviceOrganizationHierarchy() throws DeviceOrganizationMgtPluginException {
+        int tenantID = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+        if (verifiedHierarchyTenants.contains(tenantID)) {
+            return;
+        }
+        synchronized (verifiedHierarchyTenants) {
+            if (verifiedHierarchyTenants.contains(tenantID)) {
+                return;
+            }
+            boolean isRebuilt = false;
+            try {
+                ConnectionManagerUtil.beginDBTransaction();
+                if (deviceOrganizationDao.isDeviceOrganizationHierarchyMissing(tenantID)) {
+                    log.info("Rebuilding device organization hierarchy of tenant " + tenantID);
+                    deviceOrganizationDao.rebuildDeviceOrganizationHierarchy(tenantID);
+                    isRebuilt = true;
+                }
+                ConnectionManagerUtil.commitDBTransaction();
+                verifiedHierarchyTenants.add(tenantID);
+            } catch (DBConnectionException e) {
+                String msg = "Error occurred while obtaining the database connection to check device organization " +
+                        "hierarchy of tenant " + tenantID;
+                log.error(msg);
+                throw new DeviceOrganizationMgtPluginException(msg, e);
+            } catch (DeviceOrganizationMgtDAOException e) {
+                ConnectionManagerUtil.rollbackDBTransaction();
+                String msg = "Error occurred in the database level while checking device organization hierarchy of " +
+                        "tenant " + tenantID;
+                log.error(msg);
+                throw new DeviceOrganizationMgtPluginException(msg, e);
+            } finally {
+                ConnectionManagerUtil.closeDBConnection();
+                if (isRebuilt) {
+                    invalidateAdjacencyCache();
+                }
+            }
+        }
+    }
+
+    private void invalidateAdjacencyCache() {
+        if (adjacencyCache != null) {
+            adjacencyCache.invalidate(PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId());
+        }
+    }
+
+    private static DeviceOrganizationAdjacencyCache createAdjacencyCache() {
+        DeviceManagementConfig config = DeviceConfigurationManager.getInstance().getDeviceManagementConfig();
+        DeviceOrganizationCacheConfiguration cacheConfig = config != null ?
+                config.getDeviceOrganizationCacheConfiguration() : null;
+        if (cacheConfig == null || !cacheConfig.isEnabled()) {
+            return null;
+        }
+        return new DeviceOrganizationAdjacencyCache(cacheConfig.getCapacity(), cacheConfig.getExpiryTime() * 1000L);
+    }
 }
@@ -182,6 +182,14 @@ public interface DeviceOrganizationService {
     boolean deleteDeviceAssociations(int deviceId)
             throws DeviceOrganizationMgtPluginException;
 
+    /**
+     * Recomputes the device organization hierarchy of the current tenant from its device organization records.
+     * This needs to be run once for device organizations which were added before the hierarchy was maintained.
+     *
+     * @throws DeviceOrganizationMgtPluginException If an error occurs during the operation.
+     */
+    void rebuildDeviceOrganizationHierarchy() throws DeviceOrganizationMgtPluginException;
+
     /**
      * This method used only for testing
      * @throws DeviceOrganizationMgtPluginException
@@ -73,6 +73,18 @@ public class DAOTest extends BaseDeviceOrganizationTest {
         Assert.assertNotNull(parentList, "Cannot be null");
     }
 
+    @Test(dependsOnMethods = "testAddDeviceOrganizationDAO")
+    public void testRebuildDeviceOrganizationHierarchyDAO() throws DBConnectionException,
+            DeviceOrganizationMgtDAOException {
+        int tenantID = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+        ConnectionManagerUtil.beginDBTransaction();
+        deviceOrganizationDAO.rebuildDeviceOrganizationHierarchy(tenantID);
+        boolean isMissing = deviceOrganizationDAO.isDeviceOrganizationHierarchyMissing(tenantID);
+        ConnectionManagerUtil.commitDBTransaction();
+        ConnectionManagerUtil.closeDBConnection();
+        Assert.assertFalse(isMissing, "Device organization hierarchy is missing after the rebuild");
+    }
+
     @Test
     public void testAddDeviceOrganizationDAO() throws DBConnectionException, DeviceOrganizationMgtDAOException {
 
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2018 - 2024, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.extensions.device.organization;
+
+import io.entgra.device.mgt.core.device.mgt.common.Device;
+import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.DeviceOrganizationClosureUtil;
+import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dao.util.DeviceOrganizationGraph;
+import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dto.DeviceNode;
+import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dto.DeviceNodeResult;
+import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.dto.DeviceOrganization;
+import io.entgra.device.mgt.core.device.mgt.extensions.device.organization.impl.DeviceOrganizationAdjacencyCache;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class DeviceOrganizationGraphTest {
+
+    private DeviceOrganizationGraph graph;
+
+    /**
+     * Builds the organization 1 -> 2 -> 3 -> 4 and 1 -> 5 -> 3, where device 3 has two parents.
+     */
+    @BeforeClass
+    public void init() {
+        graph = new DeviceOrganizationGraph();
+        int[][] edges = {{1, 2}, {2, 3}, {3, 4}, {1, 5}, {5, 3}};
+        int organizationId = 1;
+        for (int[] edge : edges) {
+            DeviceOrganization organization = new DeviceOrganization();
+            organization.setOrganizationId(organizationId++);
+            organization.setParentDeviceId(edge[0]);
+            organization.setDeviceId(edge[1]);
+            graph.addChild(getDevice(edge[1]), organization);
+            graph.addParent(getDevice(edge[0]), organization);
+        }
+        DeviceOrganization root = new DeviceOrganization();
+        root.setOrganizationId(organizationId);
+        root.setDeviceId(1);
+        graph.addChild(getDevice(1), root);
+    }
+
+    @Test
+    public void testGetChildren() {
+        Assert.assertEquals(graph.getEdgeCount(), 5);
+        Assert.assertTrue(graph.containsDevice(4));
+        Assert.assertFalse(graph.containsDevice(6));
+        Assert.assertNull(graph.getDeviceNode(6));
+
+        DeviceNodeResult result = graph.getChildren(graph.getDeviceNode(1), 4, true);
+        DeviceNode root = result.getNodes().get(0);
+        Assert.assertEquals(root.getDeviceId(), 1);
+        Assert.assertEquals(getDeviceIds(root.getChildren()), new HashSet<>(Arrays.asList(2, 5)));
+        Assert.assertEquals(result.getEdges().size(), 5);
+    }
+
+    @Test
+    public void testGetChildrenDepthLimit() {
+        DeviceNodeResult result = graph.getChildren(graph.getDeviceNode(1), 1, true);
+        Assert.assertEquals(result.getEdges().size(), 2);
+        for (DeviceNode child : result.getNodes().get(0).getChildren()) {
+            Assert.assertTrue(child.getChildren().isEmpty(), "Children beyond max depth must not be traversed");
+        }
+
+        DeviceNodeResult leaf = graph.getChildren(graph.getDeviceNode(4), 4, false);
+        Assert.assertEquals(leaf.getNodes().size(), 1);
+        Assert.assertTrue(leaf.getEdges().isEmpty());
+    }
+
+    @Test
+    public void testGetParents() {
+        DeviceNodeResult result = graph.getParents(graph.getDeviceNode(3), 1, true);
+        DeviceNode node = result.getNodes().get(0);
+        Assert.assertEquals(node.getDeviceId(), 3);
+        Assert.assertEquals(getDeviceIds(node.getParents()), new HashSet<>(Arrays.asList(2, 5)));
+        Assert.assertEquals(result.getEdges().size(), 2);
+
+        result = graph.getParents(graph.getDeviceNode(4), 4, true);
+        Assert.assertEquals(result.getEdges().size(), 5);
+    }
+
+    @Test
+    public void testTraversalDoesNotShareNodes() {
+        DeviceNodeResult first = graph.getChildren(graph.getDeviceNode(1), 4, true);
+        first.getNodes().get(0).getChildren().clear();
+        DeviceNodeResult second = graph.getChildren(graph.getDeviceNode(1), 4, true);
+        Assert.assertEquals(second.getNodes().get(0).getChildren().size(), 2);
+    }
+
+    @Test
+    public void testGetShortestDepths() {
+        Map<Integer, List<Integer>> adjacency = new HashMap<>();
+        adjacency.computeIfAbsent(1, k -> new ArrayList<>()).add(2);
+        adjacency.computeIfAbsent(2, k -> new ArrayList<>()).add(3);
+        adjacency.computeIfAbsent(3, k -> new ArrayList<>()).add(4);
+        adjacency.computeIfAbsent(1, k -> new ArrayList<>()).add(3);
+        // A cycle back to the source must not add the source itself
+        adjacency.computeIfAbsent(4, k -> new ArrayList<>()).add(1);
+
+        Map<Integer, Integer> depths = DeviceOrganizationClosureUtil.getShortestDepths(adjacency, 1);
+        Assert.assertEquals(depths.size(), 3);
+        Assert.assertEquals(depths.get(2).intValue(), 1);
+        Assert.assertEquals(depths.get(3).intValue(), 1);
+        Assert.assertEquals(depths.get(4).intValue(), 2);
+        Assert.assertFalse(depths.containsKey(1));
+    }
+
+    @Test
+    public void testAdjacencyCacheVersionGuard() {
+        DeviceOrganizationAdjacencyCache cache = new DeviceOrganizationAdjacencyCache(10, 60000L);
+        long version = cache.getVersion(1);
+        cache.invalidate(1);
+        cache.put(1, graph, version);
+        Assert.assertNull(cache.get(1), "A graph read before an invalidation must not be cached");
+
+        cache.put(1, graph, cache.getVersion(1));
+        Assert.assertSame(cache.get(1), graph);
+        cache.invalidate(1);
+        Assert.assertNull(cache.get(1));
+    }
+
+    @Test
+    public void testAdjacencyCacheExpiryAndCapacity() throws InterruptedException {
+        DeviceOrganizationAdjacencyCache expiring = new DeviceOrganizationAdjacencyCache(10, 1L);
+        expiring.put(1, graph, expiring.getVersion(1));
+        Thread.sleep(5);
+        Assert.assertNull(expiring.get(1));
+        Assert.assertEquals(expiring.size(), 0);
+
+        DeviceOrganizationAdjacencyCache cache = new DeviceOrganizationAdjacencyCache(2, 60000L);
+        cache.put(1, graph, cache.getVersion(1));
+        cache.put(2, graph, cache.getVersion(2));
+        cache.get(1);
+        cache.put(3, graph, cache.getVersion(3));
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertNotNull(cache.get(1));
+        Assert.assertNull(cache.get(2), "Least recently used tenant must be evicted");
+        Assert.assertNotNull(cache.get(3));
+    }
+
+    private static Device getDevice(int deviceId) {
+        Device device = new Device();
+        device.setId(deviceId);
+        device.setName("Meter_0" + deviceId);
+        return device;
+    }
+
+    private static Set<Integer> getDeviceIds(List<DeviceNode> nodes) {
+        Set<Integer> deviceIds = new HashSet<>();
+        for (DeviceNode node : nodes) {
+            deviceIds.add(node.getDeviceId());
+        }
+        return deviceIds;
+    }
+}
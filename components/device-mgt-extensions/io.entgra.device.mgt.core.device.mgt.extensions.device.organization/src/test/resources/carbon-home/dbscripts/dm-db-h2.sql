@@ -69,6 +69,7 @@ CREATE TABLE IF NOT EXISTS DM_DEVICE
     DEVICE_IDENTIFICATION  VARCHAR(300) DEFAULT NULL,
     LAST_UPDATED_TIMESTAMP TIMESTAMP              NOT NULL,
     TENANT_ID              INTEGER      DEFAULT 0,
+    PARTITION_BUCKET       INTEGER      DEFAULT NULL,
     PRIMARY KEY (ID),
     CONSTRAINT fk_DM_DEVICE_DM_DEVICE_TYPE2 FOREIGN KEY (DEVICE_TYPE_ID)
         REFERENCES DM_DEVICE_TYPE (ID) ON DELETE NO ACTION ON UPDATE NO ACTION,
@@ -891,4 +892,16 @@ CREATE TABLE IF NOT EXISTS DM_DEVICE_ORGANIZATION
         REFERENCES DM_DEVICE (ID) ON DELETE NO ACTION ON UPDATE NO ACTION,
     CONSTRAINT CHILD_PARENT_COMP_KEY UNIQUE (DEVICE_ID, PARENT_DEVICE_ID)
 );
--- END OF DM_DEVICE_ORGANIZATION TABLE--
\ No newline at end of file
+-- END OF DM_DEVICE_ORGANIZATION TABLE--
+
+-- DM_DEVICE_ORGANIZATION_CLOSURE TABLE--
+CREATE TABLE IF NOT EXISTS DM_DEVICE_ORGANIZATION_CLOSURE (
+    TENANT_ID INT NOT NULL,
+    ANCESTOR_DEVICE_ID INT NOT NULL,
+    DESCENDANT_DEVICE_ID INT NOT NULL,
+    DEPTH INT NOT NULL,
+    PRIMARY KEY (TENANT_ID, ANCESTOR_DEVICE_ID, DESCENDANT_DEVICE_ID)
+    );
+CREATE INDEX IDX_DM_DEVICE_ORG_CLOSURE_DESC ON DM_DEVICE_ORGANIZATION_CLOSURE(TENANT_ID, DESCENDANT_DEVICE_ID, DEPTH);
+CREATE INDEX IDX_DM_DEVICE_ORG_PARENT ON DM_DEVICE_ORGANIZATION(TENANT_ID, PARENT_DEVICE_ID);
+-- END OF DM_DEVICE_ORGANIZATION_CLOSURE TABLE--
@@ -35,6 +35,18 @@
      );
  -- END OF DM_DEVICE_ORGANIZATION TABLE--
 
+ -- DM_DEVICE_ORGANIZATION_CLOSURE TABLE--
+ CREATE TABLE IF NOT EXISTS DM_DEVICE_ORGANIZATION_CLOSURE (
+     TENANT_ID INT NOT NULL,
+     ANCESTOR_DEVICE_ID INT NOT NULL,
+     DESCENDANT_DEVICE_ID INT NOT NULL,
+     DEPTH INT NOT NULL,
+     PRIMARY KEY (TENANT_ID, ANCESTOR_DEVICE_ID, DESCENDANT_DEVICE_ID)
+     );
+ CREATE INDEX IDX_DM_DEVICE_ORG_CLOSURE_DESC ON DM_DEVICE_ORGANIZATION_CLOSURE(TENANT_ID, DESCENDANT_DEVICE_ID, DEPTH);
+ CREATE INDEX IDX_DM_DEVICE_ORG_PARENT ON DM_DEVICE_ORGANIZATION(TENANT_ID, PARENT_DEVICE_ID);
+ -- END OF DM_DEVICE_ORGANIZATION_CLOSURE TABLE--
+
 -- -----------------------------------------------------
 -- Sample data for test cases
 -- -----------------------------------------------------
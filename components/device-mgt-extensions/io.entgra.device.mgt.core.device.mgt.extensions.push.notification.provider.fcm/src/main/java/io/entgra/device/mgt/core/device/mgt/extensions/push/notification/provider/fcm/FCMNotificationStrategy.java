@@ -19,6 +19,7 @@ package io.entgra.device.mgt.core.device.mgt.extensions.push.notification.provid
 
 import com.google.gson.JsonObject;
 import io.entgra.device.mgt.core.device.mgt.common.Device;
+import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
 import io.entgra.device.mgt.core.device.mgt.common.EnrolmentInfo;
 import io.entgra.device.mgt.core.device.mgt.common.exceptions.DeviceManagementException;
 import io.entgra.device.mgt.core.device.mgt.common.push.notification.NotificationContext;
@@ -27,6 +28,8 @@ import io.entgra.device.mgt.core.device.mgt.common.push.notification.PushNotific
 import io.entgra.device.mgt.core.device.mgt.common.push.notification.PushNotificationExecutionFailedException;
 import io.entgra.device.mgt.core.device.mgt.extensions.push.notification.provider.fcm.internal.FCMDataHolder;
 import io.entgra.device.mgt.core.device.mgt.extensions.push.notification.provider.fcm.util.FCMUtil;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
@@ -34,7 +37,13 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 public class FCMNotificationStrategy implements NotificationStrategy {
 
@@ -44,6 +53,7 @@ public class FCMNotificationStrategy implements NotificationStrategy {
     private static final String FCM_API_KEY = "fcmAPIKey";
     private static final int TIME_TO_LIVE = 2419199; // 1 second less than 28 days
     private static final int HTTP_STATUS_CODE_OK = 200;
+    private static final int BATCH_TIMEOUT_SECONDS = 60;
     private final PushNotificationConfig config;
     private static final String FCM_ENDPOINT_KEY = "FCM_SERVER_ENDPOINT";
 
@@ -60,14 +70,11 @@ public class FCMNotificationStrategy implements NotificationStrategy {
     public void execute(NotificationContext ctx) throws PushNotificationExecutionFailedException {
         try {
             if (NOTIFIER_TYPE_FCM.equals(config.getType())) {
-                Device device = FCMDataHolder.getInstance().getDeviceManagementProviderService()
-                        .getDeviceWithTypeProperties(ctx.getDeviceId());
-                if(device.getEnrolmentInfo() != null
-                        && device.getEnrolmentInfo().getStatus() != EnrolmentInfo.Status.REMOVED
-                        && device.getProperties() != null && getFCMToken(device.getProperties()) != null) {
+                String fcmToken = getFCMToken(ctx);
+                if (fcmToken != null) {
                     FCMUtil.getInstance().getDefaultApplication().refreshIfExpired();
                     sendWakeUpCall(FCMUtil.getInstance().getDefaultApplication().getAccessToken().getTokenValue(),
-                            getFCMToken(device.getProperties()));
+                            fcmToken);
                 }
             } else {
                 if (log.isDebugEnabled()) {
@@ -75,13 +82,109 @@ public class FCMNotificationStrategy implements NotificationStrategy {
                             " in Platform Configurations.");
                 }
             }
-        } catch (DeviceManagementException e) {
-            throw new PushNotificationExecutionFailedException("Error occurred while retrieving device information", e);
         } catch (IOException e) {
             throw new PushNotificationExecutionFailedException("Error occurred while sending push notification", e);
         }
     }
 
+    /**
+     * Sends the wake up calls of all the given devices with a single access token. The FCM HTTP v1 API accepts only
+     * one message per request, hence the requests are sent asynchronously over the pooled connections and this
+     * waits until all of them are answered.
+     */
+    @Override
+    public Map<NotificationContext, PushNotificationExecutionFailedException> executeBatch(
+            List<NotificationContext> contexts) {
+        Map<NotificationContext, PushNotificationExecutionFailedException> failures = new ConcurrentHashMap<>();
+        if (!NOTIFIER_TYPE_FCM.equals(config.getType())) {
+            if (log.isDebugEnabled()) {
+                log.debug("Not using FCM notifier as notifier type is set to " + config.getType() +
+                        " in Platform Configurations.");
+            }
+            return failures;
+        }
+        String accessToken;
+        try {
+            FCMUtil.getInstance().getDefaultApplication().refreshIfExpired();
+            accessToken = FCMUtil.getInstance().getDefaultApplication().getAccessToken().getTokenValue();
+        } catch (IOException e) {
+            PushNotificationExecutionFailedException failure = new PushNotificationExecutionFailedException(
+                    "Error occurred while refreshing the FCM access token", e);
+            for (NotificationContext ctx : contexts) {
+                failures.put(ctx, failure);
+            }
+            return failures;
+        }
+        Map<DeviceIdentifier, Device> devices;
+        try {
+            devices = getDevices(contexts);
+        } catch (PushNotificationExecutionFailedException e) {
+            for (NotificationContext ctx : contexts) {
+                failures.put(ctx, e);
+            }
+            return failures;
+        }
+        Set<NotificationContext> pendingContexts = ConcurrentHashMap.newKeySet();
+        CountDownLatch completedLatch = new CountDownLatch(contexts.size());
+        for (NotificationContext ctx : contexts) {
+            Request request;
+            try {
+                String fcmToken = getFCMToken(devices.get(ctx.getDeviceId()));
+                if (fcmToken == null) {
+                    completedLatch.countDown();
+                    continue;
+                }
+                request = getWakeUpCallRequest(accessToken, fcmToken);
+            } catch (PushNotificationExecutionFailedException e) {
+                failures.put(ctx, e);
+                completedLatch.countDown();
+                continue;
+            }
+            pendingContexts.add(ctx);
+            FCMUtil.getInstance().getHttpClient().newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    failures.put(ctx, new PushNotificationExecutionFailedException(
+                            "Error occurred while sending push notification", e));
+                    pendingContexts.remove(ctx);
+                    completedLatch.countDown();
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    try {
+                        if (!response.isSuccessful()) {
+                            String msg = "Response Status: " + response.code() + ", Response Message: "
+                                    + response.message();
+                            log.error(msg);
+                            failures.put(ctx, new PushNotificationExecutionFailedException(msg));
+                        }
+                    } finally {
+                        response.close();
+                        pendingContexts.remove(ctx);
+                        completedLatch.countDown();
+                    }
+                }
+            });
+        }
+        try {
+            if (!completedLatch.await(BATCH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn(pendingContexts.size() + " FCM messages were not answered within " + BATCH_TIMEOUT_SECONDS
+                        + " seconds.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (NotificationContext ctx : pendingContexts) {
+            failures.putIfAbsent(ctx, new PushNotificationExecutionFailedException(
+                    "FCM message to device '" + ctx.getDeviceId().getId() + "' was not answered"));
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Sent " + (contexts.size() - failures.size()) + " of " + contexts.size()
+                    + " FCM messages in batch.");
+        }
+        return failures;
+    }
 
     /**
      * Send FCM message to the FCM server to initiate the push notification
@@ -92,6 +195,29 @@ public class FCMNotificationStrategy implements NotificationStrategy {
      */
     private void sendWakeUpCall(String accessToken, String registrationId) throws IOException,
             PushNotificationExecutionFailedException {
+        Request request = getWakeUpCallRequest(accessToken, registrationId);
+        try (Response response = FCMUtil.getInstance().getHttpClient().newCall(request).execute()) {
+            if (log.isDebugEnabled()) {
+                log.debug("FCM message sent to the FCM server. Response code: " + response.code()
+                        + " Response message : " + response.message());
+            }
+            if(!response.isSuccessful()) {
+                String msg = "Response Status: " + response.code() + ", Response Message: " + response.message();
+                log.error(msg);
+                throw new IOException(msg);
+            }
+        }
+    }
+
+    /**
+     * Build the request to send an FCM message to the FCM server
+     * @param accessToken Access token to authenticate with the FCM server
+     * @param registrationId Registration ID of the device
+     * @return FCM server request
+     * @throws PushNotificationExecutionFailedException If the FCM server endpoint is not configured
+     */
+    private Request getWakeUpCallRequest(String accessToken, String registrationId)
+            throws PushNotificationExecutionFailedException {
         String fcmServerEndpoint = FCMUtil.getInstance().getContextMetadataProperties()
                 .getProperty(FCM_ENDPOINT_KEY);
         if(fcmServerEndpoint == null) {
@@ -101,24 +227,62 @@ public class FCMNotificationStrategy implements NotificationStrategy {
         }
 
         RequestBody fcmRequest = getFCMRequest(registrationId);
-        Request request = new Request.Builder()
+        return new Request.Builder()
                 .url(fcmServerEndpoint)
                 .post(fcmRequest)
                 .addHeader("Authorization", "Bearer " + accessToken)
                 .build();
-        try (Response response = FCMUtil.getInstance().getHttpClient().newCall(request).execute()) {
-            if (log.isDebugEnabled()) {
-                log.debug("FCM message sent to the FCM server. Response code: " + response.code()
-                        + " Response message : " + response.message());
-            }
-            if(!response.isSuccessful()) {
-                String msg = "Response Status: " + response.code() + ", Response Message: " + response.message();
-                log.error(msg);
-                throw new IOException(msg);
-            }
+    }
+
+    /**
+     * Get the FCM token of the device to be notified
+     * @param ctx Notification context of the device
+     * @return FCM token, or null if the device is removed or has not registered with FCM
+     * @throws PushNotificationExecutionFailedException If an error occurs while retrieving the device
+     */
+    private static String getFCMToken(NotificationContext ctx) throws PushNotificationExecutionFailedException {
+        try {
+            return getFCMToken(FCMDataHolder.getInstance().getDeviceManagementProviderService()
+                    .getDeviceWithTypeProperties(ctx.getDeviceId()));
+        } catch (DeviceManagementException e) {
+            throw new PushNotificationExecutionFailedException("Error occurred while retrieving device information", e);
+        }
+    }
+
+    /**
+     * Get the devices to be notified along with their FCM tokens, looked up together
+     * @param contexts Notification contexts of the devices
+     * @return Devices keyed by their identifiers, devices which cannot be found are not included
+     * @throws PushNotificationExecutionFailedException If an error occurs while retrieving the devices
+     */
+    private static Map<DeviceIdentifier, Device> getDevices(List<NotificationContext> contexts)
+            throws PushNotificationExecutionFailedException {
+        List<DeviceIdentifier> deviceIds = new ArrayList<>(contexts.size());
+        for (NotificationContext ctx : contexts) {
+            deviceIds.add(ctx.getDeviceId());
+        }
+        try {
+            return FCMDataHolder.getInstance().getDeviceManagementProviderService()
+                    .getDevicesWithTypeProperties(deviceIds);
+        } catch (DeviceManagementException e) {
+            throw new PushNotificationExecutionFailedException("Error occurred while retrieving device information", e);
         }
     }
 
+    /**
+     * Get the FCM token of the device to be notified
+     * @param device Device to be notified
+     * @return FCM token, or null if the device is not found, removed or has not registered with FCM
+     */
+    private static String getFCMToken(Device device) {
+        if (device != null && device.getEnrolmentInfo() != null
+                && device.getEnrolmentInfo().getStatus() != EnrolmentInfo.Status.REMOVED
+                && device.getProperties() != null) {
+            return getFCMToken(device.getProperties());
+        }
+        return null;
+    }
+
     /**
      * Get the FCM request as a JSON string
      * @param registrationId Registration ID of the device
@@ -159,4 +323,10 @@ public class FCMNotificationStrategy implements NotificationStrategy {
     public PushNotificationConfig getConfig() {
         return config;
     }
+
+    @Override
+    public boolean isCoalescingSupported() {
+        // FCM messages only carry a wake up call, the device fetches the pending operations itself
+        return true;
+    }
 }
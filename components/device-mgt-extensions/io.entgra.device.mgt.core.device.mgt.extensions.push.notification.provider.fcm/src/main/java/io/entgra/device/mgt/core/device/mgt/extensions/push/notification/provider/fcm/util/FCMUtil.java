@@ -23,6 +23,7 @@ import io.entgra.device.mgt.core.device.mgt.core.config.push.notification.Contex
 import io.entgra.device.mgt.core.device.mgt.core.config.push.notification.PushNotificationConfiguration;
 import io.entgra.device.mgt.core.device.mgt.extensions.push.notification.provider.fcm.FCMNotificationStrategy;
 import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -44,6 +45,7 @@ public class FCMUtil {
     private static GoogleCredentials defaultApplication;
     private static final String FCM_SERVICE_ACCOUNT_PATH = CarbonUtils.getCarbonHome() + File.separator +
             "repository" + File.separator + "resources" + File.separator + "service-account.json";
+    private static final int MAX_IDLE_CONNECTIONS = 25;
     private static final String[] FCM_SCOPES = { "https://www.googleapis.com/auth/firebase.messaging" };
     private Properties contextMetadataProperties;
     private static ConnectionPool connectionPool;
@@ -56,11 +58,14 @@ public class FCMUtil {
     }
 
     /**
-     * Initialize the connection pool for the OkHttpClient instance.
+     * Initialize the connection pool for the OkHttpClient instance. Asynchronous calls to the FCM server are allowed
+     * to use all the pooled connections.
      */
     private void initPooledConnection() {
-        connectionPool = new ConnectionPool(25, 1, TimeUnit.MINUTES);
-        client = new OkHttpClient.Builder().connectionPool(connectionPool).build();
+        connectionPool = new ConnectionPool(MAX_IDLE_CONNECTIONS, 1, TimeUnit.MINUTES);
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(MAX_IDLE_CONNECTIONS);
+        client = new OkHttpClient.Builder().connectionPool(connectionPool).dispatcher(dispatcher).build();
     }
 
     /**
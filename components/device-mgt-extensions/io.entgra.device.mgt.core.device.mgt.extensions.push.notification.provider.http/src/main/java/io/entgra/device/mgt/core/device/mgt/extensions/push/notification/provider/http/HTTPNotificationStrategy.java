@@ -24,14 +24,22 @@ import io.entgra.device.mgt.core.device.mgt.common.push.notification.PushNotific
 import io.entgra.device.mgt.core.device.mgt.common.push.notification.PushNotificationExecutionFailedException;
 import org.apache.commons.httpclient.HostConfiguration;
 import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class HTTPNotificationStrategy implements NotificationStrategy {
 
@@ -39,8 +47,11 @@ public class HTTPNotificationStrategy implements NotificationStrategy {
     private final PushNotificationConfig config;
     private static final String URL_PROPERTY = "url";
     private static final String AUTHORIZATION_HEADER_PROPERTY = "authorization";
+    private static final String CONCURRENCY_PROPERTY = "concurrency";
+    private static final int DEFAULT_CONCURRENCY = 10;
+    private static final int BATCH_TIMEOUT_SECONDS = 60;
     private String endpoint;
-    private static ExecutorService executorService;
+    private ExecutorService executorService;
     private HttpClient httpClient = null;
     private HostConfiguration hostConfiguration;
     private String authorizationHeaderValue;
@@ -61,8 +72,12 @@ public class HTTPNotificationStrategy implements NotificationStrategy {
             hostConfiguration = new HostConfiguration();
             hostConfiguration.setHost(url.getHost(), url.getPort(), url.getProtocol());
             this.authorizationHeaderValue = config.getProperties().get(AUTHORIZATION_HEADER_PROPERTY);
-            executorService = Executors.newFixedThreadPool(1);
-            httpClient = new HttpClient();
+            int concurrency = getConcurrency(config.getProperties().get(CONCURRENCY_PROPERTY));
+            executorService = Executors.newFixedThreadPool(concurrency);
+            MultiThreadedHttpConnectionManager connectionManager = new MultiThreadedHttpConnectionManager();
+            connectionManager.getParams().setDefaultMaxConnectionsPerHost(concurrency);
+            connectionManager.getParams().setMaxTotalConnections(concurrency);
+            httpClient = new HttpClient(connectionManager);
         } catch (MalformedURLException e) {
             throw new InvalidConfigurationException("Property - 'url' is malformed.", e);
         }
@@ -83,6 +98,44 @@ public class HTTPNotificationStrategy implements NotificationStrategy {
         }
     }
 
+    /**
+     * Posts the notifications of all the given devices in parallel over the pooled connections to the endpoint and
+     * waits until all of them are delivered.
+     */
+    @Override
+    public Map<NotificationContext, PushNotificationExecutionFailedException> executeBatch(
+            List<NotificationContext> contexts) {
+        Map<NotificationContext, PushNotificationExecutionFailedException> failures = new IdentityHashMap<>();
+        Map<NotificationContext, Future<?>> results = new IdentityHashMap<>();
+        for (NotificationContext ctx : contexts) {
+            try {
+                results.put(ctx, executorService.submit(new HTTPMessageExecutor(ctx, authorizationHeaderValue, uri,
+                        hostConfiguration, httpClient)));
+            } catch (RejectedExecutionException e) {
+                log.error("Failed to publish to external endpoint url: " + endpoint, e);
+                failures.put(ctx, new PushNotificationExecutionFailedException(
+                        "Failed to publish to external endpoint url: " + endpoint, e));
+            }
+        }
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(BATCH_TIMEOUT_SECONDS);
+        for (Map.Entry<NotificationContext, Future<?>> result : results.entrySet()) {
+            try {
+                result.getValue().get(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                failures.put(result.getKey(), new PushNotificationExecutionFailedException(
+                        "Push notification message dropped", e.getCause()));
+            } catch (TimeoutException e) {
+                failures.put(result.getKey(), new PushNotificationExecutionFailedException(
+                        "Push notification message was not delivered within " + BATCH_TIMEOUT_SECONDS + " seconds"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures.put(result.getKey(), new PushNotificationExecutionFailedException(
+                        "Interrupted while delivering the push notification message", e));
+            }
+        }
+        return failures;
+    }
+
     @Override
     public NotificationContext buildContext() {
         return null;
@@ -98,5 +151,17 @@ public class HTTPNotificationStrategy implements NotificationStrategy {
         return config;
     }
 
+    private static int getConcurrency(String concurrency) {
+        if (concurrency != null && !concurrency.isEmpty()) {
+            try {
+                return Math.max(Integer.parseInt(concurrency.trim()), 1);
+            } catch (NumberFormatException e) {
+                log.warn("Property - '" + CONCURRENCY_PROPERTY + "' is not a number, hence using the default " +
+                        DEFAULT_CONCURRENCY);
+            }
+        }
+        return DEFAULT_CONCURRENCY;
+    }
+
 }
 
@@ -35,6 +35,7 @@ import org.wso2.carbon.event.output.adapter.core.OutputEventAdapterConfiguration
 import org.wso2.carbon.event.output.adapter.core.exception.OutputEventAdapterException;
 
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -100,8 +101,41 @@ public class MQTTNotificationStrategy implements NotificationStrategy {
 
     @Override
     public void execute(NotificationContext ctx) throws PushNotificationExecutionFailedException {
-        String adapterName = mqttAdapterName;
         String tenantDomain = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain(true);
+        publish(getAdapterName(tenantDomain), tenantDomain, ctx);
+    }
+
+    /**
+     * Publishes the operations of all the given devices through the output event adapter of the tenant, which is
+     * resolved only once for the batch, so that the messages are pipelined on the same broker session.
+     */
+    @Override
+    public Map<NotificationContext, PushNotificationExecutionFailedException> executeBatch(
+            List<NotificationContext> contexts) {
+        Map<NotificationContext, PushNotificationExecutionFailedException> failures = new IdentityHashMap<>();
+        String tenantDomain = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain(true);
+        String adapterName;
+        try {
+            adapterName = getAdapterName(tenantDomain);
+        } catch (PushNotificationExecutionFailedException e) {
+            for (NotificationContext ctx : contexts) {
+                failures.put(ctx, e);
+            }
+            return failures;
+        }
+        for (NotificationContext ctx : contexts) {
+            try {
+                publish(adapterName, tenantDomain, ctx);
+            } catch (RuntimeException e) {
+                failures.put(ctx, new PushNotificationExecutionFailedException("Error occurred while publishing " +
+                        "the operation to device '" + ctx.getDeviceId().getId() + "'", e));
+            }
+        }
+        return failures;
+    }
+
+    private String getAdapterName(String tenantDomain) throws PushNotificationExecutionFailedException {
+        String adapterName = mqttAdapterName;
         if (!providerTenantDomain.equals(tenantDomain)) {
             //this is to handle the device type shared with all tenant mode.
 
@@ -127,9 +161,11 @@ public class MQTTNotificationStrategy implements NotificationStrategy {
                     }
                 }
             }
-
         }
+        return adapterName;
+    }
 
+    private void publish(String adapterName, String tenantDomain, NotificationContext ctx) {
         Operation operation = ctx.getOperation();
         Properties properties = operation.getProperties();
         if (properties != null && properties.get(MQTT_ADAPTER_TOPIC) != null) {
@@ -155,7 +191,7 @@ public class MQTTNotificationStrategy implements NotificationStrategy {
 
             } else {
                 Map<String, String> dynamicProperties = new HashMap<>();
-                String topic = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain(true) + "/"
+                String topic = tenantDomain + "/"
                         + ctx.getDeviceId().getType() + "/" + ctx.getDeviceId().getId() + "/operation/"
                         + operation.getType().toString().toLowerCase() + "/" + operation.getCode() + "/" + operation.getId();
                 dynamicProperties.put("topic", topic);
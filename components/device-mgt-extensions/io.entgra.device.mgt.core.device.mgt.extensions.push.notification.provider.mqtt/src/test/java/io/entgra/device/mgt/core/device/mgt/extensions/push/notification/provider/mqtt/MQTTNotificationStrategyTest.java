@@ -51,6 +51,7 @@ public class MQTTNotificationStrategyTest {
     private static final String BROKER_URL = "SampleBrokerUrl";
     private PushNotificationConfig pushNotificationConfig;
     private static final String MQTT_ADAPTER_TOPIC = "mqtt.adapter.topic";
+    private static final int BATCH_SIZE = 100;
     private DeviceIdentifier deviceIdentifier;
     private Operation operation;
     private Map<String, String> propertiesMap;
@@ -156,4 +157,37 @@ public class MQTTNotificationStrategyTest {
         providerTenantDomain.set(mqttNotificationStrategy, "SampleTenantDomain");
         mqttNotificationStrategy.execute(notificationContext);
     }
+
+    @Test(dependsOnMethods = {"testExecutionWithoutTenantDomain"}, description = "testing executeBatch method " +
+            "against sending the notifications one by one")
+    public void testExecuteBatch() throws PushNotificationExecutionFailedException, OutputEventAdapterException {
+        CarbonOutputEventAdapterService adapterService = Mockito.mock(CarbonOutputEventAdapterService.class);
+        Mockito.doReturn(true).when(adapterService).isPolled(Mockito.any());
+        MQTTDataHolder.getInstance().setOutputEventAdapterService(adapterService);
+        try {
+            List<NotificationContext> contexts = new ArrayList<>();
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                contexts.add(new NotificationContext(new DeviceIdentifier(String.valueOf(i), "SampleDeviceType"),
+                        operation));
+            }
+            for (NotificationContext context : contexts) {
+                mqttNotificationStrategy.execute(context);
+            }
+            Mockito.verify(adapterService, Mockito.times(BATCH_SIZE)).isPolled(Mockito.any());
+            Mockito.verify(adapterService, Mockito.times(BATCH_SIZE))
+                    .publish(Mockito.any(), Mockito.any(), Mockito.any());
+
+            Mockito.clearInvocations(adapterService);
+            Map<NotificationContext, PushNotificationExecutionFailedException> failures =
+                    mqttNotificationStrategy.executeBatch(contexts);
+
+            Assert.assertTrue(failures.isEmpty(), "Notifications failed in batch send");
+            // The adapter is looked up once for the whole batch while every device still gets its own message
+            Mockito.verify(adapterService, Mockito.times(1)).isPolled(Mockito.any());
+            Mockito.verify(adapterService, Mockito.times(BATCH_SIZE))
+                    .publish(Mockito.any(), Mockito.any(), Mockito.any());
+        } finally {
+            MQTTDataHolder.getInstance().setOutputEventAdapterService(carbonOutputEventAdapterService);
+        }
+    }
 }
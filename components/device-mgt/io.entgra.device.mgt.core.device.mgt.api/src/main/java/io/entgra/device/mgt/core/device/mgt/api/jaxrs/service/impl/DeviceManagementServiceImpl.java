@@ -1110,19 +1110,23 @@ public class DeviceManagementServiceImpl implements DeviceManagementService {
     public Response searchDevices(@QueryParam("offset") int offset,
                                   @QueryParam("limit") int limit, SearchContext searchContext) {
         SearchManagerService searchManagerService;
-        List<Device> devices;
+        PaginationResult result;
         DeviceList deviceList = new DeviceList();
+        if (searchContext.getOffset() == 0 && searchContext.getLimit() == 0) {
+            searchContext.setOffset(offset);
+            searchContext.setLimit(limit);
+        }
         try {
             searchManagerService = DeviceMgtAPIUtils.getSearchManagerService();
-            devices = searchManagerService.search(searchContext);
+            result = searchManagerService.searchPaginated(searchContext);
         } catch (SearchMgtException e) {
             String msg = "Error occurred while searching for devices that matches the provided selection criteria";
             log.error(msg, e);
             return Response.serverError().entity(
                     new ErrorResponse.ErrorResponseBuilder().setMessage(msg).build()).build();
         }
-        deviceList.setList(devices);
-        deviceList.setCount(devices.size());
+        deviceList.setList((List<Device>) result.getData());
+        deviceList.setCount(result.getRecordsTotal());
         return Response.status(Response.Status.OK).entity(deviceList).build();
     }
 
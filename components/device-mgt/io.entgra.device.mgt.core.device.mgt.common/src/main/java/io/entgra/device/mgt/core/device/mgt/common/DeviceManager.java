@@ -22,6 +22,7 @@ import io.entgra.device.mgt.core.device.mgt.common.exceptions.DeviceManagementEx
 import io.entgra.device.mgt.core.device.mgt.common.license.mgt.License;
 import io.entgra.device.mgt.core.device.mgt.common.license.mgt.LicenseManagementException;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -136,6 +137,26 @@ public interface DeviceManager {
      */
     Device getDevice(DeviceIdentifier deviceId) throws DeviceManagementException;
 
+    /**
+     * Method to retrieve metadata of several devices of this type. Plugins which can load the devices together
+     * should override this; by default the devices are retrieved one by one.
+     *
+     * @param deviceIds Fully qualified device identifiers
+     * @return Metadata of the devices which exist, devices which cannot be found are not included
+     * @throws DeviceManagementException If some unusual behaviour is observed obtaining the device objects
+     */
+    default List<Device> getDevices(List<DeviceIdentifier> deviceIds) throws DeviceManagementException {
+        List<Device> devices = new ArrayList<>(deviceIds.size());
+        Device device;
+        for (DeviceIdentifier deviceId : deviceIds) {
+            device = getDevice(deviceId);
+            if (device != null) {
+                devices.add(device);
+            }
+        }
+        return devices;
+    }
+
     /**
      * Method to update device properties.
      *
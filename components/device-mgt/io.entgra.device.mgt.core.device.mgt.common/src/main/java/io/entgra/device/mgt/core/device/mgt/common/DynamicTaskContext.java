@@ -23,6 +23,7 @@ public class DynamicTaskContext {
     private int serverHashIndex;
     private int activeServerCount;
     private boolean partitioningEnabled = false;
+    private TaskPartition taskPartition;
 
     public int getServerHashIndex() {
         return serverHashIndex;
@@ -47,4 +48,19 @@ public class DynamicTaskContext {
     public void setPartitioningEnabled(boolean partitioningEnabled) {
         this.partitioningEnabled = partitioningEnabled;
     }
+
+    /**
+     * @return partition owned by this node, falling back to the legacy modulo partition derived from the server
+     * hash index, or {@code null} when the task is not partitioned
+     */
+    public TaskPartition getTaskPartition() {
+        if (taskPartition == null) {
+            return TaskPartition.ofServerIndex(activeServerCount, serverHashIndex);
+        }
+        return taskPartition;
+    }
+
+    public void setTaskPartition(TaskPartition taskPartition) {
+        this.taskPartition = taskPartition;
+    }
 }
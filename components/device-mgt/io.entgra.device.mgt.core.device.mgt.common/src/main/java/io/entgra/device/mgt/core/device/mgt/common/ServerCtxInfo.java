@@ -21,12 +21,18 @@ package io.entgra.device.mgt.core.device.mgt.common;
 public class ServerCtxInfo {
     private int activeServerCount;
     private int localServerHashIdx;
+    private TaskPartition taskPartition;
 
     public ServerCtxInfo(int activeServerCount, int localServerHashIdx){
         this.activeServerCount = activeServerCount;
         this.localServerHashIdx = localServerHashIdx;
     }
 
+    public ServerCtxInfo(int activeServerCount, int localServerHashIdx, TaskPartition taskPartition) {
+        this(activeServerCount, localServerHashIdx);
+        this.taskPartition = taskPartition;
+    }
+
     public int getActiveServerCount() {
         return activeServerCount;
     }
@@ -42,4 +48,18 @@ public class ServerCtxInfo {
     public void setLocalServerHashIdx(int localServerHashIdx) {
         this.localServerHashIdx = localServerHashIdx;
     }
+
+    /**
+     * @return bucket ranges owned by the local server, or the legacy modulo partition if none was computed
+     */
+    public TaskPartition getTaskPartition() {
+        if (taskPartition == null) {
+            return TaskPartition.ofServerIndex(activeServerCount, localServerHashIdx);
+        }
+        return taskPartition;
+    }
+
+    public void setTaskPartition(TaskPartition taskPartition) {
+        this.taskPartition = taskPartition;
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.common;
+
+import java.util.Arrays;
+
+/**
+ * Share of the device id space owned by a single server node when task partitioning is enabled.
+ * Ownership is expressed as inclusive ranges over {@code MOD(ID, modulus)} so that DAOs can render it as a
+ * handful of range predicates instead of evaluating the assignment per row.
+ */
+public class TaskPartition {
+
+    /**
+     * Number of fixed buckets the id space is split into by the consistent hash partitioner. Buckets, rather than
+     * individual ids, are assigned to servers, so only the buckets of a joining or leaving node change owner.
+     */
+    public static final int BUCKET_COUNT = 1024;
+
+    private final int modulus;
+    private final int[] rangeStarts;
+    private final int[] rangeEnds;
+
+    /**
+     * @param modulus     divisor applied to the id before matching the ranges
+     * @param rangeStarts inclusive range starts, in ascending order
+     * @param rangeEnds   inclusive range ends, aligned with {@code rangeStarts}
+     */
+    public TaskPartition(int modulus, int[] rangeStarts, int[] rangeEnds) {
+        if (modulus <= 0) {
+            throw new IllegalArgumentException("Partition modulus must be positive, but was " + modulus);
+        }
+        if (rangeStarts.length != rangeEnds.length) {
+            throw new IllegalArgumentException("Partition range starts and ends are not aligned");
+        }
+        this.modulus = modulus;
+        this.rangeStarts = Arrays.copyOf(rangeStarts, rangeStarts.length);
+        this.rangeEnds = Arrays.copyOf(rangeEnds, rangeEnds.length);
+    }
+
+    /**
+     * Builds the legacy partition where the server at {@code serverIndex} owns every id with
+     * {@code MOD(ID, activeServerCount) = serverIndex}.
+     *
+     * @return the partition or {@code null} if there is no active server count to partition by
+     */
+    public static TaskPartition ofServerIndex(int activeServerCount, int serverIndex) {
+        if (activeServerCount <= 0) {
+            return null;
+        }
+        return new TaskPartition(activeServerCount, new int[]{serverIndex}, new int[]{serverIndex});
+    }
+
+    /**
+     * @return bucket of the given id in the fixed consistent hash bucket space
+     */
+    public static int getBucket(int id) {
+        return Math.floorMod(id, BUCKET_COUNT);
+    }
+
+    public int getModulus() {
+        return modulus;
+    }
+
+    public int getRangeCount() {
+        return rangeStarts.length;
+    }
+
+    public int getRangeStart(int rangeIndex) {
+        return rangeStarts[rangeIndex];
+    }
+
+    public int getRangeEnd(int rangeIndex) {
+        return rangeEnds[rangeIndex];
+    }
+
+    public boolean isEmpty() {
+        return rangeStarts.length == 0;
+    }
+
+    public boolean contains(int id) {
+        int slot = Math.floorMod(id, modulus);
+        int idx = Arrays.binarySearch(rangeStarts, slot);
+        if (idx >= 0) {
+            return true;
+        }
+        idx = -idx - 2;
+        return idx >= 0 && slot <= rangeEnds[idx];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("TaskPartition{modulus=").append(modulus).append(", ranges=[");
+        for (int i = 0; i < rangeStarts.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(rangeStarts[i]).append('-').append(rangeEnds[i]);
+        }
+        return builder.append("]}").toString();
+    }
+}
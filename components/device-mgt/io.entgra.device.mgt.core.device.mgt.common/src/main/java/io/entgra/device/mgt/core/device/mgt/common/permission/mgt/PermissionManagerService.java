@@ -30,4 +30,17 @@ public interface PermissionManagerService {
 
     List<Permission> getPermission(String context) throws PermissionManagementException;
 
+    /**
+     * Resolves the permission of the API resource which serves the given request.
+     *
+     * @param context    Webapp context the resource permissions are registered against.
+     * @param requestUri Request path including the webapp context, without a trailing separator.
+     * @param httpMethod HTTP method of the request.
+     * @return the permission of the most specific matching resource, or null if the context or a matching
+     * resource is not registered.
+     * @throws PermissionManagementException if an error occurred while resolving the permission.
+     */
+    Permission getPermission(String context, String requestUri, String httpMethod)
+            throws PermissionManagementException;
+
 }
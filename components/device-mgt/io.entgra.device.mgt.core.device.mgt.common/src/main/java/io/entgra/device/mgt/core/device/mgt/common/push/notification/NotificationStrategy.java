@@ -17,12 +17,39 @@
  */
 package io.entgra.device.mgt.core.device.mgt.common.push.notification;
 
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 public interface NotificationStrategy {
 
     void init();
 
     void execute(NotificationContext ctx) throws PushNotificationExecutionFailedException;
 
+    /**
+     * Sends the notifications of several devices together. Strategies which can share a connection, a session or an
+     * access token among the devices should override this; by default the notifications are sent one by one.
+     * @param contexts notification contexts of the devices
+     * @return failures of the notifications which could not be sent, keyed by their contexts
+     */
+    default Map<NotificationContext, PushNotificationExecutionFailedException> executeBatch(
+            List<NotificationContext> contexts) {
+        Map<NotificationContext, PushNotificationExecutionFailedException> failures = new IdentityHashMap<>();
+        for (NotificationContext ctx : contexts) {
+            try {
+                execute(ctx);
+            } catch (PushNotificationExecutionFailedException e) {
+                failures.put(ctx, e);
+            } catch (RuntimeException e) {
+                // Only the notification of this device fails, as when the notifications are sent one by one
+                failures.put(ctx, new PushNotificationExecutionFailedException("Unexpected error occurred while " +
+                        "sending push notification to device '" + ctx.getDeviceId() + "'", e));
+            }
+        }
+        return failures;
+    }
+
     NotificationContext buildContext();
 
     /**
@@ -36,4 +63,13 @@ public interface NotificationStrategy {
      */
     PushNotificationConfig getConfig();
 
+    /**
+     * Indicates whether the notification only wakes the device up to fetch its pending operations. Pending
+     * notifications of such strategies to the same device can be merged into a single notification.
+     * @return true if pending notifications to the same device can be coalesced
+     */
+    default boolean isCoalescingSupported() {
+        return false;
+    }
+
 }
@@ -31,8 +31,16 @@ public class SearchContext {
     @ApiModelProperty(name = "conditions", value = "Contains the advance search parameters.",
                       required = true)
     private List<Condition> conditions;
-//    private int start;
-//    private int end;
+
+    @ApiModelProperty(name = "offset", value = "Number of matching devices to skip.")
+    private int offset;
+
+    @ApiModelProperty(name = "limit", value = "Maximum number of devices to return, or 0 to return all the devices.")
+    private int limit;
+
+    @ApiModelProperty(name = "cursor", value = "Enrolment id of the last device of the previous page, to return the "
+            + "devices after it.")
+    private int cursor;
 
     public List<Condition> getConditions() {
         return conditions;
@@ -42,20 +50,27 @@ public class SearchContext {
         this.conditions = conditions;
     }
 
-//    public int getStart() {
-//        return start;
-//    }
-//
-//    public void setStart(int start) {
-//        this.start = start;
-//    }
-//
-//    public int getEnd() {
-//        return end;
-//    }
-//
-//    public void setEnd(int end) {
-//        this.end = end;
-//    }
-}
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
 
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public int getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(int cursor) {
+        this.cursor = cursor;
+    }
+}
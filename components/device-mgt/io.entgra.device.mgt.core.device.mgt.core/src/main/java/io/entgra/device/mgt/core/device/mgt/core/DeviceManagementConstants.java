@@ -25,6 +25,7 @@ public final class DeviceManagementConstants {
 
     public static final String DM_CACHE_MANAGER = "DM_CACHE_MANAGER";
     public static final String DEVICE_CACHE = "DEVICE_CACHE";
+    public static final String DEVICE_VERSION_CACHE = "DEVICE_VERSION_CACHE";
     public static final String API_RESOURCE_PERMISSION_CACHE = "API_RESOURCE_CACHE_CACHE";
     public static final String GEOFENCE_CACHE = "GEOFENCE_CACHE";
     public static final String BILLING_CACHE = "BILLING_CACHE";
@@ -161,6 +162,7 @@ public final class DeviceManagementConstants {
         public static final int DEFAULT_SCHEDULER_TASK_INITIAL_DELAY = 60000;
         public static final int DEFAULT_BATCH_DELAY_MILLS = 60000;
         public static final int DEFAULT_BATCH_SIZE = 1000;
+        public static final int DEFAULT_SCHEDULER_SEND_CONCURRENCY = 4;
     }
 
     public static final class User {
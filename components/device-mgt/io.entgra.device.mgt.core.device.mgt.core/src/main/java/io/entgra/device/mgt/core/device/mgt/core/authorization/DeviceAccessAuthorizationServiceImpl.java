@@ -18,6 +18,7 @@
 
 package io.entgra.device.mgt.core.device.mgt.core.authorization;
 
+import io.entgra.device.mgt.core.device.mgt.common.Device;
 import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
 import io.entgra.device.mgt.core.device.mgt.common.authorization.DeviceAccessAuthorizationException;
 import io.entgra.device.mgt.core.device.mgt.common.authorization.DeviceAccessAuthorizationService;
@@ -29,6 +30,8 @@ import io.entgra.device.mgt.core.device.mgt.common.permission.mgt.Permission;
 import io.entgra.device.mgt.core.device.mgt.common.permission.mgt.PermissionManagementException;
 import io.entgra.device.mgt.core.device.mgt.core.internal.DeviceManagementDataHolder;
 import io.entgra.device.mgt.core.device.mgt.core.permission.mgt.PermissionUtils;
+import io.entgra.device.mgt.core.device.mgt.core.service.GroupManagementProviderService;
+import io.entgra.device.mgt.core.device.mgt.core.util.DeviceManagerUtil;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.CarbonConstants;
@@ -36,8 +39,13 @@ import org.wso2.carbon.context.CarbonContext;
 import org.wso2.carbon.user.api.UserRealm;
 import org.wso2.carbon.user.api.UserStoreException;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Implementation of DeviceAccessAuthorization service.
@@ -141,40 +149,123 @@ public class DeviceAccessAuthorizationServiceImpl implements DeviceAccessAuthori
             deviceAuthorizationResult.setAuthorizedDevices(deviceIdentifiers);
             return deviceAuthorizationResult;
         }
+        //check for ownership permissions, resolving all the devices in bulk
+        Map<DeviceIdentifier, Device> devices;
+        try {
+            devices = DeviceManagerUtil.getDevicesByIdentifiers(deviceIdentifiers);
+        } catch (DeviceManagementException e) {
+            throw new DeviceAccessAuthorizationException("Unable to resolve the devices to authorize the access for " +
+                    "the user : " + username, e);
+        }
+        List<DeviceIdentifier> nonOwnedDevices = new ArrayList<>();
+        Device device;
         for (DeviceIdentifier deviceIdentifier : deviceIdentifiers) {
-            //check for admin and ownership permissions
-            if (isDeviceOwner(deviceIdentifier, username)) {
+            device = devices.get(deviceIdentifier);
+            if (device != null && device.getEnrolmentInfo() != null &&
+                    username.equals(device.getEnrolmentInfo().getOwner())) {
                 deviceAuthorizationResult.addAuthorizedDevice(deviceIdentifier);
             } else {
-                try {
-                    if (groupPermissions == null || groupPermissions.length == 0) {
-                        deviceAuthorizationResult.setUnauthorizedDevices(deviceIdentifiers);
-                        return deviceAuthorizationResult;
-                    }
-                    //check for group permissions
-                    boolean isAuthorized = true;
-                    for (String groupPermission : groupPermissions) {
-                        if (!isAuthorizedViaSharedGroup(deviceIdentifier, username, groupPermission)) {
-                            //if at least one failed, authorizations fails and break the loop
-                            isAuthorized = false;
-                            break;
-                        }
-                    }
-                    if (isAuthorized) {
-                        deviceAuthorizationResult.addAuthorizedDevice(deviceIdentifier);
-                    } else {
-                        deviceAuthorizationResult.addUnauthorizedDevice(deviceIdentifier);
+                nonOwnedDevices.add(deviceIdentifier);
+            }
+        }
+        if (nonOwnedDevices.isEmpty()) {
+            return deviceAuthorizationResult;
+        }
+        if (groupPermissions == null || groupPermissions.length == 0) {
+            for (DeviceIdentifier deviceIdentifier : nonOwnedDevices) {
+                deviceAuthorizationResult.addUnauthorizedDevice(deviceIdentifier);
+            }
+            return deviceAuthorizationResult;
+        }
+        //check for group permissions, user roles and group sharing roles are resolved once for the whole list
+        try {
+            UserRealm userRealm = DeviceManagementDataHolder.getInstance().getRealmService()
+                    .getTenantUserRealm(tenantId);
+            String[] userRoles = userRealm.getUserStoreManager().getRoleListOfUser(username);
+            List<Set<String>> permittedRoles = new ArrayList<>(groupPermissions.length);
+            for (String groupPermission : groupPermissions) {
+                Set<String> rolesWithPermission = new HashSet<>();
+                for (String role : userRoles) {
+                    if (userRealm.getAuthorizationManager()
+                            .isRoleAuthorized(role, groupPermission, CarbonConstants.UI_PERMISSION_ACTION)) {
+                        rolesWithPermission.add(role);
                     }
-                } catch (DeviceAccessAuthorizationException e) {
-                    throw new DeviceAccessAuthorizationException("Unable to authorize the access to device : " +
-                                                                 deviceIdentifier.getId() + " for the user : " +
-                                                                 username, e);
                 }
+                permittedRoles.add(rolesWithPermission);
             }
+            GroupManagementProviderService groupManagementProviderService = DeviceManagementDataHolder.getInstance()
+                    .getGroupManagementProviderService();
+            //group memberships of all the resolved devices are fetched at once, unresolved devices have no groups
+            List<Device> resolvedDevices = new ArrayList<>(nonOwnedDevices.size());
+            for (DeviceIdentifier deviceIdentifier : nonOwnedDevices) {
+                device = devices.get(deviceIdentifier);
+                if (device != null) {
+                    resolvedDevices.add(device);
+                }
+            }
+            Map<Integer, List<DeviceGroup>> groupsOfDevices =
+                    groupManagementProviderService.getGroups(resolvedDevices, false);
+            Map<Integer, List<String>> groupSharingRoles = new HashMap<>();
+            for (DeviceIdentifier deviceIdentifier : nonOwnedDevices) {
+                device = devices.get(deviceIdentifier);
+                List<DeviceGroup> groupsWithDevice = device != null ? groupsOfDevices.get(device.getId()) : null;
+                if (isAuthorizedViaSharedGroups(groupsWithDevice, permittedRoles, groupSharingRoles,
+                        groupManagementProviderService)) {
+                    deviceAuthorizationResult.addAuthorizedDevice(deviceIdentifier);
+                } else {
+                    deviceAuthorizationResult.addUnauthorizedDevice(deviceIdentifier);
+                }
+            }
+        } catch (GroupManagementException | UserStoreException e) {
+            throw new DeviceAccessAuthorizationException("Unable to authorize the access to devices via shared " +
+                    "roles for the user : " + username, e);
         }
         return deviceAuthorizationResult;
     }
 
+    /**
+     * Every group permission has to be granted by at least one role which is shared with one of the device groups.
+     *
+     * @param groupsWithDevice groups which contain the device
+     * @param permittedRoles   user roles which are authorized for each of the requested group permissions
+     * @param groupSharingRoles sharing roles of already visited groups
+     * @param groupManagementProviderService group management service to resolve the sharing roles
+     * @return true if all the group permissions are granted via shared groups
+     * @throws GroupManagementException if the sharing roles of a group cannot be retrieved
+     */
+    private boolean isAuthorizedViaSharedGroups(List<DeviceGroup> groupsWithDevice, List<Set<String>> permittedRoles,
+                                                Map<Integer, List<String>> groupSharingRoles,
+                                                GroupManagementProviderService groupManagementProviderService)
+            throws GroupManagementException {
+        if (groupsWithDevice == null || groupsWithDevice.isEmpty()) {
+            return false;
+        }
+        for (Set<String> rolesWithPermission : permittedRoles) {
+            boolean isPermitted = false;
+            for (DeviceGroup deviceGroup : groupsWithDevice) {
+                List<String> sharingRoles = groupSharingRoles.get(deviceGroup.getGroupId());
+                if (sharingRoles == null) {
+                    sharingRoles = groupManagementProviderService.getRoles(deviceGroup.getGroupId());
+                    groupSharingRoles.put(deviceGroup.getGroupId(), sharingRoles);
+                }
+                for (String role : sharingRoles) {
+                    if (rolesWithPermission.contains(role)) {
+                        isPermitted = true;
+                        break;
+                    }
+                }
+                if (isPermitted) {
+                    break;
+                }
+            }
+            if (!isPermitted) {
+                //if at least one failed, authorizations fails
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public DeviceAuthorizationResult isUserAuthorized(List<DeviceIdentifier> deviceIdentifiers, String[] groupPermissions)
             throws DeviceAccessAuthorizationException {
@@ -55,7 +55,7 @@ public class DeviceCacheKey {
 
     @Override
     public int hashCode() {
-        return toString().hashCode();
+        return 31 * (31 * tenantId + Objects.hashCode(deviceType)) + Objects.hashCode(deviceId);
     }
 
     @Override
@@ -66,7 +66,9 @@ public class DeviceCacheKey {
     @Override
     public boolean equals(Object obj) {
         if (obj instanceof DeviceCacheKey) {
-            return (this.hashCode() == obj.hashCode());
+            DeviceCacheKey cacheKey = (DeviceCacheKey) obj;
+            return tenantId == cacheKey.tenantId && Objects.equals(deviceType, cacheKey.deviceType)
+                    && Objects.equals(deviceId, cacheKey.deviceId);
         }
         return false;
     }
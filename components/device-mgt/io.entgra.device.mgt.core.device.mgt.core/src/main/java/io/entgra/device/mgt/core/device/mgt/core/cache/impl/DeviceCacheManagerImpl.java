@@ -22,21 +22,30 @@ import io.entgra.device.mgt.core.device.mgt.common.Device;
 import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
 import io.entgra.device.mgt.core.device.mgt.core.cache.DeviceCacheKey;
 import io.entgra.device.mgt.core.device.mgt.core.cache.DeviceCacheManager;
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceConfigurationManager;
+import io.entgra.device.mgt.core.device.mgt.core.config.cache.DeviceCacheConfiguration;
 import io.entgra.device.mgt.core.device.mgt.core.util.DeviceManagerUtil;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import javax.cache.Cache;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Implementation of DeviceCacheManager.
+ * Implementation of DeviceCacheManager. Devices are kept in the clustered device cache, and the devices which are
+ * read on this node are also kept in a {@link DeviceNearCache} in front of it. Every write of a device to the
+ * clustered device cache is followed by a new random version in the clustered device version cache, against which
+ * the near cache of each node checks its entries.
  */
 public class DeviceCacheManagerImpl implements DeviceCacheManager {
 
     private static final Log log = LogFactory.getLog(DeviceCacheManagerImpl.class);
 
     private static DeviceCacheManagerImpl deviceCacheManager;
+    private static volatile DeviceNearCache nearCache;
+    private static volatile boolean isNearCacheDisabled;
 
     private DeviceCacheManagerImpl() {
     }
@@ -57,10 +66,11 @@ public class DeviceCacheManagerImpl implements DeviceCacheManager {
         Cache<DeviceCacheKey, Device> lCache = DeviceManagerUtil.getDeviceCache();
         if (lCache != null) {
             DeviceCacheKey cacheKey = getCacheKey(deviceIdentifier, tenantId);
-            if (lCache.containsKey(cacheKey)) {
-                this.updateDeviceInCache(deviceIdentifier, device, tenantId);
-            } else {
-                lCache.put(cacheKey, device);
+            lCache.put(cacheKey, device);
+            long version = putNewVersion(cacheKey);
+            DeviceNearCache nearCache = getNearCache();
+            if (nearCache != null) {
+                nearCache.put(cacheKey, device, version);
             }
         }
     }
@@ -69,10 +79,7 @@ public class DeviceCacheManagerImpl implements DeviceCacheManager {
     public void removeDeviceFromCache(DeviceIdentifier deviceIdentifier, int tenantId) {
         Cache<DeviceCacheKey, Device> lCache = DeviceManagerUtil.getDeviceCache();
         if (lCache != null) {
-            DeviceCacheKey cacheKey = getCacheKey(deviceIdentifier, tenantId);
-            if (lCache.containsKey(cacheKey)) {
-                lCache.remove(cacheKey);
-            }
+            removeDeviceFromCache(lCache, getCacheKey(deviceIdentifier, tenantId));
         }
     }
 
@@ -81,9 +88,7 @@ public class DeviceCacheManagerImpl implements DeviceCacheManager {
         Cache<DeviceCacheKey, Device> lCache = DeviceManagerUtil.getDeviceCache();
         if (lCache != null) {
             for (DeviceCacheKey cacheKey : deviceList) {
-                if (lCache.containsKey(cacheKey)) {
-                    lCache.remove(cacheKey);
-                }
+                removeDeviceFromCache(lCache, cacheKey);
             }
         }
     }
@@ -93,8 +98,15 @@ public class DeviceCacheManagerImpl implements DeviceCacheManager {
         Cache<DeviceCacheKey, Device> lCache = DeviceManagerUtil.getDeviceCache();
         if (lCache != null) {
             DeviceCacheKey cacheKey = getCacheKey(deviceIdentifier, tenantId);
-            if (lCache.containsKey(cacheKey)) {
-                lCache.replace(cacheKey, device);
+            boolean isReplaced = lCache.replace(cacheKey, device);
+            long version = putNewVersion(cacheKey);
+            DeviceNearCache nearCache = getNearCache();
+            if (nearCache != null) {
+                if (isReplaced) {
+                    nearCache.put(cacheKey, device, version);
+                } else {
+                    nearCache.invalidate(cacheKey);
+                }
             }
         }
     }
@@ -103,11 +115,76 @@ public class DeviceCacheManagerImpl implements DeviceCacheManager {
     public Device getDeviceFromCache(DeviceIdentifier deviceIdentifier, int tenantId) {
         Cache<DeviceCacheKey, Device> lCache = DeviceManagerUtil.getDeviceCache();
         if (lCache != null) {
-            return lCache.get(getCacheKey(deviceIdentifier, tenantId));
+            DeviceCacheKey cacheKey = getCacheKey(deviceIdentifier, tenantId);
+            DeviceNearCache nearCache = getNearCache();
+            Cache<DeviceCacheKey, Long> versionCache = DeviceManagerUtil.getDeviceVersionCache();
+            if (nearCache == null || versionCache == null) {
+                return lCache.get(cacheKey);
+            }
+            Long version = versionCache.get(cacheKey);
+            Device device = version == null ? null : nearCache.get(cacheKey, version);
+            if (device == null) {
+                if (version == null) {
+                    // the version is written before the device is read, so that a write which is made after the
+                    // read replaces it
+                    version = ThreadLocalRandom.current().nextLong();
+                    versionCache.put(cacheKey, version);
+                }
+                device = lCache.get(cacheKey);
+                if (device != null) {
+                    nearCache.put(cacheKey, device, version);
+                }
+            }
+            return device;
         }
         return null;
     }
 
+    /**
+     * @return the node local cache in front of the clustered device cache, or null if it is disabled
+     */
+    public DeviceNearCache getNearCache() {
+        if (nearCache == null && !isNearCacheDisabled) {
+            synchronized (DeviceCacheManagerImpl.class) {
+                if (nearCache == null && !isNearCacheDisabled) {
+                    DeviceCacheConfiguration config = DeviceConfigurationManager.getInstance()
+                            .getDeviceManagementConfig().getDeviceCacheConfiguration();
+                    if (config.getNearCacheExpiryTime() <= 0 || config.getNearCacheCapacity() <= 0) {
+                        isNearCacheDisabled = true;
+                        return null;
+                    }
+                    nearCache = new DeviceNearCache(config.getNearCacheCapacity(),
+                            TimeUnit.SECONDS.toMillis(config.getNearCacheExpiryTime()));
+                }
+            }
+        }
+        return nearCache;
+    }
+
+    private void removeDeviceFromCache(Cache<DeviceCacheKey, Device> lCache, DeviceCacheKey cacheKey) {
+        lCache.remove(cacheKey);
+        putNewVersion(cacheKey);
+        DeviceNearCache nearCache = getNearCache();
+        if (nearCache != null) {
+            nearCache.invalidate(cacheKey);
+        }
+    }
+
+    /**
+     * Writes a new version of the device to the clustered device version cache, which retires the near cached copies
+     * of the device on every node. Has to be called after the device is written to the clustered device cache.
+     *
+     * @param cacheKey key of the device
+     * @return the new version
+     */
+    private long putNewVersion(DeviceCacheKey cacheKey) {
+        long version = ThreadLocalRandom.current().nextLong();
+        Cache<DeviceCacheKey, Long> versionCache = DeviceManagerUtil.getDeviceVersionCache();
+        if (versionCache != null) {
+            versionCache.put(cacheKey, version);
+        }
+        return version;
+    }
 
     private DeviceCacheKey getCacheKey(DeviceIdentifier deviceIdentifier, int tenantId) {
         DeviceCacheKey deviceCacheKey = new DeviceCacheKey();
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.entgra.device.mgt.core.device.mgt.core.cache.impl;
+
+import io.entgra.device.mgt.core.device.mgt.common.Device;
+import io.entgra.device.mgt.core.device.mgt.common.EnrolmentInfo;
+import io.entgra.device.mgt.core.device.mgt.common.type.mgt.DeviceStatus;
+import io.entgra.device.mgt.core.device.mgt.core.cache.DeviceCacheKey;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size bounded, node local cache of devices which is kept in front of the clustered device cache.
+ * <p>
+ * Every entry is stamped with the version of the device which is kept in the clustered device version cache, and a
+ * new version is written there whenever the device is written to or removed from the clustered device cache on any
+ * node. An entry is served only while its stamp matches the version the caller has just read from the clustered
+ * cache and its time to live has not passed, hence a change made on another node is seen on the next read.
+ * <p>
+ * The device, its enrolment, properties, status history and the lists holding its features, applications and tags
+ * are copied on the way in and out, so that callers which modify or populate the returned device do not change the
+ * cached one. The features, applications, device info and location history snapshot are shared between the copies
+ * and are not expected to be modified in place, the same way they are replaced rather than changed when a device is
+ * populated.
+ */
+public class DeviceNearCache {
+
+    private final int capacity;
+    private final long expiryTime;
+    private final Map<DeviceCacheKey, Entry> entries;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param capacity   maximum number of devices to keep, the least recently used device is evicted beyond that
+     * @param expiryTime time to live of an entry in milliseconds
+     */
+    public DeviceNearCache(int capacity, long expiryTime) {
+        this.capacity = capacity;
+        this.expiryTime = expiryTime;
+        this.entries = new LinkedHashMap<DeviceCacheKey, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<DeviceCacheKey, Entry> eldest) {
+                if (size() > DeviceNearCache.this.capacity) {
+                    evictionCount.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param cacheKey key of the device
+     * @param version  current version of the device in the clustered device version cache
+     * @return a copy of the cached device, or null if it is not cached, has expired or is of another version
+     */
+    public Device get(DeviceCacheKey cacheKey, long version) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(cacheKey);
+            if (entry != null && (entry.version != version || entry.expiryTime < System.currentTimeMillis())) {
+                entries.remove(cacheKey);
+                evictionCount.increment();
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return copyOf(entry.device);
+    }
+
+    /**
+     * Caches a device of the given version.
+     *
+     * @param cacheKey key of the device
+     * @param device   device to cache
+     * @param version  version of the device in the clustered device version cache, which has to be read before the
+     *                 device is read from, or after it is written to, the clustered device cache
+     */
+    public void put(DeviceCacheKey cacheKey, Device device, long version) {
+        Entry entry = new Entry(copyOf(device), version, System.currentTimeMillis() + expiryTime);
+        synchronized (entries) {
+            entries.put(cacheKey, entry);
+        }
+    }
+
+    /**
+     * @param cacheKey key of the device
+     */
+    public void invalidate(DeviceCacheKey cacheKey) {
+        synchronized (entries) {
+            entries.remove(cacheKey);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions="
+                + getEvictionCount();
+    }
+
+    /**
+     * @param device device to copy
+     * @return a copy of the device which can be modified without changing the given one
+     */
+    private static Device copyOf(Device device) {
+        Device copy = new Device();
+        copy.setId(device.getId());
+        copy.setName(device.getName());
+        copy.setType(device.getType());
+        copy.setDescription(device.getDescription());
+        copy.setDeviceIdentifier(device.getDeviceIdentifier());
+        copy.setLastUpdatedTimeStamp(device.getLastUpdatedTimeStamp());
+        copy.setCost(device.getCost());
+        copy.setDaysUsed(device.getDaysUsed());
+        copy.setHistorySnapshot(device.getHistorySnapshot());
+        copy.setDeviceInfo(device.getDeviceInfo());
+        if (device.getFeatures() != null) {
+            copy.setFeatures(new ArrayList<>(device.getFeatures()));
+        }
+        if (device.getApplications() != null) {
+            copy.setApplications(new ArrayList<>(device.getApplications()));
+        }
+        if (device.getProperties() != null) {
+            List<Device.Property> properties = new ArrayList<>(device.getProperties().size());
+            for (Device.Property property : device.getProperties()) {
+                Device.Property propertyCopy = new Device.Property();
+                propertyCopy.setName(property.getName());
+                propertyCopy.setValue(property.getValue());
+                properties.add(propertyCopy);
+            }
+            copy.setProperties(properties);
+        }
+        if (device.getDeviceStatusInfo() != null) {
+            List<DeviceStatus> statusInfo = new ArrayList<>(device.getDeviceStatusInfo().size());
+            for (DeviceStatus status : device.getDeviceStatusInfo()) {
+                statusInfo.add(new DeviceStatus(status.getEnrolmentId(), status.getDeviceId(), status.getStatus(),
+                        status.getUpdateTime() == null ? null : new Date(status.getUpdateTime().getTime()),
+                        status.getChangedBy()));
+            }
+            copy.setDeviceStatusInfo(statusInfo);
+        } else {
+            copy.setDeviceStatusInfo(null);
+        }
+        EnrolmentInfo enrolmentInfo = device.getEnrolmentInfo();
+        if (enrolmentInfo != null) {
+            EnrolmentInfo enrolmentInfoCopy = new EnrolmentInfo();
+            enrolmentInfoCopy.setId(enrolmentInfo.getId());
+            enrolmentInfoCopy.setTransferred(enrolmentInfo.isTransferred());
+            enrolmentInfoCopy.setDateOfEnrolment(enrolmentInfo.getDateOfEnrolment());
+            enrolmentInfoCopy.setDateOfLastUpdate(enrolmentInfo.getDateOfLastUpdate());
+            enrolmentInfoCopy.setLastBilledDate(enrolmentInfo.getLastBilledDate());
+            enrolmentInfoCopy.setOwnership(enrolmentInfo.getOwnership());
+            enrolmentInfoCopy.setStatus(enrolmentInfo.getStatus());
+            enrolmentInfoCopy.setOwner(enrolmentInfo.getOwner());
+            if (enrolmentInfo.getTags() != null) {
+                enrolmentInfoCopy.setTags(new ArrayList<>(enrolmentInfo.getTags()));
+            }
+            copy.setEnrolmentInfo(enrolmentInfoCopy);
+        }
+        return copy;
+    }
+
+    private static class Entry {
+
+        private final Device device;
+        private final long version;
+        private final long expiryTime;
+
+        private Entry(Device device, long version, long expiryTime) {
+            this.device = device;
+            this.version = version;
+            this.expiryTime = expiryTime;
+        }
+    }
+}
@@ -24,6 +24,8 @@ import io.entgra.device.mgt.core.device.mgt.core.config.archival.ArchivalConfigu
 import io.entgra.device.mgt.core.device.mgt.core.config.cache.BillingCacheConfiguration;
 import io.entgra.device.mgt.core.device.mgt.core.config.cache.CertificateCacheConfiguration;
 import io.entgra.device.mgt.core.device.mgt.core.config.cache.DeviceCacheConfiguration;
+import io.entgra.device.mgt.core.device.mgt.core.config.cache.DeviceInfoCacheConfiguration;
+import io.entgra.device.mgt.core.device.mgt.core.config.cache.DeviceOrganizationCacheConfiguration;
 import io.entgra.device.mgt.core.device.mgt.core.config.cache.GeoFenceCacheConfiguration;
 import io.entgra.device.mgt.core.device.mgt.core.config.enrollment.guide.EnrollmentGuideConfiguration;
 import io.entgra.device.mgt.core.device.mgt.core.config.mqtt.MQTTConfiguration;
@@ -31,6 +33,7 @@ import io.entgra.device.mgt.core.device.mgt.core.config.geo.location.GeoLocation
 import io.entgra.device.mgt.core.device.mgt.core.config.identity.IdentityConfigurations;
 import io.entgra.device.mgt.core.device.mgt.core.config.keymanager.KeyManagerConfigurations;
 import io.entgra.device.mgt.core.device.mgt.core.config.metadata.mgt.MetaDataConfiguration;
+import io.entgra.device.mgt.core.device.mgt.core.config.operation.pacing.OperationBatchPacingConfiguration;
 import io.entgra.device.mgt.core.device.mgt.core.config.operation.timeout.OperationTimeoutConfiguration;
 import io.entgra.device.mgt.core.device.mgt.core.config.pagination.PaginationConfiguration;
 import io.entgra.device.mgt.core.device.mgt.core.config.policy.PolicyConfiguration;
@@ -63,6 +66,8 @@ public final class DeviceManagementConfig {
     private DeviceStatusTaskConfig deviceStatusTaskConfig;
     private DeviceCacheConfiguration deviceCacheConfiguration;
     private GeoFenceCacheConfiguration geoFenceCacheConfiguration;
+    private DeviceInfoCacheConfiguration deviceInfoCacheConfiguration;
+    private DeviceOrganizationCacheConfiguration deviceOrganizationCacheConfiguration;
     private BillingCacheConfiguration billingCacheConfiguration;
     private EventOperationTaskConfiguration eventOperationTaskConfiguration;
     private CertificateCacheConfiguration certificateCacheConfiguration;
@@ -74,6 +79,7 @@ public final class DeviceManagementConfig {
     private EnrollmentNotificationConfiguration enrollmentNotificationConfiguration;
     private DefaultRoles defaultRoles;
     private OperationTimeoutConfiguration operationTimeoutConfiguration;
+    private OperationBatchPacingConfiguration operationBatchPacingConfiguration;
     private MetaDataConfiguration metaDataConfiguration;
     private EnrollmentGuideConfiguration enrollmentGuideConfiguration;
     private MQTTConfiguration mqttConfiguration;
@@ -179,6 +185,25 @@ public final class DeviceManagementConfig {
         this.geoFenceCacheConfiguration = geoFenceCacheConfiguration;
     }
 
+    @XmlElement(name = "DeviceInfoCacheConfiguration")
+    public DeviceInfoCacheConfiguration getDeviceInfoCacheConfiguration() {
+        return deviceInfoCacheConfiguration;
+    }
+
+    public void setDeviceInfoCacheConfiguration(DeviceInfoCacheConfiguration deviceInfoCacheConfiguration) {
+        this.deviceInfoCacheConfiguration = deviceInfoCacheConfiguration;
+    }
+
+    @XmlElement(name = "DeviceOrganizationCacheConfiguration")
+    public DeviceOrganizationCacheConfiguration getDeviceOrganizationCacheConfiguration() {
+        return deviceOrganizationCacheConfiguration;
+    }
+
+    public void setDeviceOrganizationCacheConfiguration(
+            DeviceOrganizationCacheConfiguration deviceOrganizationCacheConfiguration) {
+        this.deviceOrganizationCacheConfiguration = deviceOrganizationCacheConfiguration;
+    }
+
     @XmlElement(name = "BillingCacheConfiguration", required = true)
     public BillingCacheConfiguration getBillingCacheConfiguration() {
         return billingCacheConfiguration;
@@ -274,6 +299,16 @@ public final class DeviceManagementConfig {
         this.operationTimeoutConfiguration = operationTimeoutConfiguration;
     }
 
+    @XmlElement(name = "OperationBatchPacingConfiguration")
+    public OperationBatchPacingConfiguration getOperationBatchPacingConfiguration() {
+        return operationBatchPacingConfiguration;
+    }
+
+    public void setOperationBatchPacingConfiguration(
+            OperationBatchPacingConfiguration operationBatchPacingConfiguration) {
+        this.operationBatchPacingConfiguration = operationBatchPacingConfiguration;
+    }
+
     @XmlElement(name = "MetaDataConfiguration", required = true)
     public MetaDataConfiguration getMetaDataConfiguration() {
         return metaDataConfiguration;
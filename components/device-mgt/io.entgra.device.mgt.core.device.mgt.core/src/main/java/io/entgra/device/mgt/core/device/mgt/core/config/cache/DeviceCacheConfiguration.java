@@ -27,6 +27,8 @@ public class DeviceCacheConfiguration {
     private boolean isEnabled;
     private int expiryTime;
     private long capacity;
+    private int nearCacheExpiryTime = 30;
+    private int nearCacheCapacity = 10000;
 
     @XmlElement(name = "Enable", required = true)
     public boolean isEnabled() {
@@ -54,4 +56,22 @@ public class DeviceCacheConfiguration {
     public void setCapacity(long capacity) {
         this.capacity = capacity;
     }
+
+    @XmlElement(name = "NearCacheExpiryTime")
+    public int getNearCacheExpiryTime() {
+        return nearCacheExpiryTime;
+    }
+
+    public void setNearCacheExpiryTime(int nearCacheExpiryTime) {
+        this.nearCacheExpiryTime = nearCacheExpiryTime;
+    }
+
+    @XmlElement(name = "NearCacheCapacity")
+    public int getNearCacheCapacity() {
+        return nearCacheCapacity;
+    }
+
+    public void setNearCacheCapacity(int nearCacheCapacity) {
+        this.nearCacheCapacity = nearCacheCapacity;
+    }
 }
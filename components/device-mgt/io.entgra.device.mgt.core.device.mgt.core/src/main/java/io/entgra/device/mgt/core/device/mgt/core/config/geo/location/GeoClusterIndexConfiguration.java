@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.config.geo.location;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * This class represents the configuration of the in-memory index which answers geo cluster queries.
+ */
+@XmlRootElement(name = "GeoClusterIndex")
+public class GeoClusterIndexConfiguration {
+
+    private boolean enabled;
+    private int maxGeohashLength = 8;
+    private int refreshInterval = 300;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @XmlElement(name = "Enabled", required = true)
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxGeohashLength() {
+        return maxGeohashLength;
+    }
+
+    @XmlElement(name = "MaxGeohashLength")
+    public void setMaxGeohashLength(int maxGeohashLength) {
+        this.maxGeohashLength = maxGeohashLength;
+    }
+
+    public int getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    @XmlElement(name = "RefreshInterval")
+    public void setRefreshInterval(int refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+}
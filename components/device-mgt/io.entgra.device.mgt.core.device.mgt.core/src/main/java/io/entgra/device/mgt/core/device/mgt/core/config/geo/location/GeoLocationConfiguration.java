@@ -28,6 +28,9 @@ import javax.xml.bind.annotation.XmlRootElement;
 public class GeoLocationConfiguration {
 
     private boolean enabled;
+    private LocationIngestionConfiguration locationIngestionConfiguration;
+    private GeoClusterIndexConfiguration geoClusterIndexConfiguration;
+    private GeofenceEvaluationConfiguration geofenceEvaluationConfiguration;
 
     public boolean getEnabled() {
         return enabled;
@@ -37,4 +40,31 @@ public class GeoLocationConfiguration {
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
     }
+
+    public LocationIngestionConfiguration getLocationIngestionConfiguration() {
+        return locationIngestionConfiguration;
+    }
+
+    @XmlElement(name = "LocationIngestion")
+    public void setLocationIngestionConfiguration(LocationIngestionConfiguration locationIngestionConfiguration) {
+        this.locationIngestionConfiguration = locationIngestionConfiguration;
+    }
+
+    public GeoClusterIndexConfiguration getGeoClusterIndexConfiguration() {
+        return geoClusterIndexConfiguration;
+    }
+
+    @XmlElement(name = "GeoClusterIndex")
+    public void setGeoClusterIndexConfiguration(GeoClusterIndexConfiguration geoClusterIndexConfiguration) {
+        this.geoClusterIndexConfiguration = geoClusterIndexConfiguration;
+    }
+
+    public GeofenceEvaluationConfiguration getGeofenceEvaluationConfiguration() {
+        return geofenceEvaluationConfiguration;
+    }
+
+    @XmlElement(name = "GeofenceEvaluation")
+    public void setGeofenceEvaluationConfiguration(GeofenceEvaluationConfiguration geofenceEvaluationConfiguration) {
+        this.geofenceEvaluationConfiguration = geofenceEvaluationConfiguration;
+    }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.config.geo.location;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * This class represents the configuration of the in-process evaluation of geofence entries, exits and stays.
+ */
+@XmlRootElement(name = "GeofenceEvaluation")
+public class GeofenceEvaluationConfiguration {
+
+    private boolean enabled;
+    private int gridGeohashLength = 5;
+    private int stationaryTime = 300;
+    private int refreshInterval = 300;
+    private int queueCapacity = 10000;
+    private int flushInterval = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @XmlElement(name = "Enabled", required = true)
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getGridGeohashLength() {
+        return gridGeohashLength;
+    }
+
+    @XmlElement(name = "GridGeohashLength")
+    public void setGridGeohashLength(int gridGeohashLength) {
+        this.gridGeohashLength = gridGeohashLength;
+    }
+
+    public int getStationaryTime() {
+        return stationaryTime;
+    }
+
+    @XmlElement(name = "StationaryTime")
+    public void setStationaryTime(int stationaryTime) {
+        this.stationaryTime = stationaryTime;
+    }
+
+    public int getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    @XmlElement(name = "RefreshInterval")
+    public void setRefreshInterval(int refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    @XmlElement(name = "QueueCapacity")
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getFlushInterval() {
+        return flushInterval;
+    }
+
+    @XmlElement(name = "FlushInterval")
+    public void setFlushInterval(int flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.config.geo.location;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * This class represents the configuration of the write-behind pipeline which persists device location reports.
+ */
+@XmlRootElement(name = "LocationIngestion")
+public class LocationIngestionConfiguration {
+
+    private boolean enabled;
+    private int queueCapacity = 10000;
+    private int flushInterval = 1000;
+    private int batchSize = 500;
+    private boolean flushOnShutdown = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @XmlElement(name = "Enabled", required = true)
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    @XmlElement(name = "QueueCapacity")
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getFlushInterval() {
+        return flushInterval;
+    }
+
+    @XmlElement(name = "FlushInterval")
+    public void setFlushInterval(int flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @XmlElement(name = "BatchSize")
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public boolean isFlushOnShutdown() {
+        return flushOnShutdown;
+    }
+
+    @XmlElement(name = "FlushOnShutdown")
+    public void setFlushOnShutdown(boolean flushOnShutdown) {
+        this.flushOnShutdown = flushOnShutdown;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.entgra.device.mgt.core.device.mgt.core.config.operation.pacing;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * Configurations of the pacing applied between device batches and DB retries of the operation subsystem.
+ */
+@XmlRootElement(name = "OperationBatchPacingConfiguration")
+public class OperationBatchPacingConfiguration {
+
+    private String pacerClass;
+    private long minBatchDelay = 0;
+    private long maxBatchDelay = 2000;
+    private long targetBatchLatency = 1000;
+    private double poolSaturationThreshold = 0.75;
+    private long retryBaseDelay = 200;
+    private long retryMaxDelay = 5000;
+
+    @XmlElement(name = "PacerClass")
+    public String getPacerClass() {
+        return pacerClass;
+    }
+
+    public void setPacerClass(String pacerClass) {
+        this.pacerClass = pacerClass;
+    }
+
+    @XmlElement(name = "MinBatchDelayMillis")
+    public long getMinBatchDelay() {
+        return minBatchDelay;
+    }
+
+    public void setMinBatchDelay(long minBatchDelay) {
+        this.minBatchDelay = minBatchDelay;
+    }
+
+    @XmlElement(name = "MaxBatchDelayMillis")
+    public long getMaxBatchDelay() {
+        return maxBatchDelay;
+    }
+
+    public void setMaxBatchDelay(long maxBatchDelay) {
+        this.maxBatchDelay = maxBatchDelay;
+    }
+
+    @XmlElement(name = "TargetBatchLatencyMillis")
+    public long getTargetBatchLatency() {
+        return targetBatchLatency;
+    }
+
+    public void setTargetBatchLatency(long targetBatchLatency) {
+        this.targetBatchLatency = targetBatchLatency;
+    }
+
+    @XmlElement(name = "PoolSaturationThreshold")
+    public double getPoolSaturationThreshold() {
+        return poolSaturationThreshold;
+    }
+
+    public void setPoolSaturationThreshold(double poolSaturationThreshold) {
+        this.poolSaturationThreshold = poolSaturationThreshold;
+    }
+
+    @XmlElement(name = "RetryBaseDelayMillis")
+    public long getRetryBaseDelay() {
+        return retryBaseDelay;
+    }
+
+    public void setRetryBaseDelay(long retryBaseDelay) {
+        this.retryBaseDelay = retryBaseDelay;
+    }
+
+    @XmlElement(name = "RetryMaxDelayMillis")
+    public long getRetryMaxDelay() {
+        return retryMaxDelay;
+    }
+
+    public void setRetryMaxDelay(long retryMaxDelay) {
+        this.retryMaxDelay = retryMaxDelay;
+    }
+}
@@ -32,6 +32,10 @@ public class PushNotificationConfiguration {
     private int schedulerBatchDelayMills;
     private int schedulerTaskInitialDelay;
     private boolean schedulerTaskEnabled;
+    private int schedulerSendConcurrency = 4;
+    private int dispatcherThreadCount = 10;
+    private int dispatcherTenantQueueCapacity = 10000;
+    private int dispatcherTenantBatchSize = 100;
     private List<String> pushNotificationProviders;
     private List<ContextMetadata> contextMetadata;
 
@@ -71,6 +75,42 @@ public class PushNotificationConfiguration {
         this.schedulerTaskEnabled = schedulerTaskEnabled;
     }
 
+    @XmlElement(name = "SchedulerSendConcurrency")
+    public int getSchedulerSendConcurrency() {
+        return schedulerSendConcurrency;
+    }
+
+    public void setSchedulerSendConcurrency(int schedulerSendConcurrency) {
+        this.schedulerSendConcurrency = schedulerSendConcurrency;
+    }
+
+    @XmlElement(name = "DispatcherThreadCount")
+    public int getDispatcherThreadCount() {
+        return dispatcherThreadCount;
+    }
+
+    public void setDispatcherThreadCount(int dispatcherThreadCount) {
+        this.dispatcherThreadCount = dispatcherThreadCount;
+    }
+
+    @XmlElement(name = "DispatcherTenantQueueCapacity")
+    public int getDispatcherTenantQueueCapacity() {
+        return dispatcherTenantQueueCapacity;
+    }
+
+    public void setDispatcherTenantQueueCapacity(int dispatcherTenantQueueCapacity) {
+        this.dispatcherTenantQueueCapacity = dispatcherTenantQueueCapacity;
+    }
+
+    @XmlElement(name = "DispatcherTenantBatchSize")
+    public int getDispatcherTenantBatchSize() {
+        return dispatcherTenantBatchSize;
+    }
+
+    public void setDispatcherTenantBatchSize(int dispatcherTenantBatchSize) {
+        this.dispatcherTenantBatchSize = dispatcherTenantBatchSize;
+    }
+
     @XmlElementWrapper(name = "PushNotificationProviders", required = true)
     @XmlElement(name = "Provider", required = true)
     public List<String> getPushNotificationProviders() {
@@ -25,6 +25,8 @@ import javax.xml.bind.annotation.XmlRootElement;
 public class DeviceStatusTaskConfig {
 
     private boolean enabled;
+    private int batchSize = 1000;
+    private int lastSeenFlushInterval = 30;
 
     @XmlElement(name = "Enable", required = true)
     public boolean isEnabled() {
@@ -35,4 +37,22 @@ public class DeviceStatusTaskConfig {
         this.enabled = enabled;
     }
 
+    @XmlElement(name = "BatchSize")
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @XmlElement(name = "LastSeenFlushInterval")
+    public int getLastSeenFlushInterval() {
+        return lastSeenFlushInterval;
+    }
+
+    public void setLastSeenFlushInterval(int lastSeenFlushInterval) {
+        this.lastSeenFlushInterval = lastSeenFlushInterval;
+    }
+
 }
\ No newline at end of file
@@ -24,6 +24,7 @@ import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
 import io.entgra.device.mgt.core.device.mgt.common.EnrolmentInfo;
 import io.entgra.device.mgt.core.device.mgt.common.EnrolmentInfo.Status;
 import io.entgra.device.mgt.core.device.mgt.common.PaginationRequest;
+import io.entgra.device.mgt.core.device.mgt.common.TaskPartition;
 import io.entgra.device.mgt.core.device.mgt.common.configuration.mgt.DevicePropertyInfo;
 import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceData;
 import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceLocationHistorySnapshot;
@@ -130,6 +131,16 @@ public interface DeviceDAO {
     boolean recordDeviceUpdate(DeviceIdentifier deviceIdentifier, int tenantId)
             throws DeviceManagementDAOException;
 
+    /**
+     * This method is used to record the time each of the given enrolments was last seen as the updated timestamp of
+     * its device. The timestamp of a device is never moved backwards.
+     *
+     * @param lastSeenTimes last seen times in milliseconds, keyed by the enrolment id.
+     * @return number of devices of which the timestamp is updated.
+     * @throws DeviceManagementDAOException
+     */
+    int recordDeviceUpdates(Map<Integer, Long> lastSeenTimes) throws DeviceManagementDAOException;
+
     Device getDevice(DeviceData deviceData, int tenantId) throws DeviceManagementDAOException;
 
 
@@ -347,16 +358,16 @@ public interface DeviceDAO {
     List<Device> getDevicesIds(PaginationRequest request, int tenantId) throws DeviceManagementDAOException;
 
     /**
-     * This method is used to retrieve the devices of a given tenant as a paginated result, along the lines of
-     * activeServerCount and serverIndex
+     * This method is used to retrieve the devices of a given tenant as a paginated result, restricted to the
+     * task partition of the current node
      *
      * @param request
      * @param tenantId
-     * @param activeServerCount
-     * @param serverIndex
+     * @param taskPartition partition owned by the current node, null to retrieve devices of all partitions
      * @return
      */
-    List<Device> getAllocatedDevices(PaginationRequest request, int tenantId, int activeServerCount, int serverIndex) throws DeviceManagementDAOException;
+    List<Device> getAllocatedDevices(PaginationRequest request, int tenantId, TaskPartition taskPartition)
+            throws DeviceManagementDAOException;
 
     /**
      * This method is used to search for devices within a specific group.
@@ -391,14 +402,16 @@ public interface DeviceDAO {
     /**
      * This method is used to retrieve the list of devices attributed to a specific node
      * when using dynamic partitioning to allocate tasks given the tenant and device type
-     * along with activeServerCount and serverIndex
+     * along with the task partition owned by the node
      *
      * @param type device type.
      * @param tenantId tenant id.
+     * @param taskPartition partition owned by the current node, null to retrieve devices of all partitions
      * @return returns list of devices of provided type.
      * @throws DeviceManagementDAOException
      */
-    List<Device> getAllocatedDevices(String type, int tenantId, int activeServerCount, int serverIndex) throws DeviceManagementDAOException;
+    List<Device> getAllocatedDevices(String type, int tenantId, TaskPartition taskPartition)
+            throws DeviceManagementDAOException;
 
     List<Device> getDevices(long timestamp, int tenantId) throws DeviceManagementDAOException;
 
@@ -612,6 +625,17 @@ public interface DeviceDAO {
      */
     List<GeoCluster> findGeoClusters(GeoQuery geoQuery, int tenantId) throws DeviceManagementDAOException;
 
+    /**
+     * This method is used to retrieve the devices of the given ids which are not removed, with their latest
+     * enrolments.
+     *
+     * @param deviceIds ids of the devices.
+     * @param tenantId  tenant id.
+     * @return returns the devices which are found.
+     * @throws DeviceManagementDAOException if an error occurs while retrieving the devices.
+     */
+    List<Device> getDevicesByIds(List<Integer> deviceIds, int tenantId) throws DeviceManagementDAOException;
+
     /**
      * This method is used to identify whether given device ids are exist or not.
      *
@@ -764,16 +788,17 @@ public interface DeviceDAO {
             throws DeviceManagementDAOException;
 
     /**
-     * Get All devices for monitoring
+     * Get a page of devices for monitoring, in the ascending order of the device id
      * @param deviceTypeId device type identifier
      * @param deviceTypeName name of the type. (android, ios ...)
-     * @param activeServerCount Number of available servers
-     * @param serverHashIndex server index number
-     * @return device object
+     * @param taskPartition partition owned by the current node, null to retrieve devices of all partitions
+     * @param lastDeviceId id of the last device of the previous page, 0 to get the first page
+     * @param limit maximum number of devices in the page
+     * @return devices of which the id is greater than the last device id
      * @throws DeviceManagementDAOException
      */
-    List<DeviceMonitoringData> getAllDevicesForMonitoring(int deviceTypeId, String deviceTypeName,
-                                                          int activeServerCount, int serverHashIndex)
+    List<DeviceMonitoringData> getDevicesForMonitoring(int deviceTypeId, String deviceTypeName,
+                                                       TaskPartition taskPartition, int lastDeviceId, int limit)
             throws DeviceManagementDAOException;
 
     /**
@@ -96,6 +96,17 @@ public interface EnrollmentDAO {
      */
     boolean addDeviceStatus(int enrolmentId, EnrolmentInfo.Status status) throws DeviceManagementDAOException;
 
+    /***
+     *This method is used to add the current enrolment status of each of the given devices to the status history in a
+     * single batch. Unlike {@link #addDeviceStatus(int, EnrolmentInfo.Status)} the last recorded status is not
+     * checked, hence it should be used only for devices of which the status has been changed.
+     *
+     * @param devices devices with the enrolment of which the status is to be added.
+     * @return either (1) true, if device statuses are added or false.
+     * @throws DeviceManagementDAOException if an error occurs when adding device statuses.
+     */
+    boolean addDeviceStatuses(List<Device> devices) throws DeviceManagementDAOException;
+
     /**
      * Retrieves owners and the list of device IDs related to an owner.
      *
@@ -211,6 +211,17 @@ public interface GroupDAO {
      */
     List<DeviceGroup> getGroups(int deviceId, int tenantId) throws GroupManagementDAOException;
 
+    /**
+     * Get the groups of each of the devices with the device ids provided, in a single query.
+     *
+     * @param deviceIds of the devices.
+     * @param tenantId  of the devices.
+     * @return groups which have the device, keyed by the device id. Devices without groups are not in the map.
+     * @throws GroupManagementDAOException on error during retrieval of the groups
+     */
+    Map<Integer, List<DeviceGroup>> getGroupsOfDevices(List<Integer> deviceIds, int tenantId)
+            throws GroupManagementDAOException;
+
     /**
      * Get paginated list of Device Groups in tenant.
      *
@@ -23,10 +23,10 @@ import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
 import io.entgra.device.mgt.core.device.mgt.common.EnrolmentInfo;
 import io.entgra.device.mgt.core.device.mgt.common.EnrolmentInfo.Status;
 import io.entgra.device.mgt.core.device.mgt.common.PaginationRequest;
+import io.entgra.device.mgt.core.device.mgt.common.TaskPartition;
 import io.entgra.device.mgt.core.device.mgt.common.configuration.mgt.DevicePropertyInfo;
 import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceData;
 import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceLocationHistorySnapshot;
-import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceMonitoringData;
 import io.entgra.device.mgt.core.device.mgt.common.exceptions.DeviceManagementException;
 import io.entgra.device.mgt.core.device.mgt.common.geo.service.GeoQuery;
 import io.entgra.device.mgt.core.device.mgt.core.dao.DeviceDAO;
@@ -51,8 +51,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.StringJoiner;
 import java.util.Random;
 import java.util.stream.Collectors;
@@ -89,6 +91,7 @@ public abstract class AbstractDeviceDAOImpl implements DeviceDAO {
             rs = stmt.getGeneratedKeys();
             if (rs.next()) {
                 deviceId = rs.getInt(1);
+                this.setPartitionBucket(conn, deviceId);
             }
             return deviceId;
         } catch (SQLException e) {
@@ -99,6 +102,19 @@ public abstract class AbstractDeviceDAOImpl implements DeviceDAO {
         }
     }
 
+    /**
+     * Stores the task partition bucket of a new device, which partitioned tasks match with an index range scan
+     * instead of computing the modulo of every id.
+     */
+    private void setPartitionBucket(Connection conn, int deviceId) throws SQLException {
+        String sql = "UPDATE DM_DEVICE SET PARTITION_BUCKET = ? WHERE ID = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, TaskPartition.getBucket(deviceId));
+            stmt.setInt(2, deviceId);
+            stmt.executeUpdate();
+        }
+    }
+
     @Override
     public boolean updateDevice(Device device, int tenantId) throws DeviceManagementDAOException {
         Connection conn;
@@ -153,6 +169,41 @@ public abstract class AbstractDeviceDAOImpl implements DeviceDAO {
         }
     }
 
+    @Override
+    public int recordDeviceUpdates(Map<Integer, Long> lastSeenTimes) throws DeviceManagementDAOException {
+        String sql = "UPDATE DM_DEVICE SET LAST_UPDATED_TIMESTAMP = ? " +
+                "WHERE ID = (SELECT DEVICE_ID FROM DM_ENROLMENT WHERE ID = ?) AND LAST_UPDATED_TIMESTAMP < ?";
+        try {
+            Connection conn = this.getConnection();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                boolean isBatchUpdate = conn.getMetaData().supportsBatchUpdates();
+                int updatedCount = 0;
+                for (Map.Entry<Integer, Long> entry : lastSeenTimes.entrySet()) {
+                    Timestamp lastSeenTime = new Timestamp(entry.getValue());
+                    stmt.setTimestamp(1, lastSeenTime);
+                    stmt.setInt(2, entry.getKey());
+                    stmt.setTimestamp(3, lastSeenTime);
+                    if (isBatchUpdate) {
+                        stmt.addBatch();
+                    } else {
+                        updatedCount += stmt.executeUpdate();
+                    }
+                }
+                if (isBatchUpdate) {
+                    for (int rows : stmt.executeBatch()) {
+                        if (rows > 0) {
+                            updatedCount += rows;
+                        }
+                    }
+                }
+                return updatedCount;
+            }
+        } catch (SQLException e) {
+            throw new DeviceManagementDAOException("Error occurred while updating the last seen times of "
+                    + lastSeenTimes.size() + " devices", e);
+        }
+    }
+
     @Override
     public Device getDevice(DeviceData deviceData, int tenantId) throws DeviceManagementDAOException {
         Device device = null;
@@ -815,8 +866,8 @@ public abstract class AbstractDeviceDAOImpl implements DeviceDAO {
 
 
     @Override
-    public List<Device> getAllocatedDevices(String type, int tenantId, int activeServerCount,
-                                            int serverIndex) throws DeviceManagementDAOException {
+    public List<Device> getAllocatedDevices(String type, int tenantId, TaskPartition taskPartition)
+            throws DeviceManagementDAOException {
         List<Device> devices;
         try {
             Connection conn = this.getConnection();
@@ -843,15 +894,15 @@ public abstract class AbstractDeviceDAOImpl implements DeviceDAO {
                     "WHERE d1.ID = e.DEVICE_ID" +
                     "        AND e.DEVICE_TYPE = ?" +
                     "        AND e.TENANT_ID = ?" +
-                    "        AND MOD(d1.ID, ?) = ? " +
-                    "ORDER BY e.DATE_OF_LAST_UPDATE DESC";
+                    DeviceManagementDAOUtil.getPartitionCondition("MOD(d1.ID, ?)", "d1.PARTITION_BUCKET",
+                            taskPartition) +
+                    " ORDER BY e.DATE_OF_LAST_UPDATE DESC";
 
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setInt(1, tenantId);
                 stmt.setString(2, type);
                 stmt.setInt(3, tenantId);
-                stmt.setInt(4, activeServerCount);
-                stmt.setInt(5, serverIndex);
+                DeviceManagementDAOUtil.setPartitionValues(stmt, 4, taskPartition);
                 devices = new ArrayList<>();
 
                 try (ResultSet rs = stmt.executeQuery()) {
@@ -860,15 +911,15 @@ public abstract class AbstractDeviceDAOImpl implements DeviceDAO {
                         devices.add(device);
                     }
                 } catch (Exception e) {
-                    String msg = "Error encountered while populating allocated active devices for server with index : " + serverIndex +
-                            " active-server-count " + activeServerCount + " device-type " + type + " tenant-id " + tenantId;
+                    String msg = "Error encountered while populating allocated active devices for server partition : " +
+                            taskPartition + " device-type " + type + " tenant-id " + tenantId;
                     log.error(msg, e);
                     throw new DeviceManagementDAOException(msg, e);
                 }
             }
         } catch (SQLException e) {
-            String msg = "Error encountered while retrieving allocated devices for server with index : " + serverIndex +
-                    " active-server-count " + activeServerCount + " device-type " + type + " tenant-id " + tenantId;
+            String msg = "Error encountered while retrieving allocated devices for server partition : " +
+                    taskPartition + " device-type " + type + " tenant-id " + tenantId;
             log.error(msg, e);
             throw new DeviceManagementDAOException(msg, e);
         }
@@ -2075,6 +2126,45 @@ public abstract class AbstractDeviceDAOImpl implements DeviceDAO {
         return geoClusters;
     }
 
+    @Override
+    public List<Device> getDevicesByIds(List<Integer> deviceIds, int tenantId) throws DeviceManagementDAOException {
+        List<Device> devices = new ArrayList<>();
+        if (deviceIds.isEmpty()) {
+            return devices;
+        }
+        String sql = "SELECT d1.ID AS DEVICE_ID, d1.DESCRIPTION, d1.NAME AS DEVICE_NAME, d1.LAST_UPDATED_TIMESTAMP, "
+                + "e.DEVICE_TYPE, e.DEVICE_IDENTIFICATION, e.OWNER, e.OWNERSHIP, e.STATUS, e.IS_TRANSFERRED, "
+                + "e.DATE_OF_LAST_UPDATE, e.DATE_OF_ENROLMENT, e.ID AS ENROLMENT_ID "
+                + "FROM DM_ENROLMENT e, "
+                + "(SELECT d.ID, d.DESCRIPTION, d.NAME, d.LAST_UPDATED_TIMESTAMP FROM DM_DEVICE d "
+                + "WHERE d.ID IN (" + String.join(", ", Collections.nCopies(deviceIds.size(), "?")) + ") "
+                + "AND d.TENANT_ID = ?) d1 "
+                + "WHERE d1.ID = e.DEVICE_ID AND e.TENANT_ID = ? AND e.STATUS != 'REMOVED' "
+                + "ORDER BY e.DATE_OF_LAST_UPDATE DESC";
+        try {
+            Connection conn = this.getConnection();
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                int index = 1;
+                for (Integer deviceId : deviceIds) {
+                    ps.setInt(index++, deviceId);
+                }
+                ps.setInt(index++, tenantId);
+                ps.setInt(index, tenantId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    Set<Integer> loadedDeviceIds = new HashSet<>();
+                    while (rs.next()) {
+                        if (loadedDeviceIds.add(rs.getInt("DEVICE_ID"))) {
+                            devices.add(DeviceManagementDAOUtil.loadDevice(rs));
+                        }
+                    }
+                }
+            }
+            return devices;
+        } catch (SQLException e) {
+            throw new DeviceManagementDAOException("Error occurred while retrieving devices for given device ids.", e);
+        }
+    }
+
     @Override
     public List<Device> getDevicesByIdentifiers(List<String> deviceIdentifiers, int tenantId)
             throws DeviceManagementDAOException {
@@ -3168,58 +3258,6 @@ public abstract class AbstractDeviceDAOImpl implements DeviceDAO {
         return deviceCount;
     }
 
-    @Override
-    public List<DeviceMonitoringData> getAllDevicesForMonitoring(
-            int deviceTypeId, String deviceTypeName, int activeServerCount, int serverHashIndex)
-            throws DeviceManagementDAOException {
-        List<DeviceMonitoringData> devices = new ArrayList<>();
-
-        String sql = "SELECT D.ID AS DEVICE_ID," +
-                " D.NAME AS DEVICE_NAME, " +
-                " D.DESCRIPTION AS DESCRIPTION," +
-                " D.DEVICE_IDENTIFICATION, " +
-                " D.LAST_UPDATED_TIMESTAMP, " +
-                " D.TENANT_ID, " +
-                " E.ENROLMENT_ID, " +
-                " EN.OWNER, " +
-                " EN.OWNERSHIP, " +
-                " EN.IS_TRANSFERRED, " +
-                " EN.DATE_OF_ENROLMENT, " +
-                " EN.DATE_OF_LAST_UPDATE, " +
-                " EN.STATUS " +
-                "FROM DM_DEVICE D, DM_ENROLMENT EN," +
-                " (SELECT DEVICE_ID, MAX(ID) AS ENROLMENT_ID" +
-                " FROM DM_ENROLMENT" +
-                " WHERE STATUS IN ('ACTIVE', 'UNREACHABLE') " +
-                " GROUP BY DEVICE_ID) E" +
-                " WHERE D.ID = E.DEVICE_ID AND E.ENROLMENT_ID = EN.ID AND D.DEVICE_TYPE_ID = ?";
-        if (activeServerCount > 0) {
-            sql += " AND MOD(D.ID, ?) = ?";
-        }
-
-        try {
-            Connection conn = this.getConnection();
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setInt(1, deviceTypeId);
-                if (activeServerCount > 0) {
-                    stmt.setInt(2, activeServerCount);
-                    stmt.setInt(3, serverHashIndex);
-                }
-
-                try (ResultSet rs = stmt.executeQuery()) {
-                    while (rs.next()) {
-                        devices.add(DeviceManagementDAOUtil.loadDevice(rs, deviceTypeName));
-                    }
-                    return devices;
-                }
-            }
-        } catch (SQLException e) {
-            String msg = "Error occurred while retrieving devices";
-            log.error(msg, e);
-            throw new DeviceManagementDAOException(msg, e);
-        }
-    }
-
     @Override
     public int getGroupedDevicesCount(PaginationRequest request, List<Integer> deviceIds, String groupName,
                                       int tenantId) throws DeviceManagementDAOException {
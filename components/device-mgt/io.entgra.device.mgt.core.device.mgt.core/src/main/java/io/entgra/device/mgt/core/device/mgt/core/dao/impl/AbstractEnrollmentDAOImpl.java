@@ -389,6 +389,42 @@ public abstract class AbstractEnrollmentDAOImpl implements EnrollmentDAO {
         return true;
     }
 
+    @Override
+    public boolean addDeviceStatuses(List<Device> devices) throws DeviceManagementDAOException {
+        String changedBy = PrivilegedCarbonContext.getThreadLocalCarbonContext().getUsername();
+        if (changedBy == null) {
+            changedBy = DeviceManagementConstants.MaintenanceProperties.MAINTENANCE_USER;
+        }
+        String sql = "INSERT INTO DM_DEVICE_STATUS (ENROLMENT_ID, DEVICE_ID, STATUS, UPDATE_TIME, CHANGED_BY) " +
+                "VALUES(?, ?, ?, ?, ?)";
+        try {
+            Connection conn = this.getConnection();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                boolean isBatchUpdate = conn.getMetaData().supportsBatchUpdates();
+                Timestamp updateTime = new Timestamp(new Date().getTime());
+                for (Device device : devices) {
+                    EnrolmentInfo enrolmentInfo = device.getEnrolmentInfo();
+                    stmt.setInt(1, enrolmentInfo.getId());
+                    stmt.setInt(2, device.getId());
+                    stmt.setString(3, enrolmentInfo.getStatus().toString());
+                    stmt.setTimestamp(4, updateTime);
+                    stmt.setString(5, changedBy);
+                    if (isBatchUpdate) {
+                        stmt.addBatch();
+                    } else {
+                        stmt.executeUpdate();
+                    }
+                }
+                if (isBatchUpdate) {
+                    stmt.executeBatch();
+                }
+            }
+        } catch (SQLException e) {
+            throw new DeviceManagementDAOException("Error occurred while adding the statuses of given device-list.", e);
+        }
+        return true;
+    }
+
     @Override
     public EnrolmentInfo.Status getStatus(int deviceId, String currentOwner,
                                           int tenantId) throws DeviceManagementDAOException {
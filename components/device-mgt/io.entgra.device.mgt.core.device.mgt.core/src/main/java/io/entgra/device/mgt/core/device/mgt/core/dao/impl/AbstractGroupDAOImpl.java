@@ -793,6 +793,42 @@ public abstract class AbstractGroupDAOImpl implements GroupDAO {
         return deviceGroupBuilders;
     }
 
+    @Override
+    public Map<Integer, List<DeviceGroup>> getGroupsOfDevices(List<Integer> deviceIds, int tenantId)
+            throws GroupManagementDAOException {
+        Map<Integer, List<DeviceGroup>> groupsOfDevices = new HashMap<>();
+        if (deviceIds.isEmpty()) {
+            return groupsOfDevices;
+        }
+        StringJoiner joiner = new StringJoiner(",",
+                "SELECT GM.DEVICE_ID, G.ID, G.GROUP_NAME, G.DESCRIPTION, G.OWNER, G.STATUS, G.PARENT_PATH, " +
+                        "G.PARENT_GROUP_ID FROM DM_GROUP G " +
+                        "INNER JOIN DM_DEVICE_GROUP_MAP GM ON G.ID = GM.GROUP_ID " +
+                        "WHERE GM.TENANT_ID = ? AND GM.DEVICE_ID IN (", ")");
+        deviceIds.forEach(deviceId -> joiner.add("?"));
+        try {
+            Connection conn = GroupManagementDAOFactory.getConnection();
+            try (PreparedStatement stmt = conn.prepareStatement(joiner.toString())) {
+                int paramIndex = 1;
+                stmt.setInt(paramIndex++, tenantId);
+                for (Integer deviceId : deviceIds) {
+                    stmt.setInt(paramIndex++, deviceId);
+                }
+                try (ResultSet resultSet = stmt.executeQuery()) {
+                    while (resultSet.next()) {
+                        groupsOfDevices.computeIfAbsent(resultSet.getInt("DEVICE_ID"), id -> new ArrayList<>())
+                                .add(GroupManagementDAOUtil.loadGroup(resultSet));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            String msg = "Error occurred while retrieving groups of devices " + deviceIds + " in tenant: " + tenantId;
+            log.error(msg, e);
+            throw new GroupManagementDAOException(msg, e);
+        }
+        return groupsOfDevices;
+    }
+
     @Override
     public List<DeviceGroup> getGroups(int tenantId) throws GroupManagementDAOException {
         PreparedStatement stmt = null;
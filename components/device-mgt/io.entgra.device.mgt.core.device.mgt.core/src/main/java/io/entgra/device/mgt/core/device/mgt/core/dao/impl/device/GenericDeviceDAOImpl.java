@@ -23,7 +23,9 @@ import io.entgra.device.mgt.core.device.mgt.common.Device;
 import io.entgra.device.mgt.core.device.mgt.common.DeviceManagementConstants;
 import io.entgra.device.mgt.core.device.mgt.common.EnrolmentInfo;
 import io.entgra.device.mgt.core.device.mgt.common.PaginationRequest;
+import io.entgra.device.mgt.core.device.mgt.common.TaskPartition;
 import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceInfo;
+import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceMonitoringData;
 import io.entgra.device.mgt.core.device.mgt.core.dao.DeviceManagementDAOException;
 import io.entgra.device.mgt.core.device.mgt.core.dao.impl.AbstractDeviceDAOImpl;
 import io.entgra.device.mgt.core.device.mgt.core.dao.util.DeviceManagementDAOUtil;
@@ -536,7 +538,7 @@ public class GenericDeviceDAOImpl extends AbstractDeviceDAOImpl {
 
     @Override
     public List<Device> getAllocatedDevices(PaginationRequest request, int tenantId,
-                                            int activeServerCount, int serverIndex)
+                                            TaskPartition taskPartition)
             throws DeviceManagementDAOException {
         List<Device> devices;
         String deviceType = request.getDeviceType();
@@ -553,7 +555,6 @@ public class GenericDeviceDAOImpl extends AbstractDeviceDAOImpl {
         boolean isStatusProvided = false;
         Date since = request.getSince();
         boolean isSinceProvided = false;
-        boolean isPartitionedTask = false;
 
         try {
             Connection conn = getConnection();
@@ -615,10 +616,8 @@ public class GenericDeviceDAOImpl extends AbstractDeviceDAOImpl {
                 sql += buildStatusQuery(statusList);
                 isStatusProvided = true;
             }
-            if (activeServerCount > 0){
-                sql = sql + " AND MOD(d1.ID, ?) = ?";
-                isPartitionedTask = true;
-            }
+            sql = sql + DeviceManagementDAOUtil.getPartitionCondition("MOD(d1.ID, ?)", "d1.PARTITION_BUCKET",
+                    taskPartition);
             sql = sql + " LIMIT ? OFFSET ?";
 
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -647,10 +646,7 @@ public class GenericDeviceDAOImpl extends AbstractDeviceDAOImpl {
                         stmt.setString(paramIdx++, status);
                     }
                 }
-                if (isPartitionedTask) {
-                    stmt.setInt(paramIdx++, activeServerCount);
-                    stmt.setInt(paramIdx++, serverIndex);
-                }
+                paramIdx = DeviceManagementDAOUtil.setPartitionValues(stmt, paramIdx, taskPartition);
                 stmt.setInt(paramIdx++, request.getRowCount());
                 stmt.setInt(paramIdx, request.getStartIndex());
 
@@ -2006,4 +2002,56 @@ public class GenericDeviceDAOImpl extends AbstractDeviceDAOImpl {
             throw new DeviceManagementDAOException(msg, e);
         }
     }
+
+    @Override
+    public List<DeviceMonitoringData> getDevicesForMonitoring(
+            int deviceTypeId, String deviceTypeName, TaskPartition taskPartition,
+            int lastDeviceId, int limit) throws DeviceManagementDAOException {
+        List<DeviceMonitoringData> devices = new ArrayList<>();
+
+        String sql = "SELECT D.ID AS DEVICE_ID," +
+                " D.NAME AS DEVICE_NAME, " +
+                " D.DESCRIPTION AS DESCRIPTION," +
+                " D.DEVICE_IDENTIFICATION, " +
+                " D.LAST_UPDATED_TIMESTAMP, " +
+                " D.TENANT_ID, " +
+                " E.ENROLMENT_ID, " +
+                " EN.OWNER, " +
+                " EN.OWNERSHIP, " +
+                " EN.IS_TRANSFERRED, " +
+                " EN.DATE_OF_ENROLMENT, " +
+                " EN.DATE_OF_LAST_UPDATE, " +
+                " EN.STATUS " +
+                "FROM DM_DEVICE D, DM_ENROLMENT EN," +
+                " (SELECT E1.DEVICE_ID, MAX(E1.ID) AS ENROLMENT_ID" +
+                " FROM DM_ENROLMENT E1 INNER JOIN DM_DEVICE D1 ON E1.DEVICE_ID = D1.ID" +
+                " WHERE D1.DEVICE_TYPE_ID = ? AND E1.DEVICE_ID > ? AND E1.STATUS IN ('ACTIVE', 'UNREACHABLE')" +
+                DeviceManagementDAOUtil.getPartitionCondition("MOD(E1.DEVICE_ID, ?)", "D1.PARTITION_BUCKET",
+                        taskPartition) +
+                " GROUP BY E1.DEVICE_ID ORDER BY E1.DEVICE_ID LIMIT ?) E" +
+                " WHERE D.ID = E.DEVICE_ID AND E.ENROLMENT_ID = EN.ID ORDER BY D.ID";
+
+        try {
+            Connection conn = this.getConnection();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int paramIndex = 1;
+                stmt.setInt(paramIndex++, deviceTypeId);
+                stmt.setInt(paramIndex++, lastDeviceId);
+                paramIndex = DeviceManagementDAOUtil.setPartitionValues(stmt, paramIndex, taskPartition);
+                stmt.setInt(paramIndex, limit);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        devices.add(DeviceManagementDAOUtil.loadDevice(rs, deviceTypeName));
+                    }
+                    return devices;
+                }
+            }
+        } catch (SQLException e) {
+            String msg = "Error occurred while retrieving devices for monitoring after the " +
+                    "device id " + lastDeviceId;
+            log.error(msg, e);
+            throw new DeviceManagementDAOException(msg, e);
+        }
+    }
 }
@@ -21,7 +21,10 @@ package io.entgra.device.mgt.core.device.mgt.core.dao.impl.device;
 import io.entgra.device.mgt.core.device.mgt.common.Device;
 import io.entgra.device.mgt.core.device.mgt.common.EnrolmentInfo;
 import io.entgra.device.mgt.core.device.mgt.common.PaginationRequest;
+import io.entgra.device.mgt.core.device.mgt.common.TaskPartition;
+import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceMonitoringData;
 import io.entgra.device.mgt.core.device.mgt.core.dao.DeviceManagementDAOException;
+import io.entgra.device.mgt.core.device.mgt.core.dao.util.DeviceManagementDAOUtil;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -162,4 +165,56 @@ public class OracleDeviceDAOImpl extends SQLServerDeviceDAOImpl {
             throw new DeviceManagementDAOException(msg, e);
         }
     }
+
+    @Override
+    public List<DeviceMonitoringData> getDevicesForMonitoring(
+            int deviceTypeId, String deviceTypeName, TaskPartition taskPartition,
+            int lastDeviceId, int limit) throws DeviceManagementDAOException {
+        List<DeviceMonitoringData> devices = new ArrayList<>();
+
+        String sql = "SELECT D.ID AS DEVICE_ID," +
+                " D.NAME AS DEVICE_NAME, " +
+                " D.DESCRIPTION AS DESCRIPTION," +
+                " D.DEVICE_IDENTIFICATION, " +
+                " D.LAST_UPDATED_TIMESTAMP, " +
+                " D.TENANT_ID, " +
+                " E.ENROLMENT_ID, " +
+                " EN.OWNER, " +
+                " EN.OWNERSHIP, " +
+                " EN.IS_TRANSFERRED, " +
+                " EN.DATE_OF_ENROLMENT, " +
+                " EN.DATE_OF_LAST_UPDATE, " +
+                " EN.STATUS " +
+                "FROM DM_DEVICE D, DM_ENROLMENT EN," +
+                " (SELECT E1.DEVICE_ID, MAX(E1.ID) AS ENROLMENT_ID" +
+                " FROM DM_ENROLMENT E1 INNER JOIN DM_DEVICE D1 ON E1.DEVICE_ID = D1.ID" +
+                " WHERE D1.DEVICE_TYPE_ID = ? AND E1.DEVICE_ID > ? AND E1.STATUS IN ('ACTIVE', 'UNREACHABLE')" +
+                DeviceManagementDAOUtil.getPartitionCondition("MOD(E1.DEVICE_ID, ?)", "D1.PARTITION_BUCKET",
+                        taskPartition) +
+                " GROUP BY E1.DEVICE_ID ORDER BY E1.DEVICE_ID FETCH FIRST ? ROWS ONLY) E" +
+                " WHERE D.ID = E.DEVICE_ID AND E.ENROLMENT_ID = EN.ID ORDER BY D.ID";
+
+        try {
+            Connection conn = this.getConnection();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int paramIndex = 1;
+                stmt.setInt(paramIndex++, deviceTypeId);
+                stmt.setInt(paramIndex++, lastDeviceId);
+                paramIndex = DeviceManagementDAOUtil.setPartitionValues(stmt, paramIndex, taskPartition);
+                stmt.setInt(paramIndex, limit);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        devices.add(DeviceManagementDAOUtil.loadDevice(rs, deviceTypeName));
+                    }
+                    return devices;
+                }
+            }
+        } catch (SQLException e) {
+            String msg = "SQL Error(Oracle) occurred while retrieving devices for monitoring after the " +
+                    "device id " + lastDeviceId;
+            log.error(msg, e);
+            throw new DeviceManagementDAOException(msg, e);
+        }
+    }
 }
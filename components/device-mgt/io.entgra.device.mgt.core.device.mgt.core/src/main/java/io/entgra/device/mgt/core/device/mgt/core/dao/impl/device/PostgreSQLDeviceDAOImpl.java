@@ -21,6 +21,7 @@ package io.entgra.device.mgt.core.device.mgt.core.dao.impl.device;
 import io.entgra.device.mgt.core.device.mgt.common.Count;
 import io.entgra.device.mgt.core.device.mgt.common.Device;
 import io.entgra.device.mgt.core.device.mgt.common.PaginationRequest;
+import io.entgra.device.mgt.core.device.mgt.common.TaskPartition;
 import io.entgra.device.mgt.core.device.mgt.common.EnrolmentInfo;
 import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceInfo;
 import io.entgra.device.mgt.core.device.mgt.core.dao.DeviceManagementDAOException;
@@ -333,7 +334,7 @@ public class PostgreSQLDeviceDAOImpl extends GenericDeviceDAOImpl {
 
     @Override
     public List<Device> getAllocatedDevices(PaginationRequest request, int tenantId,
-                                            int activeServerCount, int serverIndex)
+                                            TaskPartition taskPartition)
             throws DeviceManagementDAOException {
         Connection conn;
         List<Device> devices = null;
@@ -351,7 +352,6 @@ public class PostgreSQLDeviceDAOImpl extends GenericDeviceDAOImpl {
         boolean isStatusProvided = false;
         Date since = request.getSince();
         boolean isSinceProvided = false;
-        boolean isPartitionedTask = false;
 
         try {
             conn = getConnection();
@@ -405,10 +405,8 @@ public class PostgreSQLDeviceDAOImpl extends GenericDeviceDAOImpl {
                 sql += buildStatusQuery(statusList);
                 isStatusProvided = true;
             }
-            if (activeServerCount > 0){
-                sql = sql + " AND MOD(d1.ID, ?) = ?";
-                isPartitionedTask = true;
-            }
+            sql = sql + DeviceManagementDAOUtil.getPartitionCondition("MOD(d1.ID, ?)", "d1.PARTITION_BUCKET",
+                    taskPartition);
             sql = sql + " LIMIT ? OFFSET ?";
 
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -434,10 +432,7 @@ public class PostgreSQLDeviceDAOImpl extends GenericDeviceDAOImpl {
                         stmt.setString(paramIdx++, status);
                     }
                 }
-                if (isPartitionedTask) {
-                    stmt.setInt(paramIdx++, activeServerCount);
-                    stmt.setInt(paramIdx++, serverIndex);
-                }
+                paramIdx = DeviceManagementDAOUtil.setPartitionValues(stmt, paramIdx, taskPartition);
                 stmt.setInt(paramIdx++, request.getRowCount());
                 stmt.setInt(paramIdx, request.getStartIndex());
 
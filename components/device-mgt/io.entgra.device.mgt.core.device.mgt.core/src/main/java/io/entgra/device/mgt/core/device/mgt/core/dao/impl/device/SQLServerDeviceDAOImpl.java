@@ -22,7 +22,9 @@ import io.entgra.device.mgt.core.device.mgt.common.Count;
 import io.entgra.device.mgt.core.device.mgt.common.Device;
 import io.entgra.device.mgt.core.device.mgt.common.EnrolmentInfo;
 import io.entgra.device.mgt.core.device.mgt.common.PaginationRequest;
+import io.entgra.device.mgt.core.device.mgt.common.TaskPartition;
 import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceInfo;
+import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceMonitoringData;
 import io.entgra.device.mgt.core.device.mgt.core.dao.DeviceManagementDAOException;
 import io.entgra.device.mgt.core.device.mgt.core.dao.util.DeviceManagementDAOUtil;
 import io.entgra.device.mgt.core.device.mgt.core.report.mgt.Constants;
@@ -346,7 +348,7 @@ public class SQLServerDeviceDAOImpl extends GenericDeviceDAOImpl {
 
     @Override
     public List<Device> getAllocatedDevices(PaginationRequest request, int tenantId,
-                                            int activeServerCount, int serverIndex)
+                                            TaskPartition taskPartition)
             throws DeviceManagementDAOException {
         Connection conn;
         List<Device> devices = null;
@@ -364,7 +366,6 @@ public class SQLServerDeviceDAOImpl extends GenericDeviceDAOImpl {
         boolean isStatusProvided = false;
         Date since = request.getSince();
         boolean isSinceProvided = false;
-        boolean isPartitionedTask = false;
 
         try {
             conn = getConnection();
@@ -425,10 +426,7 @@ public class SQLServerDeviceDAOImpl extends GenericDeviceDAOImpl {
                 sql += buildStatusQuery(statusList);
                 isStatusProvided = true;
             }
-            if (activeServerCount > 0){
-                sql = sql + " AND d1.ID % ? = ?";
-                isPartitionedTask = true;
-            }
+            sql = sql + DeviceManagementDAOUtil.getPartitionCondition("d1.ID % ?", "d1.PARTITION_BUCKET", taskPartition);
             sql = sql + " ORDER BY ENROLMENT_ID OFFSET ? ROWS FETCH NEXT ? ROWS ONLY";
 
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -457,10 +455,7 @@ public class SQLServerDeviceDAOImpl extends GenericDeviceDAOImpl {
                         stmt.setString(paramIdx++, status);
                     }
                 }
-                if (isPartitionedTask) {
-                    stmt.setInt(paramIdx++, activeServerCount);
-                    stmt.setInt(paramIdx++, serverIndex);
-                }
+                paramIdx = DeviceManagementDAOUtil.setPartitionValues(stmt, paramIdx, taskPartition);
                 stmt.setInt(paramIdx++, request.getStartIndex());
                 stmt.setInt(paramIdx, request.getRowCount());
 
@@ -1540,4 +1535,56 @@ public class SQLServerDeviceDAOImpl extends GenericDeviceDAOImpl {
             throw new DeviceManagementDAOException(msg, e);
         }
     }
+
+    @Override
+    public List<DeviceMonitoringData> getDevicesForMonitoring(
+            int deviceTypeId, String deviceTypeName, TaskPartition taskPartition,
+            int lastDeviceId, int limit) throws DeviceManagementDAOException {
+        List<DeviceMonitoringData> devices = new ArrayList<>();
+
+        String sql = "SELECT D.ID AS DEVICE_ID," +
+                " D.NAME AS DEVICE_NAME, " +
+                " D.DESCRIPTION AS DESCRIPTION," +
+                " D.DEVICE_IDENTIFICATION, " +
+                " D.LAST_UPDATED_TIMESTAMP, " +
+                " D.TENANT_ID, " +
+                " E.ENROLMENT_ID, " +
+                " EN.OWNER, " +
+                " EN.OWNERSHIP, " +
+                " EN.IS_TRANSFERRED, " +
+                " EN.DATE_OF_ENROLMENT, " +
+                " EN.DATE_OF_LAST_UPDATE, " +
+                " EN.STATUS " +
+                "FROM DM_DEVICE D, DM_ENROLMENT EN," +
+                " (SELECT TOP (?) E1.DEVICE_ID, MAX(E1.ID) AS ENROLMENT_ID" +
+                " FROM DM_ENROLMENT E1 INNER JOIN DM_DEVICE D1 ON E1.DEVICE_ID = D1.ID" +
+                " WHERE D1.DEVICE_TYPE_ID = ? AND E1.DEVICE_ID > ? AND E1.STATUS IN ('ACTIVE', 'UNREACHABLE')" +
+                DeviceManagementDAOUtil.getPartitionCondition("E1.DEVICE_ID % ?", "D1.PARTITION_BUCKET",
+                        taskPartition) +
+                " GROUP BY E1.DEVICE_ID ORDER BY E1.DEVICE_ID) E" +
+                " WHERE D.ID = E.DEVICE_ID AND E.ENROLMENT_ID = EN.ID ORDER BY D.ID";
+
+        try {
+            Connection conn = this.getConnection();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                int paramIndex = 1;
+                stmt.setInt(paramIndex++, limit);
+                stmt.setInt(paramIndex++, deviceTypeId);
+                stmt.setInt(paramIndex++, lastDeviceId);
+                DeviceManagementDAOUtil.setPartitionValues(stmt, paramIndex, taskPartition);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        devices.add(DeviceManagementDAOUtil.loadDevice(rs, deviceTypeName));
+                    }
+                    return devices;
+                }
+            }
+        } catch (SQLException e) {
+            String msg = "SQL Error(Ms SQL) occurred while retrieving devices for monitoring after the " +
+                    "device id " + lastDeviceId;
+            log.error(msg, e);
+            throw new DeviceManagementDAOException(msg, e);
+        }
+    }
 }
@@ -20,6 +20,7 @@ package io.entgra.device.mgt.core.device.mgt.core.dao.util;
 import io.entgra.device.mgt.core.device.mgt.common.Device;
 import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
 import io.entgra.device.mgt.core.device.mgt.common.EnrolmentInfo;
+import io.entgra.device.mgt.core.device.mgt.common.TaskPartition;
 import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceInfo;
 import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceLocationHistorySnapshot;
 import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceMonitoringData;
@@ -374,4 +375,68 @@ public final class DeviceManagementDAOUtil {
                 .toLocalDateTime();
         return Timestamp.valueOf(l).getTime() / 1000;
     }
+
+    /**
+     * Builds the SQL condition restricting a query to the devices owned by the given task partition. Partitions over
+     * the fixed {@link TaskPartition#BUCKET_COUNT} buckets are matched against the stored and indexed
+     * {@code DM_DEVICE.PARTITION_BUCKET} column, so that each owned range is an index range scan. Other partitions
+     * are matched against the modulo of the id.
+     *
+     * @param slotExpression dialect specific modulo expression with a placeholder for the modulus,
+     *                       e.g. {@code MOD(d1.ID, ?)} or {@code d1.ID % ?}
+     * @param bucketColumn   partition bucket column of the same device, e.g. {@code d1.PARTITION_BUCKET}
+     * @param taskPartition  partition owned by the current node, {@code null} when the task is not partitioned
+     * @return condition starting with {@code AND}, or an empty string when there is no partition
+     */
+    public static String getPartitionCondition(String slotExpression, String bucketColumn,
+                                               TaskPartition taskPartition) {
+        if (taskPartition == null) {
+            return "";
+        }
+        if (taskPartition.isEmpty()) {
+            return " AND 1 = 0";
+        }
+        String expression = isBucketPartition(taskPartition) ? bucketColumn : slotExpression;
+        StringBuilder condition = new StringBuilder(" AND (");
+        for (int i = 0; i < taskPartition.getRangeCount(); i++) {
+            if (i > 0) {
+                condition.append(" OR ");
+            }
+            condition.append(expression);
+            if (taskPartition.getRangeStart(i) == taskPartition.getRangeEnd(i)) {
+                condition.append(" = ?");
+            } else {
+                condition.append(" BETWEEN ? AND ?");
+            }
+        }
+        return condition.append(")").toString();
+    }
+
+    /**
+     * Binds the parameters of the condition built by
+     * {@link #getPartitionCondition(String, String, TaskPartition)}.
+     *
+     * @return index of the next parameter to be bound
+     */
+    public static int setPartitionValues(PreparedStatement stmt, int paramIdx, TaskPartition taskPartition)
+            throws SQLException {
+        if (taskPartition == null) {
+            return paramIdx;
+        }
+        boolean isBucketPartition = isBucketPartition(taskPartition);
+        for (int i = 0; i < taskPartition.getRangeCount(); i++) {
+            if (!isBucketPartition) {
+                stmt.setInt(paramIdx++, taskPartition.getModulus());
+            }
+            stmt.setInt(paramIdx++, taskPartition.getRangeStart(i));
+            if (taskPartition.getRangeStart(i) != taskPartition.getRangeEnd(i)) {
+                stmt.setInt(paramIdx++, taskPartition.getRangeEnd(i));
+            }
+        }
+        return paramIdx;
+    }
+
+    private static boolean isBucketPartition(TaskPartition taskPartition) {
+        return taskPartition.getModulus() == TaskPartition.BUCKET_COUNT;
+    }
 }
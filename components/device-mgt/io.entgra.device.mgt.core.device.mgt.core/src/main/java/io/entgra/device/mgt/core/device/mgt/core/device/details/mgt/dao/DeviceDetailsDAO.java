@@ -139,4 +139,38 @@ public interface DeviceDetailsDAO {
     void updateDeviceInformation(int deviceId, int enrollmentId, DeviceInfo newDeviceInfo) throws DeviceDetailsMgtDAOException;
 
     void updateDeviceLocation(DeviceLocation deviceLocation, int enrollmentId) throws DeviceDetailsMgtDAOException;
+
+    /**
+     * Update the current locations of a set of devices in a single batch
+     * @param deviceLocations Device locations keyed by the enrollment id of the device
+     * @return Enrollment ids of the devices which do not have a location yet, hence were not updated
+     * @throws DeviceDetailsMgtDAOException
+     */
+    List<Integer> updateDeviceLocations(Map<Integer, DeviceLocation> deviceLocations)
+            throws DeviceDetailsMgtDAOException;
+
+    /**
+     * Add the current locations of a set of devices in a single batch
+     * @param deviceLocations Device locations keyed by the enrollment id of the device
+     * @throws DeviceDetailsMgtDAOException
+     */
+    void addDeviceLocations(Map<Integer, DeviceLocation> deviceLocations) throws DeviceDetailsMgtDAOException;
+
+    /**
+     * Add location information of several devices to the database in a single batch
+     * @param devices Devices which reported the locations, aligned with the locations
+     * @param deviceLocations Device Location Objects
+     * @param tenantId Tenant Id
+     * @throws DeviceDetailsMgtDAOException
+     */
+    void addLocationsInfoOfDevices(List<Device> devices, List<DeviceLocation> deviceLocations, int tenantId)
+            throws DeviceDetailsMgtDAOException;
+
+    /**
+     * Get the current locations of the devices of a tenant which are not removed
+     * @param tenantId Tenant Id
+     * @return Device locations, carrying the device id and the identifier of the device
+     * @throws DeviceDetailsMgtDAOException
+     */
+    List<DeviceLocation> getDeviceLocationsOfTenant(int tenantId) throws DeviceDetailsMgtDAOException;
 }
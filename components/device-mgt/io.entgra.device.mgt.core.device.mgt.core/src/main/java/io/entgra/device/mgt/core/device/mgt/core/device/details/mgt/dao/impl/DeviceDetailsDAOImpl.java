@@ -20,6 +20,7 @@
 package io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.dao.impl;
 
 import io.entgra.device.mgt.core.device.mgt.common.Device;
+import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
 import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceInfo;
 import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceLocation;
 import io.entgra.device.mgt.core.device.mgt.core.dao.DeviceManagementDAOFactory;
@@ -35,6 +36,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -501,6 +504,146 @@ public class DeviceDetailsDAOImpl implements DeviceDetailsDAO {
         }
     }
 
+    @Override
+    public List<Integer> updateDeviceLocations(Map<Integer, DeviceLocation> deviceLocations)
+            throws DeviceDetailsMgtDAOException {
+        List<Integer> missingEnrollmentIds = new ArrayList<>();
+        String sql = "UPDATE DM_DEVICE_LOCATION SET LATITUDE = ?, LONGITUDE = ?, " +
+                "STREET1 = ?, STREET2 = ?, CITY = ?, ZIP = ?, STATE = ?, COUNTRY = ?, GEO_HASH = ?, " +
+                "UPDATE_TIMESTAMP = ? WHERE DEVICE_ID = ? AND ENROLMENT_ID = ?";
+        try {
+            Connection conn = this.getConnection();
+            List<Integer> enrollmentIds = new ArrayList<>(deviceLocations.keySet());
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                long updatedTime = DeviceManagementDAOUtil.getCurrentUTCTime() * 1000L;
+                for (Integer enrollmentId : enrollmentIds) {
+                    DeviceLocation deviceLocation = deviceLocations.get(enrollmentId);
+                    discardLongZip(deviceLocation, enrollmentId);
+                    stmt.setDouble(1, deviceLocation.getLatitude());
+                    stmt.setDouble(2, deviceLocation.getLongitude());
+                    stmt.setString(3, deviceLocation.getStreet1());
+                    stmt.setString(4, deviceLocation.getStreet2());
+                    stmt.setString(5, deviceLocation.getCity());
+                    stmt.setString(6, deviceLocation.getZip());
+                    stmt.setString(7, deviceLocation.getState());
+                    stmt.setString(8, deviceLocation.getCountry());
+                    stmt.setString(9, GeoHashGenerator.encodeGeohash(deviceLocation));
+                    stmt.setLong(10, updatedTime);
+                    stmt.setInt(11, deviceLocation.getDeviceId());
+                    stmt.setInt(12, enrollmentId);
+                    stmt.addBatch();
+                }
+                int[] updatedCounts = stmt.executeBatch();
+                for (int i = 0; i < updatedCounts.length; i++) {
+                    int enrollmentId = enrollmentIds.get(i);
+                    if (updatedCounts[i] == 0 || (updatedCounts[i] == Statement.SUCCESS_NO_INFO
+                            && !hasLocations(deviceLocations.get(enrollmentId).getDeviceId(), enrollmentId))) {
+                        missingEnrollmentIds.add(enrollmentId);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DeviceDetailsMgtDAOException("Error occurred while updating the locations of "
+                    + deviceLocations.size() + " devices.", e);
+        }
+        return missingEnrollmentIds;
+    }
+
+    @Override
+    public void addDeviceLocations(Map<Integer, DeviceLocation> deviceLocations)
+            throws DeviceDetailsMgtDAOException {
+        String sql = "INSERT INTO DM_DEVICE_LOCATION (DEVICE_ID, LATITUDE, LONGITUDE, STREET1, " +
+                "STREET2, CITY, ZIP, STATE, COUNTRY, GEO_HASH, UPDATE_TIMESTAMP, ENROLMENT_ID, ALTITUDE, SPEED, BEARING, " +
+                "DISTANCE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try {
+            Connection conn = this.getConnection();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (Map.Entry<Integer, DeviceLocation> entry : deviceLocations.entrySet()) {
+                    DeviceLocation deviceLocation = entry.getValue();
+                    discardLongZip(deviceLocation, entry.getKey());
+                    stmt.setInt(1, deviceLocation.getDeviceId());
+                    stmt.setDouble(2, deviceLocation.getLatitude());
+                    stmt.setDouble(3, deviceLocation.getLongitude());
+                    stmt.setString(4, deviceLocation.getStreet1());
+                    stmt.setString(5, deviceLocation.getStreet2());
+                    stmt.setString(6, deviceLocation.getCity());
+                    stmt.setString(7, deviceLocation.getZip());
+                    stmt.setString(8, deviceLocation.getState());
+                    stmt.setString(9, deviceLocation.getCountry());
+                    stmt.setString(10, GeoHashGenerator.encodeGeohash(deviceLocation));
+                    if (deviceLocation.getUpdatedTime() == null) {
+                        stmt.setLong(11, DeviceManagementDAOUtil.getCurrentUTCTime() * 1000L);
+                    } else {
+                        stmt.setLong(11, DeviceManagementDAOUtil.convertLocalTimeIntoUTC(
+                                deviceLocation.getUpdatedTime()) * 1000L);
+                    }
+                    stmt.setInt(12, entry.getKey());
+                    stmt.setDouble(13, deviceLocation.getAltitude());
+                    stmt.setFloat(14, deviceLocation.getSpeed());
+                    stmt.setFloat(15, deviceLocation.getBearing());
+                    stmt.setDouble(16, deviceLocation.getDistance());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new DeviceDetailsMgtDAOException("Error occurred while adding the locations of "
+                    + deviceLocations.size() + " devices to database.", e);
+        }
+    }
+
+    @Override
+    public void addLocationsInfoOfDevices(List<Device> devices, List<DeviceLocation> deviceLocations, int tenantId)
+            throws DeviceDetailsMgtDAOException {
+        String sql = "INSERT INTO " +
+                "DM_DEVICE_HISTORY_LAST_SEVEN_DAYS " +
+                "(DEVICE_ID, DEVICE_ID_NAME, TENANT_ID, DEVICE_TYPE_NAME, LATITUDE, LONGITUDE, SPEED, HEADING, " +
+                "TIMESTAMP, GEO_HASH, DEVICE_OWNER, DEVICE_ALTITUDE, DISTANCE) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try {
+            Connection conn = this.getConnection();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < devices.size(); i++) {
+                    Device device = devices.get(i);
+                    DeviceLocation location = deviceLocations.get(i);
+                    stmt.setInt(1, device.getId());
+                    stmt.setString(2, device.getDeviceIdentifier());
+                    stmt.setInt(3, tenantId);
+                    stmt.setString(4, device.getType());
+                    stmt.setDouble(5, location.getLatitude());
+                    stmt.setDouble(6, location.getLongitude());
+                    stmt.setFloat(7, location.getSpeed());
+                    stmt.setFloat(8, location.getBearing());
+                    if (location.getUpdatedTime() == null) {
+                        stmt.setLong(9, System.currentTimeMillis());
+                    } else {
+                        stmt.setLong(9, location.getUpdatedTime().getTime());
+                    }
+                    stmt.setString(10, GeoHashGenerator.encodeGeohash(location));
+                    stmt.setString(11, device.getEnrolmentInfo().getOwner());
+                    stmt.setDouble(12, location.getAltitude());
+                    stmt.setDouble(13, location.getDistance());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        } catch (SQLException e) {
+            String errMessage = "Error occurred while adding the location information of " + devices.size() +
+                    " devices to database.";
+            log.error(errMessage);
+            throw new DeviceDetailsMgtDAOException(errMessage, e);
+        }
+    }
+
+    private void discardLongZip(DeviceLocation deviceLocation, int enrollmentId) {
+        if (StringUtils.isNotBlank(deviceLocation.getZip())
+                && deviceLocation.getZip().length() > 10) {
+            log.error("Discarding unusually long zip " + deviceLocation.getZip() + ", deviceId:"
+                    + deviceLocation.getDeviceId() + ", enrollmentId:" + enrollmentId);
+            deviceLocation.setZip(null);
+        }
+    }
+
     @Override
     public void updateDeviceInformation(int deviceId, int enrollmentId, DeviceInfo newDeviceInfo) throws DeviceDetailsMgtDAOException {
         Connection conn;
@@ -545,5 +688,33 @@ public class DeviceDetailsDAOImpl implements DeviceDetailsDAO {
     private Connection getConnection() throws SQLException {
         return DeviceManagementDAOFactory.getConnection();
     }
-}
 
+    @Override
+    public List<DeviceLocation> getDeviceLocationsOfTenant(int tenantId) throws DeviceDetailsMgtDAOException {
+        List<DeviceLocation> deviceLocations = new ArrayList<>();
+        String sql = "SELECT l.DEVICE_ID, l.LATITUDE, l.LONGITUDE, e.DEVICE_TYPE, e.DEVICE_IDENTIFICATION " +
+                "FROM DM_DEVICE_LOCATION l, DM_ENROLMENT e " +
+                "WHERE l.ENROLMENT_ID = e.ID AND e.TENANT_ID = ? AND e.STATUS != 'REMOVED'";
+        try {
+            Connection conn = this.getConnection();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, tenantId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        DeviceLocation location = new DeviceLocation();
+                        location.setDeviceId(rs.getInt("DEVICE_ID"));
+                        location.setLatitude(rs.getDouble("LATITUDE"));
+                        location.setLongitude(rs.getDouble("LONGITUDE"));
+                        location.setDeviceIdentifier(new DeviceIdentifier(rs.getString("DEVICE_IDENTIFICATION"),
+                                rs.getString("DEVICE_TYPE")));
+                        deviceLocations.add(location);
+                    }
+                }
+            }
+            return deviceLocations;
+        } catch (SQLException e) {
+            throw new DeviceDetailsMgtDAOException("Error occurred while fetching the locations of the devices of " +
+                    "tenant " + tenantId, e);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.impl;
+
+import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceInfo;
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceConfigurationManager;
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceManagementConfig;
+import io.entgra.device.mgt.core.device.mgt.core.config.cache.DeviceInfoCacheConfiguration;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size bounded, node local cache of what has last been written as the device information of each enrolment.
+ * <p>
+ * Instead of the property values, only a 64-bit hash of each value is kept, which is enough to tell the properties a
+ * device information report changes without reading the previous properties from the database. The columns of the
+ * device detail row are kept as they are, since a report leaves out the values which have not changed since the
+ * previous one and those have to be filled from the previous state.
+ * <p>
+ * A change written by another node is not seen by this node until the entry expires, hence the time to live bounds
+ * how long an unchanged report may be skipped over such a change.
+ */
+public class DeviceInfoFingerprintCache {
+
+    private static volatile DeviceInfoFingerprintCache instance;
+    private static volatile boolean initialized;
+
+    private final int capacity;
+    private final long expiryTime;
+    private final Map<Integer, Fingerprint> entries;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param capacity   maximum number of enrolments to keep, the least recently used one is evicted beyond that
+     * @param expiryTime time to live of an entry in milliseconds
+     */
+    DeviceInfoFingerprintCache(int capacity, long expiryTime) {
+        this.capacity = capacity;
+        this.expiryTime = expiryTime;
+        this.entries = new LinkedHashMap<Integer, Fingerprint>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Fingerprint> eldest) {
+                if (size() > DeviceInfoFingerprintCache.this.capacity) {
+                    evictionCount.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return the cache, or null if device information is to be read before every write
+     */
+    public static DeviceInfoFingerprintCache getInstance() {
+        if (!initialized) {
+            synchronized (DeviceInfoFingerprintCache.class) {
+                if (!initialized) {
+                    DeviceManagementConfig config = DeviceConfigurationManager.getInstance()
+                            .getDeviceManagementConfig();
+                    if (config != null && config.getDeviceInfoCacheConfiguration() != null
+                            && config.getDeviceInfoCacheConfiguration().isEnabled()) {
+                        DeviceInfoCacheConfiguration cacheConfig = config.getDeviceInfoCacheConfiguration();
+                        instance = new DeviceInfoFingerprintCache(Math.max(cacheConfig.getCapacity(), 1),
+                                Math.max(cacheConfig.getExpiryTime(), 1) * 1000L);
+                    }
+                    initialized = true;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @param enrolmentId id of the enrolment
+     * @param deviceId    id of the device of the enrolment
+     * @return fingerprint of the last written device information, or null if it is not cached or has expired
+     */
+    Fingerprint get(int enrolmentId, int deviceId) {
+        Fingerprint fingerprint;
+        synchronized (entries) {
+            fingerprint = entries.get(enrolmentId);
+            if (fingerprint != null && (fingerprint.deviceId != deviceId
+                    || fingerprint.expiryTime < System.currentTimeMillis())) {
+                entries.remove(enrolmentId);
+                evictionCount.increment();
+                fingerprint = null;
+            }
+        }
+        if (fingerprint == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Replaces the fingerprint of an enrolment after its device information has been written. If another write has
+     * replaced the expected fingerprint in the meantime, the order of the two writes is unknown, hence the entry is
+     * dropped instead.
+     *
+     * @param enrolmentId id of the enrolment
+     * @param expected    fingerprint the write was based on, or null if it was based on the database
+     * @param updated     fingerprint of the written device information
+     */
+    void replace(int enrolmentId, Fingerprint expected, Fingerprint updated) {
+        synchronized (entries) {
+            Fingerprint current = entries.get(enrolmentId);
+            if (current == expected || (expected == null && current == null)) {
+                entries.put(enrolmentId, updated);
+            } else {
+                entries.remove(enrolmentId);
+            }
+        }
+    }
+
+    /**
+     * Drops the fingerprint of an enrolment whose device information has been changed or removed elsewhere.
+     *
+     * @param enrolmentId id of the enrolment
+     */
+    public void invalidate(int enrolmentId) {
+        synchronized (entries) {
+            entries.remove(enrolmentId);
+        }
+    }
+
+    /**
+     * @param deviceId   id of the device
+     * @param deviceInfo written device information
+     * @param properties written properties of the device
+     * @return a fingerprint which expires after the time to live of the cache
+     */
+    Fingerprint createFingerprint(int deviceId, DeviceInfo deviceInfo, Map<String, String> properties) {
+        String[] keys = properties.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        long[] valueHashes = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            valueHashes[i] = hash(properties.get(keys[i]));
+        }
+        return new Fingerprint(deviceId, copyOf(deviceInfo), keys, valueHashes,
+                System.currentTimeMillis() + expiryTime);
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "size=" + size() + ", hits=" + getHitCount() + ", misses=" + getMissCount() + ", evictions="
+                + getEvictionCount();
+    }
+
+    /**
+     * FNV-1a hash of a property value. 0 is reserved for null, which the previous value of a property is never
+     * updated from.
+     */
+    static long hash(String value) {
+        if (value == null) {
+            return 0;
+        }
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * Copies the device information the same way it is read back from the device detail row.
+     */
+    private static DeviceInfo copyOf(DeviceInfo deviceInfo) {
+        DeviceInfo copy = new DeviceInfo();
+        copy.setDeviceModel(deviceInfo.getDeviceModel());
+        copy.setVendor(deviceInfo.getVendor());
+        copy.setOsVersion(deviceInfo.getOsVersion());
+        copy.setOsBuildDate(deviceInfo.getOsBuildDate());
+        copy.setBatteryLevel(deviceInfo.getBatteryLevel());
+        copy.setInternalTotalMemory(deviceInfo.getInternalTotalMemory());
+        copy.setInternalAvailableMemory(deviceInfo.getInternalAvailableMemory());
+        copy.setExternalTotalMemory(deviceInfo.getExternalTotalMemory());
+        copy.setExternalAvailableMemory(deviceInfo.getExternalAvailableMemory());
+        copy.setConnectionType(deviceInfo.getConnectionType());
+        copy.setSsid(deviceInfo.getSsid());
+        copy.setCpuUsage(deviceInfo.getCpuUsage());
+        copy.setTotalRAMMemory(deviceInfo.getTotalRAMMemory());
+        copy.setAvailableRAMMemory(deviceInfo.getAvailableRAMMemory());
+        copy.setPluggedIn(deviceInfo.isPluggedIn());
+        return copy;
+    }
+
+    /**
+     * Immutable fingerprint of the device information of an enrolment.
+     */
+    static class Fingerprint {
+
+        private final int deviceId;
+        private final DeviceInfo deviceInfo;
+        private final String[] keys;
+        private final long[] valueHashes;
+        private final long expiryTime;
+
+        private Fingerprint(int deviceId, DeviceInfo deviceInfo, String[] keys, long[] valueHashes,
+                            long expiryTime) {
+            this.deviceId = deviceId;
+            this.deviceInfo = deviceInfo;
+            this.keys = keys;
+            this.valueHashes = valueHashes;
+            this.expiryTime = expiryTime;
+        }
+
+        /**
+         * @return a copy of the written device detail row, without properties
+         */
+        DeviceInfo getDeviceInfo() {
+            DeviceInfo copy = copyOf(deviceInfo);
+            copy.setDeviceDetailsMap(new HashMap<>());
+            return copy;
+        }
+
+        boolean containsKey(String key) {
+            return Arrays.binarySearch(keys, key) >= 0;
+        }
+
+        boolean containsKeys(Collection<String> propertyKeys) {
+            for (String key : propertyKeys) {
+                if (!containsKey(key)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @param properties reported properties, all of which are known to the fingerprint
+         * @return the reported properties whose values differ from the written ones
+         */
+        Map<String, String> getChangedProperties(Map<String, String> properties) {
+            Map<String, String> changedProperties = new HashMap<>();
+            for (Map.Entry<String, String> property : properties.entrySet()) {
+                int index = Arrays.binarySearch(keys, property.getKey());
+                if (valueHashes[index] != 0 && valueHashes[index] != hash(property.getValue())) {
+                    changedProperties.put(property.getKey(), property.getValue());
+                }
+            }
+            return changedProperties;
+        }
+
+        /**
+         * Applies a write to the fingerprint. The fingerprint keeps its expiry time, so that the properties of a
+         * device which reports often are still read from the database once in a while.
+         *
+         * @param deviceInfo        written device information
+         * @param changedProperties written properties
+         * @return a fingerprint with the written values
+         */
+        Fingerprint update(DeviceInfo deviceInfo, Map<String, String> changedProperties) {
+            long[] updatedHashes = valueHashes;
+            if (!changedProperties.isEmpty()) {
+                updatedHashes = valueHashes.clone();
+                for (Map.Entry<String, String> property : changedProperties.entrySet()) {
+                    updatedHashes[Arrays.binarySearch(keys, property.getKey())] = hash(property.getValue());
+                }
+            }
+            return new Fingerprint(deviceId, copyOf(deviceInfo), keys, updatedHashes, expiryTime);
+        }
+    }
+}
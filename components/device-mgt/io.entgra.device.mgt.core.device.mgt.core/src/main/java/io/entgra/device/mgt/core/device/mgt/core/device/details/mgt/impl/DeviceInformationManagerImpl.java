@@ -19,6 +19,8 @@
 package io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.impl;
 
 import io.entgra.device.mgt.core.device.mgt.core.permission.mgt.PermissionManagerServiceImpl;
+import io.entgra.device.mgt.core.device.mgt.core.report.mgt.ReportingEventEnricher;
+import io.entgra.device.mgt.core.device.mgt.core.report.mgt.ReportingEventPublisher;
 import io.entgra.device.mgt.core.device.mgt.core.report.mgt.ReportingPublisherManager;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
@@ -32,7 +34,6 @@ import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceInfo;
 import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceLocation;
 import io.entgra.device.mgt.core.device.mgt.common.exceptions.DeviceManagementException;
 import io.entgra.device.mgt.core.device.mgt.common.exceptions.TransactionManagementException;
-import io.entgra.device.mgt.core.device.mgt.common.group.mgt.DeviceGroup;
 import io.entgra.device.mgt.core.device.mgt.common.group.mgt.GroupManagementException;
 import io.entgra.device.mgt.core.device.mgt.core.DeviceManagementConstants;
 import io.entgra.device.mgt.core.device.mgt.core.dao.DeviceDAO;
@@ -42,9 +43,11 @@ import io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.DeviceDetail
 import io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.DeviceInformationManager;
 import io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.dao.DeviceDetailsDAO;
 import io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.dao.DeviceDetailsMgtDAOException;
+import io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.ingestion.LocationIngestionPipeline;
+import io.entgra.device.mgt.core.device.mgt.core.geo.cluster.GeoClusterIndex;
+import io.entgra.device.mgt.core.device.mgt.core.geo.fence.GeofenceEvaluator;
 import io.entgra.device.mgt.core.device.mgt.core.internal.DeviceManagementDataHolder;
 import io.entgra.device.mgt.core.device.mgt.core.report.mgt.Constants;
-import io.entgra.device.mgt.core.device.mgt.core.service.GroupManagementProviderService;
 import io.entgra.device.mgt.core.device.mgt.core.util.DeviceManagerUtil;
 import io.entgra.device.mgt.core.device.mgt.core.util.HttpReportingUtil;
 import org.wso2.carbon.user.api.UserStoreException;
@@ -85,50 +88,25 @@ public class DeviceInformationManagerImpl implements DeviceInformationManager {
 
     @Override
     public void addDeviceInfo(Device device, DeviceInfo deviceInfo) throws DeviceDetailsMgtException {
+        DeviceInfoFingerprintCache fingerprintCache = DeviceInfoFingerprintCache.getInstance();
+        DeviceInfoFingerprintCache.Fingerprint cachedFingerprint = null;
+        boolean committed = false;
         try {
 
             DeviceDetailsWrapper deviceDetailsWrapper = new DeviceDetailsWrapper();
             deviceDetailsWrapper.setDeviceInfo(deviceInfo);
             //Asynchronous call to publish the device information to the reporting service. Hence, response is ignored.
-            publishEvents(device, deviceDetailsWrapper, DeviceManagementConstants.Report.DEVICE_INFO_PARAM);
+            submitEvents(device, deviceDetailsWrapper, DeviceManagementConstants.Report.DEVICE_INFO_PARAM);
 
+            if (fingerprintCache != null) {
+                cachedFingerprint = fingerprintCache.get(device.getEnrolmentInfo().getId(), device.getId());
+            }
             DeviceManagementDAOFactory.beginTransaction();
-            DeviceInfo newDeviceInfo;
-            DeviceInfo previousDeviceInfo = deviceDetailsDAO.getDeviceInformation(device.getId(),
-                    device.getEnrolmentInfo().getId());
-            Map<String, String> previousDeviceProperties = deviceDetailsDAO.getDeviceProperties(device.getId(),
-                    device.getEnrolmentInfo().getId());
-            if (previousDeviceInfo != null) {
-                previousDeviceInfo.setDeviceDetailsMap(new HashMap<>());
-                newDeviceInfo = processDeviceInfo(previousDeviceInfo, deviceInfo);
-                deviceDetailsDAO.updateDeviceInformation(device.getId(), device.getEnrolmentInfo().getId(),
-                        newDeviceInfo);
+            DeviceInfoFingerprintCache.Fingerprint writtenFingerprint;
+            if (cachedFingerprint != null && isKnownTo(cachedFingerprint, device, deviceInfo)) {
+                writtenFingerprint = updateChangedDeviceInfo(device, deviceInfo, cachedFingerprint);
             } else {
-                deviceDetailsDAO.addDeviceInformation(device.getId(), device.getEnrolmentInfo().getId(), deviceInfo);
-                newDeviceInfo = deviceInfo;
-            }
-            if (previousDeviceProperties.isEmpty()) {
-                deviceDetailsDAO.addDeviceProperties(newDeviceInfo.getDeviceDetailsMap(), device.getId(),
-                        device.getEnrolmentInfo().getId());
-            } else {
-                Map<String, String> updatableProps = new HashMap<>();
-                Map<String, String> injectableProps = new HashMap<>();
-                // generate a default value depending on the devices OS version
-                addOSVersionValue(device, newDeviceInfo);
-                for (String key : newDeviceInfo.getDeviceDetailsMap().keySet()) {
-                    if (previousDeviceProperties.containsKey(key)) {
-                        String val = previousDeviceProperties.get(key);
-                        if (val != null &&!val.equals(newDeviceInfo.getDeviceDetailsMap().get(key))) {
-                            updatableProps.put(key, newDeviceInfo.getDeviceDetailsMap().get(key));
-                        }
-                    } else {
-                        injectableProps.put(key, newDeviceInfo.getDeviceDetailsMap().get(key));
-                    }
-                }
-                deviceDetailsDAO.updateDeviceProperties(updatableProps, device.getId(),
-                        device.getEnrolmentInfo().getId());
-                deviceDetailsDAO.addDeviceProperties(injectableProps, device.getId(),
-                        device.getEnrolmentInfo().getId());
+                writtenFingerprint = writeDeviceInfo(device, deviceInfo, fingerprintCache);
             }
 
             if (deviceInfo.getDeviceDetailsMap().containsKey(DeviceManagementConstants
@@ -149,6 +127,10 @@ public class DeviceInformationManagerImpl implements DeviceInformationManager {
                         CarbonContext.getThreadLocalCarbonContext().getTenantId());
             }
             DeviceManagementDAOFactory.commitTransaction();
+            committed = true;
+            if (fingerprintCache != null) {
+                fingerprintCache.replace(device.getEnrolmentInfo().getId(), cachedFingerprint, writtenFingerprint);
+            }
 
             //TODO :: This has to be fixed by adding the enrollment ID.
             if (DeviceManagerUtil.isPublishDeviceInfoResponseEnabled()) {
@@ -196,10 +178,100 @@ public class DeviceInformationManagerImpl implements DeviceInformationManager {
 //        } catch (DataPublisherConfigurationException e) {
 //            throw new DeviceDetailsMgtException("Error occurred while publishing the device location information.", e);
         } finally {
+            if (fingerprintCache != null && !committed) {
+                fingerprintCache.invalidate(device.getEnrolmentInfo().getId());
+            }
             DeviceManagementDAOFactory.closeConnection();
         }
     }
 
+    /**
+     * Writes a device information report after reading the previous device information and properties.
+     *
+     * @return fingerprint of the written device information, or null if fingerprints are not cached
+     */
+    private DeviceInfoFingerprintCache.Fingerprint writeDeviceInfo(Device device, DeviceInfo deviceInfo,
+                                                                   DeviceInfoFingerprintCache fingerprintCache)
+            throws DeviceDetailsMgtDAOException {
+        DeviceInfo newDeviceInfo;
+        DeviceInfo previousDeviceInfo = deviceDetailsDAO.getDeviceInformation(device.getId(),
+                device.getEnrolmentInfo().getId());
+        Map<String, String> previousDeviceProperties = deviceDetailsDAO.getDeviceProperties(device.getId(),
+                device.getEnrolmentInfo().getId());
+        if (previousDeviceInfo != null) {
+            previousDeviceInfo.setDeviceDetailsMap(new HashMap<>());
+            newDeviceInfo = processDeviceInfo(previousDeviceInfo, deviceInfo);
+            deviceDetailsDAO.updateDeviceInformation(device.getId(), device.getEnrolmentInfo().getId(),
+                    newDeviceInfo);
+        } else {
+            deviceDetailsDAO.addDeviceInformation(device.getId(), device.getEnrolmentInfo().getId(), deviceInfo);
+            newDeviceInfo = deviceInfo;
+        }
+        Map<String, String> writtenProperties;
+        if (previousDeviceProperties.isEmpty()) {
+            deviceDetailsDAO.addDeviceProperties(newDeviceInfo.getDeviceDetailsMap(), device.getId(),
+                    device.getEnrolmentInfo().getId());
+            writtenProperties = newDeviceInfo.getDeviceDetailsMap();
+        } else {
+            Map<String, String> updatableProps = new HashMap<>();
+            Map<String, String> injectableProps = new HashMap<>();
+            // generate a default value depending on the devices OS version
+            addOSVersionValue(device, newDeviceInfo);
+            for (String key : newDeviceInfo.getDeviceDetailsMap().keySet()) {
+                if (previousDeviceProperties.containsKey(key)) {
+                    String val = previousDeviceProperties.get(key);
+                    if (val != null &&!val.equals(newDeviceInfo.getDeviceDetailsMap().get(key))) {
+                        updatableProps.put(key, newDeviceInfo.getDeviceDetailsMap().get(key));
+                    }
+                } else {
+                    injectableProps.put(key, newDeviceInfo.getDeviceDetailsMap().get(key));
+                }
+            }
+            deviceDetailsDAO.updateDeviceProperties(updatableProps, device.getId(),
+                    device.getEnrolmentInfo().getId());
+            deviceDetailsDAO.addDeviceProperties(injectableProps, device.getId(),
+                    device.getEnrolmentInfo().getId());
+            writtenProperties = previousDeviceProperties;
+            writtenProperties.putAll(updatableProps);
+            writtenProperties.putAll(injectableProps);
+        }
+        if (fingerprintCache == null) {
+            return null;
+        }
+        return fingerprintCache.createFingerprint(device.getId(), newDeviceInfo, writtenProperties);
+    }
+
+    /**
+     * Writes a device information report over the fingerprint of the previously written device information,
+     * updating only the properties whose values have changed.
+     *
+     * @return fingerprint of the written device information
+     */
+    private DeviceInfoFingerprintCache.Fingerprint updateChangedDeviceInfo(
+            Device device, DeviceInfo deviceInfo, DeviceInfoFingerprintCache.Fingerprint fingerprint)
+            throws DeviceDetailsMgtDAOException {
+        DeviceInfo newDeviceInfo = processDeviceInfo(fingerprint.getDeviceInfo(), deviceInfo);
+        deviceDetailsDAO.updateDeviceInformation(device.getId(), device.getEnrolmentInfo().getId(), newDeviceInfo);
+        addOSVersionValue(device, newDeviceInfo);
+        Map<String, String> changedProperties = fingerprint.getChangedProperties(newDeviceInfo.getDeviceDetailsMap());
+        deviceDetailsDAO.updateDeviceProperties(changedProperties, device.getId(), device.getEnrolmentInfo().getId());
+        return fingerprint.update(newDeviceInfo, changedProperties);
+    }
+
+    /**
+     * Checks whether every property the report will write already exists for the device, in which case the
+     * fingerprint is enough to tell what to update. Otherwise the properties are read again, since another node may
+     * have added them in the meantime.
+     */
+    private boolean isKnownTo(DeviceInfoFingerprintCache.Fingerprint fingerprint, Device device,
+                              DeviceInfo deviceInfo) {
+        if (!fingerprint.containsKeys(deviceInfo.getDeviceDetailsMap().keySet())) {
+            return false;
+        }
+        return !("android".equals(device.getType()) || "ios".equals(device.getType()))
+                || fingerprint.containsKey(Constants.OS_VALUE);
+    }
+
     public int publishEvents(String deviceId, String deviceType, String payload, String eventType)
             throws DeviceDetailsMgtException {
 
@@ -248,61 +320,78 @@ public class DeviceInformationManagerImpl implements DeviceInformationManager {
      */
     private Future<Integer> publishEvents(Device device, DeviceDetailsWrapper deviceDetailsWrapper, String
             eventType)  {
-        String reportingHost = HttpReportingUtil.getReportingHost();
-        if (!StringUtils.isBlank(reportingHost)
-                && HttpReportingUtil.isPublishingEnabledForTenant()) {
-            try {
-                deviceDetailsWrapper.setDevice(device);
-                deviceDetailsWrapper.setTenantId(DeviceManagerUtil.getTenantId());
-                GroupManagementProviderService groupManagementService = DeviceManagementDataHolder
-                        .getInstance().getGroupManagementProviderService();
-
-                List<DeviceGroup> groups = groupManagementService.getGroups(device, false);
-                if (groups != null && groups.size() > 0) {
-                    deviceDetailsWrapper.setGroups(groups);
-                }
+        String eventUrl = getEventUrl(eventType);
+        if (eventUrl == null) {
+            return null;
+        }
+        String username = CarbonContext.getThreadLocalCarbonContext().getUsername();
+        return publishEvents(device, deviceDetailsWrapper, eventUrl, username, getRequiredPermission(username));
+    }
 
-                String username = CarbonContext.getThreadLocalCarbonContext().getUsername();
-                if (StringUtils.isEmpty(username)) {
-                    String requiredPermission = PermissionManagerServiceImpl.getInstance().getRequiredPermission();
-                    String[] requiredPermissions = new String[] {requiredPermission};
-                    boolean isUserAuthorized = DeviceManagementDataHolder.getInstance().
-                            getDeviceAccessAuthorizationService().isUserAuthorized(
-                                    new DeviceIdentifier(device.getDeviceIdentifier(), device.getType()),
-                                    device.getEnrolmentInfo().getOwner(), requiredPermissions
-                            );
-                    if (isUserAuthorized) {
-                        username = device.getEnrolmentInfo().getOwner();
-                    }
-                }
+    /**
+     * Send device details from core to reporting backend without waiting for the response. The details are handed
+     * over to the batching publisher if it is enabled and has room for them, and sent by themselves otherwise.
+     * @param device Device that is sending event
+     * @param deviceDetailsWrapper Payload to send(example, deviceinfo, applist, raw events)
+     */
+    private void submitEvents(Device device, DeviceDetailsWrapper deviceDetailsWrapper, String eventType) {
+        String eventUrl = getEventUrl(eventType);
+        if (eventUrl == null) {
+            return;
+        }
+        String username = CarbonContext.getThreadLocalCarbonContext().getUsername();
+        String requiredPermission = getRequiredPermission(username);
+        ReportingEventPublisher eventPublisher = ReportingEventPublisher.getInstance();
+        if (eventPublisher == null || !eventPublisher.submit(deviceDetailsWrapper, device,
+                DeviceManagerUtil.getTenantId(), username, requiredPermission, eventUrl)) {
+            publishEvents(device, deviceDetailsWrapper, eventUrl, username, requiredPermission);
+        }
+    }
 
-                String[] rolesOfUser = DeviceManagerUtil.getRolesOfUser(username);
-                if (rolesOfUser != null && rolesOfUser.length > 0) {
-                    deviceDetailsWrapper.setRole(rolesOfUser);
-                }
+    private Future<Integer> publishEvents(Device device, DeviceDetailsWrapper deviceDetailsWrapper, String eventUrl,
+                                          String username, String requiredPermission) {
+        try {
+            ReportingEventEnricher.getInstance().enrich(deviceDetailsWrapper, device, DeviceManagerUtil.getTenantId(),
+                    username, requiredPermission);
+            ReportingPublisherManager reportingManager = ReportingPublisherManager.getInstance();
+            return reportingManager.publishData(deviceDetailsWrapper, eventUrl);
+        } catch (GroupManagementException e) {
+            log.error("Error occurred while getting group list", e);
+        } catch (UserStoreException e) {
+            log.error("Error occurred while getting role list", e);
+        } catch (DeviceAccessAuthorizationException e) {
+            log.error("User with name '" + device.getEnrolmentInfo().getOwner() +
+                    "' is unauthorized to publish events for device with the id '" +
+                    device.getDeviceIdentifier() + "'", e);
+        }
+        return null;
+    }
 
-                String eventUrl = reportingHost + DeviceManagementConstants.Report
-                        .REPORTING_CONTEXT + DeviceManagementConstants.URL_SEPERATOR + eventType;
-                ReportingPublisherManager reportingManager = ReportingPublisherManager.getInstance();
-                return reportingManager.publishData(deviceDetailsWrapper, eventUrl);
-            } catch (GroupManagementException e) {
-                log.error("Error occurred while getting group list", e);
-            } catch (UserStoreException e) {
-                log.error("Error occurred while getting role list", e);
-            } catch (DeviceAccessAuthorizationException e) {
-                log.error("User with name '" + device.getEnrolmentInfo().getOwner() +
-                        "' is unauthorized to publish events for device with the id '" +
-                        device.getDeviceIdentifier() + "'", e);
-            }
-        } else {
-            if(log.isTraceEnabled()) {
-                log.trace("Event publishing is not enabled for tenant "
-                        + DeviceManagerUtil.getTenantId());
-            }
+    /**
+     * @return endpoint of the events of the given type, or null if event publishing is not enabled for the tenant
+     */
+    private String getEventUrl(String eventType) {
+        String reportingHost = HttpReportingUtil.getReportingHost();
+        if (!StringUtils.isBlank(reportingHost)
+                && HttpReportingUtil.isPublishingEnabledForTenant()) {
+            return reportingHost + DeviceManagementConstants.Report
+                    .REPORTING_CONTEXT + DeviceManagementConstants.URL_SEPERATOR + eventType;
+        }
+        if(log.isTraceEnabled()) {
+            log.trace("Event publishing is not enabled for tenant "
+                    + DeviceManagerUtil.getTenantId());
         }
         return null;
     }
 
+    /**
+     * The permission is resolved on the request thread, since it is held in a thread local.
+     */
+    private String getRequiredPermission(String username) {
+        return StringUtils.isEmpty(username) ?
+                PermissionManagerServiceImpl.getInstance().getRequiredPermission() : null;
+    }
+
     @Override
     public DeviceInfo getDeviceInfo(DeviceIdentifier deviceId) throws DeviceDetailsMgtException {
         Device device = getDevice(deviceId);
@@ -403,8 +492,16 @@ public class DeviceInformationManagerImpl implements DeviceInformationManager {
 
     @Override
     public void addDeviceLocation(Device device, DeviceLocation deviceLocation) throws DeviceDetailsMgtException {
+        deviceLocation.setDeviceId(device.getId());
+        evaluateGeofences(device, deviceLocation);
+        if (!(HttpReportingUtil.isLocationPublishing() && HttpReportingUtil.isTrackerEnabled())) {
+            LocationIngestionPipeline locationIngestionPipeline = LocationIngestionPipeline.getInstance();
+            if (locationIngestionPipeline != null && locationIngestionPipeline.submit(device, deviceLocation,
+                    CarbonContext.getThreadLocalCarbonContext().getTenantId())) {
+                return;
+            }
+        }
         try {
-            deviceLocation.setDeviceId(device.getId());
             DeviceManagementDAOFactory.beginTransaction();
             DeviceLocation previousLocation = deviceDetailsDAO.getDeviceLocation(device.getId(),
                     device.getEnrolmentInfo().getId());
@@ -443,6 +540,9 @@ public class DeviceInformationManagerImpl implements DeviceInformationManager {
                 }
             }
             DeviceManagementDAOFactory.commitTransaction();
+            if (!(HttpReportingUtil.isLocationPublishing() && HttpReportingUtil.isTrackerEnabled())) {
+                updateGeoClusterIndex(device, deviceLocation);
+            }
         } catch (TransactionManagementException e) {
             throw new DeviceDetailsMgtException("Transactional error occurred while adding the device location " +
                     "information.", e);
@@ -460,6 +560,22 @@ public class DeviceInformationManagerImpl implements DeviceInformationManager {
         }
     }
 
+    private void updateGeoClusterIndex(Device device, DeviceLocation deviceLocation) {
+        GeoClusterIndex geoClusterIndex = GeoClusterIndex.getInstance();
+        if (geoClusterIndex != null) {
+            geoClusterIndex.updateLocation(CarbonContext.getThreadLocalCarbonContext().getTenantId(), device.getId(),
+                    device.getType(), deviceLocation.getLatitude(), deviceLocation.getLongitude());
+        }
+    }
+
+    private void evaluateGeofences(Device device, DeviceLocation deviceLocation) {
+        GeofenceEvaluator geofenceEvaluator = GeofenceEvaluator.getInstance();
+        if (geofenceEvaluator != null) {
+            geofenceEvaluator.evaluate(CarbonContext.getThreadLocalCarbonContext().getTenantId(), device,
+                    deviceLocation);
+        }
+    }
+
     @Override
     public void deleteDeviceLocation(Device device) throws DeviceDetailsMgtException {
         try {
@@ -476,6 +592,11 @@ public class DeviceInformationManagerImpl implements DeviceInformationManager {
                 return;
             }
             DeviceManagementDAOFactory.commitTransaction();
+            GeoClusterIndex geoClusterIndex = GeoClusterIndex.getInstance();
+            if (geoClusterIndex != null) {
+                geoClusterIndex.removeDevice(CarbonContext.getThreadLocalCarbonContext().getTenantId(),
+                        device.getId());
+            }
         } catch (TransactionManagementException e) {
             log.error("Transactional error occurred while deleting the device location information. Device ID: " + device.getId(), e);
             throw new DeviceDetailsMgtException("Transactional error occurred while deleting the device location " +
@@ -494,6 +615,9 @@ public class DeviceInformationManagerImpl implements DeviceInformationManager {
         try {
             DeviceLocation mostRecentDeviceLocation = deviceLocations.get(deviceLocations.size()  - 1);
             mostRecentDeviceLocation.setDeviceId(device.getId());
+            for (DeviceLocation deviceLocation : deviceLocations) {
+                evaluateGeofences(device, deviceLocation);
+            }
             DeviceManagementDAOFactory.beginTransaction();
             boolean previousLocation = deviceDetailsDAO.hasLocations(device.getId(),
                     device.getEnrolmentInfo().getId());
@@ -525,6 +649,9 @@ public class DeviceInformationManagerImpl implements DeviceInformationManager {
             }
 
             DeviceManagementDAOFactory.commitTransaction();
+            if (!HttpReportingUtil.isTrackerEnabled()) {
+                updateGeoClusterIndex(device, mostRecentDeviceLocation);
+            }
         } catch (TransactionManagementException e) {
             throw new DeviceDetailsMgtException("Transactional error occurred while adding the device location " +
                     "information.", e);
@@ -542,6 +669,14 @@ public class DeviceInformationManagerImpl implements DeviceInformationManager {
         if (device == null) {
             return null;
         }
+        LocationIngestionPipeline locationIngestionPipeline = LocationIngestionPipeline.getInstance();
+        if (locationIngestionPipeline != null) {
+            DeviceLocation pendingLocation = locationIngestionPipeline
+                    .getPendingLocation(device.getEnrolmentInfo().getId());
+            if (pendingLocation != null) {
+                return pendingLocation;
+            }
+        }
         try {
             DeviceManagementDAOFactory.openConnection();
             return deviceDetailsDAO.getDeviceLocation(device.getId(), device.getEnrolmentInfo().getId());
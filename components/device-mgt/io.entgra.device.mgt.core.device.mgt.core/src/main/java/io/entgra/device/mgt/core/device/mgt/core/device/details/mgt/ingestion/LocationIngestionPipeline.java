@@ -0,0 +1,558 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.ingestion;
+
+import io.entgra.device.mgt.core.device.mgt.common.Device;
+import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceLocation;
+import io.entgra.device.mgt.core.device.mgt.common.exceptions.TransactionManagementException;
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceConfigurationManager;
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceManagementConfig;
+import io.entgra.device.mgt.core.device.mgt.core.config.geo.location.LocationIngestionConfiguration;
+import io.entgra.device.mgt.core.device.mgt.core.dao.DeviceManagementDAOFactory;
+import io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.DeviceDetailsMgtException;
+import io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.dao.DeviceDetailsDAO;
+import io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.dao.DeviceDetailsMgtDAOException;
+import io.entgra.device.mgt.core.device.mgt.core.geo.cluster.GeoClusterIndex;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Persists the location reports of devices in periodic batches instead of writing each report in its own
+ * transaction.
+ * <p>
+ * Reports are queued in a bounded ring and drained every flush interval. The current location of a device is
+ * written once per flush with its latest fix, while every report is appended to the location history, both with
+ * JDBC batches. When the ring is full the report is not accepted, and the caller is expected to write it
+ * synchronously, so a slow database slows down the reporting devices instead of exhausting the heap.
+ * When a batch could not be written, the reports are written one at a time, so that a report which cannot be written
+ * is dropped without holding back the rest. Reports which could not be written as the database was unavailable are
+ * retried by the next flush, and the pending reports are written on shutdown unless the configuration says
+ * otherwise.
+ */
+public class LocationIngestionPipeline {
+
+    private static final Log log = LogFactory.getLog(LocationIngestionPipeline.class);
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+    private static volatile LocationIngestionPipeline instance;
+    private static volatile boolean initialized;
+
+    private final BlockingQueue<LocationReport> reports;
+    private final ConcurrentMap<Integer, LocationReport> latestReports = new ConcurrentHashMap<>();
+    private final int capacity;
+    private final int batchSize;
+    private final boolean flushOnShutdown;
+    private final Object flushLock = new Object();
+    private final List<LocationReport> failedReports = new ArrayList<>();
+    private final AtomicInteger submitting = new AtomicInteger();
+    private final Object submitLock = new Object();
+    private final ScheduledExecutorService flushExecutor;
+    private volatile boolean closed;
+
+    private final LongAdder acceptedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder writtenCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder failedFlushCount = new LongAdder();
+    private volatile long lastFlushDuration;
+    private volatile long lastFlushLag;
+
+    /**
+     * @param config configuration of the pipeline
+     * @param scheduled whether to flush periodically, or only when {@link #flush()} is called
+     */
+    LocationIngestionPipeline(LocationIngestionConfiguration config, boolean scheduled) {
+        this.capacity = Math.max(config.getQueueCapacity(), 1);
+        this.batchSize = Math.max(config.getBatchSize(), 1);
+        this.flushOnShutdown = config.isFlushOnShutdown();
+        this.reports = new ArrayBlockingQueue<>(capacity);
+        if (scheduled) {
+            long flushInterval = Math.max(config.getFlushInterval(), 10);
+            flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "device-location-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flushExecutor.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            flushExecutor = null;
+        }
+    }
+
+    /**
+     * @return the pipeline, or null if location reports are to be written synchronously
+     */
+    public static LocationIngestionPipeline getInstance() {
+        if (!initialized) {
+            synchronized (LocationIngestionPipeline.class) {
+                if (!initialized) {
+                    DeviceManagementConfig config = DeviceConfigurationManager.getInstance()
+                            .getDeviceManagementConfig();
+                    if (config != null && config.getGeoLocationConfiguration() != null) {
+                        LocationIngestionConfiguration ingestionConfig = config.getGeoLocationConfiguration()
+                                .getLocationIngestionConfiguration();
+                        if (ingestionConfig != null && ingestionConfig.isEnabled()) {
+                            instance = new LocationIngestionPipeline(ingestionConfig, true);
+                        }
+                    }
+                    initialized = true;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Stops the pipeline, if it has been started. Pending reports are written before returning if the pipeline is
+     * configured to flush on shutdown, and discarded otherwise.
+     */
+    public static void shutdown() {
+        synchronized (LocationIngestionPipeline.class) {
+            if (instance != null) {
+                instance.close();
+                instance = null;
+            }
+            initialized = true;
+        }
+    }
+
+    /**
+     * Queues a location report of a device to be written by the next flush.
+     *
+     * @param device device which reported the location, with its enrolment
+     * @param deviceLocation location reported by the device
+     * @param tenantId id of the tenant of the device
+     * @return true if the report has been queued, false if the caller has to write it
+     */
+    public boolean submit(Device device, DeviceLocation deviceLocation, int tenantId) {
+        submitting.incrementAndGet();
+        try {
+            if (closed) {
+                return false;
+            }
+            LocationReport report = new LocationReport(device, deviceLocation, tenantId, System.currentTimeMillis());
+            int enrolmentId = report.getEnrolmentId();
+            LocationReport latest = latestReports.merge(enrolmentId, report, LocationIngestionPipeline::later);
+            if (!reports.offer(report)) {
+                if (latest == report) {
+                    latestReports.remove(enrolmentId, report);
+                }
+                rejectedCount.increment();
+                return false;
+            }
+            acceptedCount.increment();
+            return true;
+        } finally {
+            if (submitting.decrementAndGet() == 0 && closed) {
+                synchronized (submitLock) {
+                    submitLock.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * @param enrolmentId id of the enrolment of the device
+     * @return latest location of the device which is yet to be written, or null if there is no such location
+     */
+    public DeviceLocation getPendingLocation(int enrolmentId) {
+        LocationReport report = latestReports.get(enrolmentId);
+        return report == null ? null : report.getDeviceLocation();
+    }
+
+    /**
+     * Writes the queued reports in batches, or one at a time if a batch could not be written. Reports which could
+     * not be written on their own are dropped, unless no report could be written at all, in which case they are
+     * kept to be retried by the next flush, as long as they fit in the capacity of the pipeline.
+     *
+     * @throws DeviceDetailsMgtException if the reports could not be written
+     */
+    public void flush() throws DeviceDetailsMgtException {
+        synchronized (flushLock) {
+            List<LocationReport> pending = new ArrayList<>(failedReports);
+            failedReports.clear();
+            reports.drainTo(pending);
+            if (pending.isEmpty()) {
+                return;
+            }
+            long startTime = System.currentTimeMillis();
+            long oldestReceivedTime = startTime;
+            for (LocationReport report : pending) {
+                oldestReceivedTime = Math.min(oldestReceivedTime, report.getReceivedTime());
+            }
+            Map<Integer, LocationReport> latest = coalesce(pending);
+            List<LocationReport> written = pending;
+            try {
+                writeReports(latest, pending);
+            } catch (TransactionManagementException e) {
+                failedFlushCount.increment();
+                retain(pending);
+                throw new DeviceDetailsMgtException("Error occurred while initiating a transaction to write the "
+                        + "locations of devices", e);
+            } catch (DeviceDetailsMgtDAOException e) {
+                failedFlushCount.increment();
+                log.warn("Error occurred while writing " + pending.size() + " location reports of "
+                        + latest.size() + " devices in batches, hence writing them one at a time", e);
+                written = writeEachReport(latest, pending);
+                if (written.isEmpty()) {
+                    retain(pending);
+                    throw new DeviceDetailsMgtException("Error occurred while writing " + pending.size()
+                            + " location reports of " + latest.size() + " devices", e);
+                }
+                latest.values().retainAll(new HashSet<>(written));
+            }
+            updateGeoClusterIndex(latest.values());
+            discard(pending);
+            long now = System.currentTimeMillis();
+            lastFlushDuration = now - startTime;
+            lastFlushLag = now - oldestReceivedTime;
+            writtenCount.add(written.size());
+            coalescedCount.add(written.size() - latest.size());
+            flushCount.increment();
+            if (log.isDebugEnabled()) {
+                log.debug("Wrote " + written.size() + " location reports of " + latest.size() + " devices in "
+                        + lastFlushDuration + " ms, lag " + lastFlushLag + " ms, " + reports.size()
+                        + " reports pending");
+            }
+        }
+    }
+
+    /**
+     * @return number of reports which are yet to be written
+     */
+    public int getPendingCount() {
+        synchronized (flushLock) {
+            return reports.size() + failedReports.size();
+        }
+    }
+
+    /**
+     * @return age of the oldest report which is yet to be written in milliseconds, or 0 if there is no such report
+     */
+    public long getLagMillis() {
+        LocationReport oldest;
+        synchronized (flushLock) {
+            oldest = failedReports.isEmpty() ? reports.peek() : failedReports.get(0);
+        }
+        return oldest == null ? 0 : Math.max(System.currentTimeMillis() - oldest.getReceivedTime(), 0);
+    }
+
+    public long getAcceptedCount() {
+        return acceptedCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getWrittenCount() {
+        return writtenCount.sum();
+    }
+
+    /**
+     * @return number of written reports which were superseded by a later report of the same device within a flush,
+     * hence did not cause an update of the current location
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long getFlushCount() {
+        return flushCount.sum();
+    }
+
+    public long getFailedFlushCount() {
+        return failedFlushCount.sum();
+    }
+
+    public long getLastFlushDuration() {
+        return lastFlushDuration;
+    }
+
+    /**
+     * @return time between receiving the oldest report of the last successful flush and writing it, in milliseconds
+     */
+    public long getLastFlushLag() {
+        return lastFlushLag;
+    }
+
+    void close() {
+        closed = true;
+        awaitSubmissions();
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+            try {
+                if (!flushExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    log.warn("Device location flush did not complete within " + SHUTDOWN_TIMEOUT_SECONDS
+                            + " seconds");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (flushOnShutdown) {
+            flushQuietly();
+        }
+        int pendingCount = getPendingCount();
+        if (pendingCount > 0) {
+            log.warn("Discarding " + pendingCount + " device location reports which have not been written");
+        }
+    }
+
+    /**
+     * Picks the latest report of each device, ordered by enrolment id so that concurrent flushes of several nodes
+     * lock the location rows in the same order.
+     */
+    static Map<Integer, LocationReport> coalesce(List<LocationReport> reports) {
+        Map<Integer, LocationReport> latest = new TreeMap<>();
+        for (LocationReport report : reports) {
+            latest.merge(report.getEnrolmentId(), report, LocationIngestionPipeline::later);
+        }
+        return latest;
+    }
+
+    private static LocationReport later(LocationReport current, LocationReport candidate) {
+        return candidate.getUpdatedTime() >= current.getUpdatedTime() ? candidate : current;
+    }
+
+    private void awaitSubmissions() {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS);
+        synchronized (submitLock) {
+            while (submitting.get() > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    log.warn("Device location submissions did not complete within " + SHUTDOWN_TIMEOUT_SECONDS
+                            + " seconds");
+                    return;
+                }
+                try {
+                    submitLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps the reports of a failed flush to be retried by the next flush, dropping the oldest of them which do not
+     * fit in the capacity of the pipeline.
+     */
+    private void retain(List<LocationReport> pending) {
+        int retained = Math.min(pending.size(), capacity);
+        failedReports.addAll(pending.subList(pending.size() - retained, pending.size()));
+        if (retained < pending.size()) {
+            discard(pending.subList(0, pending.size() - retained));
+            droppedCount.add(pending.size() - retained);
+            log.warn("Dropped " + (pending.size() - retained) + " device location reports which could "
+                    + "not be written within the capacity of the pipeline");
+        }
+    }
+
+    /**
+     * Writes each report in its own transaction, updating the current location of a device only with its latest
+     * report.
+     *
+     * @return reports which have been written
+     * @throws DeviceDetailsMgtException if a transaction could not be initiated
+     */
+    private List<LocationReport> writeEachReport(Map<Integer, LocationReport> latest, List<LocationReport> pending)
+            throws DeviceDetailsMgtException {
+        List<LocationReport> written = new ArrayList<>(pending.size());
+        List<LocationReport> failed = new ArrayList<>();
+        for (LocationReport report : pending) {
+            Map<Integer, LocationReport> current = latest.get(report.getEnrolmentId()) == report
+                    ? Collections.singletonMap(report.getEnrolmentId(), report)
+                    : Collections.emptyMap();
+            try {
+                writeReports(current, Collections.singletonList(report));
+                written.add(report);
+            } catch (DeviceDetailsMgtDAOException e) {
+                failed.add(report);
+                if (log.isDebugEnabled()) {
+                    log.debug("Error occurred while writing the location report of device "
+                            + report.getDevice().getId(), e);
+                }
+            } catch (TransactionManagementException e) {
+                List<LocationReport> remaining = new ArrayList<>(pending);
+                remaining.removeAll(new HashSet<>(written));
+                discard(written);
+                writtenCount.add(written.size());
+                retain(remaining);
+                throw new DeviceDetailsMgtException("Error occurred while initiating a transaction to write the "
+                        + "locations of devices", e);
+            }
+        }
+        if (!written.isEmpty() && !failed.isEmpty()) {
+            droppedCount.add(failed.size());
+            log.error("Dropped " + failed.size() + " device location reports which could not be written, of "
+                    + "devices " + deviceIdsOf(failed));
+        }
+        return written;
+    }
+
+    private static List<Integer> deviceIdsOf(List<LocationReport> reports) {
+        List<Integer> deviceIds = new ArrayList<>(reports.size());
+        for (LocationReport report : reports) {
+            deviceIds.add(report.getDevice().getId());
+        }
+        return deviceIds;
+    }
+
+    private void discard(List<LocationReport> written) {
+        for (LocationReport report : written) {
+            latestReports.remove(report.getEnrolmentId(), report);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (DeviceDetailsMgtException e) {
+            log.error("Error occurred while writing the locations of devices", e);
+        } catch (RuntimeException e) {
+            log.error("Unexpected error occurred while writing the locations of devices", e);
+        }
+    }
+
+    private void updateGeoClusterIndex(Collection<LocationReport> latestOfDevices) {
+        GeoClusterIndex geoClusterIndex = GeoClusterIndex.getInstance();
+        if (geoClusterIndex != null) {
+            for (LocationReport report : latestOfDevices) {
+                geoClusterIndex.updateLocation(report.getTenantId(), report.getDevice().getId(),
+                        report.getDevice().getType(), report.getDeviceLocation().getLatitude(),
+                        report.getDeviceLocation().getLongitude());
+            }
+        }
+    }
+
+    private void writeReports(Map<Integer, LocationReport> latest, List<LocationReport> pending)
+            throws DeviceDetailsMgtDAOException, TransactionManagementException {
+        DeviceDetailsDAO deviceDetailsDAO = DeviceManagementDAOFactory.getDeviceDetailsDAO();
+        try {
+            DeviceManagementDAOFactory.beginTransaction();
+            List<LocationReport> latestOfDevices = new ArrayList<>(latest.values());
+            for (int from = 0; from < latestOfDevices.size(); from += batchSize) {
+                Map<Integer, DeviceLocation> batch = new TreeMap<>();
+                for (LocationReport report : latestOfDevices.subList(from,
+                        Math.min(from + batchSize, latestOfDevices.size()))) {
+                    batch.put(report.getEnrolmentId(), report.getDeviceLocation());
+                }
+                List<Integer> newEnrolmentIds = deviceDetailsDAO.updateDeviceLocations(batch);
+                if (!newEnrolmentIds.isEmpty()) {
+                    Map<Integer, DeviceLocation> newLocations = new TreeMap<>();
+                    for (Integer enrolmentId : newEnrolmentIds) {
+                        newLocations.put(enrolmentId, batch.get(enrolmentId));
+                    }
+                    deviceDetailsDAO.addDeviceLocations(newLocations);
+                }
+            }
+            Map<Integer, List<LocationReport>> reportsOfTenants = new HashMap<>();
+            for (LocationReport report : pending) {
+                reportsOfTenants.computeIfAbsent(report.getTenantId(), k -> new ArrayList<>()).add(report);
+            }
+            for (Map.Entry<Integer, List<LocationReport>> entry : reportsOfTenants.entrySet()) {
+                List<LocationReport> tenantReports = entry.getValue();
+                for (int from = 0; from < tenantReports.size(); from += batchSize) {
+                    List<Device> devices = new ArrayList<>();
+                    List<DeviceLocation> deviceLocations = new ArrayList<>();
+                    for (LocationReport report : tenantReports.subList(from,
+                            Math.min(from + batchSize, tenantReports.size()))) {
+                        devices.add(report.getDevice());
+                        deviceLocations.add(report.getDeviceLocation());
+                    }
+                    deviceDetailsDAO.addLocationsInfoOfDevices(devices, deviceLocations, entry.getKey());
+                }
+            }
+            DeviceManagementDAOFactory.commitTransaction();
+        } catch (DeviceDetailsMgtDAOException e) {
+            DeviceManagementDAOFactory.rollbackTransaction();
+            throw e;
+        } finally {
+            DeviceManagementDAOFactory.closeConnection();
+        }
+    }
+
+    /**
+     * A location reported by a device, together with what is needed to write it outside the request.
+     */
+    static class LocationReport {
+
+        private final Device device;
+        private final DeviceLocation deviceLocation;
+        private final int tenantId;
+        private final long receivedTime;
+
+        LocationReport(Device device, DeviceLocation deviceLocation, int tenantId, long receivedTime) {
+            this.device = device;
+            this.deviceLocation = deviceLocation;
+            this.tenantId = tenantId;
+            this.receivedTime = receivedTime;
+        }
+
+        Device getDevice() {
+            return device;
+        }
+
+        DeviceLocation getDeviceLocation() {
+            return deviceLocation;
+        }
+
+        int getTenantId() {
+            return tenantId;
+        }
+
+        long getReceivedTime() {
+            return receivedTime;
+        }
+
+        int getEnrolmentId() {
+            return device.getEnrolmentInfo().getId();
+        }
+
+        long getUpdatedTime() {
+            return deviceLocation.getUpdatedTime() == null ? receivedTime : deviceLocation.getUpdatedTime().getTime();
+        }
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.geo.cluster;
+
+import io.entgra.device.mgt.core.device.mgt.core.geo.geoHash.GeoHash;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Geohash prefix tree of the located devices of a tenant, which keeps the count, centroid and bounds of the devices
+ * in every cell of each prefix length up to a maximum, separately for each device type. It is updated as devices
+ * report locations, and answers geo cluster queries by descending from the one character cells into the cells which
+ * intersect the queried area, without touching the devices themselves.
+ * <p>
+ * A cell is reported whole if its centroid lies within the queried area, whereas a query of the database only counts
+ * the devices within the area. This keeps the clusters on the edges of a map from changing while it is panned.
+ */
+class GeoClusterAggregate {
+
+    static final int MAX_GEOHASH_LENGTH = GeoHash.MAX_LENGTH;
+
+    private final int maxGeohashLength;
+    private final Map<String, GeoHashCellTable[]> cellTables = new HashMap<>();
+    private final Map<Integer, LocatedDevice> devices = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Set<Integer> changedWhileLoading;
+
+    /**
+     * @param maxGeohashLength longest geohash prefix to aggregate, at most {@link #MAX_GEOHASH_LENGTH}
+     */
+    GeoClusterAggregate(int maxGeohashLength) {
+        this.maxGeohashLength = Math.max(1, Math.min(maxGeohashLength, MAX_GEOHASH_LENGTH));
+    }
+
+    int getMaxGeohashLength() {
+        return maxGeohashLength;
+    }
+
+    /**
+     * Starts loading the devices from the database. Devices which are updated or removed while loading keep the
+     * state given by those calls instead of the loaded one, which may have been read before them.
+     */
+    void startLoading() {
+        lock.writeLock().lock();
+        try {
+            changedWhileLoading = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a device read from the database, unless it has been updated or removed since loading started.
+     */
+    void load(int deviceId, String deviceType, double latitude, double longitude) {
+        lock.writeLock().lock();
+        try {
+            if (changedWhileLoading == null || !changedWhileLoading.contains(deviceId)) {
+                put(deviceId, deviceType, latitude, longitude);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void finishLoading() {
+        lock.writeLock().lock();
+        try {
+            changedWhileLoading = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves a device to its latest location.
+     *
+     * @param deviceId   id of the device
+     * @param deviceType type of the device
+     * @param latitude   latitude of the device
+     * @param longitude  longitude of the device
+     */
+    void update(int deviceId, String deviceType, double latitude, double longitude) {
+        lock.writeLock().lock();
+        try {
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(deviceId);
+            }
+            put(deviceId, deviceType, latitude, longitude);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a device which no longer has a location, or has been removed.
+     *
+     * @param deviceId id of the device
+     */
+    void remove(int deviceId) {
+        lock.writeLock().lock();
+        try {
+            if (changedWhileLoading != null) {
+                changedWhileLoading.add(deviceId);
+            }
+            LocatedDevice device = devices.remove(deviceId);
+            if (device != null) {
+                removeFromCells(deviceId, device);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return devices.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the cells of the given prefix length whose centroids lie within the given area.
+     *
+     * @param minLatitude   southern bound of the area
+     * @param minLongitude  western bound of the area
+     * @param maxLatitude   northern bound of the area
+     * @param maxLongitude  eastern bound of the area
+     * @param geohashLength prefix length of the cells, at most the maximum length of this aggregate
+     * @param deviceTypes   types of the devices to count, or null or empty to count devices of all types
+     * @return clusters of the devices in the cells, in geohash order
+     */
+    List<Cluster> findClusters(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                               int geohashLength, Collection<String> deviceTypes) {
+        int length = Math.max(1, Math.min(geohashLength, maxGeohashLength));
+        List<Cluster> clusters = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            List<GeoHashCellTable[]> tables = new ArrayList<>();
+            if (deviceTypes == null || deviceTypes.isEmpty()) {
+                tables.addAll(cellTables.values());
+            } else {
+                for (String deviceType : deviceTypes) {
+                    GeoHashCellTable[] typeTables = cellTables.get(deviceType);
+                    if (typeTables != null && !tables.contains(typeTables)) {
+                        tables.add(typeTables);
+                    }
+                }
+            }
+            if (tables.isEmpty()) {
+                return clusters;
+            }
+            List<Long> frontier = new ArrayList<>();
+            frontier.add(GeoHash.ROOT);
+            for (int level = 1; level <= length; level++) {
+                List<Long> next = new ArrayList<>();
+                for (long parent : frontier) {
+                    for (int character = 0; character < 32; character++) {
+                        long geohash = GeoHash.child(parent, character);
+                        if (exists(tables, geohash) && GeoHash.intersects(geohash, minLatitude, minLongitude,
+                                maxLatitude, maxLongitude)) {
+                            next.add(geohash);
+                        }
+                    }
+                }
+                frontier = next;
+            }
+            for (long geohash : frontier) {
+                Cluster cluster = merge(tables, geohash);
+                if (cluster.latitude >= minLatitude && cluster.latitude <= maxLatitude
+                        && cluster.longitude >= minLongitude && cluster.longitude <= maxLongitude) {
+                    clusters.add(cluster);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return clusters;
+    }
+
+    private void put(int deviceId, String deviceType, double latitude, double longitude) {
+        LocatedDevice previous = devices.get(deviceId);
+        if (previous != null) {
+            if (previous.latitude == latitude && previous.longitude == longitude
+                    && previous.deviceType.equals(deviceType)) {
+                return;
+            }
+            removeFromCells(deviceId, previous);
+        }
+        LocatedDevice device = new LocatedDevice(deviceType, latitude, longitude);
+        devices.put(deviceId, device);
+        GeoHashCellTable[] tables = cellTables.computeIfAbsent(deviceType, k -> newTables());
+        long geohash = GeoHash.encode(latitude, longitude, maxGeohashLength);
+        for (int level = 1; level <= maxGeohashLength; level++) {
+            tables[level - 1].add(GeoHash.prefix(geohash, level), latitude, longitude, deviceId);
+        }
+    }
+
+    private void removeFromCells(int deviceId, LocatedDevice device) {
+        GeoHashCellTable[] tables = cellTables.get(device.deviceType);
+        long geohash = GeoHash.encode(device.latitude, device.longitude, maxGeohashLength);
+        for (int level = 1; level <= maxGeohashLength; level++) {
+            tables[level - 1].remove(GeoHash.prefix(geohash, level), device.latitude, device.longitude, deviceId);
+        }
+        if (tables[0].size() == 0) {
+            cellTables.remove(device.deviceType);
+        }
+    }
+
+    private GeoHashCellTable[] newTables() {
+        GeoHashCellTable[] tables = new GeoHashCellTable[maxGeohashLength];
+        for (int i = 0; i < maxGeohashLength; i++) {
+            tables[i] = new GeoHashCellTable();
+        }
+        return tables;
+    }
+
+    private static boolean exists(List<GeoHashCellTable[]> tables, long geohash) {
+        int level = GeoHash.length(geohash);
+        for (GeoHashCellTable[] typeTables : tables) {
+            if (typeTables[level - 1].find(geohash) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Cluster merge(List<GeoHashCellTable[]> tables, long geohash) {
+        int level = GeoHash.length(geohash);
+        Cluster cluster = new Cluster(GeoHash.toString(geohash));
+        double latitudeSum = 0;
+        double longitudeSum = 0;
+        long deviceIdSum = 0;
+        for (GeoHashCellTable[] typeTables : tables) {
+            GeoHashCellTable table = typeTables[level - 1];
+            int slot = table.find(geohash);
+            if (slot < 0) {
+                continue;
+            }
+            if (cluster.count == 0) {
+                cluster.minLatitude = table.getMinLatitude(slot);
+                cluster.maxLatitude = table.getMaxLatitude(slot);
+                cluster.minLongitude = table.getMinLongitude(slot);
+                cluster.maxLongitude = table.getMaxLongitude(slot);
+            } else {
+                cluster.minLatitude = Math.min(cluster.minLatitude, table.getMinLatitude(slot));
+                cluster.maxLatitude = Math.max(cluster.maxLatitude, table.getMaxLatitude(slot));
+                cluster.minLongitude = Math.min(cluster.minLongitude, table.getMinLongitude(slot));
+                cluster.maxLongitude = Math.max(cluster.maxLongitude, table.getMaxLongitude(slot));
+            }
+            cluster.count += table.getCount(slot);
+            latitudeSum += table.getLatitudeSum(slot);
+            longitudeSum += table.getLongitudeSum(slot);
+            deviceIdSum += table.getDeviceIdSum(slot);
+        }
+        cluster.latitude = latitudeSum / cluster.count;
+        cluster.longitude = longitudeSum / cluster.count;
+        cluster.deviceId = cluster.count == 1 ? (int) deviceIdSum : 0;
+        return cluster;
+    }
+
+    /**
+     * Devices of a geohash cell, as found by a query.
+     */
+    static class Cluster {
+
+        private final String geohashPrefix;
+        private long count;
+        private double latitude;
+        private double longitude;
+        private double minLatitude;
+        private double maxLatitude;
+        private double minLongitude;
+        private double maxLongitude;
+        private int deviceId;
+
+        private Cluster(String geohashPrefix) {
+            this.geohashPrefix = geohashPrefix;
+        }
+
+        String getGeohashPrefix() {
+            return geohashPrefix;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        double getLatitude() {
+            return latitude;
+        }
+
+        double getLongitude() {
+            return longitude;
+        }
+
+        double getMinLatitude() {
+            return minLatitude;
+        }
+
+        double getMaxLatitude() {
+            return maxLatitude;
+        }
+
+        double getMinLongitude() {
+            return minLongitude;
+        }
+
+        double getMaxLongitude() {
+            return maxLongitude;
+        }
+
+        /**
+         * @return id of the device if the cluster has only one, 0 otherwise
+         */
+        int getDeviceId() {
+            return deviceId;
+        }
+    }
+
+    private static class LocatedDevice {
+
+        private final String deviceType;
+        private final double latitude;
+        private final double longitude;
+
+        private LocatedDevice(String deviceType, double latitude, double longitude) {
+            this.deviceType = deviceType;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+}
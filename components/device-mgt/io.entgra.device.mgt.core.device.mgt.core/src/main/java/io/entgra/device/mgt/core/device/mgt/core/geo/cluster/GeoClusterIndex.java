@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.geo.cluster;
+
+import io.entgra.device.mgt.core.device.mgt.common.Device;
+import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceLocation;
+import io.entgra.device.mgt.core.device.mgt.common.geo.service.GeoCluster;
+import io.entgra.device.mgt.core.device.mgt.common.geo.service.GeoCoordinate;
+import io.entgra.device.mgt.core.device.mgt.common.geo.service.GeoQuery;
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceConfigurationManager;
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceManagementConfig;
+import io.entgra.device.mgt.core.device.mgt.core.config.geo.location.GeoClusterIndexConfiguration;
+import io.entgra.device.mgt.core.device.mgt.core.dao.DeviceManagementDAOException;
+import io.entgra.device.mgt.core.device.mgt.core.dao.DeviceManagementDAOFactory;
+import io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.dao.DeviceDetailsMgtDAOException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Node local index of the device locations of each tenant, which answers geo cluster queries from a
+ * {@link GeoClusterAggregate} instead of grouping the locations in the database.
+ * <p>
+ * The aggregate of a tenant is loaded from the database on its first query, and kept up to date by the location
+ * updates and device removals of this node. Changes made by other nodes are picked up when the aggregate is reloaded,
+ * once it is older than the refresh interval.
+ */
+public class GeoClusterIndex {
+
+    private static final Log log = LogFactory.getLog(GeoClusterIndex.class);
+
+    private static volatile GeoClusterIndex instance;
+    private static volatile boolean initialized;
+
+    private final int maxGeohashLength;
+    private final long refreshInterval;
+    private final ConcurrentMap<Integer, TenantIndex> tenantIndexes = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxGeohashLength longest geohash prefix which can be queried
+     * @param refreshInterval  time in milliseconds after which the aggregate of a tenant is reloaded
+     */
+    GeoClusterIndex(int maxGeohashLength, long refreshInterval) {
+        this.maxGeohashLength = Math.max(1, Math.min(maxGeohashLength, GeoClusterAggregate.MAX_GEOHASH_LENGTH));
+        this.refreshInterval = refreshInterval;
+    }
+
+    /**
+     * @return the index, or null if geo clusters are to be queried from the database
+     */
+    public static GeoClusterIndex getInstance() {
+        if (!initialized) {
+            synchronized (GeoClusterIndex.class) {
+                if (!initialized) {
+                    DeviceManagementConfig config = DeviceConfigurationManager.getInstance()
+                            .getDeviceManagementConfig();
+                    if (config != null && config.getGeoLocationConfiguration() != null
+                            && config.getGeoLocationConfiguration().getGeoClusterIndexConfiguration() != null
+                            && config.getGeoLocationConfiguration().getGeoClusterIndexConfiguration().isEnabled()) {
+                        GeoClusterIndexConfiguration indexConfig = config.getGeoLocationConfiguration()
+                                .getGeoClusterIndexConfiguration();
+                        instance = new GeoClusterIndex(indexConfig.getMaxGeohashLength(),
+                                Math.max(indexConfig.getRefreshInterval(), 1) * 1000L);
+                    }
+                    initialized = true;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * The index only knows the type and the location of each device, hence queries which filter devices by anything
+     * else, or group them into longer prefixes than the index keeps, are to be answered by the database.
+     *
+     * @param geoQuery the query to answer
+     * @return true if the query can be answered by the index
+     */
+    public boolean isSupported(GeoQuery geoQuery) {
+        return geoQuery.getGeohashLength() >= 1 && geoQuery.getGeohashLength() <= maxGeohashLength
+                && isEmpty(geoQuery.getDeviceIdentifiers()) && isEmpty(geoQuery.getOwners())
+                && isEmpty(geoQuery.getOwnerships()) && isEmpty(geoQuery.getStatuses())
+                && geoQuery.getCreatedBefore() == 0 && geoQuery.getCreatedAfter() == 0
+                && geoQuery.getUpdatedBefore() == 0 && geoQuery.getUpdatedAfter() == 0;
+    }
+
+    /**
+     * Finds the geo clusters of a supported query. The caller is expected to have opened a connection, which is used
+     * to load the aggregate of the tenant when needed and the devices of single device clusters.
+     *
+     * @param geoQuery the query, which is supported by the index
+     * @param tenantId id of the tenant
+     * @return the geo clusters
+     * @throws DeviceManagementDAOException  if the devices of single device clusters cannot be retrieved
+     * @throws DeviceDetailsMgtDAOException if the locations of the devices cannot be loaded
+     */
+    public List<GeoCluster> findGeoClusters(GeoQuery geoQuery, int tenantId)
+            throws DeviceManagementDAOException, DeviceDetailsMgtDAOException {
+        GeoClusterAggregate aggregate = getAggregate(tenantId);
+        List<GeoClusterAggregate.Cluster> clusters = aggregate.findClusters(geoQuery.getSouthWest().getLatitude(),
+                geoQuery.getSouthWest().getLongitude(), geoQuery.getNorthEast().getLatitude(),
+                geoQuery.getNorthEast().getLongitude(), geoQuery.getGeohashLength(), geoQuery.getDeviceTypes());
+        List<Integer> deviceIds = new ArrayList<>();
+        for (GeoClusterAggregate.Cluster cluster : clusters) {
+            if (cluster.getCount() == 1) {
+                deviceIds.add(cluster.getDeviceId());
+            }
+        }
+        Map<Integer, Device> devices = new HashMap<>();
+        for (Device device : DeviceManagementDAOFactory.getDeviceDAO().getDevicesByIds(deviceIds, tenantId)) {
+            devices.put(device.getId(), device);
+        }
+        List<GeoCluster> geoClusters = new ArrayList<>(clusters.size());
+        for (GeoClusterAggregate.Cluster cluster : clusters) {
+            geoClusters.add(new GeoCluster(new GeoCoordinate(cluster.getLatitude(), cluster.getLongitude()),
+                    new GeoCoordinate(cluster.getMinLatitude(), cluster.getMinLongitude()),
+                    new GeoCoordinate(cluster.getMaxLatitude(), cluster.getMaxLongitude()),
+                    cluster.getCount(), cluster.getGeohashPrefix(),
+                    cluster.getCount() == 1 ? devices.get(cluster.getDeviceId()) : null));
+        }
+        return geoClusters;
+    }
+
+    /**
+     * Moves a device to the location it has last reported. Nothing is done if the locations of the tenant have not
+     * been loaded, since they are read from the database when they are.
+     *
+     * @param tenantId   id of the tenant of the device
+     * @param deviceId   id of the device
+     * @param deviceType type of the device
+     * @param latitude   latitude of the device
+     * @param longitude  longitude of the device
+     */
+    public void updateLocation(int tenantId, int deviceId, String deviceType, Double latitude, Double longitude) {
+        TenantIndex tenantIndex = tenantIndexes.get(tenantId);
+        if (tenantIndex == null) {
+            return;
+        }
+        if (latitude == null || longitude == null) {
+            tenantIndex.remove(deviceId);
+        } else {
+            tenantIndex.update(deviceId, deviceType, latitude, longitude);
+        }
+    }
+
+    /**
+     * Removes a device whose location has been deleted, or which has been removed.
+     *
+     * @param tenantId id of the tenant of the device
+     * @param deviceId id of the device
+     */
+    public void removeDevice(int tenantId, int deviceId) {
+        TenantIndex tenantIndex = tenantIndexes.get(tenantId);
+        if (tenantIndex != null) {
+            tenantIndex.remove(deviceId);
+        }
+    }
+
+    private GeoClusterAggregate getAggregate(int tenantId) throws DeviceDetailsMgtDAOException {
+        TenantIndex tenantIndex = tenantIndexes.computeIfAbsent(tenantId, k -> new TenantIndex());
+        GeoClusterAggregate aggregate = tenantIndex.aggregate;
+        if (aggregate != null && System.currentTimeMillis() - tenantIndex.loadedTime < refreshInterval) {
+            return aggregate;
+        }
+        synchronized (tenantIndex) {
+            if (tenantIndex.aggregate != null
+                    && System.currentTimeMillis() - tenantIndex.loadedTime < refreshInterval) {
+                return tenantIndex.aggregate;
+            }
+            long startTime = System.currentTimeMillis();
+            GeoClusterAggregate loading = new GeoClusterAggregate(maxGeohashLength);
+            loading.startLoading();
+            tenantIndex.loading = loading;
+            try {
+                for (DeviceLocation location : DeviceManagementDAOFactory.getDeviceDetailsDAO()
+                        .getDeviceLocationsOfTenant(tenantId)) {
+                    if (location.getLatitude() != null && location.getLongitude() != null) {
+                        loading.load(location.getDeviceId(), location.getDeviceIdentifier().getType(),
+                                location.getLatitude(), location.getLongitude());
+                    }
+                }
+                loading.finishLoading();
+                tenantIndex.aggregate = loading;
+                tenantIndex.loadedTime = startTime;
+            } finally {
+                tenantIndex.loading = null;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Loaded the locations of " + loading.size() + " devices of tenant " + tenantId + " in "
+                        + (System.currentTimeMillis() - startTime) + " ms");
+            }
+            return loading;
+        }
+    }
+
+    private static boolean isEmpty(List<?> list) {
+        return list == null || list.isEmpty();
+    }
+
+    /**
+     * Aggregate of a tenant, along with the one being loaded to replace it, both of which have to see every change.
+     * The one being loaded is read first, since it becomes the aggregate before it stops being the one loaded.
+     */
+    private static class TenantIndex {
+
+        private volatile GeoClusterAggregate aggregate;
+        private volatile GeoClusterAggregate loading;
+        private volatile long loadedTime;
+
+        private void update(int deviceId, String deviceType, double latitude, double longitude) {
+            GeoClusterAggregate next = loading;
+            GeoClusterAggregate current = aggregate;
+            if (current != null) {
+                current.update(deviceId, deviceType, latitude, longitude);
+            }
+            if (next != null && next != current) {
+                next.update(deviceId, deviceType, latitude, longitude);
+            }
+        }
+
+        private void remove(int deviceId) {
+            GeoClusterAggregate next = loading;
+            GeoClusterAggregate current = aggregate;
+            if (current != null) {
+                current.remove(deviceId);
+            }
+            if (next != null && next != current) {
+                next.remove(deviceId);
+            }
+        }
+    }
+}
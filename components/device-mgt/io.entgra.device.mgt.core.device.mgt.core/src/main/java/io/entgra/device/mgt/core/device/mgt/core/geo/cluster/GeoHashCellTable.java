@@ -0,0 +1,252 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.geo.cluster;
+
+/**
+ * Open addressing map of the geohash cells of one prefix length to the aggregate of the devices located in them.
+ * Keys and aggregates are kept in primitive arrays, so moving a device between two existing cells does not allocate.
+ * A cell is removed as soon as its last device leaves it. This class is not thread safe.
+ * <p>
+ * The bounds of a cell only grow while devices join it, since the bounds of the remaining devices are not known
+ * when one leaves. They are exact again once a single device remains in the cell.
+ */
+class GeoHashCellTable {
+
+    private static final long EMPTY = 0;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] counts;
+    private double[] latitudeSums;
+    private double[] longitudeSums;
+    private long[] deviceIdSums;
+    private double[] minLatitudes;
+    private double[] maxLatitudes;
+    private double[] minLongitudes;
+    private double[] maxLongitudes;
+    private int size;
+    private int threshold;
+
+    GeoHashCellTable() {
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * Adds a device to a cell, creating the cell if it does not exist.
+     *
+     * @param key       key of the cell, which must not be 0
+     * @param latitude  latitude of the device
+     * @param longitude longitude of the device
+     * @param deviceId  id of the device
+     */
+    void add(long key, double latitude, double longitude, int deviceId) {
+        int index = indexOf(keys, key);
+        if (keys[index] == EMPTY) {
+            keys[index] = key;
+            minLatitudes[index] = latitude;
+            maxLatitudes[index] = latitude;
+            minLongitudes[index] = longitude;
+            maxLongitudes[index] = longitude;
+            size++;
+        } else {
+            minLatitudes[index] = Math.min(minLatitudes[index], latitude);
+            maxLatitudes[index] = Math.max(maxLatitudes[index], latitude);
+            minLongitudes[index] = Math.min(minLongitudes[index], longitude);
+            maxLongitudes[index] = Math.max(maxLongitudes[index], longitude);
+        }
+        counts[index]++;
+        latitudeSums[index] += latitude;
+        longitudeSums[index] += longitude;
+        deviceIdSums[index] += deviceId;
+        if (size > threshold) {
+            resize();
+        }
+    }
+
+    /**
+     * Removes a device which has been added to a cell with the same location.
+     *
+     * @param key       key of the cell
+     * @param latitude  latitude the device was added with
+     * @param longitude longitude the device was added with
+     * @param deviceId  id of the device
+     */
+    void remove(long key, double latitude, double longitude, int deviceId) {
+        int index = indexOf(keys, key);
+        if (keys[index] == EMPTY) {
+            return;
+        }
+        if (--counts[index] == 0) {
+            delete(index);
+            return;
+        }
+        latitudeSums[index] -= latitude;
+        longitudeSums[index] -= longitude;
+        deviceIdSums[index] -= deviceId;
+        if (counts[index] == 1) {
+            minLatitudes[index] = maxLatitudes[index] = latitudeSums[index];
+            minLongitudes[index] = maxLongitudes[index] = longitudeSums[index];
+        }
+    }
+
+    /**
+     * @return slot of the cell, or -1 if the cell does not exist
+     */
+    int find(long key) {
+        int index = indexOf(keys, key);
+        return keys[index] == EMPTY ? -1 : index;
+    }
+
+    int getCount(int slot) {
+        return counts[slot];
+    }
+
+    double getLatitudeSum(int slot) {
+        return latitudeSums[slot];
+    }
+
+    double getLongitudeSum(int slot) {
+        return longitudeSums[slot];
+    }
+
+    /**
+     * @return sum of the ids of the devices in the cell, which is the id of the device if there is only one
+     */
+    long getDeviceIdSum(int slot) {
+        return deviceIdSums[slot];
+    }
+
+    double getMinLatitude(int slot) {
+        return minLatitudes[slot];
+    }
+
+    double getMaxLatitude(int slot) {
+        return maxLatitudes[slot];
+    }
+
+    double getMinLongitude(int slot) {
+        return minLongitudes[slot];
+    }
+
+    double getMaxLongitude(int slot) {
+        return maxLongitudes[slot];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes the cell in the given slot, shifting back the cells which were displaced past it so that no probe
+     * sequence is broken.
+     */
+    private void delete(int slot) {
+        int mask = keys.length - 1;
+        int free = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (keys[next] == EMPTY) {
+                break;
+            }
+            int home = hash(keys[next]) & mask;
+            boolean inRange = free <= next ? free < home && home <= next : free < home || home <= next;
+            if (!inRange) {
+                move(next, free);
+                free = next;
+            }
+        }
+        keys[free] = EMPTY;
+        counts[free] = 0;
+        latitudeSums[free] = 0;
+        longitudeSums[free] = 0;
+        deviceIdSums[free] = 0;
+        size--;
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        counts[to] = counts[from];
+        latitudeSums[to] = latitudeSums[from];
+        longitudeSums[to] = longitudeSums[from];
+        deviceIdSums[to] = deviceIdSums[from];
+        minLatitudes[to] = minLatitudes[from];
+        maxLatitudes[to] = maxLatitudes[from];
+        minLongitudes[to] = minLongitudes[from];
+        maxLongitudes[to] = maxLongitudes[from];
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        double[] oldLatitudeSums = latitudeSums;
+        double[] oldLongitudeSums = longitudeSums;
+        long[] oldDeviceIdSums = deviceIdSums;
+        double[] oldMinLatitudes = minLatitudes;
+        double[] oldMaxLatitudes = maxLatitudes;
+        double[] oldMinLongitudes = minLongitudes;
+        double[] oldMaxLongitudes = maxLongitudes;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = indexOf(keys, oldKeys[i]);
+                keys[index] = oldKeys[i];
+                counts[index] = oldCounts[i];
+                latitudeSums[index] = oldLatitudeSums[i];
+                longitudeSums[index] = oldLongitudeSums[i];
+                deviceIdSums[index] = oldDeviceIdSums[i];
+                minLatitudes[index] = oldMinLatitudes[i];
+                maxLatitudes[index] = oldMaxLatitudes[i];
+                minLongitudes[index] = oldMinLongitudes[i];
+                maxLongitudes[index] = oldMaxLongitudes[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        counts = new int[capacity];
+        latitudeSums = new double[capacity];
+        longitudeSums = new double[capacity];
+        deviceIdSums = new long[capacity];
+        minLatitudes = new double[capacity];
+        maxLatitudes = new double[capacity];
+        minLongitudes = new double[capacity];
+        maxLongitudes = new double[capacity];
+        threshold = capacity / 4 * 3;
+    }
+
+    private static int indexOf(long[] keys, long key) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        while (keys[index] != EMPTY && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    /**
+     * Mixes every bit of the key into the low bits, since packed geohashes differ only in their high bits.
+     */
+    private static int hash(long key) {
+        long hash = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) (hash ^ (hash >>> 33));
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.geo.fence;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import io.entgra.device.mgt.core.device.mgt.common.geo.service.GeofenceData;
+import org.apache.commons.lang.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Geometry of a geofence, which is either a circle or a set of polygons, prepared to test whether locations are
+ * within it. Polygons are read from the GeoJSON of the fence, which may be a geometry or a feature of type Polygon or
+ * MultiPolygon, or a list of points given as {"lat", "lng"} objects.
+ */
+final class Geofence {
+
+    static final String SHAPE_CIRCLE = "circle";
+    private static final double EARTH_RADIUS = 6371008.8;
+    private static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS / 180.0;
+
+    private final int id;
+    private final int[] groupIds;
+    private final double minLatitude;
+    private final double minLongitude;
+    private final double maxLatitude;
+    private final double maxLongitude;
+    private final double latitude;
+    private final double longitude;
+    private final double radius;
+    private final List<double[][]> polygons;
+
+    private Geofence(int id, int[] groupIds, double latitude, double longitude, double radius,
+                     List<double[][]> polygons) {
+        this.id = id;
+        this.groupIds = groupIds;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.radius = radius;
+        this.polygons = polygons;
+        if (polygons == null) {
+            double latitudeSpan = radius / METERS_PER_DEGREE;
+            double longitudeSpan = latitudeSpan / Math.max(Math.cos(Math.toRadians(Math.min(
+                    Math.abs(latitude) + latitudeSpan, 90.0))), 1e-9);
+            this.minLatitude = Math.max(latitude - latitudeSpan, -90.0);
+            this.maxLatitude = Math.min(latitude + latitudeSpan, 90.0);
+            this.minLongitude = longitude - longitudeSpan;
+            this.maxLongitude = longitude + longitudeSpan;
+        } else {
+            double south = 90.0;
+            double north = -90.0;
+            double west = 180.0;
+            double east = -180.0;
+            for (double[][] polygon : polygons) {
+                // Only the outer ring, which is the first one, bounds the polygon
+                double[] ring = polygon[0];
+                for (int i = 0; i < ring.length; i += 2) {
+                    west = Math.min(west, ring[i]);
+                    east = Math.max(east, ring[i]);
+                    south = Math.min(south, ring[i + 1]);
+                    north = Math.max(north, ring[i + 1]);
+                }
+            }
+            this.minLatitude = south;
+            this.maxLatitude = north;
+            this.minLongitude = west;
+            this.maxLongitude = east;
+        }
+    }
+
+    /**
+     * @param geofenceData geofence as it is stored
+     * @param groupIds     ids of the groups whose devices the geofence applies to
+     * @return the geofence, or null if its shape cannot be read
+     */
+    static Geofence of(GeofenceData geofenceData, int[] groupIds) {
+        int[] sortedGroupIds = groupIds.clone();
+        Arrays.sort(sortedGroupIds);
+        if (SHAPE_CIRCLE.equalsIgnoreCase(geofenceData.getFenceShape())
+                || (geofenceData.getFenceShape() == null && StringUtils.isBlank(geofenceData.getGeoJson()))) {
+            if (geofenceData.getRadius() <= 0) {
+                return null;
+            }
+            return new Geofence(geofenceData.getId(), sortedGroupIds, geofenceData.getLatitude(),
+                    geofenceData.getLongitude(), geofenceData.getRadius(), null);
+        }
+        if (StringUtils.isBlank(geofenceData.getGeoJson())) {
+            return null;
+        }
+        List<double[][]> polygons = new ArrayList<>();
+        try {
+            readPolygons(new JsonParser().parse(geofenceData.getGeoJson()), polygons);
+        } catch (JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+            return null;
+        }
+        if (polygons.isEmpty()) {
+            return null;
+        }
+        return new Geofence(geofenceData.getId(), sortedGroupIds, 0, 0, 0, polygons);
+    }
+
+    int getId() {
+        return id;
+    }
+
+    double getMinLatitude() {
+        return minLatitude;
+    }
+
+    double getMinLongitude() {
+        return minLongitude;
+    }
+
+    double getMaxLatitude() {
+        return maxLatitude;
+    }
+
+    double getMaxLongitude() {
+        return maxLongitude;
+    }
+
+    /**
+     * @param deviceGroupIds sorted ids of the groups of a device
+     * @return true if the device belongs to one of the groups of the geofence
+     */
+    boolean appliesTo(int[] deviceGroupIds) {
+        int i = 0;
+        int j = 0;
+        while (i < groupIds.length && j < deviceGroupIds.length) {
+            if (groupIds[i] == deviceGroupIds[j]) {
+                return true;
+            } else if (groupIds[i] < deviceGroupIds[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return false;
+    }
+
+    boolean hasGroups() {
+        return groupIds.length > 0;
+    }
+
+    boolean contains(double pointLatitude, double pointLongitude) {
+        if (pointLatitude < minLatitude || pointLatitude > maxLatitude) {
+            return false;
+        }
+        if (polygons == null) {
+            return distance(latitude, longitude, pointLatitude, pointLongitude) <= radius;
+        }
+        if (pointLongitude < minLongitude || pointLongitude > maxLongitude) {
+            return false;
+        }
+        for (double[][] polygon : polygons) {
+            if (contains(polygon[0], pointLatitude, pointLongitude)) {
+                boolean inHole = false;
+                for (int i = 1; i < polygon.length && !inHole; i++) {
+                    inHole = contains(polygon[i], pointLatitude, pointLongitude);
+                }
+                if (!inHole) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Haversine distance in meters.
+     */
+    static double distance(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        double latitudeDelta = Math.toRadians(toLatitude - fromLatitude);
+        double longitudeDelta = Math.toRadians(toLongitude - fromLongitude);
+        double a = Math.sin(latitudeDelta / 2) * Math.sin(latitudeDelta / 2)
+                + Math.cos(Math.toRadians(fromLatitude)) * Math.cos(Math.toRadians(toLatitude))
+                * Math.sin(longitudeDelta / 2) * Math.sin(longitudeDelta / 2);
+        return 2 * EARTH_RADIUS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Even-odd ray casting over a ring of longitude, latitude pairs.
+     */
+    private static boolean contains(double[] ring, double pointLatitude, double pointLongitude) {
+        boolean inside = false;
+        int points = ring.length / 2;
+        for (int i = 0, j = points - 1; i < points; j = i++) {
+            double longitudeI = ring[2 * i];
+            double latitudeI = ring[2 * i + 1];
+            double longitudeJ = ring[2 * j];
+            double latitudeJ = ring[2 * j + 1];
+            if ((latitudeI > pointLatitude) != (latitudeJ > pointLatitude)
+                    && pointLongitude < (longitudeJ - longitudeI) * (pointLatitude - latitudeI)
+                    / (latitudeJ - latitudeI) + longitudeI) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    private static void readPolygons(JsonElement element, List<double[][]> polygons) {
+        if (element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            if (object.has("geometry")) {
+                readPolygons(object.get("geometry"), polygons);
+            } else if (object.has("features")) {
+                for (JsonElement feature : object.getAsJsonArray("features")) {
+                    readPolygons(feature, polygons);
+                }
+            } else if (object.has("type") && object.has("coordinates")) {
+                String type = object.get("type").getAsString();
+                if ("Polygon".equalsIgnoreCase(type)) {
+                    addPolygon(object.getAsJsonArray("coordinates"), polygons);
+                } else if ("MultiPolygon".equalsIgnoreCase(type)) {
+                    for (JsonElement polygon : object.getAsJsonArray("coordinates")) {
+                        addPolygon(polygon.getAsJsonArray(), polygons);
+                    }
+                }
+            }
+        } else if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            if (array.size() == 0) {
+                return;
+            }
+            if (array.get(0).isJsonObject() && array.get(0).getAsJsonObject().has("lat")) {
+                double[] ring = new double[array.size() * 2];
+                for (int i = 0; i < array.size(); i++) {
+                    JsonObject point = array.get(i).getAsJsonObject();
+                    ring[2 * i] = point.get(point.has("lng") ? "lng" : "lon").getAsDouble();
+                    ring[2 * i + 1] = point.get("lat").getAsDouble();
+                }
+                addRing(ring, polygons);
+            } else if (array.get(0).isJsonArray()) {
+                for (JsonElement child : array) {
+                    readPolygons(child, polygons);
+                }
+            }
+        }
+    }
+
+    private static void addPolygon(JsonArray rings, List<double[][]> polygons) {
+        List<double[]> polygon = new ArrayList<>();
+        for (JsonElement ringElement : rings) {
+            JsonArray points = ringElement.getAsJsonArray();
+            double[] ring = new double[points.size() * 2];
+            for (int i = 0; i < points.size(); i++) {
+                JsonArray point = points.get(i).getAsJsonArray();
+                ring[2 * i] = point.get(0).getAsDouble();
+                ring[2 * i + 1] = point.get(1).getAsDouble();
+            }
+            if (ring.length >= 6) {
+                polygon.add(ring);
+            }
+        }
+        if (!polygon.isEmpty()) {
+            polygons.add(polygon.toArray(new double[0][]));
+        }
+    }
+
+    private static void addRing(double[] ring, List<double[][]> polygons) {
+        if (ring.length >= 6) {
+            polygons.add(new double[][]{ring});
+        }
+    }
+}
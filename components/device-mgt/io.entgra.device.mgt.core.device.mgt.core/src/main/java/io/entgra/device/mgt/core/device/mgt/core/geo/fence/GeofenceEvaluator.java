@@ -0,0 +1,515 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.geo.fence;
+
+import io.entgra.device.mgt.core.device.mgt.common.Device;
+import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
+import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceLocation;
+import io.entgra.device.mgt.core.device.mgt.common.geo.service.GeofenceData;
+import io.entgra.device.mgt.core.device.mgt.common.group.mgt.DeviceGroup;
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceConfigurationManager;
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceManagementConfig;
+import io.entgra.device.mgt.core.device.mgt.core.config.geo.location.GeofenceEvaluationConfiguration;
+import io.entgra.device.mgt.core.device.mgt.core.dao.DeviceManagementDAOException;
+import io.entgra.device.mgt.core.device.mgt.core.dao.EventManagementDAOFactory;
+import io.entgra.device.mgt.core.device.mgt.core.dao.GroupManagementDAOException;
+import io.entgra.device.mgt.core.device.mgt.core.dao.GroupManagementDAOFactory;
+import io.entgra.device.mgt.core.device.mgt.core.dto.event.config.GeoFenceGroupMap;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Evaluates the locations reported by devices against the geofences of their tenant, without an analytics server.
+ * <p>
+ * The geofences of a tenant are loaded into a {@link GeofenceIndex} on the first location of the tenant, reloaded
+ * once they are older than the refresh interval, and as soon as they are changed on this node. A geofence applies to
+ * the devices of its groups, which are looked up for a device only when it is within the bounds of a geofence, and
+ * kept for the refresh interval.
+ * <p>
+ * The geofences each device is within are tracked from one location to the next, to find when it enters or exits a
+ * geofence, or stays within one for the stationary time, which is reported once per stay. The first location of a
+ * device seen by this node sets where it is without reporting anything, and locations older than the last one
+ * evaluated are ignored. Transitions are queued in a bounded ring, which is drained to the registered
+ * {@link GeofenceEventListener}s every flush interval. Transitions which do not fit in the ring are dropped, and so
+ * are the transitions drained while no listener is registered.
+ * <p>
+ * Other bundles receive the transitions by registering their {@link GeofenceEventListener} as an OSGi service,
+ * which the device management component passes to {@link #registerListener(GeofenceEventListener)}. Listeners
+ * registered that way are kept across restarts of the evaluator, unlike those added to an instance with
+ * {@link #addListener(GeofenceEventListener)}.
+ */
+public class GeofenceEvaluator {
+
+    private static final Log log = LogFactory.getLog(GeofenceEvaluator.class);
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+    private static final int[] NO_IDS = new int[0];
+    private static volatile GeofenceEvaluator instance;
+    private static volatile boolean initialized;
+    private static final List<GeofenceEventListener> registeredListeners = new CopyOnWriteArrayList<>();
+
+    private final int gridLength;
+    private final long stationaryTime;
+    private final long refreshInterval;
+    private final ConcurrentMap<Integer, TenantState> tenantStates = new ConcurrentHashMap<>();
+    private final BlockingQueue<GeofenceEvent> events;
+    private final List<GeofenceEventListener> listeners = new CopyOnWriteArrayList<>();
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService flushExecutor;
+
+    private final LongAdder evaluatedCount = new LongAdder();
+    private final LongAdder outOfOrderCount = new LongAdder();
+    private final LongAdder emittedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+
+    /**
+     * @param config    configuration of the evaluator
+     * @param scheduled whether to deliver transitions periodically, or only when {@link #flush()} is called
+     */
+    GeofenceEvaluator(GeofenceEvaluationConfiguration config, boolean scheduled) {
+        this.gridLength = config.getGridGeohashLength();
+        this.stationaryTime = Math.max(config.getStationaryTime(), 0) * 1000L;
+        this.refreshInterval = Math.max(config.getRefreshInterval(), 1) * 1000L;
+        this.events = new ArrayBlockingQueue<>(Math.max(config.getQueueCapacity(), 1));
+        if (scheduled) {
+            long flushInterval = Math.max(config.getFlushInterval(), 10);
+            flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "geofence-event-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flushExecutor.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            flushExecutor = null;
+        }
+    }
+
+    /**
+     * @return the evaluator, or null if geofences are not to be evaluated in process
+     */
+    public static GeofenceEvaluator getInstance() {
+        if (!initialized) {
+            synchronized (GeofenceEvaluator.class) {
+                if (!initialized) {
+                    DeviceManagementConfig config = DeviceConfigurationManager.getInstance()
+                            .getDeviceManagementConfig();
+                    if (config != null && config.getGeoLocationConfiguration() != null) {
+                        GeofenceEvaluationConfiguration evaluationConfig = config.getGeoLocationConfiguration()
+                                .getGeofenceEvaluationConfiguration();
+                        if (evaluationConfig != null && evaluationConfig.isEnabled()) {
+                            instance = new GeofenceEvaluator(evaluationConfig, true);
+                        }
+                    }
+                    initialized = true;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Stops the evaluator, if it has been started, after delivering the queued transitions.
+     */
+    public static void shutdown() {
+        synchronized (GeofenceEvaluator.class) {
+            if (instance != null) {
+                instance.close();
+                instance = null;
+            }
+            initialized = true;
+        }
+    }
+
+    /**
+     * Registers a listener with the evaluator of this node, whether it has been started yet or not.
+     *
+     * @param listener listener to receive the transitions of all tenants
+     */
+    public static void registerListener(GeofenceEventListener listener) {
+        registeredListeners.add(listener);
+    }
+
+    public static void unregisterListener(GeofenceEventListener listener) {
+        registeredListeners.remove(listener);
+    }
+
+    public void addListener(GeofenceEventListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(GeofenceEventListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Evaluates a location reported by a device. The caller must not have opened a connection of the event or the
+     * group management DAO factories, since one is opened when the geofences of the tenant or the groups of the
+     * device have to be loaded.
+     *
+     * @param tenantId       id of the tenant of the device
+     * @param device         device which reported the location
+     * @param deviceLocation location reported by the device
+     */
+    public void evaluate(int tenantId, Device device, DeviceLocation deviceLocation) {
+        if (deviceLocation.getLatitude() == null || deviceLocation.getLongitude() == null) {
+            return;
+        }
+        GeofenceIndex index = getIndex(tenantId);
+        if (index == null) {
+            return;
+        }
+        long time = deviceLocation.getUpdatedTime() != null ? deviceLocation.getUpdatedTime().getTime()
+                : System.currentTimeMillis();
+        evaluate(tenantId, index, device.getId(),
+                new DeviceIdentifier(device.getDeviceIdentifier(), device.getType()),
+                () -> loadGroupIds(device.getId(), tenantId), deviceLocation.getLatitude(),
+                deviceLocation.getLongitude(), time);
+    }
+
+    /**
+     * Makes the geofences of a tenant to be reloaded before its next location is evaluated, after they have been
+     * changed.
+     *
+     * @param tenantId id of the tenant
+     */
+    public void invalidateGeofences(int tenantId) {
+        TenantState tenantState = tenantStates.get(tenantId);
+        if (tenantState != null) {
+            tenantState.loadedTime = 0;
+        }
+    }
+
+    /**
+     * Forgets the geofences a device is within, after it has been removed.
+     *
+     * @param tenantId id of the tenant of the device
+     * @param deviceId id of the device
+     */
+    public void removeDevice(int tenantId, int deviceId) {
+        TenantState tenantState = tenantStates.get(tenantId);
+        if (tenantState != null) {
+            tenantState.deviceStates.remove(deviceId);
+        }
+    }
+
+    /**
+     * Delivers the queued transitions to the listeners.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            if (events.isEmpty()) {
+                return;
+            }
+            List<GeofenceEvent> batch = new ArrayList<>(events.size());
+            events.drainTo(batch);
+            List<GeofenceEvent> delivered = Collections.unmodifiableList(batch);
+            if (listeners.isEmpty() && registeredListeners.isEmpty()) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Discarding " + batch.size() + " geofence events as no listener is registered");
+                }
+                return;
+            }
+            deliver(listeners, delivered);
+            deliver(registeredListeners, delivered);
+        }
+    }
+
+    private void deliver(List<GeofenceEventListener> targets, List<GeofenceEvent> delivered) {
+        for (GeofenceEventListener listener : targets) {
+            try {
+                listener.onGeofenceEvents(delivered);
+            } catch (RuntimeException e) {
+                log.error("Geofence event listener " + listener.getClass().getName() + " failed to handle "
+                        + delivered.size() + " events", e);
+            }
+        }
+    }
+
+    public int getPendingCount() {
+        return events.size();
+    }
+
+    public long getEvaluatedCount() {
+        return evaluatedCount.sum();
+    }
+
+    /**
+     * @return number of locations which were ignored as they were older than the last location of their device
+     */
+    public long getOutOfOrderCount() {
+        return outOfOrderCount.sum();
+    }
+
+    public long getEmittedCount() {
+        return emittedCount.sum();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Replaces the geofences of a tenant, which are then kept until the refresh interval passes or they are
+     * invalidated.
+     */
+    void setGeofences(int tenantId, GeofenceIndex index) {
+        TenantState tenantState = tenantStates.computeIfAbsent(tenantId, k -> new TenantState());
+        tenantState.index = index;
+        tenantState.loadedTime = System.currentTimeMillis();
+    }
+
+    /**
+     * @param groupIds supplies the groups of the device, or null if they could not be found, when they are needed
+     */
+    void evaluate(int tenantId, GeofenceIndex index, int deviceId, DeviceIdentifier deviceIdentifier,
+                  Supplier<int[]> groupIds, double latitude, double longitude, long time) {
+        evaluatedCount.increment();
+        TenantState tenantState = tenantStates.computeIfAbsent(tenantId, k -> new TenantState());
+        DeviceState deviceState = tenantState.deviceStates.computeIfAbsent(deviceId, k -> new DeviceState());
+        List<Geofence> containing = new ArrayList<>(4);
+        index.findContaining(latitude, longitude, containing);
+        synchronized (deviceState) {
+            if (deviceState.lastTime != Long.MIN_VALUE && time < deviceState.lastTime) {
+                outOfOrderCount.increment();
+                return;
+            }
+            int[] fenceIds = NO_IDS;
+            if (!containing.isEmpty()) {
+                int[] deviceGroupIds = deviceState.getGroupIds(groupIds, refreshInterval);
+                fenceIds = new int[containing.size()];
+                int count = 0;
+                for (Geofence geofence : containing) {
+                    if (geofence.appliesTo(deviceGroupIds)) {
+                        fenceIds[count++] = geofence.getId();
+                    }
+                }
+                fenceIds = Arrays.copyOf(fenceIds, count);
+                Arrays.sort(fenceIds);
+            }
+            boolean baseline = deviceState.lastTime == Long.MIN_VALUE;
+            long[] enteredTimes = new long[fenceIds.length];
+            boolean[] stationaryReported = new boolean[fenceIds.length];
+            int[] previousIds = deviceState.fenceIds;
+            int i = 0;
+            int j = 0;
+            while (i < previousIds.length || j < fenceIds.length) {
+                if (j == fenceIds.length || (i < previousIds.length && previousIds[i] < fenceIds[j])) {
+                    if (index.get(previousIds[i]) != null) {
+                        emit(tenantId, deviceId, deviceIdentifier, previousIds[i], GeofenceEvent.Type.EXIT,
+                                latitude, longitude, time);
+                    }
+                    i++;
+                } else if (i == previousIds.length || fenceIds[j] < previousIds[i]) {
+                    enteredTimes[j] = time;
+                    if (!baseline) {
+                        emit(tenantId, deviceId, deviceIdentifier, fenceIds[j], GeofenceEvent.Type.ENTER,
+                                latitude, longitude, time);
+                    }
+                    j++;
+                } else {
+                    enteredTimes[j] = deviceState.enteredTimes[i];
+                    stationaryReported[j] = deviceState.stationaryReported[i];
+                    if (!stationaryReported[j] && time - enteredTimes[j] >= stationaryTime) {
+                        stationaryReported[j] = true;
+                        emit(tenantId, deviceId, deviceIdentifier, fenceIds[j], GeofenceEvent.Type.STATIONARY,
+                                latitude, longitude, time);
+                    }
+                    i++;
+                    j++;
+                }
+            }
+            deviceState.fenceIds = fenceIds;
+            deviceState.enteredTimes = enteredTimes;
+            deviceState.stationaryReported = stationaryReported;
+            deviceState.lastTime = time;
+        }
+    }
+
+    void close() {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+            try {
+                if (!flushExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    log.warn("Geofence event flush did not complete within " + SHUTDOWN_TIMEOUT_SECONDS
+                            + " seconds");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flushQuietly();
+    }
+
+    private void emit(int tenantId, int deviceId, DeviceIdentifier deviceIdentifier, int fenceId,
+                      GeofenceEvent.Type type, double latitude, double longitude, long time) {
+        if (events.offer(new GeofenceEvent(tenantId, deviceId, deviceIdentifier, fenceId, type, latitude, longitude,
+                time))) {
+            emittedCount.increment();
+        } else {
+            droppedCount.increment();
+        }
+    }
+
+    private GeofenceIndex getIndex(int tenantId) {
+        TenantState tenantState = tenantStates.computeIfAbsent(tenantId, k -> new TenantState());
+        GeofenceIndex index = tenantState.index;
+        if (index != null && System.currentTimeMillis() - tenantState.loadedTime < refreshInterval) {
+            return index;
+        }
+        synchronized (tenantState) {
+            if (tenantState.index != null && System.currentTimeMillis() - tenantState.loadedTime < refreshInterval) {
+                return tenantState.index;
+            }
+            long startTime = System.currentTimeMillis();
+            try {
+                tenantState.index = loadIndex(tenantId);
+                tenantState.loadedTime = startTime;
+                if (log.isDebugEnabled()) {
+                    log.debug("Loaded " + tenantState.index.size() + " geofences of tenant " + tenantId + " in "
+                            + (System.currentTimeMillis() - startTime) + " ms");
+                }
+            } catch (SQLException | DeviceManagementDAOException e) {
+                // Keep evaluating against the geofences loaded before, and retry after the refresh interval
+                log.error("Error occurred while loading the geofences of tenant " + tenantId, e);
+                tenantState.loadedTime = startTime;
+            }
+            return tenantState.index;
+        }
+    }
+
+    private GeofenceIndex loadIndex(int tenantId) throws SQLException, DeviceManagementDAOException {
+        List<GeofenceData> geofenceData;
+        Map<Integer, List<Integer>> fenceGroupIds = new HashMap<>();
+        try {
+            EventManagementDAOFactory.openConnection();
+            geofenceData = EventManagementDAOFactory.getGeofenceDAO().getGeoFencesOfTenant(tenantId);
+            if (!geofenceData.isEmpty()) {
+                List<Integer> fenceIds = new ArrayList<>(geofenceData.size());
+                for (GeofenceData geofence : geofenceData) {
+                    fenceIds.add(geofence.getId());
+                }
+                for (GeoFenceGroupMap groupMap : EventManagementDAOFactory.getGeofenceDAO()
+                        .getGroupIdsOfGeoFences(fenceIds)) {
+                    fenceGroupIds.computeIfAbsent(groupMap.getFenceId(), k -> new ArrayList<>())
+                            .add(groupMap.getGroupId());
+                }
+            }
+        } finally {
+            EventManagementDAOFactory.closeConnection();
+        }
+        List<Geofence> geofences = new ArrayList<>(geofenceData.size());
+        for (GeofenceData data : geofenceData) {
+            List<Integer> groupIds = fenceGroupIds.getOrDefault(data.getId(), Collections.emptyList());
+            Geofence geofence = Geofence.of(data, toArray(groupIds));
+            if (geofence == null) {
+                log.warn("Geofence " + data.getId() + " of tenant " + tenantId + " has no valid shape, hence it "
+                        + "is not evaluated");
+            } else if (geofence.hasGroups()) {
+                geofences.add(geofence);
+            }
+        }
+        return new GeofenceIndex(geofences, gridLength);
+    }
+
+    private int[] loadGroupIds(int deviceId, int tenantId) {
+        try {
+            GroupManagementDAOFactory.openConnection();
+            List<DeviceGroup> groups = GroupManagementDAOFactory.getGroupDAO().getGroups(deviceId, tenantId);
+            int[] groupIds = new int[groups.size()];
+            for (int i = 0; i < groupIds.length; i++) {
+                groupIds[i] = groups.get(i).getGroupId();
+            }
+            Arrays.sort(groupIds);
+            return groupIds;
+        } catch (SQLException | GroupManagementDAOException e) {
+            log.error("Error occurred while retrieving the groups of device " + deviceId, e);
+            return null;
+        } finally {
+            GroupManagementDAOFactory.closeConnection();
+        }
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Unexpected error occurred while delivering geofence events", e);
+        }
+    }
+
+    private static class TenantState {
+
+        private final ConcurrentMap<Integer, DeviceState> deviceStates = new ConcurrentHashMap<>();
+        private volatile GeofenceIndex index;
+        private volatile long loadedTime;
+    }
+
+    /**
+     * Geofences a device is within, sorted by id, along with when it entered each of them and whether its stay has
+     * been reported, all guarded by the state itself.
+     */
+    private static class DeviceState {
+
+        private long lastTime = Long.MIN_VALUE;
+        private int[] fenceIds = NO_IDS;
+        private long[] enteredTimes = new long[0];
+        private boolean[] stationaryReported = new boolean[0];
+        private int[] groupIds;
+        private long groupsLoadedTime;
+
+        private int[] getGroupIds(Supplier<int[]> supplier, long maxAge) {
+            long now = System.currentTimeMillis();
+            if (groupIds == null || now - groupsLoadedTime >= maxAge) {
+                int[] loaded = supplier.get();
+                if (loaded == null) {
+                    return groupIds == null ? NO_IDS : groupIds;
+                }
+                groupIds = loaded;
+                groupsLoadedTime = now;
+            }
+            return groupIds;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.geo.fence;
+
+import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
+
+/**
+ * Transition of a device with respect to a geofence, found while evaluating a location reported by the device.
+ */
+public class GeofenceEvent {
+
+    public enum Type {
+        /**
+         * The device has moved into the geofence.
+         */
+        ENTER,
+        /**
+         * The device has moved out of the geofence.
+         */
+        EXIT,
+        /**
+         * The device has stayed within the geofence for the stationary time.
+         */
+        STATIONARY
+    }
+
+    private final int tenantId;
+    private final int deviceId;
+    private final DeviceIdentifier deviceIdentifier;
+    private final int fenceId;
+    private final Type type;
+    private final double latitude;
+    private final double longitude;
+    private final long timestamp;
+
+    public GeofenceEvent(int tenantId, int deviceId, DeviceIdentifier deviceIdentifier, int fenceId, Type type,
+                         double latitude, double longitude, long timestamp) {
+        this.tenantId = tenantId;
+        this.deviceId = deviceId;
+        this.deviceIdentifier = deviceIdentifier;
+        this.fenceId = fenceId;
+        this.type = type;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.timestamp = timestamp;
+    }
+
+    public int getTenantId() {
+        return tenantId;
+    }
+
+    public int getDeviceId() {
+        return deviceId;
+    }
+
+    public DeviceIdentifier getDeviceIdentifier() {
+        return deviceIdentifier;
+    }
+
+    public int getFenceId() {
+        return fenceId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * @return time of the location report which caused the transition, in milliseconds
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return type + " of device " + deviceId + " at geofence " + fenceId + " of tenant " + tenantId;
+    }
+}
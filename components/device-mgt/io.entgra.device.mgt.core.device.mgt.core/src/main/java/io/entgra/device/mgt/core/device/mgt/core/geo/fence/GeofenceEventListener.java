@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.geo.fence;
+
+import java.util.List;
+
+/**
+ * Receives the geofence transitions found by the {@link GeofenceEvaluator}. Implementations registered as OSGi
+ * services are bound by the device management component and receive the transitions of all tenants.
+ */
+public interface GeofenceEventListener {
+
+    /**
+     * Called from the flush thread of the evaluator with the transitions found since the previous call, in the order
+     * in which they were found. Implementations should hand slow work off to their own threads.
+     *
+     * @param events transitions of devices, which may belong to several tenants
+     */
+    void onGeofenceEvents(List<GeofenceEvent> events);
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.geo.fence;
+
+import io.entgra.device.mgt.core.device.mgt.core.geo.geoHash.GeoHash;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable grid of the geofences of a tenant, which maps each geohash cell of a fixed length to the geofences whose
+ * bounding boxes overlap it, so that only a handful of geofences are tested for each location. Geofences which would
+ * take too many cells, or which cross the antimeridian, are tested for every location instead.
+ */
+final class GeofenceIndex {
+
+    static final int MAX_CELLS_PER_GEOFENCE = 1024;
+    private static final Geofence[] NO_GEOFENCES = new Geofence[0];
+
+    private final int gridLength;
+    private final double cellHeight;
+    private final double cellWidth;
+    private final Map<Long, Geofence[]> cells = new HashMap<>();
+    private final Geofence[] wideGeofences;
+    private final Map<Integer, Geofence> geofences = new HashMap<>();
+
+    /**
+     * @param geofences  geofences to index
+     * @param gridLength length of the geohash cells of the grid
+     */
+    GeofenceIndex(Collection<Geofence> geofences, int gridLength) {
+        this.gridLength = Math.max(1, Math.min(gridLength, GeoHash.MAX_LENGTH));
+        long cell = GeoHash.encode(0, 0, this.gridLength);
+        this.cellHeight = GeoHash.northLatitude(cell) - GeoHash.southLatitude(cell);
+        this.cellWidth = GeoHash.eastLongitude(cell) - GeoHash.westLongitude(cell);
+        Map<Long, List<Geofence>> cellLists = new HashMap<>();
+        List<Geofence> wide = new ArrayList<>();
+        for (Geofence geofence : geofences) {
+            this.geofences.put(geofence.getId(), geofence);
+            if (isWide(geofence)) {
+                wide.add(geofence);
+                continue;
+            }
+            for (long hash : GeoHash.cover(geofence.getMinLatitude(), geofence.getMinLongitude(),
+                    geofence.getMaxLatitude(), geofence.getMaxLongitude(), this.gridLength)) {
+                cellLists.computeIfAbsent(hash, k -> new ArrayList<>(2)).add(geofence);
+            }
+        }
+        for (Map.Entry<Long, List<Geofence>> entry : cellLists.entrySet()) {
+            cells.put(entry.getKey(), entry.getValue().toArray(NO_GEOFENCES));
+        }
+        this.wideGeofences = wide.toArray(NO_GEOFENCES);
+    }
+
+    /**
+     * Adds the geofences containing a location to a list.
+     *
+     * @param latitude  latitude of the location
+     * @param longitude longitude of the location
+     * @param result    list to add the geofences to
+     */
+    void findContaining(double latitude, double longitude, List<Geofence> result) {
+        Geofence[] candidates = cells.get(GeoHash.encode(latitude, longitude, gridLength));
+        if (candidates != null) {
+            for (Geofence geofence : candidates) {
+                if (geofence.contains(latitude, longitude)) {
+                    result.add(geofence);
+                }
+            }
+        }
+        for (Geofence geofence : wideGeofences) {
+            if (geofence.contains(latitude, longitude)) {
+                result.add(geofence);
+            }
+        }
+    }
+
+    /**
+     * @param id id of a geofence
+     * @return the geofence, or null if it is not in the index
+     */
+    Geofence get(int id) {
+        return geofences.get(id);
+    }
+
+    int size() {
+        return geofences.size();
+    }
+
+    private boolean isWide(Geofence geofence) {
+        if (geofence.getMinLongitude() < -180.0 || geofence.getMaxLongitude() > 180.0) {
+            return true;
+        }
+        double rows = Math.floor((geofence.getMaxLatitude() - geofence.getMinLatitude()) / cellHeight) + 2;
+        double columns = Math.floor((geofence.getMaxLongitude() - geofence.getMinLongitude()) / cellWidth) + 2;
+        return rows * columns > MAX_CELLS_PER_GEOFENCE;
+    }
+}
@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.geo.geoHash;
+
+import java.util.Arrays;
+
+/**
+ * Geohash codec which works on geohashes packed into a long, so that locations can be encoded, compared, grouped by
+ * prefix and decoded without allocating strings. Geohashes are converted to strings only where they are stored.
+ * <p>
+ * The bits of a packed geohash are left aligned, with the first bit of the first character at the highest bit, and
+ * the length of the geohash in characters is kept in the lowest {@value #LENGTH_BITS} bits. Hence a packed geohash
+ * of a given length is never 0, and packed geohashes of the same length sort in the order of their strings when
+ * compared as unsigned numbers. Packed geohashes are at most {@value #MAX_LENGTH} characters long.
+ * <p>
+ * Locations are encoded by halving the ranges of the longitude and the latitude in turn, starting with the
+ * longitude, the same way as {@link GeoHashGenerator}.
+ */
+public final class GeoHash {
+
+    /**
+     * Maximum length of a packed geohash.
+     */
+    public static final int MAX_LENGTH = 12;
+
+    /**
+     * Maximum length of a geohash string encoded by {@link #encodeToString(double, double, int)}, which is the
+     * length of the geohashes stored along with device locations.
+     */
+    public static final int MAX_STRING_LENGTH = 16;
+
+    /**
+     * Empty geohash covering the whole world, whose children are the geohashes of one character.
+     */
+    public static final long ROOT = 0L;
+
+    /**
+     * Returned instead of a geohash which does not exist, such as the neighbor of a geohash beyond a pole.
+     */
+    public static final long NONE = -1L;
+
+    private static final int BITS_PER_CHARACTER = 5;
+    private static final int LENGTH_BITS = 4;
+    private static final long LENGTH_MASK = (1L << LENGTH_BITS) - 1;
+    private static final int COORDINATE_BITS = MAX_LENGTH * BITS_PER_CHARACTER / 2;
+    private static final int MAX_COORDINATE_BITS = (MAX_STRING_LENGTH * BITS_PER_CHARACTER + 1) / 2;
+    private static final char[] BASE_32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final byte[] BASE_32_INDEXES = new byte[128];
+
+    static {
+        Arrays.fill(BASE_32_INDEXES, (byte) -1);
+        for (int i = 0; i < BASE_32.length; i++) {
+            BASE_32_INDEXES[BASE_32[i]] = (byte) i;
+        }
+    }
+
+    private GeoHash() {
+    }
+
+    /**
+     * @param latitude  latitude of the location
+     * @param longitude longitude of the location
+     * @param length    length of the geohash, from 1 to {@link #MAX_LENGTH}
+     * @return packed geohash of the location
+     */
+    public static long encode(double latitude, double longitude, int length) {
+        checkLength(length, 1, MAX_LENGTH);
+        long bits = spread(quantize(longitude, -180.0, 180.0, COORDINATE_BITS)) << 1
+                | spread(quantize(latitude, -90.0, 90.0, COORDINATE_BITS));
+        return bits << LENGTH_BITS & prefixMask(length) | length;
+    }
+
+    /**
+     * Encodes a location straight into a geohash string, which may be longer than a packed geohash.
+     *
+     * @param latitude  latitude of the location
+     * @param longitude longitude of the location
+     * @param length    length of the geohash, from 1 to {@link #MAX_STRING_LENGTH}
+     * @return geohash of the location
+     */
+    public static String encodeToString(double latitude, double longitude, int length) {
+        checkLength(length, 1, MAX_STRING_LENGTH);
+        int bitCount = length * BITS_PER_CHARACTER;
+        int longitudeBits = (bitCount + 1) / 2;
+        int latitudeBits = bitCount / 2;
+        long longitudeIndex = quantize(longitude, -180.0, 180.0, longitudeBits);
+        long latitudeIndex = quantize(latitude, -90.0, 90.0, latitudeBits);
+        char[] geohash = new char[length];
+        int character = 0;
+        for (int bit = 0; bit < bitCount; bit++) {
+            long coordinateBit = bit % 2 == 0
+                    ? longitudeIndex >>> (longitudeBits - 1 - bit / 2)
+                    : latitudeIndex >>> (latitudeBits - 1 - bit / 2);
+            character = character << 1 | (int) (coordinateBit & 1);
+            if (bit % BITS_PER_CHARACTER == BITS_PER_CHARACTER - 1) {
+                geohash[bit / BITS_PER_CHARACTER] = BASE_32[character];
+                character = 0;
+            }
+        }
+        return new String(geohash);
+    }
+
+    /**
+     * @param geohash geohash string of at most {@link #MAX_LENGTH} characters
+     * @return the packed geohash
+     * @throws IllegalArgumentException if the string is empty, too long or is not a geohash
+     */
+    public static long fromString(String geohash) {
+        checkLength(geohash.length(), 1, MAX_LENGTH);
+        long hash = ROOT;
+        for (int i = 0; i < geohash.length(); i++) {
+            char c = geohash.charAt(i);
+            int character = c < BASE_32_INDEXES.length ? BASE_32_INDEXES[c] : -1;
+            if (character < 0) {
+                throw new IllegalArgumentException("Invalid geohash '" + geohash + "'");
+            }
+            hash = child(hash, character);
+        }
+        return hash;
+    }
+
+    /**
+     * @param hash packed geohash
+     * @return the geohash string
+     */
+    public static String toString(long hash) {
+        int length = length(hash);
+        char[] geohash = new char[length];
+        for (int i = 0; i < length; i++) {
+            geohash[i] = BASE_32[character(hash, i)];
+        }
+        return new String(geohash);
+    }
+
+    /**
+     * @param hash packed geohash
+     * @return length of the geohash in characters
+     */
+    public static int length(long hash) {
+        return (int) (hash & LENGTH_MASK);
+    }
+
+    /**
+     * @param hash  packed geohash
+     * @param index index of the character
+     * @return value of the character at the given index, from 0 to 31
+     */
+    public static int character(long hash, int index) {
+        return (int) (hash >>> (Long.SIZE - (index + 1) * BITS_PER_CHARACTER)) & 31;
+    }
+
+    /**
+     * @param hash   packed geohash
+     * @param length length of the prefix, at most the length of the geohash
+     * @return the packed prefix of the geohash
+     */
+    public static long prefix(long hash, int length) {
+        checkLength(length, 1, length(hash));
+        return hash & prefixMask(length) | length;
+    }
+
+    /**
+     * @param hash      packed geohash shorter than {@link #MAX_LENGTH}, or {@link #ROOT}
+     * @param character value of the character to append, from 0 to 31
+     * @return the packed geohash extended by the character
+     */
+    public static long child(long hash, int character) {
+        int length = length(hash) + 1;
+        checkLength(length, 1, MAX_LENGTH);
+        return hash & ~LENGTH_MASK | (long) (character & 31) << (Long.SIZE - length * BITS_PER_CHARACTER) | length;
+    }
+
+    /**
+     * @param hash packed geohash
+     * @return latitude of the centre of the geohash cell
+     */
+    public static double latitude(long hash) {
+        return (southLatitude(hash) + northLatitude(hash)) / 2;
+    }
+
+    /**
+     * @param hash packed geohash
+     * @return longitude of the centre of the geohash cell
+     */
+    public static double longitude(long hash) {
+        return (westLongitude(hash) + eastLongitude(hash)) / 2;
+    }
+
+    public static double southLatitude(long hash) {
+        int bits = latitudeBits(length(hash));
+        return -90.0 + latitudeIndex(hash) * (180.0 / (1L << bits));
+    }
+
+    public static double northLatitude(long hash) {
+        int bits = latitudeBits(length(hash));
+        return -90.0 + (latitudeIndex(hash) + 1) * (180.0 / (1L << bits));
+    }
+
+    public static double westLongitude(long hash) {
+        int bits = longitudeBits(length(hash));
+        return -180.0 + longitudeIndex(hash) * (360.0 / (1L << bits));
+    }
+
+    public static double eastLongitude(long hash) {
+        int bits = longitudeBits(length(hash));
+        return -180.0 + (longitudeIndex(hash) + 1) * (360.0 / (1L << bits));
+    }
+
+    /**
+     * @return true if the geohash cell overlaps the given area, including touching its edges
+     */
+    public static boolean intersects(long hash, double minLatitude, double minLongitude, double maxLatitude,
+                                     double maxLongitude) {
+        return southLatitude(hash) <= maxLatitude && northLatitude(hash) >= minLatitude
+                && westLongitude(hash) <= maxLongitude && eastLongitude(hash) >= minLongitude;
+    }
+
+    /**
+     * Finds the geohash cell of the same length which lies the given number of cells away. Longitudes wrap around
+     * the antimeridian, while there is no cell beyond the poles.
+     *
+     * @param hash           packed geohash
+     * @param latitudeSteps  number of cells to the north, or to the south if negative
+     * @param longitudeSteps number of cells to the east, or to the west if negative
+     * @return the packed geohash of the neighbor, or {@link #NONE} if it is beyond a pole
+     */
+    public static long neighbor(long hash, int latitudeSteps, int longitudeSteps) {
+        int length = length(hash);
+        long latitudeCells = 1L << latitudeBits(length);
+        long longitudeCells = 1L << longitudeBits(length);
+        long latitudeIndex = latitudeIndex(hash) + latitudeSteps;
+        if (latitudeIndex < 0 || latitudeIndex >= latitudeCells) {
+            return NONE;
+        }
+        long longitudeIndex = Math.floorMod(longitudeIndex(hash) + longitudeSteps, longitudeCells);
+        return fromIndexes(latitudeIndex, longitudeIndex, length);
+    }
+
+    /**
+     * Finds the geohash cells of a given length which cover an area, row by row from the south west. The area does
+     * not wrap around the antimeridian, so nothing is covered if the western bound is east of the eastern one.
+     *
+     * @param minLatitude  southern bound of the area
+     * @param minLongitude western bound of the area
+     * @param maxLatitude  northern bound of the area
+     * @param maxLongitude eastern bound of the area
+     * @param length       length of the geohashes, from 1 to {@link #MAX_LENGTH}
+     * @return packed geohashes of the cells
+     * @throws IllegalArgumentException if too many cells are needed to cover the area
+     */
+    public static long[] cover(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                               int length) {
+        checkLength(length, 1, MAX_LENGTH);
+        if (minLatitude > maxLatitude || minLongitude > maxLongitude) {
+            return new long[0];
+        }
+        int latitudeBits = latitudeBits(length);
+        int longitudeBits = longitudeBits(length);
+        long southIndex = quantize(minLatitude, -90.0, 90.0, latitudeBits);
+        long northIndex = quantize(maxLatitude, -90.0, 90.0, latitudeBits);
+        long westIndex = quantize(minLongitude, -180.0, 180.0, longitudeBits);
+        long eastIndex = quantize(maxLongitude, -180.0, 180.0, longitudeBits);
+        long count = (northIndex - southIndex + 1) * (eastIndex - westIndex + 1);
+        if (count > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Covering the area needs " + count + " geohashes of length "
+                    + length);
+        }
+        long[] hashes = new long[(int) count];
+        int i = 0;
+        for (long latitudeIndex = southIndex; latitudeIndex <= northIndex; latitudeIndex++) {
+            for (long longitudeIndex = westIndex; longitudeIndex <= eastIndex; longitudeIndex++) {
+                hashes[i++] = fromIndexes(latitudeIndex, longitudeIndex, length);
+            }
+        }
+        return hashes;
+    }
+
+    private static long fromIndexes(long latitudeIndex, long longitudeIndex, int length) {
+        long bits = spread(longitudeIndex << (COORDINATE_BITS - longitudeBits(length))) << 1
+                | spread(latitudeIndex << (COORDINATE_BITS - latitudeBits(length)));
+        return bits << LENGTH_BITS & prefixMask(length) | length;
+    }
+
+    private static long latitudeIndex(long hash) {
+        return compact(hash >>> LENGTH_BITS) >>> (COORDINATE_BITS - latitudeBits(length(hash)));
+    }
+
+    private static long longitudeIndex(long hash) {
+        return compact(hash >>> (LENGTH_BITS + 1)) >>> (COORDINATE_BITS - longitudeBits(length(hash)));
+    }
+
+    private static int latitudeBits(int length) {
+        return length * BITS_PER_CHARACTER / 2;
+    }
+
+    private static int longitudeBits(int length) {
+        return (length * BITS_PER_CHARACTER + 1) / 2;
+    }
+
+    /**
+     * Finds the cell of a value among the given number of equal cells of a range. The result is the same as halving
+     * the range the given number of times, the way {@link GeoHashGenerator} does, including for values on the
+     * boundary of two cells, which fall into the upper one. The arithmetic estimate is corrected against the exact
+     * bounds of the cell, which are exact doubles for up to {@value #MAX_COORDINATE_BITS} bits. Values out of the
+     * range fall into the first or the last cell.
+     */
+    private static long quantize(double value, double min, double max, int bits) {
+        long cells = 1L << bits;
+        double width = (max - min) / cells;
+        long index = Math.max(0, Math.min((long) ((value - min) / width), cells - 1));
+        if (index > 0 && value < min + index * width) {
+            index--;
+        } else if (index < cells - 1 && value >= min + (index + 1) * width) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Spreads the lowest 32 bits of a value to the even bits of a long.
+     */
+    private static long spread(long value) {
+        long bits = value & 0xFFFFFFFFL;
+        bits = (bits | bits << 16) & 0x0000FFFF0000FFFFL;
+        bits = (bits | bits << 8) & 0x00FF00FF00FF00FFL;
+        bits = (bits | bits << 4) & 0x0F0F0F0F0F0F0F0FL;
+        bits = (bits | bits << 2) & 0x3333333333333333L;
+        return (bits | bits << 1) & 0x5555555555555555L;
+    }
+
+    /**
+     * Gathers the even bits of a long into its lowest 32 bits.
+     */
+    private static long compact(long value) {
+        long bits = value & 0x5555555555555555L;
+        bits = (bits | bits >>> 1) & 0x3333333333333333L;
+        bits = (bits | bits >>> 2) & 0x0F0F0F0F0F0F0F0FL;
+        bits = (bits | bits >>> 4) & 0x00FF00FF00FF00FFL;
+        bits = (bits | bits >>> 8) & 0x0000FFFF0000FFFFL;
+        return (bits | bits >>> 16) & 0x00000000FFFFFFFFL;
+    }
+
+    private static long prefixMask(int length) {
+        return -1L << (Long.SIZE - length * BITS_PER_CHARACTER);
+    }
+
+    private static void checkLength(int length, int min, int max) {
+        if (length < min || length > max) {
+            throw new IllegalArgumentException("Geohash length " + length + " is not within " + min + " and "
+                    + max);
+        }
+    }
+}
@@ -23,23 +23,16 @@ import io.entgra.device.mgt.core.device.mgt.common.geo.service.GeoCoordinate;
 
 public class GeoHashGenerator {
 
+    /**
+     * Length of the geohashes stored along with device locations.
+     */
+    public static final int GEOHASH_LENGTH = 16;
+
     private static final String BASE_32 = "0123456789bcdefghjkmnpqrstuvwxyz";
-    private static final int GEOHASH_LENGTH = 16;
 
     private GeoHashGenerator() {
     }
 
-    private static int divideRangeByValue(double value, double[] range) {
-        double mid = middle(range);
-        if (value >= mid) {
-            range[0] = mid;
-            return 1;
-        } else {
-            range[1] = mid;
-            return 0;
-        }
-    }
-
     private static void divideRangeByBit(int bit, double[] range) {
         double mid = middle(range);
         if (bit > 0) {
@@ -54,32 +47,7 @@ public class GeoHashGenerator {
     }
 
     public static String encodeGeohash(double latitude, double longitude) {
-        double[] latRange = new double[]{-90.0, 90.0};
-        double[] lonRange = new double[]{-180.0, 180.0};
-        boolean isEven = true;
-        int bit = 0;
-        int base32CharIndex = 0;
-        StringBuilder geohash = new StringBuilder();
-
-        while (geohash.length() < GEOHASH_LENGTH) {
-            if (isEven) {
-                base32CharIndex = (base32CharIndex << 1) | divideRangeByValue(longitude, lonRange);
-            } else {
-                base32CharIndex = (base32CharIndex << 1) | divideRangeByValue(latitude, latRange);
-            }
-
-            isEven = !isEven;
-
-            if (bit < 4) {
-                bit++;
-            } else {
-                geohash.append(BASE_32.charAt(base32CharIndex));
-                bit = 0;
-                base32CharIndex = 0;
-            }
-        }
-
-        return geohash.toString();
+        return GeoHash.encodeToString(latitude, longitude, GEOHASH_LENGTH);
     }
 
     public static String encodeGeohash(DeviceLocation deviceLocation) {
@@ -36,6 +36,7 @@ import io.entgra.device.mgt.core.device.mgt.core.dao.EventManagementDAOFactory;
 import io.entgra.device.mgt.core.device.mgt.core.dao.GeofenceDAO;
 import io.entgra.device.mgt.core.device.mgt.core.dao.util.DeviceManagementDAOUtil;
 import io.entgra.device.mgt.core.device.mgt.core.dto.event.config.GeoFenceGroupMap;
+import io.entgra.device.mgt.core.device.mgt.core.geo.fence.GeofenceEvaluator;
 import io.entgra.device.mgt.core.device.mgt.core.internal.DeviceManagementDataHolder;
 import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.OperationMgtConstants;
 import io.entgra.device.mgt.core.identity.jwt.client.extension.JWTClient;
@@ -1263,6 +1264,7 @@ public class GeoLocationProviderServiceImpl implements GeoLocationProviderServic
                     .addFenceToCache(geofenceData, geofenceData.getId(), tenantId);
             geofenceDAO.createGeofenceGroupMapping(geofenceData, geofenceData.getGroupIds());
             EventManagementDAOFactory.commitTransaction();
+            invalidateGeofences(tenantId);
         } catch (TransactionManagementException e) {
             String msg = "Failed to begin transaction for saving geofence";
             log.error(msg, e);
@@ -1496,6 +1498,7 @@ public class GeoLocationProviderServiceImpl implements GeoLocationProviderServic
             geofenceDAO.deleteGeofenceById(fenceId);
             EventManagementDAOFactory.commitTransaction();
             GeoCacheManagerImpl.getInstance().removeFenceFromCache(fenceId, tenantId);
+            invalidateGeofences(tenantId);
         } catch (DeviceManagementDAOException e) {
             EventManagementDAOFactory.rollbackTransaction();
             String msg = "Error occurred while deleting geofence";
@@ -1547,6 +1550,7 @@ public class GeoLocationProviderServiceImpl implements GeoLocationProviderServic
             geofenceDAO.deleteGeofenceGroupMapping(groupIdsToDelete, fenceId);
             geofenceDAO.createGeofenceGroupMapping(geofenceData, groupIdsToAdd);
             EventManagementDAOFactory.commitTransaction();
+            invalidateGeofences(tenantId);
             try {
                 if (!groupIdsToDelete.isEmpty()) {
                     eventConfigService.createEventOperationTask(OperationMgtConstants.OperationCodes.EVENT_REVOKE,
@@ -1804,4 +1808,16 @@ public class GeoLocationProviderServiceImpl implements GeoLocationProviderServic
             throw new GeoLocationBasedServiceException(msg, e);
         }
     }
+
+    /**
+     * Makes the in-process geofence evaluator reload the geofences of a tenant after they have been changed.
+     *
+     * @param tenantId id of the tenant
+     */
+    private void invalidateGeofences(int tenantId) {
+        GeofenceEvaluator geofenceEvaluator = GeofenceEvaluator.getInstance();
+        if (geofenceEvaluator != null) {
+            geofenceEvaluator.invalidateGeofences(tenantId);
+        }
+    }
 }
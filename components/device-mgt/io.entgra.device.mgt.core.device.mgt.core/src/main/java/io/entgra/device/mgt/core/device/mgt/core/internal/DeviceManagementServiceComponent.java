@@ -22,6 +22,8 @@ import io.entgra.device.mgt.core.device.mgt.common.exceptions.MetadataManagement
 import io.entgra.device.mgt.core.device.mgt.common.metadata.mgt.DeviceStatusManagementService;
 import io.entgra.device.mgt.core.device.mgt.core.authorization.GroupAccessAuthorizationServiceImpl;
 import io.entgra.device.mgt.core.device.mgt.core.dao.*;
+import io.entgra.device.mgt.core.device.mgt.core.geo.fence.GeofenceEvaluator;
+import io.entgra.device.mgt.core.device.mgt.core.geo.fence.GeofenceEventListener;
 import io.entgra.device.mgt.core.device.mgt.core.metadata.mgt.DeviceStatusManagementServiceImpl;
 import io.entgra.device.mgt.core.device.mgt.core.service.*;
 import io.entgra.device.mgt.core.server.bootup.heartbeat.beacon.service.HeartBeatManagementService;
@@ -61,6 +63,7 @@ import io.entgra.device.mgt.core.device.mgt.core.config.tenant.PlatformConfigura
 import io.entgra.device.mgt.core.device.mgt.core.config.ui.UIConfigurationManager;
 import io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.DeviceInformationManager;
 import io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.impl.DeviceInformationManagerImpl;
+import io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.ingestion.LocationIngestionPipeline;
 import io.entgra.device.mgt.core.device.mgt.core.event.config.EventConfigurationProviderServiceImpl;
 import io.entgra.device.mgt.core.device.mgt.core.geo.service.GeoLocationProviderServiceImpl;
 import io.entgra.device.mgt.core.device.mgt.core.metadata.mgt.MetadataManagementServiceImpl;
@@ -76,8 +79,11 @@ import io.entgra.device.mgt.core.device.mgt.core.permission.mgt.PermissionManage
 import io.entgra.device.mgt.core.device.mgt.core.privacy.PrivacyComplianceProvider;
 import io.entgra.device.mgt.core.device.mgt.core.privacy.impl.PrivacyComplianceProviderImpl;
 import io.entgra.device.mgt.core.device.mgt.core.push.notification.mgt.PushNotificationProviderRepository;
+import io.entgra.device.mgt.core.device.mgt.core.push.notification.mgt.dispatcher.PushNotificationDispatcher;
+import io.entgra.device.mgt.core.device.mgt.core.status.tracker.DeviceLastSeenTracker;
 import io.entgra.device.mgt.core.device.mgt.core.push.notification.mgt.task.PushNotificationSchedulerTask;
 import io.entgra.device.mgt.core.device.mgt.core.report.mgt.ReportManagementServiceImpl;
+import io.entgra.device.mgt.core.device.mgt.core.report.mgt.ReportingEventPublisher;
 import io.entgra.device.mgt.core.device.mgt.core.search.mgt.SearchManagerService;
 import io.entgra.device.mgt.core.device.mgt.core.search.mgt.impl.SearchManagerServiceImpl;
 import io.entgra.device.mgt.core.device.mgt.core.task.DeviceTaskManagerService;
@@ -245,7 +251,11 @@ public class DeviceManagementServiceComponent {
     @SuppressWarnings("unused")
     @Deactivate
     protected void deactivate(ComponentContext componentContext) {
-        //do nothing
+        PushNotificationDispatcher.shutdown();
+        DeviceLastSeenTracker.shutdown();
+        LocationIngestionPipeline.shutdown();
+        ReportingEventPublisher.shutdown();
+        GeofenceEvaluator.shutdown();
     }
 
     private void initOperationsManager() throws OperationManagementException {
@@ -649,6 +659,26 @@ public class DeviceManagementServiceComponent {
         DeviceManagementDataHolder.getInstance().setDeviceTaskManagerService(null);
     }
 
+    @Reference(
+            name = "geofence.event.listener",
+            service = io.entgra.device.mgt.core.device.mgt.core.geo.fence.GeofenceEventListener.class,
+            cardinality = ReferenceCardinality.MULTIPLE,
+            policy = ReferencePolicy.DYNAMIC,
+            unbind = "unsetGeofenceEventListener")
+    protected void setGeofenceEventListener(GeofenceEventListener geofenceEventListener) {
+        if (log.isDebugEnabled()) {
+            log.debug("Registering geofence event listener " + geofenceEventListener.getClass().getName());
+        }
+        GeofenceEvaluator.registerListener(geofenceEventListener);
+    }
+
+    protected void unsetGeofenceEventListener(GeofenceEventListener geofenceEventListener) {
+        if (log.isDebugEnabled()) {
+            log.debug("Unregistering geofence event listener " + geofenceEventListener.getClass().getName());
+        }
+        GeofenceEvaluator.unregisterListener(geofenceEventListener);
+    }
+
     /**
      * sets DeviceTypeGeneratorService.
      *
@@ -37,6 +37,7 @@ import io.entgra.device.mgt.core.device.mgt.common.OperationMonitoringTaskConfig
 import io.entgra.device.mgt.core.device.mgt.common.PaginationRequest;
 import io.entgra.device.mgt.core.device.mgt.common.PaginationResult;
 import io.entgra.device.mgt.core.device.mgt.common.authorization.DeviceAccessAuthorizationException;
+import io.entgra.device.mgt.core.device.mgt.common.authorization.DeviceAuthorizationResult;
 import io.entgra.device.mgt.core.device.mgt.common.exceptions.DeviceManagementException;
 import io.entgra.device.mgt.core.device.mgt.common.exceptions.InvalidDeviceException;
 import io.entgra.device.mgt.core.device.mgt.common.exceptions.TransactionManagementException;
@@ -47,10 +48,8 @@ import io.entgra.device.mgt.core.device.mgt.common.operation.mgt.ActivityStatus;
 import io.entgra.device.mgt.core.device.mgt.common.operation.mgt.Operation;
 import io.entgra.device.mgt.core.device.mgt.common.operation.mgt.OperationManagementException;
 import io.entgra.device.mgt.core.device.mgt.common.operation.mgt.OperationManager;
-import io.entgra.device.mgt.core.device.mgt.common.push.notification.NotificationContext;
 import io.entgra.device.mgt.core.device.mgt.common.push.notification.NotificationStrategy;
 import io.entgra.device.mgt.core.device.mgt.common.push.notification.PushNotificationConfig;
-import io.entgra.device.mgt.core.device.mgt.common.push.notification.PushNotificationExecutionFailedException;
 import io.entgra.device.mgt.core.device.mgt.common.push.notification.PushNotificationProvider;
 import io.entgra.device.mgt.core.device.mgt.common.spi.DeviceManagementService;
 import io.entgra.device.mgt.core.device.mgt.core.DeviceManagementConstants;
@@ -67,8 +66,11 @@ import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.dao.OperationMana
 import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.dao.OperationManagementDAOFactory;
 import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.dao.OperationMappingDAO;
 import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.dao.util.OperationDAOUtil;
+import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.pacing.BatchPacerFactory;
+import io.entgra.device.mgt.core.device.mgt.core.status.tracker.DeviceLastSeenTracker;
 import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.util.DeviceIDHolder;
 import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.util.OperationIdComparator;
+import io.entgra.device.mgt.core.device.mgt.core.push.notification.mgt.dispatcher.PushNotificationDispatcher;
 import io.entgra.device.mgt.core.device.mgt.core.service.DeviceManagementProviderService;
 import io.entgra.device.mgt.core.device.mgt.core.task.DeviceTaskManager;
 import io.entgra.device.mgt.core.device.mgt.core.task.impl.DeviceTaskManagerImpl;
@@ -79,6 +81,7 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -86,8 +89,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * This class implements all the functionality exposed as part of the OperationManager. Any transaction initiated
@@ -118,8 +119,6 @@ public class OperationManagerImpl implements OperationManager {
     private final Map<Integer, Long> lastUpdatedTimeStamps;
     private final ConcurrentMap<Integer, String> operationsInitBy;
 
-    private final ThreadPoolExecutor notificationExecutor;
-
     public OperationManagerImpl() {
         commandOperationDAO = OperationManagementDAOFactory.getCommandOperationDAO();
         configOperationDAO = OperationManagementDAOFactory.getConfigOperationDAO();
@@ -132,7 +131,6 @@ public class OperationManagerImpl implements OperationManager {
         notificationStrategies = new HashMap<>();
         lastUpdatedTimeStamps = new HashMap<>();
         operationsInitBy = new ConcurrentHashMap<>();
-        notificationExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(10);
     }
 
     public OperationManagerImpl(String deviceType, DeviceManagementService deviceManagementService) {
@@ -183,11 +181,17 @@ public class OperationManagerImpl implements OperationManager {
 
         String tenantId = String.valueOf(PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId());
         String tenantDomain = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain();
+        long resolutionStartTime = System.currentTimeMillis();
         DeviceIDHolder deviceValidationResult = DeviceManagerUtil.validateDeviceIdentifiers(deviceIds);
         List<DeviceIdentifier> validDeviceIds = deviceValidationResult.getValidDeviceIDList();
         if (!validDeviceIds.isEmpty()) {
             DeviceIDHolder deviceAuthorizationResult = this.authorizeDevices(operation, validDeviceIds);
             List<DeviceIdentifier> authorizedDeviceIds = deviceAuthorizationResult.getValidDeviceIDList();
+            if (log.isDebugEnabled()) {
+                log.debug("Resolved " + validDeviceIds.size() + " valid and " + authorizedDeviceIds.size()
+                        + " authorized devices out of " + deviceIds.size() + " device identifiers in "
+                        + (System.currentTimeMillis() - resolutionStartTime) + " ms.");
+            }
             if (authorizedDeviceIds.isEmpty()) {
                 log.warn("User : " + getUser() + " is not authorized to perform operations on given device-list.");
                 Activity activity = new Activity();
@@ -213,10 +217,14 @@ public class OperationManagerImpl implements OperationManager {
             io.entgra.device.mgt.core.device.mgt.core.dto.operation.mgt.Operation operationDto = OperationDAOUtil
                     .convertOperation(operation);
             String operationCode = operationDto.getCode();
+            Map<DeviceIdentifier, Device> validDevices = deviceValidationResult.getValidDevices();
             Map<Integer, Device> enrolments = new HashMap<>();
             Device device;
             for (DeviceIdentifier deviceId : authorizedDeviceIds) {
-                device = getDevice(deviceId);
+                device = validDevices.get(deviceId);
+                if (device == null) {
+                    device = getDevice(deviceId);
+                }
                 enrolments.put(device.getEnrolmentInfo().getId(), device);
             }
 
@@ -262,9 +270,8 @@ public class OperationManagerImpl implements OperationManager {
                     activity.setActivityStatus(
                             this.getActivityStatus(deviceValidationResult, deviceAuthorizationResult));
                 }
-                for (DeviceIdentifier deviceId : authorizedDeviceIds) {
-                    device = getDevice(deviceId);
-                    log.info("Operation added", deviceConnectivityLogContextBuilder.setDeviceId(String.valueOf(device.getId())).setDeviceType(deviceType).setActionTag("ADD_OPERATION").setTenantDomain(tenantDomain).setTenantId(tenantId).setUserName(initiatedBy).setOperationCode(operationCode).build());
+                for (Device addedDevice : enrolments.values()) {
+                    log.info("Operation added", deviceConnectivityLogContextBuilder.setDeviceId(String.valueOf(addedDevice.getId())).setDeviceType(deviceType).setActionTag("ADD_OPERATION").setTenantDomain(tenantDomain).setTenantId(tenantId).setUserName(initiatedBy).setOperationCode(operationCode).build());
                 }
                 return activity;
             } catch (OperationManagementDAOException e) {
@@ -340,6 +347,7 @@ public class OperationManagerImpl implements OperationManager {
             OperationManagementDAOFactory.beginTransaction();
             DeviceManagementDAOFactory.beginTransaction();
             do {
+                long batchStartTime = System.currentTimeMillis();
                 paginationRequest = new PaginationRequest(start, batchSize);
                 paginationRequest.setStatusList(validStatuses);
                 paginationRequest.setDeviceType(deviceType);
@@ -347,8 +355,7 @@ public class OperationManagerImpl implements OperationManager {
 
                 if(dynamicTaskContext != null && dynamicTaskContext.isPartitioningEnabled()) {
                     devices = deviceDAO.getAllocatedDevices(paginationRequest, tenantId,
-                                                                         dynamicTaskContext.getActiveServerCount(),
-                                                            dynamicTaskContext.getServerHashIndex());
+                                                            dynamicTaskContext.getTaskPartition());
                 } else {
                     devices = deviceDAO.getDevices(paginationRequest, tenantId);
                 }
@@ -392,10 +399,13 @@ public class OperationManagerImpl implements OperationManager {
                     }
                 }
                 persistsOperation(operation, operationDto, enrolments);
-                try {
-                    Thread.sleep(2000);
-                } catch (InterruptedException ignore) {
-                    break;
+                if (hasRecords) {
+                    try {
+                        BatchPacerFactory.getBatchPacer()
+                                .pauseBeforeNextBatch(System.currentTimeMillis() - batchStartTime);
+                    } catch (InterruptedException ignore) {
+                        break;
+                    }
                 }
             } while (hasRecords);
         } catch (DeviceManagementDAOException e) {
@@ -432,11 +442,18 @@ public class OperationManagerImpl implements OperationManager {
             isScheduled = notificationStrategy.getConfig() != null && notificationStrategy.getConfig().isScheduled();
         }
         int failAttempts = 0;
+        long mappingStartTime = System.currentTimeMillis();
         while (true) {
             try {
                 operationMappingDAO.addOperationMapping(operationDto,
                         new ArrayList<>(enrolments.values()), isScheduled, tenantId);
                 OperationManagementDAOFactory.commitTransaction();
+                if (log.isDebugEnabled()) {
+                    long elapsedTime = Math.max(System.currentTimeMillis() - mappingStartTime, 1);
+                    log.debug("Persisted " + enrolments.size() + " operation mappings for operation " + operationId
+                            + " in " + elapsedTime + " ms (" + (enrolments.size() * 1000L / elapsedTime)
+                            + " mappings/s).");
+                }
                 break;
             } catch (OperationManagementDAOException e) {
                 OperationManagementDAOFactory.rollbackTransaction();
@@ -449,7 +466,7 @@ public class OperationManagerImpl implements OperationManager {
                 log.warn("Unable to update operation status. Operation ID: " + operationId +
                         ", Attempt: " + failAttempts + ", Error: " + e.getMessage());
                 try {
-                    Thread.sleep(2000);
+                    BatchPacerFactory.getBatchPacer().pauseBeforeRetry(failAttempts);
                 } catch (InterruptedException ignore) {
                     break;
                 }
@@ -471,9 +488,7 @@ public class OperationManagerImpl implements OperationManager {
             log.error(msg, e);
         }
         if (!isScheduled && notificationStrategy != null && !shouldSkipImmediateNotification(operation)) {
-            for (Device device : enrolments.values()) {
-                this.sendNotification(operation, device);
-            }
+            this.sendNotification(operation, enrolments.values());
         }
     }
 
@@ -492,6 +507,10 @@ public class OperationManagerImpl implements OperationManager {
     }
 
     private void sendNotification(Operation operation, Device device) {
+        sendNotification(operation, Collections.singletonList(device));
+    }
+
+    private void sendNotification(Operation operation, Collection<Device> devices) {
         NotificationStrategy notificationStrategy = getNotificationStrategy();
         /*
          * If notification strategy has not enable to send push notification using scheduler task we will send
@@ -500,62 +519,7 @@ public class OperationManagerImpl implements OperationManager {
          * Otherwise device may call pending operation while DB is locked for write and deadlock can occur.
          */
         if (notificationStrategy != null) {
-            int tenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
-            notificationExecutor.execute(() -> {
-                PrivilegedCarbonContext.startTenantFlow();
-                PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(tenantId, true);
-                if (log.isDebugEnabled()) {
-                    log.debug("Sending push notification to " + device.getDeviceIdentifier() + " from add operation method.");
-                }
-                DeviceIdentifier deviceIdentifier = new DeviceIdentifier(device.getDeviceIdentifier(), device.getType());
-                try {
-                    notificationStrategy.execute(new NotificationContext(deviceIdentifier, operation));
-                } catch (PushNotificationExecutionFailedException e) {
-                    log.error("Error occurred while sending push notifications to " + device.getType() +
-                            " device carrying id '" + device.getDeviceIdentifier() + "'", e);
-                    /*
-                     * Reschedule if push notification failed. Doing db transactions in atomic way to prevent
-                     * deadlocks.
-                     */
-                    int failAttempts = 0;
-                    while (true) {
-                        try {
-                            OperationManagementDAOFactory.beginTransaction();
-                            operationMappingDAO.updateOperationMapping(operation.getId(), device.getEnrolmentInfo().getId(),
-                                    io.entgra.device.mgt.core.device.mgt.core.dto.operation.mgt.Operation.PushNotificationStatus.SCHEDULED);
-                            OperationManagementDAOFactory.commitTransaction();
-                            break;
-                        } catch (OperationManagementDAOException ex) {
-                            OperationManagementDAOFactory.rollbackTransaction();
-                            if (++failAttempts > 3) {
-                                String msg = "Error occurred while setting push notification status to SCHEDULED. Operation ID: " +
-                                        operation.getId() + ", Enrollment ID: " + device.getEnrolmentInfo().getId() +
-                                        ", Device ID:" + device.getDeviceIdentifier();
-                                log.error(msg, e);
-                                break;
-                            }
-                            log.warn("Unable to set push notification status to SCHEDULED. Operation ID: " +
-                                    operation.getId() + ", Enrollment ID: " + device.getEnrolmentInfo().getId() +
-                                    ", Device ID:" + device.getDeviceIdentifier() + ", Attempt: " + failAttempts +
-                                    ", Error: " + e.getMessage());
-                            try {
-                                Thread.sleep(2000);
-                            } catch (InterruptedException ignore) {
-                                break;
-                            }
-                        } catch (TransactionManagementException ex) {
-                            log.error("Error occurred while initiating the transaction", ex);
-                            break;
-                        } finally {
-                            OperationManagementDAOFactory.closeConnection();
-                        }
-                    }
-                } catch (Exception e) {
-                    log.error("Error occurred while sending notifications to " + device.getType() +
-                            " device carrying id '" + device.getDeviceIdentifier() + "'", e);
-                }
-                PrivilegedCarbonContext.endTenantFlow();
-            });
+            PushNotificationDispatcher.getInstance().dispatch(notificationStrategy, operation, devices);
         }
     }
 
@@ -598,17 +562,22 @@ public class OperationManagerImpl implements OperationManager {
             if (operation != null && isAuthenticationSkippedOperation(operation)) {
                 authorizedDeviceList = deviceIds;
             } else {
-                boolean isAuthorized;
-                authorizedDeviceList = new ArrayList<>();
                 String requiredPermission = PermissionManagerServiceImpl.getInstance().getRequiredPermission();
                 String[] requiredPermissions = new String[] {requiredPermission};
-                for (DeviceIdentifier devId : deviceIds) {
-                    isAuthorized = DeviceManagementDataHolder.getInstance().getDeviceAccessAuthorizationService().
-                            isUserAuthorized(devId, requiredPermissions);
-                    if (isAuthorized) {
-                        authorizedDeviceList.add(devId);
-                    } else {
-                        unAuthorizedDeviceList.add(devId);
+                DeviceAuthorizationResult authorizationResult = DeviceManagementDataHolder.getInstance()
+                        .getDeviceAccessAuthorizationService().isUserAuthorized(deviceIds, requiredPermissions);
+                if (authorizationResult != null) {
+                    authorizedDeviceList = authorizationResult.getAuthorizedDevices();
+                    unAuthorizedDeviceList = authorizationResult.getUnauthorizedDevices();
+                } else {
+                    // No user in the context, hence authorization depends only on the device type
+                    authorizedDeviceList = new ArrayList<>();
+                    for (DeviceIdentifier devId : deviceIds) {
+                        if (DeviceManagementDataHolder.getInstance().requireDeviceAuthorization(devId.getType())) {
+                            unAuthorizedDeviceList.add(devId);
+                        } else {
+                            authorizedDeviceList.add(devId);
+                        }
                     }
                 }
             }
@@ -774,6 +743,7 @@ public class OperationManagerImpl implements OperationManager {
                     deviceId.getType());
         }
         int enrolmentId = enrolmentInfo.getId();
+        DeviceLastSeenTracker.getInstance().recordCheckIn(enrolmentId);
         //Changing the enrollment status & attempt count if the device is marked as inactive or unreachable
         switch (enrolmentInfo.getStatus()) {
             case INACTIVE:
@@ -808,6 +778,7 @@ public class OperationManagerImpl implements OperationManager {
         deviceIdentifier.setType(device.getType());
         deviceIdentifier.setId(device.getDeviceIdentifier());
         int enrolmentId = enrolmentInfo.getId();
+        DeviceLastSeenTracker.getInstance().recordCheckIn(enrolmentId);
         //Changing the enrollment status & attempt count if the device is marked as inactive or unreachable
         switch (enrolmentInfo.getStatus()) {
             case INACTIVE:
@@ -849,6 +820,7 @@ public class OperationManagerImpl implements OperationManager {
                     deviceId.getType());
         }
         int enrolmentId = enrolmentInfo.getId();
+        DeviceLastSeenTracker.getInstance().recordCheckIn(enrolmentId);
         //Changing the enrollment status & attempt count if the device is marked as inactive or unreachable
         switch (enrolmentInfo.getStatus()) {
             case INACTIVE:
@@ -985,7 +957,7 @@ public class OperationManagerImpl implements OperationManager {
                                 ", Enrollment ID: " + enrolmentId + ", Device ID:" + deviceId + ", Attempt: " + failAttempts +
                                 ", Error: " + e.getMessage());
                         try {
-                            Thread.sleep(2000);
+                            BatchPacerFactory.getBatchPacer().pauseBeforeRetry(failAttempts);
                         } catch (InterruptedException ignore) {
                             break;
                         }
@@ -1058,7 +1030,7 @@ public class OperationManagerImpl implements OperationManager {
                                 ", Enrollment ID: " + enrolmentId + ", Device ID:" + deviceId + " Attempt: " + failAttempts +
                                 ", Error: " + e.getErrorMessage());
                         try {
-                            Thread.sleep(2000);
+                            BatchPacerFactory.getBatchPacer().pauseBeforeRetry(failAttempts);
                         } catch (InterruptedException ignore) {
                             break;
                         }
@@ -1088,7 +1060,7 @@ public class OperationManagerImpl implements OperationManager {
                                 ", Enrollment ID: " + enrolmentId + ", Device ID:" + deviceId +
                                 ", Attempt: " + failAttempts + ", Error: " + e.getMessage());
                         try {
-                            Thread.sleep(2000);
+                            BatchPacerFactory.getBatchPacer().pauseBeforeRetry(failAttempts);
                         } catch (InterruptedException ignore) {
                             break;
                         }
@@ -1616,6 +1588,9 @@ public class OperationManagerImpl implements OperationManager {
             while (true) {
                 try {
                     enrollmentDAO.setStatus(enrolmentId, status, tenantId);
+                    //Writing the check-in along with the status, so that the status monitoring task of another node
+                    //does not mark the device back before the check-in is flushed
+                    deviceDAO.recordDeviceUpdates(Collections.singletonMap(enrolmentId, System.currentTimeMillis()));
                     DeviceManagementDAOFactory.commitTransaction();
                     break;
                 } catch (DeviceManagementDAOException e) {
@@ -1629,7 +1604,7 @@ public class OperationManagerImpl implements OperationManager {
                     log.warn("Unable to update enrollment status of device of enrolment-id '" +
                             enrolmentId + ", Attempt: " + failAttempts + ", Error: " + e.getMessage());
                     try {
-                        Thread.sleep(2000);
+                        BatchPacerFactory.getBatchPacer().pauseBeforeRetry(failAttempts);
                     } catch (InterruptedException ignore) {
                         break;
                     }
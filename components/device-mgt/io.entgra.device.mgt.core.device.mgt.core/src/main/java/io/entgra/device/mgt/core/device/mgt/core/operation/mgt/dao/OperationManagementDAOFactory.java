@@ -100,6 +100,10 @@ public class OperationManagementDAOFactory {
         throw new RuntimeException("Database engine has not initialized properly.");
     }
 
+    public static DataSource getDataSource() {
+        return dataSource;
+    }
+
     public static void init(DataSource dtSource) {
         dataSource = dtSource;
         try {
@@ -20,6 +20,7 @@ package io.entgra.device.mgt.core.device.mgt.core.operation.mgt.dao.impl;
 import io.entgra.device.mgt.core.device.mgt.common.ActivityPaginationRequest;
 import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
 import io.entgra.device.mgt.core.device.mgt.common.PaginationRequest;
+import io.entgra.device.mgt.core.device.mgt.common.TaskPartition;
 import io.entgra.device.mgt.core.device.mgt.common.operation.mgt.Activity;
 import io.entgra.device.mgt.core.device.mgt.common.operation.mgt.ActivityHolder;
 import io.entgra.device.mgt.core.device.mgt.common.operation.mgt.ActivityStatus;
@@ -2083,7 +2084,7 @@ public class GenericOperationDAOImpl implements OperationDAO {
     @Override
     public Map<Integer, List<OperationMapping>> getAllocatedOperationMappingsByStatus(Operation.Status opStatus,
                                                                                       Operation.PushNotificationStatus pushNotificationStatus,
-                                                                                      int limit, int activeServerCount, int serverIndex)
+                                                                                      int limit, TaskPartition taskPartition)
             throws OperationManagementDAOException {
         PreparedStatement stmt = null;
         ResultSet rs = null;
@@ -2094,14 +2095,15 @@ public class GenericOperationDAOImpl implements OperationDAO {
             conn = OperationManagementDAOFactory.getConnection();
             String sql = "SELECT op.ENROLMENT_ID, op.OPERATION_ID, d.DEVICE_IDENTIFICATION, dt.NAME as DEVICE_TYPE, " +
                     "d.TENANT_ID FROM DM_DEVICE d, DM_ENROLMENT_OP_MAPPING op, DM_DEVICE_TYPE dt  WHERE op.STATUS = ?" +
-                    " AND op.PUSH_NOTIFICATION_STATUS = ? AND d.DEVICE_TYPE_ID = dt.ID AND d.ID=op.ENROLMENT_ID AND MOD(d.ID, ?) = ? ORDER" +
-                    " BY op.OPERATION_ID LIMIT ?";
+                    " AND op.PUSH_NOTIFICATION_STATUS = ? AND d.DEVICE_TYPE_ID = dt.ID AND d.ID=op.ENROLMENT_ID" +
+                    DeviceManagementDAOUtil.getPartitionCondition("MOD(d.ID, ?)", "d.PARTITION_BUCKET",
+                            taskPartition) +
+                    " ORDER BY op.OPERATION_ID LIMIT ?";
             stmt = conn.prepareStatement(sql);
             stmt.setString(1, opStatus.toString());
             stmt.setString(2, pushNotificationStatus.toString());
-            stmt.setInt(3, activeServerCount);
-            stmt.setInt(4, serverIndex);
-            stmt.setInt(5, limit);
+            int paramIdx = DeviceManagementDAOUtil.setPartitionValues(stmt, 3, taskPartition);
+            stmt.setInt(paramIdx, limit);
             rs = stmt.executeQuery();
             while (rs.next()) {
                 int tenantID = rs.getInt("TENANT_ID");
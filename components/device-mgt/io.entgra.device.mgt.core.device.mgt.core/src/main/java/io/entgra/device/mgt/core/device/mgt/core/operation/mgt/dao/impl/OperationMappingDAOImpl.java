@@ -37,6 +37,11 @@ import java.util.List;
 public class OperationMappingDAOImpl implements OperationMappingDAO {
 
     private static final Log log = LogFactory.getLog(OperationMappingDAOImpl.class);
+    /**
+     * Number of mapping rows sent to the database in one JDBC batch, to keep driver side buffers bounded for
+     * operations targeting a large number of devices.
+     */
+    private static final int OPERATION_MAPPING_BATCH_SIZE = 1000;
 
     @Override
     public void addOperationMapping(Operation operation, Integer deviceId, boolean isScheduled, Device device, Integer tenantId) throws
@@ -86,6 +91,7 @@ public class OperationMappingDAOImpl implements OperationMappingDAO {
                          "PUSH_NOTIFICATION_STATUS, CREATED_TIMESTAMP, UPDATED_TIMESTAMP, OPERATION_CODE, INITIATED_BY, " +
                          "TYPE, DEVICE_TYPE, DEVICE_ID, DEVICE_IDENTIFICATION, TENANT_ID) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
             stmt = conn.prepareStatement(sql);
+            int batchedRows = 0;
             for (Device device : devices) {
                 stmt.setInt(1, device.getEnrolmentInfo().getId());
                 stmt.setInt(2, operation.getId());
@@ -105,8 +111,14 @@ public class OperationMappingDAOImpl implements OperationMappingDAO {
                 stmt.setString(12, device.getDeviceIdentifier());
                 stmt.setInt(13, tenantId);
                 stmt.addBatch();
+                if (++batchedRows == OPERATION_MAPPING_BATCH_SIZE) {
+                    stmt.executeBatch();
+                    batchedRows = 0;
+                }
+            }
+            if (batchedRows > 0) {
+                stmt.executeBatch();
             }
-            stmt.executeBatch();
         } catch (SQLException e) {
             throw new OperationManagementDAOException("Error occurred while persisting device operation mappings. " +
                     e.getMessage(), e);
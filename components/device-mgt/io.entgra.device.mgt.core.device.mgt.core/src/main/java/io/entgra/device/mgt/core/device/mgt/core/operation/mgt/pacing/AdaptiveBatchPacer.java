@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.entgra.device.mgt.core.device.mgt.core.operation.mgt.pacing;
+
+import io.entgra.device.mgt.core.device.mgt.core.config.operation.pacing.OperationBatchPacingConfiguration;
+import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.dao.OperationManagementDAOFactory;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tomcat.jdbc.pool.DataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Default {@link BatchPacer} which does not wait between batches while the DB keeps up, and backs off in proportion
+ * to the batch latency overshoot and the connection pool saturation once it does not. Retries use exponential
+ * backoff with jitter so that concurrent writers failing on the same lock do not retry in lock step.
+ */
+public class AdaptiveBatchPacer implements BatchPacer {
+
+    private static final Log log = LogFactory.getLog(AdaptiveBatchPacer.class);
+
+    private final BatchPacingMetrics metrics = new BatchPacingMetrics();
+    private long minBatchDelay;
+    private long maxBatchDelay;
+    private long targetBatchLatency;
+    private double poolSaturationThreshold;
+    private long retryBaseDelay;
+    private long retryMaxDelay;
+
+    @Override
+    public void init(OperationBatchPacingConfiguration configuration) {
+        minBatchDelay = Math.max(configuration.getMinBatchDelay(), 0);
+        maxBatchDelay = Math.max(configuration.getMaxBatchDelay(), minBatchDelay);
+        targetBatchLatency = Math.max(configuration.getTargetBatchLatency(), 1);
+        poolSaturationThreshold = Math.min(Math.max(configuration.getPoolSaturationThreshold(), 0), 0.99);
+        retryBaseDelay = Math.max(configuration.getRetryBaseDelay(), 1);
+        retryMaxDelay = Math.max(configuration.getRetryMaxDelay(), retryBaseDelay);
+    }
+
+    @Override
+    public void pauseBeforeNextBatch(long batchLatency) throws InterruptedException {
+        double poolSaturation = getPoolSaturation();
+        long delay = getBatchDelay(batchLatency, poolSaturation);
+        metrics.recordBatch(batchLatency, delay, poolSaturation);
+        if (log.isDebugEnabled()) {
+            log.debug("Batch took " + batchLatency + " ms with connection pool saturation " + poolSaturation
+                    + ", pausing " + delay + " ms before the next batch. " + metrics);
+        }
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    @Override
+    public void pauseBeforeRetry(int attempt) throws InterruptedException {
+        long delay = getRetryDelay(attempt);
+        metrics.recordRetry(delay);
+        if (log.isDebugEnabled()) {
+            log.debug("Retrying attempt " + attempt + " after " + delay + " ms.");
+        }
+        Thread.sleep(delay);
+    }
+
+    @Override
+    public BatchPacingMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Computes the delay before the next batch, scaled between the configured minimum and maximum by whichever of
+     * the latency overshoot or the pool saturation above the threshold is higher.
+     *
+     * @param batchLatency   time taken to process the last batch in milliseconds
+     * @param poolSaturation ratio of active connections to the maximum pool size
+     * @return delay in milliseconds
+     */
+    long getBatchDelay(long batchLatency, double poolSaturation) {
+        double latencyPressure = (double) (batchLatency - targetBatchLatency) / targetBatchLatency;
+        double poolPressure = (poolSaturation - poolSaturationThreshold) / (1 - poolSaturationThreshold);
+        double pressure = Math.min(Math.max(Math.max(latencyPressure, poolPressure), 0), 1);
+        return minBatchDelay + Math.round((maxBatchDelay - minBatchDelay) * pressure);
+    }
+
+    /**
+     * Computes an exponentially growing retry delay capped at the configured maximum, of which the upper half is
+     * randomized.
+     *
+     * @param attempt number of the failed attempt, starting from 1
+     * @return delay in milliseconds
+     */
+    long getRetryDelay(int attempt) {
+        int exponent = Math.min(Math.max(attempt - 1, 0), 30);
+        long ceiling = Math.min(retryMaxDelay, retryBaseDelay << exponent);
+        long half = ceiling / 2;
+        return half + ThreadLocalRandom.current().nextLong(ceiling - half + 1);
+    }
+
+    private double getPoolSaturation() {
+        DataSource dataSource = OperationManagementDAOFactory.getDataSource();
+        if (dataSource instanceof DataSourceProxy) {
+            DataSourceProxy pool = (DataSourceProxy) dataSource;
+            if (pool.getMaxActive() > 0) {
+                return (double) pool.getActive() / pool.getMaxActive();
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.entgra.device.mgt.core.device.mgt.core.operation.mgt.pacing;
+
+import io.entgra.device.mgt.core.device.mgt.core.config.operation.pacing.OperationBatchPacingConfiguration;
+
+/**
+ * Decides how long the operation subsystem should back off between device batches and between DB retries.
+ * Implementations can be plugged in through the PacerClass of the OperationBatchPacingConfiguration.
+ */
+public interface BatchPacer {
+
+    /**
+     * Initializes the pacer with the configured pacing limits.
+     *
+     * @param configuration pacing configuration
+     */
+    void init(OperationBatchPacingConfiguration configuration);
+
+    /**
+     * Blocks the caller before the next batch is processed.
+     *
+     * @param batchLatency time taken to process the last batch in milliseconds
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    void pauseBeforeNextBatch(long batchLatency) throws InterruptedException;
+
+    /**
+     * Blocks the caller before a failed DB call is retried.
+     *
+     * @param attempt number of the failed attempt, starting from 1
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    void pauseBeforeRetry(int attempt) throws InterruptedException;
+
+    /**
+     * @return pacing metrics collected since the pacer was initialized
+     */
+    BatchPacingMetrics getMetrics();
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.entgra.device.mgt.core.device.mgt.core.operation.mgt.pacing;
+
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceConfigurationManager;
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceManagementConfig;
+import io.entgra.device.mgt.core.device.mgt.core.config.operation.pacing.OperationBatchPacingConfiguration;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Creates the {@link BatchPacer} shared by the operation managers of all the device types.
+ */
+public class BatchPacerFactory {
+
+    private static final Log log = LogFactory.getLog(BatchPacerFactory.class);
+    private static volatile BatchPacer batchPacer;
+
+    private BatchPacerFactory() {
+    }
+
+    public static BatchPacer getBatchPacer() {
+        if (batchPacer == null) {
+            synchronized (BatchPacerFactory.class) {
+                if (batchPacer == null) {
+                    batchPacer = createBatchPacer(getConfiguration());
+                }
+            }
+        }
+        return batchPacer;
+    }
+
+    private static OperationBatchPacingConfiguration getConfiguration() {
+        DeviceManagementConfig deviceManagementConfig = DeviceConfigurationManager.getInstance()
+                .getDeviceManagementConfig();
+        if (deviceManagementConfig != null && deviceManagementConfig.getOperationBatchPacingConfiguration() != null) {
+            return deviceManagementConfig.getOperationBatchPacingConfiguration();
+        }
+        return new OperationBatchPacingConfiguration();
+    }
+
+    private static BatchPacer createBatchPacer(OperationBatchPacingConfiguration configuration) {
+        BatchPacer pacer = null;
+        String pacerClass = configuration.getPacerClass();
+        if (pacerClass != null && !pacerClass.isEmpty()) {
+            try {
+                pacer = (BatchPacer) Class.forName(pacerClass).newInstance();
+            } catch (ClassNotFoundException | InstantiationException | IllegalAccessException | ClassCastException e) {
+                log.error("Unable to load the batch pacer '" + pacerClass + "', hence falling back to the adaptive " +
+                        "batch pacer.", e);
+            }
+        }
+        if (pacer == null) {
+            pacer = new AdaptiveBatchPacer();
+        }
+        pacer.init(configuration);
+        return pacer;
+    }
+}
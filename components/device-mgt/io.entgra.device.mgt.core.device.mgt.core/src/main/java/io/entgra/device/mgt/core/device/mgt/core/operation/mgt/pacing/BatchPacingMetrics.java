@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.entgra.device.mgt.core.device.mgt.core.operation.mgt.pacing;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the pacing applied by a {@link BatchPacer}.
+ */
+public class BatchPacingMetrics {
+
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder totalBatchLatency = new LongAdder();
+    private final LongAdder totalBatchDelay = new LongAdder();
+    private final LongAdder retryCount = new LongAdder();
+    private final LongAdder totalRetryDelay = new LongAdder();
+    private final AtomicLong lastBatchLatency = new AtomicLong();
+    private final AtomicLong lastBatchDelay = new AtomicLong();
+    private volatile double lastPoolSaturation;
+
+    public void recordBatch(long batchLatency, long batchDelay, double poolSaturation) {
+        batchCount.increment();
+        totalBatchLatency.add(batchLatency);
+        totalBatchDelay.add(batchDelay);
+        lastBatchLatency.set(batchLatency);
+        lastBatchDelay.set(batchDelay);
+        lastPoolSaturation = poolSaturation;
+    }
+
+    public void recordRetry(long retryDelay) {
+        retryCount.increment();
+        totalRetryDelay.add(retryDelay);
+    }
+
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    public long getTotalBatchLatency() {
+        return totalBatchLatency.sum();
+    }
+
+    public long getTotalBatchDelay() {
+        return totalBatchDelay.sum();
+    }
+
+    public long getRetryCount() {
+        return retryCount.sum();
+    }
+
+    public long getTotalRetryDelay() {
+        return totalRetryDelay.sum();
+    }
+
+    public long getLastBatchLatency() {
+        return lastBatchLatency.get();
+    }
+
+    public long getLastBatchDelay() {
+        return lastBatchDelay.get();
+    }
+
+    public double getLastPoolSaturation() {
+        return lastPoolSaturation;
+    }
+
+    @Override
+    public String toString() {
+        return "batches=" + getBatchCount() + ", totalBatchLatency=" + getTotalBatchLatency() + "ms, totalBatchDelay="
+                + getTotalBatchDelay() + "ms, lastBatchLatency=" + getLastBatchLatency() + "ms, lastBatchDelay="
+                + getLastBatchDelay() + "ms, lastPoolSaturation=" + getLastPoolSaturation() + ", retries="
+                + getRetryCount() + ", totalRetryDelay=" + getTotalRetryDelay() + "ms";
+    }
+}
@@ -18,9 +18,11 @@
 
 package io.entgra.device.mgt.core.device.mgt.core.operation.mgt.util;
 
+import io.entgra.device.mgt.core.device.mgt.common.Device;
 import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Holder class for storing valid & invalid device-ids.
@@ -29,6 +31,7 @@ public class DeviceIDHolder {
 
 	private List<DeviceIdentifier> errorDeviceIdList;
 	private List<DeviceIdentifier> validDeviceIDList;
+	private Map<DeviceIdentifier, Device> validDevices;
 
 	public List<DeviceIdentifier> getErrorDeviceIdList() {
 		return errorDeviceIdList;
@@ -45,4 +48,12 @@ public class DeviceIDHolder {
 	public void setValidDeviceIDList(List<DeviceIdentifier> validDeviceIDList) {
 		this.validDeviceIDList = validDeviceIDList;
 	}
+
+	public Map<DeviceIdentifier, Device> getValidDevices() {
+		return validDevices;
+	}
+
+	public void setValidDevices(Map<DeviceIdentifier, Device> validDevices) {
+		this.validDevices = validDevices;
+	}
 }
@@ -19,22 +19,30 @@ package io.entgra.device.mgt.core.device.mgt.core.permission.mgt;
 
 import io.entgra.device.mgt.core.device.mgt.common.permission.mgt.Permission;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class APIResourcePermissions {
     private Map<String, List<Permission>> apiResourcePermissions;
+    private Map<String, PermissionRouteTrie> apiResourceRoutes;
 
     public APIResourcePermissions() {
-        apiResourcePermissions = new HashMap<>();
+        apiResourcePermissions = new ConcurrentHashMap<>();
+        apiResourceRoutes = new ConcurrentHashMap<>();
     }
 
     public void addPermissionList(String context, List<Permission> permissions){
+        // routes are compiled once per deployment of the context instead of on each request
+        apiResourceRoutes.put(context, new PermissionRouteTrie(permissions));
         apiResourcePermissions.put(context, permissions);
     }
 
     public List<Permission> getPermissions(String context) {
         return apiResourcePermissions.get(context);
     }
+
+    public PermissionRouteTrie getPermissionRoutes(String context) {
+        return apiResourceRoutes.get(context);
+    }
 }
@@ -66,6 +66,16 @@ public class PermissionManagerServiceImpl implements PermissionManagerService {
         return apiResourcePermissions.getPermissions(context);
     }
 
+    @Override
+    public Permission getPermission(String context, String requestUri, String httpMethod)
+            throws PermissionManagementException {
+        PermissionRouteTrie permissionRoutes = apiResourcePermissions.getPermissionRoutes(context);
+        if (permissionRoutes == null) {
+            return null;
+        }
+        return permissionRoutes.getPermission(requestUri, httpMethod);
+    }
+
     public String getRequiredPermission() {
         if (requiredPermission == null) {
             requiredPermission = new ThreadLocal<>();
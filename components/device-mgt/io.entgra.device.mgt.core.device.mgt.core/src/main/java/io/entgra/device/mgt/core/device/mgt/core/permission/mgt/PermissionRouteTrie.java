@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.entgra.device.mgt.core.device.mgt.core.permission.mgt;
+
+import io.entgra.device.mgt.core.device.mgt.common.permission.mgt.Permission;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringTokenizer;
+
+/**
+ * Compiled routing structure for the API resource permissions of a single webapp context. Permissions are
+ * placed in a path segment trie per HTTP method, where the '*' notation of a templated path variable becomes a
+ * wildcard edge. A request path is resolved by walking its segments, preferring a literal segment over a
+ * wildcard one, so the most specific resource wins without evaluating any regular expression.
+ * The trie is read only once built and is safe to be shared between request threads.
+ */
+public class PermissionRouteTrie {
+
+    private static final Log log = LogFactory.getLog(PermissionRouteTrie.class);
+    private static final String DYNAMIC_PATH_NOTATION = "*";
+    private static final String PATH_SEPARATOR = "/";
+
+    private final Map<String, RouteNode> methodRoots = new HashMap<>();
+
+    public PermissionRouteTrie(List<Permission> permissions) {
+        if (permissions != null) {
+            for (Permission permission : permissions) {
+                addPermission(permission);
+            }
+        }
+    }
+
+    private void addPermission(Permission permission) {
+        if (permission.getMethod() == null || permission.getUrl() == null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Skipping permission '" + permission.getPath() + "' as it does not define a resource");
+            }
+            return;
+        }
+        RouteNode node = methodRoots.computeIfAbsent(permission.getMethod(), method -> new RouteNode());
+        StringTokenizer st = new StringTokenizer(permission.getUrl(), PATH_SEPARATOR);
+        while (st.hasMoreTokens()) {
+            String segment = st.nextToken();
+            if (DYNAMIC_PATH_NOTATION.equals(segment)) {
+                if (node.wildcardChild == null) {
+                    node.wildcardChild = new RouteNode();
+                }
+                node = node.wildcardChild;
+            } else {
+                node = node.children.computeIfAbsent(segment, s -> new RouteNode());
+            }
+        }
+        // the first resource registered for a url and method is kept, as an exact url match always did
+        if (node.permission == null) {
+            node.permission = permission;
+        } else if (log.isDebugEnabled()) {
+            log.debug("Resource " + permission.getMethod() + ":" + permission.getUrl() + " is already bound to '"
+                    + node.permission.getPath() + "', ignoring '" + permission.getPath() + "'");
+        }
+    }
+
+    /**
+     * Resolves the permission required to invoke the given request path with the given HTTP method.
+     *
+     * @param requestUri Request path including the webapp context, without a trailing separator.
+     * @param httpMethod HTTP method of the request.
+     * @return the permission of the most specific matching resource or null if no resource matches.
+     */
+    public Permission getPermission(String requestUri, String httpMethod) {
+        if (requestUri == null || httpMethod == null) {
+            return null;
+        }
+        RouteNode root = methodRoots.get(httpMethod);
+        if (root == null || (!requestUri.isEmpty() && !requestUri.startsWith(PATH_SEPARATOR))) {
+            return null;
+        }
+        return match(root, requestUri, 0);
+    }
+
+    /**
+     * Walks the trie from the given node for the part of the request path starting at the given separator.
+     * A wildcard edge is only tried when the literal one does not lead to a resource.
+     */
+    private static Permission match(RouteNode node, String requestUri, int separatorIndex) {
+        if (separatorIndex >= requestUri.length()) {
+            return node.permission;
+        }
+        int start = separatorIndex + 1;
+        int end = requestUri.indexOf('/', start);
+        if (end < 0) {
+            end = requestUri.length();
+        }
+        if (start == end) {
+            return null;
+        }
+        if (!node.children.isEmpty()) {
+            RouteNode literal = node.children.get(requestUri.substring(start, end));
+            if (literal != null) {
+                Permission permission = match(literal, requestUri, end);
+                if (permission != null) {
+                    return permission;
+                }
+            }
+        }
+        if (node.wildcardChild != null && isPathVariable(requestUri, start, end)) {
+            return match(node.wildcardChild, requestUri, end);
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the segment is an acceptable path variable value, which is the character class
+     * [a-zA-Z0-9-_.] that the templated resource url patterns are generated with.
+     */
+    private static boolean isPathVariable(String requestUri, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = requestUri.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class RouteNode {
+        private final Map<String, RouteNode> children = new HashMap<>();
+        private RouteNode wildcardChild;
+        private Permission permission;
+    }
+}
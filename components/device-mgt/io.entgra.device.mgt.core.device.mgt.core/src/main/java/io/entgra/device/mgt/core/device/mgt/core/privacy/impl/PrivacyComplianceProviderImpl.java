@@ -26,6 +26,7 @@ import io.entgra.device.mgt.core.device.mgt.common.exceptions.PrivacyComplianceE
 import io.entgra.device.mgt.core.device.mgt.common.exceptions.TransactionManagementException;
 import io.entgra.device.mgt.core.notification.mgt.common.exception.NotificationManagementException;
 import io.entgra.device.mgt.core.device.mgt.core.dao.DeviceManagementDAOFactory;
+import io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.impl.DeviceInfoFingerprintCache;
 import io.entgra.device.mgt.core.device.mgt.core.internal.DeviceManagementDataHolder;
 import io.entgra.device.mgt.core.device.mgt.core.privacy.PrivacyComplianceProvider;
 import io.entgra.device.mgt.core.device.mgt.core.privacy.dao.PrivacyComplianceDAO;
@@ -93,6 +94,12 @@ public class PrivacyComplianceProviderImpl implements PrivacyComplianceProvider
                         .handleTaskNotificationIfApplicable(tenantId, message);
             }
             DeviceManagementDAOFactory.commitTransaction();
+            DeviceInfoFingerprintCache fingerprintCache = DeviceInfoFingerprintCache.getInstance();
+            if (fingerprintCache != null) {
+                for (DeviceEnrollmentMapping m : enrollmentMappings) {
+                    fingerprintCache.invalidate(m.getEnrolmentId());
+                }
+            }
         } catch (PrivacyComplianceDAOException e) {
             DeviceManagementDAOFactory.rollbackTransaction();
             String msg = "Error occurred while deleting the devices and details of the given user";
@@ -134,6 +141,10 @@ public class PrivacyComplianceProviderImpl implements PrivacyComplianceProvider
             DeviceManagementDataHolder.getInstance().getNotificationManagementService()
                     .handleTaskNotificationIfApplicable(tenantId, message);
             DeviceManagementDAOFactory.commitTransaction();
+            DeviceInfoFingerprintCache fingerprintCache = DeviceInfoFingerprintCache.getInstance();
+            if (fingerprintCache != null) {
+                fingerprintCache.invalidate(device.getEnrolmentInfo().getId());
+            }
         } catch (TransactionManagementException e) {
             DeviceManagementDAOFactory.rollbackTransaction();
             String msg = "Database error occurred while deleting the device details.";
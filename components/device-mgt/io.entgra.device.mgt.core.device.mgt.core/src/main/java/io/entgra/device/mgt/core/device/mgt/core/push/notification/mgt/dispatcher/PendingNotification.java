@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.entgra.device.mgt.core.device.mgt.core.push.notification.mgt.dispatcher;
+
+import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
+import io.entgra.device.mgt.core.device.mgt.common.operation.mgt.Operation;
+import io.entgra.device.mgt.core.device.mgt.common.push.notification.NotificationStrategy;
+import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.OperationMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A push notification waiting in a tenant queue of the {@link PushNotificationDispatcher}. When the notification
+ * strategy supports coalescing, the operation mappings of all the notifications merged into this one are kept so
+ * that they can be rescheduled together if the push fails.
+ */
+class PendingNotification {
+
+    private final NotificationStrategy notificationStrategy;
+    private final DeviceIdentifier deviceIdentifier;
+    private final Operation operation;
+    private final long enqueuedTime;
+    private final List<OperationMapping> operationMappings = new ArrayList<>(1);
+
+    PendingNotification(NotificationStrategy notificationStrategy, DeviceIdentifier deviceIdentifier,
+                        Operation operation, OperationMapping operationMapping) {
+        this.notificationStrategy = notificationStrategy;
+        this.deviceIdentifier = deviceIdentifier;
+        this.operation = operation;
+        this.enqueuedTime = System.currentTimeMillis();
+        this.operationMappings.add(operationMapping);
+    }
+
+    void merge(OperationMapping operationMapping) {
+        operationMappings.add(operationMapping);
+    }
+
+    NotificationStrategy getNotificationStrategy() {
+        return notificationStrategy;
+    }
+
+    DeviceIdentifier getDeviceIdentifier() {
+        return deviceIdentifier;
+    }
+
+    Operation getOperation() {
+        return operation;
+    }
+
+    long getEnqueuedTime() {
+        return enqueuedTime;
+    }
+
+    List<OperationMapping> getOperationMappings() {
+        return operationMappings;
+    }
+}
@@ -0,0 +1,470 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.entgra.device.mgt.core.device.mgt.core.push.notification.mgt.dispatcher;
+
+import io.entgra.device.mgt.core.device.mgt.common.Device;
+import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
+import io.entgra.device.mgt.core.device.mgt.common.exceptions.TransactionManagementException;
+import io.entgra.device.mgt.core.device.mgt.common.operation.mgt.Operation;
+import io.entgra.device.mgt.core.device.mgt.common.push.notification.NotificationContext;
+import io.entgra.device.mgt.core.device.mgt.common.push.notification.NotificationStrategy;
+import io.entgra.device.mgt.core.device.mgt.common.push.notification.PushNotificationExecutionFailedException;
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceConfigurationManager;
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceManagementConfig;
+import io.entgra.device.mgt.core.device.mgt.core.config.push.notification.PushNotificationConfiguration;
+import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.OperationMapping;
+import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.dao.OperationManagementDAOException;
+import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.dao.OperationManagementDAOFactory;
+import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.dao.OperationMappingDAO;
+import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.pacing.BatchPacerFactory;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.CarbonContext;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the immediate push notifications of all the device types through a shared pool of worker threads.
+ * <p>
+ * Notifications are held in a bounded queue per tenant and the workers take a limited number of notifications from
+ * each tenant in turn, so that a large operation of one tenant does not delay the notifications of the others.
+ * Pending notifications to the same device are merged when the strategy only wakes the device up. Notifications which
+ * do not fit into the tenant queue, and pushes which fail, fall back to the push notification scheduler task by
+ * marking their operation mappings as SCHEDULED in a single batch. Rejected notifications are rescheduled by a single
+ * thread with a bounded queue of batches, beyond which the dispatching thread reschedules them itself.
+ */
+public class PushNotificationDispatcher {
+
+    private static final Log log = LogFactory.getLog(PushNotificationDispatcher.class);
+    private static final int MAX_RESCHEDULE_ATTEMPTS = 3;
+    private static final int RESCHEDULE_QUEUE_CAPACITY = 100;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+    private static volatile PushNotificationDispatcher instance;
+
+    private final int tenantQueueCapacity;
+    private final int tenantBatchSize;
+    private final ConcurrentMap<Integer, TenantQueue> tenantQueues = new ConcurrentHashMap<>();
+    private final BlockingQueue<TenantQueue> readyTenantQueues = new LinkedBlockingQueue<>();
+    private final ExecutorService workers;
+    private final ExecutorService rescheduleExecutor;
+    private final OperationMappingDAO operationMappingDAO = OperationManagementDAOFactory.getOperationMappingDAO();
+    private final PushNotificationDispatcherMetrics metrics = new PushNotificationDispatcherMetrics();
+
+    PushNotificationDispatcher(int workerCount, int tenantQueueCapacity, int tenantBatchSize) {
+        this.tenantQueueCapacity = tenantQueueCapacity;
+        this.tenantBatchSize = tenantBatchSize;
+        this.workers = Executors.newFixedThreadPool(workerCount, new DispatcherThreadFactory("worker"));
+        this.rescheduleExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(RESCHEDULE_QUEUE_CAPACITY), new DispatcherThreadFactory("reschedule"),
+                (task, executor) -> task.run());
+        for (int i = 0; i < workerCount; i++) {
+            workers.execute(this::processTenantQueues);
+        }
+    }
+
+    public static PushNotificationDispatcher getInstance() {
+        if (instance == null) {
+            synchronized (PushNotificationDispatcher.class) {
+                if (instance == null) {
+                    int workerCount = 10;
+                    int tenantQueueCapacity = 10000;
+                    int tenantBatchSize = 100;
+                    DeviceManagementConfig config = DeviceConfigurationManager.getInstance()
+                            .getDeviceManagementConfig();
+                    if (config != null && config.getPushNotificationConfiguration() != null) {
+                        PushNotificationConfiguration pushNotificationConfig =
+                                config.getPushNotificationConfiguration();
+                        workerCount = Math.max(pushNotificationConfig.getDispatcherThreadCount(), 1);
+                        tenantQueueCapacity = Math.max(pushNotificationConfig.getDispatcherTenantQueueCapacity(), 1);
+                        tenantBatchSize = Math.max(pushNotificationConfig.getDispatcherTenantBatchSize(), 1);
+                    }
+                    instance = new PushNotificationDispatcher(workerCount, tenantQueueCapacity, tenantBatchSize);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Stops the dispatcher, if it has been started. Notifications which are still queued are not sent, their operation
+     * mappings are marked as SCHEDULED so that the push notification scheduler task sends them.
+     */
+    public static void shutdown() {
+        synchronized (PushNotificationDispatcher.class) {
+            if (instance != null) {
+                instance.close();
+                instance = null;
+            }
+        }
+    }
+
+    void close() {
+        workers.shutdownNow();
+        try {
+            if (!workers.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Push notifications were still being sent after " + SHUTDOWN_TIMEOUT_SECONDS + " seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<OperationMapping> pendingMappings = drain();
+        if (!pendingMappings.isEmpty()) {
+            log.info("Leaving " + pendingMappings.size() + " queued push notifications to the push notification "
+                    + "scheduler task.");
+            reschedule(pendingMappings);
+        }
+        rescheduleExecutor.shutdown();
+        try {
+            if (!rescheduleExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Push notifications were still being rescheduled after " + SHUTDOWN_TIMEOUT_SECONDS
+                        + " seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues a push notification of the given operation to each of the given devices of the current tenant.
+     *
+     * @param notificationStrategy strategy to send the notifications with
+     * @param operation            operation to notify
+     * @param devices              devices to notify
+     */
+    public void dispatch(NotificationStrategy notificationStrategy, Operation operation, Collection<Device> devices) {
+        int tenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
+        TenantQueue tenantQueue = tenantQueues.computeIfAbsent(tenantId, TenantQueue::new);
+        boolean isCoalescingSupported = notificationStrategy.isCoalescingSupported();
+        List<OperationMapping> rejectedMappings = new ArrayList<>();
+        boolean isReady = false;
+        synchronized (tenantQueue) {
+            for (Device device : devices) {
+                DeviceIdentifier deviceIdentifier = new DeviceIdentifier(device.getDeviceIdentifier(),
+                        device.getType());
+                OperationMapping operationMapping = toOperationMapping(operation.getId(),
+                        device.getEnrolmentInfo().getId(), deviceIdentifier, tenantId);
+                NotificationKey key = new NotificationKey(notificationStrategy, deviceIdentifier,
+                        isCoalescingSupported ? NotificationKey.ANY_OPERATION : operation.getId());
+                PendingNotification pendingNotification = tenantQueue.pendingNotifications.get(key);
+                if (pendingNotification != null) {
+                    pendingNotification.merge(operationMapping);
+                    metrics.recordCoalesced();
+                } else if (tenantQueue.pendingNotifications.size() >= tenantQueueCapacity) {
+                    rejectedMappings.add(operationMapping);
+                } else {
+                    tenantQueue.pendingNotifications.put(key, new PendingNotification(notificationStrategy,
+                            deviceIdentifier, operation, operationMapping));
+                    metrics.recordEnqueued();
+                }
+            }
+            if (!tenantQueue.isReady && !tenantQueue.pendingNotifications.isEmpty()) {
+                tenantQueue.isReady = true;
+                isReady = true;
+            }
+        }
+        if (isReady) {
+            readyTenantQueues.offer(tenantQueue);
+        }
+        if (!rejectedMappings.isEmpty()) {
+            metrics.recordRejected(rejectedMappings.size());
+            log.warn("Push notification queue of tenant " + tenantId + " is full, hence " + rejectedMappings.size()
+                    + " notifications of operation " + operation.getId() + " are left to the push notification " +
+                    "scheduler task.");
+            rescheduleExecutor.execute(() -> reschedule(rejectedMappings));
+        }
+    }
+
+    /**
+     * @return number of notifications waiting in all the tenant queues
+     */
+    public int getQueueDepth() {
+        int queueDepth = 0;
+        for (TenantQueue tenantQueue : tenantQueues.values()) {
+            queueDepth += getQueueDepth(tenantQueue);
+        }
+        return queueDepth;
+    }
+
+    /**
+     * @param tenantId tenant id
+     * @return number of notifications waiting in the queue of the given tenant
+     */
+    public int getQueueDepth(int tenantId) {
+        TenantQueue tenantQueue = tenantQueues.get(tenantId);
+        return tenantQueue == null ? 0 : getQueueDepth(tenantQueue);
+    }
+
+    public PushNotificationDispatcherMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Empties all the tenant queues.
+     *
+     * @return operation mappings of the notifications which were queued
+     */
+    private List<OperationMapping> drain() {
+        List<OperationMapping> operationMappings = new ArrayList<>();
+        readyTenantQueues.clear();
+        for (TenantQueue tenantQueue : tenantQueues.values()) {
+            synchronized (tenantQueue) {
+                for (PendingNotification notification : tenantQueue.pendingNotifications.values()) {
+                    operationMappings.addAll(notification.getOperationMappings());
+                }
+                metrics.recordDrained(tenantQueue.pendingNotifications.size());
+                tenantQueue.pendingNotifications.clear();
+                tenantQueue.isReady = false;
+            }
+        }
+        return operationMappings;
+    }
+
+    private int getQueueDepth(TenantQueue tenantQueue) {
+        synchronized (tenantQueue) {
+            return tenantQueue.pendingNotifications.size();
+        }
+    }
+
+    private void processTenantQueues() {
+        while (!Thread.currentThread().isInterrupted()) {
+            TenantQueue tenantQueue;
+            try {
+                tenantQueue = readyTenantQueues.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            List<PendingNotification> notifications = new ArrayList<>(tenantBatchSize);
+            synchronized (tenantQueue) {
+                Iterator<PendingNotification> iterator = tenantQueue.pendingNotifications.values().iterator();
+                while (iterator.hasNext() && notifications.size() < tenantBatchSize) {
+                    notifications.add(iterator.next());
+                    iterator.remove();
+                }
+                if (tenantQueue.pendingNotifications.isEmpty()) {
+                    tenantQueue.isReady = false;
+                } else {
+                    // Go to the back of the line so that the other tenants get their turn
+                    readyTenantQueues.offer(tenantQueue);
+                }
+            }
+            try {
+                send(tenantQueue.tenantId, notifications);
+            } catch (Throwable t) {
+                log.error("Error occurred while sending push notifications of tenant " + tenantQueue.tenantId, t);
+            }
+        }
+    }
+
+    private void send(int tenantId, List<PendingNotification> notifications) {
+        Map<NotificationStrategy, List<PendingNotification>> strategyNotifications = new LinkedHashMap<>();
+        for (PendingNotification notification : notifications) {
+            strategyNotifications.computeIfAbsent(notification.getNotificationStrategy(),
+                    strategy -> new ArrayList<>()).add(notification);
+        }
+        List<OperationMapping> failedMappings = new ArrayList<>();
+        try {
+            PrivilegedCarbonContext.startTenantFlow();
+            PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(tenantId, true);
+            for (Map.Entry<NotificationStrategy, List<PendingNotification>> entry :
+                    strategyNotifications.entrySet()) {
+                send(entry.getKey(), entry.getValue(), failedMappings);
+            }
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Sent " + notifications.size() + " push notifications of tenant " + tenantId
+                    + ", queue depth: " + getQueueDepth() + ", " + metrics);
+        }
+        if (!failedMappings.isEmpty()) {
+            // Reschedule if push notification failed, so that the scheduler task retries them
+            reschedule(failedMappings);
+        }
+    }
+
+    private void send(NotificationStrategy notificationStrategy, List<PendingNotification> notifications,
+                      List<OperationMapping> failedMappings) {
+        List<NotificationContext> contexts = new ArrayList<>(notifications.size());
+        for (PendingNotification notification : notifications) {
+            if (log.isDebugEnabled()) {
+                log.debug("Sending push notification to " + notification.getDeviceIdentifier().getId() +
+                        " from add operation method.");
+            }
+            contexts.add(new NotificationContext(notification.getDeviceIdentifier(), notification.getOperation()));
+        }
+        Map<NotificationContext, PushNotificationExecutionFailedException> failures;
+        try {
+            failures = notificationStrategy.executeBatch(contexts);
+        } catch (Exception e) {
+            log.error("Error occurred while sending " + notifications.size() + " push notifications", e);
+            for (PendingNotification notification : notifications) {
+                metrics.recordFailed(System.currentTimeMillis() - notification.getEnqueuedTime());
+                // Reschedule, so that the scheduler task retries them
+                failedMappings.addAll(notification.getOperationMappings());
+            }
+            return;
+        }
+        for (int i = 0; i < contexts.size(); i++) {
+            PendingNotification notification = notifications.get(i);
+            PushNotificationExecutionFailedException failure = failures.get(contexts.get(i));
+            if (failure == null) {
+                metrics.recordSent(System.currentTimeMillis() - notification.getEnqueuedTime());
+            } else {
+                DeviceIdentifier deviceIdentifier = notification.getDeviceIdentifier();
+                log.error("Error occurred while sending push notifications to " + deviceIdentifier.getType() +
+                        " device carrying id '" + deviceIdentifier.getId() + "'", failure);
+                metrics.recordFailed(System.currentTimeMillis() - notification.getEnqueuedTime());
+                failedMappings.addAll(notification.getOperationMappings());
+            }
+        }
+    }
+
+    private void reschedule(List<OperationMapping> operationMappings) {
+        int failAttempts = 0;
+        while (true) {
+            try {
+                OperationManagementDAOFactory.beginTransaction();
+                operationMappingDAO.updateOperationMapping(operationMappings);
+                OperationManagementDAOFactory.commitTransaction();
+                break;
+            } catch (OperationManagementDAOException e) {
+                OperationManagementDAOFactory.rollbackTransaction();
+                if (++failAttempts > MAX_RESCHEDULE_ATTEMPTS) {
+                    log.error("Error occurred while setting push notification status to SCHEDULED for "
+                            + operationMappings.size() + " operation mappings.", e);
+                    break;
+                }
+                log.warn("Unable to set push notification status to SCHEDULED for " + operationMappings.size()
+                        + " operation mappings, Attempt: " + failAttempts + ", Error: " + e.getMessage());
+                try {
+                    BatchPacerFactory.getBatchPacer().pauseBeforeRetry(failAttempts);
+                } catch (InterruptedException ignore) {
+                    break;
+                }
+            } catch (TransactionManagementException e) {
+                log.error("Error occurred while initiating the transaction", e);
+                break;
+            } finally {
+                OperationManagementDAOFactory.closeConnection();
+            }
+        }
+    }
+
+    private OperationMapping toOperationMapping(int operationId, int enrolmentId, DeviceIdentifier deviceIdentifier,
+                                                int tenantId) {
+        OperationMapping operationMapping = new OperationMapping();
+        operationMapping.setOperationId(operationId);
+        operationMapping.setEnrollmentId(enrolmentId);
+        operationMapping.setDeviceIdentifier(deviceIdentifier);
+        operationMapping.setTenantId(tenantId);
+        operationMapping.setPushNotificationStatus(
+                io.entgra.device.mgt.core.device.mgt.core.dto.operation.mgt.Operation.PushNotificationStatus.SCHEDULED);
+        return operationMapping;
+    }
+
+    /**
+     * Pending notifications of a tenant in insertion order. Guarded by its own monitor.
+     */
+    private static class TenantQueue {
+
+        private final int tenantId;
+        private final Map<NotificationKey, PendingNotification> pendingNotifications = new LinkedHashMap<>();
+        private boolean isReady;
+
+        private TenantQueue(int tenantId) {
+            this.tenantId = tenantId;
+        }
+    }
+
+    /**
+     * Identifies the pending notifications which are merged, by the strategy instance, the device and, unless the
+     * strategy supports coalescing, the operation.
+     */
+    private static final class NotificationKey {
+
+        private static final int ANY_OPERATION = -1;
+
+        private final NotificationStrategy notificationStrategy;
+        private final String deviceType;
+        private final String deviceId;
+        private final int operationId;
+
+        private NotificationKey(NotificationStrategy notificationStrategy, DeviceIdentifier deviceIdentifier,
+                                int operationId) {
+            this.notificationStrategy = notificationStrategy;
+            this.deviceType = deviceIdentifier.getType();
+            this.deviceId = deviceIdentifier.getId();
+            this.operationId = operationId;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof NotificationKey)) {
+                return false;
+            }
+            NotificationKey other = (NotificationKey) obj;
+            return notificationStrategy == other.notificationStrategy && operationId == other.operationId
+                    && Objects.equals(deviceId, other.deviceId) && Objects.equals(deviceType, other.deviceType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(notificationStrategy), deviceType, deviceId, operationId);
+        }
+    }
+
+    private static class DispatcherThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadCount = new AtomicInteger();
+        private final String name;
+
+        private DispatcherThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "push-notification-dispatcher-" + name + "-"
+                    + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.entgra.device.mgt.core.device.mgt.core.push.notification.mgt.dispatcher;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the {@link PushNotificationDispatcher}.
+ */
+public class PushNotificationDispatcherMetrics {
+
+    private final LongAdder enqueuedCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder sentCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder drainedCount = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    void recordEnqueued() {
+        enqueuedCount.increment();
+    }
+
+    void recordCoalesced() {
+        coalescedCount.increment();
+    }
+
+    void recordRejected(int count) {
+        rejectedCount.add(count);
+    }
+
+    void recordSent(long latency) {
+        sentCount.increment();
+        recordLatency(latency);
+    }
+
+    void recordFailed(long latency) {
+        failedCount.increment();
+        recordLatency(latency);
+    }
+
+    void recordDrained(int count) {
+        drainedCount.add(count);
+    }
+
+    private void recordLatency(long latency) {
+        totalLatency.add(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+    }
+
+    public long getEnqueuedCount() {
+        return enqueuedCount.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getSentCount() {
+        return sentCount.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    /**
+     * @return number of queued notifications which were left to the push notification scheduler task on shutdown
+     */
+    public long getDrainedCount() {
+        return drainedCount.sum();
+    }
+
+    /**
+     * @return average time in milliseconds from enqueuing a notification to the end of its push attempt
+     */
+    public long getAverageLatency() {
+        long completed = getSentCount() + getFailedCount();
+        return completed == 0 ? 0 : totalLatency.sum() / completed;
+    }
+
+    public long getMaxLatency() {
+        return maxLatency.get();
+    }
+
+    @Override
+    public String toString() {
+        return "enqueued=" + getEnqueuedCount() + ", coalesced=" + getCoalescedCount() + ", rejected="
+                + getRejectedCount() + ", sent=" + getSentCount() + ", failed=" + getFailedCount()
+                + ", drained=" + getDrainedCount()
+                + ", averageLatency=" + getAverageLatency() + "ms, maxLatency=" + getMaxLatency() + "ms";
+    }
+}
@@ -29,7 +29,9 @@ import io.entgra.device.mgt.core.device.mgt.common.operation.mgt.OperationManage
 import io.entgra.device.mgt.core.device.mgt.common.push.notification.NotificationContext;
 import io.entgra.device.mgt.core.device.mgt.common.push.notification.NotificationStrategy;
 import io.entgra.device.mgt.core.device.mgt.common.push.notification.PushNotificationExecutionFailedException;
+import io.entgra.device.mgt.core.device.mgt.core.DeviceManagementConstants;
 import io.entgra.device.mgt.core.device.mgt.core.config.DeviceConfigurationManager;
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceManagementConfig;
 import io.entgra.device.mgt.core.device.mgt.core.dto.operation.mgt.Operation;
 import io.entgra.device.mgt.core.device.mgt.core.internal.DeviceManagementDataHolder;
 import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.OperationMapping;
@@ -39,13 +41,25 @@ import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.dao.OperationMana
 import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.dao.OperationMappingDAO;
 import io.entgra.device.mgt.core.device.mgt.core.service.DeviceManagementProviderService;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * ${{@link PushNotificationSchedulerTask}} is for sending push notifications for given device batch.
+ * <p>
+ * The scheduled operation mappings are grouped per tenant and device type, so that the notification strategy and
+ * each operation payload are loaded only once for a tick. The notifications of each device type are then split into
+ * batches which are sent in parallel through {@link NotificationStrategy#executeBatch(List)}, and the sent mappings
+ * are marked as COMPLETED in a single update.
  */
 public class PushNotificationSchedulerTask implements Runnable {
 
@@ -54,84 +68,37 @@ public class PushNotificationSchedulerTask implements Runnable {
     private final OperationMappingDAO operationMappingDAO = OperationManagementDAOFactory.getOperationMappingDAO();
     private final DeviceManagementProviderService provider = DeviceManagementDataHolder.getInstance()
             .getDeviceManagementProvider();
+    private final int sendConcurrency;
+    private final ExecutorService sendExecutor;
+
+    public PushNotificationSchedulerTask() {
+        int concurrency = DeviceManagementConstants.PushNotifications.DEFAULT_SCHEDULER_SEND_CONCURRENCY;
+        DeviceManagementConfig config = DeviceConfigurationManager.getInstance().getDeviceManagementConfig();
+        if (config != null && config.getPushNotificationConfiguration() != null
+                && config.getPushNotificationConfiguration().getSchedulerSendConcurrency() > 0) {
+            concurrency = config.getPushNotificationConfiguration().getSchedulerSendConcurrency();
+        }
+        this.sendConcurrency = concurrency;
+        this.sendExecutor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "push-notification-scheduler-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 
     @Override
     public void run() {
         try {
-            Map<Integer, List<OperationMapping>> operationMappingsTenantMap = new HashMap<>();
-            List<OperationMapping> operationsCompletedList = new LinkedList<>();
+            long startTime = System.currentTimeMillis();
             if (log.isDebugEnabled()) {
                 log.debug("Push notification job started");
             }
-            try {
-                //Get next available operation list per device batch
-                OperationManagementDAOFactory.openConnection();
-                try {
-                    if (DeviceManagementDataHolder.getInstance().getHeartBeatService().isTaskPartitioningEnabled()) {
-                        ServerCtxInfo serverCtxInfo = DeviceManagementDataHolder.getInstance().getHeartBeatService().getServerCtxInfo();
-                        if (serverCtxInfo != null) {
-                            operationMappingsTenantMap = operationDAO.getAllocatedOperationMappingsByStatus(Operation.Status
-                                            .PENDING, Operation.PushNotificationStatus.SCHEDULED, DeviceConfigurationManager.getInstance()
-                                            .getDeviceManagementConfig().getPushNotificationConfiguration().getSchedulerBatchSize(),
-                                    serverCtxInfo.getActiveServerCount(), serverCtxInfo.getLocalServerHashIdx());
-                        } else {
-                            if (log.isDebugEnabled()) {
-                                log.debug("Active server information not recorded yet.");
-                            }
-                        }
-                    } else {
-                        operationMappingsTenantMap = operationDAO.getOperationMappingsByStatus(Operation.Status
-                                .PENDING, Operation.PushNotificationStatus.SCHEDULED, DeviceConfigurationManager.getInstance()
-                                .getDeviceManagementConfig().getPushNotificationConfiguration().getSchedulerBatchSize());
-                    }
-                } catch (HeartBeatManagementException e) {
-                    throw new RuntimeException(e);
-                }
-            } catch (OperationManagementDAOException e) {
-                log.error("Unable to retrieve scheduled pending operations for task.", e);
-            } finally {
-                OperationManagementDAOFactory.closeConnection();
-            }
-            // Sending push notification to each device
-            for (List<OperationMapping> operationMappings : operationMappingsTenantMap.values()) {
-                for (OperationMapping operationMapping : operationMappings) {
-                    try {
-                        if (log.isDebugEnabled()) {
-                            log.debug("Sending push notification for operationId :" + operationMapping.getOperationId() +
-                                    " to deviceId : " + operationMapping.getDeviceIdentifier().getId());
-                        }
-                        // Set tenant id and domain
-                        PrivilegedCarbonContext.startTenantFlow();
-                        PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(operationMapping.getTenantId(), true);
-                        // Get notification strategy for given device type
-                        NotificationStrategy notificationStrategy = provider.getNotificationStrategyByDeviceType
-                                (operationMapping.getDeviceIdentifier().getType());
-                        // Send the push notification on given strategy
-                        if (notificationStrategy != null) {
-                            notificationStrategy.execute(new NotificationContext(operationMapping.getDeviceIdentifier(),
-                                    provider.getOperation(operationMapping.getDeviceIdentifier().getType(), operationMapping
-                                            .getOperationId())));
-                            operationMapping.setPushNotificationStatus(Operation.PushNotificationStatus.COMPLETED);
-                            operationsCompletedList.add(operationMapping);
-                        } else {
-                            if (log.isDebugEnabled()) {
-                                log.debug("Tenant '" + PrivilegedCarbonContext.getThreadLocalCarbonContext()
-                                        .getTenantDomain() + "' does not have push notification strategy.");
-                            }
-                        }
-                    } catch (DeviceManagementException e) {
-                        log.error("Error occurred while getting notification strategy for operation mapping " +
-                                operationMapping.getDeviceIdentifier().getType(), e);
-                    } catch (OperationManagementException e) {
-                        log.error("Unable to get the operation for operation " + operationMapping.getOperationId(), e);
-                    } catch (PushNotificationExecutionFailedException e) {
-                        log.error("Error occurred while sending push notification to operation:  " + operationMapping
-                                .getOperationId(), e);
-                    } finally {
-                        PrivilegedCarbonContext.endTenantFlow();
-                    }
-                }
+            Map<Integer, List<OperationMapping>> operationMappingsTenantMap = getScheduledOperationMappings();
+            List<PushNotificationBatch> batches = new ArrayList<>();
+            for (Map.Entry<Integer, List<OperationMapping>> entry : operationMappingsTenantMap.entrySet()) {
+                batches.addAll(getPushNotificationBatches(entry.getKey(), entry.getValue()));
             }
+            List<OperationMapping> operationsCompletedList = sendPushNotificationBatches(batches);
             // Update push notification status to competed for operations which already sent
             if (operationsCompletedList.size() > 0) {
                 try {
@@ -146,10 +113,196 @@ public class PushNotificationSchedulerTask implements Runnable {
                 }
             }
             if (log.isDebugEnabled()) {
-                log.debug("Push notification job running completed.");
+                log.debug("Push notification job running completed. Sent " + operationsCompletedList.size() +
+                        " notifications in " + batches.size() + " batches within " +
+                        (System.currentTimeMillis() - startTime) + " ms.");
             }
         } catch (Throwable cause) {
             log.error("PushNotificationSchedulerTask failed due to " + cause.getMessage(), cause);
         }
     }
+
+    private Map<Integer, List<OperationMapping>> getScheduledOperationMappings() {
+        Map<Integer, List<OperationMapping>> operationMappingsTenantMap = new HashMap<>();
+        try {
+            //Get next available operation list per device batch
+            OperationManagementDAOFactory.openConnection();
+            try {
+                if (DeviceManagementDataHolder.getInstance().getHeartBeatService().isTaskPartitioningEnabled()) {
+                    ServerCtxInfo serverCtxInfo = DeviceManagementDataHolder.getInstance().getHeartBeatService().getServerCtxInfo();
+                    if (serverCtxInfo != null) {
+                        operationMappingsTenantMap = operationDAO.getAllocatedOperationMappingsByStatus(Operation.Status
+                                        .PENDING, Operation.PushNotificationStatus.SCHEDULED, DeviceConfigurationManager.getInstance()
+                                        .getDeviceManagementConfig().getPushNotificationConfiguration().getSchedulerBatchSize(),
+                                serverCtxInfo.getTaskPartition());
+                    } else {
+                        if (log.isDebugEnabled()) {
+                            log.debug("Active server information not recorded yet.");
+                        }
+                    }
+                } else {
+                    operationMappingsTenantMap = operationDAO.getOperationMappingsByStatus(Operation.Status
+                            .PENDING, Operation.PushNotificationStatus.SCHEDULED, DeviceConfigurationManager.getInstance()
+                            .getDeviceManagementConfig().getPushNotificationConfiguration().getSchedulerBatchSize());
+                }
+            } catch (HeartBeatManagementException e) {
+                throw new RuntimeException(e);
+            }
+        } catch (OperationManagementDAOException e) {
+            log.error("Unable to retrieve scheduled pending operations for task.", e);
+        } finally {
+            OperationManagementDAOFactory.closeConnection();
+        }
+        return operationMappingsTenantMap;
+    }
+
+    /**
+     * Groups the operation mappings of a tenant by device type, loads the notification strategy of each device type
+     * and each distinct operation once, and splits the mappings of each device type into batches to be sent in
+     * parallel.
+     *
+     * @param tenantId          tenant of the operation mappings
+     * @param operationMappings scheduled operation mappings of the tenant
+     * @return batches which are ready to be sent
+     */
+    private List<PushNotificationBatch> getPushNotificationBatches(int tenantId,
+                                                                   List<OperationMapping> operationMappings) {
+        List<PushNotificationBatch> batches = new ArrayList<>();
+        Map<String, List<OperationMapping>> deviceTypeMappings = new HashMap<>();
+        for (OperationMapping operationMapping : operationMappings) {
+            deviceTypeMappings.computeIfAbsent(operationMapping.getDeviceIdentifier().getType(),
+                    deviceType -> new ArrayList<>()).add(operationMapping);
+        }
+        try {
+            // Set tenant id and domain
+            PrivilegedCarbonContext.startTenantFlow();
+            PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(tenantId, true);
+            for (Map.Entry<String, List<OperationMapping>> entry : deviceTypeMappings.entrySet()) {
+                String deviceType = entry.getKey();
+                // Get notification strategy for given device type
+                NotificationStrategy notificationStrategy;
+                try {
+                    notificationStrategy = provider.getNotificationStrategyByDeviceType(deviceType);
+                } catch (DeviceManagementException e) {
+                    log.error("Error occurred while getting notification strategy for operation mapping " +
+                            deviceType, e);
+                    continue;
+                }
+                if (notificationStrategy == null) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Tenant '" + PrivilegedCarbonContext.getThreadLocalCarbonContext()
+                                .getTenantDomain() + "' does not have push notification strategy.");
+                    }
+                    continue;
+                }
+                Map<Integer, io.entgra.device.mgt.core.device.mgt.common.operation.mgt.Operation> operations =
+                        new HashMap<>();
+                Set<Integer> failedOperationIds = new HashSet<>();
+                List<OperationMapping> sendableMappings = new ArrayList<>();
+                for (OperationMapping operationMapping : entry.getValue()) {
+                    int operationId = operationMapping.getOperationId();
+                    if (!operations.containsKey(operationId) && !failedOperationIds.contains(operationId)) {
+                        try {
+                            operations.put(operationId, provider.getOperation(deviceType, operationId));
+                        } catch (OperationManagementException e) {
+                            log.error("Unable to get the operation for operation " + operationId, e);
+                            failedOperationIds.add(operationId);
+                        }
+                    }
+                    if (operations.containsKey(operationId)) {
+                        sendableMappings.add(operationMapping);
+                    }
+                }
+                int batchSize = (sendableMappings.size() + sendConcurrency - 1) / sendConcurrency;
+                for (int i = 0; i < sendableMappings.size(); i += batchSize) {
+                    batches.add(new PushNotificationBatch(tenantId, notificationStrategy, operations,
+                            sendableMappings.subList(i, Math.min(i + batchSize, sendableMappings.size()))));
+                }
+            }
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+        return batches;
+    }
+
+    private List<OperationMapping> sendPushNotificationBatches(List<PushNotificationBatch> batches) {
+        List<OperationMapping> operationsCompletedList = new ArrayList<>();
+        if (batches.isEmpty()) {
+            return operationsCompletedList;
+        }
+        List<Future<List<OperationMapping>>> results;
+        try {
+            results = sendExecutor.invokeAll(batches);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Push notification job interrupted while sending notifications.", e);
+            return operationsCompletedList;
+        }
+        for (Future<List<OperationMapping>> result : results) {
+            try {
+                operationsCompletedList.addAll(result.get());
+            } catch (ExecutionException e) {
+                log.error("Error occurred while sending push notification batch.", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return operationsCompletedList;
+    }
+
+    /**
+     * Push notifications of a single tenant and device type, sent on a worker thread.
+     */
+    private static class PushNotificationBatch implements Callable<List<OperationMapping>> {
+
+        private final int tenantId;
+        private final NotificationStrategy notificationStrategy;
+        private final Map<Integer, io.entgra.device.mgt.core.device.mgt.common.operation.mgt.Operation> operations;
+        private final List<OperationMapping> operationMappings;
+
+        private PushNotificationBatch(int tenantId, NotificationStrategy notificationStrategy,
+                                      Map<Integer, io.entgra.device.mgt.core.device.mgt.common.operation.mgt.Operation>
+                                              operations, List<OperationMapping> operationMappings) {
+            this.tenantId = tenantId;
+            this.notificationStrategy = notificationStrategy;
+            this.operations = operations;
+            this.operationMappings = operationMappings;
+        }
+
+        @Override
+        public List<OperationMapping> call() {
+            List<OperationMapping> operationsCompletedList = new ArrayList<>();
+            List<NotificationContext> contexts = new ArrayList<>(operationMappings.size());
+            for (OperationMapping operationMapping : operationMappings) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Sending push notification for operationId :" + operationMapping.getOperationId() +
+                            " to deviceId : " + operationMapping.getDeviceIdentifier().getId());
+                }
+                contexts.add(new NotificationContext(operationMapping.getDeviceIdentifier(),
+                        operations.get(operationMapping.getOperationId())));
+            }
+            Map<NotificationContext, PushNotificationExecutionFailedException> failures;
+            try {
+                PrivilegedCarbonContext.startTenantFlow();
+                PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(tenantId, true);
+                // Send the push notifications on given strategy
+                failures = notificationStrategy.executeBatch(contexts);
+            } finally {
+                PrivilegedCarbonContext.endTenantFlow();
+            }
+            for (int i = 0; i < contexts.size(); i++) {
+                OperationMapping operationMapping = operationMappings.get(i);
+                PushNotificationExecutionFailedException failure = failures.get(contexts.get(i));
+                if (failure == null) {
+                    operationMapping.setPushNotificationStatus(Operation.PushNotificationStatus.COMPLETED);
+                    operationsCompletedList.add(operationMapping);
+                } else {
+                    log.error("Error occurred while sending push notification to operation:  " + operationMapping
+                            .getOperationId(), failure);
+                }
+            }
+            return operationsCompletedList;
+        }
+    }
 }
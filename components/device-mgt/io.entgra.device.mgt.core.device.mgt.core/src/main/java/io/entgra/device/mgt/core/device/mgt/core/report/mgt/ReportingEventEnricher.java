@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2018 - 2024, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.report.mgt;
+
+import io.entgra.device.mgt.core.device.mgt.common.Device;
+import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
+import io.entgra.device.mgt.core.device.mgt.common.authorization.DeviceAccessAuthorizationException;
+import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceDetailsWrapper;
+import io.entgra.device.mgt.core.device.mgt.common.group.mgt.DeviceGroup;
+import io.entgra.device.mgt.core.device.mgt.common.group.mgt.GroupManagementException;
+import io.entgra.device.mgt.core.device.mgt.core.internal.DeviceManagementDataHolder;
+import io.entgra.device.mgt.core.device.mgt.core.report.mgt.config.ReportMgtConfiguration;
+import io.entgra.device.mgt.core.device.mgt.core.report.mgt.config.ReportMgtConfigurationManager;
+import io.entgra.device.mgt.core.device.mgt.core.report.mgt.config.ReportingEventBatchConfiguration;
+import io.entgra.device.mgt.core.device.mgt.core.util.DeviceManagerUtil;
+import org.apache.commons.lang.StringUtils;
+import org.wso2.carbon.user.api.UserStoreException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adds the groups of the device and the roles of the user to the events published to the reporting backend.
+ * <p>
+ * The groups of devices, the roles of users and whether the owner of a device may publish its events are cached
+ * for a short time, since devices report far more often than these change. A change is hence reflected in the
+ * published events only after the cache entry expires. Nothing is cached if the expiry time is not positive.
+ * The lookups are made with the tenant in the carbon context, which has to be the tenant of the device.
+ */
+public class ReportingEventEnricher {
+
+    private static volatile ReportingEventEnricher instance;
+
+    private final ExpiringCache<List<DeviceGroup>> groupCache;
+    private final ExpiringCache<String[]> roleCache;
+    private final ExpiringCache<Boolean> ownerAuthorizationCache;
+
+    /**
+     * @param expiryTime time to live of the cached lookups in milliseconds
+     * @param capacity   maximum number of lookups of each kind to keep
+     */
+    ReportingEventEnricher(long expiryTime, int capacity) {
+        this.groupCache = new ExpiringCache<>(expiryTime, capacity);
+        this.roleCache = new ExpiringCache<>(expiryTime, capacity);
+        this.ownerAuthorizationCache = new ExpiringCache<>(expiryTime, capacity);
+    }
+
+    public static ReportingEventEnricher getInstance() {
+        if (instance == null) {
+            synchronized (ReportingEventEnricher.class) {
+                if (instance == null) {
+                    ReportMgtConfiguration config = ReportMgtConfigurationManager.getInstance().getConfiguration();
+                    ReportingEventBatchConfiguration batchConfig = config != null ?
+                            config.getEventBatchConfiguration() : null;
+                    if (batchConfig != null) {
+                        instance = new ReportingEventEnricher(batchConfig.getEnrichmentCacheExpiryTime() * 1000L,
+                                batchConfig.getEnrichmentCacheCapacity());
+                    } else {
+                        instance = new ReportingEventEnricher(0, 0);
+                    }
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Sets the device, tenant, groups and roles of an event.
+     *
+     * @param deviceDetailsWrapper event to enrich
+     * @param device               device which reported the event
+     * @param tenantId             id of the tenant of the device
+     * @param username             user who reported the event, or null if it was reported by the device itself
+     * @param requiredPermission   permission the owner of the device needs to be attributed with events reported
+     *                             by the device itself
+     * @throws GroupManagementException            if the groups of the device cannot be read
+     * @throws UserStoreException                  if the roles of the user cannot be read
+     * @throws DeviceAccessAuthorizationException if the access of the owner to the device cannot be checked
+     */
+    public void enrich(DeviceDetailsWrapper deviceDetailsWrapper, Device device, int tenantId, String username,
+                       String requiredPermission)
+            throws GroupManagementException, UserStoreException, DeviceAccessAuthorizationException {
+        deviceDetailsWrapper.setDevice(device);
+        deviceDetailsWrapper.setTenantId(tenantId);
+
+        List<DeviceGroup> groups = getGroups(device, tenantId);
+        if (groups != null && groups.size() > 0) {
+            deviceDetailsWrapper.setGroups(groups);
+        }
+
+        if (StringUtils.isEmpty(username) && isOwnerAuthorized(device, tenantId, requiredPermission)) {
+            username = device.getEnrolmentInfo().getOwner();
+        }
+
+        String[] rolesOfUser = getRolesOfUser(username, tenantId);
+        if (rolesOfUser != null && rolesOfUser.length > 0) {
+            deviceDetailsWrapper.setRole(rolesOfUser);
+        }
+    }
+
+    private List<DeviceGroup> getGroups(Device device, int tenantId) throws GroupManagementException {
+        String key = tenantId + ":" + device.getId();
+        List<DeviceGroup> groups = groupCache.get(key);
+        if (groups == null) {
+            groups = DeviceManagementDataHolder.getInstance().getGroupManagementProviderService()
+                    .getGroups(device, false);
+            groupCache.put(key, groups);
+        }
+        return groups;
+    }
+
+    private boolean isOwnerAuthorized(Device device, int tenantId, String requiredPermission)
+            throws DeviceAccessAuthorizationException {
+        String owner = device.getEnrolmentInfo().getOwner();
+        String key = tenantId + ":" + device.getId() + ":" + owner + ":" + requiredPermission;
+        Boolean authorized = ownerAuthorizationCache.get(key);
+        if (authorized == null) {
+            authorized = DeviceManagementDataHolder.getInstance().getDeviceAccessAuthorizationService()
+                    .isUserAuthorized(new DeviceIdentifier(device.getDeviceIdentifier(), device.getType()), owner,
+                            new String[] {requiredPermission});
+            ownerAuthorizationCache.put(key, authorized);
+        }
+        return authorized;
+    }
+
+    private String[] getRolesOfUser(String username, int tenantId) throws UserStoreException {
+        String key = tenantId + ":" + username;
+        String[] rolesOfUser = roleCache.get(key);
+        if (rolesOfUser == null) {
+            rolesOfUser = DeviceManagerUtil.getRolesOfUser(username);
+            roleCache.put(key, rolesOfUser);
+        }
+        return rolesOfUser;
+    }
+
+    /**
+     * A size bounded map whose entries expire a fixed time after they are put. The least recently used entry is
+     * evicted beyond the capacity.
+     */
+    static class ExpiringCache<V> {
+
+        private final long expiryTime;
+        private final Map<String, Entry<V>> entries;
+
+        ExpiringCache(long expiryTime, int capacity) {
+            this.expiryTime = expiryTime;
+            int maxSize = Math.max(capacity, 1);
+            this.entries = new LinkedHashMap<String, Entry<V>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        /**
+         * @return the cached value, or null if there is no such value or it has expired
+         */
+        V get(String key) {
+            if (expiryTime <= 0) {
+                return null;
+            }
+            synchronized (entries) {
+                Entry<V> entry = entries.get(key);
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.expiryTime < System.currentTimeMillis()) {
+                    entries.remove(key);
+                    return null;
+                }
+                return entry.value;
+            }
+        }
+
+        void put(String key, V value) {
+            if (expiryTime <= 0 || value == null) {
+                return;
+            }
+            synchronized (entries) {
+                entries.put(key, new Entry<>(value, System.currentTimeMillis() + expiryTime));
+            }
+        }
+
+        int size() {
+            synchronized (entries) {
+                return entries.size();
+            }
+        }
+
+        private static class Entry<V> {
+
+            private final V value;
+            private final long expiryTime;
+
+            private Entry(V value, long expiryTime) {
+                this.value = value;
+                this.expiryTime = expiryTime;
+            }
+        }
+    }
+}
@@ -0,0 +1,565 @@
+/*
+ * Copyright (c) 2018 - 2024, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.report.mgt;
+
+import io.entgra.device.mgt.core.device.mgt.common.Device;
+import io.entgra.device.mgt.core.device.mgt.common.authorization.DeviceAccessAuthorizationException;
+import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceDetailsWrapper;
+import io.entgra.device.mgt.core.device.mgt.common.exceptions.EventPublishingException;
+import io.entgra.device.mgt.core.device.mgt.common.group.mgt.GroupManagementException;
+import io.entgra.device.mgt.core.device.mgt.core.report.mgt.config.ReportMgtConfiguration;
+import io.entgra.device.mgt.core.device.mgt.core.report.mgt.config.ReportMgtConfigurationManager;
+import io.entgra.device.mgt.core.device.mgt.core.report.mgt.config.ReportingEventBatchConfiguration;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.user.api.UserStoreException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Publishes device events to the reporting backend in batches instead of posting each event in its own request.
+ * <p>
+ * Events are queued in a bounded ring, and enriched with the groups and roles of their device by the flush thread,
+ * so the reporting device does not wait for these lookups. The queued events are flushed every flush interval, or as
+ * soon as a batch worth of events is queued. Each flush posts the events of an endpoint as JSON arrays of at most the
+ * batch size, gzip encoded if compression is enabled. Batches which fail with a connection error or a server error
+ * are retried with an exponential backoff, and dropped once the retries are exhausted. The payloads of the batches
+ * being retried are bounded by the maximum retry bytes, beyond which failed batches are dropped instead of being
+ * retried. When the ring is full the event is not accepted, and the caller is expected to publish it by itself.
+ */
+public class ReportingEventPublisher {
+
+    private static final Log log = LogFactory.getLog(ReportingEventPublisher.class);
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+    private static final long MAX_RETRY_INTERVAL = 60000;
+    private static volatile ReportingEventPublisher instance;
+    private static volatile boolean initialized;
+
+    private final BlockingQueue<ReportingEvent> events;
+    private final int batchSize;
+    private final boolean compressionEnabled;
+    private final int maxRetries;
+    private final long retryInterval;
+    private final long maxRetryBytes;
+    private final EventEnricher enricher;
+    private final BatchSender sender;
+    private final ScheduledExecutorService executor;
+    private final boolean scheduled;
+    private final Object flushLock = new Object();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicInteger submitting = new AtomicInteger();
+    private final Object submitLock = new Object();
+    private final AtomicLong retryingBytes = new AtomicLong();
+    private volatile boolean closed;
+
+    private final LongAdder acceptedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder publishedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder enrichmentFailureCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder retryCount = new LongAdder();
+    private volatile long lastFlushDuration;
+
+    /**
+     * Adds the details which are not known by the reporting device to an event.
+     */
+    interface EventEnricher {
+
+        /**
+         * @return true if the event is to be published, false if it could not be enriched
+         */
+        boolean enrich(ReportingEvent event);
+    }
+
+    /**
+     * Posts a batch of events to an endpoint of the reporting backend.
+     */
+    interface BatchSender {
+
+        /**
+         * @return status code of the response
+         */
+        int send(String endpoint, byte[] payload, boolean compressed) throws EventPublishingException;
+    }
+
+    /**
+     * @param config    configuration of the publisher
+     * @param enricher  enriches the events before they are published
+     * @param sender    posts the batches of events
+     * @param scheduled whether to flush periodically and whenever a batch worth of events is queued, or only when
+     *                  {@link #flush()} is called
+     */
+    ReportingEventPublisher(ReportingEventBatchConfiguration config, EventEnricher enricher, BatchSender sender,
+                            boolean scheduled) {
+        this.events = new ArrayBlockingQueue<>(Math.max(config.getQueueCapacity(), 1));
+        this.batchSize = Math.max(config.getBatchSize(), 1);
+        this.compressionEnabled = config.isCompressionEnabled();
+        this.maxRetries = Math.max(config.getMaxRetries(), 0);
+        this.retryInterval = Math.max(config.getRetryInterval(), 1);
+        this.maxRetryBytes = Math.max(config.getMaxRetryBytes(), 0);
+        this.enricher = enricher;
+        this.sender = sender;
+        this.scheduled = scheduled;
+        this.executor = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "reporting-event-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (scheduled) {
+            long flushInterval = Math.max(config.getFlushInterval(), 10);
+            executor.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return the publisher, or null if events are to be published one by one
+     */
+    public static ReportingEventPublisher getInstance() {
+        if (!initialized) {
+            synchronized (ReportingEventPublisher.class) {
+                if (!initialized) {
+                    ReportMgtConfiguration config = ReportMgtConfigurationManager.getInstance().getConfiguration();
+                    if (config != null && config.getEventBatchConfiguration() != null
+                            && config.getEventBatchConfiguration().isEnabled()) {
+                        instance = new ReportingEventPublisher(config.getEventBatchConfiguration(),
+                                ReportingEventPublisher::enrichInTenantFlow,
+                                (endpoint, payload, compressed) -> ReportingPublisherManager.getInstance()
+                                        .publishBulkData(endpoint, payload, compressed), true);
+                    }
+                    initialized = true;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Stops the publisher, if it has been started. Queued events are published before returning, and batches which
+     * are still being retried are given up to {@value #SHUTDOWN_TIMEOUT_SECONDS} seconds.
+     */
+    public static void shutdown() {
+        synchronized (ReportingEventPublisher.class) {
+            if (instance != null) {
+                instance.close();
+                instance = null;
+            }
+            initialized = true;
+        }
+    }
+
+    /**
+     * Queues an event of a device to be published by the next flush.
+     *
+     * @param deviceDetailsWrapper event to publish
+     * @param device               device which reported the event
+     * @param tenantId             id of the tenant of the device
+     * @param username             user who reported the event, or null if it was reported by the device itself
+     * @param requiredPermission   permission the owner of the device needs to be attributed with the event
+     * @param eventUrl             endpoint of the event
+     * @return true if the event has been queued, false if the caller has to publish it
+     */
+    public boolean submit(DeviceDetailsWrapper deviceDetailsWrapper, Device device, int tenantId, String username,
+                          String requiredPermission, String eventUrl) {
+        submitting.incrementAndGet();
+        try {
+            if (closed) {
+                return false;
+            }
+            if (!events.offer(new ReportingEvent(deviceDetailsWrapper, device, tenantId, username,
+                    requiredPermission, eventUrl))) {
+                rejectedCount.increment();
+                return false;
+            }
+            acceptedCount.increment();
+            if (scheduled && events.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::flushQuietly);
+                } catch (RejectedExecutionException e) {
+                    flushRequested.set(false);
+                }
+            }
+            return true;
+        } finally {
+            if (submitting.decrementAndGet() == 0 && closed) {
+                synchronized (submitLock) {
+                    submitLock.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Enriches and publishes the queued events. Batches which fail are retried in the background.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            flushRequested.set(false);
+            List<ReportingEvent> pending = new ArrayList<>();
+            events.drainTo(pending);
+            if (pending.isEmpty()) {
+                return;
+            }
+            long startTime = System.currentTimeMillis();
+            Map<String, List<String>> eventsOfEndpoints = new LinkedHashMap<>();
+            for (ReportingEvent event : pending) {
+                if (!enricher.enrich(event)) {
+                    enrichmentFailureCount.increment();
+                    continue;
+                }
+                eventsOfEndpoints.computeIfAbsent(event.getEventUrl(), k -> new ArrayList<>())
+                        .add(event.getDeviceDetailsWrapper().getJSONString());
+            }
+            for (Map.Entry<String, List<String>> entry : eventsOfEndpoints.entrySet()) {
+                List<String> endpointEvents = entry.getValue();
+                for (int from = 0; from < endpointEvents.size(); from += batchSize) {
+                    List<String> batch = endpointEvents.subList(from, Math.min(from + batchSize,
+                            endpointEvents.size()));
+                    send(new EventBatch(entry.getKey(), toPayload(batch), batch.size()), 0);
+                }
+            }
+            lastFlushDuration = System.currentTimeMillis() - startTime;
+            if (log.isDebugEnabled()) {
+                log.debug("Flushed " + pending.size() + " reporting events to " + eventsOfEndpoints.size()
+                        + " endpoints in " + lastFlushDuration + " ms, " + events.size() + " events pending");
+            }
+        }
+    }
+
+    /**
+     * @return number of events which are yet to be flushed
+     */
+    public int getPendingCount() {
+        return events.size();
+    }
+
+    public long getAcceptedCount() {
+        return acceptedCount.sum();
+    }
+
+    /**
+     * @return number of events which were not accepted since the queue was full
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    /**
+     * @return number of events which were not published since their batch was refused or ran out of retries
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long getEnrichmentFailureCount() {
+        return enrichmentFailureCount.sum();
+    }
+
+    /**
+     * @return number of batches published
+     */
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    public long getRetryCount() {
+        return retryCount.sum();
+    }
+
+    /**
+     * @return size of the payloads of the batches which are waiting to be retried, in bytes
+     */
+    public long getRetryingBytes() {
+        return retryingBytes.get();
+    }
+
+    public long getLastFlushDuration() {
+        return lastFlushDuration;
+    }
+
+    void close() {
+        closed = true;
+        awaitSubmissions();
+        flushQuietly();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Reporting event batches were still being retried after " + SHUTDOWN_TIMEOUT_SECONDS
+                        + " seconds");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Serializes events into a JSON array, gzip encoded if compression is enabled.
+     */
+    byte[] toPayload(List<String> jsonEvents) {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < jsonEvents.size(); i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(jsonEvents.get(i));
+        }
+        byte[] payload = builder.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        if (!compressionEnabled) {
+            return payload;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(payload.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(payload);
+        } catch (IOException e) {
+            // Not thrown when writing to memory
+            throw new IllegalStateException("Error occurred while compressing reporting events", e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private void send(EventBatch batch, int attempt) {
+        try {
+            int statusCode = sender.send(batch.getEndpoint(), batch.getPayload(), compressionEnabled);
+            if (statusCode >= 200 && statusCode < 300) {
+                releaseRetry(batch, attempt);
+                publishedCount.add(batch.getSize());
+                batchCount.increment();
+                return;
+            }
+            if (!isRetryable(statusCode)) {
+                releaseRetry(batch, attempt);
+                droppedCount.add(batch.getSize());
+                log.error("Reporting backend refused a batch of " + batch.getSize() + " events published to "
+                        + batch.getEndpoint() + ", Response code: " + statusCode);
+                return;
+            }
+            log.warn("Reporting backend failed to accept a batch of " + batch.getSize() + " events published to "
+                    + batch.getEndpoint() + ", Response code: " + statusCode);
+        } catch (EventPublishingException e) {
+            log.warn("Failed to publish a batch of " + batch.getSize() + " events to " + batch.getEndpoint(), e);
+        }
+        if (attempt >= maxRetries) {
+            releaseRetry(batch, attempt);
+            droppedCount.add(batch.getSize());
+            log.error("Dropped a batch of " + batch.getSize() + " events to " + batch.getEndpoint() + " after "
+                    + (attempt + 1) + " attempts");
+            return;
+        }
+        if (attempt == 0 && !reserveRetry(batch)) {
+            droppedCount.add(batch.getSize());
+            log.error("Dropped a batch of " + batch.getSize() + " events to " + batch.getEndpoint()
+                    + " since the batches being retried already take " + retryingBytes.get() + " bytes");
+            return;
+        }
+        long delay = Math.min(retryInterval << Math.min(attempt, 16), MAX_RETRY_INTERVAL);
+        retryCount.increment();
+        try {
+            executor.schedule(() -> send(batch, attempt + 1), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            retryCount.decrement();
+            droppedCount.add(batch.getSize());
+            releaseRetry(batch, attempt + 1);
+            log.error("Dropped a batch of " + batch.getSize() + " events to " + batch.getEndpoint()
+                    + " since the publisher is shutting down");
+        }
+    }
+
+    /**
+     * Accounts the payload of a batch which is about to be retried, unless it does not fit in the maximum retry
+     * bytes.
+     *
+     * @return true if the batch is to be retried
+     */
+    private boolean reserveRetry(EventBatch batch) {
+        long size = batch.getPayload().length;
+        while (true) {
+            long current = retryingBytes.get();
+            if (current + size > maxRetryBytes) {
+                return false;
+            }
+            if (retryingBytes.compareAndSet(current, current + size)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases the payload of a batch once it is no longer retried.
+     */
+    private void releaseRetry(EventBatch batch, int attempt) {
+        if (attempt > 0) {
+            retryingBytes.addAndGet(-batch.getPayload().length);
+        }
+    }
+
+    private void awaitSubmissions() {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS);
+        synchronized (submitLock) {
+            while (submitting.get() > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    log.warn("Reporting event submissions did not complete within " + SHUTDOWN_TIMEOUT_SECONDS
+                            + " seconds");
+                    return;
+                }
+                try {
+                    submitLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static boolean isRetryable(int statusCode) {
+        return statusCode == 408 || statusCode == 429 || statusCode >= 500;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Unexpected error occurred while publishing reporting events", e);
+        }
+    }
+
+    /**
+     * Enriches an event in the tenant flow of its device, since the flush thread does not carry the tenant of the
+     * request which reported the event.
+     */
+    private static boolean enrichInTenantFlow(ReportingEvent event) {
+        PrivilegedCarbonContext.startTenantFlow();
+        try {
+            PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(event.getTenantId(), true);
+            ReportingEventEnricher.getInstance().enrich(event.getDeviceDetailsWrapper(), event.getDevice(),
+                    event.getTenantId(), event.getUsername(), event.getRequiredPermission());
+            return true;
+        } catch (GroupManagementException e) {
+            log.error("Error occurred while getting group list", e);
+        } catch (UserStoreException e) {
+            log.error("Error occurred while getting role list", e);
+        } catch (DeviceAccessAuthorizationException e) {
+            log.error("User with name '" + event.getDevice().getEnrolmentInfo().getOwner() +
+                    "' is unauthorized to publish events for device with the id '" +
+                    event.getDevice().getDeviceIdentifier() + "'", e);
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+        return false;
+    }
+
+    /**
+     * An event reported by a device, together with what is needed to enrich it outside the request.
+     */
+    static class ReportingEvent {
+
+        private final DeviceDetailsWrapper deviceDetailsWrapper;
+        private final Device device;
+        private final int tenantId;
+        private final String username;
+        private final String requiredPermission;
+        private final String eventUrl;
+
+        ReportingEvent(DeviceDetailsWrapper deviceDetailsWrapper, Device device, int tenantId, String username,
+                       String requiredPermission, String eventUrl) {
+            this.deviceDetailsWrapper = deviceDetailsWrapper;
+            this.device = device;
+            this.tenantId = tenantId;
+            this.username = username;
+            this.requiredPermission = requiredPermission;
+            this.eventUrl = eventUrl;
+        }
+
+        DeviceDetailsWrapper getDeviceDetailsWrapper() {
+            return deviceDetailsWrapper;
+        }
+
+        Device getDevice() {
+            return device;
+        }
+
+        int getTenantId() {
+            return tenantId;
+        }
+
+        String getUsername() {
+            return username;
+        }
+
+        String getRequiredPermission() {
+            return requiredPermission;
+        }
+
+        String getEventUrl() {
+            return eventUrl;
+        }
+    }
+
+    /**
+     * A serialized batch of events of an endpoint.
+     */
+    private static class EventBatch {
+
+        private final String endpoint;
+        private final byte[] payload;
+        private final int size;
+
+        private EventBatch(String endpoint, byte[] payload, int size) {
+            this.endpoint = endpoint;
+            this.payload = payload;
+            this.size = size;
+        }
+
+        String getEndpoint() {
+            return endpoint;
+        }
+
+        byte[] getPayload() {
+            return payload;
+        }
+
+        int getSize() {
+            return size;
+        }
+    }
+}
@@ -27,12 +27,14 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.protocol.HTTP;
+import org.apache.http.util.EntityUtils;
 
 import java.io.IOException;
 import java.net.ConnectException;
@@ -77,6 +79,37 @@ public class ReportingPublisherManager {
         return executorService.submit(new ReportingPublisher(deviceDetailsWrapper, eventUrl));
     }
 
+    /**
+     * Posts a batch of events to the reporting backend, on the calling thread.
+     *
+     * @param eventUrl   endpoint of the events
+     * @param payload    JSON array of the events
+     * @param compressed whether the payload is gzip encoded
+     * @return status code of the response
+     * @throws EventPublishingException if the batch could not be posted
+     */
+    public int publishBulkData(String eventUrl, byte[] payload, boolean compressed) throws EventPublishingException {
+        HttpPost apiEndpoint = new HttpPost(eventUrl);
+        ByteArrayEntity requestEntity = new ByteArrayEntity(payload, ContentType.APPLICATION_JSON);
+        if (compressed) {
+            requestEntity.setContentEncoding("gzip");
+        }
+        apiEndpoint.setEntity(requestEntity);
+        try (CloseableHttpResponse response = httpClient.execute(apiEndpoint)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            EntityUtils.consumeQuietly(response.getEntity());
+            if (log.isDebugEnabled()) {
+                log.debug("Published " + payload.length + " bytes of events to reporting backend: " + eventUrl +
+                        ", Response code: " + statusCode);
+            }
+            return statusCode;
+        } catch (IOException e) {
+            // Logged by the caller, which retries the batch
+            String message = "Error occurred when publishing a batch of reporting data to the API: " + eventUrl;
+            throw new EventPublishingException(message, e);
+        }
+    }
+
     private class ReportingPublisher implements Callable<Integer> {
         private final DeviceDetailsWrapper payload;
         private final String endpoint;
@@ -30,6 +30,7 @@ public class ReportMgtConfiguration {
     private int threadPoolSize;
     private int maxConnections;
     private int MaxConnectionsPerRoute;
+    private ReportingEventBatchConfiguration eventBatchConfiguration;
 
     @XmlElement(name = "DatasourceName", required = true)
     public String getDatasourceName() {
@@ -67,5 +68,14 @@ public class ReportMgtConfiguration {
         this.MaxConnectionsPerRoute = maxConnectionsPerRoute;
     }
 
+    @XmlElement(name = "EventBatching")
+    public ReportingEventBatchConfiguration getEventBatchConfiguration() {
+        return eventBatchConfiguration;
+    }
+
+    public void setEventBatchConfiguration(ReportingEventBatchConfiguration eventBatchConfiguration) {
+        this.eventBatchConfiguration = eventBatchConfiguration;
+    }
+
 }
 
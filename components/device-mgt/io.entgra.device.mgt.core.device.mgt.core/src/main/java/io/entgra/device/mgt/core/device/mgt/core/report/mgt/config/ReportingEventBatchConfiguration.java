@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2018 - 2024, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.report.mgt.config;
+
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * This class represents the configuration of the pipeline which publishes device events to the reporting backend in
+ * batches.
+ */
+@XmlRootElement(name = "EventBatching")
+public class ReportingEventBatchConfiguration {
+
+    private boolean enabled;
+    private int queueCapacity = 10000;
+    private int batchSize = 100;
+    private int flushInterval = 1000;
+    private boolean compressionEnabled = true;
+    private int maxRetries = 3;
+    private int retryInterval = 500;
+    private int maxRetryBytes = 16 * 1024 * 1024;
+    private int enrichmentCacheExpiryTime = 30;
+    private int enrichmentCacheCapacity = 10000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @XmlElement(name = "Enabled", required = true)
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    @XmlElement(name = "QueueCapacity")
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @XmlElement(name = "BatchSize")
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getFlushInterval() {
+        return flushInterval;
+    }
+
+    @XmlElement(name = "FlushInterval")
+    public void setFlushInterval(int flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    @XmlElement(name = "Compression")
+    public void setCompressionEnabled(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    @XmlElement(name = "MaxRetries")
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public int getRetryInterval() {
+        return retryInterval;
+    }
+
+    @XmlElement(name = "RetryInterval")
+    public void setRetryInterval(int retryInterval) {
+        this.retryInterval = retryInterval;
+    }
+
+    public int getMaxRetryBytes() {
+        return maxRetryBytes;
+    }
+
+    @XmlElement(name = "MaxRetryBytes")
+    public void setMaxRetryBytes(int maxRetryBytes) {
+        this.maxRetryBytes = maxRetryBytes;
+    }
+
+    public int getEnrichmentCacheExpiryTime() {
+        return enrichmentCacheExpiryTime;
+    }
+
+    @XmlElement(name = "EnrichmentCacheExpiryTime")
+    public void setEnrichmentCacheExpiryTime(int enrichmentCacheExpiryTime) {
+        this.enrichmentCacheExpiryTime = enrichmentCacheExpiryTime;
+    }
+
+    public int getEnrichmentCacheCapacity() {
+        return enrichmentCacheCapacity;
+    }
+
+    @XmlElement(name = "EnrichmentCacheCapacity")
+    public void setEnrichmentCacheCapacity(int enrichmentCacheCapacity) {
+        this.enrichmentCacheCapacity = enrichmentCacheCapacity;
+    }
+}
@@ -40,4 +40,6 @@ public interface QueryBuilder {
 
     QueryHolder processUpdatedDevices(long epochTime) throws InvalidOperatorException;
 
+    QueryHolder processEnrolmentIds(List<Integer> enrolmentIds) throws InvalidOperatorException;
+
 }
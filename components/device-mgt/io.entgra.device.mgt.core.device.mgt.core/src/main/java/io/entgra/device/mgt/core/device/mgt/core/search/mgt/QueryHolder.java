@@ -23,6 +23,7 @@ public class QueryHolder {
 
     private String query;
     private ValueType[] types;
+    private int selectivity;
 
     public String getQuery() {
         return query;
@@ -39,5 +40,16 @@ public class QueryHolder {
     public void setTypes(ValueType[] types) {
         this.types = types;
     }
+
+    /**
+     * @return estimated selectivity of the query, where a lower value is expected to match fewer devices
+     */
+    public int getSelectivity() {
+        return selectivity;
+    }
+
+    public void setSelectivity(int selectivity) {
+        this.selectivity = selectivity;
+    }
 }
 
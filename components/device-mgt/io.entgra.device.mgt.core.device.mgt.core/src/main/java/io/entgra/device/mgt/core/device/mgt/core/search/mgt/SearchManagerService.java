@@ -20,6 +20,7 @@
 package io.entgra.device.mgt.core.device.mgt.core.search.mgt;
 
 import io.entgra.device.mgt.core.device.mgt.common.Device;
+import io.entgra.device.mgt.core.device.mgt.common.PaginationResult;
 import io.entgra.device.mgt.core.device.mgt.common.search.SearchContext;
 
 import java.util.List;
@@ -28,6 +29,15 @@ public interface SearchManagerService {
 
     List<Device> search(SearchContext searchContext) throws SearchMgtException;
 
+    /**
+     * Searches the devices which match the search context.
+     *
+     * @param searchContext conditions and page of the search
+     * @return the devices of the requested page, with the number of enrolments matched by the search as the total
+     * @throws SearchMgtException if the search cannot be executed
+     */
+    PaginationResult searchPaginated(SearchContext searchContext) throws SearchMgtException;
+
     List<Device> getUpdated(long epochTime) throws SearchMgtException;
 }
 
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.search.mgt.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorted set of enrolment ids matched by a search clause. Clauses are combined by merging the sorted ids, so a search
+ * never has to hold more than the ids of the matching devices until the requested page is loaded.
+ */
+final class EnrolmentIdSet {
+
+    static final EnrolmentIdSet EMPTY = new EnrolmentIdSet(new int[0], 0);
+
+    private final int[] ids;
+    private final int size;
+
+    private EnrolmentIdSet(int[] ids, int size) {
+        this.ids = ids;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int get(int index) {
+        return ids[index];
+    }
+
+    /**
+     * @return ids which are in both this set and the other set
+     */
+    EnrolmentIdSet intersect(EnrolmentIdSet other) {
+        EnrolmentIdSet small = this.size <= other.size ? this : other;
+        EnrolmentIdSet large = small == this ? other : this;
+        int[] result = new int[small.size];
+        int count = 0;
+        int from = 0;
+        for (int i = 0; i < small.size && from < large.size; i++) {
+            int index = Arrays.binarySearch(large.ids, from, large.size, small.ids[i]);
+            if (index >= 0) {
+                result[count++] = small.ids[i];
+                from = index + 1;
+            } else {
+                from = -index - 1;
+            }
+        }
+        return count == 0 ? EMPTY : new EnrolmentIdSet(result, count);
+    }
+
+    /**
+     * @return ids which are in this set, the other set or both
+     */
+    EnrolmentIdSet union(EnrolmentIdSet other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (this.isEmpty()) {
+            return other;
+        }
+        int[] result = new int[this.size + other.size];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < this.size && j < other.size) {
+            if (this.ids[i] < other.ids[j]) {
+                result[count++] = this.ids[i++];
+            } else if (this.ids[i] > other.ids[j]) {
+                result[count++] = other.ids[j++];
+            } else {
+                result[count++] = this.ids[i++];
+                j++;
+            }
+        }
+        while (i < this.size) {
+            result[count++] = this.ids[i++];
+        }
+        while (j < other.size) {
+            result[count++] = other.ids[j++];
+        }
+        return new EnrolmentIdSet(result, count);
+    }
+
+    /**
+     * @param cursor enrolment id after which the page starts, or 0 to start from the first id
+     * @param offset number of ids to skip after the cursor
+     * @param limit  maximum number of ids in the page, or 0 for no limit
+     * @return ids of the page in ascending order
+     */
+    List<Integer> page(int cursor, int offset, int limit) {
+        int start = 0;
+        if (cursor > 0) {
+            start = Arrays.binarySearch(ids, 0, size, cursor);
+            start = start >= 0 ? start + 1 : -start - 1;
+        }
+        start = (int) Math.min((long) start + Math.max(offset, 0), size);
+        int end = limit > 0 ? (int) Math.min((long) start + limit, size) : size;
+        List<Integer> page = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            page.add(ids[i]);
+        }
+        return page;
+    }
+
+    /**
+     * Collects ids into a set. The ids are expected in ascending order, as returned by the search queries, but any
+     * order is accepted.
+     */
+    static final class Builder {
+
+        private int[] ids = new int[64];
+        private int size;
+        private boolean sorted = true;
+
+        void add(int id) {
+            if (size > 0) {
+                int last = ids[size - 1];
+                if (last == id) {
+                    return;
+                }
+                if (last > id) {
+                    sorted = false;
+                }
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        EnrolmentIdSet build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            if (sorted) {
+                return new EnrolmentIdSet(ids, size);
+            }
+            Arrays.sort(ids, 0, size);
+            int count = 1;
+            for (int i = 1; i < size; i++) {
+                if (ids[i] != ids[count - 1]) {
+                    ids[count++] = ids[i];
+                }
+            }
+            return new EnrolmentIdSet(ids, count);
+        }
+    }
+}
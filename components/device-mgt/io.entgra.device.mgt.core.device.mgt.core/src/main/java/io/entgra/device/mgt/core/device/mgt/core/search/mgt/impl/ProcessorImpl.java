@@ -23,6 +23,7 @@ import io.entgra.device.mgt.core.device.mgt.common.Device;
 import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
 import io.entgra.device.mgt.core.device.mgt.common.DeviceManagementConstants;
 import io.entgra.device.mgt.core.device.mgt.common.EnrolmentInfo;
+import io.entgra.device.mgt.core.device.mgt.common.PaginationResult;
 import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceInfo;
 import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceLocation;
 import io.entgra.device.mgt.core.device.mgt.common.search.SearchContext;
@@ -38,13 +39,17 @@ import org.wso2.carbon.context.CarbonContext;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class ProcessorImpl implements Processor {
     private ApplicationDAO applicationDAO;
     private static final Log log = LogFactory.getLog(ProcessorImpl.class);
+    private static final int MAX_CANDIDATES_IN_QUERY = 500;
 
     public ProcessorImpl() {
         applicationDAO = DeviceManagementDAOFactory.getApplicationDAO();
@@ -52,39 +57,40 @@ public class ProcessorImpl implements Processor {
 
     @Override
     public List<Device> execute(SearchContext searchContext) throws SearchMgtException {
+        return this.search(searchContext).devices;
+    }
+
+    @Override
+    public PaginationResult executePaginated(SearchContext searchContext) throws SearchMgtException {
+        SearchResult searchResult = this.search(searchContext);
+        PaginationResult paginationResult = new PaginationResult();
+        paginationResult.setData(searchResult.devices);
+        paginationResult.setRecordsTotal(searchResult.matchCount);
+        paginationResult.setRecordsFiltered(searchResult.matchCount);
+        return paginationResult;
+    }
+
+    private SearchResult search(SearchContext searchContext) throws SearchMgtException {
 
         if (!Utils.validateOperators(searchContext.getConditions())) {
             throw new SearchMgtException("Invalid validator is provided.");
         }
 
         QueryBuilder queryBuilder = new QueryBuilderImpl();
-        List<Device> generalDevices = new ArrayList<>();
-        List<List<Device>> allANDDevices = new ArrayList<>();
-        List<List<Device>> allORDevices = new ArrayList<>();
-        List<Device> locationDevices = new ArrayList<>();
+        List<Device> devices;
+        int matchCount;
         try {
             DeviceManagementDAOFactory.openConnection();
             Map<String, List<QueryHolder>> queries = queryBuilder.buildQueries(searchContext.getConditions());
-
-
-            if (queries.containsKey(Constants.GENERAL)) {
-                generalDevices = searchDeviceDetailsTable(queries.get(Constants.GENERAL).get(0));
-            }
-            if (queries.containsKey(Constants.PROP_AND)) {
-                for (QueryHolder queryHolder : queries.get(Constants.PROP_AND)) {
-                    List<Device> andDevices = searchDeviceDetailsTable(queryHolder);
-                    allANDDevices.add(andDevices);
-                }
-            }
-            if (queries.containsKey(Constants.PROP_OR)) {
-                for (QueryHolder queryHolder : queries.get(Constants.PROP_OR)) {
-                    List<Device> orDevices = searchDeviceDetailsTable(queryHolder);
-                    allORDevices.add(orDevices);
-                }
-            }
-            if (queries.containsKey(Constants.LOCATION)) {
-                locationDevices = searchDeviceDetailsTable(queries.get(Constants.LOCATION).get(0));
+            EnrolmentIdSet enrolmentIds = this.searchEnrolmentIds(queries);
+            matchCount = enrolmentIds.size();
+            List<Integer> page = enrolmentIds.page(searchContext.getCursor(), searchContext.getOffset(),
+                    searchContext.getLimit());
+            if (log.isDebugEnabled()) {
+                log.debug("Search matched " + matchCount + " enrolments, of which " + page.size() +
+                        " are loaded");
             }
+            devices = this.getDevicesOfEnrolments(queryBuilder, page);
         } catch (InvalidOperatorException e) {
             throw new SearchMgtException("Invalid operator was provided, so cannot execute the search.", e);
         } catch (SQLException e) {
@@ -95,18 +101,8 @@ public class ProcessorImpl implements Processor {
             DeviceManagementDAOFactory.closeConnection();
         }
 
-        ResultSetAggregator aggregator = new ResultSetAggregatorImpl();
-
-        Map<String, List<Device>> devices = new HashMap<>();
-
-        devices.put(Constants.GENERAL, generalDevices);
-        devices.put(Constants.PROP_AND, this.processANDSearch(allANDDevices));
-        devices.put(Constants.PROP_OR, this.processORSearch(allORDevices));
-        devices.put(Constants.LOCATION, locationDevices);
-
-        List<Device> finalDevices = aggregator.aggregate(devices);
-        this.setApplicationListOfDevices(finalDevices);
-        return finalDevices;
+        this.setApplicationListOfDevices(devices);
+        return new SearchResult(devices, matchCount);
     }
 
     @Override
@@ -132,69 +128,104 @@ public class ProcessorImpl implements Processor {
     }
 
 
-    private List<Device> processANDSearch(List<List<Device>> deLists) {
-        List<Device> deviceList = new ArrayList<>();
-        List<Device> smallestDeviceList = this.findListWithLowestItems(deLists);
-        List<Map<Integer, Device>> maps = this.convertDeviceListToMap(deLists);
-        boolean valueExist = false;
-        for (Device device : smallestDeviceList) {
-            for (Map<Integer, Device> devices : maps) {
-                if (devices.containsKey(device.getId())) {
-                    valueExist = true;
-                } else {
-                    valueExist = false;
-                    break;
+    /**
+     * Finds the enrolments which match the search. The AND clauses are evaluated starting from the one expected to
+     * be the most selective, and each clause is limited to the enrolments matched so far once they are few enough to
+     * be passed to the query. The OR and location clauses add their matches to the result.
+     */
+    private EnrolmentIdSet searchEnrolmentIds(Map<String, List<QueryHolder>> queries) throws SearchDAOException {
+        List<QueryHolder> andQueries = new ArrayList<>();
+        if (queries.containsKey(Constants.GENERAL)) {
+            andQueries.addAll(queries.get(Constants.GENERAL));
+        }
+        if (queries.containsKey(Constants.PROP_AND)) {
+            andQueries.addAll(queries.get(Constants.PROP_AND));
+        }
+        andQueries.sort(Comparator.comparingInt(QueryHolder::getSelectivity));
+
+        EnrolmentIdSet enrolmentIds = null;
+        for (QueryHolder queryHolder : andQueries) {
+            EnrolmentIdSet matchedIds = this.searchEnrolmentIds(queryHolder, enrolmentIds);
+            enrolmentIds = enrolmentIds == null ? matchedIds : enrolmentIds.intersect(matchedIds);
+            if (enrolmentIds.isEmpty()) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Skipping the remaining AND clauses, as no enrolment matches the search");
                 }
+                break;
             }
-            if (valueExist) {
-                deviceList.add(device);
+        }
+        if (enrolmentIds == null) {
+            enrolmentIds = EnrolmentIdSet.EMPTY;
+        }
+        if (queries.containsKey(Constants.PROP_OR)) {
+            for (QueryHolder queryHolder : queries.get(Constants.PROP_OR)) {
+                enrolmentIds = enrolmentIds.union(this.searchEnrolmentIds(queryHolder, null));
             }
         }
-        return deviceList;
-    }
-
-    private List<Device> processORSearch(List<List<Device>> deLists) {
-        List<Device> devices = new ArrayList<>();
-        Map<Integer, Device> map = new HashMap<>();
-
-        for (List<Device> list : deLists) {
-            for (Device device : list) {
-                if (!map.containsKey(device.getId())) {
-                    map.put(device.getId(), device);
-                    devices.add(device);
-                }
+        if (queries.containsKey(Constants.LOCATION)) {
+            for (QueryHolder queryHolder : queries.get(Constants.LOCATION)) {
+                enrolmentIds = enrolmentIds.union(this.searchEnrolmentIds(queryHolder, null));
             }
         }
-        return devices;
+        return enrolmentIds;
     }
 
-    private List<Device> findListWithLowestItems(List<List<Device>> deLists) {
-        int size = 0;
-        List<Device> devices = new ArrayList<>();
-        for (List<Device> list : deLists) {
-            if (size == 0) {
-                size = list.size();
-                devices = list;
-            } else {
-                if (list.size() < size) {
-                    devices = list;
+    private EnrolmentIdSet searchEnrolmentIds(QueryHolder queryHolder, EnrolmentIdSet candidateIds)
+            throws SearchDAOException {
+        StringBuilder query = new StringBuilder(queryHolder.getQuery());
+        boolean limitToCandidates = candidateIds != null && candidateIds.size() <= MAX_CANDIDATES_IN_QUERY;
+        if (limitToCandidates) {
+            query.append(" AND DE.ID IN (");
+            for (int i = 0; i < candidateIds.size(); i++) {
+                query.append(i == 0 ? "?" : ", ?");
+            }
+            query.append(")");
+        }
+        query.append(" ORDER BY DE.ID");
+        if (log.isDebugEnabled()) {
+            log.debug("Query : " + query);
+        }
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        EnrolmentIdSet.Builder builder = new EnrolmentIdSet.Builder();
+        try {
+            Connection conn = this.getConnection();
+            stmt = conn.prepareStatement(query.toString());
+            int x = this.setValues(stmt, queryHolder.getTypes());
+            if (limitToCandidates) {
+                for (int i = 0; i < candidateIds.size(); i++) {
+                    stmt.setInt(x++, candidateIds.get(i));
                 }
             }
+            rs = stmt.executeQuery();
+            while (rs.next()) {
+                builder.add(rs.getInt("ENROLLMENT_ID"));
+            }
+        } catch (SQLException e) {
+            throw new SearchDAOException("Error occurred while searching the enrolments of devices.", e);
+        } finally {
+            DeviceManagementDAOUtil.cleanupResources(stmt, rs);
         }
-        return devices;
+        return builder.build();
     }
 
-    private List<Map<Integer, Device>> convertDeviceListToMap(List<List<Device>> deLists) {
-        List<Map<Integer, Device>> maps = new ArrayList<>();
-        for (List<Device> devices : deLists) {
-            Map<Integer, Device> deviceMap = new HashMap<>();
-
-            for (Device device : devices) {
-                deviceMap.put(device.getId(), device);
+    /**
+     * Loads the details of the devices of the given enrolments, in the order of the enrolment ids.
+     */
+    private List<Device> getDevicesOfEnrolments(QueryBuilder queryBuilder, List<Integer> enrolmentIds)
+            throws InvalidOperatorException, SearchDAOException {
+        List<Device> devices = new ArrayList<>(enrolmentIds.size());
+        Set<Integer> loadedEnrolmentIds = new HashSet<>();
+        for (int from = 0; from < enrolmentIds.size(); from += MAX_CANDIDATES_IN_QUERY) {
+            List<Integer> batch = enrolmentIds.subList(from, Math.min(from + MAX_CANDIDATES_IN_QUERY,
+                    enrolmentIds.size()));
+            for (Device device : searchDeviceDetailsTable(queryBuilder.processEnrolmentIds(batch))) {
+                if (loadedEnrolmentIds.add(device.getEnrolmentInfo().getId())) {
+                    devices.add(device);
+                }
             }
-            maps.add(deviceMap);
         }
-        return maps;
+        return devices;
     }
 
     private void setApplicationListOfDevices(List<Device> devices) throws SearchMgtException {
@@ -225,24 +256,7 @@ public class ProcessorImpl implements Processor {
         try {
             conn = this.getConnection();
             stmt = conn.prepareStatement(queryHolder.getQuery());
-
-            int x = 1;
-            ValueType[] types = queryHolder.getTypes();
-            for (ValueType type : types) {
-                if (type.getColumnType().equals(ValueType.columnType.STRING)) {
-                    stmt.setString(x, type.getStringValue());
-                    x++;
-                } else if (type.getColumnType().equals(ValueType.columnType.INTEGER)) {
-                    stmt.setInt(x, type.getIntValue());
-                    x++;
-                } else if (type.getColumnType().equals(ValueType.columnType.LONG)) {
-                    stmt.setLong(x, type.getLongValue());
-                    x++;
-                } else if (type.getColumnType().equals(ValueType.columnType.DOUBLE)) {
-                    stmt.setDouble(x, type.getDoubleValue());
-                    x++;
-                }
-            }
+            this.setValues(stmt, queryHolder.getTypes());
 
             rs = stmt.executeQuery();
             while (rs.next()) {
@@ -315,6 +329,31 @@ public class ProcessorImpl implements Processor {
         return DeviceManagementDAOFactory.getConnection();
     }
 
+    /**
+     * Sets the values of the query parameters.
+     *
+     * @return index of the next parameter
+     */
+    private int setValues(PreparedStatement stmt, ValueType[] types) throws SQLException {
+        int x = 1;
+        for (ValueType type : types) {
+            if (type.getColumnType().equals(ValueType.columnType.STRING)) {
+                stmt.setString(x, type.getStringValue());
+                x++;
+            } else if (type.getColumnType().equals(ValueType.columnType.INTEGER)) {
+                stmt.setInt(x, type.getIntValue());
+                x++;
+            } else if (type.getColumnType().equals(ValueType.columnType.LONG)) {
+                stmt.setLong(x, type.getLongValue());
+                x++;
+            } else if (type.getColumnType().equals(ValueType.columnType.DOUBLE)) {
+                stmt.setDouble(x, type.getDoubleValue());
+                x++;
+            }
+        }
+        return x;
+    }
+
     private List<Device> fillPropertiesOfDevices(List<Device> devices) throws SearchDAOException {
         if (devices.isEmpty()) {
             return null;
@@ -346,10 +385,20 @@ public class ProcessorImpl implements Processor {
             }
             rs = stmt.executeQuery();
 
-            DeviceInfo dInfo;
+            Map<Integer, List<DeviceInfo>> deviceInfoMap = new HashMap<>();
+            for (Device device : devices) {
+                if (device.getDeviceInfo() == null) {
+                    device.setDeviceInfo(new DeviceInfo());
+                }
+                deviceInfoMap.computeIfAbsent(device.getId(), k -> new ArrayList<>()).add(device.getDeviceInfo());
+            }
             while (rs.next()) {
-                dInfo = this.getDeviceInfo(devices, rs.getInt("DEVICE_ID"));
-                dInfo.getDeviceDetailsMap().put(rs.getString("KEY_FIELD"), rs.getString("VALUE_FIELD"));
+                List<DeviceInfo> deviceInfos = deviceInfoMap.get(rs.getInt("DEVICE_ID"));
+                if (deviceInfos != null) {
+                    for (DeviceInfo dInfo : deviceInfos) {
+                        dInfo.getDeviceDetailsMap().put(rs.getString("KEY_FIELD"), rs.getString("VALUE_FIELD"));
+                    }
+                }
             }
         } catch (SQLException e) {
             throw new SearchDAOException("Error occurred while retrieving the device properties.", e);
@@ -359,15 +408,17 @@ public class ProcessorImpl implements Processor {
         return devices;
     }
 
-    private DeviceInfo getDeviceInfo(List<Device> devices, int deviceId) {
-        for (Device device : devices) {
-            if (device.getId() == deviceId) {
-                if (device.getDeviceInfo() == null) {
-                    device.setDeviceInfo(new DeviceInfo());
-                }
-                return device.getDeviceInfo();
-            }
+    /**
+     * A page of devices with the number of enrolments matched by the search.
+     */
+    private static class SearchResult {
+
+        private final List<Device> devices;
+        private final int matchCount;
+
+        private SearchResult(List<Device> devices, int matchCount) {
+            this.devices = devices;
+            this.matchCount = matchCount;
         }
-        return null;
     }
-}
\ No newline at end of file
+}
@@ -24,8 +24,10 @@ import io.entgra.device.mgt.core.device.mgt.core.search.mgt.*;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.user.api.UserStoreException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +38,10 @@ public class QueryBuilderImpl implements QueryBuilder {
     private static final Log log = LogFactory.getLog(QueryBuilderImpl.class);
     private final String WILDCARD_OPERATOR = "%";
     private final String OR_OPERATOR = "OR";
+    private final String EQUALS_OPERATOR = "=";
+    private static final int PROPERTY_MATCH_SELECTIVITY = 1;
+    private static final int GENERAL_SELECTIVITY = 2;
+    private static final int PROPERTY_RANGE_SELECTIVITY = 3;
     private String current_username;
     private boolean isDeviceAdminUser;
 
@@ -47,6 +53,14 @@ public class QueryBuilderImpl implements QueryBuilder {
         List<Condition> otherORColumns = new ArrayList<>();
         Condition locCondition = new Condition();
 
+        current_username = PrivilegedCarbonContext.getThreadLocalCarbonContext().getUsername();
+        try {
+            isDeviceAdminUser = Utils.isPermittedToViewAnyDevice(current_username);
+        } catch (UserStoreException e) {
+            log.error("Unable to check permissions of the user: " + current_username, e);
+            isDeviceAdminUser = false;
+        }
+
         if (conditions.size() == 1) {
             if (Constants.LOCATION.equalsIgnoreCase(conditions.get(0).getKey())) {
                 locCondition = conditions.get(0);
@@ -92,13 +106,14 @@ public class QueryBuilderImpl implements QueryBuilder {
             Integer intArr[] = new Integer[1];
             intArr[0] = 1;
             //int x = 1;
-            String query = this.getGenericQueryPart(valueTypeArray) +
+            String query = this.getGenericIdQueryPart(valueTypeArray) +
                     this.processAND(andColumns, valueTypeArray, intArr) +
                     this.processOR(orColumns, valueTypeArray, intArr);
             List<QueryHolder> queryHolders = new ArrayList<>();
             QueryHolder queryHolder = new QueryHolder();
             queryHolder.setQuery(query);
             queryHolder.setTypes(valueTypeArray);
+            queryHolder.setSelectivity(GENERAL_SELECTIVITY);
             queryHolders.add(queryHolder);
 
             queries.put(Constants.GENERAL, queryHolders);
@@ -112,6 +127,13 @@ public class QueryBuilderImpl implements QueryBuilder {
         if (locCondition != null && locCondition.getValue() != null) {
             queries.put(Constants.LOCATION, this.processLocation(locCondition));
         }
+        if (!isDeviceAdminUser) {
+            for (List<QueryHolder> queryHolders : queries.values()) {
+                for (QueryHolder queryHolder : queryHolders) {
+                    this.restrictToOwner(queryHolder);
+                }
+            }
+        }
 
         if (log.isDebugEnabled()) {
             log.debug("General Query : " + queries.get(Constants.GENERAL));
@@ -254,6 +276,30 @@ public class QueryBuilderImpl implements QueryBuilder {
         }
     }
 
+    @Override
+    public QueryHolder processEnrolmentIds(List<Integer> enrolmentIds) throws InvalidOperatorException {
+        try {
+            ValueType valueTypeArray[] = new ValueType[enrolmentIds.size() + 1];
+            StringBuilder query = new StringBuilder(this.getGenericQueryPart(valueTypeArray));
+            query.append(" AND DE.ID IN (");
+            for (int i = 0; i < enrolmentIds.size(); i++) {
+                query.append(i == 0 ? "?" : ", ?");
+                ValueType value = new ValueType();
+                value.setColumnType(ValueType.columnType.INTEGER);
+                value.setIntValue(enrolmentIds.get(i));
+                valueTypeArray[i + 1] = value;
+            }
+            query.append(") ORDER BY DE.ID");
+
+            QueryHolder queryHolder = new QueryHolder();
+            queryHolder.setQuery(query.toString());
+            queryHolder.setTypes(valueTypeArray);
+            return queryHolder;
+        } catch (Exception e) {
+            throw new InvalidOperatorException("Error occurred while building the sql for the enrolments.", e);
+        }
+    }
+
     private List<QueryHolder> getQueryList(List<Condition> conditions) throws InvalidOperatorException {
         try {
             List<QueryHolder> queryHolders = new ArrayList<>();
@@ -262,7 +308,7 @@ public class QueryBuilderImpl implements QueryBuilder {
                 QueryHolder query = new QueryHolder();
                 ValueType valueTypeArray[] = new ValueType[3];
 
-                String querySuffix = this.getPropertyQueryPart(valueTypeArray) + " AND DI.KEY_FIELD = " + " ? " +
+                String querySuffix = this.getPropertyIdQueryPart(valueTypeArray) + " AND DI.KEY_FIELD = " + " ? " +
                         " AND DI.VALUE_FIELD " + con.getOperator() + " ? ";
                 ValueType key = new ValueType();
                 key.setColumnType(ValueType.columnType.STRING);
@@ -276,6 +322,8 @@ public class QueryBuilderImpl implements QueryBuilder {
 
                 query.setQuery(querySuffix);
                 query.setTypes(valueTypeArray);
+                query.setSelectivity(EQUALS_OPERATOR.equals(con.getOperator()) ? PROPERTY_MATCH_SELECTIVITY :
+                        PROPERTY_RANGE_SELECTIVITY);
 
                 queryHolders.add(query);
             }
@@ -288,7 +336,7 @@ public class QueryBuilderImpl implements QueryBuilder {
     private QueryHolder buildLocationQuery(String location) throws InvalidOperatorException {
         try {
             ValueType valueTypeArray[] = new ValueType[7];
-            String query = this.getGenericQueryPart(valueTypeArray);
+            String query = this.getGenericIdQueryPart(valueTypeArray);
             query = query + " AND (DL.STREET1 LIKE ? ";
             query = query + " OR DL.STREET2 LIKE ? ";
             query = query + " OR DL.CITY LIKE ? ";
@@ -345,22 +393,16 @@ public class QueryBuilderImpl implements QueryBuilder {
         }
     }
 
-    private String getPropertyQueryPart(ValueType[] valueTypeArray) throws InvalidOperatorException {
+    /**
+     * Returns the part of a query which selects the enrolment ids of the devices in the tenant, to which the
+     * conditions on the device details and the location are appended.
+     */
+    private String getGenericIdQueryPart(ValueType[] valueTypeArray) throws InvalidOperatorException {
         try {
-            String query = "SELECT D.ID, D.DESCRIPTION, D.NAME,  \n" +
-                    "D.DEVICE_TYPE_ID, D.DEVICE_IDENTIFICATION,  DT.ID AS DEVICE_TYPE_ID, \n" +
-                    "DT.NAME AS DEVICE_TYPE_NAME, DD.DEVICE_ID, DD.DEVICE_MODEL, DD.VENDOR, \n" +
-                    "DD.OS_VERSION, DD.OS_BUILD_DATE, DD.BATTERY_LEVEL, DD.INTERNAL_TOTAL_MEMORY, DD.INTERNAL_AVAILABLE_MEMORY,\n" +
-                    "DD.EXTERNAL_TOTAL_MEMORY, DD.EXTERNAL_AVAILABLE_MEMORY, DD.CONNECTION_TYPE, \n" +
-                    "DD.SSID, DD.CPU_USAGE, DD.TOTAL_RAM_MEMORY, DD.AVAILABLE_RAM_MEMORY, \n" +
-                    "DD.PLUGGED_IN, DD.UPDATE_TIMESTAMP, DL.LATITUDE, DL.LONGITUDE, DL.STREET1, DL.STREET2, DL.CITY, DL.ZIP, \n" +
-                    "DL.STATE, DL.COUNTRY, DL.UPDATE_TIMESTAMP AS DL_UPDATED_TIMESTAMP, DI.KEY_FIELD, DI.VALUE_FIELD, \n" +
-                    "DE.ID ENROLLMENT_ID, DE.OWNER, DE.OWNERSHIP, DE.STATUS AS DE_STATUS " +
-                    "FROM DM_DEVICE_DETAIL DD INNER JOIN DM_DEVICE D ON  D.ID=DD.DEVICE_ID\n" +
-                    "LEFT JOIN DM_DEVICE_LOCATION DL ON DL.DEVICE_ID=D.ID  \n" +
-                    "INNER JOIN DM_DEVICE_TYPE DT ON DT.ID=D.DEVICE_TYPE_ID\n" +
+            String query = "SELECT DE.ID AS ENROLLMENT_ID FROM DM_DEVICE_DETAIL DD \n" +
+                    "INNER JOIN DM_DEVICE D ON D.ID=DD.DEVICE_ID\n" +
+                    "LEFT JOIN DM_DEVICE_LOCATION DL ON DL.DEVICE_ID=D.ID \n" +
                     "INNER JOIN DM_ENROLMENT DE ON D.ID=DE.DEVICE_ID\n" +
-                    "LEFT JOIN DM_DEVICE_INFO DI ON DI.DEVICE_ID=D.ID\n" +
                     "WHERE D.TENANT_ID = ? ";
 
             ValueType type = new ValueType();
@@ -374,6 +416,43 @@ public class QueryBuilderImpl implements QueryBuilder {
         }
     }
 
+    /**
+     * Returns the part of a query which selects the enrolment ids of the devices in the tenant, to which a condition
+     * on a device property is appended.
+     */
+    private String getPropertyIdQueryPart(ValueType[] valueTypeArray) throws InvalidOperatorException {
+        try {
+            String query = "SELECT DE.ID AS ENROLLMENT_ID FROM DM_DEVICE_DETAIL DD \n" +
+                    "INNER JOIN DM_DEVICE D ON D.ID=DD.DEVICE_ID\n" +
+                    "INNER JOIN DM_ENROLMENT DE ON D.ID=DE.DEVICE_ID\n" +
+                    "INNER JOIN DM_DEVICE_INFO DI ON DI.DEVICE_ID=D.ID\n" +
+                    "WHERE D.TENANT_ID = ? ";
+
+            ValueType type = new ValueType();
+            type.setIntValue(PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId());
+            type.setColumnType(ValueType.columnType.INTEGER);
+            valueTypeArray[0] = type;
+            return query;
+
+        } catch (Exception e) {
+            throw new InvalidOperatorException("Error occurred while building the sql", e);
+        }
+    }
+
+    /**
+     * Limits the query to the devices owned by the current user, who is not permitted to view any device.
+     */
+    private void restrictToOwner(QueryHolder queryHolder) {
+        ValueType[] types = queryHolder.getTypes();
+        ValueType[] valueTypeArray = Arrays.copyOf(types, types.length + 1);
+        ValueType owner = new ValueType();
+        owner.setColumnType(ValueType.columnType.STRING);
+        owner.setStringValue(current_username);
+        valueTypeArray[types.length] = owner;
+        queryHolder.setQuery(queryHolder.getQuery() + " AND DE.OWNER = ? ");
+        queryHolder.setTypes(valueTypeArray);
+    }
+
     /**
      * Returns a Value type based on the Condition data.
      *
@@ -20,14 +20,11 @@
 package io.entgra.device.mgt.core.device.mgt.core.search.mgt.impl;
 
 import io.entgra.device.mgt.core.device.mgt.common.Device;
-import io.entgra.device.mgt.core.device.mgt.core.internal.DeviceManagementDataHolder;
-import io.entgra.device.mgt.core.device.mgt.core.permission.mgt.PermissionUtils;
 import io.entgra.device.mgt.core.device.mgt.core.search.mgt.Constants;
 import io.entgra.device.mgt.core.device.mgt.core.search.mgt.ResultSetAggregator;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
-import org.wso2.carbon.user.api.UserRealm;
 import org.wso2.carbon.user.api.UserStoreException;
 
 import java.util.ArrayList;
@@ -81,7 +78,7 @@ public class ResultSetAggregatorImpl implements ResultSetAggregator {
         String username = PrivilegedCarbonContext.getThreadLocalCarbonContext().getUsername();
 
         try {
-            if (isPermittedToViewAnyDevice(username)) {
+            if (Utils.isPermittedToViewAnyDevice(username)) {
                 return finalResult;
             }
         } catch (UserStoreException e) {
@@ -116,20 +113,4 @@ public class ResultSetAggregatorImpl implements ResultSetAggregator {
         return list;
     }
 
-    /**
-     * Checks if the user has permissions to view all devices.
-     *
-     * @param username username
-     * @return {@code true} if user is permitted
-     * @throws UserStoreException If unable to check user permissions
-     */
-    private boolean isPermittedToViewAnyDevice(String username) throws UserStoreException {
-        int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId(true);
-        UserRealm userRealm = DeviceManagementDataHolder.getInstance().getRealmService().getTenantUserRealm(tenantId);
-        return userRealm != null && userRealm.getAuthorizationManager() != null &&
-                userRealm.getAuthorizationManager().isUserAuthorized(username,
-                        PermissionUtils.getAbsolutePermissionPath(Constants.ANY_DEVICE_PERMISSION), 
-                        Constants.UI_EXECUTE);
-    }
-
 }
@@ -20,6 +20,7 @@
 package io.entgra.device.mgt.core.device.mgt.core.search.mgt.impl;
 
 import io.entgra.device.mgt.core.device.mgt.common.Device;
+import io.entgra.device.mgt.core.device.mgt.common.PaginationResult;
 import io.entgra.device.mgt.core.device.mgt.common.search.SearchContext;
 import io.entgra.device.mgt.core.device.mgt.core.search.mgt.Processor;
 import io.entgra.device.mgt.core.device.mgt.core.search.mgt.SearchManagerService;
@@ -40,6 +41,11 @@ public class SearchManagerServiceImpl implements SearchManagerService {
         return processor.execute(searchContext);
     }
 
+    @Override
+    public PaginationResult searchPaginated(SearchContext searchContext) throws SearchMgtException {
+        return processor.executePaginated(searchContext);
+    }
+
     @Override
     public List<Device> getUpdated(long epochTime) throws SearchMgtException {
         return processor.getUpdatedDevices(epochTime);
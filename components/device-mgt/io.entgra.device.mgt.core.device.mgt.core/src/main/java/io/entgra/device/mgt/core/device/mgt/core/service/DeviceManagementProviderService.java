@@ -84,6 +84,15 @@ public interface DeviceManagementProviderService {
     List<Device> getAllDevices(String deviceType, boolean requireDeviceInfo) throws DeviceManagementException;
 
 
+    /**
+     * Method returns a list of devices allocated to a specific node of the server, given the task partition of the node
+     * @param deviceType
+     * @param taskPartition partition owned by the node, null to retrieve devices of all partitions
+     * @return
+     * @throws DeviceManagementException
+     */
+    List<Device> getAllocatedDevices(String deviceType, TaskPartition taskPartition) throws DeviceManagementException;
+
     /**
      * Method returns a list of devices allocated to a specific node of the server, given the serverIndex and active server count
      * @param deviceType
@@ -91,7 +100,10 @@ public interface DeviceManagementProviderService {
      * @param serverIndex
      * @return
      * @throws DeviceManagementException
+     * @deprecated use {@link #getAllocatedDevices(String, TaskPartition)} with
+     *             {@link TaskPartition#ofServerIndex(int, int)}
      */
+    @Deprecated
     List<Device> getAllocatedDevices(String deviceType, int activeServerCount, int serverIndex) throws DeviceManagementException;
 
     /**
@@ -227,6 +239,16 @@ public interface DeviceManagementProviderService {
      */
     Device getDeviceWithTypeProperties(DeviceIdentifier deviceId) throws DeviceManagementException;
 
+    /**
+     * Returns the devices of the specified ids along with their device type properties, looked up in bulk.
+     *
+     * @param deviceIds device Ids
+     * @return devices keyed by the requested device Id, device Ids without a device are not included.
+     * @throws DeviceManagementException
+     */
+    Map<DeviceIdentifier, Device> getDevicesWithTypeProperties(List<DeviceIdentifier> deviceIds)
+            throws DeviceManagementException;
+
     /**
      * Returns the device of specified id.
      *
@@ -20,6 +20,7 @@ package io.entgra.device.mgt.core.device.mgt.core.service;
 
 import com.google.common.reflect.TypeToken;
 import com.google.gson.Gson;
+import io.entgra.device.mgt.core.device.mgt.common.TaskPartition;
 import io.entgra.device.mgt.core.device.mgt.common.exceptions.ConflictException;
 import io.entgra.device.mgt.core.device.mgt.common.metadata.mgt.DeviceStatusManagementService;
 import io.entgra.device.mgt.core.device.mgt.core.dao.DeviceDAO;
@@ -132,9 +133,12 @@ import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.dao.OperationDAO;
 import io.entgra.device.mgt.core.device.mgt.core.dao.util.DeviceManagementDAOUtil;
 import io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.DeviceDetailsMgtException;
 import io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.DeviceInformationManager;
+import io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.dao.DeviceDetailsMgtDAOException;
 import io.entgra.device.mgt.core.device.mgt.core.dto.DeviceType;
 import io.entgra.device.mgt.core.device.mgt.core.dto.DeviceTypeServiceIdentifier;
 import io.entgra.device.mgt.core.device.mgt.core.dto.DeviceTypeVersion;
+import io.entgra.device.mgt.core.device.mgt.core.geo.cluster.GeoClusterIndex;
+import io.entgra.device.mgt.core.device.mgt.core.geo.fence.GeofenceEvaluator;
 import io.entgra.device.mgt.core.device.mgt.common.geo.service.GeoCluster;
 import io.entgra.device.mgt.core.device.mgt.core.internal.DeviceManagementDataHolder;
 import io.entgra.device.mgt.core.device.mgt.core.internal.DeviceManagementServiceComponent;
@@ -754,6 +758,14 @@ public class DeviceManagementProviderServiceImpl implements DeviceManagementProv
             addDeviceStatus(deviceStatusManagementService, tenantId, updatedRows, device.getEnrolmentInfo(), device.getType());
             DeviceManagementDAOFactory.commitTransaction();
             this.removeDeviceFromCache(deviceId);
+            GeoClusterIndex geoClusterIndex = GeoClusterIndex.getInstance();
+            if (geoClusterIndex != null) {
+                geoClusterIndex.removeDevice(tenantId, device.getId());
+            }
+            GeofenceEvaluator geofenceEvaluator = GeofenceEvaluator.getInstance();
+            if (geofenceEvaluator != null) {
+                geofenceEvaluator.removeDevice(tenantId, device.getId());
+            }
         } catch (DeviceManagementDAOException e) {
             DeviceManagementDAOFactory.rollbackTransaction();
             String msg = "Error occurred while removing '" + deviceId.getType() +
@@ -977,20 +989,27 @@ public class DeviceManagementProviderServiceImpl implements DeviceManagementProv
     }
 
     @Override
-    public List<Device> getAllocatedDevices(String deviceType, int activeServerCount, int serverIndex) throws DeviceManagementException {
+    @Deprecated
+    public List<Device> getAllocatedDevices(String deviceType, int activeServerCount, int serverIndex)
+            throws DeviceManagementException {
+        return getAllocatedDevices(deviceType, TaskPartition.ofServerIndex(activeServerCount, serverIndex));
+    }
+
+    @Override
+    public List<Device> getAllocatedDevices(String deviceType, TaskPartition taskPartition) throws DeviceManagementException {
         if (deviceType == null) {
             String msg = "Device type is empty for method getAllDevices";
             log.error(msg);
             throw new DeviceManagementException(msg);
         }
         if (log.isDebugEnabled()) {
-            log.debug("Getting allocated Devices for Server with index " + serverIndex + " and" +
+            log.debug("Getting allocated Devices for Server with partition " + taskPartition + " and" +
                     " type '" + deviceType);
         }
         List<Device> allocatedDevices;
         try {
             DeviceManagementDAOFactory.openConnection();
-            allocatedDevices = deviceDAO.getAllocatedDevices(deviceType, this.getTenantId(), activeServerCount, serverIndex);
+            allocatedDevices = deviceDAO.getAllocatedDevices(deviceType, this.getTenantId(), taskPartition);
             if (allocatedDevices == null) {
                 if (log.isDebugEnabled()) {
                     log.debug("No device is found upon the type '" + deviceType + "'");
@@ -1857,6 +1876,47 @@ public class DeviceManagementProviderServiceImpl implements DeviceManagementProv
         return device;
     }
 
+    @Override
+    public Map<DeviceIdentifier, Device> getDevicesWithTypeProperties(List<DeviceIdentifier> deviceIds)
+            throws DeviceManagementException {
+        if (deviceIds == null) {
+            String msg = "Received null deviceIdentifier list for getDevicesWithTypeProperties";
+            log.error(msg);
+            throw new DeviceManagementException(msg);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Get tenanted devices with type properties, device count: " + deviceIds.size());
+        }
+        Map<DeviceIdentifier, Device> devices = DeviceManagerUtil.getDevicesByIdentifiers(deviceIds);
+        Map<String, Map<String, Device>> devicesOfTypes = new HashMap<>();
+        for (Device device : devices.values()) {
+            devicesOfTypes.computeIfAbsent(device.getType(), type -> new HashMap<>())
+                    .put(device.getDeviceIdentifier(), device);
+        }
+        for (Map.Entry<String, Map<String, Device>> devicesOfType : devicesOfTypes.entrySet()) {
+            DeviceManager deviceManager = this.getDeviceManager(devicesOfType.getKey());
+            if (deviceManager == null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Device Manager associated with the device type '" + devicesOfType.getKey() +
+                            "' is null. Therefore, not retrieving the device type properties");
+                }
+                continue;
+            }
+            List<DeviceIdentifier> typeDeviceIds = new ArrayList<>(devicesOfType.getValue().size());
+            for (String deviceIdentifier : devicesOfType.getValue().keySet()) {
+                typeDeviceIds.add(new DeviceIdentifier(deviceIdentifier, devicesOfType.getKey()));
+            }
+            for (Device dmsDevice : deviceManager.getDevices(typeDeviceIds)) {
+                Device device = devicesOfType.getValue().get(dmsDevice.getDeviceIdentifier());
+                if (device != null) {
+                    device.setFeatures(dmsDevice.getFeatures());
+                    device.setProperties(dmsDevice.getProperties());
+                }
+            }
+        }
+        return devices;
+    }
+
     @Override
     public Device getDevice(DeviceIdentifier deviceId, Date since) throws DeviceManagementException {
         return this.getDevice(deviceId, since, true);
@@ -4055,8 +4115,12 @@ public class DeviceManagementProviderServiceImpl implements DeviceManagementProv
         }
         try {
             DeviceManagementDAOFactory.openConnection();
+            GeoClusterIndex geoClusterIndex = GeoClusterIndex.getInstance();
+            if (geoClusterIndex != null && geoClusterIndex.isSupported(geoQuery)) {
+                return geoClusterIndex.findGeoClusters(geoQuery, this.getTenantId());
+            }
             return deviceDAO.findGeoClusters(geoQuery, this.getTenantId());
-        } catch (DeviceManagementDAOException e) {
+        } catch (DeviceManagementDAOException | DeviceDetailsMgtDAOException e) {
             String msg = "Error occurred while retrieving the geo clusters.";
             log.error(msg, e);
             throw new DeviceManagementException(msg, e);
@@ -36,6 +36,7 @@ import org.wso2.carbon.user.api.AuthorizationManager;
 import org.wso2.carbon.user.api.UserStoreManager;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface for Group Management Services
@@ -347,6 +348,16 @@ public interface GroupManagementProviderService {
     public List<DeviceGroup> getGroups(Device device, boolean requireGroupProps)
             throws GroupManagementException;
 
+    /**
+     * Get groups which contain each of the given devices, resolved in a single lookup.
+     *
+     * @param devices interested devices.
+     * @return groups containing the device, keyed by the device id. Devices without groups are not in the map.
+     * @throws GroupManagementException
+     */
+    Map<Integer, List<DeviceGroup>> getGroups(List<Device> devices, boolean requireGroupProps)
+            throws GroupManagementException;
+
     /**
      * Checks for the default group existence and create group based on device ownership.
      * @param groupName of the group
@@ -1496,6 +1496,49 @@ public class GroupManagementProviderServiceImpl implements GroupManagementProvid
         return getDeviceGroups(requireGroupProps, tenantId, device);
     }
 
+    @Override
+    public Map<Integer, List<DeviceGroup>> getGroups(List<Device> devices, boolean requireGroupProps)
+            throws GroupManagementException {
+        if (devices == null) {
+            String msg = "Received empty device list for getGroups";
+            log.error(msg);
+            throw new GroupManagementException(msg);
+        }
+        if (devices.isEmpty()) {
+            return new HashMap<>();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Get groups of " + devices.size() + " devices");
+        }
+        int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+        List<Integer> deviceIds = new ArrayList<>(devices.size());
+        for (Device device : devices) {
+            deviceIds.add(device.getId());
+        }
+        try {
+            GroupManagementDAOFactory.openConnection();
+            Map<Integer, List<DeviceGroup>> groupsOfDevices = groupDAO.getGroupsOfDevices(deviceIds, tenantId);
+            if (requireGroupProps) {
+                for (List<DeviceGroup> deviceGroups : groupsOfDevices.values()) {
+                    for (DeviceGroup group : deviceGroups) {
+                        populateGroupProperties(group, tenantId);
+                    }
+                }
+            }
+            return groupsOfDevices;
+        } catch (GroupManagementDAOException | SQLException e) {
+            String msg = "Error occurred while retrieving groups of devices.";
+            log.error(msg, e);
+            throw new GroupManagementException(msg, e);
+        } catch (Exception e) {
+            String msg = "Error occurred in getGroups";
+            log.error(msg, e);
+            throw new GroupManagementException(msg, e);
+        } finally {
+            GroupManagementDAOFactory.closeConnection();
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -19,12 +19,15 @@
 package io.entgra.device.mgt.core.device.mgt.core.status.task.impl;
 
 import com.google.gson.Gson;
+import io.entgra.device.mgt.core.device.mgt.common.Device;
 import io.entgra.device.mgt.core.device.mgt.common.exceptions.MetadataManagementException;
 import io.entgra.device.mgt.core.device.mgt.common.metadata.mgt.DeviceStatusManagementService;
+import io.entgra.device.mgt.core.device.mgt.core.cache.DeviceCacheKey;
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceConfigurationManager;
+import io.entgra.device.mgt.core.device.mgt.core.config.status.task.DeviceStatusTaskConfig;
 import io.entgra.device.mgt.core.device.mgt.core.internal.DeviceManagementDataHolder;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
 import io.entgra.device.mgt.core.device.mgt.common.DeviceStatusTaskPluginConfig;
 import io.entgra.device.mgt.core.device.mgt.common.DynamicTaskContext;
 import io.entgra.device.mgt.core.device.mgt.common.EnrolmentInfo;
@@ -35,25 +38,28 @@ import io.entgra.device.mgt.core.device.mgt.core.cache.impl.DeviceCacheManagerIm
 import io.entgra.device.mgt.core.device.mgt.core.dao.DeviceManagementDAOException;
 import io.entgra.device.mgt.core.device.mgt.core.dao.DeviceManagementDAOFactory;
 import io.entgra.device.mgt.core.device.mgt.core.status.task.DeviceStatusTaskException;
+import io.entgra.device.mgt.core.device.mgt.core.status.tracker.DeviceLastSeenTracker;
 import io.entgra.device.mgt.core.device.mgt.core.task.impl.DynamicPartitionedScheduleTask;
-import org.wso2.carbon.context.CarbonContext;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.user.api.UserStoreException;
 import org.wso2.carbon.user.core.service.RealmService;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * This implements the Task service which monitors the device activity periodically & update the device-status if
- * necessary.
+ * necessary. Devices are read in pages of the configured batch size, and the status changes of each page are applied
+ * in a short transaction per tenant, so that neither all the devices nor all the changes are kept in memory at once.
  */
 public class DeviceStatusMonitoringTask extends DynamicPartitionedScheduleTask {
 
     private static final Log log = LogFactory.getLog(DeviceStatusMonitoringTask.class);
+    private static final int DEFAULT_BATCH_SIZE = 1000;
     private String deviceType;
     private int deviceTypeId = -1;
 
@@ -61,18 +67,26 @@ public class DeviceStatusMonitoringTask extends DynamicPartitionedScheduleTask {
     protected void setup() {
     }
 
-    public List<DeviceMonitoringData> getAllDevicesForMonitoring() throws DeviceManagementException {
-
+    /**
+     * Get a page of the devices to be monitored.
+     *
+     * @param lastDeviceId id of the last device of the previous page, 0 to get the first page
+     * @param limit        maximum number of devices in the page
+     * @return devices of which the id is greater than the last device id, in the ascending order of the id
+     * @throws DeviceManagementException if an error occurs while retrieving the devices
+     */
+    public List<DeviceMonitoringData> getDevicesForMonitoring(int lastDeviceId, int limit)
+            throws DeviceManagementException {
         try {
             DeviceManagementDAOFactory.openConnection();
             DynamicTaskContext ctx = getTaskContext();
             if (ctx != null && ctx.isPartitioningEnabled()) {
                 return DeviceManagementDAOFactory.getDeviceDAO()
-                        .getAllDevicesForMonitoring(this.deviceTypeId, this.deviceType,
-                                ctx.getActiveServerCount(), ctx.getServerHashIndex());
+                        .getDevicesForMonitoring(this.deviceTypeId, this.deviceType,
+                                ctx.getTaskPartition(), lastDeviceId, limit);
             } else {
                 return DeviceManagementDAOFactory.getDeviceDAO()
-                        .getAllDevicesForMonitoring(this.deviceTypeId, this.deviceType, -1, -1);
+                        .getDevicesForMonitoring(this.deviceTypeId, this.deviceType, null, lastDeviceId, limit);
             }
         } catch (DeviceManagementDAOException e) {
             String msg = "Error occurred while retrieving devices list for monitoring.";
@@ -94,81 +108,20 @@ public class DeviceStatusMonitoringTask extends DynamicPartitionedScheduleTask {
         String deviceStatusTaskConfigStr = getProperty(DeviceStatusTaskManagerServiceImpl.DEVICE_STATUS_TASK_CONFIG);
         Gson gson = new Gson();
         DeviceStatusTaskPluginConfig deviceStatusTaskPluginConfig = gson.fromJson(deviceStatusTaskConfigStr, DeviceStatusTaskPluginConfig.class);
+        int batchSize = getBatchSize();
+        long timeMillis = System.currentTimeMillis();
+        int lastDeviceId = 0;
+        int updatedCount = 0;
         try {
-            List<EnrolmentInfo> enrolmentInfoTobeUpdated = new ArrayList<>();
-            List<DeviceMonitoringData> allDevicesForMonitoring = getAllDevicesForMonitoring();
-            Map<Integer, List<DeviceMonitoringData>> tenantDevicesMap = new HashMap<>();
-            List<DeviceMonitoringData> tenantMonitoringData = null;
-            //Delegate the devices in each tenant to a separate list to be updated the statuses.
-            //This improvement has been done since the tenants maintain a separate caches and the task is running
-            //in the super-tenant space. Hence, the device status updates are not reflected in the tenant caches.
-            //Refer to https://roadmap.entgra.net/issues/11386 for more information.
-            for (DeviceMonitoringData deviceMonitoringData : allDevicesForMonitoring) {
-                tenantMonitoringData = tenantDevicesMap.get(deviceMonitoringData.getTenantId());
-                if (tenantMonitoringData == null) {
-                    tenantMonitoringData = new ArrayList<>();
-                }
-                tenantMonitoringData.add(deviceMonitoringData);
-                tenantDevicesMap.put(deviceMonitoringData.getTenantId(), tenantMonitoringData);
-            }
-
-            List<DeviceMonitoringData> monitoringDevices = null;
-            long timeMillis = System.currentTimeMillis();
-            //Retrieving the devices belongs for each tenants and updating the status of the devices.
-            for (Map.Entry<Integer, List<DeviceMonitoringData>> entry : tenantDevicesMap.entrySet()) {
-                Integer tenantId = entry.getKey();
-                RealmService realmService = DeviceManagementDataHolder.getInstance().getRealmService();
-                if (realmService != null) {
-                    String domain = realmService.getTenantManager().getDomain(tenantId);
-                    if (domain != null) {
-                        try {
-                            PrivilegedCarbonContext.startTenantFlow();
-                            PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(domain, true);
-                            monitoringDevices = entry.getValue();
-                            for (DeviceMonitoringData monitoringData : monitoringDevices) {
-                                long lastUpdatedTime = (timeMillis - monitoringData
-                                        .getLastUpdatedTime()) / 1000;
-
-                                EnrolmentInfo enrolmentInfo = monitoringData.getDevice().getEnrolmentInfo();
-                                EnrolmentInfo.Status status = null;
-                                if (lastUpdatedTime >= deviceStatusTaskPluginConfig
-                                        .getIdleTimeToMarkInactive()) {
-                                    status = EnrolmentInfo.Status.INACTIVE;
-                                } else if (lastUpdatedTime >= deviceStatusTaskPluginConfig
-                                        .getIdleTimeToMarkUnreachable()) {
-                                    status = EnrolmentInfo.Status.UNREACHABLE;
-                                }
-
-                                if (status != null) {
-                                    enrolmentInfo.setStatus(status);
-                                    enrolmentInfoTobeUpdated.add(enrolmentInfo);
-                                    DeviceIdentifier deviceIdentifier =
-                                            new DeviceIdentifier(monitoringData.getDevice()
-                                                    .getDeviceIdentifier(), deviceType);
-                                    monitoringData.getDevice().setEnrolmentInfo(enrolmentInfo);
-                                    DeviceCacheManagerImpl.getInstance().addDeviceToCache(deviceIdentifier,
-                                            monitoringData.getDevice(), monitoringData.getTenantId());
-                                }
-                            }
-                        } finally {
-                            PrivilegedCarbonContext.endTenantFlow();
-                        }
-                    } else {
-                        log.error("Failed while running the device status update task. Failed while " +
-                                "extracting tenant domain of the tenant id : " + tenantId);
-                    }
-                } else {
-                    log.error("Failed while running the device status update task. RealmService is not initiated");
-                }
-            }
-            if (!enrolmentInfoTobeUpdated.isEmpty()) {
-                try {
-                    this.updateDeviceStatus(enrolmentInfoTobeUpdated);
-                } catch (DeviceStatusTaskException e) {
-                    log.error("Error occurred while updating non-responsive " +
-                            "device-status of devices of type '" + deviceType + "'", e);
+            List<DeviceMonitoringData> monitoringDevices;
+            do {
+                monitoringDevices = getDevicesForMonitoring(lastDeviceId, batchSize);
+                if (monitoringDevices.isEmpty()) {
+                    break;
                 }
-            }
+                lastDeviceId = monitoringDevices.get(monitoringDevices.size() - 1).getDevice().getId();
+                updatedCount += updateDeviceStatus(monitoringDevices, deviceStatusTaskPluginConfig, timeMillis);
+            } while (monitoringDevices.size() == batchSize);
         } catch (DeviceManagementException e) {
             String msg = "Error occurred while retrieving devices list for monitoring.";
             log.error(msg, e);
@@ -176,32 +129,87 @@ public class DeviceStatusMonitoringTask extends DynamicPartitionedScheduleTask {
             String msg = "Error occurred while retrieving RealmService instance for updating device status.";
             log.error(msg, e);
         }
+        if (log.isDebugEnabled()) {
+            log.debug("Updated the status of " + updatedCount + " devices of type '" + deviceType + "'");
+        }
     }
 
+    /**
+     * Computes the status changes of a page of devices and applies them tenant by tenant.
+     *
+     * @return number of devices of which the status has been updated
+     */
+    private int updateDeviceStatus(List<DeviceMonitoringData> monitoringDevices,
+                                   DeviceStatusTaskPluginConfig deviceStatusTaskPluginConfig, long timeMillis)
+            throws UserStoreException {
+        //Delegate the devices in each tenant to a separate list to be updated the statuses.
+        //This improvement has been done since the tenants maintain a separate caches and the task is running
+        //in the super-tenant space. Hence, the device status updates are not reflected in the tenant caches.
+        //Refer to https://roadmap.entgra.net/issues/11386 for more information.
+        Map<Integer, List<Device>> tenantDevicesMap = new HashMap<>();
+        DeviceLastSeenTracker lastSeenTracker = DeviceLastSeenTracker.getInstance();
+        for (DeviceMonitoringData monitoringData : monitoringDevices) {
+            EnrolmentInfo enrolmentInfo = monitoringData.getDevice().getEnrolmentInfo();
+            long lastSeenTime = Math.max(monitoringData.getLastUpdatedTime(),
+                    lastSeenTracker.getLastSeen(enrolmentInfo.getId()));
+            long lastUpdatedTime = (timeMillis - lastSeenTime) / 1000;
+            EnrolmentInfo.Status status = null;
+            if (lastUpdatedTime >= deviceStatusTaskPluginConfig.getIdleTimeToMarkInactive()) {
+                status = EnrolmentInfo.Status.INACTIVE;
+            } else if (lastUpdatedTime >= deviceStatusTaskPluginConfig.getIdleTimeToMarkUnreachable()) {
+                status = EnrolmentInfo.Status.UNREACHABLE;
+            }
+            if (status != null && status != enrolmentInfo.getStatus()) {
+                enrolmentInfo.setStatus(status);
+                tenantDevicesMap.computeIfAbsent(monitoringData.getTenantId(), k -> new ArrayList<>())
+                        .add(monitoringData.getDevice());
+            }
+        }
 
-    private boolean updateDeviceStatus(List<EnrolmentInfo> enrolmentInfos) throws
-            DeviceStatusTaskException {
-        boolean updateStatus;
-        int tenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
-        DeviceStatusManagementService deviceStatusManagementService = DeviceManagementDataHolder
-                .getInstance().getDeviceStatusManagementService();
+        int updatedCount = 0;
+        RealmService realmService = DeviceManagementDataHolder.getInstance().getRealmService();
+        for (Map.Entry<Integer, List<Device>> entry : tenantDevicesMap.entrySet()) {
+            Integer tenantId = entry.getKey();
+            if (realmService == null) {
+                log.error("Failed while running the device status update task. RealmService is not initiated");
+                break;
+            }
+            String domain = realmService.getTenantManager().getDomain(tenantId);
+            if (domain == null) {
+                log.error("Failed while running the device status update task. Failed while " +
+                        "extracting tenant domain of the tenant id : " + tenantId);
+                continue;
+            }
+            try {
+                PrivilegedCarbonContext.startTenantFlow();
+                PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(domain, true);
+                this.updateDeviceStatus(entry.getValue(), tenantId);
+                updatedCount += entry.getValue().size();
+            } catch (DeviceStatusTaskException e) {
+                log.error("Error occurred while updating non-responsive " +
+                        "device-status of devices of type '" + deviceType + "' of tenant " + tenantId, e);
+            } finally {
+                PrivilegedCarbonContext.endTenantFlow();
+            }
+        }
+        return updatedCount;
+    }
+
+    private void updateDeviceStatus(List<Device> devices, int tenantId) throws DeviceStatusTaskException {
+        List<EnrolmentInfo> enrolmentInfos = new ArrayList<>(devices.size());
+        for (Device device : devices) {
+            enrolmentInfos.add(device.getEnrolmentInfo());
+        }
+        List<Device> statusHistoryDevices = getStatusHistoryDevices(devices, tenantId);
         try {
             DeviceManagementDAOFactory.beginTransaction();
-            updateStatus = DeviceManagementDAOFactory.getEnrollmentDAO().updateEnrollmentStatus(enrolmentInfos);
-            boolean isEnableDeviceStatusCheck = deviceStatusManagementService.getDeviceStatusCheck(tenantId);
-            if (updateStatus) {
-                for (EnrolmentInfo enrolmentInfo : enrolmentInfos) {
-                    if (isEnableDeviceStatusCheck) {
-                        if (deviceStatusManagementService.isDeviceStatusValid(this.deviceType, enrolmentInfo.getStatus().name(), tenantId)) {
-                            DeviceManagementDAOFactory.getEnrollmentDAO().addDeviceStatus(enrolmentInfo);
-                        }
-                    } else {
-                        DeviceManagementDAOFactory.getEnrollmentDAO().addDeviceStatus(enrolmentInfo);
-                    }
-                }
+            boolean updateStatus = DeviceManagementDAOFactory.getEnrollmentDAO()
+                    .updateEnrollmentStatus(enrolmentInfos);
+            if (updateStatus && !statusHistoryDevices.isEmpty()) {
+                DeviceManagementDAOFactory.getEnrollmentDAO().addDeviceStatuses(statusHistoryDevices);
             }
             DeviceManagementDAOFactory.commitTransaction();
-        } catch (DeviceManagementDAOException | MetadataManagementException e) {
+        } catch (DeviceManagementDAOException e) {
             DeviceManagementDAOFactory.rollbackTransaction();
             throw new DeviceStatusTaskException("Error occurred while updating enrollment status of devices of type '"
                     + deviceType + "'", e);
@@ -211,7 +219,57 @@ public class DeviceStatusMonitoringTask extends DynamicPartitionedScheduleTask {
         } finally {
             DeviceManagementDAOFactory.closeConnection();
         }
-        return updateStatus;
+
+        List<DeviceCacheKey> deviceCacheKeys = new ArrayList<>(devices.size());
+        for (Device device : devices) {
+            DeviceCacheKey deviceCacheKey = new DeviceCacheKey();
+            deviceCacheKey.setDeviceId(device.getDeviceIdentifier());
+            deviceCacheKey.setDeviceType(deviceType);
+            deviceCacheKey.setTenantId(tenantId);
+            deviceCacheKeys.add(deviceCacheKey);
+        }
+        DeviceCacheManagerImpl.getInstance().removeDevicesFromCache(deviceCacheKeys);
+    }
+
+    /**
+     * Filters the devices of which the new status is to be recorded in the status history of the tenant.
+     */
+    private List<Device> getStatusHistoryDevices(List<Device> devices, int tenantId)
+            throws DeviceStatusTaskException {
+        DeviceStatusManagementService deviceStatusManagementService = DeviceManagementDataHolder
+                .getInstance().getDeviceStatusManagementService();
+        try {
+            if (!deviceStatusManagementService.getDeviceStatusCheck(tenantId)) {
+                return devices;
+            }
+            Map<EnrolmentInfo.Status, Boolean> validStatuses = new EnumMap<>(EnrolmentInfo.Status.class);
+            List<Device> statusHistoryDevices = new ArrayList<>(devices.size());
+            for (Device device : devices) {
+                EnrolmentInfo.Status status = device.getEnrolmentInfo().getStatus();
+                Boolean isValid = validStatuses.get(status);
+                if (isValid == null) {
+                    isValid = deviceStatusManagementService.isDeviceStatusValid(this.deviceType, status.name(),
+                            tenantId);
+                    validStatuses.put(status, isValid);
+                }
+                if (isValid) {
+                    statusHistoryDevices.add(device);
+                }
+            }
+            return statusHistoryDevices;
+        } catch (MetadataManagementException e) {
+            throw new DeviceStatusTaskException("Error occurred while retrieving the device status check of tenant "
+                    + tenantId, e);
+        }
+    }
+
+    private int getBatchSize() {
+        DeviceStatusTaskConfig deviceStatusTaskConfig = DeviceConfigurationManager.getInstance()
+                .getDeviceManagementConfig().getDeviceStatusTaskConfig();
+        if (deviceStatusTaskConfig == null || deviceStatusTaskConfig.getBatchSize() <= 0) {
+            return DEFAULT_BATCH_SIZE;
+        }
+        return deviceStatusTaskConfig.getBatchSize();
     }
 
 }
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.status.tracker;
+
+import io.entgra.device.mgt.core.device.mgt.common.exceptions.TransactionManagementException;
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceConfigurationManager;
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceManagementConfig;
+import io.entgra.device.mgt.core.device.mgt.core.dao.DeviceManagementDAOException;
+import io.entgra.device.mgt.core.device.mgt.core.dao.DeviceManagementDAOFactory;
+import io.entgra.device.mgt.core.device.mgt.core.status.task.DeviceStatusTaskException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the time each device was last seen polling for operations, and writes it to the updated timestamp of the
+ * device in periodic batches instead of on every poll.
+ * <p>
+ * Only the check-ins which have not been written yet are kept in memory, and repeated check-ins of a device within a
+ * flush interval are merged into one update. The device status monitoring task takes the later of the persisted
+ * timestamp and the pending check-in of this node, while the other nodes of the cluster see the check-in once it has
+ * been flushed. Hence the flush interval should be well below the idle times of the device types.
+ * <p>
+ * Flushed check-ins are still served for {@value #FLUSHED_RETENTION_MILLIS} milliseconds after they are written, so
+ * that the monitoring task does not miss a check-in which was written after it read a page of persisted timestamps.
+ */
+public class DeviceLastSeenTracker {
+
+    private static final Log log = LogFactory.getLog(DeviceLastSeenTracker.class);
+    private static final int STRIPES = 16;
+    private static final int INITIAL_STRIPE_CAPACITY = 1024;
+    private static final int FLUSH_BATCH_SIZE = 1000;
+    static final long FLUSHED_RETENTION_MILLIS = 120000;
+    private static volatile DeviceLastSeenTracker instance;
+
+    private final Object[] locks = new Object[STRIPES];
+    private final EnrolmentTimestampMap[] pendingCheckIns = new EnrolmentTimestampMap[STRIPES];
+    private final Object flushLock = new Object();
+    private volatile EnrolmentTimestampMap[] flushingCheckIns;
+    private volatile FlushedCheckIns[] flushedCheckIns = new FlushedCheckIns[0];
+    private final ScheduledExecutorService flushExecutor;
+
+    /**
+     * @param flushInterval interval between flushes in seconds, 0 to flush only when {@link #flush()} is called
+     */
+    DeviceLastSeenTracker(long flushInterval) {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+            pendingCheckIns[i] = new EnrolmentTimestampMap(INITIAL_STRIPE_CAPACITY);
+        }
+        if (flushInterval > 0) {
+            flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "device-last-seen-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flushExecutor.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval,
+                    TimeUnit.SECONDS);
+        } else {
+            flushExecutor = null;
+        }
+    }
+
+    public static DeviceLastSeenTracker getInstance() {
+        if (instance == null) {
+            synchronized (DeviceLastSeenTracker.class) {
+                if (instance == null) {
+                    long flushInterval = 30;
+                    DeviceManagementConfig config = DeviceConfigurationManager.getInstance()
+                            .getDeviceManagementConfig();
+                    if (config != null && config.getDeviceStatusTaskConfig() != null) {
+                        flushInterval = Math.max(config.getDeviceStatusTaskConfig().getLastSeenFlushInterval(), 1);
+                    }
+                    instance = new DeviceLastSeenTracker(flushInterval);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Stops the tracker, if it has been started, after writing the pending check-ins.
+     */
+    public static void shutdown() {
+        synchronized (DeviceLastSeenTracker.class) {
+            if (instance != null) {
+                if (instance.flushExecutor != null) {
+                    instance.flushExecutor.shutdownNow();
+                }
+                instance.flushQuietly();
+                instance = null;
+            }
+        }
+    }
+
+    /**
+     * Records that the device of the given enrolment has checked in now.
+     *
+     * @param enrolmentId id of the enrolment of the device
+     */
+    public void recordCheckIn(int enrolmentId) {
+        recordCheckIn(enrolmentId, System.currentTimeMillis());
+    }
+
+    void recordCheckIn(int enrolmentId, long timestamp) {
+        int stripe = getStripe(enrolmentId);
+        synchronized (locks[stripe]) {
+            pendingCheckIns[stripe].put(enrolmentId, timestamp);
+        }
+    }
+
+    /**
+     * @param enrolmentId id of the enrolment of the device
+     * @return time of the last check-in of the device which is yet to be written, or 0 if there is no such check-in
+     */
+    public long getLastSeen(int enrolmentId) {
+        int stripe = getStripe(enrolmentId);
+        long lastSeen;
+        synchronized (locks[stripe]) {
+            lastSeen = pendingCheckIns[stripe].get(enrolmentId);
+            EnrolmentTimestampMap[] flushing = flushingCheckIns;
+            if (flushing != null) {
+                lastSeen = Math.max(lastSeen, flushing[stripe].get(enrolmentId));
+            }
+        }
+        long retainedSince = System.currentTimeMillis() - FLUSHED_RETENTION_MILLIS;
+        for (FlushedCheckIns flushed : flushedCheckIns) {
+            if (flushed.flushedTime > retainedSince) {
+                lastSeen = Math.max(lastSeen, flushed.checkIns[stripe].get(enrolmentId));
+            }
+        }
+        return lastSeen;
+    }
+
+    /**
+     * @return number of check-ins which are yet to be written
+     */
+    public int getPendingCount() {
+        int count = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            synchronized (locks[i]) {
+                count += pendingCheckIns[i].size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the pending check-ins to the updated timestamps of the devices. Check-ins which could not be written are
+     * kept to be written by the next flush.
+     *
+     * @throws DeviceStatusTaskException if the check-ins could not be written
+     */
+    public void flush() throws DeviceStatusTaskException {
+        synchronized (flushLock) {
+            EnrolmentTimestampMap[] flushing = new EnrolmentTimestampMap[STRIPES];
+            Map<Integer, Long> lastSeenTimes = new HashMap<>();
+            for (int i = 0; i < STRIPES; i++) {
+                flushing[i] = new EnrolmentTimestampMap(0);
+            }
+            flushingCheckIns = flushing;
+            for (int i = 0; i < STRIPES; i++) {
+                synchronized (locks[i]) {
+                    if (!pendingCheckIns[i].isEmpty()) {
+                        flushing[i] = pendingCheckIns[i];
+                        pendingCheckIns[i] = new EnrolmentTimestampMap(INITIAL_STRIPE_CAPACITY);
+                    }
+                }
+                flushing[i].copyTo(lastSeenTimes);
+            }
+            try {
+                writeLastSeenTimes(lastSeenTimes);
+                if (!lastSeenTimes.isEmpty()) {
+                    retainFlushed(flushing);
+                }
+            } catch (DeviceStatusTaskException e) {
+                for (int i = 0; i < STRIPES; i++) {
+                    synchronized (locks[i]) {
+                        pendingCheckIns[i].putAll(flushing[i]);
+                    }
+                }
+                throw e;
+            } finally {
+                flushingCheckIns = null;
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (DeviceStatusTaskException e) {
+            log.error("Error occurred while writing the last seen times of devices", e);
+        } catch (RuntimeException e) {
+            log.error("Unexpected error occurred while writing the last seen times of devices", e);
+        }
+    }
+
+    /**
+     * Keeps the written check-ins for the retention period, dropping the ones which have outlived it. Flushed
+     * check-ins are never modified, hence they are read without the stripe locks.
+     */
+    private void retainFlushed(EnrolmentTimestampMap[] flushing) {
+        long now = System.currentTimeMillis();
+        List<FlushedCheckIns> retained = new ArrayList<>();
+        for (FlushedCheckIns flushed : flushedCheckIns) {
+            if (flushed.flushedTime > now - FLUSHED_RETENTION_MILLIS) {
+                retained.add(flushed);
+            }
+        }
+        retained.add(new FlushedCheckIns(flushing, now));
+        flushedCheckIns = retained.toArray(new FlushedCheckIns[0]);
+    }
+
+    void writeLastSeenTimes(Map<Integer, Long> lastSeenTimes) throws DeviceStatusTaskException {
+        Iterator<Map.Entry<Integer, Long>> iterator = lastSeenTimes.entrySet().iterator();
+        int updatedCount = 0;
+        while (iterator.hasNext()) {
+            Map<Integer, Long> batch = new HashMap<>();
+            while (iterator.hasNext() && batch.size() < FLUSH_BATCH_SIZE) {
+                Map.Entry<Integer, Long> entry = iterator.next();
+                batch.put(entry.getKey(), entry.getValue());
+            }
+            try {
+                DeviceManagementDAOFactory.beginTransaction();
+                updatedCount += DeviceManagementDAOFactory.getDeviceDAO().recordDeviceUpdates(batch);
+                DeviceManagementDAOFactory.commitTransaction();
+            } catch (DeviceManagementDAOException e) {
+                DeviceManagementDAOFactory.rollbackTransaction();
+                throw new DeviceStatusTaskException("Error occurred while updating the last seen times of "
+                        + batch.size() + " devices", e);
+            } catch (TransactionManagementException e) {
+                throw new DeviceStatusTaskException("Error occurred while initiating a transaction to update "
+                        + "the last seen times of devices", e);
+            } finally {
+                DeviceManagementDAOFactory.closeConnection();
+            }
+        }
+        if (log.isDebugEnabled() && !lastSeenTimes.isEmpty()) {
+            log.debug("Wrote " + lastSeenTimes.size() + " device check-ins, updated " + updatedCount + " devices");
+        }
+    }
+
+    private static int getStripe(int enrolmentId) {
+        return (enrolmentId ^ (enrolmentId >>> 16)) & (STRIPES - 1);
+    }
+
+    private static class FlushedCheckIns {
+
+        private final EnrolmentTimestampMap[] checkIns;
+        private final long flushedTime;
+
+        private FlushedCheckIns(EnrolmentTimestampMap[] checkIns, long flushedTime) {
+            this.checkIns = checkIns;
+            this.flushedTime = flushedTime;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.status.tracker;
+
+import java.util.Map;
+
+/**
+ * Open addressing map of enrolment ids to timestamps. Keys and values are kept in primitive arrays, so recording a
+ * timestamp of an enrolment which is already in the map does not allocate. A timestamp is only ever replaced with a
+ * later one. This class is not thread safe.
+ */
+class EnrolmentTimestampMap {
+
+    private static final int EMPTY = 0;
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] keys;
+    private long[] values;
+    private int size;
+    private int threshold;
+
+    EnrolmentTimestampMap(int initialCapacity) {
+        allocate(Integer.highestOneBit(Math.max(initialCapacity, MIN_CAPACITY) - 1) << 1);
+    }
+
+    /**
+     * @param enrolmentId id of the enrolment, which must be positive
+     * @param timestamp   timestamp in milliseconds
+     */
+    void put(int enrolmentId, long timestamp) {
+        if (enrolmentId <= EMPTY) {
+            throw new IllegalArgumentException("Invalid enrolment id " + enrolmentId);
+        }
+        int index = indexOf(keys, enrolmentId);
+        if (keys[index] == enrolmentId) {
+            if (timestamp > values[index]) {
+                values[index] = timestamp;
+            }
+            return;
+        }
+        keys[index] = enrolmentId;
+        values[index] = timestamp;
+        if (++size > threshold) {
+            resize();
+        }
+    }
+
+    /**
+     * @return timestamp of the enrolment, or 0 if the enrolment is not in the map
+     */
+    long get(int enrolmentId) {
+        if (enrolmentId <= EMPTY) {
+            return 0;
+        }
+        int index = indexOf(keys, enrolmentId);
+        return keys[index] == enrolmentId ? values[index] : 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Copies all the timestamps of this map into the given map, keeping the later timestamp of an enrolment which is
+     * in both.
+     */
+    void copyTo(Map<Integer, Long> target) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                target.merge(keys[i], values[i], Math::max);
+            }
+        }
+    }
+
+    /**
+     * Puts all the timestamps of the given map into this map.
+     */
+    void putAll(EnrolmentTimestampMap source) {
+        for (int i = 0; i < source.keys.length; i++) {
+            if (source.keys[i] != EMPTY) {
+                put(source.keys[i], source.values[i]);
+            }
+        }
+    }
+
+    private void resize() {
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int index = indexOf(keys, oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new long[capacity];
+        threshold = capacity / 4 * 3;
+    }
+
+    private static int indexOf(int[] keys, int enrolmentId) {
+        int mask = keys.length - 1;
+        int hash = enrolmentId * 0x9E3779B9;
+        int index = (hash ^ (hash >>> 16)) & mask;
+        while (keys[index] != EMPTY && keys[index] != enrolmentId) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+}
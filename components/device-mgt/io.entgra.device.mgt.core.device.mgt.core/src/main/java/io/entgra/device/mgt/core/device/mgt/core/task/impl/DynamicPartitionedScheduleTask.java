@@ -142,6 +142,7 @@ public abstract class DynamicPartitionedScheduleTask implements Task {
         }
         taskContext.setActiveServerCount(ctxInfo.getActiveServerCount());
         taskContext.setServerHashIndex(ctxInfo.getLocalServerHashIdx());
+        taskContext.setTaskPartition(ctxInfo.getTaskPartition());
 
         if (log.isDebugEnabled()) {
             log.debug("Initiating execution of dynamic task for server : " + taskContext.getServerHashIndex() +
@@ -77,6 +77,7 @@ import io.entgra.device.mgt.core.device.mgt.core.dto.DeviceType;
 import io.entgra.device.mgt.core.device.mgt.core.internal.DeviceManagementDataHolder;
 import io.entgra.device.mgt.core.device.mgt.core.operation.mgt.util.DeviceIDHolder;
 import io.entgra.device.mgt.core.device.mgt.core.report.mgt.Constants;
+import io.entgra.device.mgt.core.device.mgt.core.service.DeviceManagementProviderService;
 import io.entgra.device.mgt.core.device.mgt.core.service.GroupManagementProviderService;
 import io.entgra.device.mgt.core.identity.jwt.client.extension.JWTClient;
 import io.entgra.device.mgt.core.identity.jwt.client.extension.dto.AccessTokenInfo;
@@ -111,6 +112,11 @@ public final class DeviceManagerUtil {
 
     private static final Log log = LogFactory.getLog(DeviceManagerUtil.class);
     public static final String GENERAL_CONFIG_RESOURCE_PATH = "general";
+    /**
+     * Maximum number of device identifiers bound to a single IN clause, kept below the parameter limits of the
+     * supported databases.
+     */
+    public static final int DEVICE_IDENTIFIER_BATCH_SIZE = 1000;
 
     private  static boolean isDeviceCacheInitialized = false;
     private  static boolean isBillingCacheInitialized = false;
@@ -527,6 +533,7 @@ public final class DeviceManagerUtil {
     public static DeviceIDHolder validateDeviceIdentifiers(List<DeviceIdentifier> deviceIDs) {
         List<DeviceIdentifier> errorDeviceIdList = new ArrayList<>();
         List<DeviceIdentifier> validDeviceIDList = new ArrayList<>();
+        List<DeviceIdentifier> candidateDeviceIds = new ArrayList<>();
         for (DeviceIdentifier deviceIdentifier : deviceIDs) {
             String deviceID = deviceIdentifier.getId();
             if (deviceID == null || deviceID.isEmpty()) {
@@ -534,13 +541,24 @@ public final class DeviceManagerUtil {
                         + "the identity of the device, with the request. Hence ignoring the device identifier.");
                 continue;
             }
-            try {
-                if (isValidDeviceIdentifier(deviceIdentifier)) {
-                    validDeviceIDList.add(deviceIdentifier);
-                } else {
-                    errorDeviceIdList.add(deviceIdentifier);
-                }
-            } catch (DeviceManagementException e) {
+            candidateDeviceIds.add(deviceIdentifier);
+        }
+
+        Map<DeviceIdentifier, Device> validDevices = new HashMap<>();
+        Map<DeviceIdentifier, Device> resolvedDevices;
+        try {
+            resolvedDevices = getDevicesByIdentifiers(candidateDeviceIds);
+        } catch (DeviceManagementException e) {
+            log.error("Error occurred while resolving the devices of the given device identifiers.", e);
+            resolvedDevices = Collections.emptyMap();
+        }
+        Device device;
+        for (DeviceIdentifier deviceIdentifier : candidateDeviceIds) {
+            device = resolvedDevices.get(deviceIdentifier);
+            if (isValidDevice(device)) {
+                validDeviceIDList.add(deviceIdentifier);
+                validDevices.put(deviceIdentifier, device);
+            } else {
                 errorDeviceIdList.add(deviceIdentifier);
             }
         }
@@ -548,20 +566,70 @@ public final class DeviceManagerUtil {
         DeviceIDHolder deviceIDHolder = new DeviceIDHolder();
         deviceIDHolder.setValidDeviceIDList(validDeviceIDList);
         deviceIDHolder.setErrorDeviceIdList(errorDeviceIdList);
+        deviceIDHolder.setValidDevices(validDevices);
 
         return deviceIDHolder;
     }
 
+    /**
+     * Resolves the devices of the given identifiers with one query per {@link #DEVICE_IDENTIFIER_BATCH_SIZE}
+     * identifiers instead of one query per device. When a device carries more than one enrolment, the latest
+     * enrolment is picked, same as {@code DeviceDAO#getDevice(DeviceIdentifier, int)}.
+     *
+     * @param deviceIdentifiers identifiers of the devices to resolve
+     * @return resolved devices keyed by the requested identifier, identifiers without a device are not included
+     * @throws DeviceManagementException if an error occurred while retrieving the devices
+     */
+    public static Map<DeviceIdentifier, Device> getDevicesByIdentifiers(List<DeviceIdentifier> deviceIdentifiers)
+            throws DeviceManagementException {
+        Map<DeviceIdentifier, Device> devices = new HashMap<>();
+        if (deviceIdentifiers == null || deviceIdentifiers.isEmpty()) {
+            return devices;
+        }
+        Map<String, DeviceIdentifier> requestedIdentifiers = new HashMap<>();
+        for (DeviceIdentifier deviceIdentifier : deviceIdentifiers) {
+            requestedIdentifiers.put(getDeviceLookupKey(deviceIdentifier.getId(), deviceIdentifier.getType()),
+                    deviceIdentifier);
+        }
+        List<String> ids = new ArrayList<>(requestedIdentifiers.size());
+        for (DeviceIdentifier deviceIdentifier : requestedIdentifiers.values()) {
+            ids.add(deviceIdentifier.getId());
+        }
+        DeviceManagementProviderService deviceManagementProviderService =
+                DeviceManagementDataHolder.getInstance().getDeviceManagementProvider();
+        for (int start = 0; start < ids.size(); start += DEVICE_IDENTIFIER_BATCH_SIZE) {
+            List<String> batch = ids.subList(start, Math.min(start + DEVICE_IDENTIFIER_BATCH_SIZE, ids.size()));
+            List<Device> batchDevices = deviceManagementProviderService.getDeviceByIdList(new ArrayList<>(batch));
+            if (batchDevices == null) {
+                continue;
+            }
+            DeviceIdentifier deviceIdentifier;
+            for (Device device : batchDevices) {
+                deviceIdentifier = requestedIdentifiers.get(
+                        getDeviceLookupKey(device.getDeviceIdentifier(), device.getType()));
+                // Devices are ordered by the latest enrolment first, hence keep the first match only
+                if (deviceIdentifier != null && !devices.containsKey(deviceIdentifier)) {
+                    devices.put(deviceIdentifier, device);
+                }
+            }
+        }
+        return devices;
+    }
+
+    private static String getDeviceLookupKey(String deviceId, String deviceType) {
+        return (deviceType == null ? "" : deviceType.toLowerCase()) + "|" + deviceId;
+    }
+
+    private static boolean isValidDevice(Device device) {
+        return device != null && device.getDeviceIdentifier() != null && !device.getDeviceIdentifier().isEmpty()
+                && device.getEnrolmentInfo() != null
+                && !EnrolmentInfo.Status.REMOVED.equals(device.getEnrolmentInfo().getStatus());
+    }
+
     public static boolean isValidDeviceIdentifier(DeviceIdentifier deviceIdentifier) throws DeviceManagementException {
         Device device = DeviceManagementDataHolder.getInstance().getDeviceManagementProvider().getDevice(deviceIdentifier,
                 false);
-        if (device == null || device.getDeviceIdentifier() == null ||
-                device.getDeviceIdentifier().isEmpty() || device.getEnrolmentInfo() == null) {
-            return false;
-        } else if (EnrolmentInfo.Status.REMOVED.equals(device.getEnrolmentInfo().getStatus())) {
-            return false;
-        }
-        return true;
+        return isValidDevice(device);
     }
 
     public static boolean isDeviceExists(DeviceIdentifier deviceIdentifier) throws DeviceManagementException {
@@ -625,7 +693,28 @@ public final class DeviceManagerUtil {
                         Caching.getCacheManager().<DeviceCacheKey, Device>getCache(DeviceManagementConstants.DEVICE_CACHE);
                     }
                 }
+                initializeDeviceVersionCache(manager != null ? manager : Caching.getCacheManager(),
+                        deviceCacheExpiry, deviceCacheCapacity);
+            }
+        }
+    }
+
+    /**
+     * Creates the clustered cache of device versions, which is kept with the same expiry and capacity as the device
+     * cache.
+     */
+    private static void initializeDeviceVersionCache(CacheManager manager, int expiry, long capacity) {
+        if (expiry > 0) {
+            manager.<DeviceCacheKey, Long>createCacheBuilder(DeviceManagementConstants.DEVICE_VERSION_CACHE).
+                    setExpiry(CacheConfiguration.ExpiryType.MODIFIED, new CacheConfiguration.Duration(TimeUnit.SECONDS,
+                            expiry)).setExpiry(CacheConfiguration.ExpiryType.ACCESSED, new CacheConfiguration.
+                    Duration(TimeUnit.SECONDS, expiry)).setStoreByValue(true).build();
+            if (capacity > 0) {
+                ((CacheImpl) manager.<DeviceCacheKey, Long>getCache(DeviceManagementConstants.DEVICE_VERSION_CACHE)).
+                        setCapacity(capacity);
             }
+        } else {
+            manager.<DeviceCacheKey, Long>getCache(DeviceManagementConstants.DEVICE_VERSION_CACHE);
         }
     }
 
@@ -738,6 +827,29 @@ public final class DeviceManagerUtil {
         return deviceCache;
     }
 
+    /**
+     * Get the clustered cache of device versions, which is kept next to the device cache so that the devices kept in
+     * the near cache of each node can be checked against the latest write of any node.
+     * @return {@link Cache<DeviceCacheKey, Long>}
+     */
+    public static Cache<DeviceCacheKey, Long> getDeviceVersionCache() {
+        DeviceManagementConfig config = DeviceConfigurationManager.getInstance().getDeviceManagementConfig();
+        CacheManager manager = getCacheManager();
+        Cache<DeviceCacheKey, Long> deviceVersionCache = null;
+        if (config.getDeviceCacheConfiguration().isEnabled()) {
+            if(!isDeviceCacheInitialized) {
+                initializeDeviceCache();
+            }
+            if (manager != null) {
+                deviceVersionCache = manager.getCache(DeviceManagementConstants.DEVICE_VERSION_CACHE);
+            } else {
+                deviceVersionCache = Caching.getCacheManager(DeviceManagementConstants.DM_CACHE_MANAGER)
+                        .getCache(DeviceManagementConstants.DEVICE_VERSION_CACHE);
+            }
+        }
+        return deviceVersionCache;
+    }
+
     /**
      * Get billing cache object
      * @return {@link Cache<BillingCacheKey, PaginationResult>}
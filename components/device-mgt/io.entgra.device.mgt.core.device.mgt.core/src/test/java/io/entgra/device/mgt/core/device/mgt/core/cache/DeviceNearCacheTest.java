@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.cache;
+
+import io.entgra.device.mgt.core.device.mgt.common.Device;
+import io.entgra.device.mgt.core.device.mgt.common.EnrolmentInfo;
+import io.entgra.device.mgt.core.device.mgt.common.Feature;
+import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceInfo;
+import io.entgra.device.mgt.core.device.mgt.core.cache.impl.DeviceNearCache;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+    Unit tests for DeviceNearCache
+ */
+public class DeviceNearCacheTest {
+
+    private static final Log log = LogFactory.getLog(DeviceNearCacheTest.class);
+    private static final String DEVICE_TYPE = "TEST_TYPE";
+    private static final String DEVICE_ID_PREFIX = "NEAR-CACHE-DEVICE-ID-";
+    private static final int NO_OF_DEVICES = 1000;
+    private static final int NO_OF_READS = 200000;
+    private static final long VERSION = 1L;
+
+    @Test(description = "Check whether a cached device is served as a copy")
+    public void testGetReturnsCopy() {
+        DeviceNearCache nearCache = new DeviceNearCache(10, 60000);
+        DeviceCacheKey cacheKey = getCacheKey(0);
+        nearCache.put(cacheKey, getDevice(0), VERSION);
+        Device device = nearCache.get(cacheKey, VERSION);
+        Assert.assertNotNull(device, "Cached device is not returned");
+        device.setName("modifiedName");
+        device.getEnrolmentInfo().setStatus(EnrolmentInfo.Status.REMOVED);
+        Device cachedDevice = nearCache.get(cacheKey, VERSION);
+        Assert.assertEquals(cachedDevice.getName(), DEVICE_ID_PREFIX + 0);
+        Assert.assertEquals(cachedDevice.getEnrolmentInfo().getStatus(), EnrolmentInfo.Status.ACTIVE);
+        Assert.assertEquals(nearCache.getHitCount(), 2);
+    }
+
+    @Test(description = "Check whether the lists and properties of a cached device are served as copies")
+    public void testGetReturnsListCopies() {
+        DeviceNearCache nearCache = new DeviceNearCache(10, 60000);
+        DeviceCacheKey cacheKey = getCacheKey(0);
+        Device original = getDevice(0);
+        Device.Property property = new Device.Property();
+        property.setName("IMEI");
+        property.setValue("1234");
+        List<Device.Property> properties = new ArrayList<>();
+        properties.add(property);
+        original.setProperties(properties);
+        Feature feature = new Feature();
+        feature.setCode("LOCK");
+        List<Feature> features = new ArrayList<>();
+        features.add(feature);
+        original.setFeatures(features);
+        List<String> tags = new ArrayList<>();
+        tags.add("tag");
+        original.getEnrolmentInfo().setTags(tags);
+        nearCache.put(cacheKey, original, VERSION);
+        property.setValue("modified");
+        features.clear();
+
+        Device device = nearCache.get(cacheKey, VERSION);
+        device.getProperties().get(0).setValue("modified");
+        device.getProperties().clear();
+        device.getFeatures().clear();
+        device.setDeviceInfo(new DeviceInfo());
+        device.getEnrolmentInfo().getTags().clear();
+
+        Device cachedDevice = nearCache.get(cacheKey, VERSION);
+        Assert.assertEquals(cachedDevice.getProperties().size(), 1);
+        Assert.assertEquals(cachedDevice.getProperties().get(0).getValue(), "1234");
+        Assert.assertEquals(cachedDevice.getFeatures().size(), 1);
+        Assert.assertNull(cachedDevice.getDeviceInfo(), "Device info of the cached device is replaced");
+        Assert.assertEquals(cachedDevice.getEnrolmentInfo().getTags().size(), 1);
+    }
+
+    @Test(description = "Check whether a device of another version is not served")
+    public void testVersionMismatch() {
+        DeviceNearCache nearCache = new DeviceNearCache(10, 60000);
+        DeviceCacheKey cacheKey = getCacheKey(0);
+        nearCache.put(cacheKey, getDevice(0), VERSION);
+        Assert.assertNull(nearCache.get(cacheKey, VERSION + 1), "Device of another version is returned");
+        Assert.assertEquals(nearCache.getMissCount(), 1);
+        Assert.assertEquals(nearCache.getEvictionCount(), 1);
+        Assert.assertNull(nearCache.get(cacheKey, VERSION), "Device of another version is not evicted");
+    }
+
+    @Test(description = "Check whether a device of a new version replaces the cached device")
+    public void testUpdate() {
+        DeviceNearCache nearCache = new DeviceNearCache(10, 60000);
+        DeviceCacheKey cacheKey = getCacheKey(0);
+        nearCache.put(cacheKey, getDevice(0), VERSION);
+        Device device = getDevice(0);
+        device.setName("updatedName");
+        nearCache.put(cacheKey, device, VERSION + 1);
+        Assert.assertEquals(nearCache.get(cacheKey, VERSION + 1).getName(), "updatedName");
+        nearCache.invalidate(cacheKey);
+        Assert.assertNull(nearCache.get(cacheKey, VERSION + 1), "Invalidated device is returned");
+    }
+
+    @Test(description = "Check whether expired devices are evicted")
+    public void testExpiry() throws InterruptedException {
+        DeviceNearCache nearCache = new DeviceNearCache(10, 50);
+        DeviceCacheKey cacheKey = getCacheKey(0);
+        nearCache.put(cacheKey, getDevice(0), VERSION);
+        Thread.sleep(100);
+        Assert.assertNull(nearCache.get(cacheKey, VERSION), "Expired device is returned");
+        Assert.assertEquals(nearCache.getEvictionCount(), 1);
+        Assert.assertEquals(nearCache.size(), 0);
+    }
+
+    @Test(description = "Check whether the least recently used devices are evicted beyond the capacity")
+    public void testCapacity() {
+        DeviceNearCache nearCache = new DeviceNearCache(10, 60000);
+        for (int i = 0; i < 15; i++) {
+            nearCache.put(getCacheKey(i), getDevice(i), VERSION);
+            nearCache.get(getCacheKey(0), VERSION);
+        }
+        Assert.assertEquals(nearCache.size(), 10);
+        Assert.assertEquals(nearCache.getEvictionCount(), 5);
+        Assert.assertNotNull(nearCache.get(getCacheKey(0), VERSION), "Recently used device is evicted");
+        Assert.assertNull(nearCache.get(getCacheKey(1), VERSION), "Least recently used device is not evicted");
+    }
+
+    @Test(description = "Check whether repeated reads are served by the near cache")
+    public void testReadThroughput() {
+        DeviceNearCache nearCache = new DeviceNearCache(NO_OF_DEVICES, 60000);
+        Map<DeviceCacheKey, Device> deviceCache = new HashMap<>();
+        DeviceCacheKey[] cacheKeys = new DeviceCacheKey[NO_OF_DEVICES];
+        for (int i = 0; i < NO_OF_DEVICES; i++) {
+            cacheKeys[i] = getCacheKey(i);
+            deviceCache.put(cacheKeys[i], getDevice(i));
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < NO_OF_READS; i++) {
+            DeviceCacheKey cacheKey = cacheKeys[i % NO_OF_DEVICES];
+            Device device = nearCache.get(cacheKey, VERSION);
+            if (device == null) {
+                nearCache.put(cacheKey, deviceCache.get(cacheKey), VERSION);
+            }
+        }
+        long nearCacheTime = System.nanoTime() - start;
+        Assert.assertEquals(nearCache.getMissCount(), NO_OF_DEVICES);
+        Assert.assertEquals(nearCache.getHitCount(), NO_OF_READS - NO_OF_DEVICES);
+        log.info("Near cache served " + NO_OF_READS + " reads in " + nearCacheTime / 1000000 + " ms, " + nearCache);
+    }
+
+    private static DeviceCacheKey getCacheKey(int index) {
+        DeviceCacheKey cacheKey = new DeviceCacheKey();
+        cacheKey.setDeviceId(DEVICE_ID_PREFIX + index);
+        cacheKey.setDeviceType(DEVICE_TYPE);
+        cacheKey.setTenantId(-1234);
+        return cacheKey;
+    }
+
+    private static Device getDevice(int index) {
+        Device device = new Device();
+        device.setId(index);
+        device.setName(DEVICE_ID_PREFIX + index);
+        device.setType(DEVICE_TYPE);
+        device.setDeviceIdentifier(DEVICE_ID_PREFIX + index);
+        EnrolmentInfo enrolmentInfo = new EnrolmentInfo();
+        enrolmentInfo.setOwner("admin");
+        enrolmentInfo.setOwnership(EnrolmentInfo.OwnerShip.BYOD);
+        enrolmentInfo.setStatus(EnrolmentInfo.Status.ACTIVE);
+        device.setEnrolmentInfo(enrolmentInfo);
+        return device;
+    }
+}
@@ -25,6 +25,7 @@ import io.entgra.device.mgt.core.device.mgt.common.EnrolmentInfo.Status;
 import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceData;
 import io.entgra.device.mgt.core.device.mgt.common.exceptions.TransactionManagementException;
 import io.entgra.device.mgt.core.device.mgt.common.PaginationRequest;
+import io.entgra.device.mgt.core.device.mgt.common.TaskPartition;
 import io.entgra.device.mgt.core.device.mgt.common.geo.service.GeoCoordinate;
 import io.entgra.device.mgt.core.device.mgt.common.geo.service.GeoQuery;
 import io.entgra.device.mgt.core.device.mgt.common.geo.service.GeoCluster;
@@ -286,6 +287,27 @@ public class DevicePersistTests extends BaseDeviceManagementTest {
         }
     }
 
+    @Test(dependsOnMethods = "recordDeviceUpdateTest")
+    public void recordDeviceUpdatesTest() throws DeviceManagementDAOException, TransactionManagementException {
+        try {
+            DeviceManagementDAOFactory.beginTransaction();
+            Device device = deviceDAO.getDevice(TestDataHolder.initialTestDevice.getDeviceIdentifier(),
+                    TestDataHolder.SUPER_TENANT_ID);
+            int enrolmentId = device.getEnrolmentInfo().getId();
+            long lastSeenTime = device.getLastUpdatedTimeStamp() + 60000;
+            Assert.assertEquals(deviceDAO.recordDeviceUpdates(Collections.singletonMap(enrolmentId, lastSeenTime)),
+                    1, "Device timestamp is not updated.");
+            Assert.assertEquals(deviceDAO.recordDeviceUpdates(
+                    Collections.singletonMap(enrolmentId, lastSeenTime - 1000)), 0,
+                    "Device timestamp is moved backwards.");
+            Device updatedDevice = deviceDAO.getDevice(device.getDeviceIdentifier(), TestDataHolder.SUPER_TENANT_ID);
+            Assert.assertEquals(updatedDevice.getLastUpdatedTimeStamp(), lastSeenTime);
+            DeviceManagementDAOFactory.rollbackTransaction();
+        } finally {
+            DeviceManagementDAOFactory.closeConnection();
+        }
+    }
+
     @Test(dependsOnMethods = "testAddDeviceTest")
     public void getDeviceByStatusTest() throws DeviceManagementDAOException, TransactionManagementException {
         try {
@@ -464,7 +486,8 @@ public class DevicePersistTests extends BaseDeviceManagementTest {
         Device device = TestDataHolder.initialTestDevice;
         try {
             DeviceManagementDAOFactory.beginTransaction();
-            List<Device> results = deviceDAO.getAllocatedDevices(device.getType(), TestDataHolder.SUPER_TENANT_ID, 1, 0);
+            List<Device> results = deviceDAO.getAllocatedDevices(device.getType(), TestDataHolder.SUPER_TENANT_ID,
+                    TaskPartition.ofServerIndex(1, 0));
             Assert.assertEquals(1, results.size(), "No device returned");
             DeviceManagementDAOFactory.commitTransaction();
         } catch (DeviceManagementDAOException e) {
@@ -19,6 +19,7 @@ package io.entgra.device.mgt.core.device.mgt.core.dao;
 
 import io.entgra.device.mgt.core.device.mgt.common.Device;
 import io.entgra.device.mgt.core.device.mgt.common.EnrolmentInfo;
+import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceMonitoringData;
 import io.entgra.device.mgt.core.device.mgt.common.type.mgt.DeviceStatus;
 import io.entgra.device.mgt.core.device.mgt.core.common.BaseDeviceManagementTest;
 import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
@@ -201,6 +202,64 @@ public class DeviceStatusPersistenceTests extends BaseDeviceManagementTest {
             log.error("Error occurred while initializing data source", e);
         }
     }
+    @Test
+    public void testMonitoringPagesAndBatchStatuses() throws Exception {
+        this.initDataSource();
+        List<Device> devices = new ArrayList<>();
+        List<Integer> enrolmentIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Device device = TestDataHolder.generateDummyDeviceData(TestDataHolder.TEST_DEVICE_TYPE);
+            addDevice(device);
+            enrolmentIds.add(createNewEnrolmentAddStatuses(device, "admin", new EnrolmentInfo.Status[]{ACTIVE}));
+            devices.add(device);
+        }
+
+        List<Integer> monitoredDeviceIds = new ArrayList<>();
+        List<DeviceMonitoringData> page;
+        int lastDeviceId = 0;
+        do {
+            page = getDevicesForMonitoring(lastDeviceId, 2);
+            Assert.assertTrue(page.size() <= 2);
+            for (DeviceMonitoringData monitoringData : page) {
+                Assert.assertTrue(monitoringData.getDevice().getId() > lastDeviceId);
+                lastDeviceId = monitoringData.getDevice().getId();
+                monitoredDeviceIds.add(lastDeviceId);
+            }
+        } while (page.size() == 2);
+        for (Device device : devices) {
+            Assert.assertTrue(monitoredDeviceIds.contains(device.getId()));
+        }
+
+        for (int i = 0; i < devices.size(); i++) {
+            devices.get(i).getEnrolmentInfo().setId(enrolmentIds.get(i));
+            devices.get(i).getEnrolmentInfo().setStatus(UNREACHABLE);
+        }
+        try {
+            DeviceManagementDAOFactory.beginTransaction();
+            Assert.assertTrue(enrollmentDAO.addDeviceStatuses(devices));
+            DeviceManagementDAOFactory.commitTransaction();
+        } finally {
+            DeviceManagementDAOFactory.closeConnection();
+        }
+        for (int i = 0; i < devices.size(); i++) {
+            List<DeviceStatus> receivedStatus = deviceStatusDAO.getStatus(enrolmentIds.get(i));
+            Assert.assertEquals(receivedStatus.size(), 2);
+            Assert.assertTrue(receivedStatus.stream().anyMatch(status -> status.getStatus() == UNREACHABLE));
+        }
+    }
+
+    private List<DeviceMonitoringData> getDevicesForMonitoring(int lastDeviceId, int limit)
+            throws DeviceManagementDAOException, SQLException {
+        try {
+            DeviceManagementDAOFactory.openConnection();
+            return DeviceManagementDAOFactory.getDeviceDAO().getDevicesForMonitoring(
+                    TestDataHolder.initialTestDeviceType.getId(), TestDataHolder.TEST_DEVICE_TYPE, null,
+                    lastDeviceId, limit);
+        } finally {
+            DeviceManagementDAOFactory.closeConnection();
+        }
+    }
+
     private int addDevice(Device device) throws DeviceManagementDAOException {
         try {
             DeviceManagementDAOFactory.openConnection();
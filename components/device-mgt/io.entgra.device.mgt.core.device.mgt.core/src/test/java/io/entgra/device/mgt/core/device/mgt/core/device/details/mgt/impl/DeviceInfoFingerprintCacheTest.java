@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.impl;
+
+import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceInfo;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+    Unit tests for DeviceInfoFingerprintCache
+ */
+public class DeviceInfoFingerprintCacheTest {
+
+    private static final int DEVICE_ID = 7;
+    private static final int ENROLMENT_ID = 11;
+
+    @Test(description = "Check whether only the properties with changed values are picked")
+    public void testChangedProperties() {
+        DeviceInfoFingerprintCache cache = new DeviceInfoFingerprintCache(10, 60000);
+        Map<String, String> properties = new HashMap<>();
+        properties.put("BATTERY_LEVEL", "80");
+        properties.put("IMEI", "356938035643809");
+        properties.put("SERIAL", null);
+        DeviceInfoFingerprintCache.Fingerprint fingerprint = cache.createFingerprint(DEVICE_ID, createDeviceInfo(80D),
+                properties);
+        Assert.assertTrue(fingerprint.containsKeys(Arrays.asList("IMEI", "BATTERY_LEVEL")));
+        Assert.assertFalse(fingerprint.containsKeys(Arrays.asList("IMEI", "OS_VALUE")));
+
+        Map<String, String> report = new HashMap<>(properties);
+        report.put("BATTERY_LEVEL", "79");
+        report.put("SERIAL", "R58M");
+        Map<String, String> changedProperties = fingerprint.getChangedProperties(report);
+        Assert.assertEquals(changedProperties, Collections.singletonMap("BATTERY_LEVEL", "79"),
+                "Properties stored without a value must not be updated, the same way they are not when read back");
+
+        DeviceInfoFingerprintCache.Fingerprint updated = fingerprint.update(createDeviceInfo(79D), changedProperties);
+        Assert.assertTrue(updated.getChangedProperties(report).isEmpty());
+        Assert.assertEquals(updated.getDeviceInfo().getBatteryLevel(), 79D);
+        Assert.assertTrue(updated.getDeviceInfo().getDeviceDetailsMap().isEmpty());
+        Assert.assertEquals(fingerprint.getChangedProperties(report).size(), 1);
+    }
+
+    @Test(description = "Check whether a fingerprint is dropped when two writes race or the enrolment moves")
+    public void testReplace() {
+        DeviceInfoFingerprintCache cache = new DeviceInfoFingerprintCache(10, 60000);
+        DeviceInfoFingerprintCache.Fingerprint first = cache.createFingerprint(DEVICE_ID, createDeviceInfo(50D),
+                Collections.singletonMap("IMEI", "1"));
+        cache.replace(ENROLMENT_ID, null, first);
+        Assert.assertSame(cache.get(ENROLMENT_ID, DEVICE_ID), first);
+        Assert.assertNull(cache.get(ENROLMENT_ID, DEVICE_ID + 1));
+        Assert.assertNull(cache.get(ENROLMENT_ID, DEVICE_ID));
+
+        cache.replace(ENROLMENT_ID, null, first);
+        DeviceInfoFingerprintCache.Fingerprint second = first.update(createDeviceInfo(40D),
+                Collections.singletonMap("IMEI", "2"));
+        DeviceInfoFingerprintCache.Fingerprint third = first.update(createDeviceInfo(30D),
+                Collections.singletonMap("IMEI", "3"));
+        cache.replace(ENROLMENT_ID, first, second);
+        Assert.assertSame(cache.get(ENROLMENT_ID, DEVICE_ID), second);
+        cache.replace(ENROLMENT_ID, first, third);
+        Assert.assertNull(cache.get(ENROLMENT_ID, DEVICE_ID));
+    }
+
+    @Test(description = "Check whether expired and least recently used fingerprints are evicted")
+    public void testEviction() {
+        DeviceInfoFingerprintCache expiringCache = new DeviceInfoFingerprintCache(10, -1);
+        expiringCache.replace(ENROLMENT_ID, null, expiringCache.createFingerprint(DEVICE_ID, createDeviceInfo(1D),
+                Collections.emptyMap()));
+        Assert.assertNull(expiringCache.get(ENROLMENT_ID, DEVICE_ID));
+
+        DeviceInfoFingerprintCache cache = new DeviceInfoFingerprintCache(2, 60000);
+        for (int enrolmentId = 1; enrolmentId <= 3; enrolmentId++) {
+            cache.replace(enrolmentId, null, cache.createFingerprint(enrolmentId, createDeviceInfo(1D),
+                    Collections.emptyMap()));
+        }
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertNull(cache.get(1, 1));
+        Assert.assertNotNull(cache.get(3, 3));
+        cache.invalidate(3);
+        Assert.assertNull(cache.get(3, 3));
+    }
+
+    @Test(description = "Check whether null values get their own hash")
+    public void testHash() {
+        Assert.assertEquals(DeviceInfoFingerprintCache.hash(null), 0L);
+        Assert.assertNotEquals(DeviceInfoFingerprintCache.hash(""), 0L);
+        Assert.assertNotEquals(DeviceInfoFingerprintCache.hash("80"), DeviceInfoFingerprintCache.hash("08"));
+    }
+
+    private static DeviceInfo createDeviceInfo(double batteryLevel) {
+        DeviceInfo deviceInfo = new DeviceInfo();
+        deviceInfo.setDeviceModel("SM-G960F");
+        deviceInfo.setVendor("Samsung");
+        deviceInfo.setBatteryLevel(batteryLevel);
+        return deviceInfo;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.device.details.mgt.ingestion;
+
+import io.entgra.device.mgt.core.device.mgt.common.Device;
+import io.entgra.device.mgt.core.device.mgt.common.EnrolmentInfo;
+import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceLocation;
+import io.entgra.device.mgt.core.device.mgt.core.config.geo.location.LocationIngestionConfiguration;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/*
+    Unit tests for LocationIngestionPipeline
+ */
+public class LocationIngestionPipelineTest {
+
+    private static final int TENANT_ID = -1234;
+
+    @Test(description = "Check whether the latest fix of each device is picked regardless of the arrival order")
+    public void testCoalesce() {
+        List<LocationIngestionPipeline.LocationReport> reports = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            for (int enrolmentId = 1; enrolmentId <= 5; enrolmentId++) {
+                reports.add(createReport(enrolmentId, 1000L + i));
+            }
+        }
+        reports.add(createReport(3, 500L));
+        Map<Integer, LocationIngestionPipeline.LocationReport> latest = LocationIngestionPipeline.coalesce(reports);
+        Assert.assertEquals(latest.size(), 5);
+        for (int enrolmentId = 1; enrolmentId <= 5; enrolmentId++) {
+            Assert.assertEquals(latest.get(enrolmentId).getUpdatedTime(), 1009L);
+        }
+        Assert.assertEquals(new ArrayList<>(latest.keySet()), List.of(1, 2, 3, 4, 5));
+    }
+
+    @Test(description = "Check whether reports beyond the capacity are rejected and pending locations are served")
+    public void testSubmit() {
+        LocationIngestionConfiguration config = new LocationIngestionConfiguration();
+        config.setQueueCapacity(4);
+        LocationIngestionPipeline pipeline = new LocationIngestionPipeline(config, false);
+        Assert.assertTrue(pipeline.submit(createDevice(1), createLocation(1000L), TENANT_ID));
+        Assert.assertTrue(pipeline.submit(createDevice(1), createLocation(3000L), TENANT_ID));
+        Assert.assertTrue(pipeline.submit(createDevice(1), createLocation(2000L), TENANT_ID));
+        Assert.assertTrue(pipeline.submit(createDevice(2), createLocation(1000L), TENANT_ID));
+        Assert.assertFalse(pipeline.submit(createDevice(3), createLocation(1000L), TENANT_ID));
+
+        Assert.assertEquals(pipeline.getPendingCount(), 4);
+        Assert.assertEquals(pipeline.getAcceptedCount(), 4);
+        Assert.assertEquals(pipeline.getRejectedCount(), 1);
+        Assert.assertEquals(pipeline.getPendingLocation(1).getUpdatedTime().getTime(), 3000L);
+        Assert.assertNotNull(pipeline.getPendingLocation(2));
+        Assert.assertNull(pipeline.getPendingLocation(3));
+    }
+
+    @Test(description = "Check whether reports are handed back to the caller once the pipeline is closed")
+    public void testSubmitAfterClose() {
+        LocationIngestionConfiguration config = new LocationIngestionConfiguration();
+        config.setFlushOnShutdown(false);
+        LocationIngestionPipeline pipeline = new LocationIngestionPipeline(config, false);
+        pipeline.close();
+        Assert.assertFalse(pipeline.submit(createDevice(1), createLocation(1000L), TENANT_ID));
+        Assert.assertEquals(pipeline.getPendingCount(), 0);
+        Assert.assertEquals(pipeline.getLagMillis(), 0L);
+    }
+
+    private static LocationIngestionPipeline.LocationReport createReport(int enrolmentId, long updatedTime) {
+        return new LocationIngestionPipeline.LocationReport(createDevice(enrolmentId), createLocation(updatedTime),
+                TENANT_ID, System.currentTimeMillis());
+    }
+
+    private static Device createDevice(int enrolmentId) {
+        EnrolmentInfo enrolmentInfo = new EnrolmentInfo();
+        enrolmentInfo.setId(enrolmentId);
+        Device device = new Device();
+        device.setId(enrolmentId);
+        device.setEnrolmentInfo(enrolmentInfo);
+        return device;
+    }
+
+    private static DeviceLocation createLocation(long updatedTime) {
+        DeviceLocation deviceLocation = new DeviceLocation();
+        deviceLocation.setLatitude(6.9);
+        deviceLocation.setLongitude(79.8);
+        deviceLocation.setUpdatedTime(new Date(updatedTime));
+        return deviceLocation;
+    }
+}
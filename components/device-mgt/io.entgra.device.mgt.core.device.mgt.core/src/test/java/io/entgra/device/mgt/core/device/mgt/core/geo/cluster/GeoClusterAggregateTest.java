@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.geo.cluster;
+
+import io.entgra.device.mgt.core.device.mgt.core.geo.geoHash.GeoHashGenerator;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/*
+    Unit tests for GeoClusterAggregate
+ */
+public class GeoClusterAggregateTest {
+
+    private static final String[] DEVICE_TYPES = {"android", "ios", "windows"};
+
+    @Test(description = "Check whether clusters match grouping the devices by geohash prefix")
+    public void testFindClusters() {
+        Random random = new Random(31);
+        GeoClusterAggregate aggregate = new GeoClusterAggregate(6);
+        Map<Integer, double[]> locations = new HashMap<>();
+        Map<Integer, String> types = new HashMap<>();
+        for (int deviceId = 1; deviceId <= 5000; deviceId++) {
+            double[] location = randomLocation(random);
+            String type = DEVICE_TYPES[random.nextInt(DEVICE_TYPES.length)];
+            aggregate.update(deviceId, type, location[0], location[1]);
+            locations.put(deviceId, location);
+            types.put(deviceId, type);
+        }
+        for (int i = 0; i < 3000; i++) {
+            int deviceId = 1 + random.nextInt(5000);
+            if (random.nextInt(4) == 0) {
+                aggregate.remove(deviceId);
+                locations.remove(deviceId);
+            } else {
+                double[] location = randomLocation(random);
+                aggregate.update(deviceId, types.get(deviceId), location[0], location[1]);
+                locations.put(deviceId, location);
+            }
+        }
+        Assert.assertEquals(aggregate.size(), locations.size());
+
+        for (int length = 1; length <= 6; length++) {
+            assertClusters(aggregate, locations, types, 40, -10, 60, 30, length, null);
+            assertClusters(aggregate, locations, types, 45, 0, 55, 15, length, Collections.singletonList("ios"));
+            assertClusters(aggregate, locations, types, -90, -180, 90, 180, length,
+                    Arrays.asList("android", "windows"));
+        }
+    }
+
+    @Test(description = "Check whether devices loaded from the database do not override later changes")
+    public void testLoading() {
+        GeoClusterAggregate aggregate = new GeoClusterAggregate(4);
+        aggregate.startLoading();
+        aggregate.update(1, "android", 10.0, 20.0);
+        aggregate.remove(2);
+        aggregate.load(1, "android", -10.0, -20.0);
+        aggregate.load(2, "android", -10.0, -20.0);
+        aggregate.load(3, "android", 10.0, 20.0);
+        aggregate.finishLoading();
+
+        List<GeoClusterAggregate.Cluster> clusters = aggregate.findClusters(-90, -180, 90, 180, 4, null);
+        Assert.assertEquals(clusters.size(), 1);
+        Assert.assertEquals(clusters.get(0).getCount(), 2);
+        Assert.assertEquals(clusters.get(0).getLatitude(), 10.0, 1e-9);
+        Assert.assertEquals(clusters.get(0).getDeviceId(), 0);
+
+        aggregate.remove(3);
+        clusters = aggregate.findClusters(-90, -180, 90, 180, 4, null);
+        Assert.assertEquals(clusters.get(0).getCount(), 1);
+        Assert.assertEquals(clusters.get(0).getDeviceId(), 1);
+        Assert.assertEquals(clusters.get(0).getMinLatitude(), 10.0, 1e-9);
+        Assert.assertEquals(clusters.get(0).getMaxLongitude(), 20.0, 1e-9);
+
+        aggregate.remove(1);
+        Assert.assertTrue(aggregate.findClusters(-90, -180, 90, 180, 4, null).isEmpty());
+        Assert.assertEquals(aggregate.size(), 0);
+    }
+
+    private static void assertClusters(GeoClusterAggregate aggregate, Map<Integer, double[]> locations,
+                                       Map<Integer, String> types, double minLatitude, double minLongitude,
+                                       double maxLatitude, double maxLongitude, int length,
+                                       List<String> deviceTypes) {
+        Map<String, double[]> expected = new TreeMap<>();
+        for (Map.Entry<Integer, double[]> entry : locations.entrySet()) {
+            if (deviceTypes != null && !deviceTypes.contains(types.get(entry.getKey()))) {
+                continue;
+            }
+            double[] location = entry.getValue();
+            String prefix = GeoHashGenerator.encodeGeohash(location[0], location[1]).substring(0, length);
+            double[] cell = expected.computeIfAbsent(prefix, k -> new double[4]);
+            cell[0]++;
+            cell[1] += location[0];
+            cell[2] += location[1];
+            cell[3] = entry.getKey();
+        }
+        expected.values().removeIf(cell -> cell[1] / cell[0] < minLatitude || cell[1] / cell[0] > maxLatitude
+                || cell[2] / cell[0] < minLongitude || cell[2] / cell[0] > maxLongitude);
+
+        List<GeoClusterAggregate.Cluster> clusters = aggregate.findClusters(minLatitude, minLongitude, maxLatitude,
+                maxLongitude, length, deviceTypes);
+        Assert.assertEquals(clusters.size(), expected.size(), "Number of clusters of length " + length);
+        for (GeoClusterAggregate.Cluster cluster : clusters) {
+            double[] cell = expected.get(cluster.getGeohashPrefix());
+            Assert.assertNotNull(cell, "Unexpected cluster " + cluster.getGeohashPrefix());
+            Assert.assertEquals(cluster.getCount(), (long) cell[0]);
+            Assert.assertEquals(cluster.getLatitude(), cell[1] / cell[0], 1e-6);
+            Assert.assertEquals(cluster.getLongitude(), cell[2] / cell[0], 1e-6);
+            Assert.assertTrue(cluster.getMinLatitude() <= cluster.getLatitude()
+                    && cluster.getLatitude() <= cluster.getMaxLatitude());
+            Assert.assertTrue(cluster.getMinLongitude() <= cluster.getLongitude()
+                    && cluster.getLongitude() <= cluster.getMaxLongitude());
+            if (cluster.getCount() == 1) {
+                Assert.assertEquals(cluster.getDeviceId(), (int) cell[3]);
+            }
+        }
+    }
+
+    private static double[] randomLocation(Random random) {
+        // Most devices are around a few cities, so that cells are shared down to long prefixes
+        if (random.nextInt(10) < 8) {
+            double[][] cities = {{51.5, -0.12}, {48.85, 2.35}, {52.52, 13.4}};
+            double[] city = cities[random.nextInt(cities.length)];
+            return new double[]{city[0] + random.nextGaussian() * 0.05, city[1] + random.nextGaussian() * 0.05};
+        }
+        return new double[]{random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180};
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.geo.fence;
+
+import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
+import io.entgra.device.mgt.core.device.mgt.common.geo.service.GeofenceData;
+import io.entgra.device.mgt.core.device.mgt.core.config.geo.location.GeofenceEvaluationConfiguration;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/*
+    Unit tests for GeofenceEvaluator, along with the geofences and the index it evaluates
+ */
+public class GeofenceEvaluatorTest {
+
+    private static final int TENANT_ID = -1234;
+    private static final int GROUP_ID = 7;
+    private static final String SQUARE = "{\"type\": \"Feature\", \"geometry\": {\"type\": \"Polygon\", "
+            + "\"coordinates\": [[[79.80, 6.80], [79.90, 6.80], [79.90, 6.90], [79.80, 6.90], [79.80, 6.80]], "
+            + "[[79.84, 6.84], [79.86, 6.84], [79.86, 6.86], [79.84, 6.86], [79.84, 6.84]]]}}";
+    private static final String TRIANGLE = "[{\"lat\": 10.0, \"lng\": 20.0}, {\"lat\": 10.0, \"lng\": 21.0}, "
+            + "{\"lat\": 11.0, \"lng\": 20.0}]";
+
+    @Test(description = "Check whether locations are tested against circles and polygons with holes")
+    public void testContains() {
+        Geofence circle = Geofence.of(circle(1, 6.9271, 79.8612, 1000), new int[]{GROUP_ID});
+        Assert.assertNotNull(circle);
+        Assert.assertTrue(circle.contains(6.9271, 79.8612));
+        Assert.assertTrue(circle.contains(6.9351, 79.8612));
+        Assert.assertFalse(circle.contains(6.9371, 79.8612));
+
+        Geofence square = Geofence.of(polygon(2, SQUARE), new int[]{GROUP_ID});
+        Assert.assertNotNull(square);
+        Assert.assertTrue(square.contains(6.82, 79.82));
+        Assert.assertFalse(square.contains(6.85, 79.85), "Location within the hole");
+        Assert.assertFalse(square.contains(6.95, 79.85));
+
+        Geofence triangle = Geofence.of(polygon(3, TRIANGLE), new int[]{GROUP_ID});
+        Assert.assertNotNull(triangle);
+        Assert.assertTrue(triangle.contains(10.2, 20.2));
+        Assert.assertFalse(triangle.contains(10.8, 20.8));
+
+        Assert.assertNull(Geofence.of(polygon(4, "{\"type\": \"Point\"}"), new int[]{GROUP_ID}));
+        Assert.assertNull(Geofence.of(polygon(5, "not json ["), new int[]{GROUP_ID}));
+        Assert.assertNull(Geofence.of(circle(6, 0, 0, 0), new int[]{GROUP_ID}));
+    }
+
+    @Test(description = "Check whether the index finds the same geofences as testing every geofence")
+    public void testIndex() {
+        Random random = new Random(17);
+        List<Geofence> geofences = new ArrayList<>();
+        for (int id = 1; id <= 500; id++) {
+            double latitude = -60 + random.nextDouble() * 120;
+            double longitude = -180 + random.nextDouble() * 360;
+            if (id % 2 == 0) {
+                geofences.add(Geofence.of(circle(id, latitude, longitude, 100 + random.nextInt(200000)),
+                        new int[]{GROUP_ID}));
+            } else {
+                double size = 0.01 + random.nextDouble() * (id % 25 == 1 ? 40 : 2);
+                String ring = "[[" + longitude + ", " + latitude + "], [" + (longitude + size) + ", " + latitude
+                        + "], [" + longitude + ", " + (latitude + size) + "], [" + longitude + ", " + latitude
+                        + "]]";
+                geofences.add(Geofence.of(polygon(id, "{\"type\": \"Polygon\", \"coordinates\": [" + ring + "]}"),
+                        new int[]{GROUP_ID}));
+            }
+        }
+        for (int length = 2; length <= 6; length += 2) {
+            GeofenceIndex index = new GeofenceIndex(geofences, length);
+            Assert.assertEquals(index.size(), geofences.size());
+            for (int i = 0; i < 5000; i++) {
+                double latitude = -60 + random.nextDouble() * 120;
+                double longitude = -180 + random.nextDouble() * 360;
+                List<Geofence> found = new ArrayList<>();
+                index.findContaining(latitude, longitude, found);
+                List<Integer> expected = new ArrayList<>();
+                for (Geofence geofence : geofences) {
+                    if (geofence.contains(latitude, longitude)) {
+                        expected.add(geofence.getId());
+                    }
+                }
+                List<Integer> actual = new ArrayList<>();
+                for (Geofence geofence : found) {
+                    actual.add(geofence.getId());
+                }
+                Collections.sort(actual);
+                Assert.assertEquals(actual, expected, "Location " + latitude + ", " + longitude);
+            }
+        }
+    }
+
+    @Test(description = "Check whether entries, exits and stays are found once for each transition")
+    public void testTransitions() {
+        GeofenceEvaluationConfiguration config = new GeofenceEvaluationConfiguration();
+        config.setStationaryTime(60);
+        GeofenceEvaluator evaluator = new GeofenceEvaluator(config, false);
+        List<GeofenceEvent> events = new ArrayList<>();
+        evaluator.addListener(events::addAll);
+        GeofenceIndex index = new GeofenceIndex(Arrays.asList(
+                Geofence.of(circle(1, 6.9271, 79.8612, 1000), new int[]{GROUP_ID}),
+                Geofence.of(circle(2, 6.9271, 79.8612, 1000), new int[]{GROUP_ID + 1})), 5);
+        evaluator.setGeofences(TENANT_ID, index);
+        DeviceIdentifier identifier = new DeviceIdentifier("device-1", "android");
+        int[] groupIds = {GROUP_ID};
+
+        evaluator.evaluate(TENANT_ID, index, 1, identifier, () -> groupIds, 6.9271, 79.8612, 1000);
+        evaluator.flush();
+        Assert.assertTrue(events.isEmpty(), "The first location only sets where the device is");
+
+        evaluator.evaluate(TENANT_ID, index, 1, identifier, () -> groupIds, 6.9271, 79.8612, 30000);
+        evaluator.evaluate(TENANT_ID, index, 1, identifier, () -> groupIds, 6.9272, 79.8612, 61000);
+        evaluator.evaluate(TENANT_ID, index, 1, identifier, () -> groupIds, 6.9273, 79.8612, 90000);
+        evaluator.evaluate(TENANT_ID, index, 1, identifier, () -> groupIds, 7.5, 79.8612, 120000);
+        evaluator.evaluate(TENANT_ID, index, 1, identifier, () -> groupIds, 6.9271, 79.8612, 100000);
+        evaluator.evaluate(TENANT_ID, index, 1, identifier, () -> groupIds, 6.9271, 79.8612, 150000);
+        evaluator.evaluate(TENANT_ID, index, 1, identifier, () -> groupIds, 6.9271, 79.8612, 200000);
+        evaluator.flush();
+        assertEvents(events, GeofenceEvent.Type.STATIONARY, GeofenceEvent.Type.EXIT, GeofenceEvent.Type.ENTER);
+        Assert.assertEquals(events.get(0).getTimestamp(), 61000);
+        Assert.assertEquals(events.get(2).getTimestamp(), 150000);
+        Assert.assertEquals(events.get(2).getDeviceIdentifier(), identifier);
+        Assert.assertEquals(evaluator.getOutOfOrderCount(), 1);
+
+        events.clear();
+        evaluator.evaluate(TENANT_ID, index, 1, identifier, () -> groupIds, 6.9271, 79.8612, 210000);
+        evaluator.flush();
+        assertEvents(events, GeofenceEvent.Type.STATIONARY);
+        Assert.assertEquals(events.get(0).getFenceId(), 1, "Geofences of other groups are not evaluated");
+
+        events.clear();
+        GeofenceIndex emptyIndex = new GeofenceIndex(Collections.emptyList(), 5);
+        evaluator.setGeofences(TENANT_ID, emptyIndex);
+        evaluator.evaluate(TENANT_ID, emptyIndex, 1, identifier, () -> groupIds, 7.5, 79.8612, 220000);
+        evaluator.flush();
+        Assert.assertTrue(events.isEmpty(), "No exit is reported from a removed geofence");
+        evaluator.close();
+    }
+
+    @Test(description = "Check whether transitions which do not fit in the queue are dropped")
+    public void testQueueCapacity() {
+        GeofenceEvaluationConfiguration config = new GeofenceEvaluationConfiguration();
+        config.setQueueCapacity(2);
+        GeofenceEvaluator evaluator = new GeofenceEvaluator(config, false);
+        GeofenceIndex index = new GeofenceIndex(Collections.singletonList(
+                Geofence.of(circle(1, 0, 0, 1000), new int[]{GROUP_ID})), 5);
+        int[] groupIds = {GROUP_ID};
+        for (int deviceId = 1; deviceId <= 3; deviceId++) {
+            DeviceIdentifier identifier = new DeviceIdentifier("device-" + deviceId, "android");
+            evaluator.evaluate(TENANT_ID, index, deviceId, identifier, () -> groupIds, 1, 1, 1000);
+            evaluator.evaluate(TENANT_ID, index, deviceId, identifier, () -> groupIds, 0, 0, 2000);
+        }
+        Assert.assertEquals(evaluator.getPendingCount(), 2);
+        Assert.assertEquals(evaluator.getEmittedCount(), 2);
+        Assert.assertEquals(evaluator.getDroppedCount(), 1);
+        evaluator.close();
+        Assert.assertEquals(evaluator.getPendingCount(), 0);
+    }
+
+    @Test(description = "Check whether a registered listener receives the transitions of any evaluator")
+    public void testRegisteredListener() {
+        List<GeofenceEvent> events = new ArrayList<>();
+        GeofenceEventListener listener = events::addAll;
+        GeofenceEvaluator.registerListener(listener);
+        try {
+            GeofenceEvaluator evaluator = new GeofenceEvaluator(new GeofenceEvaluationConfiguration(), false);
+            GeofenceIndex index = new GeofenceIndex(Collections.singletonList(
+                    Geofence.of(circle(1, 0, 0, 1000), new int[]{GROUP_ID})), 5);
+            DeviceIdentifier identifier = new DeviceIdentifier("device-1", "android");
+            int[] groupIds = {GROUP_ID};
+            evaluator.evaluate(TENANT_ID, index, 1, identifier, () -> groupIds, 1, 1, 1000);
+            evaluator.evaluate(TENANT_ID, index, 1, identifier, () -> groupIds, 0, 0, 2000);
+            evaluator.close();
+            assertEvents(events, GeofenceEvent.Type.ENTER);
+        } finally {
+            GeofenceEvaluator.unregisterListener(listener);
+        }
+    }
+
+    private static void assertEvents(List<GeofenceEvent> events, GeofenceEvent.Type... types) {
+        List<GeofenceEvent.Type> actual = new ArrayList<>();
+        for (GeofenceEvent event : events) {
+            actual.add(event.getType());
+        }
+        Assert.assertEquals(actual, Arrays.asList(types));
+    }
+
+    private static GeofenceData circle(int id, double latitude, double longitude, float radius) {
+        GeofenceData geofenceData = new GeofenceData();
+        geofenceData.setId(id);
+        geofenceData.setFenceShape(Geofence.SHAPE_CIRCLE);
+        geofenceData.setLatitude(latitude);
+        geofenceData.setLongitude(longitude);
+        geofenceData.setRadius(radius);
+        return geofenceData;
+    }
+
+    private static GeofenceData polygon(int id, String geoJson) {
+        GeofenceData geofenceData = new GeofenceData();
+        geofenceData.setId(id);
+        geofenceData.setFenceShape("polygon");
+        geofenceData.setGeoJson(geoJson);
+        return geofenceData;
+    }
+}
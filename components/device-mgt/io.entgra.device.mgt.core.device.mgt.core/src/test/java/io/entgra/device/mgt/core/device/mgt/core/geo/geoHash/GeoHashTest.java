@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.geo.geoHash;
+
+import io.entgra.device.mgt.core.device.mgt.common.geo.service.GeoCoordinate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/*
+    Property tests for GeoHash, checked against the string based geohash encoding which device locations have been
+    stored with
+ */
+public class GeoHashTest {
+
+    private static final String BASE_32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final int SAMPLES = 20000;
+
+    @Test(description = "Check whether locations are encoded the same way as they have been stored")
+    public void testEncode() {
+        for (double[] location : locations(new Random(3))) {
+            String expected = encodeByBisection(location[0], location[1], GeoHashGenerator.GEOHASH_LENGTH);
+            Assert.assertEquals(GeoHash.encodeToString(location[0], location[1], GeoHashGenerator.GEOHASH_LENGTH),
+                    expected, "Location " + Arrays.toString(location));
+            Assert.assertEquals(GeoHashGenerator.encodeGeohash(location[0], location[1]), expected);
+            for (int length = 1; length <= GeoHash.MAX_LENGTH; length++) {
+                long hash = GeoHash.encode(location[0], location[1], length);
+                Assert.assertEquals(GeoHash.length(hash), length);
+                Assert.assertEquals(GeoHash.toString(hash), expected.substring(0, length),
+                        "Location " + Arrays.toString(location));
+            }
+        }
+    }
+
+    @Test(description = "Check whether packed geohashes convert to and from strings, prefixes and children")
+    public void testPacking() {
+        Random random = new Random(5);
+        for (double[] location : locations(random)) {
+            long hash = GeoHash.encode(location[0], location[1], 1 + random.nextInt(GeoHash.MAX_LENGTH));
+            String geohash = GeoHash.toString(hash);
+            Assert.assertEquals(GeoHash.fromString(geohash), hash);
+            int length = GeoHash.length(hash);
+            for (int prefixLength = 1; prefixLength <= length; prefixLength++) {
+                long prefix = GeoHash.prefix(hash, prefixLength);
+                Assert.assertEquals(GeoHash.toString(prefix), geohash.substring(0, prefixLength));
+                if (prefixLength < length) {
+                    Assert.assertEquals(GeoHash.prefix(GeoHash.child(prefix,
+                            GeoHash.character(hash, prefixLength)), prefixLength + 1),
+                            GeoHash.prefix(hash, prefixLength + 1));
+                }
+            }
+        }
+        long first = GeoHash.fromString("u10h");
+        long second = GeoHash.fromString("u10j");
+        Assert.assertTrue(Long.compareUnsigned(first, second) < 0, "Geohashes must sort as their strings do");
+        Assert.assertTrue(Long.compareUnsigned(GeoHash.fromString("zzzz"), GeoHash.fromString("0000")) > 0);
+    }
+
+    @Test(description = "Check whether geohashes decode to the cells they have been encoded from")
+    public void testDecode() {
+        Random random = new Random(7);
+        for (double[] location : locations(random)) {
+            long hash = GeoHash.encode(location[0], location[1], 1 + random.nextInt(GeoHash.MAX_LENGTH));
+            GeoCoordinate centre = GeoHashGenerator.decodeGeohash(GeoHash.toString(hash));
+            Assert.assertEquals(GeoHash.latitude(hash), centre.getLatitude(), 0.0);
+            Assert.assertEquals(GeoHash.longitude(hash), centre.getLongitude(), 0.0);
+            Assert.assertTrue(GeoHash.southLatitude(hash) <= location[0]
+                    && (location[0] < GeoHash.northLatitude(hash) || location[0] == 90.0));
+            Assert.assertTrue(GeoHash.westLongitude(hash) <= location[1]
+                    && (location[1] < GeoHash.eastLongitude(hash) || location[1] == 180.0));
+        }
+    }
+
+    @Test(description = "Check whether neighbors share the edges of a cell, wrapping around the antimeridian")
+    public void testNeighbors() {
+        Random random = new Random(11);
+        for (double[] location : locations(random)) {
+            long hash = GeoHash.encode(location[0], location[1], 1 + random.nextInt(GeoHash.MAX_LENGTH));
+            long north = GeoHash.neighbor(hash, 1, 0);
+            if (GeoHash.northLatitude(hash) == 90.0) {
+                Assert.assertEquals(north, GeoHash.NONE);
+            } else {
+                Assert.assertEquals(GeoHash.southLatitude(north), GeoHash.northLatitude(hash), 0.0);
+                Assert.assertEquals(GeoHash.westLongitude(north), GeoHash.westLongitude(hash), 0.0);
+                Assert.assertEquals(GeoHash.neighbor(north, -1, 0), hash);
+            }
+            long east = GeoHash.neighbor(hash, 0, 1);
+            Assert.assertEquals(GeoHash.southLatitude(east), GeoHash.southLatitude(hash), 0.0);
+            if (GeoHash.eastLongitude(hash) == 180.0) {
+                Assert.assertEquals(GeoHash.westLongitude(east), -180.0, 0.0);
+            } else {
+                Assert.assertEquals(GeoHash.westLongitude(east), GeoHash.eastLongitude(hash), 0.0);
+            }
+            Assert.assertEquals(GeoHash.neighbor(east, 0, -1), hash);
+            double latitude = GeoHash.latitude(hash) + (GeoHash.northLatitude(hash) - GeoHash.southLatitude(hash));
+            if (latitude < 90.0) {
+                double longitude = GeoHash.longitude(hash) + (GeoHash.eastLongitude(hash)
+                        - GeoHash.westLongitude(hash));
+                if (longitude < 180.0) {
+                    Assert.assertEquals(GeoHash.neighbor(hash, 1, 1),
+                            GeoHash.encode(latitude, longitude, GeoHash.length(hash)));
+                }
+            }
+        }
+    }
+
+    @Test(description = "Check whether the cells covering an area contain each location in the area")
+    public void testCover() {
+        Random random = new Random(13);
+        for (int i = 0; i < 200; i++) {
+            double minLatitude = random.nextDouble() * 170 - 85;
+            double minLongitude = random.nextDouble() * 350 - 175;
+            double maxLatitude = Math.min(minLatitude + random.nextDouble() * 5, 90.0);
+            double maxLongitude = Math.min(minLongitude + random.nextDouble() * 5, 180.0);
+            int length = 1 + random.nextInt(4);
+            long[] cover = GeoHash.cover(minLatitude, minLongitude, maxLatitude, maxLongitude, length);
+            Set<Long> cells = new HashSet<>();
+            for (long hash : cover) {
+                Assert.assertEquals(GeoHash.length(hash), length);
+                Assert.assertTrue(GeoHash.intersects(hash, minLatitude, minLongitude, maxLatitude, maxLongitude));
+                Assert.assertTrue(cells.add(hash), "Cells must not be repeated");
+            }
+            for (int j = 0; j < 100; j++) {
+                double latitude = minLatitude + random.nextDouble() * (maxLatitude - minLatitude);
+                double longitude = minLongitude + random.nextDouble() * (maxLongitude - minLongitude);
+                Assert.assertTrue(cells.contains(GeoHash.encode(latitude, longitude, length)));
+            }
+            Assert.assertTrue(cells.contains(GeoHash.encode(minLatitude, minLongitude, length)));
+            Assert.assertTrue(cells.contains(GeoHash.encode(maxLatitude, maxLongitude, length)));
+        }
+        Assert.assertEquals(GeoHash.cover(-90, -180, 90, 180, 1).length, 32);
+        Assert.assertEquals(GeoHash.cover(10, 20, 5, 25, 3).length, 0);
+    }
+
+    @Test(description = "Check whether invalid geohashes are rejected", expectedExceptions =
+            IllegalArgumentException.class)
+    public void testInvalidGeohash() {
+        GeoHash.fromString("u10a");
+    }
+
+    private static List<double[]> locations(Random random) {
+        List<double[]> locations = new ArrayList<>();
+        double[] latitudes = {-90.0, -45.0, 0.0, 45.0, 90.0};
+        double[] longitudes = {-180.0, -90.0, 0.0, 90.0, 180.0};
+        for (double latitude : latitudes) {
+            for (double longitude : longitudes) {
+                locations.add(new double[]{latitude, longitude});
+            }
+        }
+        for (int i = 0; i < SAMPLES; i++) {
+            double latitude = random.nextDouble() * 180 - 90;
+            double longitude = random.nextDouble() * 360 - 180;
+            if (i % 4 == 0) {
+                // Locations on the edges of cells, where rounding would put them into a neighbor
+                int bits = 1 + random.nextInt(40);
+                latitude = -90.0 + Math.floor((latitude + 90.0) / 180.0 * (1L << bits)) * (180.0 / (1L << bits));
+                longitude = -180.0 + Math.floor((longitude + 180.0) / 360.0 * (1L << bits))
+                        * (360.0 / (1L << bits));
+            }
+            locations.add(new double[]{latitude, longitude});
+        }
+        return locations;
+    }
+
+    /**
+     * Encoding which geohashes of device locations have been stored with, which the codec has to agree with.
+     */
+    private static String encodeByBisection(double latitude, double longitude, int length) {
+        double[] latitudeRange = {-90.0, 90.0};
+        double[] longitudeRange = {-180.0, 180.0};
+        StringBuilder geohash = new StringBuilder();
+        boolean even = true;
+        int bit = 0;
+        int character = 0;
+        while (geohash.length() < length) {
+            double[] range = even ? longitudeRange : latitudeRange;
+            double value = even ? longitude : latitude;
+            double middle = (range[0] + range[1]) / 2;
+            if (value >= middle) {
+                character = character << 1 | 1;
+                range[0] = middle;
+            } else {
+                character <<= 1;
+                range[1] = middle;
+            }
+            even = !even;
+            if (++bit == 5) {
+                geohash.append(BASE_32.charAt(character));
+                bit = 0;
+                character = 0;
+            }
+        }
+        return geohash.toString();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.entgra.device.mgt.core.device.mgt.core.operation.mgt.pacing;
+
+import io.entgra.device.mgt.core.device.mgt.core.config.operation.pacing.OperationBatchPacingConfiguration;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for the delays computed by {@link AdaptiveBatchPacer}.
+ */
+public class AdaptiveBatchPacerTest {
+
+    private AdaptiveBatchPacer batchPacer;
+
+    @BeforeClass
+    public void init() {
+        OperationBatchPacingConfiguration configuration = new OperationBatchPacingConfiguration();
+        configuration.setMinBatchDelay(0);
+        configuration.setMaxBatchDelay(2000);
+        configuration.setTargetBatchLatency(1000);
+        configuration.setPoolSaturationThreshold(0.5);
+        configuration.setRetryBaseDelay(100);
+        configuration.setRetryMaxDelay(1000);
+        batchPacer = new AdaptiveBatchPacer();
+        batchPacer.init(configuration);
+    }
+
+    @Test(description = "No delay is applied while the batch latency and the pool saturation are within limits")
+    public void testNoBatchDelayWithinLimits() {
+        Assert.assertEquals(batchPacer.getBatchDelay(500, 0.2), 0);
+        Assert.assertEquals(batchPacer.getBatchDelay(1000, 0.5), 0);
+    }
+
+    @Test(description = "Delay grows with the batch latency overshoot and is capped at the maximum delay")
+    public void testBatchDelayByLatency() {
+        Assert.assertEquals(batchPacer.getBatchDelay(1500, 0), 1000);
+        Assert.assertEquals(batchPacer.getBatchDelay(5000, 0), 2000);
+    }
+
+    @Test(description = "Delay grows with the connection pool saturation above the threshold")
+    public void testBatchDelayByPoolSaturation() {
+        Assert.assertEquals(batchPacer.getBatchDelay(100, 0.75), 1000);
+        Assert.assertEquals(batchPacer.getBatchDelay(100, 1), 2000);
+    }
+
+    @Test(description = "Retry delays back off exponentially with jitter and never exceed the maximum delay")
+    public void testRetryDelay() {
+        for (int i = 0; i < 100; i++) {
+            long firstDelay = batchPacer.getRetryDelay(1);
+            Assert.assertTrue(firstDelay >= 50 && firstDelay <= 100, "Unexpected delay " + firstDelay);
+            long thirdDelay = batchPacer.getRetryDelay(3);
+            Assert.assertTrue(thirdDelay >= 200 && thirdDelay <= 400, "Unexpected delay " + thirdDelay);
+            long cappedDelay = batchPacer.getRetryDelay(40);
+            Assert.assertTrue(cappedDelay >= 500 && cappedDelay <= 1000, "Unexpected delay " + cappedDelay);
+        }
+    }
+}
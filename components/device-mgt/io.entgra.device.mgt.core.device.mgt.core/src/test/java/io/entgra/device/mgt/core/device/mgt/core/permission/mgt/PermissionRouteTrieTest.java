@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.entgra.device.mgt.core.device.mgt.core.permission.mgt;
+
+import io.entgra.device.mgt.core.device.mgt.common.permission.mgt.Permission;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.StringTokenizer;
+
+/**
+ * This contains unit tests for the PermissionRouteTrie, including a comparison against the regex based
+ * resolution over the resources of the device-mgt REST API.
+ */
+public class PermissionRouteTrieTest {
+
+    private static final Log log = LogFactory.getLog(PermissionRouteTrieTest.class);
+    private static final String API_ROUTES_FILE = "src/test/resources/permission/device-mgt-api-routes.txt";
+    private static final String API_CONTEXT = "/api/device-mgt/v1.0";
+    private static final String PATH_VARIABLE_VALUE = "sample_id-1.0";
+    private static final int BENCHMARK_ROUNDS = 20;
+
+    private final List<Permission> apiPermissions = new ArrayList<>();
+    private final List<String[]> apiRequests = new ArrayList<>();
+
+    @BeforeClass
+    public void init() throws IOException {
+        for (String line : Files.readAllLines(Paths.get(API_ROUTES_FILE), StandardCharsets.UTF_8)) {
+            if (line.trim().isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] route = line.trim().split(" ");
+            apiPermissions.add(createPermission(route[0], route[1], "/permission/" + route[0] + route[1]));
+            apiRequests.add(new String[]{route[0], route[1].replace("*", PATH_VARIABLE_VALUE)});
+        }
+    }
+
+    @Test(description = "Exact resource urls take precedence over templated ones.")
+    public void testExactMatchPreferred() {
+        PermissionRouteTrie trie = new PermissionRouteTrie(Arrays.asList(
+                createPermission("GET", "/api/devices/*", "/templated"),
+                createPermission("GET", "/api/devices/search", "/exact")));
+        Assert.assertEquals(trie.getPermission("/api/devices/search", "GET").getPath(), "/exact");
+        Assert.assertEquals(trie.getPermission("/api/devices/1234", "GET").getPath(), "/templated");
+    }
+
+    @Test(description = "A wildcard edge is taken when the literal edge does not lead to a resource.")
+    public void testFallbackToTemplate() {
+        PermissionRouteTrie trie = new PermissionRouteTrie(Arrays.asList(
+                createPermission("GET", "/api/devices/*/location", "/location"),
+                createPermission("GET", "/api/devices/android/*", "/android")));
+        Assert.assertEquals(trie.getPermission("/api/devices/android/location", "GET").getPath(), "/android");
+        Assert.assertEquals(trie.getPermission("/api/devices/android/123", "GET").getPath(), "/android");
+        Assert.assertEquals(trie.getPermission("/api/devices/ios/location", "GET").getPath(), "/location");
+        Assert.assertNull(trie.getPermission("/api/devices/ios/info", "GET"));
+    }
+
+    @Test(description = "Resources are resolved per HTTP method.")
+    public void testMethodKeyedResolution() {
+        PermissionRouteTrie trie = new PermissionRouteTrie(Arrays.asList(
+                createPermission("GET", "/api/groups/*", "/view"),
+                createPermission("DELETE", "/api/groups/*", "/delete")));
+        Assert.assertEquals(trie.getPermission("/api/groups/5", "GET").getPath(), "/view");
+        Assert.assertEquals(trie.getPermission("/api/groups/5", "DELETE").getPath(), "/delete");
+        Assert.assertNull(trie.getPermission("/api/groups/5", "PUT"));
+        Assert.assertNull(trie.getPermission("/api/groups/5", null));
+    }
+
+    @Test(description = "Path variables are restricted to the character class of the templated url patterns.")
+    public void testPathVariableCharacters() {
+        PermissionRouteTrie trie = new PermissionRouteTrie(Arrays.asList(
+                createPermission("GET", "/api/users/*", "/user"),
+                createPermission("GET", "/api/users/*/roles", "/roles")));
+        Assert.assertEquals(trie.getPermission("/api/users/john.doe_1-a", "GET").getPath(), "/user");
+        Assert.assertNull(trie.getPermission("/api/users/john%40carbon.super", "GET"));
+        Assert.assertNull(trie.getPermission("/api/users/*", "GET"));
+        Assert.assertNull(trie.getPermission("/api/users//roles", "GET"));
+        Assert.assertNull(trie.getPermission("/api/users", "GET"));
+        Assert.assertNull(trie.getPermission("/api/users/a/roles/b", "GET"));
+        Assert.assertNull(trie.getPermission("api/users/a", "GET"));
+    }
+
+    @Test(description = "Routes are compiled when the permissions of a context are registered.")
+    public void testRoutesCompiledOnRegistration() {
+        APIResourcePermissions resourcePermissions = new APIResourcePermissions();
+        Assert.assertNull(resourcePermissions.getPermissionRoutes(API_CONTEXT));
+        resourcePermissions.addPermissionList(API_CONTEXT, apiPermissions);
+        Assert.assertEquals(resourcePermissions.getPermissionRoutes(API_CONTEXT)
+                .getPermission(API_CONTEXT + "/devices", "GET").getPath(), "/permission/GET" + API_CONTEXT + "/devices");
+        resourcePermissions.addPermissionList(API_CONTEXT, new ArrayList<>());
+        Assert.assertNull(resourcePermissions.getPermissionRoutes(API_CONTEXT).getPermission(API_CONTEXT + "/devices",
+                "GET"));
+    }
+
+    @Test(description = "The trie resolves the same permissions as the regex based matching for the API resources.")
+    public void testApiResourcesMatchRegexResolution() {
+        PermissionRouteTrie trie = new PermissionRouteTrie(apiPermissions);
+        for (String[] request : apiRequests) {
+            String expected = resolveByRegex(apiPermissions, API_CONTEXT, request[1], request[0]);
+            Permission permission = trie.getPermission(request[1], request[0]);
+            Assert.assertNotNull(permission, "No permission resolved for " + request[0] + " " + request[1]);
+            Assert.assertEquals(permission.getPath(), expected, "Mismatch for " + request[0] + " " + request[1]);
+        }
+    }
+
+    @Test(description = "Compares the resolution cost of the trie against the regex based matching.")
+    public void testApiResourcesResolutionCost() {
+        PermissionRouteTrie trie = new PermissionRouteTrie(apiPermissions);
+        // warm up both code paths before measuring
+        resolveAll(trie, 2);
+        resolveAllByRegex(2);
+        long trieTime = resolveAll(trie, BENCHMARK_ROUNDS);
+        long regexTime = resolveAllByRegex(BENCHMARK_ROUNDS);
+        long lookups = (long) BENCHMARK_ROUNDS * apiRequests.size();
+        log.info("Resolved " + lookups + " requests over " + apiPermissions.size() + " resources, trie: "
+                + (trieTime / lookups) + " ns/op, regex: " + (regexTime / lookups) + " ns/op");
+    }
+
+    private long resolveAll(PermissionRouteTrie trie, int rounds) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            for (String[] request : apiRequests) {
+                Assert.assertNotNull(trie.getPermission(request[1], request[0]));
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long resolveAllByRegex(int rounds) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            for (String[] request : apiRequests) {
+                Assert.assertNotNull(resolveByRegex(apiPermissions, API_CONTEXT, request[1], request[0]));
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static Permission createPermission(String method, String url, String path) {
+        Permission permission = new Permission();
+        permission.setMethod(method);
+        permission.setUrl(url);
+        permission.setUrlPattern(url.replace("*", "[a-zA-Z0-9-_.]+"));
+        permission.setPath(path);
+        permission.setName(path);
+        return permission;
+    }
+
+    /**
+     * Resolution the authorizers performed over the permission list before the routes were compiled.
+     */
+    private static String resolveByRegex(List<Permission> permissions, String context, String requestUri,
+                                         String requestMethod) {
+        String requiredPermission = null;
+        List<String[]> matchingResources = new ArrayList<>();
+        for (Permission permission : permissions) {
+            if (requestMethod.equals(permission.getMethod()) && requestUri.matches(permission.getUrlPattern())) {
+                if (requestUri.equals(permission.getUrl())) {
+                    requiredPermission = permission.getPath();
+                    break;
+                } else {
+                    matchingResources.add(new String[]{permission.getUrlPattern().replace(context, ""),
+                            permission.getPath()});
+                }
+            }
+        }
+        if (requiredPermission == null) {
+            if (matchingResources.size() == 1) {
+                requiredPermission = matchingResources.get(0)[1];
+            }
+            if (matchingResources.size() > 1) {
+                StringTokenizer st = new StringTokenizer(requestUri.replace(context, ""), "/");
+                int tokenPosition = 1;
+                while (st.hasMoreTokens()) {
+                    List<String[]> tempList = new ArrayList<>();
+                    String currentToken = st.nextToken();
+                    for (String[] matchingResource : matchingResources) {
+                        StringTokenizer stmr = new StringTokenizer(matchingResource[0], "/");
+                        int internalTokenPosition = 1;
+                        while (stmr.hasMoreTokens()) {
+                            String internalToken = stmr.nextToken();
+                            if ((tokenPosition == internalTokenPosition) && currentToken.equals(internalToken)) {
+                                tempList.add(matchingResource);
+                            }
+                            internalTokenPosition++;
+                            if (tokenPosition < internalTokenPosition) {
+                                break;
+                            }
+                        }
+                    }
+                    if (tempList.size() == 1) {
+                        requiredPermission = tempList.get(0)[1];
+                        break;
+                    }
+                    tokenPosition++;
+                }
+            }
+        }
+        return requiredPermission;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.entgra.device.mgt.core.device.mgt.core.push.notification.mgt.dispatcher;
+
+import io.entgra.device.mgt.core.device.mgt.common.Device;
+import io.entgra.device.mgt.core.device.mgt.common.EnrolmentInfo;
+import io.entgra.device.mgt.core.device.mgt.common.operation.mgt.Operation;
+import io.entgra.device.mgt.core.device.mgt.common.push.notification.NotificationContext;
+import io.entgra.device.mgt.core.device.mgt.common.push.notification.PushNotificationExecutionFailedException;
+import io.entgra.device.mgt.core.device.mgt.core.common.BaseDeviceManagementTest;
+import io.entgra.device.mgt.core.device.mgt.core.common.TestDataHolder;
+import io.entgra.device.mgt.core.device.mgt.core.operation.TestNotificationStrategy;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class PushNotificationDispatcherTest extends BaseDeviceManagementTest {
+
+    private static final String DEVICE_TYPE = "dispatcher-test-type";
+
+    private final CountDownLatch firstPushStarted = new CountDownLatch(1);
+    private final CountDownLatch releasePushes = new CountDownLatch(1);
+    private PushNotificationDispatcher dispatcher;
+
+    @BeforeClass
+    @Override
+    public void init() throws Exception {
+        dispatcher = new PushNotificationDispatcher(1, 2, 10);
+    }
+
+    @AfterClass
+    public void cleanup() {
+        releasePushes.countDown();
+    }
+
+    @Test(description = "Pending notifications to the same device are merged and a full tenant queue rejects")
+    public void testCoalescingAndRejection() throws Exception {
+        BlockingNotificationStrategy strategy = new BlockingNotificationStrategy();
+        dispatcher.dispatch(strategy, getOperation(1), Collections.singletonList(getDevice("1", 1)));
+        Assert.assertTrue(firstPushStarted.await(10, TimeUnit.SECONDS), "Worker did not pick the notification.");
+
+        dispatcher.dispatch(strategy, getOperation(2), Arrays.asList(getDevice("2", 2), getDevice("3", 3)));
+        dispatcher.dispatch(strategy, getOperation(3), Arrays.asList(getDevice("2", 2), getDevice("4", 4)));
+
+        PushNotificationDispatcherMetrics metrics = dispatcher.getMetrics();
+        Assert.assertEquals(metrics.getEnqueuedCount(), 3);
+        Assert.assertEquals(metrics.getCoalescedCount(), 1);
+        Assert.assertEquals(metrics.getRejectedCount(), 1);
+        Assert.assertEquals(dispatcher.getQueueDepth(), 2);
+
+        releasePushes.countDown();
+        long deadline = System.currentTimeMillis() + 10000;
+        while (metrics.getSentCount() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assert.assertEquals(metrics.getSentCount(), 3);
+        Assert.assertEquals(dispatcher.getQueueDepth(), 0);
+    }
+
+    @Test(description = "Notifications which are still queued on shutdown are left to the scheduler task")
+    public void testCloseDrainsQueuedNotifications() throws Exception {
+        PushNotificationDispatcher closingDispatcher = new PushNotificationDispatcher(1, 10, 10);
+        CountDownLatch pushStarted = new CountDownLatch(1);
+        InterruptibleNotificationStrategy strategy = new InterruptibleNotificationStrategy(pushStarted);
+        closingDispatcher.dispatch(strategy, getOperation(11), Collections.singletonList(getDevice("11", 11)));
+        Assert.assertTrue(pushStarted.await(10, TimeUnit.SECONDS), "Worker did not pick the notification.");
+        closingDispatcher.dispatch(strategy, getOperation(12), Arrays.asList(getDevice("12", 12),
+                getDevice("13", 13)));
+        Assert.assertEquals(closingDispatcher.getQueueDepth(), 2);
+
+        closingDispatcher.close();
+        PushNotificationDispatcherMetrics metrics = closingDispatcher.getMetrics();
+        Assert.assertEquals(metrics.getDrainedCount(), 2);
+        Assert.assertEquals(metrics.getSentCount(), 1);
+        Assert.assertEquals(closingDispatcher.getQueueDepth(), 0);
+    }
+
+    private Operation getOperation(int id) {
+        Operation operation = new Operation();
+        operation.setId(id);
+        operation.setCode("TEST_OPERATION");
+        return operation;
+    }
+
+    private Device getDevice(String deviceIdentifier, int enrolmentId) {
+        EnrolmentInfo enrolmentInfo = new EnrolmentInfo();
+        enrolmentInfo.setId(enrolmentId);
+        return TestDataHolder.generateDummyDeviceData(deviceIdentifier, DEVICE_TYPE, enrolmentInfo);
+    }
+
+    private class BlockingNotificationStrategy extends TestNotificationStrategy {
+
+        @Override
+        public void execute(NotificationContext ctx) throws PushNotificationExecutionFailedException {
+            firstPushStarted.countDown();
+            try {
+                releasePushes.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public boolean isCoalescingSupported() {
+            return true;
+        }
+    }
+
+    private static class InterruptibleNotificationStrategy extends TestNotificationStrategy {
+
+        private final CountDownLatch pushStarted;
+
+        private InterruptibleNotificationStrategy(CountDownLatch pushStarted) {
+            this.pushStarted = pushStarted;
+        }
+
+        @Override
+        public void execute(NotificationContext ctx) throws PushNotificationExecutionFailedException {
+            pushStarted.countDown();
+            try {
+                // Blocks until the dispatcher is closed
+                new CountDownLatch(1).await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
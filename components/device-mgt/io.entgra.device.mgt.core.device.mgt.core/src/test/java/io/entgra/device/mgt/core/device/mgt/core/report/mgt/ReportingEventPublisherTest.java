@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2018 - 2024, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.report.mgt;
+
+import com.sun.net.httpserver.HttpServer;
+import io.entgra.device.mgt.core.device.mgt.common.Device;
+import io.entgra.device.mgt.core.device.mgt.common.device.details.DeviceDetailsWrapper;
+import io.entgra.device.mgt.core.device.mgt.common.exceptions.EventPublishingException;
+import io.entgra.device.mgt.core.device.mgt.core.report.mgt.config.ReportingEventBatchConfiguration;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/*
+    Unit tests for ReportingEventPublisher, publishing to a local stub of the reporting backend
+ */
+public class ReportingEventPublisherTest {
+
+    private static final Log log = LogFactory.getLog(ReportingEventPublisherTest.class);
+    private static final int TENANT_ID = -1234;
+    private static final String EVENT_MARKER = "reported-event";
+
+    private HttpServer stubServer;
+    private String stubUrl;
+    private final Queue<String> receivedPaths = new ConcurrentLinkedQueue<>();
+    private final AtomicLong receivedEvents = new AtomicLong();
+    private final AtomicInteger failuresToReturn = new AtomicInteger();
+    private volatile int failureStatus;
+    private volatile boolean compressedRequests;
+
+    @BeforeClass
+    public void startStubEndpoint() throws IOException {
+        stubServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stubServer.createContext("/", exchange -> {
+            byte[] body = readFully(exchange.getRequestBody());
+            int status = 200;
+            if (failuresToReturn.getAndDecrement() > 0) {
+                status = failureStatus;
+            } else {
+                compressedRequests = "gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+                if (compressedRequests) {
+                    body = readFully(new GZIPInputStream(new ByteArrayInputStream(body)));
+                }
+                receivedPaths.add(exchange.getRequestURI().getPath());
+                receivedEvents.addAndGet(countEvents(new String(body, StandardCharsets.UTF_8)));
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        stubServer.start();
+        stubUrl = "http://127.0.0.1:" + stubServer.getAddress().getPort();
+    }
+
+    @AfterClass
+    public void stopStubEndpoint() {
+        stubServer.stop(0);
+    }
+
+    @BeforeMethod
+    public void resetStubEndpoint() {
+        receivedPaths.clear();
+        receivedEvents.set(0);
+        failuresToReturn.set(0);
+    }
+
+    @Test(description = "Check whether events are posted per endpoint as compressed batches of the batch size")
+    public void testBatching() {
+        ReportingEventBatchConfiguration config = createConfig(10, 1000);
+        ReportingEventPublisher publisher = createPublisher(config, event -> true);
+        try {
+            submit(publisher, 25, "/event/deviceinfo");
+            submit(publisher, 5, "/event/location");
+            publisher.flush();
+            Assert.assertEquals(receivedEvents.get(), 30);
+            Assert.assertEquals(receivedPaths.size(), 4);
+            Assert.assertEquals(receivedPaths.stream().filter("/event/deviceinfo"::equals).count(), 3);
+            Assert.assertTrue(compressedRequests, "Batches are expected to be gzip encoded");
+            Assert.assertEquals(publisher.getPublishedCount(), 30);
+            Assert.assertEquals(publisher.getBatchCount(), 4);
+            Assert.assertEquals(publisher.getPendingCount(), 0);
+        } finally {
+            publisher.close();
+        }
+    }
+
+    @Test(description = "Check whether events beyond the capacity are rejected and counted")
+    public void testOverflow() {
+        ReportingEventBatchConfiguration config = createConfig(100, 5);
+        config.setCompressionEnabled(false);
+        ReportingEventPublisher publisher = createPublisher(config, event -> true);
+        try {
+            Assert.assertEquals(submit(publisher, 7, "/event/deviceinfo"), 5);
+            Assert.assertEquals(publisher.getAcceptedCount(), 5);
+            Assert.assertEquals(publisher.getRejectedCount(), 2);
+            publisher.flush();
+            Assert.assertFalse(compressedRequests);
+            Assert.assertEquals(receivedEvents.get(), 5);
+        } finally {
+            publisher.close();
+        }
+    }
+
+    @Test(description = "Check whether events which cannot be enriched are not published")
+    public void testEnrichmentFailure() {
+        ReportingEventPublisher publisher = createPublisher(createConfig(10, 100),
+                event -> event.getDevice().getId() % 2 == 0);
+        try {
+            submit(publisher, 10, "/event/deviceinfo");
+            publisher.flush();
+            Assert.assertEquals(receivedEvents.get(), 5);
+            Assert.assertEquals(publisher.getEnrichmentFailureCount(), 5);
+        } finally {
+            publisher.close();
+        }
+    }
+
+    @Test(description = "Check whether batches failing with server errors are retried, and refused batches are not")
+    public void testRetry() throws InterruptedException {
+        ReportingEventBatchConfiguration config = createConfig(10, 100);
+        config.setMaxRetries(3);
+        config.setRetryInterval(10);
+        ReportingEventPublisher publisher = createPublisher(config, event -> true);
+        try {
+            failureStatus = 503;
+            failuresToReturn.set(2);
+            submit(publisher, 10, "/event/deviceinfo");
+            publisher.flush();
+            waitFor(() -> publisher.getPublishedCount() == 10);
+            Assert.assertEquals(publisher.getRetryCount(), 2);
+            Assert.assertEquals(receivedEvents.get(), 10);
+
+            failureStatus = 400;
+            failuresToReturn.set(1);
+            submit(publisher, 10, "/event/deviceinfo");
+            publisher.flush();
+            Assert.assertEquals(publisher.getDroppedCount(), 10);
+            Assert.assertEquals(publisher.getRetryCount(), 2);
+
+            failureStatus = 500;
+            failuresToReturn.set(10);
+            submit(publisher, 10, "/event/deviceinfo");
+            publisher.flush();
+            waitFor(() -> publisher.getDroppedCount() == 20);
+            Assert.assertEquals(publisher.getRetryCount(), 5);
+        } finally {
+            publisher.close();
+        }
+    }
+
+    @Test(description = "Check whether failed batches beyond the maximum retry bytes are dropped without retrying")
+    public void testRetryBytesLimit() throws InterruptedException {
+        ReportingEventBatchConfiguration config = createConfig(10, 100);
+        config.setCompressionEnabled(false);
+        config.setMaxRetries(2);
+        config.setRetryInterval(200);
+        config.setMaxRetryBytes(1);
+        ReportingEventPublisher publisher = createPublisher(config, event -> true);
+        try {
+            failureStatus = 503;
+            failuresToReturn.set(10);
+            submit(publisher, 20, "/event/deviceinfo");
+            publisher.flush();
+            Assert.assertEquals(publisher.getDroppedCount(), 20);
+            Assert.assertEquals(publisher.getRetryCount(), 0);
+            Assert.assertEquals(publisher.getRetryingBytes(), 0);
+
+            config.setMaxRetryBytes(1024 * 1024);
+            ReportingEventPublisher retrying = createPublisher(config, event -> true);
+            try {
+                failuresToReturn.set(1);
+                submit(retrying, 10, "/event/deviceinfo");
+                retrying.flush();
+                Assert.assertTrue(retrying.getRetryingBytes() > 0, "The failed batch is expected to be retried");
+                waitFor(() -> retrying.getPublishedCount() == 10);
+                Assert.assertEquals(retrying.getRetryingBytes(), 0);
+            } finally {
+                retrying.close();
+            }
+        } finally {
+            publisher.close();
+        }
+    }
+
+    @Test(description = "Check whether a full batch is published without waiting for the flush interval")
+    public void testFlushOnBatchSize() throws InterruptedException {
+        ReportingEventBatchConfiguration config = createConfig(10, 100);
+        config.setFlushInterval(600000);
+        ReportingEventPublisher publisher = new ReportingEventPublisher(config, event -> true, this::post, true);
+        try {
+            submit(publisher, 10, "/event/deviceinfo");
+            waitFor(() -> receivedEvents.get() == 10);
+            Assert.assertEquals(publisher.getPendingCount(), 0);
+        } finally {
+            publisher.close();
+        }
+    }
+
+    @Test(description = "Check the throughput of publishing events to a local endpoint")
+    public void testThroughput() throws InterruptedException {
+        int eventCount = 20000;
+        ReportingEventBatchConfiguration config = createConfig(500, eventCount);
+        config.setFlushInterval(50);
+        ReportingEventPublisher publisher = new ReportingEventPublisher(config, event -> true, this::post, true);
+        try {
+            long startTime = System.nanoTime();
+            Assert.assertEquals(submit(publisher, eventCount, "/event/deviceinfo"), eventCount);
+            waitFor(() -> publisher.getPublishedCount() == eventCount);
+            long elapsedMillis = Math.max((System.nanoTime() - startTime) / 1000000, 1);
+            log.info("Published " + eventCount + " events in " + publisher.getBatchCount() + " batches in "
+                    + elapsedMillis + " ms, " + (eventCount * 1000L / elapsedMillis) + " events/s");
+            Assert.assertEquals(receivedEvents.get(), eventCount);
+            Assert.assertEquals(publisher.getRejectedCount(), 0);
+        } finally {
+            publisher.close();
+        }
+    }
+
+    @Test(description = "Check whether cached lookups expire and the least recently used ones are evicted")
+    public void testEnrichmentCache() throws InterruptedException {
+        ReportingEventEnricher.ExpiringCache<String> cache = new ReportingEventEnricher.ExpiringCache<>(60000, 2);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        Assert.assertEquals(cache.get("a"), "1");
+        cache.put("c", "3");
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals(cache.get("c"), "3");
+
+        ReportingEventEnricher.ExpiringCache<String> expiring = new ReportingEventEnricher.ExpiringCache<>(1, 2);
+        expiring.put("a", "1");
+        Thread.sleep(5);
+        Assert.assertNull(expiring.get("a"));
+
+        ReportingEventEnricher.ExpiringCache<String> disabled = new ReportingEventEnricher.ExpiringCache<>(0, 2);
+        disabled.put("a", "1");
+        Assert.assertNull(disabled.get("a"));
+    }
+
+    private ReportingEventPublisher createPublisher(ReportingEventBatchConfiguration config,
+                                                   ReportingEventPublisher.EventEnricher enricher) {
+        return new ReportingEventPublisher(config, enricher, this::post, false);
+    }
+
+    private static ReportingEventBatchConfiguration createConfig(int batchSize, int queueCapacity) {
+        ReportingEventBatchConfiguration config = new ReportingEventBatchConfiguration();
+        config.setEnabled(true);
+        config.setBatchSize(batchSize);
+        config.setQueueCapacity(queueCapacity);
+        return config;
+    }
+
+    private int submit(ReportingEventPublisher publisher, int count, String path) {
+        int accepted = 0;
+        for (int i = 0; i < count; i++) {
+            Device device = new Device();
+            device.setId(i);
+            device.setDeviceIdentifier("device-" + i);
+            DeviceDetailsWrapper deviceDetailsWrapper = new DeviceDetailsWrapper();
+            deviceDetailsWrapper.setEvents(EVENT_MARKER);
+            if (publisher.submit(deviceDetailsWrapper, device, TENANT_ID, "admin", null, stubUrl + path)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    private int post(String endpoint, byte[] payload, boolean compressed) throws EventPublishingException {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(endpoint).openConnection();
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            if (compressed) {
+                connection.setRequestProperty("Content-Encoding", "gzip");
+            }
+            try (OutputStream outputStream = connection.getOutputStream()) {
+                outputStream.write(payload);
+            }
+            int statusCode = connection.getResponseCode();
+            connection.disconnect();
+            return statusCode;
+        } catch (IOException e) {
+            throw new EventPublishingException("Error occurred while posting to the stub endpoint " + endpoint, e);
+        }
+    }
+
+    private static long countEvents(String body) {
+        long count = 0;
+        for (int index = body.indexOf(EVENT_MARKER); index >= 0; index = body.indexOf(EVENT_MARKER, index + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static byte[] readFully(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static void waitFor(Condition condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30000;
+        while (!condition.isMet()) {
+            if (System.currentTimeMillis() > deadline) {
+                Assert.fail("Condition was not met within 30 seconds");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private interface Condition {
+        boolean isMet();
+    }
+}
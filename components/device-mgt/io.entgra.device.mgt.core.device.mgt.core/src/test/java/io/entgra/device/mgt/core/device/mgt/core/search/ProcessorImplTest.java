@@ -19,6 +19,7 @@ package io.entgra.device.mgt.core.device.mgt.core.search;
 
 import io.entgra.device.mgt.core.device.mgt.common.Device;
 import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
+import io.entgra.device.mgt.core.device.mgt.common.PaginationResult;
 import io.entgra.device.mgt.core.device.mgt.common.search.Condition;
 import io.entgra.device.mgt.core.device.mgt.common.search.SearchContext;
 import io.entgra.device.mgt.core.device.mgt.core.TestDeviceManagementService;
@@ -38,6 +39,7 @@ import org.testng.annotations.Test;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -126,6 +128,66 @@ public class ProcessorImplTest extends BaseDeviceManagementTest {
         Assert.assertEquals(0, devices.size(), "There should be no devices with matching search criteria");
     }
 
+    @Test (description = "Search for devices page by page")
+    public void testSearchDevicesWithPagination() throws SearchMgtException {
+        ProcessorImpl processor = new ProcessorImpl();
+        List<Device> firstPage = processor.execute(getIMEISearchContext(0, 2, 0));
+        Assert.assertEquals(firstPage.size(), 2, "There should be 2 devices in the first page");
+        List<Device> secondPage = processor.execute(getIMEISearchContext(2, 2, 0));
+        Assert.assertEquals(secondPage.size(), 2, "There should be 2 devices in the second page");
+        List<Device> lastPage = processor.execute(getIMEISearchContext(4, 2, 0));
+        Assert.assertEquals(lastPage.size(), 1, "There should be 1 device in the last page");
+
+        List<Integer> enrolmentIds = new ArrayList<>();
+        for (List<Device> page : Arrays.asList(firstPage, secondPage, lastPage)) {
+            for (Device device : page) {
+                enrolmentIds.add(device.getEnrolmentInfo().getId());
+            }
+        }
+        for (int i = 1; i < enrolmentIds.size(); i++) {
+            Assert.assertTrue(enrolmentIds.get(i - 1) < enrolmentIds.get(i),
+                    "Pages should contain distinct devices in the order of the enrolment ids");
+        }
+    }
+
+    @Test (description = "Search for a page of devices with the total number of matching devices")
+    public void testSearchDevicesWithTotalCount() throws SearchMgtException {
+        ProcessorImpl processor = new ProcessorImpl();
+        PaginationResult result = processor.executePaginated(getIMEISearchContext(0, 2, 0));
+        Assert.assertEquals(result.getData().size(), 2, "There should be 2 devices in the page");
+        Assert.assertEquals(result.getRecordsTotal(), 5, "The total should count every matching device");
+    }
+
+    @Test (description = "Search for devices after a cursor")
+    public void testSearchDevicesWithCursor() throws SearchMgtException {
+        ProcessorImpl processor = new ProcessorImpl();
+        List<Device> firstPage = processor.execute(getIMEISearchContext(0, 3, 0));
+        Assert.assertEquals(firstPage.size(), 3, "There should be 3 devices in the first page");
+        int cursor = firstPage.get(firstPage.size() - 1).getEnrolmentInfo().getId();
+        List<Device> nextPage = processor.execute(getIMEISearchContext(0, 3, cursor));
+        Assert.assertEquals(nextPage.size(), 2, "There should be 2 devices after the cursor");
+        for (Device device : nextPage) {
+            Assert.assertTrue(device.getEnrolmentInfo().getId() > cursor,
+                    "Devices after the cursor should have larger enrolment ids");
+        }
+    }
+
+    @Test (description = "Search for device with and conditions where one does not match")
+    public void testSearchDevicesWithUnmatchedAndCondition() throws SearchMgtException {
+        SearchContext context = getIMEISearchContext(0, 0, 0);
+
+        Condition condition = new Condition();
+        condition.setKey("IMSI");
+        condition.setOperator("=");
+        condition.setValue("43265963212378466");
+        condition.setState(Condition.State.AND);
+        context.getConditions().add(condition);
+
+        ProcessorImpl processor = new ProcessorImpl();
+        List<Device> devices = processor.execute(context);
+        Assert.assertEquals(devices.size(), 0, "There should be no devices with matching search criteria");
+    }
+
     @Test(description = "Test for invalid state")
     public void testInvalidState() throws SearchMgtException {
         SearchContext context = new SearchContext();
@@ -162,4 +224,22 @@ public class ProcessorImplTest extends BaseDeviceManagementTest {
             }
         }
     }
+
+    private SearchContext getIMEISearchContext(int offset, int limit, int cursor) {
+        SearchContext context = new SearchContext();
+        List<Condition> conditions = new ArrayList<>();
+
+        Condition condition = new Condition();
+        condition.setKey("IMEI");
+        condition.setOperator("=");
+        condition.setValue("e6f236ac82537a8e");
+        condition.setState(Condition.State.AND);
+        conditions.add(condition);
+
+        context.setConditions(conditions);
+        context.setOffset(offset);
+        context.setLimit(limit);
+        context.setCursor(cursor);
+        return context;
+    }
 }
@@ -22,6 +22,7 @@ import io.entgra.device.mgt.core.device.mgt.common.Device;
 import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
 import io.entgra.device.mgt.core.device.mgt.common.GroupPaginationRequest;
 import io.entgra.device.mgt.core.device.mgt.common.PaginationResult;
+import io.entgra.device.mgt.core.device.mgt.common.exceptions.DeviceManagementException;
 import io.entgra.device.mgt.core.device.mgt.common.exceptions.DeviceNotFoundException;
 import io.entgra.device.mgt.core.device.mgt.common.exceptions.TransactionManagementException;
 import io.entgra.device.mgt.core.device.mgt.common.group.mgt.*;
@@ -43,6 +44,7 @@ import org.wso2.carbon.user.core.service.RealmService;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class GroupManagementProviderServiceTest extends BaseDeviceManagementTest {
 
@@ -277,6 +279,35 @@ public class GroupManagementProviderServiceTest extends BaseDeviceManagementTest
         Assert.assertNotNull(groups);
     }
 
+    @Test(dependsOnMethods = "addDevices")
+    public void getGroupsOfDevices() throws GroupManagementException, DeviceManagementException {
+        DeviceManagementProviderService deviceManagementProviderService = DeviceManagementDataHolder.getInstance()
+                .getDeviceManagementProvider();
+        List<Device> devices = new ArrayList<>();
+        for (DeviceIdentifier identifier : TestUtils.getDeviceIdentifiersList()) {
+            devices.add(deviceManagementProviderService.getDevice(identifier, false));
+        }
+        Device deviceWithoutGroups = new Device();
+        deviceWithoutGroups.setId(-1);
+        devices.add(deviceWithoutGroups);
+
+        Map<Integer, List<DeviceGroup>> groupsOfDevices = groupManagementProviderService.getGroups(devices, false);
+        Assert.assertFalse(groupsOfDevices.containsKey(deviceWithoutGroups.getId()));
+        for (Device device : devices.subList(0, devices.size() - 1)) {
+            List<Integer> expectedGroupIds = new ArrayList<>();
+            for (DeviceGroup group : groupManagementProviderService.getGroups(device, false)) {
+                expectedGroupIds.add(group.getGroupId());
+            }
+            Assert.assertFalse(expectedGroupIds.isEmpty());
+            List<Integer> groupIds = new ArrayList<>();
+            for (DeviceGroup group : groupsOfDevices.get(device.getId())) {
+                groupIds.add(group.getGroupId());
+            }
+            Assert.assertEqualsNoOrder(groupIds.toArray(), expectedGroupIds.toArray());
+        }
+        Assert.assertTrue(groupManagementProviderService.getGroups(new ArrayList<Device>(), false).isEmpty());
+    }
+
     @Test
     public void createDefaultGroup() throws GroupManagementException {
         groupManagementProviderService.createDefaultGroup("BYOD");
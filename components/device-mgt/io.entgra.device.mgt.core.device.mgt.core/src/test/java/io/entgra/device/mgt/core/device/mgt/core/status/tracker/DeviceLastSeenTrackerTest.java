@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.device.mgt.core.status.tracker;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+    Unit tests for DeviceLastSeenTracker and EnrolmentTimestampMap
+ */
+public class DeviceLastSeenTrackerTest {
+
+    private static final int NO_OF_ENROLMENTS = 10000;
+
+    @Test(description = "Check whether the map keeps the latest timestamp of each enrolment while it grows")
+    public void testTimestampMap() {
+        EnrolmentTimestampMap timestampMap = new EnrolmentTimestampMap(0);
+        for (int i = 1; i <= NO_OF_ENROLMENTS; i++) {
+            timestampMap.put(i, i * 10L);
+        }
+        for (int i = 1; i <= NO_OF_ENROLMENTS; i += 2) {
+            timestampMap.put(i, i * 10L + 5);
+            timestampMap.put(i, 1L);
+        }
+        Assert.assertEquals(timestampMap.size(), NO_OF_ENROLMENTS);
+        for (int i = 1; i <= NO_OF_ENROLMENTS; i++) {
+            Assert.assertEquals(timestampMap.get(i), i % 2 == 1 ? i * 10L + 5 : i * 10L);
+        }
+        Assert.assertEquals(timestampMap.get(NO_OF_ENROLMENTS + 1), 0);
+
+        Map<Integer, Long> target = new HashMap<>();
+        target.put(2, 100L);
+        timestampMap.copyTo(target);
+        Assert.assertEquals(target.size(), NO_OF_ENROLMENTS);
+        Assert.assertEquals(target.get(2).longValue(), 100L);
+        Assert.assertEquals(target.get(3).longValue(), 35L);
+    }
+
+    @Test(description = "Check whether invalid enrolment ids are rejected", expectedExceptions =
+            IllegalArgumentException.class)
+    public void testInvalidEnrolmentId() {
+        new EnrolmentTimestampMap(16).put(0, 1L);
+    }
+
+    @Test(description = "Check whether repeated check-ins are merged into the latest one")
+    public void testRecordCheckIn() {
+        DeviceLastSeenTracker tracker = new DeviceLastSeenTracker(0);
+        for (int i = 0; i < 100; i++) {
+            for (int enrolmentId = 1; enrolmentId <= 50; enrolmentId++) {
+                tracker.recordCheckIn(enrolmentId, 1000L + i);
+            }
+        }
+        Assert.assertEquals(tracker.getPendingCount(), 50);
+        Assert.assertEquals(tracker.getLastSeen(1), 1099L);
+        Assert.assertEquals(tracker.getLastSeen(51), 0L);
+    }
+
+    @Test(description = "Check whether flushed check-ins are still served after they are written")
+    public void testFlushedCheckInsRetained() throws Exception {
+        Map<Integer, Long> writtenTimes = new HashMap<>();
+        DeviceLastSeenTracker tracker = new DeviceLastSeenTracker(0) {
+            @Override
+            void writeLastSeenTimes(Map<Integer, Long> lastSeenTimes) {
+                writtenTimes.putAll(lastSeenTimes);
+            }
+        };
+        tracker.recordCheckIn(1, 1000L);
+        tracker.recordCheckIn(2, 2000L);
+        tracker.flush();
+        Assert.assertEquals(writtenTimes.size(), 2);
+        Assert.assertEquals(tracker.getPendingCount(), 0);
+        Assert.assertEquals(tracker.getLastSeen(1), 1000L);
+
+        tracker.recordCheckIn(1, 3000L);
+        tracker.flush();
+        Assert.assertEquals(tracker.getLastSeen(1), 3000L);
+        Assert.assertEquals(tracker.getLastSeen(2), 2000L, "Check-in of an earlier flush is not retained");
+    }
+}
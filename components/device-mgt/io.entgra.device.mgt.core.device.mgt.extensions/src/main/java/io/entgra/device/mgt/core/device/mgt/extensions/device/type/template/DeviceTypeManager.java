@@ -464,6 +464,32 @@ public class DeviceTypeManager implements DeviceManager {
         return null;
     }
 
+    @Override
+    public List<Device> getDevices(List<DeviceIdentifier> deviceIds) throws DeviceManagementException {
+        if (deviceIds == null) {
+            throw new DeviceManagementException("Cannot get the devices. DeviceIdentifier list is null");
+        }
+        if (!propertiesExist || deviceIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<String> ids = new ArrayList<>(deviceIds.size());
+        for (DeviceIdentifier deviceId : deviceIds) {
+            ids.add(deviceId.getId());
+        }
+        try {
+            if (log.isDebugEnabled()) {
+                log.debug("Getting the details of " + ids.size() + " " + deviceType + " devices");
+            }
+            deviceTypePluginDAOManager.getDeviceTypeDAOHandler().beginTransaction();
+            return deviceTypePluginDAOManager.getDeviceDAO().getDevices(ids);
+        } catch (DeviceTypeMgtPluginException e) {
+            throw new DeviceManagementException(
+                    "Error occurred while fetching " + ids.size() + " " + deviceType + " devices", e);
+        } finally {
+            deviceTypePluginDAOManager.getDeviceTypeDAOHandler().closeConnection();
+        }
+    }
+
     @Override
     public boolean updateDeviceProperties(DeviceIdentifier deviceId, List<Device.Property> propertyList)
             throws DeviceManagementException {
@@ -21,12 +21,25 @@ package io.entgra.device.mgt.core.device.mgt.extensions.device.type.template.dao
 import io.entgra.device.mgt.core.device.mgt.common.Device;
 import io.entgra.device.mgt.core.device.mgt.extensions.device.type.template.exception.DeviceTypeMgtPluginException;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public interface PluginDAO {
 
     Device getDevice(String deviceId) throws DeviceTypeMgtPluginException;
 
+    default List<Device> getDevices(List<String> deviceIds) throws DeviceTypeMgtPluginException {
+        List<Device> devices = new ArrayList<>(deviceIds.size());
+        Device device;
+        for (String deviceId : deviceIds) {
+            device = getDevice(deviceId);
+            if (device != null) {
+                devices.add(device);
+            }
+        }
+        return devices;
+    }
+
     boolean addDevice(Device device) throws DeviceTypeMgtPluginException;
 
     boolean updateDevice(Device device) throws DeviceTypeMgtPluginException;
@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.StringJoiner;
 
 /**
  * Implements CRUD for Devices. This holds the generic implementation. An instance of this will be created for
@@ -91,6 +92,54 @@ public class PropertyBasedPluginDAOImpl implements PluginDAO {
         return device;
     }
 
+    @Override
+    public List<Device> getDevices(List<String> deviceIds) throws DeviceTypeMgtPluginException {
+        if (deviceIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        PreparedStatement stmt = null;
+        ResultSet resultSet = null;
+        Map<String, Device> deviceMap = new HashMap<>();
+        StringJoiner joiner = new StringJoiner(",", "SELECT DEVICE_IDENTIFICATION, PROPERTY_NAME, PROPERTY_VALUE " +
+                "FROM DM_DEVICE_PROPERTIES WHERE DEVICE_TYPE_NAME = ? AND TENANT_ID = ? " +
+                "AND DEVICE_IDENTIFICATION IN (", ")");
+        deviceIds.forEach(deviceId -> joiner.add("?"));
+        try {
+            Connection conn = deviceTypeDAOHandler.getConnection();
+            stmt = conn.prepareStatement(joiner.toString());
+            int paramIndex = 1;
+            stmt.setString(paramIndex++, deviceType);
+            stmt.setInt(paramIndex++, PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId(true));
+            for (String deviceId : deviceIds) {
+                stmt.setString(paramIndex++, deviceId);
+            }
+            resultSet = stmt.executeQuery();
+            while (resultSet.next()) {
+                String deviceId = resultSet.getString("DEVICE_IDENTIFICATION");
+                Device deviceInMap = deviceMap.get(deviceId);
+                if (deviceInMap == null) {
+                    deviceInMap = new Device();
+                    deviceInMap.setDeviceIdentifier(deviceId);
+                    deviceInMap.setType(deviceType);
+                    deviceInMap.setProperties(new ArrayList<>());
+                    deviceMap.put(deviceId, deviceInMap);
+                }
+                Device.Property property = new Device.Property();
+                property.setName(resultSet.getString(PROPERTY_KEY_COLUMN_NAME));
+                property.setValue(resultSet.getString(PROPERTY_VALUE_COLUMN_NAME));
+                deviceInMap.getProperties().add(property);
+            }
+            return new ArrayList<>(deviceMap.values());
+        } catch (SQLException e) {
+            String msg = "Error occurred while fetching " + deviceIds.size() + " devices of type " + deviceType;
+            log.error(msg, e);
+            throw new DeviceTypeMgtPluginException(msg, e);
+        } finally {
+            DeviceTypeUtils.cleanupResources(stmt, resultSet);
+            deviceTypeDAOHandler.closeConnection();
+        }
+    }
+
     public boolean addDevice(Device device) throws DeviceTypeMgtPluginException {
         boolean status = false;
         Connection conn = null;
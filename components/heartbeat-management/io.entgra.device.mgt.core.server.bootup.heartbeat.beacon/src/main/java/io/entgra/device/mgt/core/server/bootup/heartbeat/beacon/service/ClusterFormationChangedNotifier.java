@@ -17,9 +17,21 @@
  */
 package io.entgra.device.mgt.core.server.bootup.heartbeat.beacon.service;
 
+import io.entgra.device.mgt.core.device.mgt.common.ServerCtxInfo;
+
 public interface ClusterFormationChangedNotifier {
 
     String getType();
 
     void notifyClusterFormationChanged(int hashIndex, int activeServerCount);
+
+    /**
+     * Invoked with the server context of the new cluster formation, including the task partition owned by the
+     * local server. Notifiers which keep their own copy of the cluster state should override this method.
+     *
+     * @param serverCtxInfo server context of the local server, owned by the notifier
+     */
+    default void notifyClusterFormationChanged(ServerCtxInfo serverCtxInfo) {
+        notifyClusterFormationChanged(serverCtxInfo.getLocalServerHashIdx(), serverCtxInfo.getActiveServerCount());
+    }
 }
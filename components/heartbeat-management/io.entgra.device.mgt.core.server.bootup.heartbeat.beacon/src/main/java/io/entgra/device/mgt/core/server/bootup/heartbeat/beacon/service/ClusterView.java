@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.server.bootup.heartbeat.beacon.service;
+
+import io.entgra.device.mgt.core.device.mgt.common.ServerCtxInfo;
+import io.entgra.device.mgt.core.device.mgt.common.TaskPartition;
+import io.entgra.device.mgt.core.server.bootup.heartbeat.beacon.dto.ServerContext;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable snapshot of the active cluster members as seen by the local server. A new view with an incremented
+ * version is created whenever the membership or the local hash index changes; otherwise the view is only
+ * re-stamped with the time it was last confirmed against the heartbeat records.
+ */
+final class ClusterView {
+
+    private final long version;
+    private final Set<String> serverUUIDs;
+    private final int localHashIndex;
+    private final TaskPartition taskPartition;
+    private final long refreshedTimeMillis;
+
+    private ClusterView(long version, Set<String> serverUUIDs, int localHashIndex, TaskPartition taskPartition,
+                        long refreshedTimeMillis) {
+        this.version = version;
+        this.serverUUIDs = serverUUIDs;
+        this.localHashIndex = localHashIndex;
+        this.taskPartition = taskPartition;
+        this.refreshedTimeMillis = refreshedTimeMillis;
+    }
+
+    /**
+     * Builds the view following the given one from the active servers read from the heartbeat records.
+     *
+     * @param previous        current view, null if there is none yet
+     * @param servers         active servers keyed by their UUID
+     * @param localServerUUID UUID of the local server
+     * @return view sharing the version of the previous one if the cluster formation did not change
+     */
+    static ClusterView next(ClusterView previous, Map<String, ServerContext> servers, String localServerUUID) {
+        ServerContext localServerCtx = servers.get(localServerUUID);
+        int localHashIndex = localServerCtx != null ? localServerCtx.getIndex() : -1;
+        long now = System.currentTimeMillis();
+        if (previous != null && previous.localHashIndex == localHashIndex
+                && previous.serverUUIDs.equals(servers.keySet())) {
+            return new ClusterView(previous.version, previous.serverUUIDs, localHashIndex, previous.taskPartition,
+                    now);
+        }
+        TaskPartition taskPartition = null;
+        if (localServerCtx != null) {
+            taskPartition = ConsistentHashPartitioner.getPartition(servers.keySet(), localServerUUID);
+        }
+        return new ClusterView(previous != null ? previous.version + 1 : 1,
+                Collections.unmodifiableSet(new HashSet<>(servers.keySet())), localHashIndex, taskPartition, now);
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return true if the view was not confirmed within the given number of seconds
+     */
+    boolean isStale(int maxAgeInSeconds) {
+        return System.currentTimeMillis() - refreshedTimeMillis > TimeUnit.SECONDS.toMillis(maxAgeInSeconds);
+    }
+
+    /**
+     * @return a new server context info of the local server, or null if the local server is not an active member
+     */
+    ServerCtxInfo toServerCtxInfo() {
+        if (taskPartition == null) {
+            return null;
+        }
+        return new ServerCtxInfo(serverUUIDs.size(), localHashIndex, taskPartition);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.server.bootup.heartbeat.beacon.service;
+
+import io.entgra.device.mgt.core.device.mgt.common.TaskPartition;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * Assigns the fixed {@link TaskPartition#BUCKET_COUNT} buckets of the device id space to the active servers using a
+ * consistent hash ring with virtual nodes. Unlike {@code MOD(ID, activeServerCount)}, a membership change only moves
+ * the buckets adjacent to the virtual nodes of the joining or leaving server, i.e. roughly 1/N of the devices.
+ */
+public final class ConsistentHashPartitioner {
+
+    static final int VIRTUAL_NODES_PER_SERVER = 64;
+    private static final long RING_SIZE = 1L << 32;
+    private static final long BUCKET_WIDTH = RING_SIZE / TaskPartition.BUCKET_COUNT;
+
+    private ConsistentHashPartitioner() {
+    }
+
+    /**
+     * Computes the bucket ranges owned by the given server.
+     *
+     * @param serverUUIDs     UUIDs of all active servers, including the local one
+     * @param localServerUUID UUID of the server to compute the partition for
+     * @return partition over {@code MOD(ID, BUCKET_COUNT)} with adjacent owned buckets merged into ranges
+     */
+    public static TaskPartition getPartition(Collection<String> serverUUIDs, String localServerUUID) {
+        String[] owners = getBucketOwners(serverUUIDs);
+        int[] starts = new int[TaskPartition.BUCKET_COUNT];
+        int[] ends = new int[TaskPartition.BUCKET_COUNT];
+        int rangeCount = 0;
+        for (int bucket = 0; bucket < owners.length; bucket++) {
+            if (!owners[bucket].equals(localServerUUID)) {
+                continue;
+            }
+            if (rangeCount > 0 && ends[rangeCount - 1] == bucket - 1) {
+                ends[rangeCount - 1] = bucket;
+            } else {
+                starts[rangeCount] = bucket;
+                ends[rangeCount] = bucket;
+                rangeCount++;
+            }
+        }
+        return new TaskPartition(TaskPartition.BUCKET_COUNT, Arrays.copyOf(starts, rangeCount),
+                Arrays.copyOf(ends, rangeCount));
+    }
+
+    /**
+     * @param serverUUIDs UUIDs of all active servers
+     * @return owning server UUID of each bucket, indexed by bucket
+     */
+    static String[] getBucketOwners(Collection<String> serverUUIDs) {
+        if (serverUUIDs.isEmpty()) {
+            throw new IllegalArgumentException("At least one active server is required to partition buckets");
+        }
+        // Sorting makes the ring, including tie breaks on colliding positions, independent of iteration order
+        String[] servers = new TreeSet<>(serverUUIDs).toArray(new String[0]);
+        int pointCount = servers.length * VIRTUAL_NODES_PER_SERVER;
+        long[] points = new long[pointCount];
+        MessageDigest digest = getDigest();
+        int pointIdx = 0;
+        for (int serverIdx = 0; serverIdx < servers.length; serverIdx++) {
+            for (int vnode = 0; vnode < VIRTUAL_NODES_PER_SERVER; vnode++) {
+                // Ring position in the high 32 bits, owning server in the low bits so a plain sort orders the ring
+                points[pointIdx++] = (hash(digest, servers[serverIdx] + "#" + vnode) << 31) | serverIdx;
+            }
+        }
+        Arrays.sort(points);
+
+        String[] owners = new String[TaskPartition.BUCKET_COUNT];
+        int cursor = 0;
+        for (int bucket = 0; bucket < owners.length; bucket++) {
+            long bucketPosition = bucket * BUCKET_WIDTH;
+            while (cursor < pointCount && (points[cursor] >>> 31) < bucketPosition) {
+                cursor++;
+            }
+            long owningPoint = points[cursor < pointCount ? cursor : 0];
+            owners[bucket] = servers[(int) (owningPoint & Integer.MAX_VALUE)];
+        }
+        return owners;
+    }
+
+    private static long hash(MessageDigest digest, String key) {
+        byte[] bytes = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+        return ((bytes[0] & 0xFFL) << 24) | ((bytes[1] & 0xFFL) << 16) | ((bytes[2] & 0xFFL) << 8) | (bytes[3] & 0xFFL);
+    }
+
+    private static MessageDigest getDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 digest is not available in this runtime", e);
+        }
+    }
+}
@@ -36,6 +36,7 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class HeartBeatManagementServiceImpl implements HeartBeatManagementService {
 
@@ -43,8 +44,9 @@ public class HeartBeatManagementServiceImpl implements HeartBeatManagementServic
 
     private final HeartBeatDAO heartBeatDAO;
 
-    private static int lastActiveCount = -1;
-    private static int lastHashIndex = -1;
+    // Refreshed by the heartbeat executor on each beat so that tasks do not query the heartbeat records
+    private static final AtomicReference<ClusterView> clusterView = new AtomicReference<>();
+    private static volatile long lastNotifiedVersion = 0;
     private static volatile boolean isQualified = false;
 
     public HeartBeatManagementServiceImpl() {
@@ -54,41 +56,53 @@ public class HeartBeatManagementServiceImpl implements HeartBeatManagementServic
 
     @Override
     public ServerCtxInfo getServerCtxInfo() throws HeartBeatManagementException {
-        int hashIndex;
-        ServerContext localServerCtx;
-        ServerCtxInfo serverCtxInfo = null;
         if (HeartBeatBeaconConfig.getInstance().isEnabled()) {
-            try {
-                HeartBeatBeaconDAOFactory.openConnection();
-                int timeOutIntervalInSeconds = HeartBeatBeaconConfig.getInstance().getServerTimeOutIntervalInSeconds();
-                int timeSkew = HeartBeatBeaconConfig.getInstance().getTimeSkew();
-                int cumulativeTimeOut = timeOutIntervalInSeconds + timeSkew;
-                String localServerUUID = HeartBeatBeaconDataHolder.getInstance().getLocalServerUUID();
-                Map<String, ServerContext> serverCtxMap = heartBeatDAO.getActiveServerDetails(cumulativeTimeOut);
-                if (!serverCtxMap.isEmpty()) {
-                    localServerCtx = serverCtxMap.get(localServerUUID);
-                    if (localServerCtx != null) {
-                        hashIndex = localServerCtx.getIndex();
-                        serverCtxInfo = new ServerCtxInfo(serverCtxMap.size(), hashIndex);
-                    }
-                }
-            } catch (SQLException e) {
-                String msg = "Error occurred while opening a connection to the underlying data source";
-                log.error(msg, e);
-                throw new HeartBeatManagementException(msg, e);
-            } catch (HeartBeatDAOException e) {
-                String msg = "Error occurred while retrieving active server count.";
-                log.error(msg, e);
-                throw new HeartBeatManagementException(msg, e);
-            } finally {
-                HeartBeatBeaconDAOFactory.closeConnection();
+            int timeOutIntervalInSeconds = HeartBeatBeaconConfig.getInstance().getServerTimeOutIntervalInSeconds();
+            int timeSkew = HeartBeatBeaconConfig.getInstance().getTimeSkew();
+            int cumulativeTimeOut = timeOutIntervalInSeconds + timeSkew;
+            ClusterView view = clusterView.get();
+            if (view == null || view.isStale(cumulativeTimeOut)) {
+                // Heartbeat executor has not refreshed the view yet, or has stopped doing so
+                view = refreshClusterView(cumulativeTimeOut);
             }
+            return view != null ? view.toServerCtxInfo() : null;
         } else {
             String msg = "Heart Beat Configuration Disabled. Server Context Information Not available.";
             log.error(msg);
             throw new HeartBeatManagementException(msg);
         }
-        return serverCtxInfo;
+    }
+
+    private ClusterView refreshClusterView(int cumulativeTimeOut) throws HeartBeatManagementException {
+        try {
+            HeartBeatBeaconDAOFactory.openConnection();
+            Map<String, ServerContext> serverCtxMap = heartBeatDAO.getActiveServerDetails(cumulativeTimeOut);
+            if (serverCtxMap.isEmpty()) {
+                return null;
+            }
+            return updateClusterView(serverCtxMap);
+        } catch (SQLException e) {
+            String msg = "Error occurred while opening a connection to the underlying data source";
+            log.error(msg, e);
+            throw new HeartBeatManagementException(msg, e);
+        } catch (HeartBeatDAOException e) {
+            String msg = "Error occurred while retrieving active server count.";
+            log.error(msg, e);
+            throw new HeartBeatManagementException(msg, e);
+        } finally {
+            HeartBeatBeaconDAOFactory.closeConnection();
+        }
+    }
+
+    private ClusterView updateClusterView(Map<String, ServerContext> servers) {
+        String localServerUUID = HeartBeatBeaconDataHolder.getInstance().getLocalServerUUID();
+        ClusterView current;
+        ClusterView next;
+        do {
+            current = clusterView.get();
+            next = ClusterView.next(current, servers, localServerUUID);
+        } while (!clusterView.compareAndSet(current, next));
+        return next;
     }
 
     @Override
@@ -247,30 +261,29 @@ public class HeartBeatManagementServiceImpl implements HeartBeatManagementServic
                 Map<String, ServerContext> servers = heartBeatDAO.getActiveServerDetails(elapsedTimeInSeconds);
                 HeartBeatBeaconDAOFactory.commitTransaction();
                 if (servers != null && !servers.isEmpty()) {
-                    String serverUUID = HeartBeatBeaconDataHolder.getInstance().getLocalServerUUID();
-                    ServerContext serverContext = servers.get(serverUUID);
-
-                    if (log.isDebugEnabled()) {
-                        log.debug("HashIndex (previous, current) : " + lastHashIndex + ", " + serverContext.getIndex());
-                        log.debug("ActiveServerCount (previous, current) : " + lastActiveCount + ", " + servers.size());
-                    }
-                    // cluster change can be identified, either by changing hash index or changing active server count
-                    if ((lastHashIndex != serverContext.getIndex()) || (lastActiveCount != servers.size())) {
-                        lastHashIndex = serverContext.getIndex();
-                        lastActiveCount = servers.size();
+                    ClusterView view = updateClusterView(servers);
+                    // cluster change is identified by a new view version, which may have been created by a task
+                    // refreshing a stale view in between two beats
+                    if (view.getVersion() != lastNotifiedVersion && view.toServerCtxInfo() != null) {
+                        if (log.isDebugEnabled()) {
+                            log.debug("Cluster view version (previous, current) : " + lastNotifiedVersion + ", " +
+                                    view.getVersion());
+                        }
+                        lastNotifiedVersion = view.getVersion();
 
                         ClusterFormationChangedNotifierRepository repository = HeartBeatBeaconDataHolder.getInstance()
                                 .getClusterFormationChangedNotifierRepository();
                         Map<String, ClusterFormationChangedNotifier> notifiers = repository.getNotifiers();
                         for (String type : notifiers.keySet()) {
                             ClusterFormationChangedNotifier notifier = notifiers.get(type);
+                            ServerCtxInfo serverCtxInfo = view.toServerCtxInfo();
                             Runnable r = new Runnable() {
                                 @Override
                                 public void run() {
                                     if (log.isDebugEnabled()) {
                                         log.debug("notify cluster formation changed : " + notifier.getType());
                                     }
-                                    notifier.notifyClusterFormationChanged(lastHashIndex, lastActiveCount);
+                                    notifier.notifyClusterFormationChanged(serverCtxInfo);
                                 }
                             };
                             new Thread(r).start();
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.server.bootup.heartbeat.beacon.service;
+
+import io.entgra.device.mgt.core.device.mgt.common.ServerCtxInfo;
+import io.entgra.device.mgt.core.server.bootup.heartbeat.beacon.dto.ServerContext;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class ClusterViewTest {
+
+    private static final String LOCAL_SERVER = "server-a";
+
+    @Test(description = "Check whether an unchanged cluster formation keeps the version of the view")
+    public void testUnchangedFormationKeepsVersion() {
+        ClusterView first = ClusterView.next(null, createServers("server-a", "server-b"), LOCAL_SERVER);
+        ClusterView second = ClusterView.next(first, createServers("server-a", "server-b"), LOCAL_SERVER);
+        Assert.assertEquals(first.getVersion(), 1);
+        Assert.assertEquals(second.getVersion(), first.getVersion());
+        Assert.assertFalse(second.isStale(60));
+    }
+
+    @Test(description = "Check whether a joining server creates a new version of the view")
+    public void testChangedFormationIncrementsVersion() {
+        ClusterView first = ClusterView.next(null, createServers("server-a", "server-b"), LOCAL_SERVER);
+        ClusterView second = ClusterView.next(first, createServers("server-a", "server-b", "server-c"),
+                LOCAL_SERVER);
+        Assert.assertEquals(second.getVersion(), first.getVersion() + 1);
+        ServerCtxInfo serverCtxInfo = second.toServerCtxInfo();
+        Assert.assertNotNull(serverCtxInfo);
+        Assert.assertEquals(serverCtxInfo.getActiveServerCount(), 3);
+        Assert.assertNotNull(serverCtxInfo.getTaskPartition());
+        Assert.assertNotSame(second.toServerCtxInfo(), serverCtxInfo, "Callers must not share the context info");
+    }
+
+    @Test(description = "Check whether no context info is available when the local server is not active")
+    public void testLocalServerInactive() {
+        ClusterView view = ClusterView.next(null, createServers("server-b", "server-c"), LOCAL_SERVER);
+        Assert.assertNull(view.toServerCtxInfo());
+    }
+
+    private Map<String, ServerContext> createServers(String... uuids) {
+        Map<String, ServerContext> servers = new HashMap<>();
+        for (int i = 0; i < uuids.length; i++) {
+            ServerContext serverContext = new ServerContext();
+            serverContext.setUuid(uuids[i]);
+            serverContext.setIndex(i);
+            servers.put(uuids[i], serverContext);
+        }
+        return servers;
+    }
+}
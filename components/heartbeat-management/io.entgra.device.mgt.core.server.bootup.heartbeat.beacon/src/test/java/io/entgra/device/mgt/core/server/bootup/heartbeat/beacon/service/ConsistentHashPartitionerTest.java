@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.server.bootup.heartbeat.beacon.service;
+
+import io.entgra.device.mgt.core.device.mgt.common.TaskPartition;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/*
+    Simulates cluster membership changes over a device population and compares the number of devices
+    changing owner under the consistent hash partitioner and the MOD(ID, activeServerCount) assignment
+ */
+public class ConsistentHashPartitionerTest {
+
+    private static final Log log = LogFactory.getLog(ConsistentHashPartitionerTest.class);
+    private static final int NO_OF_DEVICES = 100000;
+    private static final int MAX_SERVERS = 8;
+
+    @Test(description = "Check whether each bucket is owned by exactly one server")
+    public void testPartitionsCoverAllBuckets() {
+        List<String> servers = createServers(5);
+        List<TaskPartition> partitions = new ArrayList<>();
+        for (String server : servers) {
+            partitions.add(ConsistentHashPartitioner.getPartition(servers, server));
+        }
+        for (int bucket = 0; bucket < TaskPartition.BUCKET_COUNT; bucket++) {
+            int owners = 0;
+            for (TaskPartition partition : partitions) {
+                if (partition.contains(bucket)) {
+                    owners++;
+                }
+            }
+            Assert.assertEquals(owners, 1, "Bucket " + bucket + " is owned by " + owners + " servers");
+        }
+    }
+
+    @Test(description = "Check whether the partitions do not depend on the order the servers are listed in")
+    public void testPartitionIndependentOfServerOrder() {
+        List<String> servers = createServers(4);
+        List<String> reversed = new ArrayList<>(servers);
+        Collections.reverse(reversed);
+        for (String server : servers) {
+            Assert.assertEquals(ConsistentHashPartitioner.getPartition(reversed, server).toString(),
+                    ConsistentHashPartitioner.getPartition(servers, server).toString());
+        }
+    }
+
+    @Test(description = "Check whether the buckets are spread evenly across the servers")
+    public void testBucketsBalanced() {
+        List<String> servers = createServers(4);
+        int fairShare = TaskPartition.BUCKET_COUNT / servers.size();
+        for (String server : servers) {
+            TaskPartition partition = ConsistentHashPartitioner.getPartition(servers, server);
+            int owned = 0;
+            for (int i = 0; i < partition.getRangeCount(); i++) {
+                owned += partition.getRangeEnd(i) - partition.getRangeStart(i) + 1;
+            }
+            Assert.assertTrue(owned > fairShare / 2 && owned < fairShare * 2,
+                    "Server owns " + owned + " buckets where the fair share is " + fairShare);
+        }
+    }
+
+    @Test(description = "Check whether only about 1/N of the devices move when a server joins or leaves")
+    public void testMembershipChangeMovesFewDevices() {
+        List<String> servers = createServers(MAX_SERVERS);
+        for (int serverCount = 1; serverCount < MAX_SERVERS; serverCount++) {
+            List<String> before = servers.subList(0, serverCount);
+            List<String> after = servers.subList(0, serverCount + 1);
+            String joined = servers.get(serverCount);
+            String[] ownersBefore = ConsistentHashPartitioner.getBucketOwners(before);
+            String[] ownersAfter = ConsistentHashPartitioner.getBucketOwners(after);
+
+            int moved = 0;
+            int movedByModulo = 0;
+            for (int id = 1; id <= NO_OF_DEVICES; id++) {
+                int bucket = TaskPartition.getBucket(id);
+                if (!ownersBefore[bucket].equals(ownersAfter[bucket])) {
+                    Assert.assertEquals(ownersAfter[bucket], joined,
+                            "Device " + id + " moved between servers which were members before and after the join");
+                    moved++;
+                }
+                if (id % serverCount != id % (serverCount + 1)) {
+                    movedByModulo++;
+                }
+            }
+            log.info("Growing the cluster from " + serverCount + " to " + (serverCount + 1) + " servers moved " +
+                    moved + " of " + NO_OF_DEVICES + " devices, whereas MOD partitioning moved " + movedByModulo);
+            Assert.assertTrue(moved < 2 * NO_OF_DEVICES / (serverCount + 1),
+                    moved + " devices moved when growing the cluster to " + (serverCount + 1) + " servers");
+            Assert.assertTrue(moved < movedByModulo);
+
+            // When the first server leaves instead, only its own buckets may change owner
+            List<String> remaining = servers.subList(1, serverCount + 1);
+            String[] ownersRemaining = ConsistentHashPartitioner.getBucketOwners(remaining);
+            for (int bucket = 0; bucket < TaskPartition.BUCKET_COUNT; bucket++) {
+                if (!ownersAfter[bucket].equals(servers.get(0))) {
+                    Assert.assertEquals(ownersRemaining[bucket], ownersAfter[bucket],
+                            "Bucket " + bucket + " moved although its owner did not leave the cluster");
+                }
+            }
+        }
+    }
+
+    private List<String> createServers(int count) {
+        List<String> servers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            servers.add(UUID.nameUUIDFromBytes(("server-" + i).getBytes()).toString());
+        }
+        return servers;
+    }
+}
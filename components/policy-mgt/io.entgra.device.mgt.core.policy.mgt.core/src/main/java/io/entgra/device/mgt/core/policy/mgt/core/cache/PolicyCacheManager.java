@@ -21,6 +21,7 @@ package io.entgra.device.mgt.core.policy.mgt.core.cache;
 
 import io.entgra.device.mgt.core.device.mgt.common.policy.mgt.Policy;
 import io.entgra.device.mgt.core.policy.mgt.common.PolicyManagementException;
+import io.entgra.device.mgt.core.policy.mgt.core.cache.impl.PolicySnapshot;
 
 import java.util.List;
 
@@ -49,6 +50,13 @@ public interface PolicyCacheManager {
      */
     List<Policy> getAllPolicies() throws PolicyManagementException;
 
+    /**
+     * This method will return the immutable snapshot of the cached policies, which is shared until the policies change.
+     * @return - snapshot of the policies
+     * @throws PolicyManagementException
+     */
+    PolicySnapshot getPolicySnapshot() throws PolicyManagementException;
+
     /**
      * This method will repopulate the cache, this will be called when there is a change of the policies.
      * @throws PolicyManagementException
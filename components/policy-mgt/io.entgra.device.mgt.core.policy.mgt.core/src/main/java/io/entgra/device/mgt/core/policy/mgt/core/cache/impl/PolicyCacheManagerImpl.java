@@ -28,17 +28,30 @@ import io.entgra.device.mgt.core.policy.mgt.core.util.PolicyManagementConstants;
 import io.entgra.device.mgt.core.policy.mgt.core.util.PolicyManagerUtil;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
 
 import javax.cache.Cache;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Policy cache which keeps the policies of each tenant as a copy on write list in the cluster aware policy list
+ * cache. A cached list is never modified, so each change publishes a new {@link StampedPolicyList} in a single cache
+ * put, and the {@link PolicySnapshot} built from a list is reused until a list with a different stamp is published,
+ * even if the cache returns a copy of the list on each lookup.
+ */
 public class PolicyCacheManagerImpl implements PolicyCacheManager {
 
     private static final Log log = LogFactory.getLog(PolicyCacheManagerImpl.class);
+    private static final int POLICY_LIST_KEY = 1;
 
     private static PolicyCacheManagerImpl policyCacheManager;
+    private static final ConcurrentMap<Integer, PolicySnapshot> policySnapshots = new ConcurrentHashMap<>();
+    private static final LongAdder snapshotHitCount = new LongAdder();
+    private static final LongAdder snapshotRebuildCount = new LongAdder();
 
     private static Cache<Integer, List<Policy>> getPolicyListCache() {
         return PolicyManagerUtil.getPolicyListCache(PolicyManagementConstants.DM_CACHE_LIST);
@@ -58,30 +71,65 @@ public class PolicyCacheManagerImpl implements PolicyCacheManager {
         return policyCacheManager;
     }
 
+    /**
+     * @return number of policy snapshot lookups served by an existing snapshot
+     */
+    public static long getSnapshotHitCount() {
+        return snapshotHitCount.sum();
+    }
+
+    /**
+     * @return number of policy snapshots built after the cached policies were loaded or changed
+     */
+    public static long getSnapshotRebuildCount() {
+        return snapshotRebuildCount.sum();
+    }
+
     @Override
-    public void addAllPolicies(List<Policy> policies) {
+    public synchronized void addAllPolicies(List<Policy> policies) {
 
         Cache<Integer, List<Policy>> lCache = getPolicyListCache();
-        lCache.put(1, policies);
+        lCache.put(POLICY_LIST_KEY, new StampedPolicyList(policies));
     }
 
     @Override
-    public void updateAllPolicies(List<Policy> policies) {
+    public synchronized void updateAllPolicies(List<Policy> policies) {
 
         Cache<Integer, List<Policy>> lCache = getPolicyListCache();
         lCache.removeAll();
-        lCache.put(1, policies);
+        lCache.put(POLICY_LIST_KEY, new StampedPolicyList(policies));
     }
 
     @Override
     public List<Policy> getAllPolicies() throws PolicyManagementException {
+        PolicySnapshot policySnapshot = getPolicySnapshot();
+        if (log.isDebugEnabled()) {
+            showDebugLog(policySnapshot.getPolicies());
+        }
+        return new ArrayList<>(policySnapshot.getPolicies());
+    }
+
+    @Override
+    public PolicySnapshot getPolicySnapshot() throws PolicyManagementException {
         Cache<Integer, List<Policy>> lCache = getPolicyListCache();
-        updateCache(lCache);
+        List<Policy> cachedPolicies = lCache.get(POLICY_LIST_KEY);
+        if (cachedPolicies == null) {
+            cachedPolicies = loadPolicies(lCache);
+        }
+        int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+        PolicySnapshot policySnapshot = policySnapshots.get(tenantId);
+        if (policySnapshot != null && policySnapshot.isSnapshotOf(cachedPolicies)) {
+            snapshotHitCount.increment();
+            return policySnapshot;
+        }
+        policySnapshot = new PolicySnapshot(cachedPolicies);
+        policySnapshots.put(tenantId, policySnapshot);
+        snapshotRebuildCount.increment();
         if (log.isDebugEnabled()) {
-            showDebugLog(lCache);
+            log.debug("Built the policy snapshot of tenant " + tenantId + " with " +
+                    cachedPolicies.size() + " policies");
         }
-        lCache = getPolicyListCache();
-        return lCache.get(1);
+        return policySnapshot;
     }
 
     @Override
@@ -92,54 +140,53 @@ public class PolicyCacheManagerImpl implements PolicyCacheManager {
     }
 
     @Override
-    public void removeAllPolicies() {
+    public synchronized void removeAllPolicies() {
 
         Cache<Integer, List<Policy>> lCache = getPolicyListCache();
         lCache.removeAll();
+        policySnapshots.remove(PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId());
     }
 
     @Override
-    public void addPolicy(Policy policy) {
+    public synchronized void addPolicy(Policy policy) {
 
         Cache<Integer, List<Policy>> lCache = getPolicyListCache();
-        if (lCache.containsKey(1)) {
-            List<Policy> cachedPolicy = lCache.get(1);
-
-            for (Policy pol : cachedPolicy) {
+        List<Policy> cachedPolicies = lCache.get(POLICY_LIST_KEY);
+        if (cachedPolicies != null) {
+            for (Policy pol : cachedPolicies) {
                 if (pol.getId() == policy.getId()) {
                     return;
                 }
             }
-            cachedPolicy.add(policy);
+            List<Policy> policies = new ArrayList<>(cachedPolicies.size() + 1);
+            policies.addAll(cachedPolicies);
+            policies.add(policy);
+            lCache.put(POLICY_LIST_KEY, new StampedPolicyList(policies));
         }
-
     }
 
     @Override
-    public void updatePolicy(Policy policy) {
+    public synchronized void updatePolicy(Policy policy) {
 
         Cache<Integer, List<Policy>> lCache = getPolicyListCache();
-        if (lCache.containsKey(1)) {
-            List<Policy> cachedPolicy = lCache.get(1);
-            Iterator iterator = cachedPolicy.iterator();
-            while (iterator.hasNext()) {
-                Policy pol = (Policy) iterator.next();
-                if (pol.getId() == policy.getId()) {
-                    iterator.remove();
-                    break;
+        List<Policy> cachedPolicies = lCache.get(POLICY_LIST_KEY);
+        if (cachedPolicies != null) {
+            List<Policy> policies = new ArrayList<>(cachedPolicies.size() + 1);
+            for (Policy pol : cachedPolicies) {
+                if (pol.getId() != policy.getId()) {
+                    policies.add(pol);
                 }
             }
-            cachedPolicy.add(policy);
-            lCache.replace(1, cachedPolicy);
+            policies.add(policy);
+            lCache.put(POLICY_LIST_KEY, new StampedPolicyList(policies));
         }
-
     }
 
     @Override
     public void updatePolicy(int policyId) throws PolicyManagementException {
 
         Cache<Integer, List<Policy>> lCache = getPolicyListCache();
-        if (lCache.containsKey(1)) {
+        if (lCache.containsKey(POLICY_LIST_KEY)) {
             PolicyManager policyManager = new PolicyManagerImpl();
             Policy policy = policyManager.getPolicy(policyId);
             this.updatePolicy(policy);
@@ -148,42 +195,24 @@ public class PolicyCacheManagerImpl implements PolicyCacheManager {
     }
 
     @Override
-    public void removePolicy(int policyId) {
+    public synchronized void removePolicy(int policyId) {
 
         Cache<Integer, List<Policy>> lCache = getPolicyListCache();
-        if (lCache.containsKey(1)) {
-            List<Policy> cachedPolicy = lCache.get(1);
-            Iterator iterator = cachedPolicy.iterator();
-            while (iterator.hasNext()) {
-                Policy pol = (Policy) iterator.next();
-                if (pol.getId() == policyId) {
-                    iterator.remove();
-                    break;
+        List<Policy> cachedPolicies = lCache.get(POLICY_LIST_KEY);
+        if (cachedPolicies != null) {
+            List<Policy> policies = new ArrayList<>(cachedPolicies.size());
+            for (Policy pol : cachedPolicies) {
+                if (pol.getId() != policyId) {
+                    policies.add(pol);
                 }
             }
-            lCache.replace(1, cachedPolicy);
+            lCache.put(POLICY_LIST_KEY, new StampedPolicyList(policies));
         }
     }
 
     @Override
     public Policy getPolicy(int policyId) throws PolicyManagementException {
-
-        Cache<Integer, List<Policy>> lCache = getPolicyListCache();
-        if (!lCache.containsKey(1)) {
-            this.removeAllPolicies();
-            this.getAllPolicies();
-        }
-
-        Policy policy = null;
-        List<Policy> cachedPolicy = lCache.get(1);
-        Iterator iterator = cachedPolicy.iterator();
-        while (iterator.hasNext()) {
-            Policy pol = (Policy) iterator.next();
-            if (pol.getId() == policyId) {
-                policy = pol;
-            }
-        }
-        return policy;
+        return getPolicySnapshot().getPolicy(policyId);
     }
 
     @Override
@@ -203,17 +232,12 @@ public class PolicyCacheManagerImpl implements PolicyCacheManager {
 
     @Override
     public List<Policy> getAllPolicies(String policyType) throws PolicyManagementException {
-        Cache<Integer, List<Policy>> lCache = getPolicyListCache();
-        updateCache(lCache);
+        PolicySnapshot policySnapshot = getPolicySnapshot();
         if (log.isDebugEnabled()) {
-            showDebugLog(lCache);
+            showDebugLog(policySnapshot.getPolicies());
         }
-        lCache = getPolicyListCache();
         List<Policy> policyListByType = new ArrayList<>();
-        List<Policy> cachedPolicyList = lCache.get(1);
-        Iterator<Policy> iterator = cachedPolicyList.iterator();
-        while (iterator.hasNext()) {
-            Policy policy = iterator.next();
+        for (Policy policy : policySnapshot.getPolicies()) {
             if (policy.getPolicyType().equals(policyType)) {
                 policyListByType.add(policy);
             }
@@ -221,15 +245,21 @@ public class PolicyCacheManagerImpl implements PolicyCacheManager {
         return policyListByType;
     }
 
-    private void updateCache(Cache<Integer, List<Policy>> lCache) throws PolicyManagementException {
-        if (!lCache.containsKey(1)) {
+    /**
+     * Loads the policies of the tenant in to the cache, unless another thread has already done so.
+     */
+    private synchronized List<Policy> loadPolicies(Cache<Integer, List<Policy>> lCache)
+            throws PolicyManagementException {
+        List<Policy> cachedPolicies = lCache.get(POLICY_LIST_KEY);
+        if (cachedPolicies == null) {
             PolicyManager policyManager = new PolicyManagerImpl();
-            this.addAllPolicies(policyManager.getPolicies());
+            cachedPolicies = new StampedPolicyList(policyManager.getPolicies());
+            lCache.put(POLICY_LIST_KEY, cachedPolicies);
         }
+        return cachedPolicies;
     }
 
-    private void showDebugLog(Cache<Integer, List<Policy>> lCache) {
-        List<Policy> cachedPolicy = lCache.get(1);
+    private void showDebugLog(List<Policy> cachedPolicy) {
         for (Policy policy : cachedPolicy) {
             log.debug("Policy id in cache .. : " + policy.getId() + " policy name : " + policy.
                     getPolicyName() + " Activated : " + policy.isActive());
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.policy.mgt.core.cache.impl;
+
+import io.entgra.device.mgt.core.device.mgt.common.policy.mgt.Policy;
+import io.entgra.device.mgt.core.policy.mgt.core.impl.PolicyApplicabilityIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Immutable view of the cached policies of a tenant. A snapshot is never changed once it is published, as every
+ * change to the cached policies publishes a new policy list with a new stamp, from which a new snapshot is built.
+ * The policies are looked up by id and grouped by device type, and the applicability index of a device type is
+ * compiled the first time it is needed.
+ */
+public final class PolicySnapshot {
+
+    private final List<Policy> source;
+    private final Long stamp;
+    private final List<Policy> policies;
+    private final Map<Integer, Policy> policiesById;
+    private final Map<String, List<Policy>> policiesByDeviceType;
+    private final ConcurrentMap<String, PolicyApplicabilityIndex> applicabilityIndexes = new ConcurrentHashMap<>();
+
+    PolicySnapshot(List<Policy> source) {
+        this.source = source;
+        this.stamp = source instanceof StampedPolicyList ? ((StampedPolicyList) source).getStamp() : null;
+        this.policies = Collections.unmodifiableList(new ArrayList<>(source));
+        Map<Integer, Policy> policiesById = new HashMap<>();
+        Map<String, List<Policy>> policiesByDeviceType = new HashMap<>();
+        for (Policy policy : policies) {
+            policiesById.put(policy.getId(), policy);
+            if (policy.getProfile() != null && policy.getProfile().getDeviceType() != null) {
+                policiesByDeviceType.computeIfAbsent(normalize(policy.getProfile().getDeviceType()),
+                        k -> new ArrayList<>()).add(policy);
+            }
+        }
+        for (Map.Entry<String, List<Policy>> entry : policiesByDeviceType.entrySet()) {
+            Collections.sort(entry.getValue());
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        this.policiesById = policiesById;
+        this.policiesByDeviceType = policiesByDeviceType;
+    }
+
+    /**
+     * @param policies policy list of the cache
+     * @return true if this snapshot was built from the given policy list, or from a list with the same stamp
+     */
+    boolean isSnapshotOf(List<Policy> policies) {
+        if (stamp != null && policies instanceof StampedPolicyList) {
+            return stamp == ((StampedPolicyList) policies).getStamp();
+        }
+        return source == policies;
+    }
+
+    /**
+     * @return all the policies of the snapshot, which cannot be modified
+     */
+    public List<Policy> getPolicies() {
+        return policies;
+    }
+
+    /**
+     * @param policyId id of the policy
+     * @return the policy, or null if there is no policy with the given id
+     */
+    public Policy getPolicy(int policyId) {
+        return policiesById.get(policyId);
+    }
+
+    /**
+     * @param deviceType name of the device type
+     * @return policies of the device type sorted by priority, which cannot be modified
+     */
+    public List<Policy> getPoliciesOfDeviceType(String deviceType) {
+        List<Policy> deviceTypePolicies = policiesByDeviceType.get(normalize(deviceType));
+        return deviceTypePolicies != null ? deviceTypePolicies : Collections.<Policy>emptyList();
+    }
+
+    /**
+     * @param deviceType name of the device type
+     * @return applicability index of the policies of the device type
+     */
+    public PolicyApplicabilityIndex getApplicabilityIndex(String deviceType) {
+        return applicabilityIndexes.computeIfAbsent(normalize(deviceType),
+                k -> new PolicyApplicabilityIndex(deviceType, getPoliciesOfDeviceType(deviceType)));
+    }
+
+    private static String normalize(String deviceType) {
+        return deviceType.toLowerCase(Locale.ROOT);
+    }
+}
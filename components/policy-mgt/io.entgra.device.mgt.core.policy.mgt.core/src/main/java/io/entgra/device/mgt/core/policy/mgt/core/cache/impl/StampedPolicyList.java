@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.policy.mgt.core.cache.impl;
+
+import io.entgra.device.mgt.core.device.mgt.common.policy.mgt.Policy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Policy list published to the policy list cache, with a stamp drawn when it is published. The stamp is serialized
+ * with the list, so a copy handed out by a cluster aware cache still identifies the list it was made from.
+ */
+class StampedPolicyList extends ArrayList<Policy> {
+
+    private static final long serialVersionUID = -6280594154389267131L;
+
+    private final long stamp;
+
+    StampedPolicyList(Collection<Policy> policies) {
+        super(policies);
+        this.stamp = ThreadLocalRandom.current().nextLong();
+    }
+
+    long getStamp() {
+        return stamp;
+    }
+}
@@ -66,8 +66,7 @@ public class DelegationTask extends DynamicPartitionedScheduleTask {
                         toBeNotified = new ArrayList<>();
                         if(getTaskContext() != null && getTaskContext().isPartitioningEnabled()){
                             devices.addAll(service.getAllocatedDevices(deviceType,
-                                                                       getTaskContext().getActiveServerCount(),
-                                                                       getTaskContext().getServerHashIndex()));
+                                                                       getTaskContext().getTaskPartition()));
                         } else {
                             devices.addAll(service.getAllDevices(deviceType, false));
                         }
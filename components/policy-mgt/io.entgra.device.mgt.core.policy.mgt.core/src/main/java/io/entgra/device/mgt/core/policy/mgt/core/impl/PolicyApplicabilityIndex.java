@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.policy.mgt.core.impl;
+
+import io.entgra.device.mgt.core.device.mgt.common.group.mgt.DeviceGroup;
+import io.entgra.device.mgt.core.device.mgt.common.policy.mgt.DeviceGroupWrapper;
+import io.entgra.device.mgt.core.device.mgt.common.policy.mgt.Policy;
+import io.entgra.device.mgt.core.policy.mgt.common.PIPDevice;
+import io.entgra.device.mgt.core.policy.mgt.core.util.PolicyManagementConstants;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiled form of the policies of a device type, which finds the policies applicable to a device by intersecting
+ * bitsets instead of filtering the policy list once per criterion.
+ * <p>
+ * The active general policies of the device type are numbered in their priority order. For each of ownership type,
+ * role, user and device group, the index keeps a posting list of the policies which name each value, along with the
+ * set of policies which are not restricted by that criterion. A device matches the same policies as it would through
+ * the filters of {@link PolicyFilterImpl}, each policy at most once. The index is immutable once it is built.
+ */
+public class PolicyApplicabilityIndex {
+
+    private final Policy[] policies;
+    private final BitSet allPolicies = new BitSet();
+    private final BitSet unrestrictedOwnershipPolicies = new BitSet();
+    private final Map<String, BitSet> ownershipPolicies = new HashMap<>();
+    private final BitSet unrestrictedRolePolicies = new BitSet();
+    private final Map<String, BitSet> rolePolicies = new HashMap<>();
+    private final BitSet unrestrictedUserPolicies = new BitSet();
+    private final Map<String, BitSet> userPolicies = new HashMap<>();
+    private final BitSet unrestrictedGroupPolicies = new BitSet();
+    private final Map<Integer, BitSet> groupPolicies = new HashMap<>();
+
+    /**
+     * @param deviceType name of the device type
+     * @param policies   policies to index, of which only the active general policies of the device type are kept
+     */
+    public PolicyApplicabilityIndex(String deviceType, List<Policy> policies) {
+        List<Policy> indexedPolicies = new ArrayList<>();
+        for (Policy policy : policies) {
+            if (policy.isActive()
+                    && PolicyManagementConstants.GENERAL_POLICY_TYPE.equalsIgnoreCase(policy.getPolicyType())
+                    && deviceType.equalsIgnoreCase(policy.getProfile().getDeviceType())) {
+                indexedPolicies.add(policy);
+            }
+        }
+        Collections.sort(indexedPolicies);
+        this.policies = indexedPolicies.toArray(new Policy[0]);
+
+        for (int i = 0; i < this.policies.length; i++) {
+            Policy policy = this.policies[i];
+            allPolicies.set(i);
+
+            String ownershipType = policy.getOwnershipType();
+            if (ownershipType == null || PolicyManagementConstants.ANY.equalsIgnoreCase(ownershipType)) {
+                unrestrictedOwnershipPolicies.set(i);
+            } else {
+                getPostingList(ownershipPolicies, normalize(ownershipType)).set(i);
+            }
+
+            List<String> roles = policy.getRoles();
+            if (roles == null || roles.isEmpty() || PolicyManagementConstants.ANY.equalsIgnoreCase(roles.get(0))) {
+                unrestrictedRolePolicies.set(i);
+            } else {
+                for (String role : roles) {
+                    if (role != null) {
+                        getPostingList(rolePolicies, normalize(role)).set(i);
+                    }
+                }
+            }
+
+            List<String> users = policy.getUsers();
+            if (users == null || users.isEmpty() || users.contains(PolicyManagementConstants.ANY)) {
+                unrestrictedUserPolicies.set(i);
+            } else {
+                for (String user : users) {
+                    if (user != null) {
+                        getPostingList(userPolicies, normalize(user)).set(i);
+                    }
+                }
+            }
+
+            List<DeviceGroupWrapper> deviceGroups = policy.getDeviceGroups();
+            if (deviceGroups == null || deviceGroups.isEmpty()
+                    || PolicyManagementConstants.ANY.equalsIgnoreCase(deviceGroups.get(0).getName())) {
+                unrestrictedGroupPolicies.set(i);
+            } else {
+                for (DeviceGroupWrapper deviceGroup : deviceGroups) {
+                    getPostingList(groupPolicies, deviceGroup.getId()).set(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param pipDevice device to find the policies of
+     * @return applicable policies of the device, in the priority order
+     */
+    public List<Policy> getApplicablePolicies(PIPDevice pipDevice) {
+        BitSet applicablePolicies = (BitSet) allPolicies.clone();
+
+        String ownershipType = pipDevice.getOwnershipType();
+        if (ownershipType != null && !ownershipType.isEmpty()) {
+            BitSet matchingPolicies = (BitSet) unrestrictedOwnershipPolicies.clone();
+            or(matchingPolicies, ownershipPolicies.get(normalize(ownershipType)));
+            applicablePolicies.and(matchingPolicies);
+        }
+
+        String[] roles = pipDevice.getRoles();
+        if (roles != null && !applicablePolicies.isEmpty()) {
+            BitSet matchingPolicies = (BitSet) unrestrictedRolePolicies.clone();
+            for (String role : roles) {
+                or(matchingPolicies, rolePolicies.get(normalize(role)));
+            }
+            applicablePolicies.and(matchingPolicies);
+        }
+
+        String userId = pipDevice.getUserId();
+        if (userId != null && !userId.isEmpty() && !applicablePolicies.isEmpty()) {
+            BitSet matchingPolicies = (BitSet) unrestrictedUserPolicies.clone();
+            or(matchingPolicies, userPolicies.get(normalize(userId)));
+            applicablePolicies.and(matchingPolicies);
+        }
+
+        List<DeviceGroup> deviceGroups = pipDevice.getDeviceGroups();
+        if (deviceGroups != null && !deviceGroups.isEmpty() && !applicablePolicies.isEmpty()) {
+            BitSet matchingPolicies = (BitSet) unrestrictedGroupPolicies.clone();
+            for (DeviceGroup deviceGroup : deviceGroups) {
+                or(matchingPolicies, groupPolicies.get(deviceGroup.getGroupId()));
+            }
+            applicablePolicies.and(matchingPolicies);
+        }
+
+        List<Policy> result = new ArrayList<>(applicablePolicies.cardinality());
+        for (int i = applicablePolicies.nextSetBit(0); i >= 0; i = applicablePolicies.nextSetBit(i + 1)) {
+            result.add(policies[i]);
+        }
+        return result;
+    }
+
+    /**
+     * @return number of the policies in the index
+     */
+    public int size() {
+        return policies.length;
+    }
+
+    private static <K> BitSet getPostingList(Map<K, BitSet> postingLists, K key) {
+        return postingLists.computeIfAbsent(key, k -> new BitSet());
+    }
+
+    private static void or(BitSet target, BitSet postingList) {
+        if (postingList != null) {
+            target.or(postingList);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
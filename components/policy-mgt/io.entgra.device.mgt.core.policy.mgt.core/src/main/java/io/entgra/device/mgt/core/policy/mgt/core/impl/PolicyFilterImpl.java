@@ -147,11 +147,12 @@ public class PolicyFilterImpl implements PolicyFilter {
                 continue;
             }
 
+            roleLoop:
             for (String role : roles) {
                 for (String policyRole : tempRoles) {
                     if (role.equalsIgnoreCase(policyRole)) {
                         temp.add(policy);
-                        continue;
+                        break roleLoop;
                     }
                 }
             }
@@ -255,6 +256,7 @@ public class PolicyFilterImpl implements PolicyFilter {
             for (String user : users) {
                 if (username.equalsIgnoreCase(user)) {
                     temp.add(policy);
+                    break;
                 }
             }
         }
@@ -22,13 +22,15 @@ import io.entgra.device.mgt.core.device.mgt.common.Device;
 import io.entgra.device.mgt.core.device.mgt.common.DeviceIdentifier;
 import io.entgra.device.mgt.core.device.mgt.common.Feature;
 import io.entgra.device.mgt.core.device.mgt.common.exceptions.DeviceManagementException;
-import io.entgra.device.mgt.core.device.mgt.common.group.mgt.DeviceGroup;
 import io.entgra.device.mgt.core.device.mgt.common.group.mgt.GroupManagementException;
 import io.entgra.device.mgt.core.device.mgt.common.policy.mgt.Policy;
+import io.entgra.device.mgt.core.device.mgt.core.config.DeviceConfigurationManager;
+import io.entgra.device.mgt.core.device.mgt.core.config.policy.PolicyConfiguration;
 import io.entgra.device.mgt.core.device.mgt.core.dto.DeviceType;
 import io.entgra.device.mgt.core.device.mgt.core.service.DeviceManagementProviderService;
 import io.entgra.device.mgt.core.device.mgt.core.service.GroupManagementProviderService;
 import io.entgra.device.mgt.core.policy.mgt.common.*;
+import io.entgra.device.mgt.core.policy.mgt.core.cache.impl.PolicyCacheManagerImpl;
 import io.entgra.device.mgt.core.policy.mgt.core.internal.PolicyManagementDataHolder;
 import io.entgra.device.mgt.core.policy.mgt.core.mgt.FeatureManager;
 import io.entgra.device.mgt.core.policy.mgt.core.mgt.PolicyManager;
@@ -52,12 +54,15 @@ public class PolicyInformationPointImpl implements PolicyInformationPoint {
     private final PolicyManager policyManager;
     private final FeatureManager featureManager;
     private final DeviceManagementProviderService deviceManagementService;
+    private final PolicyConfiguration policyConfiguration;
 
     public PolicyInformationPointImpl() {
         deviceManagementService =
                 PolicyManagementDataHolder.getInstance().getDeviceManagementService();
         policyManager = new PolicyManagerImpl();
         featureManager = new FeatureManagerImpl();
+        policyConfiguration =
+                DeviceConfigurationManager.getInstance().getDeviceManagementConfig().getPolicyConfiguration();
     }
 
     @Override
@@ -99,41 +104,14 @@ public class PolicyInformationPointImpl implements PolicyInformationPoint {
     @Override
     public List<Policy> getRelatedPolicies(PIPDevice pipDevice) throws PolicyManagementException {
 
-        List<Policy> policies = policyManager.getPoliciesOfDeviceType(pipDevice.getDeviceType().getName());
-        PolicyFilter policyFilter = new PolicyFilterImpl();
+        PolicyApplicabilityIndex policyIndex = getPolicyApplicabilityIndex(pipDevice.getDeviceType().getName());
 
         if (log.isDebugEnabled()) {
             log.debug("No of policies for the device type : " + pipDevice.getDeviceType().getName() + " : " +
-                    policies.size());
-            for (Policy policy : policies) {
-                log.debug("Names of policy for above device type : " + policy.getPolicyName());
-            }
-        }
-
-        policies = policyFilter.filterActivePolicies(policies);
-        policies = policyFilter.filterGeneralPolicies(policies);
-
-        if (pipDevice.getDeviceType() != null) {
-            policies = policyFilter.filterDeviceTypeBasedPolicies(pipDevice.getDeviceType().getName(), policies);
-        }
-        if (pipDevice.getOwnershipType() != null && !pipDevice.getOwnershipType().isEmpty()) {
-            policies = policyFilter.filterOwnershipTypeBasedPolicies(pipDevice.getOwnershipType(), policies);
+                    policyIndex.size());
         }
-        if (pipDevice.getRoles() != null) {
-            policies = policyFilter.filterRolesBasedPolicies(pipDevice.getRoles(), policies);
-        }
-        if (pipDevice.getUserId() != null && !pipDevice.getUserId().isEmpty()) {
-            policies = policyFilter.filterUserBasedPolicies(pipDevice.getUserId(), policies);
-        }
-        if (pipDevice.getDeviceGroups() != null && !pipDevice.getDeviceGroups().isEmpty()) {
 
-            Map<Integer, DeviceGroup> groupMap = new HashMap<>();
-            List<DeviceGroup> groups = pipDevice.getDeviceGroups();
-            for(DeviceGroup gr: groups){
-                groupMap.put(gr.getGroupId(), gr);
-            }
-            policies = policyFilter.filterDeviceGroupsPolicies(groupMap, policies);
-        }
+        List<Policy> policies = policyIndex.getApplicablePolicies(pipDevice);
 
         if (log.isDebugEnabled()) {
             log.debug("No of policies selected for the device type : " + pipDevice.getDeviceType().getName() + " : " +
@@ -146,6 +124,17 @@ public class PolicyInformationPointImpl implements PolicyInformationPoint {
         return policies;
     }
 
+    /**
+     * Returns the compiled policies of the device type. When the policy cache is enabled, the compiled policies are
+     * taken from the snapshot of the cached policies, which is rebuilt only after the cached policies have changed.
+     */
+    private PolicyApplicabilityIndex getPolicyApplicabilityIndex(String deviceType) throws PolicyManagementException {
+        if (!policyConfiguration.getCacheEnable()) {
+            return new PolicyApplicabilityIndex(deviceType, policyManager.getPoliciesOfDeviceType(deviceType));
+        }
+        return PolicyCacheManagerImpl.getInstance().getPolicySnapshot().getApplicabilityIndex(deviceType);
+    }
+
     @Override
     public List<Feature> getRelatedFeatures(String deviceType) throws FeatureManagementException {
         return featureManager.getAllFeatures(deviceType);
@@ -966,13 +966,12 @@ public class PolicyManagerImpl implements PolicyManager {
 
     @Override
     public List<Policy> getPoliciesOfDeviceType(String deviceTypeName) throws PolicyManagementException {
-        List<Policy> policies = new ArrayList<>();
-        List<Policy> allPolicies;
         if (policyConfiguration.getCacheEnable()) {
-            allPolicies = PolicyCacheManagerImpl.getInstance().getAllPolicies();
-        } else {
-            allPolicies = this.getPolicies();
+            return new ArrayList<>(PolicyCacheManagerImpl.getInstance().getPolicySnapshot()
+                    .getPoliciesOfDeviceType(deviceTypeName));
         }
+        List<Policy> policies = new ArrayList<>();
+        List<Policy> allPolicies = this.getPolicies();
 
         for (Policy policy : allPolicies) {
             if (policy.getProfile().getDeviceType().equalsIgnoreCase(deviceTypeName)) {
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.policy.mgt.core.cache.impl;
+
+import io.entgra.device.mgt.core.device.mgt.common.policy.mgt.Policy;
+import io.entgra.device.mgt.core.device.mgt.common.policy.mgt.Profile;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PolicySnapshotTest {
+
+    private List<Policy> policies;
+    private PolicySnapshot policySnapshot;
+
+    @BeforeClass
+    public void init() {
+        policies = new ArrayList<>();
+        policies.add(createPolicy(1, 3, "android"));
+        policies.add(createPolicy(2, 1, "ios"));
+        policies.add(createPolicy(3, 2, "Android"));
+        policies.add(createPolicy(4, 1, "android"));
+        policySnapshot = new PolicySnapshot(policies);
+    }
+
+    @Test(description = "Look up policies by id")
+    public void testGetPolicy() {
+        Assert.assertEquals(policySnapshot.getPolicy(3).getId(), 3);
+        Assert.assertNull(policySnapshot.getPolicy(5));
+    }
+
+    @Test(description = "Group policies by device type in the priority order")
+    public void testGetPoliciesOfDeviceType() {
+        List<Policy> androidPolicies = policySnapshot.getPoliciesOfDeviceType("ANDROID");
+        Assert.assertEquals(androidPolicies.size(), 3);
+        Assert.assertEquals(androidPolicies.get(0).getId(), 4);
+        Assert.assertEquals(androidPolicies.get(1).getId(), 3);
+        Assert.assertEquals(androidPolicies.get(2).getId(), 1);
+        Assert.assertTrue(policySnapshot.getPoliciesOfDeviceType("windows").isEmpty());
+    }
+
+    @Test(description = "Reuse the applicability index of a device type")
+    public void testGetApplicabilityIndex() {
+        Assert.assertSame(policySnapshot.getApplicabilityIndex("android"),
+                policySnapshot.getApplicabilityIndex("Android"));
+        Assert.assertEquals(policySnapshot.getApplicabilityIndex("android").size(), 3);
+    }
+
+    @Test(description = "Keep the snapshot unchanged when its source list changes")
+    public void testSnapshotIsImmutable() {
+        List<Policy> source = new ArrayList<>(policies);
+        PolicySnapshot snapshot = new PolicySnapshot(source);
+        Assert.assertTrue(snapshot.isSnapshotOf(source));
+        Assert.assertFalse(snapshot.isSnapshotOf(new ArrayList<>(source)));
+        source.remove(0);
+        Assert.assertEquals(snapshot.getPolicies().size(), 4);
+        Assert.assertNotNull(snapshot.getPolicy(1));
+    }
+
+    @Test(description = "Match a copy of a stamped policy list, as handed out by a cluster aware cache")
+    public void testSnapshotOfStampedList() throws Exception {
+        StampedPolicyList source = new StampedPolicyList(policies);
+        PolicySnapshot snapshot = new PolicySnapshot(source);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(bytes)) {
+            outputStream.writeObject(source);
+        }
+        Object copy;
+        try (ObjectInputStream inputStream = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = inputStream.readObject();
+        }
+        Assert.assertTrue(snapshot.isSnapshotOf((StampedPolicyList) copy));
+        Assert.assertFalse(snapshot.isSnapshotOf(new StampedPolicyList(source)));
+    }
+
+    @Test(description = "Reject changes to the policies of a snapshot",
+            expectedExceptions = UnsupportedOperationException.class)
+    public void testPoliciesCannotBeModified() {
+        policySnapshot.getPoliciesOfDeviceType("android").add(createPolicy(6, 1, "android"));
+    }
+
+    private static Policy createPolicy(int id, int priorityId, String deviceType) {
+        Profile profile = new Profile();
+        profile.setDeviceType(deviceType);
+        Policy policy = new Policy();
+        policy.setId(id);
+        policy.setPriorityId(priorityId);
+        policy.setPolicyName("policy-" + id);
+        policy.setProfile(profile);
+        policy.setActive(true);
+        policy.setPolicyType("GENERAL");
+        policy.setRoles(new ArrayList<>());
+        policy.setUsers(new ArrayList<>());
+        policy.setDeviceGroups(new ArrayList<>());
+        return policy;
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.entgra.device.mgt.core.policy.mgt.core.impl;
+
+import io.entgra.device.mgt.core.device.mgt.common.group.mgt.DeviceGroup;
+import io.entgra.device.mgt.core.device.mgt.common.policy.mgt.DeviceGroupWrapper;
+import io.entgra.device.mgt.core.device.mgt.common.policy.mgt.Policy;
+import io.entgra.device.mgt.core.device.mgt.common.policy.mgt.Profile;
+import io.entgra.device.mgt.core.device.mgt.core.dto.DeviceType;
+import io.entgra.device.mgt.core.policy.mgt.common.PIPDevice;
+import io.entgra.device.mgt.core.policy.mgt.common.PolicyFilter;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/*
+    Unit tests for PolicyApplicabilityIndex, which compare it against the filters of PolicyFilterImpl
+ */
+public class PolicyApplicabilityIndexTest {
+
+    private static final Log log = LogFactory.getLog(PolicyApplicabilityIndexTest.class);
+    private static final String DEVICE_TYPE = "android";
+    private static final String[] OWNERSHIP_TYPES = {"BYOD", "COPE"};
+    private static final int NO_OF_POLICIES = 1000;
+    private static final int NO_OF_DEVICES = 2000;
+    private static final int NO_OF_ROLES = 20;
+    private static final int NO_OF_USERS = 50;
+    private static final int NO_OF_GROUPS = 10;
+
+    @Test(description = "Check whether a role listed more than once matches a policy once")
+    public void testRolesMatchOnce() {
+        Policy policy = createPolicy(1, 1);
+        policy.setRoles(Arrays.asList("role-a", "ROLE-A"));
+        PIPDevice pipDevice = createDevice("user", new String[]{"role-a", "Role-A"}, null, null);
+
+        List<Policy> filtered = new PolicyFilterImpl().filterRolesBasedPolicies(pipDevice.getRoles(),
+                Collections.singletonList(policy));
+        Assert.assertEquals(filtered.size(), 1);
+        List<Policy> applicable = new PolicyApplicabilityIndex(DEVICE_TYPE, Collections.singletonList(policy))
+                .getApplicablePolicies(pipDevice);
+        Assert.assertEquals(applicable.size(), 1);
+    }
+
+    @Test(description = "Check whether the index selects the same policies as the filters for each device")
+    public void testIndexMatchesFilters() {
+        Random random = new Random(42);
+        List<Policy> policies = new ArrayList<>();
+        for (int i = 1; i <= NO_OF_POLICIES; i++) {
+            policies.add(createRandomPolicy(random, i));
+        }
+        List<PIPDevice> pipDevices = new ArrayList<>();
+        for (int i = 0; i < NO_OF_DEVICES; i++) {
+            pipDevices.add(createRandomDevice(random));
+        }
+        List<Policy> sortedPolicies = new ArrayList<>(policies);
+        Collections.sort(sortedPolicies);
+
+        long start = System.nanoTime();
+        List<List<Policy>> expected = new ArrayList<>();
+        for (PIPDevice pipDevice : pipDevices) {
+            expected.add(filter(pipDevice, sortedPolicies));
+        }
+        long filterTime = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        PolicyApplicabilityIndex policyIndex = new PolicyApplicabilityIndex(DEVICE_TYPE, policies);
+        List<List<Policy>> actual = new ArrayList<>();
+        for (PIPDevice pipDevice : pipDevices) {
+            actual.add(policyIndex.getApplicablePolicies(pipDevice));
+        }
+        long indexTime = System.nanoTime() - start;
+
+        for (int i = 0; i < NO_OF_DEVICES; i++) {
+            Assert.assertEquals(getIds(actual.get(i)), getIds(expected.get(i)), "Policies of device " + i
+                    + " do not match");
+        }
+        log.info("Selected policies of " + NO_OF_DEVICES + " devices out of " + NO_OF_POLICIES + " policies in "
+                + filterTime / 1000000 + " ms with filters and " + indexTime / 1000000 + " ms with the index");
+    }
+
+    private static List<Policy> filter(PIPDevice pipDevice, List<Policy> policies) {
+        PolicyFilter policyFilter = new PolicyFilterImpl();
+        policies = policyFilter.filterActivePolicies(policies);
+        policies = policyFilter.filterGeneralPolicies(policies);
+        policies = policyFilter.filterDeviceTypeBasedPolicies(pipDevice.getDeviceType().getName(), policies);
+        policies = policyFilter.filterOwnershipTypeBasedPolicies(pipDevice.getOwnershipType(), policies);
+        policies = policyFilter.filterRolesBasedPolicies(pipDevice.getRoles(), policies);
+        policies = policyFilter.filterUserBasedPolicies(pipDevice.getUserId(), policies);
+        if (pipDevice.getDeviceGroups() != null && !pipDevice.getDeviceGroups().isEmpty()) {
+            Map<Integer, DeviceGroup> groupMap = new HashMap<>();
+            for (DeviceGroup deviceGroup : pipDevice.getDeviceGroups()) {
+                groupMap.put(deviceGroup.getGroupId(), deviceGroup);
+            }
+            policies = policyFilter.filterDeviceGroupsPolicies(groupMap, policies);
+        }
+        return policies;
+    }
+
+    private static List<Integer> getIds(List<Policy> policies) {
+        List<Integer> ids = new ArrayList<>();
+        for (Policy policy : policies) {
+            ids.add(policy.getId());
+        }
+        return ids;
+    }
+
+    private static Policy createRandomPolicy(Random random, int id) {
+        Policy policy = createPolicy(id, random.nextInt(NO_OF_POLICIES));
+        policy.setActive(random.nextInt(10) > 0);
+        if (random.nextInt(10) == 0) {
+            policy.setPolicyType("CORRECTIVE");
+        }
+        if (random.nextInt(5) == 0) {
+            policy.getProfile().setDeviceType("ios");
+        }
+        int ownership = random.nextInt(4);
+        policy.setOwnershipType(ownership < OWNERSHIP_TYPES.length ? OWNERSHIP_TYPES[ownership] :
+                (ownership == 2 ? "ANY" : null));
+        if (random.nextBoolean()) {
+            policy.setRoles(random.nextInt(5) == 0 ? Collections.singletonList("ANY") :
+                    randomNames(random, "role-", NO_OF_ROLES, 3));
+        }
+        if (random.nextBoolean()) {
+            policy.setUsers(random.nextInt(5) == 0 ? Collections.singletonList("ANY") :
+                    randomNames(random, "user-", NO_OF_USERS, 3));
+        }
+        if (random.nextBoolean()) {
+            List<DeviceGroupWrapper> deviceGroups = new ArrayList<>();
+            for (int i = random.nextInt(3); i >= 0; i--) {
+                DeviceGroupWrapper deviceGroup = new DeviceGroupWrapper();
+                deviceGroup.setId(random.nextInt(NO_OF_GROUPS));
+                deviceGroup.setName(random.nextInt(10) == 0 ? "ANY" : "group-" + deviceGroup.getId());
+                deviceGroups.add(deviceGroup);
+            }
+            policy.setDeviceGroups(deviceGroups);
+        }
+        return policy;
+    }
+
+    private static PIPDevice createRandomDevice(Random random) {
+        List<String> roles = randomNames(random, "ROLE-", NO_OF_ROLES, 4);
+        List<DeviceGroup> deviceGroups = new ArrayList<>();
+        for (int i = random.nextInt(3); i > 0; i--) {
+            DeviceGroup deviceGroup = new DeviceGroup("group");
+            deviceGroup.setGroupId(random.nextInt(NO_OF_GROUPS));
+            deviceGroups.add(deviceGroup);
+        }
+        return createDevice("User-" + random.nextInt(NO_OF_USERS), roles.toArray(new String[0]),
+                OWNERSHIP_TYPES[random.nextInt(OWNERSHIP_TYPES.length)], deviceGroups);
+    }
+
+    private static List<String> randomNames(Random random, String prefix, int bound, int maxCount) {
+        List<String> names = new ArrayList<>();
+        for (int i = random.nextInt(maxCount) + 1; i > 0; i--) {
+            names.add(prefix + random.nextInt(bound));
+        }
+        return names;
+    }
+
+    private static Policy createPolicy(int id, int priorityId) {
+        Profile profile = new Profile();
+        profile.setDeviceType(DEVICE_TYPE);
+        Policy policy = new Policy();
+        policy.setId(id);
+        policy.setPriorityId(priorityId);
+        policy.setPolicyName("policy-" + id);
+        policy.setProfile(profile);
+        policy.setActive(true);
+        policy.setPolicyType("GENERAL");
+        policy.setRoles(new ArrayList<>());
+        policy.setUsers(new ArrayList<>());
+        policy.setDeviceGroups(new ArrayList<>());
+        return policy;
+    }
+
+    private static PIPDevice createDevice(String userId, String[] roles, String ownershipType,
+                                          List<DeviceGroup> deviceGroups) {
+        DeviceType deviceType = new DeviceType();
+        deviceType.setName(DEVICE_TYPE);
+        PIPDevice pipDevice = new PIPDevice();
+        pipDevice.setDeviceType(deviceType);
+        pipDevice.setUserId(userId);
+        pipDevice.setRoles(roles);
+        pipDevice.setOwnershipType(ownershipType);
+        pipDevice.setDeviceGroups(deviceGroups);
+        return pipDevice;
+    }
+}
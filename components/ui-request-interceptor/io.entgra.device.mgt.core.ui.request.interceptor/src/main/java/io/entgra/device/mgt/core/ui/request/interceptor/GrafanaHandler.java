@@ -232,13 +232,15 @@ public class GrafanaHandler extends HttpServlet {
     }
     private void proxyPassGrafanaRequest(ClassicHttpRequest requestBase, HttpServletResponse response,
                                          HttpServletRequest request) throws IOException {
-        try (CloseableHttpClient client = HandlerUtil.getHttpClient()) {
+        CloseableHttpClient client = HandlerUtil.getHttpClient();
+        try {
             String grafanaUriStr = GrafanaHandlerUtil.generateGrafanaUrl(HttpUtil.createURI(getURIWithQuery(request)),
                     GrafanaUtil.getGrafanaHTTPBase(request.getScheme()));
             URI grafanaURI = HttpUtil.createURI(grafanaUriStr);
             requestBase.setUri(grafanaURI);
-            CloseableHttpResponse grafanaResponse = invokeGrafanaAPI(client, requestBase);
-            forwardGrafanaResponse(grafanaResponse, response);
+            try (CloseableHttpResponse grafanaResponse = invokeGrafanaAPI(client, requestBase)) {
+                forwardGrafanaResponse(grafanaResponse, response);
+            }
         } catch (GrafanaEnvVariablesNotDefined e) {
             handleError(response, HttpStatus.SC_INTERNAL_SERVER_ERROR, e.getMessage());
         } catch (GrafanaManagementException e) {
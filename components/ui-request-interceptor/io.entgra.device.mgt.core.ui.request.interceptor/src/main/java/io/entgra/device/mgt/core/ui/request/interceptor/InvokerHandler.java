@@ -65,7 +65,7 @@ public class InvokerHandler extends HttpServlet {
                 ClassicHttpRequest postRequest = ClassicRequestBuilder.post(HandlerUtil.generateBackendRequestURL(req, apiEndpoint)).build();
                 HandlerUtil.generateRequestEntity(req, postRequest);
                 postRequest.setHeader(HttpHeaders.AUTHORIZATION, HandlerConstants.BEARER + authData.getAccessToken());
-                ProxyResponse proxyResponse = HandlerUtil.execute(postRequest);
+                ProxyResponse proxyResponse = HandlerUtil.execute(postRequest, resp);
 
                 if (HandlerConstants.TOKEN_IS_EXPIRED.equals(proxyResponse.getExecutorResponse())) {
                     proxyResponse = HandlerUtil.retryRequestWithRefreshedToken(req, postRequest, kmManagerUrl);
@@ -96,7 +96,7 @@ public class InvokerHandler extends HttpServlet {
                         apiEndpoint)).build();
                 HandlerUtil.copyRequestHeaders(req, getRequest, false);
                 getRequest.setHeader(HttpHeaders.AUTHORIZATION, HandlerConstants.BEARER + authData.getAccessToken());
-                ProxyResponse proxyResponse = HandlerUtil.execute(getRequest);
+                ProxyResponse proxyResponse = HandlerUtil.execute(getRequest, resp);
                 if (HandlerConstants.TOKEN_IS_EXPIRED.equals(proxyResponse.getExecutorResponse())) {
                     proxyResponse = HandlerUtil.retryRequestWithRefreshedToken(req, getRequest, kmManagerUrl);
                     if (!HandlerUtil.isResponseSuccessful(proxyResponse)) {
@@ -132,7 +132,7 @@ public class InvokerHandler extends HttpServlet {
                         apiEndpoint)).build();
                 HandlerUtil.copyRequestHeaders(req, headRequest, false);
                 headRequest.setHeader(HttpHeaders.AUTHORIZATION, HandlerConstants.BEARER + authData.getAccessToken());
-                ProxyResponse proxyResponse = HandlerUtil.execute(headRequest);
+                ProxyResponse proxyResponse = HandlerUtil.execute(headRequest, resp);
                 if (HandlerConstants.TOKEN_IS_EXPIRED.equals(proxyResponse.getExecutorResponse())) {
                     proxyResponse = HandlerUtil.retryRequestWithRefreshedToken(req, headRequest, kmManagerUrl);
                     if (!HandlerUtil.isResponseSuccessful(proxyResponse)) {
@@ -160,7 +160,7 @@ public class InvokerHandler extends HttpServlet {
                         apiEndpoint)).build();
                 HandlerUtil.generateRequestEntity(req, putRequest);
                 putRequest.setHeader(HttpHeaders.AUTHORIZATION, HandlerConstants.BEARER + authData.getAccessToken());
-                ProxyResponse proxyResponse = HandlerUtil.execute(putRequest);
+                ProxyResponse proxyResponse = HandlerUtil.execute(putRequest, resp);
 
                 if (HandlerConstants.TOKEN_IS_EXPIRED.equals(proxyResponse.getExecutorResponse())) {
                     proxyResponse = HandlerUtil.retryRequestWithRefreshedToken(req, putRequest, kmManagerUrl);
@@ -206,7 +206,7 @@ public class InvokerHandler extends HttpServlet {
                 }
                 HandlerUtil.copyRequestHeaders(req, deleteRequest, false);
                 deleteRequest.setHeader(HttpHeaders.AUTHORIZATION, HandlerConstants.BEARER + authData.getAccessToken());
-                ProxyResponse proxyResponse = HandlerUtil.execute(deleteRequest);
+                ProxyResponse proxyResponse = HandlerUtil.execute(deleteRequest, resp);
                 if (HandlerConstants.TOKEN_IS_EXPIRED.equals(proxyResponse.getExecutorResponse())) {
                     proxyResponse = HandlerUtil.retryRequestWithRefreshedToken(req, deleteRequest, kmManagerUrl);
                     if (!HandlerUtil.isResponseSuccessful(proxyResponse)) {
@@ -55,7 +55,7 @@ public class OTPInvokerHandler extends HttpServlet {
                 ClassicHttpRequest postRequest = ClassicRequestBuilder.post(HandlerUtil.generateBackendRequestURL(req
                         , apiEndpoint)).build();
                 HandlerUtil.generateRequestEntity(req, postRequest);
-                ProxyResponse proxyResponse = HandlerUtil.execute(postRequest);
+                ProxyResponse proxyResponse = HandlerUtil.execute(postRequest, resp);
 
                 if (proxyResponse.getExecutorResponse().contains(HandlerConstants.EXECUTOR_EXCEPTION_PREFIX)) {
                     log.error("Error occurred while invoking the POST API endpoint.");
@@ -78,7 +78,7 @@ public class OTPInvokerHandler extends HttpServlet {
                 ClassicHttpRequest getRequest = ClassicRequestBuilder.get(HandlerUtil.generateBackendRequestURL(req
                         , apiEndpoint)).build();
                 HandlerUtil.copyRequestHeaders(req, getRequest, false);
-                ProxyResponse proxyResponse = HandlerUtil.execute(getRequest);
+                ProxyResponse proxyResponse = HandlerUtil.execute(getRequest, resp);
 
                 if (proxyResponse.getExecutorResponse().contains(HandlerConstants.EXECUTOR_EXCEPTION_PREFIX)) {
                     log.error("Error occurred while invoking the GET API endpoint.");
@@ -99,7 +99,7 @@ public class OTPInvokerHandler extends HttpServlet {
                 ClassicHttpRequest headRequest = ClassicRequestBuilder.head(HandlerUtil.generateBackendRequestURL(req
                         , apiEndpoint)).build();
                 HandlerUtil.copyRequestHeaders(req, headRequest, false);
-                ProxyResponse proxyResponse = HandlerUtil.execute(headRequest);
+                ProxyResponse proxyResponse = HandlerUtil.execute(headRequest, resp);
 
                 if (proxyResponse.getExecutorResponse().contains(HandlerConstants.EXECUTOR_EXCEPTION_PREFIX)) {
                     log.error("Error occurred while invoking the HEAD API endpoint.");
@@ -120,7 +120,7 @@ public class OTPInvokerHandler extends HttpServlet {
                 ClassicHttpRequest putRequest = ClassicRequestBuilder.put(HandlerUtil.generateBackendRequestURL(req
                         , apiEndpoint)).build();
                 HandlerUtil.generateRequestEntity(req, putRequest);
-                ProxyResponse proxyResponse = HandlerUtil.execute(putRequest);
+                ProxyResponse proxyResponse = HandlerUtil.execute(putRequest, resp);
 
                 if (proxyResponse.getExecutorResponse().contains(HandlerConstants.EXECUTOR_EXCEPTION_PREFIX)) {
                     log.error("Error occurred while invoking the PUT API endpoint.");
@@ -143,7 +143,7 @@ public class OTPInvokerHandler extends HttpServlet {
                 ClassicHttpRequest deleteRequest = ClassicRequestBuilder.delete(HandlerUtil.generateBackendRequestURL(req
                         , apiEndpoint)).build();
                 HandlerUtil.copyRequestHeaders(req, deleteRequest, false);
-                ProxyResponse proxyResponse = HandlerUtil.execute(deleteRequest);
+                ProxyResponse proxyResponse = HandlerUtil.execute(deleteRequest, resp);
 
                 if (proxyResponse.getExecutorResponse().contains(HandlerConstants.EXECUTOR_EXCEPTION_PREFIX)) {
                     log.error("Error occurred while invoking the DELETE API endpoint.");
@@ -65,7 +65,7 @@ public class TenantInvokerHandler extends HttpServlet {
         try {
             if (validateRequest(req, resp)) {
                 ClassicHttpRequest postRequest = createTenantAwareHttpRequest(req, HandlerConstants.HTTP_METHOD_POST);
-                ProxyResponse proxyResponse = HandlerUtil.execute(postRequest);
+                ProxyResponse proxyResponse = HandlerUtil.execute(postRequest, resp);
 
                 if (HandlerConstants.TOKEN_IS_EXPIRED.equals(proxyResponse.getExecutorResponse())) {
                     proxyResponse = HandlerUtil.retryRequestWithRefreshedToken(req, postRequest, kmManagerUrl,
@@ -96,7 +96,7 @@ public class TenantInvokerHandler extends HttpServlet {
         try {
             if (validateRequest(req, resp)) {
                 ClassicHttpRequest getRequest = createTenantAwareHttpRequest(req, HandlerConstants.HTTP_METHOD_GET);
-                        ProxyResponse proxyResponse = HandlerUtil.execute(getRequest);
+                        ProxyResponse proxyResponse = HandlerUtil.execute(getRequest, resp);
                 if (HandlerConstants.TOKEN_IS_EXPIRED.equals(proxyResponse.getExecutorResponse())) {
                     proxyResponse = HandlerUtil.retryRequestWithRefreshedToken(req, getRequest, kmManagerUrl,
                             HandlerUtil.isTenantAwareUsername(getUsernameFromTenantAuthData()));
@@ -132,7 +132,7 @@ public class TenantInvokerHandler extends HttpServlet {
         try {
             if (validateRequest(req, resp)) {
                 ClassicHttpRequest headRequest = createTenantAwareHttpRequest(req, HandlerConstants.HTTP_METHOD_HEAD);
-                        ProxyResponse proxyResponse = HandlerUtil.execute(headRequest);
+                        ProxyResponse proxyResponse = HandlerUtil.execute(headRequest, resp);
                 if (HandlerConstants.TOKEN_IS_EXPIRED.equals(proxyResponse.getExecutorResponse())) {
                     proxyResponse = HandlerUtil.retryRequestWithRefreshedToken(req, headRequest, kmManagerUrl,
                             HandlerUtil.isTenantAwareUsername(getUsernameFromTenantAuthData()));
@@ -160,7 +160,7 @@ public class TenantInvokerHandler extends HttpServlet {
         try {
             if (validateRequest(req, resp)) {
                 ClassicHttpRequest putRequest = createTenantAwareHttpRequest(req, HandlerConstants.HTTP_METHOD_PUT);
-                        ProxyResponse proxyResponse = HandlerUtil.execute(putRequest);
+                        ProxyResponse proxyResponse = HandlerUtil.execute(putRequest, resp);
 
                 if (HandlerConstants.TOKEN_IS_EXPIRED.equals(proxyResponse.getExecutorResponse())) {
                     proxyResponse = HandlerUtil.retryRequestWithRefreshedToken(req, putRequest, kmManagerUrl,
@@ -206,7 +206,7 @@ public class TenantInvokerHandler extends HttpServlet {
                     StringEntity entity = new StringEntity(jsonPayload, ContentType.APPLICATION_JSON);
                     deleteRequest.setEntity(entity);
                 }
-                ProxyResponse proxyResponse = HandlerUtil.execute(deleteRequest);
+                ProxyResponse proxyResponse = HandlerUtil.execute(deleteRequest, resp);
                 if (HandlerConstants.TOKEN_IS_EXPIRED.equals(proxyResponse.getExecutorResponse())) {
                     proxyResponse = HandlerUtil.retryRequestWithRefreshedToken(req, deleteRequest, kmManagerUrl,
                             HandlerUtil.isTenantAwareUsername(getUsernameFromTenantAuthData()));
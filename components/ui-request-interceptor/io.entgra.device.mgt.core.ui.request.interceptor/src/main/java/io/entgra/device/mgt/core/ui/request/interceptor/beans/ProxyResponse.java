@@ -32,6 +32,7 @@ public class ProxyResponse {
     private String executorResponse;
     private int status;
     private Header[] headers;
+    private boolean streamed;
 
     public int getCode() { return code; }
 
@@ -61,4 +62,12 @@ public class ProxyResponse {
         this.headers = headers;
     }
 
+    public boolean isStreamed() {
+        return streamed;
+    }
+
+    public void setStreamed(boolean streamed) {
+        this.streamed = streamed;
+    }
+
 }
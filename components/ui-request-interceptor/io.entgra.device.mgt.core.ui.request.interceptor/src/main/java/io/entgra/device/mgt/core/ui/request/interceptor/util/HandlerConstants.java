@@ -98,6 +98,10 @@ public class HandlerConstants {
 
     public static final int INTERNAL_ERROR_CODE = 500;
     public static final long TIMEOUT = 1200;
+    public static final int HTTP_CLIENT_MAX_CONNECTIONS = 200;
+    public static final int HTTP_CLIENT_MAX_CONNECTIONS_PER_ROUTE = 100;
+    public static final long HTTP_CLIENT_VALIDATE_AFTER_INACTIVITY = 10;
+    public static final long HTTP_CLIENT_IDLE_CONNECTION_TIMEOUT = 60;
 
     public static final String OTP_HEADER = "one-time-token";
 
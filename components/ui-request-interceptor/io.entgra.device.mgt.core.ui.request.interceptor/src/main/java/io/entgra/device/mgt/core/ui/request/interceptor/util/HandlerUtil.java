@@ -40,6 +40,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.entity.mime.InputStreamBody;
 import org.apache.hc.client5.http.entity.mime.MultipartEntityBuilder;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
@@ -53,6 +54,7 @@ import org.apache.hc.core5.http.io.entity.BufferedHttpEntity;
 import org.apache.hc.core5.http.io.entity.InputStreamEntity;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.apache.hc.core5.ssl.SSLContextBuilder;
+import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.client5.http.entity.mime.HttpMultipartMode;
 import org.apache.http.Consts;
 import org.apache.http.cookie.SM;
@@ -66,6 +68,7 @@ import javax.servlet.http.HttpSession;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.Reader;
 import java.math.BigInteger;
@@ -84,6 +87,10 @@ import java.util.Map;
 public class HandlerUtil {
 
     private static final Log log = LogFactory.getLog(HandlerUtil.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper(new JsonFactory());
+    private static final byte[] STREAMED_DATA_PREFIX = "{\"data\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] STREAMED_DATA_SUFFIX = "}".getBytes(StandardCharsets.UTF_8);
+    private static volatile CloseableHttpClient httpClient;
     private static LoginCache loginCache = null;
     private static boolean isLoginCacheInitialized = false;
     private static AuthData authData;
@@ -97,61 +104,132 @@ public class HandlerUtil {
      * @throws IOException IO exception returns if error occurs when executing the httpMethod
      */
     public static ProxyResponse execute(ClassicHttpRequest httpRequest) throws IOException {
+        return execute(httpRequest, null);
+    }
 
-        try (CloseableHttpClient client = getHttpClient()) {
-            return client.execute(httpRequest, response -> {
-                final HttpEntity responseEntity = response.getEntity();
-                ProxyResponse handlerResponse = new ProxyResponse();
-                int statusCode = response.getCode();
-                if (statusCode == 204) {
+    /***
+     * Execute the httpMethod, and write a successful JSON response straight to the servlet response, without parsing
+     * it. Other responses are returned to be handled by the caller, as they are by {@link #execute(ClassicHttpRequest)}.
+     *
+     * @param httpRequest - httpMethod e.g:- HttpPost, HttpGet
+     * @param resp - {@link HttpServletResponse} to stream a successful response to, or null to not stream
+     * @return {@link ProxyResponse}, which is marked as streamed if the response has been written already
+     * @throws IOException IO exception returns if error occurs when executing the httpMethod
+     */
+    public static ProxyResponse execute(ClassicHttpRequest httpRequest, HttpServletResponse resp) throws IOException {
+        return getHttpClient().execute(httpRequest, response -> {
+            final HttpEntity responseEntity = response.getEntity();
+            ProxyResponse handlerResponse = new ProxyResponse();
+            int statusCode = response.getCode();
+            if (statusCode == 204) {
+                handlerResponse.setCode(statusCode);
+                handlerResponse.setStatus(ProxyResponse.Status.SUCCESS);
+                handlerResponse.setExecutorResponse("SUCCESS");
+                handlerResponse.setHeaders(response.getHeaders());
+                return handlerResponse;
+            }
+            if (responseEntity == null) {
+                log.error("Received null response for http request : " + httpRequest.getMethod() + " " + httpRequest.getRequestUri());
+                handlerResponse.setCode(HandlerConstants.INTERNAL_ERROR_CODE);
+                handlerResponse.setStatus(ProxyResponse.Status.ERROR);
+                handlerResponse.setExecutorResponse(HandlerConstants.EXECUTOR_EXCEPTION_PREFIX + getStatusKey(
+                        HandlerConstants.INTERNAL_ERROR_CODE));
+                return handlerResponse;
+            }
+            JsonNode responseData;
+            if (resp != null && (statusCode == HttpStatus.SC_OK || statusCode == HttpStatus.SC_CREATED)
+                    && isJsonContent(responseEntity)) {
+                if (streamResponseData(responseEntity, resp, statusCode)) {
                     handlerResponse.setCode(statusCode);
                     handlerResponse.setStatus(ProxyResponse.Status.SUCCESS);
                     handlerResponse.setExecutorResponse("SUCCESS");
                     handlerResponse.setHeaders(response.getHeaders());
+                    handlerResponse.setStreamed(true);
                     return handlerResponse;
                 }
-                if (responseEntity == null) {
-                    log.error("Received null response for http request : " + httpRequest.getMethod() + " " + httpRequest.getRequestUri());
-                    handlerResponse.setCode(HandlerConstants.INTERNAL_ERROR_CODE);
+                responseData = getResponseDataAsJsonNode("");
+            } else {
+                responseData = getResponseDataAsJsonNode(responseEntity);
+            }
+            if (statusCode == HttpStatus.SC_OK || statusCode == HttpStatus.SC_CREATED) {
+                handlerResponse.setCode(statusCode);
+                handlerResponse.setData(responseData);
+                handlerResponse.setStatus(ProxyResponse.Status.SUCCESS);
+                handlerResponse.setExecutorResponse("SUCCESS");
+                handlerResponse.setHeaders(response.getHeaders());
+                return handlerResponse;
+            } else if (statusCode == HttpStatus.SC_UNAUTHORIZED) {
+                if (isTokenExpired(responseData)) {
+                    handlerResponse.setCode(statusCode);
                     handlerResponse.setStatus(ProxyResponse.Status.ERROR);
-                    handlerResponse.setExecutorResponse(HandlerConstants.EXECUTOR_EXCEPTION_PREFIX + getStatusKey(
-                            HandlerConstants.INTERNAL_ERROR_CODE));
-                    return handlerResponse;
-                }
-                JsonNode responseData = getResponseDataAsJsonNode(responseEntity);
-                if (statusCode == HttpStatus.SC_OK || statusCode == HttpStatus.SC_CREATED) {
+                    handlerResponse.setExecutorResponse(HandlerConstants.TOKEN_IS_EXPIRED);
+                } else {
+                    log.error(
+                            "Received " + statusCode + " response for http request : " + httpRequest.getMethod()
+                                    + " " + httpRequest.getRequestUri() + ". Error message: " + responseData.textValue());
                     handlerResponse.setCode(statusCode);
                     handlerResponse.setData(responseData);
-                    handlerResponse.setStatus(ProxyResponse.Status.SUCCESS);
-                    handlerResponse.setExecutorResponse("SUCCESS");
-                    handlerResponse.setHeaders(response.getHeaders());
-                    return handlerResponse;
-                } else if (statusCode == HttpStatus.SC_UNAUTHORIZED) {
-                    if (isTokenExpired(responseData)) {
-                        handlerResponse.setCode(statusCode);
-                        handlerResponse.setStatus(ProxyResponse.Status.ERROR);
-                        handlerResponse.setExecutorResponse(HandlerConstants.TOKEN_IS_EXPIRED);
-                    } else {
-                        log.error(
-                                "Received " + statusCode + " response for http request : " + httpRequest.getMethod()
-                                        + " " + httpRequest.getRequestUri() + ". Error message: " + responseData.textValue());
-                        handlerResponse.setCode(statusCode);
-                        handlerResponse.setData(responseData);
-                        handlerResponse.setStatus(ProxyResponse.Status.ERROR);
-                        handlerResponse.setExecutorResponse(
-                                HandlerConstants.EXECUTOR_EXCEPTION_PREFIX + getStatusKey(statusCode));
-                    }
-                    return handlerResponse;
+                    handlerResponse.setStatus(ProxyResponse.Status.ERROR);
+                    handlerResponse.setExecutorResponse(
+                            HandlerConstants.EXECUTOR_EXCEPTION_PREFIX + getStatusKey(statusCode));
                 }
-                log.error("Received " + statusCode + " response for http request : " + httpRequest.getMethod()
-                        + " " + httpRequest.getRequestUri() + ". Error message: " + responseData.textValue());
-                handlerResponse.setCode(statusCode);
-                handlerResponse.setData(responseData);
-                handlerResponse.setStatus(ProxyResponse.Status.ERROR);
-                handlerResponse
-                        .setExecutorResponse(HandlerConstants.EXECUTOR_EXCEPTION_PREFIX + getStatusKey(statusCode));
                 return handlerResponse;
-            });
+            }
+            log.error("Received " + statusCode + " response for http request : " + httpRequest.getMethod()
+                    + " " + httpRequest.getRequestUri() + ". Error message: " + responseData.textValue());
+            handlerResponse.setCode(statusCode);
+            handlerResponse.setData(responseData);
+            handlerResponse.setStatus(ProxyResponse.Status.ERROR);
+            handlerResponse
+                    .setExecutorResponse(HandlerConstants.EXECUTOR_EXCEPTION_PREFIX + getStatusKey(statusCode));
+            return handlerResponse;
+        });
+    }
+
+    /**
+     * Check whether the response entity is declared as JSON content.
+     *
+     * @param responseEntity Incoming {@link HttpEntity}
+     * @return true if the content type of the entity is JSON
+     */
+    private static boolean isJsonContent(HttpEntity responseEntity) {
+        String contentType = responseEntity.getContentType();
+        if (StringUtils.isEmpty(contentType)) {
+            return false;
+        }
+        String mimeType = contentType.split(";")[0].trim().toLowerCase();
+        return ContentType.APPLICATION_JSON.getMimeType().equals(mimeType) || mimeType.endsWith("+json");
+    }
+
+    /**
+     * Write the JSON response data, wrapped the same way as {@link #handleSuccess(HttpServletResponse, ProxyResponse)}
+     * does, to the servlet response as it is received.
+     *
+     * @param responseEntity Incoming {@link HttpEntity}
+     * @param resp {@link HttpServletResponse}
+     * @param statusCode Status code of the response
+     * @return false if the response has no content, in which case nothing is written
+     * @throws IOException Throws when IO exception encountered
+     */
+    private static boolean streamResponseData(HttpEntity responseEntity, HttpServletResponse resp, int statusCode)
+            throws IOException {
+        try (InputStream inputStream = responseEntity.getContent()) {
+            byte[] buffer = new byte[8192];
+            int length = inputStream.read(buffer);
+            if (length < 0) {
+                return false;
+            }
+            resp.setStatus(statusCode);
+            resp.setContentType(ContentType.APPLICATION_JSON.getMimeType());
+            resp.setCharacterEncoding(Consts.UTF_8.name());
+            OutputStream outputStream = resp.getOutputStream();
+            outputStream.write(STREAMED_DATA_PREFIX);
+            do {
+                outputStream.write(buffer, 0, length);
+            } while ((length = inputStream.read(buffer)) >= 0);
+            outputStream.write(STREAMED_DATA_SUFFIX);
+            outputStream.flush();
+            return true;
         }
     }
 
@@ -296,6 +374,9 @@ public class HandlerUtil {
             handleError(resp, null);
             return;
         }
+        if (proxyResponse.isStreamed()) {
+            return;
+        }
         resp.setStatus(proxyResponse.getCode());
         resp.setContentType(ContentType.APPLICATION_JSON.getMimeType());
         resp.setCharacterEncoding(Consts.UTF_8.name());
@@ -376,32 +457,72 @@ public class HandlerUtil {
     }
 
     /**
-     * Retrieve Http client based on hostname verification.
+     * Retrieve the Http client which is shared by all the handlers. The client pools and keeps alive the connections to
+     * the backends, hence it must not be closed by the callers.
      *
      * @return {@link CloseableHttpClient} http client
      */
     public static CloseableHttpClient getHttpClient() {
+        if (httpClient == null) {
+            synchronized (HandlerUtil.class) {
+                if (httpClient == null) {
+                    httpClient = createHttpClient();
+                }
+            }
+        }
+        return httpClient;
+    }
+
+    /**
+     * Close the shared Http client, along with the pooled connections.
+     */
+    public static void closeHttpClient() {
+        synchronized (HandlerUtil.class) {
+            if (httpClient != null) {
+                try {
+                    httpClient.close();
+                } catch (IOException e) {
+                    log.warn("Error occurred while closing the http client", e);
+                }
+                httpClient = null;
+            }
+        }
+    }
+
+    /**
+     * Create Http client based on hostname verification.
+     *
+     * @return {@link CloseableHttpClient} http client
+     */
+    private static CloseableHttpClient createHttpClient() {
         boolean isIgnoreHostnameVerification = Boolean.parseBoolean(System.
                 getProperty("org.wso2.ignoreHostnameVerification"));
+        PoolingHttpClientConnectionManagerBuilder connectionManagerBuilder =
+                PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(HandlerConstants.HTTP_CLIENT_MAX_CONNECTIONS)
+                        .setMaxConnPerRoute(HandlerConstants.HTTP_CLIENT_MAX_CONNECTIONS_PER_ROUTE)
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setValidateAfterInactivity(
+                                        TimeValue.ofSeconds(HandlerConstants.HTTP_CLIENT_VALIDATE_AFTER_INACTIVITY))
+                                .build());
         if (isIgnoreHostnameVerification) {
             try {
-                return HttpClients.custom()
-                        .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
-                                .setSSLSocketFactory(SSLConnectionSocketFactoryBuilder.create()
-                                        .setSslContext(SSLContextBuilder.create()
-                                                .loadTrustMaterial(TrustAllStrategy.INSTANCE)
-                                                .build())
-                                        .setHostnameVerifier(NoopHostnameVerifier.INSTANCE)
-                                        .build())
+                connectionManagerBuilder.setSSLSocketFactory(SSLConnectionSocketFactoryBuilder.create()
+                        .setSslContext(SSLContextBuilder.create()
+                                .loadTrustMaterial(TrustAllStrategy.INSTANCE)
                                 .build())
-                        .build();
+                        .setHostnameVerifier(NoopHostnameVerifier.INSTANCE)
+                        .build());
             } catch (NoSuchAlgorithmException | KeyManagementException | KeyStoreException e) {
                 log.error("Error Occurred while creating the custom http client", e);
                 throw new RuntimeException(e);
             }
-        } else {
-            return HttpClients.createDefault();
         }
+        return HttpClients.custom()
+                .setConnectionManager(connectionManagerBuilder.build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(HandlerConstants.HTTP_CLIENT_IDLE_CONNECTION_TIMEOUT))
+                .build();
     }
 
     /**
@@ -871,18 +992,23 @@ public class HandlerUtil {
      * @throws IOException Throws when IO exception encountered
      */
     public static JsonNode getResponseDataAsJsonNode(HttpEntity responseEntity) throws IOException {
-        JsonFactory jsonFactory = new JsonFactory();
-        ObjectMapper objectMapper = new ObjectMapper(jsonFactory);
-        JsonNode finalNode;
         try (InputStream inputStream = responseEntity.getContent()) {
-            String content = getResponseDataAsString(inputStream);
-            try {
-                finalNode = objectMapper.readTree(content);
-            } catch (JsonProcessingException e) {
-                finalNode = new TextNode(content);
-            }
+            return getResponseDataAsJsonNode(getResponseDataAsString(inputStream));
+        }
+    }
+
+    /**
+     * Convert response content into a json tree
+     * @param content Content of the response
+     * @return {@link JsonNode} consists with response data content, or a text node if the content isn't json
+     * @throws IOException Throws when IO exception encountered
+     */
+    private static JsonNode getResponseDataAsJsonNode(String content) throws IOException {
+        try {
+            return OBJECT_MAPPER.readTree(content);
+        } catch (JsonProcessingException e) {
+            return new TextNode(content);
         }
-        return finalNode;
     }
 
     /**
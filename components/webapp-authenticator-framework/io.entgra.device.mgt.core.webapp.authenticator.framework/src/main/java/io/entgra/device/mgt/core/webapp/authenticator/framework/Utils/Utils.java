@@ -29,6 +29,7 @@ import io.entgra.device.mgt.core.webapp.authenticator.framework.AuthenticationEx
 import io.entgra.device.mgt.core.webapp.authenticator.framework.AuthenticationInfo;
 import io.entgra.device.mgt.core.webapp.authenticator.framework.authenticator.WebappAuthenticator;
 import io.entgra.device.mgt.core.webapp.authenticator.framework.authenticator.oauth.OAuth2TokenValidator;
+import io.entgra.device.mgt.core.webapp.authenticator.framework.authenticator.oauth.OAuthConstants;
 import io.entgra.device.mgt.core.webapp.authenticator.framework.authenticator.oauth.OAuthValidationResponse;
 import io.entgra.device.mgt.core.webapp.authenticator.framework.authenticator.oauth.OAuthValidatorFactory;
 import io.entgra.device.mgt.core.webapp.authenticator.framework.internal.AuthenticatorFrameworkDataHolder;
@@ -127,6 +128,14 @@ public class Utils {
         if (maxConnectionsPerHost != null) {
             validatorProperties.setProperty("MaxConnectionsPerHost", maxConnectionsPerHost);
         }
+        for (String cacheProperty : new String[]{OAuthConstants.TOKEN_CACHE_ENABLED,
+                OAuthConstants.TOKEN_CACHE_CAPACITY, OAuthConstants.TOKEN_CACHE_EXPIRY_TIME,
+                OAuthConstants.TOKEN_CACHE_INVALID_TOKEN_EXPIRY_TIME}) {
+            String value = properties.getProperty(cacheProperty);
+            if (value != null) {
+                validatorProperties.setProperty(cacheProperty, value);
+            }
+        }
         return OAuthValidatorFactory.getValidator(url, adminUsername, adminPassword, isRemote, validatorProperties);
     }
 
@@ -30,4 +30,12 @@ public class OAuthConstants {
     public static final String AUTHENTICATOR_NAME = "OAuthAuthenticator";
     public static final String RESOURCE_KEY = "resource";
 
+    public static final String TOKEN_CACHE_ENABLED = "TokenCacheEnabled";
+    public static final String TOKEN_CACHE_CAPACITY = "TokenCacheCapacity";
+    public static final String TOKEN_CACHE_EXPIRY_TIME = "TokenCacheExpiryTime";
+    public static final String TOKEN_CACHE_INVALID_TOKEN_EXPIRY_TIME = "TokenCacheInvalidTokenExpiryTime";
+    public static final int DEFAULT_TOKEN_CACHE_CAPACITY = 10000;
+    public static final int DEFAULT_TOKEN_CACHE_EXPIRY_TIME = 900; // in seconds
+    public static final int DEFAULT_TOKEN_CACHE_INVALID_TOKEN_EXPIRY_TIME = 30; // in seconds
+
 }
@@ -27,6 +27,7 @@ public class OAuthValidationResponse {
     private String tenantDomain;
     private boolean isValid;
     private String errorMsg;
+    private long expiryTime; // remaining validity of the token in seconds as reported by the key manager
 
     public OAuthValidationResponse() {}
 
@@ -67,4 +68,12 @@ public class OAuthValidationResponse {
     public void setErrorMsg(String errorMsg) {
         this.errorMsg = errorMsg;
     }
-}
\ No newline at end of file
+
+    public long getExpiryTime() {
+        return expiryTime;
+    }
+
+    public void setExpiryTime(long expiryTime) {
+        this.expiryTime = expiryTime;
+    }
+}
@@ -17,6 +17,7 @@
  */
 package io.entgra.device.mgt.core.webapp.authenticator.framework.authenticator.oauth;
 
+import io.entgra.device.mgt.core.webapp.authenticator.framework.authenticator.oauth.impl.CachingOAuthValidator;
 import io.entgra.device.mgt.core.webapp.authenticator.framework.authenticator.oauth.impl.LocalOAuthValidator;
 import io.entgra.device.mgt.core.webapp.authenticator.framework.authenticator.oauth.impl.RemoteOAuthValidator;
 
@@ -30,16 +31,45 @@ public class OAuthValidatorFactory {
 
     public static OAuth2TokenValidator getValidator(String url, String adminUsername, String adminPassword,
             boolean isRemote, Properties properties) throws IllegalArgumentException {
+        OAuth2TokenValidator tokenValidator;
         if (isRemote) {
             if ((url != null) && (!url.trim().isEmpty())) {
                 url = url + "/services/OAuth2TokenValidationService.OAuth2TokenValidationServiceHttpsSoap12Endpoint/";
-                return new RemoteOAuthValidator(url, adminUsername, adminPassword, properties);
+                tokenValidator = new RemoteOAuthValidator(url, adminUsername, adminPassword, properties);
+            } else {
+                throw new IllegalArgumentException(
+                        "Remote server host can't be empty in OAuthAuthenticator configuration.");
             }
-            throw new IllegalArgumentException(
-                    "Remote server host can't be empty in OAuthAuthenticator configuration.");
+        } else {
+            tokenValidator = new LocalOAuthValidator();
         }
 
-        return new LocalOAuthValidator();
+        if (Boolean.parseBoolean(properties.getProperty(OAuthConstants.TOKEN_CACHE_ENABLED, "true"))) {
+            int capacity = getIntProperty(properties, OAuthConstants.TOKEN_CACHE_CAPACITY,
+                    OAuthConstants.DEFAULT_TOKEN_CACHE_CAPACITY);
+            int expiryTime = getIntProperty(properties, OAuthConstants.TOKEN_CACHE_EXPIRY_TIME,
+                    OAuthConstants.DEFAULT_TOKEN_CACHE_EXPIRY_TIME);
+            int invalidTokenExpiryTime = getIntProperty(properties,
+                    OAuthConstants.TOKEN_CACHE_INVALID_TOKEN_EXPIRY_TIME,
+                    OAuthConstants.DEFAULT_TOKEN_CACHE_INVALID_TOKEN_EXPIRY_TIME);
+            return new CachingOAuthValidator(tokenValidator, capacity, expiryTime * 1000L,
+                    invalidTokenExpiryTime * 1000L);
+        }
+        return tokenValidator;
+    }
+
+    private static int getIntProperty(Properties properties, String name, int defaultValue)
+            throws IllegalArgumentException {
+        String value = properties.getProperty(name);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' for " + name
+                    + " in OAuthAuthenticator configuration.", e);
+        }
     }
 
 }
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.entgra.device.mgt.core.webapp.authenticator.framework.authenticator.oauth.impl;
+
+import io.entgra.device.mgt.core.webapp.authenticator.framework.authenticator.oauth.OAuth2TokenValidator;
+import io.entgra.device.mgt.core.webapp.authenticator.framework.authenticator.oauth.OAuthTokenValidationException;
+import io.entgra.device.mgt.core.webapp.authenticator.framework.authenticator.oauth.OAuthValidationResponse;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Size bounded cache of token validation results kept in front of a local or remote OAuth2 token validator.
+ * <p>
+ * Results are cached per token and requested resource, since the scope validation of the key manager depends on the
+ * resource. A valid token is served from the cache until it expires at the key manager, but never longer than the
+ * configured time to live, and an invalid token is remembered for a shorter time so that repeated requests with it do
+ * not reach the key manager either. Concurrent validations of the same token and resource are coalesced into a
+ * single call to the key manager. Tokens are only kept as SHA-256 hashes.
+ * <p>
+ * A token which is revoked before it expires has to be evicted with {@link #revokeToken(String)}.
+ */
+public class CachingOAuthValidator implements OAuth2TokenValidator {
+
+    private static final Log log = LogFactory.getLog(CachingOAuthValidator.class);
+    private static final Set<CachingOAuthValidator> validators =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final OAuth2TokenValidator tokenValidator;
+    private final int capacity;
+    private final long expiryTime;
+    private final long invalidTokenExpiryTime;
+    private final Map<CacheKey, Entry> entries;
+    private final Map<CacheKey, CompletableFuture<OAuthValidationResponse>> validations = new ConcurrentHashMap<>();
+    private long revocationCount;
+
+    /**
+     * @param tokenValidator         validator the validation of uncached tokens is delegated to
+     * @param capacity               maximum number of results to keep, the least recently used is evicted beyond that
+     * @param expiryTime             maximum time in milliseconds a valid token is served from the cache
+     * @param invalidTokenExpiryTime time in milliseconds an invalid token is served from the cache
+     */
+    public CachingOAuthValidator(OAuth2TokenValidator tokenValidator, int capacity, long expiryTime,
+                                 long invalidTokenExpiryTime) {
+        this.tokenValidator = tokenValidator;
+        this.capacity = capacity;
+        this.expiryTime = expiryTime;
+        this.invalidTokenExpiryTime = invalidTokenExpiryTime;
+        this.entries = new LinkedHashMap<CacheKey, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, Entry> eldest) {
+                return size() > CachingOAuthValidator.this.capacity;
+            }
+        };
+        validators.add(this);
+    }
+
+    /**
+     * Evicts the validation results of the given token from all the token validation caches, so that the next
+     * request with it is validated by the key manager again.
+     *
+     * @param accessToken revoked access token
+     */
+    public static void revokeToken(String accessToken) {
+        if (accessToken == null) {
+            return;
+        }
+        String tokenHash = getTokenHash(accessToken);
+        CachingOAuthValidator[] cachingValidators;
+        synchronized (validators) {
+            cachingValidators = validators.toArray(new CachingOAuthValidator[0]);
+        }
+        for (CachingOAuthValidator cachingValidator : cachingValidators) {
+            cachingValidator.invalidate(tokenHash);
+        }
+    }
+
+    @Override
+    public OAuthValidationResponse validateToken(String accessToken, String resource)
+            throws OAuthTokenValidationException {
+        if (accessToken == null) {
+            return tokenValidator.validateToken(null, resource);
+        }
+        CacheKey cacheKey = new CacheKey(getTokenHash(accessToken), resource);
+        Entry entry;
+        long revocations;
+        synchronized (entries) {
+            entry = entries.get(cacheKey);
+            if (entry != null && entry.expiryTime < System.currentTimeMillis()) {
+                entries.remove(cacheKey);
+                entry = null;
+            }
+            revocations = revocationCount;
+        }
+        if (entry != null) {
+            return copyOf(entry.response);
+        }
+
+        CompletableFuture<OAuthValidationResponse> validation = new CompletableFuture<>();
+        CompletableFuture<OAuthValidationResponse> ongoingValidation = validations.putIfAbsent(cacheKey, validation);
+        if (ongoingValidation != null) {
+            return copyOf(awaitValidation(ongoingValidation));
+        }
+        try {
+            OAuthValidationResponse response = tokenValidator.validateToken(accessToken, resource);
+            cache(cacheKey, response, revocations);
+            validation.complete(response);
+            return copyOf(response);
+        } catch (OAuthTokenValidationException | RuntimeException e) {
+            validation.completeExceptionally(e);
+            throw e;
+        } finally {
+            validations.remove(cacheKey, validation);
+        }
+    }
+
+    /**
+     * Caches the result of a validation unless a token was revoked after the validation has started, in which
+     * case the result may already be stale.
+     */
+    private void cache(CacheKey cacheKey, OAuthValidationResponse response, long revocations) {
+        if (response == null) {
+            return;
+        }
+        long timeToLive;
+        if (response.isValid()) {
+            timeToLive = expiryTime;
+            if (response.getExpiryTime() > 0 && response.getExpiryTime() < timeToLive / 1000) {
+                timeToLive = response.getExpiryTime() * 1000;
+            }
+        } else {
+            timeToLive = invalidTokenExpiryTime;
+        }
+        if (timeToLive <= 0) {
+            return;
+        }
+        Entry entry = new Entry(copyOf(response), System.currentTimeMillis() + timeToLive);
+        synchronized (entries) {
+            if (revocationCount == revocations) {
+                entries.put(cacheKey, entry);
+            }
+        }
+    }
+
+    private void invalidate(String tokenHash) {
+        synchronized (entries) {
+            revocationCount++;
+            entries.keySet().removeIf(cacheKey -> cacheKey.tokenHash.equals(tokenHash));
+        }
+        validations.keySet().removeIf(cacheKey -> cacheKey.tokenHash.equals(tokenHash));
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static OAuthValidationResponse awaitValidation(CompletableFuture<OAuthValidationResponse> validation)
+            throws OAuthTokenValidationException {
+        try {
+            return validation.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OAuthTokenValidationException("Interrupted while waiting for the OAuth2 token validation", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof OAuthTokenValidationException) {
+                throw (OAuthTokenValidationException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new OAuthTokenValidationException("Error occurred while validating the OAuth2 token", e);
+        }
+    }
+
+    private static String getTokenHash(String accessToken) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] digest = messageDigest.digest(accessToken.getBytes(StandardCharsets.UTF_8));
+            return String.format("%064x", new BigInteger(1, digest));
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            log.error("SHA-256 algorithm is not available to hash the access token", e);
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static OAuthValidationResponse copyOf(OAuthValidationResponse response) {
+        if (response == null) {
+            return null;
+        }
+        OAuthValidationResponse copy = new OAuthValidationResponse(response.getUserName(),
+                response.getTenantDomain(), response.isValid());
+        copy.setErrorMsg(response.getErrorMsg());
+        copy.setExpiryTime(response.getExpiryTime());
+        return copy;
+    }
+
+    private static final class CacheKey {
+
+        private final String tokenHash;
+        private final String resource;
+
+        private CacheKey(String tokenHash, String resource) {
+            this.tokenHash = tokenHash;
+            this.resource = resource;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey cacheKey = (CacheKey) o;
+            return tokenHash.equals(cacheKey.tokenHash)
+                    && (resource == null ? cacheKey.resource == null : resource.equals(cacheKey.resource));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * tokenHash.hashCode() + (resource == null ? 0 : resource.hashCode());
+        }
+    }
+
+    private static final class Entry {
+
+        private final OAuthValidationResponse response;
+        private final long expiryTime;
+
+        private Entry(OAuthValidationResponse response, long expiryTime) {
+            this.response = response;
+            this.expiryTime = expiryTime;
+        }
+    }
+}
@@ -84,7 +84,9 @@ public class RemoteOAuthValidator implements OAuth2TokenValidator {
         if (isValid) {
             username = MultitenantUtils.getTenantAwareUsername(validationResponse.getAuthorizedUser());
             tenantDomain = MultitenantUtils.getTenantDomain(validationResponse.getAuthorizedUser());
-            return new OAuthValidationResponse(username, tenantDomain, true);
+            OAuthValidationResponse oAuthValidationResponse = new OAuthValidationResponse(username, tenantDomain, true);
+            oAuthValidationResponse.setExpiryTime(validationResponse.getExpiryTime());
+            return oAuthValidationResponse;
         } else {
             OAuthValidationResponse oAuthValidationResponse = new OAuthValidationResponse();
             oAuthValidationResponse.setErrorMsg(validationResponse.getErrorMsg());
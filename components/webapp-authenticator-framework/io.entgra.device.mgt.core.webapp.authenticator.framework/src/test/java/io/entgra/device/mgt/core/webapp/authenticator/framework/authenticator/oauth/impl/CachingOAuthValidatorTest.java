@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2018 - 2023, Entgra (Pvt) Ltd. (http://www.entgra.io) All Rights Reserved.
+ *
+ * Entgra (Pvt) Ltd. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package io.entgra.device.mgt.core.webapp.authenticator.framework.authenticator.oauth.impl;
+
+import io.entgra.device.mgt.core.webapp.authenticator.framework.authenticator.oauth.OAuth2TokenValidator;
+import io.entgra.device.mgt.core.webapp.authenticator.framework.authenticator.oauth.OAuthTokenValidationException;
+import io.entgra.device.mgt.core.webapp.authenticator.framework.authenticator.oauth.OAuthValidationResponse;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This is a test case for {@link CachingOAuthValidator}.
+ */
+public class CachingOAuthValidatorTest {
+
+    private static final String VALID_TOKEN = "valid-token";
+    private static final String INVALID_TOKEN = "invalid-token";
+    private static final String RESOURCE = "/api/device-mgt/v1.0/devices:GET";
+
+    @Test(description = "This method tests whether a valid token is validated only once for a resource")
+    public void testValidTokenCached() throws OAuthTokenValidationException {
+        CountingValidator tokenValidator = new CountingValidator();
+        CachingOAuthValidator cachingValidator = new CachingOAuthValidator(tokenValidator, 100, 60000, 60000);
+        for (int i = 0; i < 5; i++) {
+            OAuthValidationResponse response = cachingValidator.validateToken(VALID_TOKEN, RESOURCE);
+            Assert.assertTrue(response.isValid(), "Cached validation result is not valid");
+            Assert.assertEquals(response.getUserName(), "admin", "Cached user name does not match");
+        }
+        Assert.assertEquals(tokenValidator.count.get(), 1, "Token is validated more than once");
+        cachingValidator.validateToken(VALID_TOKEN, "/api/device-mgt/v1.0/devices:POST");
+        Assert.assertEquals(tokenValidator.count.get(), 2, "Token is not validated for a different resource");
+    }
+
+    @Test(description = "This method tests whether invalid tokens are cached for their own expiry time")
+    public void testInvalidTokenCached() throws OAuthTokenValidationException {
+        CountingValidator tokenValidator = new CountingValidator();
+        CachingOAuthValidator cachingValidator = new CachingOAuthValidator(tokenValidator, 100, 60000, 60000);
+        Assert.assertFalse(cachingValidator.validateToken(INVALID_TOKEN, RESOURCE).isValid());
+        Assert.assertFalse(cachingValidator.validateToken(INVALID_TOKEN, RESOURCE).isValid());
+        Assert.assertEquals(tokenValidator.count.get(), 1, "Invalid token is validated more than once");
+
+        cachingValidator = new CachingOAuthValidator(tokenValidator, 100, 60000, 0);
+        cachingValidator.validateToken(INVALID_TOKEN, RESOURCE);
+        cachingValidator.validateToken(INVALID_TOKEN, RESOURCE);
+        Assert.assertEquals(tokenValidator.count.get(), 3, "Invalid token is cached when it is disabled");
+    }
+
+    @Test(description = "This method tests whether cached results expire")
+    public void testExpiry() throws OAuthTokenValidationException, InterruptedException {
+        CountingValidator tokenValidator = new CountingValidator();
+        CachingOAuthValidator cachingValidator = new CachingOAuthValidator(tokenValidator, 100, 50, 50);
+        cachingValidator.validateToken(VALID_TOKEN, RESOURCE);
+        Thread.sleep(100);
+        cachingValidator.validateToken(VALID_TOKEN, RESOURCE);
+        Assert.assertEquals(tokenValidator.count.get(), 2, "Expired validation result is served");
+
+        tokenValidator.expiryTime = 1;
+        cachingValidator = new CachingOAuthValidator(tokenValidator, 100, 60000, 60000);
+        cachingValidator.validateToken(VALID_TOKEN, RESOURCE);
+        Thread.sleep(1100);
+        cachingValidator.validateToken(VALID_TOKEN, RESOURCE);
+        Assert.assertEquals(tokenValidator.count.get(), 4, "Validation result is served after the token expiry");
+    }
+
+    @Test(description = "This method tests whether revoked tokens are evicted from the cache")
+    public void testRevokeToken() throws OAuthTokenValidationException {
+        CountingValidator tokenValidator = new CountingValidator();
+        CachingOAuthValidator cachingValidator = new CachingOAuthValidator(tokenValidator, 100, 60000, 60000);
+        cachingValidator.validateToken(VALID_TOKEN, RESOURCE);
+        cachingValidator.validateToken(VALID_TOKEN, RESOURCE + "1");
+        cachingValidator.validateToken(INVALID_TOKEN, RESOURCE);
+        Assert.assertEquals(cachingValidator.size(), 3);
+        CachingOAuthValidator.revokeToken(VALID_TOKEN);
+        Assert.assertEquals(cachingValidator.size(), 1, "Revoked token is not evicted");
+        cachingValidator.validateToken(VALID_TOKEN, RESOURCE);
+        Assert.assertEquals(tokenValidator.count.get(), 4, "Revoked token is not validated again");
+    }
+
+    @Test(description = "This method tests whether failed validations are not cached")
+    public void testValidationFailure() {
+        OAuth2TokenValidator tokenValidator = (accessToken, resource) -> {
+            throw new OAuthTokenValidationException("Key manager is not reachable", new Exception());
+        };
+        CachingOAuthValidator cachingValidator = new CachingOAuthValidator(tokenValidator, 100, 60000, 60000);
+        try {
+            cachingValidator.validateToken(VALID_TOKEN, RESOURCE);
+            Assert.fail("Validation failure is not thrown");
+        } catch (OAuthTokenValidationException e) {
+            Assert.assertEquals(cachingValidator.size(), 0, "Failed validation is cached");
+        }
+    }
+
+    @Test(description = "This method tests whether the cache is bounded by its capacity")
+    public void testCapacity() throws OAuthTokenValidationException {
+        CachingOAuthValidator cachingValidator = new CachingOAuthValidator(new CountingValidator(), 10, 60000, 60000);
+        for (int i = 0; i < 50; i++) {
+            cachingValidator.validateToken(VALID_TOKEN + i, RESOURCE);
+        }
+        Assert.assertEquals(cachingValidator.size(), 10, "Cache grows beyond its capacity");
+    }
+
+    @Test(description = "This method tests whether concurrent validations of a token are coalesced")
+    public void testConcurrentValidation() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountingValidator tokenValidator = new CountingValidator() {
+            @Override
+            public OAuthValidationResponse validateToken(String accessToken, String resource)
+                    throws OAuthTokenValidationException {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.validateToken(accessToken, resource);
+            }
+        };
+        CachingOAuthValidator cachingValidator = new CachingOAuthValidator(tokenValidator, 100, 60000, 60000);
+        int threads = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<OAuthValidationResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                responses.add(executorService.submit(() -> cachingValidator.validateToken(VALID_TOKEN, RESOURCE)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<OAuthValidationResponse> response : responses) {
+                Assert.assertTrue(response.get(5, TimeUnit.SECONDS).isValid());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        Assert.assertEquals(tokenValidator.count.get(), 1, "Concurrent validations are not coalesced");
+    }
+
+    private static class CountingValidator implements OAuth2TokenValidator {
+
+        private final AtomicInteger count = new AtomicInteger();
+        private volatile long expiryTime = 3600;
+
+        @Override
+        public OAuthValidationResponse validateToken(String accessToken, String resource)
+                throws OAuthTokenValidationException {
+            count.incrementAndGet();
+            if (INVALID_TOKEN.equals(accessToken)) {
+                OAuthValidationResponse response = new OAuthValidationResponse();
+                response.setErrorMsg("Invalid access token");
+                return response;
+            }
+            OAuthValidationResponse response = new OAuthValidationResponse("admin", "carbon.super", true);
+            response.setExpiryTime(expiryTime);
+            return response;
+        }
+    }
+}
@@ -70,6 +70,7 @@ CREATE TABLE DM_DEVICE (
      DEVICE_IDENTIFICATION VARCHAR(300) DEFAULT NULL,
      LAST_UPDATED_TIMESTAMP DATETIME2 NOT NULL,
      TENANT_ID INTEGER DEFAULT 0,
+     PARTITION_BUCKET INTEGER DEFAULT NULL,
      PRIMARY KEY (ID),
      CONSTRAINT FK_DM_DEVICE_DM_DEVICE_TYPE2 FOREIGN KEY (DEVICE_TYPE_ID)
      REFERENCES DM_DEVICE_TYPE (ID) ON DELETE NO ACTION ON UPDATE NO ACTION
@@ -115,6 +116,8 @@ IF NOT EXISTS(SELECT *
 
 IF NOT  EXISTS (SELECT * FROM SYS.INDEXES WHERE NAME = 'IDX_DM_DEVICE' AND  OBJECT_ID = OBJECT_ID('DM_DEVICE'))
 CREATE INDEX IDX_DM_DEVICE ON DM_DEVICE(TENANT_ID, DEVICE_TYPE_ID);
+IF NOT  EXISTS (SELECT * FROM SYS.INDEXES WHERE NAME = 'IDX_DM_DEVICE_PARTITION_BUCKET' AND  OBJECT_ID = OBJECT_ID('DM_DEVICE'))
+CREATE INDEX IDX_DM_DEVICE_PARTITION_BUCKET ON DM_DEVICE(PARTITION_BUCKET);
 
 IF NOT  EXISTS (SELECT * FROM SYS.OBJECTS WHERE OBJECT_ID = OBJECT_ID(N'[DBO].[DM_OPERATION]') AND TYPE IN (N'U'))
 CREATE TABLE DM_OPERATION (
@@ -956,6 +959,20 @@ CREATE TABLE IF NOT EXISTS DM_DEVICE_ORGANIZATION (
     );
 -- END OF DM_DEVICE_ORGANIZATION TABLE--
 
+-- DM_DEVICE_ORGANIZATION_CLOSURE TABLE--
+CREATE TABLE IF NOT EXISTS DM_DEVICE_ORGANIZATION_CLOSURE (
+    TENANT_ID INTEGER NOT NULL,
+    ANCESTOR_DEVICE_ID INTEGER NOT NULL,
+    DESCENDANT_DEVICE_ID INTEGER NOT NULL,
+    DEPTH INTEGER NOT NULL,
+    PRIMARY KEY (TENANT_ID, ANCESTOR_DEVICE_ID, DESCENDANT_DEVICE_ID)
+    );
+IF NOT  EXISTS (SELECT * FROM SYS.INDEXES WHERE NAME = 'IDX_DM_DEVICE_ORG_CLOSURE_DESC' AND  OBJECT_ID = OBJECT_ID('DM_DEVICE_ORGANIZATION_CLOSURE'))
+CREATE INDEX IDX_DM_DEVICE_ORG_CLOSURE_DESC ON DM_DEVICE_ORGANIZATION_CLOSURE(TENANT_ID, DESCENDANT_DEVICE_ID, DEPTH);
+IF NOT  EXISTS (SELECT * FROM SYS.INDEXES WHERE NAME = 'IDX_DM_DEVICE_ORG_PARENT' AND  OBJECT_ID = OBJECT_ID('DM_DEVICE_ORGANIZATION'))
+CREATE INDEX IDX_DM_DEVICE_ORG_PARENT ON DM_DEVICE_ORGANIZATION(TENANT_ID, PARENT_DEVICE_ID);
+-- END OF DM_DEVICE_ORGANIZATION_CLOSURE TABLE--
+
 -- DM_CEA_POLICIES TABLE --
 
 IF NOT EXISTS (SELECT 1 FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'DM_CEA_POLICIES')
@@ -56,12 +56,14 @@ CREATE TABLE IF NOT EXISTS DM_DEVICE (
      DEVICE_IDENTIFICATION VARCHAR(300) NOT NULL,
      LAST_UPDATED_TIMESTAMP TIMESTAMP NOT NULL,
      TENANT_ID INTEGER DEFAULT 0,
+     PARTITION_BUCKET INTEGER DEFAULT NULL,
      PRIMARY KEY (ID),
      CONSTRAINT fk_DM_DEVICE_DM_DEVICE_TYPE2 FOREIGN KEY (DEVICE_TYPE_ID)
      REFERENCES DM_DEVICE_TYPE (ID) ON DELETE NO ACTION ON UPDATE NO ACTION
 )ENGINE = InnoDB;
 
 CREATE INDEX IDX_DM_DEVICE ON DM_DEVICE(TENANT_ID, DEVICE_TYPE_ID);
+CREATE INDEX IDX_DM_DEVICE_PARTITION_BUCKET ON DM_DEVICE(PARTITION_BUCKET);
 CREATE INDEX IDX_DM_DEVICE_TYPE_ID_DEVICE_IDENTIFICATION ON DM_DEVICE(TENANT_ID, DEVICE_TYPE_ID,DEVICE_IDENTIFICATION);
 CREATE INDEX IDX_DM_DEVICE_DEVICE_IDENTIFICATION ON DM_DEVICE(DEVICE_IDENTIFICATION);
 CREATE INDEX IDX_DM_DEVICE_LAST_UPDATED_TIMESTAMP ON DM_DEVICE(LAST_UPDATED_TIMESTAMP);
@@ -957,6 +959,18 @@ CREATE TABLE IF NOT EXISTS DM_DEVICE_ORGANIZATION (
     );
 -- END OF DM_DEVICE_ORGANIZATION TABLE--
 
+-- DM_DEVICE_ORGANIZATION_CLOSURE TABLE--
+CREATE TABLE IF NOT EXISTS DM_DEVICE_ORGANIZATION_CLOSURE (
+    TENANT_ID INT NOT NULL,
+    ANCESTOR_DEVICE_ID INT NOT NULL,
+    DESCENDANT_DEVICE_ID INT NOT NULL,
+    DEPTH INT NOT NULL,
+    PRIMARY KEY (TENANT_ID, ANCESTOR_DEVICE_ID, DESCENDANT_DEVICE_ID)
+    );
+CREATE INDEX IDX_DM_DEVICE_ORG_CLOSURE_DESC ON DM_DEVICE_ORGANIZATION_CLOSURE(TENANT_ID, DESCENDANT_DEVICE_ID, DEPTH);
+CREATE INDEX IDX_DM_DEVICE_ORG_PARENT ON DM_DEVICE_ORGANIZATION(TENANT_ID, PARENT_DEVICE_ID);
+-- END OF DM_DEVICE_ORGANIZATION_CLOSURE TABLE--
+
 -- DM_CEA_POLICIES TABLE --
 
 CREATE TABLE IF NOT EXISTS DM_CEA_POLICIES (
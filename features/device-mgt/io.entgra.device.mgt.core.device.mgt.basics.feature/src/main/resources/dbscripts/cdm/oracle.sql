@@ -107,6 +107,7 @@ CREATE TABLE DM_DEVICE (
   DEVICE_IDENTIFICATION VARCHAR2(300) DEFAULT NULL,
   LAST_UPDATED_TIMESTAMP TIMESTAMP NOT NULL,
   TENANT_ID NUMBER(10) DEFAULT 0,
+  PARTITION_BUCKET NUMBER(10) DEFAULT NULL,
   CONSTRAINT PK_DM_DEVICE PRIMARY KEY (ID),
   CONSTRAINT FK_DM_DEVICE_DM_DEVICE_TYPE2 FOREIGN KEY (DEVICE_TYPE_ID )
   REFERENCES DM_DEVICE_TYPE (ID)
@@ -125,6 +126,8 @@ WHEN (NEW.ID IS NULL)
     SELECT DM_DEVICE_seq.NEXTVAL INTO :NEW.ID FROM DUAL;
   END;
 /
+CREATE INDEX IDX_DM_DEVICE_PARTITION_BUCKET ON DM_DEVICE(PARTITION_BUCKET)
+/
 
 CREATE TABLE DM_DEVICE_PROPERTIES (
      DEVICE_TYPE_NAME VARCHAR2(300) NOT NULL,
@@ -1261,6 +1264,23 @@ END;
 /
 -- END OF DM_DEVICE_ORGANIZATION TABLE--
 
+-- DM_DEVICE_ORGANIZATION_CLOSURE TABLE--
+CREATE TABLE IF NOT EXISTS DM_DEVICE_ORGANIZATION_CLOSURE (
+    TENANT_ID NUMBER(10) NOT NULL,
+    ANCESTOR_DEVICE_ID NUMBER(10) NOT NULL,
+    DESCENDANT_DEVICE_ID NUMBER(10) NOT NULL,
+    DEPTH NUMBER(10) NOT NULL,
+    CONSTRAINT PK_DM_DEVICE_ORG_CLOSURE PRIMARY KEY (TENANT_ID, ANCESTOR_DEVICE_ID, DESCENDANT_DEVICE_ID)
+    )
+/
+
+CREATE INDEX IDX_DM_DEVICE_ORG_CLOSURE_DESC ON DM_DEVICE_ORGANIZATION_CLOSURE(TENANT_ID, DESCENDANT_DEVICE_ID, DEPTH)
+/
+
+CREATE INDEX IDX_DM_DEVICE_ORG_PARENT ON DM_DEVICE_ORGANIZATION(TENANT_ID, PARENT_DEVICE_ID)
+/
+-- END OF DM_DEVICE_ORGANIZATION_CLOSURE TABLE--
+
 -- DM_CEA_POLICIES TABLE --
 
 DECLARE